@@ -0,0 +1,118 @@
+/*
+ * BabyFish, Object Model Framework for Java and JPA.
+ * https://github.com/babyfish-ct/babyfish
+ *
+ * Copyright (c) 2008-2016, Tao Chen
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * Please visit "http://opensource.org/licenses/LGPL-3.0" to know more.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ */
+package org.babyfish.benchmark.collection;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * @author Tao Chen
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ListBenchmark {
+    
+    private static final long SEED = 0x5EEDL;
+
+    @Param
+    private ListKind kind;
+    
+    @Param({ "100", "10000" })
+    private int size;
+    
+    private Integer[] elements;
+    
+    private int[] indexes;
+    
+    private List<Integer> list;
+    
+    private int cursor;
+    
+    @Setup
+    public void setup() {
+        int size = this.size;
+        Integer[] elements = new Integer[size];
+        int[] indexes = new int[size];
+        Random random = new Random(SEED);
+        for (int i = 0; i < size; i++) {
+            elements[i] = i;
+            indexes[i] = random.nextInt(size);
+        }
+        this.elements = elements;
+        this.indexes = indexes;
+        this.list = this.fill();
+        this.cursor = 0;
+    }
+    
+    @Benchmark
+    public Integer get() {
+        return this.list.get(this.indexes[this.next()]);
+    }
+    
+    @Benchmark
+    public List<Integer> add() {
+        return this.fill();
+    }
+    
+    @Benchmark
+    public void removeAndAdd() {
+        int index = this.indexes[this.next()];
+        List<Integer> list = this.list;
+        list.add(index, list.remove(index));
+    }
+    
+    @Benchmark
+    public void iterate(Blackhole blackhole) {
+        for (Integer e : this.list) {
+            blackhole.consume(e);
+        }
+    }
+    
+    private List<Integer> fill() {
+        Integer[] elements = this.elements;
+        List<Integer> list = this.kind.create();
+        for (int i = 0; i < elements.length; i++) {
+            list.add(elements[i]);
+        }
+        return list;
+    }
+    
+    private int next() {
+        int index = this.cursor;
+        this.cursor = index + 1 == this.size ? 0 : index + 1;
+        return index;
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * BabyFish, Object Model Framework for Java and JPA.
+ * https://github.com/babyfish-ct/babyfish
+ *
+ * Copyright (c) 2008-2016, Tao Chen
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * Please visit "http://opensource.org/licenses/LGPL-3.0" to know more.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ */
+package org.babyfish.benchmark.collection;
+
+import java.util.List;
+
+import org.babyfish.collection.ArrayList;
+import org.babyfish.collection.LinkedList;
+import org.babyfish.collection.MAArrayList;
+import org.babyfish.collection.MALinkedList;
+import org.babyfish.collection.MAList;
+import org.babyfish.collection.event.ListElementEvent;
+import org.babyfish.collection.event.ListElementListener;
+
+/**
+ * @author Tao Chen
+ */
+public enum ListKind {
+    
+    JDK_ARRAY_LIST {
+        @Override
+        List<Integer> create() {
+            return new java.util.ArrayList<>();
+        }
+    },
+    X_ARRAY_LIST {
+        @Override
+        List<Integer> create() {
+            return new ArrayList<>();
+        }
+    },
+    MA_ARRAY_LIST {
+        @Override
+        List<Integer> create() {
+            return new MAArrayList<>();
+        }
+    },
+    MA_ARRAY_LIST_LISTENED {
+        @Override
+        List<Integer> create() {
+            return listen(new MAArrayList<>());
+        }
+    },
+    JDK_LINKED_LIST {
+        @Override
+        List<Integer> create() {
+            return new java.util.LinkedList<>();
+        }
+    },
+    X_LINKED_LIST {
+        @Override
+        List<Integer> create() {
+            return new LinkedList<>();
+        }
+    },
+    MA_LINKED_LIST {
+        @Override
+        List<Integer> create() {
+            return new MALinkedList<>();
+        }
+    },
+    MA_LINKED_LIST_LISTENED {
+        @Override
+        List<Integer> create() {
+            return listen(new MALinkedList<>());
+        }
+    };
+    
+    abstract List<Integer> create();
+    
+    private static <L extends MAList<Integer>> L listen(L list) {
+        list.addListElementListener(new CountingListener());
+        return list;
+    }
+    
+    private static class CountingListener implements ListElementListener<Integer> {
+        
+        int modifyingCount;
+        
+        int modifiedCount;
+
+        @Override
+        public void modifying(ListElementEvent<Integer> e) throws Throwable {
+            this.modifyingCount++;
+        }
+
+        @Override
+        public void modified(ListElementEvent<Integer> e) throws Throwable {
+            this.modifiedCount++;
+        }
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * BabyFish, Object Model Framework for Java and JPA.
+ * https://github.com/babyfish-ct/babyfish
+ *
+ * Copyright (c) 2008-2016, Tao Chen
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * Please visit "http://opensource.org/licenses/LGPL-3.0" to know more.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ */
+package org.babyfish.benchmark.collection;
+
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * @author Tao Chen
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapBenchmark {
+    
+    private static final long SEED = 0x5EEDL;
+
+    @Param
+    private MapKind kind;
+    
+    @Param({ "100", "10000" })
+    private int size;
+    
+    private Integer[] keys;
+    
+    private String[] values;
+    
+    private Map<Integer, String> map;
+    
+    private int cursor;
+    
+    @Setup
+    public void setup() {
+        int size = this.size;
+        Integer[] keys = new Integer[size];
+        String[] values = new String[size];
+        for (int i = 0; i < size; i++) {
+            keys[i] = i;
+            values[i] = "value-" + i;
+        }
+        Random random = new Random(SEED);
+        for (int i = size - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            Integer tmpKey = keys[i];
+            keys[i] = keys[j];
+            keys[j] = tmpKey;
+            String tmpValue = values[i];
+            values[i] = values[j];
+            values[j] = tmpValue;
+        }
+        this.keys = keys;
+        this.values = values;
+        this.map = this.fill();
+        this.cursor = 0;
+    }
+    
+    @Benchmark
+    public String get() {
+        return this.map.get(this.keys[this.next()]);
+    }
+    
+    @Benchmark
+    public Map<Integer, String> put() {
+        return this.fill();
+    }
+    
+    @Benchmark
+    public String removeAndPut() {
+        int index = this.next();
+        Integer key = this.keys[index];
+        this.map.remove(key);
+        return this.map.put(key, this.values[index]);
+    }
+    
+    @Benchmark
+    public void iterate(Blackhole blackhole) {
+        for (Entry<Integer, String> e : this.map.entrySet()) {
+            blackhole.consume(e.getKey());
+            blackhole.consume(e.getValue());
+        }
+    }
+    
+    private Map<Integer, String> fill() {
+        Integer[] keys = this.keys;
+        String[] values = this.values;
+        Map<Integer, String> map = this.kind.create();
+        for (int i = 0; i < keys.length; i++) {
+            map.put(keys[i], values[i]);
+        }
+        return map;
+    }
+    
+    private int next() {
+        int index = this.cursor;
+        this.cursor = index + 1 == this.size ? 0 : index + 1;
+        return index;
+    }
+}
@@ -0,0 +1,213 @@
+/*
+ * BabyFish, Object Model Framework for Java and JPA.
+ * https://github.com/babyfish-ct/babyfish
+ *
+ * Copyright (c) 2008-2016, Tao Chen
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * Please visit "http://opensource.org/licenses/LGPL-3.0" to know more.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ */
+package org.babyfish.benchmark.collection;
+
+import java.util.Map;
+
+import org.babyfish.collection.BidiType;
+import org.babyfish.collection.EqualityComparator;
+import org.babyfish.collection.HashMap;
+import org.babyfish.collection.LinkedHashMap;
+import org.babyfish.collection.MAHashMap;
+import org.babyfish.collection.MALinkedHashMap;
+import org.babyfish.collection.MAMap;
+import org.babyfish.collection.MATreeMap;
+import org.babyfish.collection.TreeMap;
+import org.babyfish.collection.event.MapElementEvent;
+import org.babyfish.collection.event.MapElementListener;
+
+/**
+ * @author Tao Chen
+ */
+public enum MapKind {
+    
+    JDK_HASH_MAP {
+        @Override
+        Map<Integer, String> create() {
+            return new java.util.HashMap<>();
+        }
+    },
+    X_HASH_MAP {
+        @Override
+        Map<Integer, String> create() {
+            return new HashMap<>();
+        }
+    },
+    MA_HASH_MAP {
+        @Override
+        Map<Integer, String> create() {
+            return new MAHashMap<>();
+        }
+    },
+    MA_HASH_MAP_LISTENED {
+        @Override
+        Map<Integer, String> create() {
+            return listen(new MAHashMap<>());
+        }
+    },
+    X_HASH_MAP_EQUALITY_COMPARATOR {
+        @Override
+        Map<Integer, String> create() {
+            return new HashMap<>(IntegerEqualityComparator.INSTANCE);
+        }
+    },
+    MA_HASH_MAP_EQUALITY_COMPARATOR {
+        @Override
+        Map<Integer, String> create() {
+            return new MAHashMap<>(IntegerEqualityComparator.INSTANCE);
+        }
+    },
+    X_HASH_MAP_BIDI {
+        @Override
+        Map<Integer, String> create() {
+            return new HashMap<>(BidiType.NONNULL_VALUES);
+        }
+    },
+    MA_HASH_MAP_BIDI {
+        @Override
+        Map<Integer, String> create() {
+            return new MAHashMap<>(BidiType.NONNULL_VALUES);
+        }
+    },
+    MA_HASH_MAP_BIDI_LISTENED {
+        @Override
+        Map<Integer, String> create() {
+            return listen(new MAHashMap<>(BidiType.NONNULL_VALUES));
+        }
+    },
+    JDK_LINKED_HASH_MAP {
+        @Override
+        Map<Integer, String> create() {
+            return new java.util.LinkedHashMap<>();
+        }
+    },
+    X_LINKED_HASH_MAP {
+        @Override
+        Map<Integer, String> create() {
+            return new LinkedHashMap<>();
+        }
+    },
+    MA_LINKED_HASH_MAP {
+        @Override
+        Map<Integer, String> create() {
+            return new MALinkedHashMap<>();
+        }
+    },
+    MA_LINKED_HASH_MAP_LISTENED {
+        @Override
+        Map<Integer, String> create() {
+            return listen(new MALinkedHashMap<>());
+        }
+    },
+    MA_LINKED_HASH_MAP_EQUALITY_COMPARATOR {
+        @Override
+        Map<Integer, String> create() {
+            return new MALinkedHashMap<>(IntegerEqualityComparator.INSTANCE);
+        }
+    },
+    MA_LINKED_HASH_MAP_BIDI {
+        @Override
+        Map<Integer, String> create() {
+            return new MALinkedHashMap<>(BidiType.NONNULL_VALUES);
+        }
+    },
+    JDK_TREE_MAP {
+        @Override
+        Map<Integer, String> create() {
+            return new java.util.TreeMap<>();
+        }
+    },
+    X_TREE_MAP {
+        @Override
+        Map<Integer, String> create() {
+            return new TreeMap<>();
+        }
+    },
+    MA_TREE_MAP {
+        @Override
+        Map<Integer, String> create() {
+            return new MATreeMap<>();
+        }
+    },
+    MA_TREE_MAP_LISTENED {
+        @Override
+        Map<Integer, String> create() {
+            return listen(new MATreeMap<>());
+        }
+    },
+    X_TREE_MAP_BIDI {
+        @Override
+        Map<Integer, String> create() {
+            return new TreeMap<>(BidiType.NONNULL_VALUES);
+        }
+    },
+    MA_TREE_MAP_BIDI {
+        @Override
+        Map<Integer, String> create() {
+            return new MATreeMap<>(BidiType.NONNULL_VALUES);
+        }
+    };
+    
+    abstract Map<Integer, String> create();
+    
+    private static <M extends MAMap<Integer, String>> M listen(M map) {
+        map.addMapElementListener(new CountingListener());
+        return map;
+    }
+    
+    /*
+     * The listener does almost nothing so that the measured cost
+     * is the event creation and dispatching of the MA layer itself.
+     */
+    private static class CountingListener implements MapElementListener<Integer, String> {
+        
+        int modifyingCount;
+        
+        int modifiedCount;
+
+        @Override
+        public void modifying(MapElementEvent<Integer, String> e) throws Throwable {
+            this.modifyingCount++;
+        }
+
+        @Override
+        public void modified(MapElementEvent<Integer, String> e) throws Throwable {
+            this.modifiedCount++;
+        }
+    }
+    
+    /*
+     * Behaves like the default equality but forces
+     * the collection to invoke a custom comparator.
+     */
+    private static class IntegerEqualityComparator implements EqualityComparator<Integer> {
+        
+        static final IntegerEqualityComparator INSTANCE = new IntegerEqualityComparator();
+
+        @Override
+        public int hashCode(Integer o) {
+            int h = o.intValue();
+            return h ^ (h >>> 16);
+        }
+
+        @Override
+        public boolean equals(Integer o1, Integer o2) {
+            return o1.intValue() == o2.intValue();
+        }
+    }
+}
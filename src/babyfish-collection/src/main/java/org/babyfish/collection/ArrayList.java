@@ -27,6 +27,8 @@ import java.util.RandomAccess;
 
 import org.babyfish.collection.spi.AbstractXList;
 import org.babyfish.collection.spi.base.ArrayElements;
+import org.babyfish.collection.spi.base.BaseElements;
+import org.babyfish.collection.spi.base.TieredArrayElements;
 
 /**
  * @author Tao Chen
@@ -987,11 +989,62 @@ public class ArrayList<E> extends AbstractXList<E> implements RandomAccess, Seri
         this.addAll(c);
     }
 
+    public ArrayList(ArrayStorage storage) {
+        this(
+                ArrayList.<E>createBaseElements(
+                        storage,
+                        BidiType.NONE,
+                        null,
+                        8
+                )
+        );
+    }
+
+    public ArrayList(
+            ArrayStorage storage,
+            BidiType bidiType, 
+            UnifiedComparator<? super E> unifiedComparator,
+            int initCapacity) {
+        this(
+                ArrayList.<E>createBaseElements(
+                        storage,
+                        bidiType,
+                        unifiedComparator,
+                        initCapacity
+                )
+        );
+    }
+    
+    private ArrayList(BaseElements<E> baseElements) {
+        super(baseElements);
+    }
+
     @Override
     public XListView<E> subList(int fromIndex, int toIndex) {
         return new SubListImpl<E>(this, fromIndex, toIndex);
     }
     
+    private static <E> BaseElements<E> createBaseElements(
+            ArrayStorage storage,
+            BidiType bidiType, 
+            Object comparatorOrEqualityComparatorOrUnifiedComparator,
+            int initCapacity) {
+        if (storage == ArrayStorage.TIERED) {
+            return new TieredArrayElements<E>(
+                    bidiType,
+                    comparatorOrEqualityComparatorOrUnifiedComparator,
+                    initCapacity
+            );
+        }
+        return new ArrayElements<E>(
+                bidiType,
+                comparatorOrEqualityComparatorOrUnifiedComparator,
+                initCapacity,
+                1.5F,
+                .75F
+        );
+    }
+    
     private void writeObject(ObjectOutputStream out) throws IOException {
         this.writeState(out);
     }
@@ -1027,7 +1080,11 @@ public class ArrayList<E> extends AbstractXList<E> implements RandomAccess, Seri
         private float expandFactor = 1.5F;
 
         private Float collapseFactor = .75F;
+
+        private ArrayStorage storage = ArrayStorage.CONTIGUOUS;
         
+        private boolean hashIndexed;
+
         public Builder<E> setBidiType(BidiType bidiType) {
             this.bidiType = bidiType != null ? bidiType : BidiType.NONE;
             return this;
@@ -1123,7 +1180,39 @@ public class ArrayList<E> extends AbstractXList<E> implements RandomAccess, Seri
             return this;
         }
 
+        public Builder<E> setStorage(ArrayStorage storage) {
+            this.storage = storage != null ? storage : ArrayStorage.CONTIGUOUS;
+            return this;
+        }
+
+        public Builder<E> setHashIndexed(boolean hashIndexed) {
+            this.hashIndexed = hashIndexed;
+            return this;
+        }
+
         public ArrayList<E> build() {
+            ArrayList<E> list = this.create();
+            if (this.hashIndexed) {
+                list.<BaseElements<E>>getBaseElements().initHashIndex();
+            }
+            return list;
+        }
+        
+        private ArrayList<E> create() {
+            if (this.storage != ArrayStorage.CONTIGUOUS) {
+                return new ArrayList<>(
+                        ArrayList.<E>createBaseElements(
+                                this.storage,
+                                this.bidiType,
+                                this.equalityComparator != null ? 
+                                        this.equalityComparator : 
+                                        this.comparator != null ?
+                                                this.comparator :
+                                                this.unifiedComparator,
+                                this.initCapacity
+                        )
+                );
+            }
             if (this.equalityComparator != null) {
                 return new ArrayList<>(
                         this.bidiType,
@@ -0,0 +1,37 @@
+/*
+ * BabyFish, Object Model Framework for Java and JPA.
+ * https://github.com/babyfish-ct/babyfish
+ *
+ * Copyright (c) 2008-2016, Tao Chen
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * Please visit "http://opensource.org/licenses/LGPL-3.0" to know more.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ */
+package org.babyfish.collection;
+
+/**
+ * The storage algorithm of the array based lists.
+ * 
+ * <ul>
+ *  <li>{@link #CONTIGUOUS}: All the elements are stored in one array,
+ *  inserting or removing an element in the middle shifts all the 
+ *  following elements, this is the default storage.</li>
+ *  <li>{@link #TIERED}: The elements are stored in several circular blocks 
+ *  whose capacity is about sqrt(n), getting an element by index is still O(1), 
+ *  but inserting or removing an element in the middle only costs O(sqrt(n)).</li>
+ * </ul>
+ * 
+ * @author Tao Chen
+ */
+public enum ArrayStorage {
+    CONTIGUOUS,
+    TIERED,
+}
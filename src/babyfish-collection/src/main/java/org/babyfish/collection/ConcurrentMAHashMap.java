@@ -0,0 +1,957 @@
+/*
+ * BabyFish, Object Model Framework for Java and JPA.
+ * https://github.com/babyfish-ct/babyfish
+ *
+ * Copyright (c) 2008-2016, Tao Chen
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * Please visit "http://opensource.org/licenses/LGPL-3.0" to know more.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ */
+package org.babyfish.collection;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.babyfish.collection.event.MapElementEvent;
+import org.babyfish.collection.event.MapElementListener;
+import org.babyfish.collection.event.MapElementModificationAware;
+import org.babyfish.collection.event.modification.MapModifications;
+import org.babyfish.collection.spi.wrapper.event.AbstractMapElementEventDispatcher;
+import org.babyfish.data.ModificationException;
+import org.babyfish.data.event.AttributeScope;
+import org.babyfish.data.event.PropertyVersion;
+import org.babyfish.lang.Arguments;
+
+/**
+ * The concurrent modification-aware hash map whose entries are striped 
+ * into several segments by the hash codes of the keys, each segment is 
+ * an {@link MAHashMap} guarded by its own {@link OptimisticReadWriteLock}.
+ * 
+ * <ul>
+ *  <li>The reads of a single key try the optimistic read without any lock.</li>
+ *  <li>The modifications of a single key, include {@link #putIfAbsent(Object, Object)}
+ *  and {@link #compute(Object, BiFunction)}, are atomic because they hold the 
+ *  write lock of the segment. The functions must neither access this map again
+ *  nor change the frozen keys of this map, because the lock is not reentrant.</li>
+ *  <li>{@link #putAll(Map)} groups the entries by segment and puts each group 
+ *  under one write lock, so it and {@link #clear()} are atomic for each segment, 
+ *  not for the whole map.</li>
+ *  <li>The iterators of the views are weakly consistent, each segment is copied 
+ *  when the iterator reaches it.</li>
+ * </ul>
+ * 
+ * <p>The {@link MapElementEvent}s are raised with this map as their source.
+ * <b>{@link MapElementListener#modifying(MapElementEvent)} is invoked under 
+ * the write lock of the segment so that it can still cancel the modification, 
+ * it must not access this map, otherwise the thread is dead locked.</b>
+ * {@link MapElementListener#modified(MapElementEvent)} is invoked after 
+ * the write lock is released, so it can access this map freely.
+ * The events of different segments, and the modified events of one segment, 
+ * can be raised concurrently by different threads, so the listeners must be 
+ * thread-safe.</p>
+ * 
+ * <p>The {@link FrozenContext} works for each segment, it suspends and resumes 
+ * the entry under the write lock of the segment which contains it. 
+ * If the resumed key should belong to another segment, the resuming locks both 
+ * segments in the order of their indexes and moves the entry into the other segment 
+ * before any lock is released, so the readers never miss the resumed key.</p>
+ * 
+ * <p>This class extends {@link AbstractMap} and only implements 
+ * {@link MapElementModificationAware}, it deliberately sits outside the 
+ * {@link MAMap} API: its views are weakly consistent snapshots of the segments 
+ * and they are neither modification-aware nor unified-comparator-aware, because 
+ * the view events of the MA collections can not be raised consistently 
+ * across several segments that are locked independently.</p>
+ * 
+ * @author Tao Chen
+ */
+public class ConcurrentMAHashMap<K, V> 
+extends AbstractMap<K, V> 
+implements ConcurrentMap<K, V>, MapElementModificationAware<K, V>, Serializable {
+    
+    private static final long serialVersionUID = -3064262707327598125L;
+
+    private static final int DEFAULT_CONCURRENCY_LEVEL = 16;
+    
+    private static final int MAX_SEGMENT_COUNT = 1 << 16;
+    
+    private static final Object AK_MAP_ELEMENT_LISTENER = new Object();
+    
+    private EqualityComparator<? super K> keyEqualityComparator;
+    
+    private transient Segment<K, V>[] segments;
+    
+    private transient int segmentShift;
+    
+    private transient volatile MapElementListener<K, V> mapElementListener;
+    
+    private transient Set<Entry<K, V>> entrySet;
+    
+    private transient Set<K> keySet;
+    
+    public ConcurrentMAHashMap() {
+        this(null, DEFAULT_CONCURRENCY_LEVEL);
+    }
+    
+    public ConcurrentMAHashMap(int concurrencyLevel) {
+        this(null, concurrencyLevel);
+    }
+    
+    public ConcurrentMAHashMap(EqualityComparator<? super K> keyEqualityComparator) {
+        this(keyEqualityComparator, DEFAULT_CONCURRENCY_LEVEL);
+    }
+    
+    public ConcurrentMAHashMap(EqualityComparator<? super K> keyEqualityComparator, int concurrencyLevel) {
+        Arguments.mustBeGreaterThanValue("concurrencyLevel", concurrencyLevel, 0);
+        this.keyEqualityComparator = keyEqualityComparator;
+        this.init(concurrencyLevel);
+    }
+    
+    public final EqualityComparator<? super K> keyEqualityComparator() {
+        return this.keyEqualityComparator;
+    }
+    
+    /**
+     * @return How many segments are used by this map, 
+     * it is the minimal power of two that is not less than the concurrency level.
+     */
+    public final int segmentCount() {
+        return this.segments.length;
+    }
+
+    @Override
+    public int size() {
+        long size = 0;
+        for (Segment<K, V> segment : this.segments) {
+            MAHashMap<K, V> map = segment.map;
+            size += segment.lock.read(map::size, map::size);
+        }
+        return size > Integer.MAX_VALUE ? Integer.MAX_VALUE : (int)size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        for (Segment<K, V> segment : this.segments) {
+            MAHashMap<K, V> map = segment.map;
+            if (!segment.lock.read(map::isEmpty, map::isEmpty)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public V get(Object key) {
+        Segment<K, V> segment = this.segmentFor(key);
+        MAHashMap<K, V> map = segment.map;
+        return segment.lock.read(
+                () -> map.getOptimistically(key), 
+                () -> map.get(key));
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        Segment<K, V> segment = this.segmentFor(key);
+        MAHashMap<K, V> map = segment.map;
+        return segment.lock.read(
+                () -> map.containsKeyOptimistically(key), 
+                () -> map.containsKey(key));
+    }
+
+    @Override
+    public boolean containsValue(Object value) {
+        for (Segment<K, V> segment : this.segments) {
+            if (this.read(segment, () -> segment.map.containsValue(value))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public V put(K key, V value) {
+        return this.write(this.segmentFor(key), map -> map.put(key, value));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public void putAll(Map<? extends K, ? extends V> m) {
+        Segment<K, V>[] segments = this.segments;
+        List<Object>[] groups = new List[segments.length];
+        for (Entry<? extends K, ? extends V> e : m.entrySet()) {
+            int index = this.segmentFor(e.getKey()).index;
+            List<Object> group = groups[index];
+            if (group == null) {
+                groups[index] = group = new ArrayList<>();
+            }
+            group.add(e.getKey());
+            group.add(e.getValue());
+        }
+        for (int i = 0; i < groups.length; i++) {
+            List<Object> group = groups[i];
+            if (group != null) {
+                this.write(segments[i], map -> {
+                    for (Iterator<Object> itr = group.iterator(); itr.hasNext();) {
+                        map.put((K)itr.next(), (V)itr.next());
+                    }
+                    return null;
+                });
+            }
+        }
+    }
+
+    @Override
+    public V remove(Object key) {
+        return this.write(this.segmentFor(key), map -> map.remove(key));
+    }
+
+    @Override
+    public void clear() {
+        for (Segment<K, V> segment : this.segments) {
+            this.write(segment, map -> {
+                map.clear();
+                return null;
+            });
+        }
+    }
+
+    @Override
+    public V putIfAbsent(K key, V value) {
+        return this.write(this.segmentFor(key), map -> map.putIfAbsent(key, value));
+    }
+
+    @Override
+    public boolean remove(Object key, Object value) {
+        return this.write(this.segmentFor(key), map -> map.remove(key, value));
+    }
+
+    @Override
+    public boolean replace(K key, V oldValue, V newValue) {
+        return this.write(this.segmentFor(key), map -> map.replace(key, oldValue, newValue));
+    }
+
+    @Override
+    public V replace(K key, V value) {
+        return this.write(this.segmentFor(key), map -> map.replace(key, value));
+    }
+
+    @Override
+    public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+        Arguments.mustNotBeNull("mappingFunction", mappingFunction);
+        return this.write(this.segmentFor(key), map -> map.computeIfAbsent(key, mappingFunction));
+    }
+
+    @Override
+    public V computeIfPresent(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+        Arguments.mustNotBeNull("remappingFunction", remappingFunction);
+        return this.write(this.segmentFor(key), map -> map.computeIfPresent(key, remappingFunction));
+    }
+
+    @Override
+    public V compute(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+        Arguments.mustNotBeNull("remappingFunction", remappingFunction);
+        return this.write(this.segmentFor(key), map -> map.compute(key, remappingFunction));
+    }
+
+    @Override
+    public V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+        Arguments.mustNotBeNull("remappingFunction", remappingFunction);
+        return this.write(this.segmentFor(key), map -> map.merge(key, value, remappingFunction));
+    }
+
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        Set<Entry<K, V>> entrySet = this.entrySet;
+        if (entrySet == null) {
+            this.entrySet = entrySet = new EntrySetImpl();
+        }
+        return entrySet;
+    }
+
+    @Override
+    public Set<K> keySet() {
+        Set<K> keySet = this.keySet;
+        if (keySet == null) {
+            this.keySet = keySet = new KeySetImpl();
+        }
+        return keySet;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public synchronized void addMapElementListener(MapElementListener<? super K, ? super V> listener) {
+        this.mapElementListener = MapElementListener.combine(
+                this.mapElementListener, 
+                (MapElementListener<K, V>)listener);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public synchronized void removeMapElementListener(MapElementListener<? super K, ? super V> listener) {
+        this.mapElementListener = MapElementListener.remove(
+                this.mapElementListener, 
+                (MapElementListener<K, V>)listener);
+    }
+    
+    protected void onModifying(MapElementEvent<K, V> e) throws Throwable {
+        
+    }
+    
+    protected void onModified(MapElementEvent<K, V> e) throws Throwable {
+        
+    }
+    
+    protected void raiseModifying(MapElementEvent<K, V> e) throws Throwable {
+        MapElementListener<K, V> mapElementListener = this.mapElementListener;
+        if (mapElementListener != null) {
+            e
+            .getAttributeContext(AttributeScope.LOCAL)
+            .addAttribute(AK_MAP_ELEMENT_LISTENER, mapElementListener);
+            mapElementListener.modifying(e);
+        }
+    }
+    
+    @SuppressWarnings("unchecked")
+    protected void raiseModified(MapElementEvent<K, V> e) throws Throwable {
+        MapElementListener<K, V> mapElementListener = 
+            (MapElementListener<K, V>)
+            e
+            .getAttributeContext(AttributeScope.LOCAL)
+            .removeAttribute(AK_MAP_ELEMENT_LISTENER);
+        if (mapElementListener != null) {
+            mapElementListener.modified(e);
+        }
+    }
+    
+    private void executeModifying(MapElementEvent<K, V> e) {
+        Throwable finalThrowable = null;
+        try {
+            this.onModifying(e);    
+        } catch (Throwable ex) {
+            finalThrowable = ex;
+        }
+        try {
+            this.raiseModifying(e);
+        } catch (Throwable ex) {
+            if (finalThrowable == null) {
+                finalThrowable = ex;
+            }
+        }
+        if (finalThrowable != null) {
+            throw new ModificationException(false, e, finalThrowable);
+        }
+    }
+    
+    private void executeModified(MapElementEvent<K, V> e) {
+        Throwable finalThrowable = null;
+        try {
+            this.raiseModified(e);
+        } catch (Throwable ex) {
+            finalThrowable = ex;
+        }
+        try {
+            this.onModified(e);
+        } catch (Throwable ex) {
+            if (finalThrowable == null) {
+                finalThrowable = ex;
+            }
+        }
+        if (finalThrowable != null) {
+            throw new ModificationException(true, e, finalThrowable);
+        }
+    }
+    
+    @SuppressWarnings("unchecked")
+    private void init(int concurrencyLevel) {
+        int segmentCount = 1;
+        int shift = 0;
+        while (segmentCount < concurrencyLevel && segmentCount < MAX_SEGMENT_COUNT) {
+            segmentCount <<= 1;
+            shift++;
+        }
+        Segment<K, V>[] segments = new Segment[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new Segment<>(this, i);
+        }
+        this.segments = segments;
+        this.segmentShift = 32 - shift;
+    }
+    
+    /*
+     * The segment is selected by the high bits of the multiplicative hash
+     * so that it is independent of the bucket index of the HashEntries of 
+     * that segment, which is decided by the low bits.
+     */
+    @SuppressWarnings("unchecked")
+    private Segment<K, V> segmentFor(Object key) {
+        Segment<K, V>[] segments = this.segments;
+        if (segments.length == 1 || key == null) {
+            return segments[0];
+        }
+        EqualityComparator<? super K> keyEqualityComparator = this.keyEqualityComparator;
+        int h = keyEqualityComparator != null ? 
+                keyEqualityComparator.hashCode((K)key) : 
+                key.hashCode();
+        return segments[(h * 0x9E3779B9) >>> this.segmentShift];
+    }
+    
+    private <R> R read(Segment<K, V> segment, Supplier<R> reader) {
+        StampedLock stampedLock = segment.lock.getStampedLock();
+        long stamp = stampedLock.readLock();
+        try {
+            return reader.get();
+        } finally {
+            stampedLock.unlockRead(stamp);
+        }
+    }
+    
+    private <R> R write(Segment<K, V> segment, Function<MAHashMap<K, V>, R> writer) {
+        return this.write(segment, () -> writer.apply(segment.map));
+    }
+    
+    /*
+     * The modified events and the misplaced keys of the segment are collected 
+     * under the write lock and processed after it is released, so the listeners 
+     * can access this map and the keys are relocated by the thread which 
+     * resumed them. If the writer fails, its exception is not replaced by 
+     * the exceptions of the listeners.
+     */
+    private <R> R write(Segment<K, V> segment, Supplier<R> writer) {
+        StampedLock stampedLock = segment.lock.getStampedLock();
+        long stamp = stampedLock.writeLock();
+        boolean completed = false;
+        try {
+            R result = writer.get();
+            completed = true;
+            return result;
+        } finally {
+            Pending<K, V> pending = segment.takePending();
+            stampedLock.unlockWrite(stamp);
+            if (pending != null) {
+                this.complete(pending, completed);
+            }
+        }
+    }
+    
+    /*
+     * The FrozenContext suspends a key, changes it and resumes it, the segments 
+     * which the suspended keys of this segment belong to now are locked together 
+     * with this segment, so the resumed key can be moved into its new segment 
+     * before any lock is released. The segments are locked in the order of their 
+     * indexes to avoid dead lock, so this segment is unlocked and locked again 
+     * if the other segments are found after it is locked.
+     */
+    private <R> R writeViaFrozenContext(Segment<K, V> segment, Supplier<R> action) {
+        BitSet indexes = new BitSet();
+        indexes.set(segment.index);
+        SegmentLocks<K, V> locks;
+        while (true) {
+            locks = new SegmentLocks<>(this.segments, indexes);
+            boolean added = false;
+            for (K key : segment.suspendedKeys) {
+                int index = this.segmentFor(key).index;
+                if (!indexes.get(index)) {
+                    indexes.set(index);
+                    added = true;
+                }
+            }
+            if (!added) {
+                break;
+            }
+            locks.unlock(this, true);
+        }
+        boolean completed = false;
+        try {
+            R result = action.get();
+            Pending<K, V> pending = segment.pending;
+            if (pending != null) {
+                for (Iterator<K> itr = pending.misplacedKeys.iterator(); itr.hasNext();) {
+                    K key = itr.next();
+                    Segment<K, V> target = this.segmentFor(key);
+                    if (indexes.get(target.index)) {
+                        if (segment.map.containsKey(key)) {
+                            target.map.put(key, segment.map.remove(key));
+                        }
+                        itr.remove();
+                    }
+                }
+            }
+            completed = true;
+            return result;
+        } finally {
+            locks.unlock(this, completed);
+        }
+    }
+    
+    /*
+     * Only the keys that are changed by another thread during the resuming 
+     * can still be misplaced after "writeViaFrozenContext", they are moved 
+     * after the lock is released.
+     */
+    private void relocate(Segment<K, V> source, K key) {
+        Segment<K, V> target = this.segmentFor(key);
+        if (source == target) {
+            return;
+        }
+        // Lock the segments by their order to avoid dead lock
+        Segment<K, V> first = source.index < target.index ? source : target;
+        Segment<K, V> second = source.index < target.index ? target : source;
+        StampedLock firstLock = first.lock.getStampedLock();
+        StampedLock secondLock = second.lock.getStampedLock();
+        Pending<K, V> firstPending;
+        Pending<K, V> secondPending;
+        boolean completed = false;
+        long firstStamp = firstLock.writeLock();
+        try {
+            long secondStamp = secondLock.writeLock();
+            try {
+                if (source.map.containsKey(key)) {
+                    target.map.put(key, source.map.remove(key));
+                }
+                completed = true;
+            } finally {
+                secondPending = second.takePending();
+                secondLock.unlockWrite(secondStamp);
+            }
+        } finally {
+            firstPending = first.takePending();
+            firstLock.unlockWrite(firstStamp);
+        }
+        if (firstPending != null) {
+            this.complete(firstPending, completed);
+        }
+        if (secondPending != null) {
+            this.complete(secondPending, completed);
+        }
+    }
+    
+    private void complete(Pending<K, V> pending, boolean throwException) {
+        ModificationException finalException = null;
+        for (MapElementEvent<K, V> e : pending.modifiedEvents) {
+            try {
+                this.executeModified(e);
+            } catch (ModificationException ex) {
+                if (finalException == null) {
+                    finalException = ex;
+                }
+            }
+        }
+        for (K key : pending.misplacedKeys) {
+            this.relocate(pending.segment, key);
+        }
+        if (finalException != null && throwException) {
+            throw finalException;
+        }
+    }
+    
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        out.defaultWriteObject();
+        out.writeInt(this.segments.length);
+        for (Segment<K, V> segment : this.segments) {
+            Object[] arr = this.read(segment, () -> {
+                Object[] entries = new Object[segment.map.size() << 1];
+                int index = 0;
+                for (Entry<K, V> e : segment.map.entrySet()) {
+                    entries[index++] = e.getKey();
+                    entries[index++] = e.getValue();
+                }
+                return entries;
+            });
+            out.writeInt(arr.length >> 1);
+            for (Object o : arr) {
+                out.writeObject(o);
+            }
+        }
+    }
+    
+    @SuppressWarnings("unchecked")
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        int segmentCount = in.readInt();
+        this.init(segmentCount);
+        for (int i = 0; i < segmentCount; i++) {
+            for (int size = in.readInt(); size > 0; size--) {
+                K key = (K)in.readObject();
+                V value = (V)in.readObject();
+                this.segmentFor(key).map.put(key, value);
+            }
+        }
+    }
+    
+    private static class Segment<K, V> {
+        
+        final int index;
+        
+        final MAHashMap<K, V> map;
+        
+        final OptimisticReadWriteLock lock;
+        
+        // Guarded by the write lock
+        private Pending<K, V> pending;
+        
+        // Guarded by the write lock, the keys are compared by identity
+        final List<K> suspendedKeys = new ArrayList<>();
+        
+        Segment(ConcurrentMAHashMap<K, V> owner, int index) {
+            this.index = index;
+            this.map = new SegmentMap<>(owner, this);
+            this.lock = new OptimisticReadWriteLock();
+            this.map.addMapElementListener(new EventDispatcher<>(owner, this));
+            this.map.addMapElementListener(new RelocationListener<>(owner, this));
+        }
+        
+        Pending<K, V> pending() {
+            Pending<K, V> pending = this.pending;
+            if (pending == null) {
+                this.pending = pending = new Pending<>(this);
+            }
+            return pending;
+        }
+        
+        Pending<K, V> takePending() {
+            Pending<K, V> pending = this.pending;
+            this.pending = null;
+            return pending;
+        }
+    }
+    
+    private static class SegmentLocks<K, V> {
+        
+        private final Segment<K, V>[] segments;
+        
+        private final long[] stamps;
+        
+        @SuppressWarnings("unchecked")
+        SegmentLocks(Segment<K, V>[] allSegments, BitSet indexes) {
+            Segment<K, V>[] segments = new Segment[indexes.cardinality()];
+            long[] stamps = new long[segments.length];
+            int count = 0;
+            try {
+                for (int i = indexes.nextSetBit(0); i != -1; i = indexes.nextSetBit(i + 1)) {
+                    Segment<K, V> segment = allSegments[i];
+                    stamps[count] = segment.lock.getStampedLock().writeLock();
+                    segments[count++] = segment;
+                }
+            } catch (RuntimeException | Error ex) {
+                while (--count >= 0) {
+                    segments[count].lock.getStampedLock().unlockWrite(stamps[count]);
+                }
+                throw ex;
+            }
+            this.segments = segments;
+            this.stamps = stamps;
+        }
+        
+        void unlock(ConcurrentMAHashMap<K, V> owner, boolean throwException) {
+            Segment<K, V>[] segments = this.segments;
+            List<Pending<K, V>> pendings = null;
+            for (int i = segments.length - 1; i >= 0; i--) {
+                Pending<K, V> pending = segments[i].takePending();
+                segments[i].lock.getStampedLock().unlockWrite(this.stamps[i]);
+                if (pending != null) {
+                    if (pendings == null) {
+                        pendings = new ArrayList<>();
+                    }
+                    pendings.add(pending);
+                }
+            }
+            if (pendings != null) {
+                for (Pending<K, V> pending : pendings) {
+                    owner.complete(pending, throwException);
+                }
+            }
+        }
+    }
+    
+    private static class Pending<K, V> {
+        
+        final Segment<K, V> segment;
+        
+        final List<MapElementEvent<K, V>> modifiedEvents = new ArrayList<>();
+        
+        final List<K> misplacedKeys = new ArrayList<>();
+        
+        Pending(Segment<K, V> segment) {
+            this.segment = segment;
+        }
+    }
+    
+    /*
+     * The FrozenContext suspends and resumes the keys of the segment 
+     * under its write lock, like the other modifications.
+     */
+    private static class SegmentMap<K, V> extends MAHashMap<K, V> {
+        
+        private static final long serialVersionUID = 4337946231358367040L;
+
+        private final transient ConcurrentMAHashMap<K, V> owner;
+        
+        private final transient Segment<K, V> segment;
+        
+        SegmentMap(ConcurrentMAHashMap<K, V> owner, Segment<K, V> segment) {
+            super(owner.keyEqualityComparator);
+            this.owner = owner;
+            this.segment = segment;
+        }
+
+        @Override
+        protected <R> R executeViaFrozenContext(Supplier<R> action) {
+            return this.owner.writeViaFrozenContext(this.segment, action);
+        }
+    }
+    
+    private static class EventDispatcher<K, V> extends AbstractMapElementEventDispatcher<K, V> {
+        
+        private final Segment<K, V> segment;
+
+        EventDispatcher(ConcurrentMAHashMap<K, V> owner, Segment<K, V> segment) {
+            super(owner);
+            this.segment = segment;
+        }
+
+        @Override
+        protected boolean isDispatchable() {
+            return this.<ConcurrentMAHashMap<K, V>>getOwner().mapElementListener != null;
+        }
+
+        @Override
+        protected void executePreDispatchedEvent(MapElementEvent<K, V> dispatchedEvent) {
+            this.<ConcurrentMAHashMap<K, V>>getOwner().executeModifying(dispatchedEvent);
+        }
+
+        @Override
+        protected void executePostDispatchedEvent(MapElementEvent<K, V> dispatchedEvent) {
+            this.segment.pending().modifiedEvents.add(dispatchedEvent);
+        }
+    }
+    
+    /*
+     * The segment can not be modified by its own listener, 
+     * so the suspended keys and the misplaced keys are only recorded here, 
+     * the misplaced keys are moved by "writeViaFrozenContext".
+     */
+    private static class RelocationListener<K, V> implements MapElementListener<K, V> {
+        
+        private final ConcurrentMAHashMap<K, V> owner;
+        
+        private final Segment<K, V> segment;
+        
+        RelocationListener(ConcurrentMAHashMap<K, V> owner, Segment<K, V> segment) {
+            this.owner = owner;
+            this.segment = segment;
+        }
+
+        @Override
+        public void modified(MapElementEvent<K, V> e) throws Throwable {
+            if (!e.isModificationSuccessed()) {
+                return;
+            }
+            if (e.getModification() instanceof MapModifications.SuspendViaFrozenContext<?, ?> &&
+                    e.getModificationType().contains(PropertyVersion.DETACH)) {
+                this.segment.suspendedKeys.add(e.getKey(PropertyVersion.DETACH));
+            } else if (e.getModification() instanceof MapModifications.ResumeViaFrozenContext<?, ?> &&
+                    e.getModificationType().contains(PropertyVersion.ATTACH)) {
+                K key = e.getKey(PropertyVersion.ATTACH);
+                List<K> suspendedKeys = this.segment.suspendedKeys;
+                for (int i = suspendedKeys.size() - 1; i >= 0; i--) {
+                    if (suspendedKeys.get(i) == key) {
+                        suspendedKeys.remove(i);
+                        break;
+                    }
+                }
+                if (this.owner.segmentFor(key) != this.segment) {
+                    this.segment.pending().misplacedKeys.add(key);
+                }
+            }
+        }
+    }
+    
+    private abstract class AbstractIteratorImpl<T> implements Iterator<T> {
+        
+        private int segmentIndex;
+        
+        private Object[] entries;
+        
+        private int index;
+        
+        private K lastKey;
+        
+        private boolean hasLastKey;
+
+        @Override
+        public boolean hasNext() {
+            while (this.entries == null || this.index >= this.entries.length) {
+                Segment<K, V>[] segments = ConcurrentMAHashMap.this.segments;
+                if (this.segmentIndex >= segments.length) {
+                    return false;
+                }
+                Segment<K, V> segment = segments[this.segmentIndex++];
+                this.entries = ConcurrentMAHashMap.this.read(segment, () -> {
+                    Object[] entries = new Object[segment.map.size() << 1];
+                    int index = 0;
+                    for (Entry<K, V> e : segment.map.entrySet()) {
+                        entries[index++] = e.getKey();
+                        entries[index++] = e.getValue();
+                    }
+                    return entries;
+                });
+                this.index = 0;
+            }
+            return true;
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public T next() {
+            if (!this.hasNext()) {
+                throw new NoSuchElementException();
+            }
+            K key = (K)this.entries[this.index++];
+            V value = (V)this.entries[this.index++];
+            this.lastKey = key;
+            this.hasLastKey = true;
+            return this.next(key, value);
+        }
+
+        @Override
+        public void remove() {
+            if (!this.hasLastKey) {
+                throw new IllegalStateException();
+            }
+            this.hasLastKey = false;
+            ConcurrentMAHashMap.this.remove(this.lastKey);
+        }
+        
+        abstract T next(K key, V value);
+    }
+    
+    private class EntrySetImpl extends AbstractSet<Entry<K, V>> {
+
+        @Override
+        public Iterator<Entry<K, V>> iterator() {
+            return new AbstractIteratorImpl<Entry<K, V>>() {
+                @Override
+                Entry<K, V> next(K key, V value) {
+                    return new EntryImpl(key, value);
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return ConcurrentMAHashMap.this.size();
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return ConcurrentMAHashMap.this.isEmpty();
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            if (!(o instanceof Entry<?, ?>)) {
+                return false;
+            }
+            Entry<?, ?> e = (Entry<?, ?>)o;
+            V value = ConcurrentMAHashMap.this.get(e.getKey());
+            return value != null && value.equals(e.getValue());
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            if (!(o instanceof Entry<?, ?>)) {
+                return false;
+            }
+            Entry<?, ?> e = (Entry<?, ?>)o;
+            return ConcurrentMAHashMap.this.remove(e.getKey(), e.getValue());
+        }
+
+        @Override
+        public void clear() {
+            ConcurrentMAHashMap.this.clear();
+        }
+    }
+    
+    private class KeySetImpl extends AbstractSet<K> {
+
+        @Override
+        public Iterator<K> iterator() {
+            return new AbstractIteratorImpl<K>() {
+                @Override
+                K next(K key, V value) {
+                    return key;
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return ConcurrentMAHashMap.this.size();
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return ConcurrentMAHashMap.this.isEmpty();
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return ConcurrentMAHashMap.this.containsKey(o);
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            Segment<K, V> segment = ConcurrentMAHashMap.this.segmentFor(o);
+            return ConcurrentMAHashMap.this.write(segment, map -> {
+                if (map.containsKey(o)) {
+                    map.remove(o);
+                    return true;
+                }
+                return false;
+            });
+        }
+
+        @Override
+        public void clear() {
+            ConcurrentMAHashMap.this.clear();
+        }
+    }
+    
+    private class EntryImpl extends SimpleEntry<K, V> {
+
+        private static final long serialVersionUID = 7266530245519802659L;
+
+        EntryImpl(K key, V value) {
+            super(key, value);
+        }
+
+        @Override
+        public V setValue(V value) {
+            ConcurrentMAHashMap.this.put(this.getKey(), value);
+            return super.setValue(value);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ * BabyFish, Object Model Framework for Java and JPA.
+ * https://github.com/babyfish-ct/babyfish
+ *
+ * Copyright (c) 2008-2016, Tao Chen
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * Please visit "http://opensource.org/licenses/LGPL-3.0" to know more.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ */
+package org.babyfish.collection;
+
+/**
+ * The eviction policy of the bounded {@link LinkedHashMap} and {@link MALinkedHashMap}.
+ * 
+ * <p>
+ * The victims are chosen from the eviction end of the linked order, that is the head
+ * of the map, or the tail when the entries are appended to the head. An evicted 
+ * entry is removed by the modification 
+ * {@link org.babyfish.collection.event.modification.MapModifications.EvictByPolicy},
+ * so the listeners of {@link MALinkedHashMap} can distinguish the evictions from 
+ * the other removals.
+ * </p>
+ * 
+ * <ul>
+ *  <li>{@link #LRU}: Evicts the entry at the eviction end, it is the least recently 
+ *  used entry when the access mode and the replace mode of the map move the 
+ *  accessed entries away from the eviction end, such as {@link OrderAdjustMode#TAIL}.</li>
+ *  <li>{@link #LFU}: Evicts the least frequently used entry among the few entries 
+ *  nearest the eviction end. The frequencies are estimated by a compact count-min 
+ *  sketch which is updated by the putting and the accessing of the keys, 
+ *  and they are halved periodically so that the old popularity ages out.</li>
+ * </ul>
+ * 
+ * @author Tao Chen
+ */
+public enum EvictionPolicy {
+    LRU,
+    LFU,
+}
@@ -18,9 +18,15 @@
 package org.babyfish.collection;
 
 import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
 
 import org.babyfish.collection.spi.base.BaseEntries;
+import org.babyfish.collection.spi.base.BaseEntry;
 import org.babyfish.collection.spi.base.FrozenContextSuspending;
+import org.babyfish.lang.Arguments;
 import org.babyfish.lang.I18N;
 
 /**
@@ -28,6 +34,8 @@ import org.babyfish.lang.I18N;
  */
 public abstract class FrozenContext<T> {
     
+    private static final ThreadLocal<Batch> BATCH = new ThreadLocal<>();
+    
     private FrozenContext() {
         
     }
@@ -57,14 +65,75 @@ public abstract class FrozenContext<T> {
         }
     }
     
+    /**
+     * Executes the action as a batch of frozen key modifications.
+     * 
+     * <p>
+     * Inside the batch, the entries whose frozen keys are changed are detached 
+     * from their containers and they are not re-indexed until the batch is finished,
+     * no matter how many times their keys are changed. When the batch is finished,
+     * each affected container re-indexes all its detached entries together, 
+     * for example, the red-black tree is rebuilt by one sort-merge pass when
+     * many of its keys have been changed.
+     * </p>
+     * 
+     * <p>
+     * Only the containers that can re-index the frozen keys in place 
+     * (they are not modification observable, not bidirectional and not frozen)
+     * defer the re-indexing, the other containers are re-indexed immediately 
+     * as usual. Until the batch is finished, the deferred entries can not be 
+     * found from their containers.
+     * </p>
+     * 
+     * <p>
+     * The nested batch is a part of the outer batch.
+     * </p>
+     * 
+     * @param action The action that changes the frozen keys.
+     */
+    public static void batch(Runnable action) {
+        Arguments.mustNotBeNull("action", action);
+        if (BATCH.get() != null) {
+            action.run();
+            return;
+        }
+        Batch batch = new Batch();
+        BATCH.set(batch);
+        try {
+            action.run();
+        } finally {
+            BATCH.remove();
+            batch.flush();
+        }
+    }
+    
     @SuppressWarnings("unchecked")
     public static <T> FrozenContext<T> combine(FrozenContext<T> ctx1, FrozenContext<T> ctx2) {
         if (ctx1 == null || !ctx1.isAlive()) {
+            if (ctx2 instanceof CombinedImpl<?>) {
+                // Now, ctx2 is referenced by two holders
+                ((CombinedImpl<T>)ctx2).shared = true;
+            }
             return ctx2 != null && ctx2.isAlive() ? ctx2 : null;
         }
         if (ctx2 == null || !ctx2.isAlive()) {
             return ctx1 != null && ctx1.isAlive() ? ctx1 : null;
         }
+        if (ctx1 instanceof CombinedImpl<?>) {
+            CombinedImpl<T> combinedImpl = (CombinedImpl<T>)ctx1;
+            if (combinedImpl.isMutable()) {
+                if (ctx2 instanceof CombinedImpl<?>) {
+                    CombinedImpl<T> addImpl = (CombinedImpl<T>)ctx2;
+                    SingleImpl<T>[] addArr = addImpl.arr;
+                    for (int i = addImpl.len - 1; i >= 0; i--) {
+                        combinedImpl.add(addArr[i]);
+                    }
+                } else {
+                    combinedImpl.add((SingleImpl<T>)ctx2);
+                }
+                return combinedImpl.compact();
+            }
+        }
         int len1 = len(ctx1);
         int len2 = len(ctx2);
         SingleImpl<T>[] arr = new SingleImpl[len1 + len2];
@@ -108,6 +177,21 @@ public abstract class FrozenContext<T> {
         if (ctx2 == null || !ctx2.isAlive()) {
             return ctx1 != null && ctx1.isAlive() ? ctx1 : null;
         }
+        if (ctx1 instanceof CombinedImpl<?>) {
+            CombinedImpl<T> combinedImpl = (CombinedImpl<T>)ctx1;
+            if (combinedImpl.isMutable()) {
+                if (ctx2 instanceof CombinedImpl<?>) {
+                    CombinedImpl<T> removeImpl = (CombinedImpl<T>)ctx2;
+                    SingleImpl<T>[] removeArr = removeImpl.arr;
+                    for (int i = removeImpl.len - 1; i >= 0; i--) {
+                        combinedImpl.remove(removeArr[i]);
+                    }
+                } else {
+                    combinedImpl.remove((SingleImpl<T>)ctx2);
+                }
+                return combinedImpl.compact();
+            }
+        }
         int len1 = len(ctx1);
         int len2 = len(ctx2);
         SingleImpl<T>[] arr = new SingleImpl[len1];
@@ -175,6 +259,10 @@ public abstract class FrozenContext<T> {
         
         private FrozenContextSuspending<K, Object> suspending;
         
+        private BaseEntry<K, Object> detachedEntry;
+        
+        private boolean deferred;
+        
         private int suspendCount;
         
         @SuppressWarnings({ "unchecked", "rawtypes" })
@@ -184,10 +272,15 @@ public abstract class FrozenContext<T> {
         
         @Override
         void suspendFreezing(K obj) {
-            if (this.suspendCount++ == 0) {
+            if (this.suspendCount++ == 0 && !this.deferred) {
                 BaseEntries<K, Object> baseEntries = this.baseEntriesReference.get();
                 if (baseEntries != null) {
-                    this.suspending = baseEntries.suspendViaFrozenContext(obj);
+                    BaseEntry<K, Object> detachedEntry = baseEntries.suspendInPlaceViaFrozenContext(obj);
+                    if (detachedEntry != null) {
+                        this.detachedEntry = detachedEntry;
+                    } else {
+                        this.suspending = baseEntries.suspendViaFrozenContext(obj);
+                    }
                 }
             }
         }
@@ -200,8 +293,24 @@ public abstract class FrozenContext<T> {
             }
             this.suspendCount = suspendCount;
             if (suspendCount == 0) {
+                if (this.deferred) {
+                    // It will be reattached when the batch is finished
+                    return;
+                }
                 BaseEntries<K, Object> baseEntries = this.baseEntriesReference.get();
-                if (baseEntries != null) {
+                BaseEntry<K, Object> detachedEntry = this.detachedEntry;
+                if (detachedEntry != null) {
+                    Batch batch = BATCH.get();
+                    if (batch != null && baseEntries != null) {
+                        this.deferred = true;
+                        batch.defer(baseEntries, this);
+                        return;
+                    }
+                    this.detachedEntry = null;
+                    if (baseEntries != null) {
+                        baseEntries.resumeInPlaceViaFrozenContext(detachedEntry);
+                    }
+                } else if (baseEntries != null) {
                     FrozenContextSuspending<K, Object> suspending = this.suspending;
                     this.suspending = null;
                     baseEntries.resumeViaFronzeContext(suspending);
@@ -223,12 +332,24 @@ public abstract class FrozenContext<T> {
         }
     }
     
+    /*
+     * The CombinedImpl created by combine or remove is referenced by only one holder,
+     * so it is changed in place by the later combine or remove of that holder 
+     * instead of being rebuilt, unless it is shared by another holder or it is 
+     * being suspended (The suspending or resuming of the frozen key may unfreeze 
+     * and freeze the key again, but the CombinedImpl which is being iterated 
+     * must not be changed).
+     */
     private static class CombinedImpl<T> extends FrozenContext<T> {
         
         private SingleImpl<T>[] arr;
         
         private int len;
         
+        private boolean shared;
+        
+        private int suspendDepth;
+        
         CombinedImpl(SingleImpl<T>[] arr, int len) {
             this.arr = arr;
             this.len = len;
@@ -236,6 +357,7 @@ public abstract class FrozenContext<T> {
 
         @Override
         void suspendFreezing(T obj) {
+            this.suspendDepth++;
             SingleImpl<T>[] arr = this.arr;
             int len = this.len;
             int missCount = 0;
@@ -280,12 +402,112 @@ public abstract class FrozenContext<T> {
                 this.arr = trim.arr;
                 this.len = trim.len;
             }
+            if (this.suspendDepth > 0) {
+                this.suspendDepth--;
+            }
         }
 
         @Override
         boolean isAlive() {
             return this.len != 0;
         }
+        
+        boolean isMutable() {
+            return !this.shared && this.suspendDepth == 0;
+        }
+        
+        void add(SingleImpl<T> ctx) {
+            if (ctx == null || !ctx.isAlive()) {
+                return;
+            }
+            SingleImpl<T>[] arr = this.arr;
+            int len = this.len;
+            for (int i = len - 1; i >= 0; i--) {
+                SingleImpl<T> item = arr[i];
+                if (item != null && item.same(ctx)) {
+                    return;
+                }
+            }
+            if (len == arr.length) {
+                this.arr = arr = Arrays.copyOf(arr, Math.max(len << 1, 4));
+            }
+            arr[len] = ctx;
+            this.len = len + 1;
+        }
+        
+        void remove(SingleImpl<T> ctx) {
+            if (ctx == null) {
+                return;
+            }
+            SingleImpl<T>[] arr = this.arr;
+            for (int i = this.len - 1; i >= 0; i--) {
+                SingleImpl<T> item = arr[i];
+                if (item != null && item.same(ctx)) {
+                    arr[i] = null;
+                }
+            }
+        }
+        
+        /*
+         * Removes the null and dead items in place
+         */
+        FrozenContext<T> compact() {
+            SingleImpl<T>[] arr = this.arr;
+            int len = this.len;
+            int index = 0;
+            for (int i = 0; i < len; i++) {
+                SingleImpl<T> item = arr[i];
+                if (item != null && item.isAlive()) {
+                    arr[index++] = item;
+                }
+            }
+            for (int i = index; i < len; i++) {
+                arr[i] = null;
+            }
+            this.len = index;
+            if (index == 0) {
+                return null;
+            }
+            if (index == 1) {
+                return arr[0];
+            }
+            return this;
+        }
+    }
+    
+    private static class Batch {
+        
+        private Map<BaseEntries<?, ?>, List<SingleImpl<?>>> deferredMap = 
+                new IdentityHashMap<>();
+        
+        void defer(BaseEntries<?, ?> baseEntries, SingleImpl<?> ctx) {
+            this.deferredMap
+            .computeIfAbsent(baseEntries, k -> new ArrayList<>())
+            .add(ctx);
+        }
+        
+        @SuppressWarnings({ "unchecked", "rawtypes" })
+        void flush() {
+            for (Map.Entry<BaseEntries<?, ?>, List<SingleImpl<?>>> e : this.deferredMap.entrySet()) {
+                flush((BaseEntries)e.getKey(), (List)e.getValue());
+            }
+        }
+        
+        private static <K> void flush(BaseEntries<K, Object> baseEntries, List<SingleImpl<K>> ctxs) {
+            List<BaseEntry<K, Object>> bes = new ArrayList<>(ctxs.size());
+            for (SingleImpl<K> ctx : ctxs) {
+                ctx.deferred = false;
+                /*
+                 * If it is still suspended by the code outside of the batch,
+                 * it will be reattached when it is resumed.
+                 */
+                if (ctx.suspendCount == 0) {
+                    bes.add(ctx.detachedEntry);
+                    ctx.detachedEntry = null;
+                }
+            }
+            baseEntries.resumeAllInPlaceViaFrozenContext(bes);
+        }
     }
     
     private static class Trim<T> {
@@ -0,0 +1,196 @@
+/*
+ * BabyFish, Object Model Framework for Java and JPA.
+ * https://github.com/babyfish-ct/babyfish
+ *
+ * Copyright (c) 2008-2016, Tao Chen
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * Please visit "http://opensource.org/licenses/LGPL-3.0" to know more.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ */
+package org.babyfish.collection;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.Map;
+
+import org.babyfish.collection.spi.AbstractXMap;
+import org.babyfish.collection.spi.base.LongHashEntries;
+import org.babyfish.lang.Arguments;
+
+/**
+ * The hash map whose keys are {@code long} values.
+ * 
+ * <p>
+ * The keys are stored in a primitive array with open addressing, 
+ * the methods with {@code long} parameters neither box the key 
+ * nor create the entry object.
+ * The key is never null and the key replacement rule is meaningless for the primitive keys.
+ * </p>
+ * 
+ * @author Tao Chen
+ */
+public class LongHashMap<V> extends AbstractXMap<Long, V> implements Serializable {
+
+    private static final long serialVersionUID = -8772933041888216775L;
+
+    public LongHashMap() {
+        super(
+                new LongHashEntries<V>(
+                        BidiType.NONE,
+                        null,
+                        16,
+                        .75F
+                )
+        );
+    }
+
+    public LongHashMap(int initCapacity) {
+        super(
+                new LongHashEntries<V>(
+                        BidiType.NONE,
+                        null,
+                        initCapacity,
+                        .75F
+                )
+        );
+    }
+
+    public LongHashMap(int initCapacity, Float loadFactor) {
+        super(
+                new LongHashEntries<V>(
+                        BidiType.NONE,
+                        null,
+                        initCapacity,
+                        loadFactor
+                )
+        );
+    }
+
+    public LongHashMap(UnifiedComparator<? super V> valueUnifiedComparator) {
+        super(
+                new LongHashEntries<V>(
+                        BidiType.NONE,
+                        valueUnifiedComparator,
+                        16,
+                        .75F
+                )
+        );
+    }
+
+    public LongHashMap(UnifiedComparator<? super V> valueUnifiedComparator, int initCapacity, Float loadFactor) {
+        super(
+                new LongHashEntries<V>(
+                        BidiType.NONE,
+                        valueUnifiedComparator,
+                        initCapacity,
+                        loadFactor
+                )
+        );
+    }
+
+    public LongHashMap(BidiType bidiType) {
+        super(
+                new LongHashEntries<V>(
+                        bidiType,
+                        null,
+                        16,
+                        .75F
+                )
+        );
+    }
+
+    public LongHashMap(BidiType bidiType, UnifiedComparator<? super V> valueUnifiedComparator) {
+        super(
+                new LongHashEntries<V>(
+                        bidiType,
+                        valueUnifiedComparator,
+                        16,
+                        .75F
+                )
+        );
+    }
+
+    public LongHashMap(BidiType bidiType, UnifiedComparator<? super V> valueUnifiedComparator, int initCapacity, Float loadFactor) {
+        super(
+                new LongHashEntries<V>(
+                        bidiType,
+                        valueUnifiedComparator,
+                        initCapacity,
+                        loadFactor
+                )
+        );
+    }
+
+    public LongHashMap(Map<? extends Long, ? extends V> m) {
+        super(
+                new LongHashEntries<V>(
+                        BidiType.NONE,
+                        null,
+                        16,
+                        .75F
+                )
+        );
+        this.putAll(m);
+    }
+
+    public LongHashMap(BidiType bidiType, Map<? extends Long, ? extends V> m) {
+        super(
+                new LongHashEntries<V>(
+                        bidiType,
+                        null,
+                        16,
+                        .75F
+                )
+        );
+        this.putAll(m);
+    }
+
+    public V get(long key) {
+        return this.<LongHashEntries<V>>getBaseEntries().get(key);
+    }
+    
+    public boolean containsKey(long key) {
+        return this.<LongHashEntries<V>>getBaseEntries().containsKey(key);
+    }
+    
+    public V put(long key, V value) {
+        return this.<LongHashEntries<V>>getBaseEntries().put(key, value);
+    }
+    
+    public V remove(long key) {
+        return this.<LongHashEntries<V>>getBaseEntries().remove(key);
+    }
+
+    @Override
+    public V get(Object key) {
+        return key instanceof Long ? this.get(((Long)key).longValue()) : null;
+    }
+
+    @Override
+    public V put(Long key, V value) {
+        return this.put(Arguments.mustNotBeNull("key", key).longValue(), value);
+    }
+
+    @Override
+    public V remove(Object key) {
+        return key instanceof Long ? this.remove(((Long)key).longValue()) : null;
+    }
+
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        this.writeState(out);
+    }
+    
+    private void readObject(ObjectInputStream in) throws ClassNotFoundException, IOException {
+        this.readState(in);
+    }
+}
@@ -27,6 +27,8 @@ import java.util.RandomAccess;
 
 import org.babyfish.collection.spi.AbstractMAList;
 import org.babyfish.collection.spi.base.ArrayElements;
+import org.babyfish.collection.spi.base.BaseElements;
+import org.babyfish.collection.spi.base.TieredArrayElements;
 
 /**
  * @author Tao Chen
@@ -987,11 +989,62 @@ public class MAArrayList<E> extends AbstractMAList<E> implements RandomAccess, S
         this.addAll(c);
     }
 
+    public MAArrayList(ArrayStorage storage) {
+        this(
+                MAArrayList.<E>createBaseElements(
+                        storage,
+                        BidiType.NONE,
+                        null,
+                        8
+                )
+        );
+    }
+
+    public MAArrayList(
+            ArrayStorage storage,
+            BidiType bidiType, 
+            UnifiedComparator<? super E> unifiedComparator,
+            int initCapacity) {
+        this(
+                MAArrayList.<E>createBaseElements(
+                        storage,
+                        bidiType,
+                        unifiedComparator,
+                        initCapacity
+                )
+        );
+    }
+    
+    private MAArrayList(BaseElements<E> baseElements) {
+        super(baseElements);
+    }
+
     @Override
     public MAListView<E> subList(int fromIndex, int toIndex) {
         return new SubListImpl<E>(this, fromIndex, toIndex);
     }
     
+    private static <E> BaseElements<E> createBaseElements(
+            ArrayStorage storage,
+            BidiType bidiType, 
+            Object comparatorOrEqualityComparatorOrUnifiedComparator,
+            int initCapacity) {
+        if (storage == ArrayStorage.TIERED) {
+            return new TieredArrayElements<E>(
+                    bidiType,
+                    comparatorOrEqualityComparatorOrUnifiedComparator,
+                    initCapacity
+            );
+        }
+        return new ArrayElements<E>(
+                bidiType,
+                comparatorOrEqualityComparatorOrUnifiedComparator,
+                initCapacity,
+                1.5F,
+                .75F
+        );
+    }
+    
     private void writeObject(ObjectOutputStream out) throws IOException {
         this.writeState(out);
     }
@@ -1027,7 +1080,11 @@ public class MAArrayList<E> extends AbstractMAList<E> implements RandomAccess, S
         private float expandFactor = 1.5F;
 
         private Float collapseFactor = .75F;
+
+        private ArrayStorage storage = ArrayStorage.CONTIGUOUS;
         
+        private boolean hashIndexed;
+
         public Builder<E> setBidiType(BidiType bidiType) {
             this.bidiType = bidiType != null ? bidiType : BidiType.NONE;
             return this;
@@ -1123,7 +1180,39 @@ public class MAArrayList<E> extends AbstractMAList<E> implements RandomAccess, S
             return this;
         }
 
+        public Builder<E> setStorage(ArrayStorage storage) {
+            this.storage = storage != null ? storage : ArrayStorage.CONTIGUOUS;
+            return this;
+        }
+
+        public Builder<E> setHashIndexed(boolean hashIndexed) {
+            this.hashIndexed = hashIndexed;
+            return this;
+        }
+
         public MAArrayList<E> build() {
+            MAArrayList<E> list = this.create();
+            if (this.hashIndexed) {
+                list.<BaseElements<E>>getBaseElements().initHashIndex();
+            }
+            return list;
+        }
+        
+        private MAArrayList<E> create() {
+            if (this.storage != ArrayStorage.CONTIGUOUS) {
+                return new MAArrayList<>(
+                        MAArrayList.<E>createBaseElements(
+                                this.storage,
+                                this.bidiType,
+                                this.equalityComparator != null ? 
+                                        this.equalityComparator : 
+                                        this.comparator != null ?
+                                                this.comparator :
+                                                this.unifiedComparator,
+                                this.initCapacity
+                        )
+                );
+            }
             if (this.equalityComparator != null) {
                 return new MAArrayList<>(
                         this.bidiType,
@@ -51,6 +51,7 @@ import org.babyfish.collection.event.KeySetElementListener;
 import org.babyfish.collection.event.ListElementListener;
 import org.babyfish.collection.event.MapElementListener;
 import org.babyfish.collection.event.ValuesElementListener;
+import org.babyfish.collection.spi.AbstractXMap;
 import org.babyfish.collection.spi.base.BasicAlgorithms;
 import org.babyfish.collection.viewinfo.ListViewInfos;
 import org.babyfish.data.LockDescriptor;
@@ -5137,6 +5138,20 @@ public class MACollections {
         return locked(m, null, true);
     }
 
+    /**
+     * Returns the map whose methods are executed under the read lock or the write lock 
+     * of the specified lock.
+     * 
+     * <p>If the lock is an {@link OptimisticReadWriteLock}, "get", "containsKey", 
+     * "size" and "isEmpty" try the optimistic read at first. That lock is not reentrant,
+     * the thread that holds its write lock, for example, the listener of a locked 
+     * MA map that accesses that map during the modification, gets an 
+     * {@link IllegalStateException} instead of a deadlock.</p>
+     * 
+     * @param m The map to be locked
+     * @param readWriteLock The lock, the internal {@link ReentrantReadWriteLock} is 
+     * used if it is null
+     */
     public static <K, V> XMap<K, V> locked(XMap<K, V> m, ReadWriteLock readWriteLock) {
         return locked(m, readWriteLock, readWriteLock == null);
     }
@@ -5601,6 +5616,19 @@ public class MACollections {
         return locked(m, null, true);
     }
 
+    /**
+     * Returns the MA map whose methods are executed under the read lock or the write lock 
+     * of the specified lock, the listeners of the MA map are notified under the write lock.
+     * 
+     * <p>The default internal {@link ReentrantReadWriteLock} allows the listeners
+     * to access the locked map. The {@link OptimisticReadWriteLock} is not reentrant,
+     * a listener that accesses the locked map during its modification gets an 
+     * {@link IllegalStateException}.</p>
+     * 
+     * @param m The MA map to be locked
+     * @param readWriteLock The lock, the internal {@link ReentrantReadWriteLock} is 
+     * used if it is null
+     */
     public static <K, V> MAMap<K, V> locked(MAMap<K, V> m, ReadWriteLock readWriteLock) {
         return locked(m, readWriteLock, readWriteLock == null);
     }
@@ -14790,6 +14818,16 @@ public class MACollections {
              return MACollections.unmodifiable(((MANavigableMap<K, V>)this.m).higherEntry(key));
         }
 
+        @Override
+        public MAMap.MAEntry<K, V> entryAt(int index) {
+             return MACollections.unmodifiable(((MANavigableMap<K, V>)this.m).entryAt(index));
+        }
+
+        @Override
+        public int indexOf(K key) {
+            return ((MANavigableMap<K, V>)this.m).indexOf(key);
+        }
+
         @Override
         public MAMap.MAEntry<K, V> lastEntry() {
              return MACollections.unmodifiable(((MANavigableMap<K, V>)this.m).lastEntry());
@@ -15259,6 +15297,16 @@ public class MACollections {
              return MACollections.unmodifiable(((XNavigableMap<K, V>)this.m).higherEntry(key));
         }
 
+        @Override
+        public XMap.XEntry<K, V> entryAt(int index) {
+             return MACollections.unmodifiable(((XNavigableMap<K, V>)this.m).entryAt(index));
+        }
+
+        @Override
+        public int indexOf(K key) {
+            return ((XNavigableMap<K, V>)this.m).indexOf(key);
+        }
+
         @Override
         public XNavigableMap.XNavigableMapView<K, V> subMap(K fromKey, boolean fromInclusive, K toKey, boolean toInclusive) {
              return MACollections.unmodifiable(((XNavigableMap<K, V>)this.m).subMap(fromKey, fromInclusive, toKey, toInclusive));
@@ -19482,6 +19530,38 @@ public class MACollections {
             }
         }
 
+        @Override
+        public MAMap.MAEntry<K, V> entryAt(int index) {
+            Lock lock;
+            if (((MANavigableMap<K, V>)this.m).isReadWriteLockSupported()) {
+                lock = this.readWriteLock.readLock();
+            } else {
+                lock = this.readWriteLock.writeLock();
+            }
+            lock.lock();
+            try {
+                return MACollections.locked(((MANavigableMap<K, V>)this.m).entryAt(index), this.readWriteLock, this.usingInternalLock);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public int indexOf(K key) {
+            Lock lock;
+            if (((MANavigableMap<K, V>)this.m).isReadWriteLockSupported()) {
+                lock = this.readWriteLock.readLock();
+            } else {
+                lock = this.readWriteLock.writeLock();
+            }
+            lock.lock();
+            try {
+                return ((MANavigableMap<K, V>)this.m).indexOf(key);
+            } finally {
+                lock.unlock();
+            }
+        }
+
         @Override
         public MAMap.MAEntry<K, V> lastEntry() {
             Lock lock;
@@ -20468,6 +20548,38 @@ public class MACollections {
             }
         }
 
+        @Override
+        public XMap.XEntry<K, V> entryAt(int index) {
+            Lock lock;
+            if (((XNavigableMap<K, V>)this.m).isReadWriteLockSupported()) {
+                lock = this.readWriteLock.readLock();
+            } else {
+                lock = this.readWriteLock.writeLock();
+            }
+            lock.lock();
+            try {
+                return MACollections.locked(((XNavigableMap<K, V>)this.m).entryAt(index), this.readWriteLock, this.usingInternalLock);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public int indexOf(K key) {
+            Lock lock;
+            if (((XNavigableMap<K, V>)this.m).isReadWriteLockSupported()) {
+                lock = this.readWriteLock.readLock();
+            } else {
+                lock = this.readWriteLock.writeLock();
+            }
+            lock.lock();
+            try {
+                return ((XNavigableMap<K, V>)this.m).indexOf(key);
+            } finally {
+                lock.unlock();
+            }
+        }
+
         @Override
         public XNavigableMap.XNavigableMapView<K, V> subMap(K fromKey, boolean fromInclusive, K toKey, boolean toInclusive) {
             Lock lock;
@@ -21677,6 +21789,21 @@ public class MACollections {
         Object getInnerObject() {
             return this.m;
         }
+        
+        /*
+         * Returns the map which can be read by the optimistic read
+         * of OptimisticReadWriteLock, or null
+         */
+        @SuppressWarnings("unchecked")
+        private AbstractXMap<K, V> optimisticReadableMap() {
+            if (this.readWriteLock instanceof OptimisticReadWriteLock && this.m instanceof AbstractXMap<?, ?>) {
+                AbstractXMap<K, V> xMap = (AbstractXMap<K, V>)this.m;
+                if (xMap.isOptimisticReadSupported() && xMap.isReadWriteLockSupported()) {
+                    return xMap;
+                }
+            }
+            return null;
+        }
 
         @Override
         public String toString() {
@@ -21685,6 +21812,12 @@ public class MACollections {
 
         @Override
         public boolean isEmpty() {
+            AbstractXMap<K, V> xMap = this.optimisticReadableMap();
+            if (xMap != null) {
+                return ((OptimisticReadWriteLock)this.readWriteLock).read(
+                        () -> xMap.isEmpty(), 
+                        () -> xMap.isEmpty());
+            }
             Lock lock;
             if (MACollections.isReadWriteLockSupported(this.m)) {
                 lock = this.readWriteLock.readLock();
@@ -21701,6 +21834,12 @@ public class MACollections {
 
         @Override
         public V get(Object key) {
+            AbstractXMap<K, V> xMap = this.optimisticReadableMap();
+            if (xMap != null) {
+                return ((OptimisticReadWriteLock)this.readWriteLock).read(
+                        () -> xMap.getOptimistically(key), 
+                        () -> xMap.get(key));
+            }
             Lock lock;
             if (MACollections.isReadWriteLockSupported(this.m)) {
                 lock = this.readWriteLock.readLock();
@@ -21740,6 +21879,12 @@ public class MACollections {
 
         @Override
         public boolean containsKey(Object o) {
+            AbstractXMap<K, V> xMap = this.optimisticReadableMap();
+            if (xMap != null) {
+                return ((OptimisticReadWriteLock)this.readWriteLock).read(
+                        () -> xMap.containsKeyOptimistically(o), 
+                        () -> xMap.containsKey(o));
+            }
             Lock lock;
             if (MACollections.isReadWriteLockSupported(this.m)) {
                 lock = this.readWriteLock.readLock();
@@ -21864,6 +22009,12 @@ public class MACollections {
 
         @Override
         public int size() {
+            AbstractXMap<K, V> xMap = this.optimisticReadableMap();
+            if (xMap != null) {
+                return ((OptimisticReadWriteLock)this.readWriteLock).read(
+                        () -> xMap.size(), 
+                        () -> xMap.size());
+            }
             Lock lock;
             if (MACollections.isReadWriteLockSupported(this.m)) {
                 lock = this.readWriteLock.readLock();
@@ -27504,6 +27655,26 @@ public class MACollections {
             return MACollections.locking(((MANavigableMap<K, V>)this.m).higherEntry(key), this.lockingManager);
         }
 
+        @Override
+        public MAMap.MAEntry<K, V> entryAt(int index) {
+            if (this.initThread != Thread.currentThread()) {
+                throw new IllegalThreadException(
+                    illegalLockingThread("org.babyfish.collection.MAMap.MAEntry<K, V> org.babyfish.collection.MANavigableMap<K, V>.entryAt(int)")
+                );
+            }
+            return MACollections.locking(((MANavigableMap<K, V>)this.m).entryAt(index), this.lockingManager);
+        }
+
+        @Override
+        public int indexOf(K key) {
+            if (this.initThread != Thread.currentThread()) {
+                throw new IllegalThreadException(
+                    illegalLockingThread("int org.babyfish.collection.MANavigableMap<K, V>.indexOf(K)")
+                );
+            }
+            return ((MANavigableMap<K, V>)this.m).indexOf(key);
+        }
+
         @Override
         public MAMap.MAEntry<K, V> lastEntry() {
             if (this.initThread != Thread.currentThread()) {
@@ -28357,6 +28528,26 @@ public class MACollections {
             return MACollections.locking(((XNavigableMap<K, V>)this.m).higherEntry(key), this.lockingManager);
         }
 
+        @Override
+        public XMap.XEntry<K, V> entryAt(int index) {
+            if (this.initThread != Thread.currentThread()) {
+                throw new IllegalThreadException(
+                    illegalLockingThread("org.babyfish.collection.XMap.XEntry<K, V> org.babyfish.collection.XNavigableMap<K, V>.entryAt(int)")
+                );
+            }
+            return MACollections.locking(((XNavigableMap<K, V>)this.m).entryAt(index), this.lockingManager);
+        }
+
+        @Override
+        public int indexOf(K key) {
+            if (this.initThread != Thread.currentThread()) {
+                throw new IllegalThreadException(
+                    illegalLockingThread("int org.babyfish.collection.XNavigableMap<K, V>.indexOf(K)")
+                );
+            }
+            return ((XNavigableMap<K, V>)this.m).indexOf(key);
+        }
+
         @Override
         public XNavigableMap.XNavigableMapView<K, V> subMap(K fromKey, boolean fromInclusive, K toKey, boolean toInclusive) {
             if (this.initThread != Thread.currentThread()) {
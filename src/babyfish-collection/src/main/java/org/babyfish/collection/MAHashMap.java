@@ -25,7 +25,9 @@ import java.util.Comparator;
 import java.util.Map;
 
 import org.babyfish.collection.spi.AbstractMAMap;
+import org.babyfish.collection.spi.base.BaseEntries;
 import org.babyfish.collection.spi.base.HashEntries;
+import org.babyfish.collection.spi.base.OpenHashEntries;
 
 /**
  * @author Tao Chen
@@ -2105,6 +2107,111 @@ public class MAHashMap<K, V> extends AbstractMAMap<K, V> implements Serializable
         this.putAll(m);
     }
 
+    public MAHashMap(HashStorage storage) {
+        this(
+                MAHashMap.<K, V>createBaseEntries(
+                        storage,
+                        BidiType.NONE,
+                        ReplacementRule.NEW_REFERENCE_WIN,
+                        null,
+                        null,
+                        16,
+                        .75F
+                )
+        );
+    }
+
+    public MAHashMap(HashStorage storage, int initCapacity, Float loadFactor) {
+        this(
+                MAHashMap.<K, V>createBaseEntries(
+                        storage,
+                        BidiType.NONE,
+                        ReplacementRule.NEW_REFERENCE_WIN,
+                        null,
+                        null,
+                        initCapacity,
+                        loadFactor
+                )
+        );
+    }
+
+    public MAHashMap(
+            HashStorage storage,
+            BidiType bidiType, 
+            ReplacementRule keyReplacementRule,
+            EqualityComparator<? super K> keyEqualityComparator,
+            UnifiedComparator<? super V> valueUnifiedComparator,
+            int initCapacity,
+            Float loadFactor) {
+        this(
+                MAHashMap.<K, V>createBaseEntries(
+                        storage,
+                        bidiType,
+                        keyReplacementRule,
+                        keyEqualityComparator,
+                        valueUnifiedComparator,
+                        initCapacity,
+                        loadFactor
+                )
+        );
+    }
+    
+    private MAHashMap(BaseEntries<K, V> baseEntries) {
+        super(baseEntries);
+    }
+    
+    /**
+     * Returns how many buckets are indexed by balanced trees because too many 
+     * keys are put into them. If it is not zero, the hash function of the keys 
+     * (or the {@link EqualityComparator} of this map) is poor. It is always zero 
+     * when the storage is {@link HashStorage#OPEN_ADDRESSING}.
+     */
+    public int treeifiedBucketCount() {
+        BaseEntries<K, V> baseEntries = this.getBaseEntries();
+        if (baseEntries instanceof HashEntries<?, ?>) {
+            return ((HashEntries<K, V>)baseEntries).treeifiedBucketCount();
+        }
+        return 0;
+    }
+    
+    @SuppressWarnings("unchecked")
+    @Override
+    public V get(Object key) {
+        BaseEntries<K, V> baseEntries = this.getBaseEntries();
+        if (baseEntries instanceof OpenHashEntries<?, ?>) {
+            return ((OpenHashEntries<K, V>)baseEntries).get(key);
+        }
+        return super.get(key);
+    }
+    
+    private static <K, V> BaseEntries<K, V> createBaseEntries(
+            HashStorage storage,
+            BidiType bidiType, 
+            ReplacementRule keyReplacementRule,
+            EqualityComparator<? super K> keyEqualityComparator,
+            Object valueComparatorOrEqualityComparatorOrUnifiedComparator,
+            int initCapacity,
+            Float loadFactor) {
+        if (storage == HashStorage.OPEN_ADDRESSING) {
+            return new OpenHashEntries<K, V>(
+                    bidiType,
+                    keyReplacementRule,
+                    keyEqualityComparator,
+                    valueComparatorOrEqualityComparatorOrUnifiedComparator,
+                    initCapacity,
+                    loadFactor
+            );
+        }
+        return new HashEntries<K, V>(
+                bidiType,
+                keyReplacementRule,
+                keyEqualityComparator,
+                valueComparatorOrEqualityComparatorOrUnifiedComparator,
+                initCapacity,
+                loadFactor
+        );
+    }
+
     private void writeObject(ObjectOutputStream out) throws IOException {
         this.writeState(out);
     }
@@ -2131,6 +2238,8 @@ public class MAHashMap<K, V> extends AbstractMAMap<K, V> implements Serializable
 
         private Float loadFactor = .75F;
         
+        private HashStorage storage = HashStorage.CHAINING;
+        
         public Builder<K, V> setBidiInfo(BidiType bidiType) {
             this.bidiType = bidiType != null ? bidiType : BidiType.NONE;
             return this;
@@ -2231,7 +2340,29 @@ public class MAHashMap<K, V> extends AbstractMAMap<K, V> implements Serializable
             return this;
         }
 
+        public Builder<K, V> setStorage(HashStorage storage) {
+            this.storage = storage != null ? storage : HashStorage.CHAINING;
+            return this;
+        }
+
         public MAHashMap<K, V> build() {
+            if (this.storage != HashStorage.CHAINING) {
+                return new MAHashMap<K, V>(
+                        MAHashMap.<K, V>createBaseEntries(
+                                this.storage,
+                                this.bidiType,
+                                this.keyReplacementRule,
+                                this.keyEqualityComparator,
+                                this.valueEqualityComparator != null ? 
+                                        this.valueEqualityComparator : 
+                                        this.valueComparator != null ?
+                                                this.valueComparator :
+                                                this.valueUnifiedComparator,
+                                this.initCapacity,
+                                this.loadFactor
+                        )
+                );
+            }
             if (this.valueEqualityComparator != null) {
                 return new MAHashMap<K, V>(
                         this.bidiType,
@@ -24,7 +24,9 @@ import java.io.Serializable;
 import java.util.Collection;
 
 import org.babyfish.collection.spi.AbstractMASet;
+import org.babyfish.collection.spi.base.BaseEntries;
 import org.babyfish.collection.spi.base.HashEntries;
+import org.babyfish.collection.spi.base.OpenHashEntries;
 
 /**
  * @author Tao Chen
@@ -375,6 +377,89 @@ public class MAHashSet<E> extends AbstractMASet<E> implements Serializable {
         this.addAll(c);
     }
 
+    public MAHashSet(HashStorage storage) {
+        this(
+                MAHashSet.<E>createBaseEntries(
+                        storage,
+                        ReplacementRule.NEW_REFERENCE_WIN,
+                        null,
+                        16,
+                        .75F
+                )
+        );
+    }
+
+    public MAHashSet(HashStorage storage, int initCapacity, Float loadFactor) {
+        this(
+                MAHashSet.<E>createBaseEntries(
+                        storage,
+                        ReplacementRule.NEW_REFERENCE_WIN,
+                        null,
+                        initCapacity,
+                        loadFactor
+                )
+        );
+    }
+
+    public MAHashSet(
+            HashStorage storage,
+            ReplacementRule replacementRule,
+            EqualityComparator<? super E> equalityComparator,
+            int initCapacity,
+            Float loadFactor) {
+        this(
+                MAHashSet.<E>createBaseEntries(
+                        storage,
+                        replacementRule,
+                        equalityComparator,
+                        initCapacity,
+                        loadFactor
+                )
+        );
+    }
+    
+    private MAHashSet(BaseEntries<E, Object> baseEntries) {
+        super(baseEntries);
+    }
+    
+    /**
+     * Returns how many buckets are indexed by balanced trees because too many 
+     * elements are put into them. If it is not zero, the hash function of the elements 
+     * (or the {@link EqualityComparator} of this set) is poor. It is always zero 
+     * when the storage is {@link HashStorage#OPEN_ADDRESSING}.
+     */
+    public int treeifiedBucketCount() {
+        BaseEntries<E, Object> baseEntries = this.getBaseEntries();
+        if (baseEntries instanceof HashEntries<?, ?>) {
+            return ((HashEntries<E, Object>)baseEntries).treeifiedBucketCount();
+        }
+        return 0;
+    }
+    
+    private static <E> BaseEntries<E, Object> createBaseEntries(
+            HashStorage storage,
+            ReplacementRule replacementRule,
+            EqualityComparator<? super E> equalityComparator,
+            int initCapacity,
+            Float loadFactor) {
+        if (storage == HashStorage.OPEN_ADDRESSING) {
+            return new OpenHashEntries.TransientValue<E, Object>(
+                    replacementRule,
+                    equalityComparator,
+                    null,
+                    initCapacity,
+                    loadFactor
+            );
+        }
+        return new HashEntries.TransientValue<E, Object>(
+                replacementRule,
+                equalityComparator,
+                null,
+                initCapacity,
+                loadFactor
+        );
+    }
+
     private void writeObject(ObjectOutputStream out) throws IOException {
         this.writeState(out);
     }
@@ -392,6 +477,8 @@ public class MAHashSet<E> extends AbstractMASet<E> implements Serializable {
         private int initCapacity = 16;
 
         private Float loadFactor = .75F;
+        
+        private HashStorage storage = HashStorage.CHAINING;
 
         public Builder<E> setReplacementRule(ReplacementRule replacementRule) {
             this.replacementRule = replacementRule != null ? replacementRule : ReplacementRule.NEW_REFERENCE_WIN;
@@ -413,8 +500,14 @@ public class MAHashSet<E> extends AbstractMASet<E> implements Serializable {
             return this;
         }
 
+        public Builder<E> setStorage(HashStorage storage) {
+            this.storage = storage != null ? storage : HashStorage.CHAINING;
+            return this;
+        }
+
         public MAHashSet<E> build() {
             return new MAHashSet<E>(
+                    this.storage,
                     this.replacementRule,
                     this.equalityComparator,
                     this.initCapacity,
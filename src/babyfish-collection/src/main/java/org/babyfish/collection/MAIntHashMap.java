@@ -0,0 +1,202 @@
+/*
+ * BabyFish, Object Model Framework for Java and JPA.
+ * https://github.com/babyfish-ct/babyfish
+ *
+ * Copyright (c) 2008-2016, Tao Chen
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * Please visit "http://opensource.org/licenses/LGPL-3.0" to know more.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ */
+package org.babyfish.collection;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.Map;
+
+import org.babyfish.collection.spi.AbstractMAMap;
+import org.babyfish.collection.spi.base.IntHashEntries;
+import org.babyfish.lang.Arguments;
+
+/**
+ * The hash modification aware map whose keys are {@code int} values.
+ * 
+ * <p>
+ * The keys are stored in a primitive array with open addressing, 
+ * the methods with {@code int} parameters neither box the key 
+ * nor create the entry object, unless the modification can be observed by listeners.
+ * The key is never null and the key replacement rule is meaningless for the primitive keys.
+ * </p>
+ * 
+ * @author Tao Chen
+ */
+public class MAIntHashMap<V> extends AbstractMAMap<Integer, V> implements Serializable {
+
+    private static final long serialVersionUID = 3096782381288852053L;
+
+    public MAIntHashMap() {
+        super(
+                new IntHashEntries<V>(
+                        BidiType.NONE,
+                        null,
+                        16,
+                        .75F
+                )
+        );
+    }
+
+    public MAIntHashMap(int initCapacity) {
+        super(
+                new IntHashEntries<V>(
+                        BidiType.NONE,
+                        null,
+                        initCapacity,
+                        .75F
+                )
+        );
+    }
+
+    public MAIntHashMap(int initCapacity, Float loadFactor) {
+        super(
+                new IntHashEntries<V>(
+                        BidiType.NONE,
+                        null,
+                        initCapacity,
+                        loadFactor
+                )
+        );
+    }
+
+    public MAIntHashMap(UnifiedComparator<? super V> valueUnifiedComparator) {
+        super(
+                new IntHashEntries<V>(
+                        BidiType.NONE,
+                        valueUnifiedComparator,
+                        16,
+                        .75F
+                )
+        );
+    }
+
+    public MAIntHashMap(UnifiedComparator<? super V> valueUnifiedComparator, int initCapacity, Float loadFactor) {
+        super(
+                new IntHashEntries<V>(
+                        BidiType.NONE,
+                        valueUnifiedComparator,
+                        initCapacity,
+                        loadFactor
+                )
+        );
+    }
+
+    public MAIntHashMap(BidiType bidiType) {
+        super(
+                new IntHashEntries<V>(
+                        bidiType,
+                        null,
+                        16,
+                        .75F
+                )
+        );
+    }
+
+    public MAIntHashMap(BidiType bidiType, UnifiedComparator<? super V> valueUnifiedComparator) {
+        super(
+                new IntHashEntries<V>(
+                        bidiType,
+                        valueUnifiedComparator,
+                        16,
+                        .75F
+                )
+        );
+    }
+
+    public MAIntHashMap(BidiType bidiType, UnifiedComparator<? super V> valueUnifiedComparator, int initCapacity, Float loadFactor) {
+        super(
+                new IntHashEntries<V>(
+                        bidiType,
+                        valueUnifiedComparator,
+                        initCapacity,
+                        loadFactor
+                )
+        );
+    }
+
+    public MAIntHashMap(Map<? extends Integer, ? extends V> m) {
+        super(
+                new IntHashEntries<V>(
+                        BidiType.NONE,
+                        null,
+                        16,
+                        .75F
+                )
+        );
+        this.putAll(m);
+    }
+
+    public MAIntHashMap(BidiType bidiType, Map<? extends Integer, ? extends V> m) {
+        super(
+                new IntHashEntries<V>(
+                        bidiType,
+                        null,
+                        16,
+                        .75F
+                )
+        );
+        this.putAll(m);
+    }
+
+    public V get(int key) {
+        return this.<IntHashEntries<V>>getBaseEntries().get(key);
+    }
+    
+    public boolean containsKey(int key) {
+        return this.<IntHashEntries<V>>getBaseEntries().containsKey(key);
+    }
+    
+    public V put(int key, V value) {
+        if (this.isModificationObservable()) {
+            return super.put(key, value);
+        }
+        return this.<IntHashEntries<V>>getBaseEntries().put(key, value);
+    }
+    
+    public V remove(int key) {
+        if (this.isModificationObservable()) {
+            return super.remove((Integer)key);
+        }
+        return this.<IntHashEntries<V>>getBaseEntries().remove(key);
+    }
+
+    @Override
+    public V get(Object key) {
+        return key instanceof Integer ? this.get(((Integer)key).intValue()) : null;
+    }
+
+    @Override
+    public V put(Integer key, V value) {
+        return this.put(Arguments.mustNotBeNull("key", key).intValue(), value);
+    }
+
+    @Override
+    public V remove(Object key) {
+        return key instanceof Integer ? this.remove(((Integer)key).intValue()) : null;
+    }
+
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        this.writeState(out);
+    }
+    
+    private void readObject(ObjectInputStream in) throws ClassNotFoundException, IOException {
+        this.readState(in);
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * BabyFish, Object Model Framework for Java and JPA.
+ * https://github.com/babyfish-ct/babyfish
+ *
+ * Copyright (c) 2008-2016, Tao Chen
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * Please visit "http://opensource.org/licenses/LGPL-3.0" to know more.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ */
+package org.babyfish.collection;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.Collection;
+
+import org.babyfish.collection.spi.AbstractMASet;
+import org.babyfish.collection.spi.base.BaseEntries;
+import org.babyfish.collection.spi.base.IntHashEntries;
+import org.babyfish.lang.Arguments;
+
+/**
+ * The hash modification aware set whose elements are {@code int} values.
+ * 
+ * <p>
+ * The elements are stored in a primitive array with open addressing, 
+ * the methods with {@code int} parameters neither box the element 
+ * nor create the entry object, unless the modification can be observed by listeners.
+ * The element is never null.
+ * </p>
+ * 
+ * @author Tao Chen
+ */
+public class MAIntHashSet extends AbstractMASet<Integer> implements Serializable {
+
+    private static final long serialVersionUID = -6263803084252247672L;
+    
+    private static final Object PRESENT = BaseEntries.PRESENT;
+
+    public MAIntHashSet() {
+        super(
+                new IntHashEntries.TransientValue<Object>(
+                        null,
+                        16,
+                        .75F
+                )
+        );
+    }
+
+    public MAIntHashSet(int initCapacity) {
+        super(
+                new IntHashEntries.TransientValue<Object>(
+                        null,
+                        initCapacity,
+                        .75F
+                )
+        );
+    }
+
+    public MAIntHashSet(int initCapacity, Float loadFactor) {
+        super(
+                new IntHashEntries.TransientValue<Object>(
+                        null,
+                        initCapacity,
+                        loadFactor
+                )
+        );
+    }
+
+    public MAIntHashSet(Collection<? extends Integer> c) {
+        super(
+                new IntHashEntries.TransientValue<Object>(
+                        null,
+                        16,
+                        .75F
+                )
+        );
+        this.addAll(c);
+    }
+
+    public MAIntHashSet(int initCapacity, Float loadFactor, Collection<? extends Integer> c) {
+        super(
+                new IntHashEntries.TransientValue<Object>(
+                        null,
+                        initCapacity,
+                        loadFactor
+                )
+        );
+        this.addAll(c);
+    }
+
+    public boolean contains(int e) {
+        return this.<IntHashEntries<Object>>getBaseEntries().containsKey(e);
+    }
+    
+    public boolean add(int e) {
+        if (this.isModificationObservable()) {
+            return super.add(e);
+        }
+        return this.<IntHashEntries<Object>>getBaseEntries().put(e, PRESENT) == null;
+    }
+    
+    public boolean remove(int e) {
+        if (this.isModificationObservable()) {
+            return super.remove((Integer)e);
+        }
+        return this.<IntHashEntries<Object>>getBaseEntries().remove(e) != null;
+    }
+
+    @Override
+    public boolean add(Integer e) {
+        return this.add(Arguments.mustNotBeNull("e", e).intValue());
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        return o instanceof Integer && this.remove(((Integer)o).intValue());
+    }
+
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        this.writeState(out);
+    }
+    
+    private void readObject(ObjectInputStream in) throws ClassNotFoundException, IOException {
+        this.readState(in);
+    }
+}
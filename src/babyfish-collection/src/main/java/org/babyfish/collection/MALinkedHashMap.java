@@ -26,6 +26,7 @@ import java.util.Map;
 
 import org.babyfish.collection.spi.AbstractMAOrderedMap;
 import org.babyfish.collection.spi.base.LinkedHashEntries;
+import org.babyfish.lang.Arguments;
 
 /**
  * @author Tao Chen
@@ -10508,6 +10509,54 @@ public class MALinkedHashMap<K, V> extends AbstractMAOrderedMap<K, V> implements
         this.putAll(m);
     }
 
+    /**
+     * Creates a bounded map whose access mode and replace mode are 
+     * {@link OrderAdjustMode#TAIL}, so the entry at the head is the 
+     * least recently used one.
+     * 
+     * @param evictionPolicy The eviction policy, it can not be null.
+     * @param maxSize The max size of the map.
+     */
+    public MALinkedHashMap(EvictionPolicy evictionPolicy, long maxSize) {
+        this(evictionPolicy, maxSize, null);
+    }
+
+    /**
+     * Creates a bounded map whose access mode and replace mode are 
+     * {@link OrderAdjustMode#TAIL}, so the entry at the head is the 
+     * least recently used one.
+     * 
+     * @param evictionPolicy The eviction policy, it can not be null.
+     * @param maxSize The max size of the map, or the max total weight 
+     * of the entries if the weigher is not null.
+     * @param weigher The weigher of the entries, it can be null.
+     */
+    public MALinkedHashMap(
+            EvictionPolicy evictionPolicy, 
+            long maxSize, 
+            Weigher<? super K, ? super V> weigher) {
+        super(
+                new LinkedHashEntries<K, V>(
+                        BidiType.NONE,
+                        ReplacementRule.NEW_REFERENCE_WIN,
+                        null,
+                        null,
+                        16,
+                        .75F,
+                        false,
+                        OrderAdjustMode.TAIL,
+                        OrderAdjustMode.TAIL,
+                        Arguments.mustNotBeNull("evictionPolicy", evictionPolicy),
+                        maxSize,
+                        weigher
+                )
+        );
+    }
+    
+    private MALinkedHashMap(LinkedHashEntries<K, V> baseEntries) {
+        super(baseEntries);
+    }
+
     private void writeObject(ObjectOutputStream out) throws IOException {
         this.writeState(out);
     }
@@ -10539,6 +10588,12 @@ public class MALinkedHashMap<K, V> extends AbstractMAOrderedMap<K, V> implements
         private OrderAdjustMode accessMode = OrderAdjustMode.NONE;
 
         private OrderAdjustMode replaceMode = OrderAdjustMode.NONE;
+        
+        private EvictionPolicy evictionPolicy = null;
+        
+        private long maxSize = Long.MAX_VALUE;
+        
+        private Weigher<? super K, ? super V> weigher = null;
 
         public Builder<K, V> setBidiInfo(BidiType bidiType) {
             this.bidiType = bidiType != null ? bidiType : BidiType.NONE;
@@ -10655,7 +10710,44 @@ public class MALinkedHashMap<K, V> extends AbstractMAOrderedMap<K, V> implements
             return this;
         }
 
+        public Builder<K, V> setEvictionPolicy(EvictionPolicy evictionPolicy) {
+            this.evictionPolicy = evictionPolicy;
+            return this;
+        }
+        
+        public Builder<K, V> setMaxSize(long maxSize) {
+            this.maxSize = Arguments.mustBeGreaterThanOrEqualToValue("maxSize", maxSize, 0L);
+            return this;
+        }
+        
+        public Builder<K, V> setWeigher(Weigher<? super K, ? super V> weigher) {
+            this.weigher = weigher;
+            return this;
+        }
+
         public MALinkedHashMap<K, V> build() {
+            if (this.evictionPolicy != null) {
+                return new MALinkedHashMap<K, V>(
+                        new LinkedHashEntries<K, V>(
+                                this.bidiType,
+                                this.keyReplacementRule,
+                                this.keyEqualityComparator,
+                                this.valueEqualityComparator != null ? 
+                                        this.valueEqualityComparator : 
+                                        this.valueComparator != null ?
+                                                this.valueComparator :
+                                                this.valueUnifiedComparator,
+                                this.initCapacity,
+                                this.loadFactor,
+                                this.headAppend,
+                                this.accessMode,
+                                this.replaceMode,
+                                this.evictionPolicy,
+                                this.maxSize,
+                                this.weigher
+                        )
+                );
+            }
             if (this.valueEqualityComparator != null) {
                 return new MALinkedHashMap<K, V>(
                         this.bidiType,
@@ -25,6 +25,7 @@ import java.util.Collection;
 import java.util.Comparator;
 
 import org.babyfish.collection.spi.AbstractMAList;
+import org.babyfish.collection.spi.base.BaseElements;
 import org.babyfish.collection.spi.base.LinkedElements;
 
 /**
@@ -445,6 +446,8 @@ public class MALinkedList<E> extends AbstractMAList<E> implements Serializable {
 
         private UnifiedComparator<? super E> unifiedComparator = null;
 
+        private boolean hashIndexed;
+
         public Builder<E> setBidiType(BidiType bidiType) {
             this.bidiType = bidiType != null ? bidiType : BidiType.NONE;
             return this;
@@ -530,7 +533,20 @@ public class MALinkedList<E> extends AbstractMAList<E> implements Serializable {
             return this;
         }
 
+        public Builder<E> setHashIndexed(boolean hashIndexed) {
+            this.hashIndexed = hashIndexed;
+            return this;
+        }
+
         public MALinkedList<E> build() {
+            MALinkedList<E> list = this.create();
+            if (this.hashIndexed) {
+                list.<BaseElements<E>>getBaseElements().initHashIndex();
+            }
+            return list;
+        }
+        
+        private MALinkedList<E> create() {
             if (this.equalityComparator != null) {
                 return new MALinkedList<>(
                         this.bidiType,
@@ -0,0 +1,136 @@
+/*
+ * BabyFish, Object Model Framework for Java and JPA.
+ * https://github.com/babyfish-ct/babyfish
+ *
+ * Copyright (c) 2008-2016, Tao Chen
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * Please visit "http://opensource.org/licenses/LGPL-3.0" to know more.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ */
+package org.babyfish.collection;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.Collection;
+
+import org.babyfish.collection.spi.AbstractMASet;
+import org.babyfish.collection.spi.base.BaseEntries;
+import org.babyfish.collection.spi.base.LongHashEntries;
+import org.babyfish.lang.Arguments;
+
+/**
+ * The hash modification aware set whose elements are {@code long} values.
+ * 
+ * <p>
+ * The elements are stored in a primitive array with open addressing, 
+ * the methods with {@code long} parameters neither box the element 
+ * nor create the entry object, unless the modification can be observed by listeners.
+ * The element is never null.
+ * </p>
+ * 
+ * @author Tao Chen
+ */
+public class MALongHashSet extends AbstractMASet<Long> implements Serializable {
+
+    private static final long serialVersionUID = -481217802780322656L;
+    
+    private static final Object PRESENT = BaseEntries.PRESENT;
+
+    public MALongHashSet() {
+        super(
+                new LongHashEntries.TransientValue<Object>(
+                        null,
+                        16,
+                        .75F
+                )
+        );
+    }
+
+    public MALongHashSet(int initCapacity) {
+        super(
+                new LongHashEntries.TransientValue<Object>(
+                        null,
+                        initCapacity,
+                        .75F
+                )
+        );
+    }
+
+    public MALongHashSet(int initCapacity, Float loadFactor) {
+        super(
+                new LongHashEntries.TransientValue<Object>(
+                        null,
+                        initCapacity,
+                        loadFactor
+                )
+        );
+    }
+
+    public MALongHashSet(Collection<? extends Long> c) {
+        super(
+                new LongHashEntries.TransientValue<Object>(
+                        null,
+                        16,
+                        .75F
+                )
+        );
+        this.addAll(c);
+    }
+
+    public MALongHashSet(int initCapacity, Float loadFactor, Collection<? extends Long> c) {
+        super(
+                new LongHashEntries.TransientValue<Object>(
+                        null,
+                        initCapacity,
+                        loadFactor
+                )
+        );
+        this.addAll(c);
+    }
+
+    public boolean contains(long e) {
+        return this.<LongHashEntries<Object>>getBaseEntries().containsKey(e);
+    }
+    
+    public boolean add(long e) {
+        if (this.isModificationObservable()) {
+            return super.add(e);
+        }
+        return this.<LongHashEntries<Object>>getBaseEntries().put(e, PRESENT) == null;
+    }
+    
+    public boolean remove(long e) {
+        if (this.isModificationObservable()) {
+            return super.remove((Long)e);
+        }
+        return this.<LongHashEntries<Object>>getBaseEntries().remove(e) != null;
+    }
+
+    @Override
+    public boolean add(Long e) {
+        return this.add(Arguments.mustNotBeNull("e", e).longValue());
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        return o instanceof Long && this.remove(((Long)o).longValue());
+    }
+
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        this.writeState(out);
+    }
+    
+    private void readObject(ObjectInputStream in) throws ClassNotFoundException, IOException {
+        this.readState(in);
+    }
+}
@@ -41,6 +41,9 @@ public interface MANavigableMap<K, V> extends XNavigableMap<K, V>, MASortedMap<K
 
     @Override
     MAEntry<K, V> higherEntry(K key);
+    
+    @Override
+    MAEntry<K, V> entryAt(int index);
 
     @Override
     MANavigableMapView<K,V> descendingMap();
@@ -25,6 +25,8 @@ import java.util.Collection;
 import java.util.Comparator;
 
 import org.babyfish.collection.spi.AbstractMANavigableSet;
+import org.babyfish.collection.spi.base.BTreeEntries;
+import org.babyfish.collection.spi.base.NavigableBaseEntries;
 import org.babyfish.collection.spi.base.RedBlackTreeEntries;
 
 /**
@@ -121,6 +123,39 @@ public class MATreeSet<E> extends AbstractMANavigableSet<E> implements Serializa
         this.addAll(c);
     }
     
+    public MATreeSet(TreeStorage storage) {
+        this(MATreeSet.<E>createBaseEntries(storage, ReplacementRule.NEW_REFERENCE_WIN, null));
+    }
+
+    public MATreeSet(
+            TreeStorage storage,
+            ReplacementRule replacementRule,
+            Comparator<? super E> comparator) {
+        this(MATreeSet.<E>createBaseEntries(storage, replacementRule, comparator));
+    }
+    
+    private MATreeSet(NavigableBaseEntries<E, Object> baseEntries) {
+        super(baseEntries);
+    }
+    
+    private static <E> NavigableBaseEntries<E, Object> createBaseEntries(
+            TreeStorage storage,
+            ReplacementRule replacementRule,
+            Comparator<? super E> comparator) {
+        if (storage == TreeStorage.B_TREE) {
+            return new BTreeEntries.TransientValue<E, Object>(
+                    replacementRule,
+                    comparator,
+                    null
+            );
+        }
+        return new RedBlackTreeEntries.TransientValue<E, Object>(
+                replacementRule,
+                comparator,
+                null
+        );
+    }
+    
     private void writeObject(ObjectOutputStream out) throws IOException {
         this.writeState(out);
     }
@@ -135,6 +170,8 @@ public class MATreeSet<E> extends AbstractMANavigableSet<E> implements Serializa
 
         private Comparator<? super E> comparator = null;
 
+        private TreeStorage storage = TreeStorage.RED_BLACK_TREE;
+
         public Builder<E> setReplacementRule(ReplacementRule replacementRule) {
             this.replacementRule = replacementRule != null ? replacementRule : ReplacementRule.NEW_REFERENCE_WIN;
             return this;
@@ -145,8 +182,14 @@ public class MATreeSet<E> extends AbstractMANavigableSet<E> implements Serializa
             return this;
         }
 
+        public Builder<E> setStorage(TreeStorage storage) {
+            this.storage = storage != null ? storage : TreeStorage.RED_BLACK_TREE;
+            return this;
+        }
+
         public MATreeSet<E> build() {
             return new MATreeSet<E>(
+                    this.storage,
                     this.replacementRule,
                     this.comparator
             );
@@ -0,0 +1,142 @@
+/*
+ * BabyFish, Object Model Framework for Java and JPA.
+ * https://github.com/babyfish-ct/babyfish
+ *
+ * Copyright (c) 2008-2016, Tao Chen
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * Please visit "http://opensource.org/licenses/LGPL-3.0" to know more.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ */
+package org.babyfish.collection;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.Flushable;
+import java.io.IOException;
+import java.util.Comparator;
+
+import org.babyfish.collection.spi.AbstractXNavigableMap;
+import org.babyfish.collection.spi.base.MappedTreeEntries;
+
+/**
+ * The navigable map that is stored in a memory-mapped file as a B+tree.
+ * 
+ * <p>
+ * Opening an existing file neither reads nor sorts the entries, 
+ * so a large index can be reused by the next process immediately.
+ * The keys and the values are serialized by the {@link OffHeapSerializer}s,
+ * the keys and the values returned by this map are deserialized copies, 
+ * so the bidirectional mode is not supported and the change of 
+ * a returned object does not affect this map.
+ * </p>
+ * 
+ * <p>
+ * The modifications are durable after {@link #flush()} or {@link #close()}, 
+ * a file that was modified but neither flushed nor closed can not be opened again 
+ * unless it is opened by 
+ * {@link #MappedTreeMap(File, Comparator, OffHeapSerializer, OffHeapSerializer, int, boolean)}
+ * with the recovery flag.
+ * The file must be opened with the same comparator and the same serializers.
+ * </p>
+ * 
+ * @author Tao Chen
+ */
+public class MappedTreeMap<K, V> extends AbstractXNavigableMap<K, V> implements Closeable, Flushable {
+    
+    private static final int DEFAULT_SEGMENT_SIZE = 1 << 26;
+    
+    public MappedTreeMap(
+            File file, 
+            OffHeapSerializer<K> keySerializer, 
+            OffHeapSerializer<V> valueSerializer) throws IOException {
+        this(file, null, keySerializer, valueSerializer, DEFAULT_SEGMENT_SIZE);
+    }
+    
+    public MappedTreeMap(
+            File file, 
+            Comparator<? super K> keyComparator,
+            OffHeapSerializer<K> keySerializer, 
+            OffHeapSerializer<V> valueSerializer) throws IOException {
+        this(file, keyComparator, keySerializer, valueSerializer, DEFAULT_SEGMENT_SIZE);
+    }
+    
+    /**
+     * @param segmentSize The byte size of each mapped segment of a new file, 
+     * it is ignored when an existing file is opened.
+     */
+    public MappedTreeMap(
+            File file, 
+            Comparator<? super K> keyComparator,
+            OffHeapSerializer<K> keySerializer, 
+            OffHeapSerializer<V> valueSerializer,
+            int segmentSize) throws IOException {
+        this(file, keyComparator, keySerializer, valueSerializer, segmentSize, false);
+    }
+    
+    /**
+     * @param segmentSize The byte size of each mapped segment of a new file, 
+     * it is ignored when an existing file is opened.
+     * @param recoverDirtyFile Whether the file that was modified but neither flushed 
+     * nor closed should be recovered from its chain of the leaves, the entries of 
+     * the modification that was interrupted may be lost.
+     */
+    public MappedTreeMap(
+            File file, 
+            Comparator<? super K> keyComparator,
+            OffHeapSerializer<K> keySerializer, 
+            OffHeapSerializer<V> valueSerializer,
+            int segmentSize,
+            boolean recoverDirtyFile) throws IOException {
+        super(
+                new MappedTreeEntries<K, V>(
+                        file, 
+                        keyComparator, 
+                        keySerializer, 
+                        valueSerializer, 
+                        segmentSize,
+                        recoverDirtyFile
+                )
+        );
+    }
+    
+    public File getFile() {
+        return this.<MappedTreeEntries<K, V>>getBaseEntries().getFile();
+    }
+    
+    public boolean isClosed() {
+        return this.<MappedTreeEntries<K, V>>getBaseEntries().isClosed();
+    }
+    
+    @Override
+    public void flush() throws IOException {
+        this.<MappedTreeEntries<K, V>>getBaseEntries().flush();
+    }
+    
+    @Override
+    public void close() throws IOException {
+        this.<MappedTreeEntries<K, V>>getBaseEntries().close();
+    }
+
+    @Override
+    public V get(Object key) {
+        return this.<MappedTreeEntries<K, V>>getBaseEntries().getValue(key);
+    }
+
+    @Override
+    public V put(K key, V value) {
+        return this.<MappedTreeEntries<K, V>>getBaseEntries().putValue(key, value);
+    }
+
+    @Override
+    public V remove(Object key) {
+        return this.<MappedTreeEntries<K, V>>getBaseEntries().removeValue(key);
+    }
+}
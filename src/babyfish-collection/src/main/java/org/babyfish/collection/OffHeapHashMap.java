@@ -0,0 +1,120 @@
+/*
+ * BabyFish, Object Model Framework for Java and JPA.
+ * https://github.com/babyfish-ct/babyfish
+ *
+ * Copyright (c) 2008-2016, Tao Chen
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * Please visit "http://opensource.org/licenses/LGPL-3.0" to know more.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ */
+package org.babyfish.collection;
+
+import java.io.Closeable;
+import java.io.NotSerializableException;
+import java.io.ObjectStreamException;
+
+import org.babyfish.collection.spi.AbstractXMap;
+import org.babyfish.collection.spi.base.OffHeapHashEntries;
+
+/**
+ * The hash map whose keys and values are stored out of the java heap.
+ * 
+ * <p>
+ * The keys and the values are serialized by the {@link OffHeapSerializer}s 
+ * into the direct memory, so a very large map neither makes the heap 
+ * big nor makes the garbage collection slow. 
+ * The keys are compared by their serialized bytes, 
+ * the null key is not supported but the null value is supported.
+ * The keys and the values returned by this map are deserialized copies, 
+ * so this map does not support the bidirectional mode and 
+ * the change of a returned object does not affect this map.
+ * </p>
+ * 
+ * <p>
+ * Please call {@link #close()} to release the direct memory 
+ * when this map is not used any more.
+ * </p>
+ * 
+ * <p>
+ * This map is not serializable because the direct memory can not be serialized, 
+ * even the derived class which implements {@link java.io.Serializable} 
+ * can not be serialized.
+ * </p>
+ * 
+ * @author Tao Chen
+ */
+public class OffHeapHashMap<K, V> extends AbstractXMap<K, V> implements Closeable {
+    
+    private static final int DEFAULT_CHUNK_SIZE = 1 << 24;
+
+    public OffHeapHashMap(OffHeapSerializer<K> keySerializer, OffHeapSerializer<V> valueSerializer) {
+        this(keySerializer, valueSerializer, 16, .75F, DEFAULT_CHUNK_SIZE);
+    }
+    
+    public OffHeapHashMap(
+            OffHeapSerializer<K> keySerializer, 
+            OffHeapSerializer<V> valueSerializer, 
+            int initCapacity) {
+        this(keySerializer, valueSerializer, initCapacity, .75F, DEFAULT_CHUNK_SIZE);
+    }
+    
+    /**
+     * @param chunkSize The byte size of each direct buffer that stores the serialized entries.
+     */
+    public OffHeapHashMap(
+            OffHeapSerializer<K> keySerializer, 
+            OffHeapSerializer<V> valueSerializer, 
+            int initCapacity, 
+            Float loadFactor, 
+            int chunkSize) {
+        super(
+                new OffHeapHashEntries<K, V>(
+                        keySerializer, 
+                        valueSerializer, 
+                        initCapacity, 
+                        loadFactor, 
+                        chunkSize
+                )
+        );
+    }
+    
+    public long allocatedBytes() {
+        return this.<OffHeapHashEntries<K, V>>getBaseEntries().allocatedBytes();
+    }
+    
+    public boolean isClosed() {
+        return this.<OffHeapHashEntries<K, V>>getBaseEntries().isClosed();
+    }
+    
+    @Override
+    public void close() {
+        this.<OffHeapHashEntries<K, V>>getBaseEntries().close();
+    }
+
+    @Override
+    public V get(Object key) {
+        return this.<OffHeapHashEntries<K, V>>getBaseEntries().getValue(key);
+    }
+
+    @Override
+    public V put(K key, V value) {
+        return this.<OffHeapHashEntries<K, V>>getBaseEntries().putValue(key, value);
+    }
+
+    @Override
+    public V remove(Object key) {
+        return this.<OffHeapHashEntries<K, V>>getBaseEntries().removeValue(key);
+    }
+    
+    protected final Object writeReplace() throws ObjectStreamException {
+        throw new NotSerializableException(this.getClass().getName());
+    }
+}
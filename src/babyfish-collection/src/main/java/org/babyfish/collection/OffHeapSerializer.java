@@ -0,0 +1,43 @@
+/*
+ * BabyFish, Object Model Framework for Java and JPA.
+ * https://github.com/babyfish-ct/babyfish
+ *
+ * Copyright (c) 2008-2016, Tao Chen
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * Please visit "http://opensource.org/licenses/LGPL-3.0" to know more.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ */
+package org.babyfish.collection;
+
+/**
+ * Converts the keys and the values of {@link OffHeapHashMap} to bytes and back.
+ * 
+ * <p>
+ * The keys are compared by their serialized bytes, so the key serializer must be 
+ * canonical: two keys that are equal must always be serialized to the same bytes, 
+ * and two keys that are not equal must be serialized to different bytes.
+ * </p>
+ * 
+ * <p>
+ * The null is never passed to this serializer, 
+ * the null values are handled by the off-heap storage itself.
+ * </p>
+ * 
+ * @see OffHeapSerializers
+ * 
+ * @author Tao Chen
+ */
+public interface OffHeapSerializer<T> {
+
+    byte[] serialize(T obj);
+    
+    T deserialize(byte[] bytes);
+}
@@ -0,0 +1,138 @@
+/*
+ * BabyFish, Object Model Framework for Java and JPA.
+ * https://github.com/babyfish-ct/babyfish
+ *
+ * Copyright (c) 2008-2016, Tao Chen
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * Please visit "http://opensource.org/licenses/LGPL-3.0" to know more.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ */
+package org.babyfish.collection;
+
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The built-in {@link OffHeapSerializer}s.
+ * 
+ * @author Tao Chen
+ */
+public final class OffHeapSerializers {
+    
+    public static final OffHeapSerializer<Integer> INTEGER = new IntegerSerializer();
+    
+    public static final OffHeapSerializer<Long> LONG = new LongSerializer();
+    
+    public static final OffHeapSerializer<String> STRING = new StringSerializer();
+    
+    /**
+     * The byte arrays are stored as they are and each deserialization 
+     * creates a new byte array. Be careful, when it is used as the key 
+     * serializer, the keys are compared by their contents, 
+     * not by the reference like {@link java.util.HashMap}.
+     */
+    public static final OffHeapSerializer<byte[]> BYTE_ARRAY = new ByteArraySerializer();
+
+    private OffHeapSerializers() {
+        throw new UnsupportedOperationException();
+    }
+    
+    private static class IntegerSerializer implements OffHeapSerializer<Integer>, Serializable {
+
+        private static final long serialVersionUID = -4409342806307216539L;
+
+        @Override
+        public byte[] serialize(Integer obj) {
+            int i = obj;
+            return new byte[] { (byte)(i >>> 24), (byte)(i >>> 16), (byte)(i >>> 8), (byte)i };
+        }
+
+        @Override
+        public Integer deserialize(byte[] bytes) {
+            return 
+                    (bytes[0] & 0xFF) << 24 | 
+                    (bytes[1] & 0xFF) << 16 | 
+                    (bytes[2] & 0xFF) << 8 | 
+                    (bytes[3] & 0xFF);
+        }
+        
+        private Object readResolve() {
+            return INTEGER;
+        }
+    }
+    
+    private static class LongSerializer implements OffHeapSerializer<Long>, Serializable {
+
+        private static final long serialVersionUID = 4966284311327993395L;
+
+        @Override
+        public byte[] serialize(Long obj) {
+            long l = obj;
+            byte[] bytes = new byte[8];
+            for (int i = 7; i >= 0; i--) {
+                bytes[i] = (byte)l;
+                l >>>= 8;
+            }
+            return bytes;
+        }
+
+        @Override
+        public Long deserialize(byte[] bytes) {
+            long l = 0;
+            for (int i = 0; i < 8; i++) {
+                l = l << 8 | (bytes[i] & 0xFF);
+            }
+            return l;
+        }
+        
+        private Object readResolve() {
+            return LONG;
+        }
+    }
+    
+    private static class StringSerializer implements OffHeapSerializer<String>, Serializable {
+
+        private static final long serialVersionUID = 2328823914702373541L;
+
+        @Override
+        public byte[] serialize(String obj) {
+            return obj.getBytes(StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public String deserialize(byte[] bytes) {
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+        
+        private Object readResolve() {
+            return STRING;
+        }
+    }
+    
+    private static class ByteArraySerializer implements OffHeapSerializer<byte[]>, Serializable {
+
+        private static final long serialVersionUID = -1180386990315372946L;
+
+        @Override
+        public byte[] serialize(byte[] obj) {
+            return obj;
+        }
+
+        @Override
+        public byte[] deserialize(byte[] bytes) {
+            return bytes;
+        }
+        
+        private Object readResolve() {
+            return BYTE_ARRAY;
+        }
+    }
+}
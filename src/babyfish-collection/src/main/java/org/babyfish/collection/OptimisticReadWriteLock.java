@@ -0,0 +1,295 @@
+/*
+ * BabyFish, Object Model Framework for Java and JPA.
+ * https://github.com/babyfish-ct/babyfish
+ *
+ * Copyright (c) 2008-2016, Tao Chen
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * Please visit "http://opensource.org/licenses/LGPL-3.0" to know more.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ */
+package org.babyfish.collection;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Supplier;
+
+import org.babyfish.lang.Arguments;
+import org.babyfish.lang.I18N;
+
+/**
+ * The {@link ReadWriteLock} based on {@link StampedLock}.
+ * 
+ * <p>When it is used by {@link MACollections#locked(XMap, ReadWriteLock)}
+ * (or the other overloaded methods), the methods "get", "containsKey", "size" and "isEmpty"
+ * of the locked map try the optimistic read without any lock at first, 
+ * and fall back to the read lock only when the map is modified by another thread 
+ * during the optimistic read. The optimistic read is supported by 
+ * {@link HashMap}, {@link LinkedHashMap}, {@link TreeMap} and their 
+ * MA versions which use the default storage, the other maps always use the read lock.</p>
+ * 
+ * <p>Unlike {@link java.util.concurrent.locks.ReentrantReadWriteLock}, 
+ * this lock is not reentrant. The thread that holds the write lock can 
+ * neither read nor modify the locked map again, for example, a listener 
+ * of a locked MA map that reads that map during its modification; 
+ * that would be a deadlock, so this lock throws {@link IllegalStateException}
+ * instead of blocking. The thread that holds the read lock must not 
+ * acquire the write lock either, that deadlock is not detected.
+ * Use the default {@link java.util.concurrent.locks.ReentrantReadWriteLock}
+ * of {@link MACollections#locked(MAMap)} if the listeners access the locked map.</p>
+ * 
+ * @author Tao Chen
+ */
+public class OptimisticReadWriteLock implements ReadWriteLock, Serializable {
+    
+    private static final long serialVersionUID = 3160519316434786524L;
+
+    private final StampedLock stampedLock;
+    
+    private transient LongAdder optimisticReadCount;
+    
+    private transient LongAdder fallbackReadCount;
+    
+    private transient Lock readLock;
+    
+    private transient Lock writeLock;
+    
+    /*
+     * Only the owner thread sets this field to itself and clears it, 
+     * so the other threads never see their own thread here, 
+     * it need not to be volatile.
+     */
+    private transient Thread writeOwner;
+    
+    public OptimisticReadWriteLock() {
+        this(new StampedLock());
+    }
+    
+    public OptimisticReadWriteLock(StampedLock stampedLock) {
+        this.stampedLock = Arguments.mustNotBeNull("stampedLock", stampedLock);
+        this.init();
+    }
+    
+    public final StampedLock getStampedLock() {
+        return this.stampedLock;
+    }
+
+    /**
+     * Returns the read lock view of the {@link StampedLock}.
+     * 
+     * @exception IllegalStateException Its "lock" methods are invoked by 
+     * the thread that holds the write lock.
+     */
+    @Override
+    public Lock readLock() {
+        return this.readLock;
+    }
+
+    /**
+     * Returns the write lock view of the {@link StampedLock}.
+     * 
+     * @exception IllegalStateException Its "lock" methods are invoked by 
+     * the thread that holds the write lock.
+     */
+    @Override
+    public Lock writeLock() {
+        return this.writeLock;
+    }
+    
+    /**
+     * @return How many reads are finished by the optimistic read successfully
+     */
+    public long getOptimisticReadCount() {
+        return this.optimisticReadCount.sum();
+    }
+    
+    /**
+     * @return How many optimistic reads fall back to the read lock
+     */
+    public long getFallbackReadCount() {
+        return this.fallbackReadCount.sum();
+    }
+    
+    /**
+     * @return The rate of the optimistic reads that fall back to the read lock,
+     * it is 0 if no optimistic read has been tried.
+     */
+    public double getOptimisticRetryRate() {
+        long fallbackReadCount = this.fallbackReadCount.sum();
+        long total = this.optimisticReadCount.sum() + fallbackReadCount;
+        return total == 0 ? 0D : (double)fallbackReadCount / total;
+    }
+    
+    public void resetStatistics() {
+        this.optimisticReadCount.reset();
+        this.fallbackReadCount.reset();
+    }
+    
+    /*
+     * The optimisticReader can see the inconsistent state of the data
+     * that is being modified by another thread, any exception raised by it
+     * is ignored if the stamp is invalid.
+     */
+    <R> R read(Supplier<R> optimisticReader, Supplier<R> reader) {
+        StampedLock stampedLock = this.stampedLock;
+        long stamp = stampedLock.tryOptimisticRead();
+        if (stamp != 0L) {
+            R result = null;
+            RuntimeException exception = null;
+            try {
+                result = optimisticReader.get();
+            } catch (RuntimeException ex) {
+                exception = ex;
+            }
+            if (stampedLock.validate(stamp)) {
+                if (exception != null) {
+                    throw exception;
+                }
+                this.optimisticReadCount.increment();
+                return result;
+            }
+        }
+        this.checkReentry();
+        this.fallbackReadCount.increment();
+        stamp = stampedLock.readLock();
+        try {
+            return reader.get();
+        } finally {
+            stampedLock.unlockRead(stamp);
+        }
+    }
+    
+    /*
+     * The optimistic read does not check it because it never blocks,
+     * "tryOptimisticRead()" returns zero when the write lock is held.
+     */
+    private void checkReentry() {
+        if (this.writeOwner == Thread.currentThread()) {
+            throw new IllegalStateException(reentrantLocking());
+        }
+    }
+    
+    private void init() {
+        this.optimisticReadCount = new LongAdder();
+        this.fallbackReadCount = new LongAdder();
+        this.readLock = new ReadLock(this.stampedLock.asReadLock());
+        this.writeLock = new WriteLock(this.stampedLock.asWriteLock());
+    }
+    
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        this.init();
+    }
+    
+    private class ReadLock implements Lock {
+        
+        private final Lock raw;
+        
+        ReadLock(Lock raw) {
+            this.raw = raw;
+        }
+
+        @Override
+        public void lock() {
+            OptimisticReadWriteLock.this.checkReentry();
+            this.raw.lock();
+        }
+
+        @Override
+        public void lockInterruptibly() throws InterruptedException {
+            OptimisticReadWriteLock.this.checkReentry();
+            this.raw.lockInterruptibly();
+        }
+
+        @Override
+        public boolean tryLock() {
+            return this.raw.tryLock();
+        }
+
+        @Override
+        public boolean tryLock(long time, TimeUnit unit) throws InterruptedException {
+            OptimisticReadWriteLock.this.checkReentry();
+            return this.raw.tryLock(time, unit);
+        }
+
+        @Override
+        public void unlock() {
+            this.raw.unlock();
+        }
+
+        @Override
+        public Condition newCondition() {
+            return this.raw.newCondition();
+        }
+    }
+    
+    private class WriteLock implements Lock {
+        
+        private final Lock raw;
+        
+        WriteLock(Lock raw) {
+            this.raw = raw;
+        }
+
+        @Override
+        public void lock() {
+            OptimisticReadWriteLock.this.checkReentry();
+            this.raw.lock();
+            OptimisticReadWriteLock.this.writeOwner = Thread.currentThread();
+        }
+
+        @Override
+        public void lockInterruptibly() throws InterruptedException {
+            OptimisticReadWriteLock.this.checkReentry();
+            this.raw.lockInterruptibly();
+            OptimisticReadWriteLock.this.writeOwner = Thread.currentThread();
+        }
+
+        @Override
+        public boolean tryLock() {
+            if (this.raw.tryLock()) {
+                OptimisticReadWriteLock.this.writeOwner = Thread.currentThread();
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public boolean tryLock(long time, TimeUnit unit) throws InterruptedException {
+            OptimisticReadWriteLock.this.checkReentry();
+            if (this.raw.tryLock(time, unit)) {
+                OptimisticReadWriteLock.this.writeOwner = Thread.currentThread();
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public void unlock() {
+            OptimisticReadWriteLock.this.writeOwner = null;
+            this.raw.unlock();
+        }
+
+        @Override
+        public Condition newCondition() {
+            return this.raw.newCondition();
+        }
+    }
+    
+    @I18N
+    private static native String reentrantLocking();
+}
@@ -24,5 +24,12 @@ public enum ReaderOptimizationType {
 
     OPTIMIZE_READING,
     
-    OPTIMIZE_READ_LOCK
+    OPTIMIZE_READ_LOCK,
+    
+    /**
+     * Like {@link #OPTIMIZE_READ_LOCK}, the read operations never modify 
+     * the collection; and an indexable skip list is maintained by the 
+     * modification operations so that the positional access is O(log n).
+     */
+    OPTIMIZE_RANDOM_ACCESS
 }
@@ -25,6 +25,8 @@ import java.util.Comparator;
 import java.util.Map;
 
 import org.babyfish.collection.spi.AbstractXNavigableMap;
+import org.babyfish.collection.spi.base.BTreeEntries;
+import org.babyfish.collection.spi.base.NavigableBaseEntries;
 import org.babyfish.collection.spi.base.RedBlackTreeEntries;
 
 /**
@@ -594,6 +596,73 @@ public class TreeMap<K, V> extends AbstractXNavigableMap<K, V> implements Serial
         this.putAll(m);
     }
 
+    public TreeMap(TreeStorage storage) {
+        this(
+                TreeMap.<K, V>createBaseEntries(
+                        storage,
+                        BidiType.NONE,
+                        ReplacementRule.NEW_REFERENCE_WIN,
+                        null,
+                        null
+                )
+        );
+    }
+
+    public TreeMap(TreeStorage storage, Comparator<? super K> keyComparator) {
+        this(
+                TreeMap.<K, V>createBaseEntries(
+                        storage,
+                        BidiType.NONE,
+                        ReplacementRule.NEW_REFERENCE_WIN,
+                        keyComparator,
+                        null
+                )
+        );
+    }
+
+    public TreeMap(
+            TreeStorage storage,
+            BidiType bidiType, 
+            ReplacementRule keyReplacementRule,
+            Comparator<? super K> keyComparator,
+            UnifiedComparator<? super V> valueUnifiedComparator) {
+        this(
+                TreeMap.<K, V>createBaseEntries(
+                        storage,
+                        bidiType,
+                        keyReplacementRule,
+                        keyComparator,
+                        valueUnifiedComparator
+                )
+        );
+    }
+    
+    private TreeMap(NavigableBaseEntries<K, V> baseEntries) {
+        super(baseEntries);
+    }
+    
+    private static <K, V> NavigableBaseEntries<K, V> createBaseEntries(
+            TreeStorage storage,
+            BidiType bidiType, 
+            ReplacementRule keyReplacementRule,
+            Comparator<? super K> keyComparator,
+            Object valueComparatorOrEqualityComparatorOrUnifiedComparator) {
+        if (storage == TreeStorage.B_TREE) {
+            return new BTreeEntries<K, V>(
+                    bidiType,
+                    keyReplacementRule,
+                    keyComparator,
+                    valueComparatorOrEqualityComparatorOrUnifiedComparator
+            );
+        }
+        return new RedBlackTreeEntries<K, V>(
+                bidiType,
+                keyReplacementRule,
+                keyComparator,
+                valueComparatorOrEqualityComparatorOrUnifiedComparator
+        );
+    }
+
     private void writeObject(ObjectOutputStream out) throws IOException {
         this.writeState(out);
     }
@@ -616,6 +685,8 @@ public class TreeMap<K, V> extends AbstractXNavigableMap<K, V> implements Serial
 
         private UnifiedComparator<? super V> valueUnifiedComparator = null;
 
+        private TreeStorage storage = TreeStorage.RED_BLACK_TREE;
+
         public Builder<K, V> setBidiInfo(BidiType bidiType) {
             this.bidiType = bidiType != null ? bidiType : BidiType.NONE;
             return this;
@@ -706,7 +777,27 @@ public class TreeMap<K, V> extends AbstractXNavigableMap<K, V> implements Serial
             return this;
         }
 
+        public Builder<K, V> setStorage(TreeStorage storage) {
+            this.storage = storage != null ? storage : TreeStorage.RED_BLACK_TREE;
+            return this;
+        }
+
         public TreeMap<K, V> build() {
+            if (this.storage != TreeStorage.RED_BLACK_TREE) {
+                return new TreeMap<K, V>(
+                        TreeMap.<K, V>createBaseEntries(
+                                this.storage,
+                                this.bidiType,
+                                this.keyReplacementRule,
+                                this.keyComparator,
+                                this.valueEqualityComparator != null ? 
+                                        this.valueEqualityComparator : 
+                                        this.valueComparator != null ?
+                                                this.valueComparator :
+                                                this.valueUnifiedComparator
+                        )
+                );
+            }
             if (this.valueEqualityComparator != null) {
                 return new TreeMap<K, V>(
                         this.bidiType,
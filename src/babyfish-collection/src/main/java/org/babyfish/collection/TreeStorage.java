@@ -0,0 +1,36 @@
+/*
+ * BabyFish, Object Model Framework for Java and JPA.
+ * https://github.com/babyfish-ct/babyfish
+ *
+ * Copyright (c) 2008-2016, Tao Chen
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * Please visit "http://opensource.org/licenses/LGPL-3.0" to know more.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ */
+package org.babyfish.collection;
+
+/**
+ * The storage algorithm of the tree based collections.
+ * 
+ * <ul>
+ *  <li>{@link #RED_BLACK_TREE}: Each entry is a node object linked 
+ *  with its parent and children, this is the default storage.</li>
+ *  <li>{@link #B_TREE}: The entries are stored in the arrays of the chained 
+ *  leaves of a B+tree, the lookup and the range scan touch much less 
+ *  memory blocks for large collections.</li>
+ * </ul>
+ * 
+ * @author Tao Chen
+ */
+public enum TreeStorage {
+    RED_BLACK_TREE,
+    B_TREE,
+}
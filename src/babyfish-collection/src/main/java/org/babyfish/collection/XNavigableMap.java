@@ -44,6 +44,22 @@ public interface XNavigableMap<K, V> extends NavigableMap<K, V>, XSortedMap<K, V
     @Override
     XEntry<K, V> ceilingEntry(K key);
     
+    /**
+     * Gets the entry by its position in the iteration order of this map, 
+     * it costs O(log(n)) for the tree map and its sub map views.
+     * 
+     * @exception IndexOutOfBoundsException The index is not between 0(inclusive) and size()(exclusive)
+     */
+    XEntry<K, V> entryAt(int index);
+    
+    /**
+     * Gets the position of the key in the iteration order of this map, 
+     * it costs O(log(n)) for the tree map and its sub map views.
+     * 
+     * @return The position of the key, or -1 if this map does not contain the key.
+     */
+    int indexOf(K key);
+    
     @Override
     XNavigableMapView<K, V> descendingMap();
     
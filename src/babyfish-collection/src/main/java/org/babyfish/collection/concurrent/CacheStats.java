@@ -0,0 +1,111 @@
+/*
+ * BabyFish, Object Model Framework for Java and JPA.
+ * https://github.com/babyfish-ct/babyfish
+ *
+ * Copyright (c) 2008-2016, Tao Chen
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * Please visit "http://opensource.org/licenses/LGPL-3.0" to know more.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ */
+package org.babyfish.collection.concurrent;
+
+import java.io.Serializable;
+
+/**
+ * The immutable snapshot of the statistics of {@link ConcurrentCache}.
+ * 
+ * @author Tao Chen
+ */
+public final class CacheStats implements Serializable {
+    
+    private static final long serialVersionUID = -2957214826318066129L;
+
+    private final long hitCount;
+    
+    private final long missCount;
+    
+    private final long loadSuccessCount;
+    
+    private final long loadFailureCount;
+    
+    private final long evictionCount;
+
+    public CacheStats(
+            long hitCount, 
+            long missCount, 
+            long loadSuccessCount, 
+            long loadFailureCount,
+            long evictionCount) {
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.loadSuccessCount = loadSuccessCount;
+        this.loadFailureCount = loadFailureCount;
+        this.evictionCount = evictionCount;
+    }
+
+    public long getHitCount() {
+        return this.hitCount;
+    }
+
+    public long getMissCount() {
+        return this.missCount;
+    }
+    
+    public long getRequestCount() {
+        return this.hitCount + this.missCount;
+    }
+
+    /**
+     * @return The count of the successful invocations of the loaders, 
+     * each missed key is loaded only once no matter how many threads 
+     * are waiting for it.
+     */
+    public long getLoadSuccessCount() {
+        return this.loadSuccessCount;
+    }
+
+    public long getLoadFailureCount() {
+        return this.loadFailureCount;
+    }
+
+    /**
+     * @return The count of the entries which are evicted because the cache 
+     * exceeds its max size, the entries discarded by the garbage collector 
+     * are not counted.
+     */
+    public long getEvictionCount() {
+        return this.evictionCount;
+    }
+    
+    /**
+     * @return The ratio of the hits to the requests, or 1 if there is no request.
+     */
+    public double getHitRate() {
+        long requestCount = this.getRequestCount();
+        return requestCount == 0L ? 1D : (double)this.hitCount / requestCount;
+    }
+
+    @Override
+    public String toString() {
+        return 
+                "CacheStats { hitCount: " +
+                this.hitCount +
+                ", missCount: " +
+                this.missCount +
+                ", loadSuccessCount: " +
+                this.loadSuccessCount +
+                ", loadFailureCount: " +
+                this.loadFailureCount +
+                ", evictionCount: " +
+                this.evictionCount +
+                " }";
+    }
+}
@@ -0,0 +1,1053 @@
+/*
+ * BabyFish, Object Model Framework for Java and JPA.
+ * https://github.com/babyfish-ct/babyfish
+ *
+ * Copyright (c) 2008-2016, Tao Chen
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * Please visit "http://opensource.org/licenses/LGPL-3.0" to know more.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ */
+package org.babyfish.collection.concurrent;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+import org.babyfish.collection.Weigher;
+import org.babyfish.collection.internal.FrequencySketch;
+import org.babyfish.lang.Arguments;
+import org.babyfish.lang.I18N;
+
+/**
+ * A thread safe cache which is designed for the frequently read and rarely changed
+ * data, such as the metadata of the classes and the compiled expressions.
+ * 
+ * <ul>
+ *  <li>Lock free read: The entries are stored in a {@link ConcurrentHashMap}, 
+ *  the reading never acquires any lock. When the cache is bounded, the accesses are 
+ *  recorded into a lossy ring buffer and replayed to the eviction policy in batches 
+ *  by the thread which can acquire the eviction lock without waiting.</li>
+ *  <li>W-TinyLFU: When the max size is specified, the new entries are put into a small 
+ *  LRU admission window(1% of the max size); the entries leaving the window must compete 
+ *  with the victims of the segmented LRU main space (probation 20%, protected 80%), 
+ *  only the ones whose frequencies estimated by the {@link FrequencySketch} are higher 
+ *  can be admitted. So a burst of the one-off keys can not flush the popular entries.</li>
+ *  <li>Reference keys and values: See {@link ReferenceType}, the entries whose keys or 
+ *  values are garbage collected are discarded automatically. The weak keys are useful 
+ *  for the entries whose lifecycle are decided by the class loaders.</li>
+ *  <li>Single flight loading: {@link #get(Object, Function)} invokes the loader only once 
+ *  for a missed key no matter how many threads request it concurrently, the other threads 
+ *  wait for the result of the loading thread. The loader is invoked outside of any lock, 
+ *  so it can load the other keys of the same cache recursively, but it can not load the 
+ *  key that is being loaded by the current thread.</li>
+ *  <li>Statistics: See {@link #stats()}.</li>
+ * </ul>
+ * 
+ * <p>
+ * The null keys and null values are not supported.
+ * </p>
+ * 
+ * @author Tao Chen
+ */
+public class ConcurrentCache<K, V> {
+    
+    private static final int READ_BUFFER_SIZE = 128;
+    
+    private static final int READ_BUFFER_MASK = READ_BUFFER_SIZE - 1;
+    
+    private static final int READ_BUFFER_DRAIN_THRESHOLD = READ_BUFFER_SIZE / 4;
+    
+    private static final double WINDOW_RATIO = .01D;
+    
+    private static final double PROTECTED_RATIO = .8D;
+    
+    /*
+     * When the frequency of the candidate is not less than this threshold
+     * but not greater than the frequency of the victim, it is still admitted 
+     * randomly with a small probability, so that the attackers can not keep 
+     * a popular victim forever by the hash collisions.
+     */
+    private static final int ADMIT_RANDOMLY_THRESHOLD = 6;
+    
+    private static final int NONE = 0;
+    
+    private static final int WINDOW = 1;
+    
+    private static final int PROBATION = 2;
+    
+    private static final int PROTECTED = 3;
+    
+    private final ConcurrentHashMap<Object, Node<K, V>> data;
+    
+    private final ReferenceType keyReferenceType;
+    
+    private final ReferenceType valueReferenceType;
+    
+    private final long maxSize;
+    
+    private final Weigher<? super K, ? super V> weigher;
+    
+    private final ReferenceQueue<K> keyQueue;
+    
+    private final ReferenceQueue<V> valueQueue;
+    
+    private final boolean bounded;
+    
+    private final boolean maintained;
+    
+    private final ReentrantLock evictionLock;
+    
+    /* 
+     * The fields of the eviction policy, all of them are guarded by the evictionLock
+     */
+    private final AccessOrderDeque<K, V> window;
+    
+    private final AccessOrderDeque<K, V> probation;
+    
+    private final AccessOrderDeque<K, V> protectedDeque;
+    
+    private final FrequencySketch frequencySketch;
+    
+    private final long windowMaxWeight;
+    
+    private final long protectedMaxWeight;
+    
+    private long weightedSize;
+    
+    private long windowWeightedSize;
+    
+    private long protectedWeightedSize;
+    
+    /*
+     * The lossy read buffer, the readBufferReadCount is only changed by
+     * the thread that holds the evictionLock.
+     */
+    private final AtomicReferenceArray<Node<K, V>> readBuffer;
+    
+    private final AtomicLong readBufferWriteCount;
+    
+    private volatile long readBufferReadCount;
+    
+    private final LongAdder hitCount = new LongAdder();
+    
+    private final LongAdder missCount = new LongAdder();
+    
+    private final LongAdder loadSuccessCount = new LongAdder();
+    
+    private final LongAdder loadFailureCount = new LongAdder();
+    
+    private final LongAdder evictionCount = new LongAdder();
+    
+    /**
+     * Creates an unbounded cache whose keys and values are referenced strongly.
+     */
+    public ConcurrentCache() {
+        this(new Builder<K, V>());
+    }
+    
+    /**
+     * Creates a bounded cache whose keys and values are referenced strongly.
+     * @param maxSize The max count of the entries.
+     */
+    public ConcurrentCache(long maxSize) {
+        this(new Builder<K, V>().setMaxSize(maxSize));
+    }
+    
+    private ConcurrentCache(Builder<K, V> builder) {
+        this.data = new ConcurrentHashMap<>(builder.initCapacity);
+        this.keyReferenceType = builder.keyReferenceType;
+        this.valueReferenceType = builder.valueReferenceType;
+        this.maxSize = builder.maxSize;
+        this.weigher = builder.weigher;
+        this.keyQueue = this.keyReferenceType != ReferenceType.STRONG ? new ReferenceQueue<>() : null;
+        this.valueQueue = this.valueReferenceType != ReferenceType.STRONG ? new ReferenceQueue<>() : null;
+        this.bounded = this.maxSize != Long.MAX_VALUE;
+        this.maintained = this.bounded || this.keyQueue != null || this.valueQueue != null;
+        this.evictionLock = new ReentrantLock();
+        if (this.bounded) {
+            this.window = new AccessOrderDeque<>();
+            this.probation = new AccessOrderDeque<>();
+            this.protectedDeque = new AccessOrderDeque<>();
+            /*
+             * The old frequencies are discarded when the sketch is enlarged, 
+             * so it is enlarged dynamically only when the weigher is specified 
+             * and the max count of the entries is unknown. 
+             */
+            this.frequencySketch = new FrequencySketch(
+                    this.weigher != null ? builder.initCapacity : this.maxSize);
+            this.windowMaxWeight = Math.max(1L, (long)(this.maxSize * WINDOW_RATIO));
+            this.protectedMaxWeight = (long)((this.maxSize - this.windowMaxWeight) * PROTECTED_RATIO);
+            this.readBuffer = new AtomicReferenceArray<>(READ_BUFFER_SIZE);
+            this.readBufferWriteCount = new AtomicLong();
+        } else {
+            this.window = null;
+            this.probation = null;
+            this.protectedDeque = null;
+            this.frequencySketch = null;
+            this.windowMaxWeight = 0L;
+            this.protectedMaxWeight = 0L;
+            this.readBuffer = null;
+            this.readBufferWriteCount = null;
+        }
+    }
+    
+    public final ReferenceType getKeyReferenceType() {
+        return this.keyReferenceType;
+    }
+    
+    public final ReferenceType getValueReferenceType() {
+        return this.valueReferenceType;
+    }
+    
+    /**
+     * @return The max count or the max total weight of the entries, 
+     * or {@link Long#MAX_VALUE} if the cache is unbounded.
+     */
+    public final long getMaxSize() {
+        return this.maxSize;
+    }
+    
+    /**
+     * @return The count of the entries, the entries that are being loaded and the entries 
+     * whose keys or values have been garbage collected but not discarded yet are included.
+     */
+    public long estimatedSize() {
+        return this.data.mappingCount();
+    }
+    
+    public CacheStats stats() {
+        return new CacheStats(
+                this.hitCount.sum(), 
+                this.missCount.sum(), 
+                this.loadSuccessCount.sum(), 
+                this.loadFailureCount.sum(),
+                this.evictionCount.sum());
+    }
+    
+    /**
+     * Returns the cached value without any lock. 
+     * 
+     * @param key The key
+     * @return The cached value, or null if the key is missed or the value is being loaded.
+     */
+    public V getIfPresent(Object key) {
+        Node<K, V> node = this.data.get(this.lookupKey(Arguments.mustNotBeNull("key", key)));
+        if (node != null) {
+            V value = node.value();
+            if (value != null) {
+                this.hitCount.increment();
+                this.afterRead(node);
+                return value;
+            }
+        }
+        this.missCount.increment();
+        return null;
+    }
+    
+    /**
+     * Returns the cached value, or loads it if the key is missed. 
+     * 
+     * <p>
+     * The loader is invoked only once for each missed key even if many threads 
+     * request it concurrently, the other threads wait for the loading thread.
+     * If the loader throws an exception, that exception is thrown to the 
+     * loading thread and the waiting threads try to load the key again.
+     * </p>
+     * 
+     * @param key The key
+     * @param loader The loader, it is invoked outside of any lock.
+     * @return The cached or loaded value, or null if the loader returns null
+     * (The null value is not cached). 
+     * 
+     * @exception IllegalStateException The loader tries to load the key 
+     * which is being loaded by the current thread recursively.
+     */
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        Arguments.mustNotBeNull("key", key);
+        Arguments.mustNotBeNull("loader", loader);
+        Object lookupKey = this.lookupKey(key);
+        Node<K, V> loadingNode;
+        Loading loading;
+        for (;;) {
+            Node<K, V> node = this.data.get(lookupKey);
+            if (node != null) {
+                Object o = node.value;
+                if (o instanceof Loading) {
+                    ((Loading)o).await(key);
+                    continue;
+                }
+                V value = node.value();
+                if (value != null) {
+                    this.hitCount.increment();
+                    this.afterRead(node);
+                    return value;
+                }
+                // The value has been garbage collected
+                this.removeNode(node);
+                continue;
+            }
+            loading = new Loading();
+            loadingNode = new Node<>(this.newKeyReference(key), key.hashCode(), loading);
+            if (this.data.putIfAbsent(loadingNode.key, loadingNode) == null) {
+                break;
+            }
+        }
+        this.missCount.increment();
+        V value;
+        try {
+            value = loader.apply(key);
+        } catch (RuntimeException | Error ex) {
+            this.data.remove(loadingNode.key, loadingNode);
+            this.loadFailureCount.increment();
+            loading.complete();
+            throw ex;
+        }
+        if (value == null) {
+            this.data.remove(loadingNode.key, loadingNode);
+            this.loadFailureCount.increment();
+            loading.complete();
+            return null;
+        }
+        int weight = this.weigh(key, value);
+        boolean published;
+        synchronized (loadingNode) {
+            /*
+             * The key may have been invalidated while it was being loaded, 
+             * the loaded value is still returned to the current thread but 
+             * the removed node must not be linked into the eviction policy, 
+             * otherwise nobody could unlink it.
+             */
+            published = 
+                    !loadingNode.retired && 
+                    this.data.get(loadingNode.key) == loadingNode;
+            if (published) {
+                loadingNode.weight = weight;
+                loadingNode.value = this.newValueReference(loadingNode, value);
+            }
+        }
+        this.loadSuccessCount.increment();
+        loading.complete();
+        if (published) {
+            this.afterWrite(loadingNode, true);
+        }
+        return value;
+    }
+    
+    /**
+     * Puts the value into the cache, if the key is being loaded by 
+     * another thread, this method waits for the loading.
+     * 
+     * @param key The key
+     * @param value The value
+     */
+    public void put(K key, V value) {
+        Arguments.mustNotBeNull("key", key);
+        Arguments.mustNotBeNull("value", value);
+        Object lookupKey = this.lookupKey(key);
+        int weight = this.weigh(key, value);
+        for (;;) {
+            Node<K, V> node = this.data.get(lookupKey);
+            if (node == null) {
+                node = new Node<>(this.newKeyReference(key), key.hashCode(), null);
+                node.weight = weight;
+                node.value = this.newValueReference(node, value);
+                if (this.data.putIfAbsent(node.key, node) == null) {
+                    this.afterWrite(node, true);
+                    return;
+                }
+                continue;
+            }
+            Object o = node.value;
+            if (o instanceof Loading) {
+                ((Loading)o).await(key);
+                continue;
+            }
+            synchronized (node) {
+                if (node.retired) {
+                    continue;
+                }
+                node.weight = weight;
+                node.value = this.newValueReference(node, value);
+            }
+            this.afterWrite(node, false);
+            return;
+        }
+    }
+    
+    public void invalidate(Object key) {
+        Node<K, V> node = this.data.get(this.lookupKey(Arguments.mustNotBeNull("key", key)));
+        if (node != null) {
+            this.removeNode(node);
+        }
+    }
+    
+    public void invalidateAll() {
+        for (Node<K, V> node : this.data.values()) {
+            this.removeNode(node);
+        }
+    }
+    
+    /**
+     * Discards the entries whose keys or values have been garbage collected and 
+     * replays the buffered accesses to the eviction policy immediately. 
+     * Normally, it is unnecessary to invoke this method because these maintenances 
+     * are done by the modifications and the reading automatically.
+     */
+    public void cleanUp() {
+        if (this.maintained) {
+            ReentrantLock evictionLock = this.evictionLock;
+            evictionLock.lock();
+            try {
+                this.maintain();
+            } finally {
+                evictionLock.unlock();
+            }
+        }
+    }
+    
+    private Object lookupKey(Object key) {
+        if (this.keyReferenceType == ReferenceType.STRONG) {
+            return key;
+        }
+        return new LookupKey(key);
+    }
+    
+    private Object newKeyReference(K key) {
+        switch (this.keyReferenceType) {
+        case WEAK:
+            return new WeakKeyReference<K>(key, this.keyQueue);
+        case SOFT:
+            return new SoftKeyReference<K>(key, this.keyQueue);
+        default:
+            return key;
+        }
+    }
+    
+    private Object newValueReference(Node<K, V> node, V value) {
+        switch (this.valueReferenceType) {
+        case WEAK:
+            return new WeakValueReference<K, V>(node, value, this.valueQueue);
+        case SOFT:
+            return new SoftValueReference<K, V>(node, value, this.valueQueue);
+        default:
+            return value;
+        }
+    }
+    
+    private int weigh(K key, V value) {
+        if (this.weigher == null) {
+            return 1;
+        }
+        return Arguments.mustBeGreaterThanOrEqualToValue(
+                "weigher.weigh(key, value)", 
+                this.weigher.weigh(key, value), 
+                0);
+    }
+    
+    private boolean removeNode(Node<K, V> node) {
+        synchronized (node) {
+            if (node.retired || !this.data.remove(node.key, node)) {
+                return false;
+            }
+            node.retired = true;
+        }
+        if (this.maintained) {
+            ReentrantLock evictionLock = this.evictionLock;
+            evictionLock.lock();
+            try {
+                this.onRemove(node);
+            } finally {
+                evictionLock.unlock();
+            }
+        }
+        return true;
+    }
+    
+    private void afterRead(Node<K, V> node) {
+        if (!this.bounded) {
+            return;
+        }
+        AtomicLong readBufferWriteCount = this.readBufferWriteCount;
+        long writeCount = readBufferWriteCount.get();
+        long pendingCount = writeCount - this.readBufferReadCount;
+        if (pendingCount < READ_BUFFER_SIZE && 
+                readBufferWriteCount.compareAndSet(writeCount, writeCount + 1)) {
+            this.readBuffer.lazySet((int)writeCount & READ_BUFFER_MASK, node);
+            pendingCount++;
+        }
+        if (pendingCount >= READ_BUFFER_DRAIN_THRESHOLD) {
+            ReentrantLock evictionLock = this.evictionLock;
+            if (evictionLock.tryLock()) {
+                try {
+                    this.maintain();
+                } finally {
+                    evictionLock.unlock();
+                }
+            }
+        }
+    }
+    
+    private void afterWrite(Node<K, V> node, boolean added) {
+        if (!this.maintained) {
+            return;
+        }
+        ReentrantLock evictionLock = this.evictionLock;
+        evictionLock.lock();
+        try {
+            if (this.bounded) {
+                if (added) {
+                    this.onAdd(node);
+                } else {
+                    this.onUpdate(node);
+                }
+            }
+            this.maintain();
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+    
+    private void maintain() {
+        this.drainKeyReferences();
+        this.drainValueReferences();
+        if (this.bounded) {
+            this.drainReadBuffer();
+            this.evict();
+        }
+    }
+    
+    private void drainKeyReferences() {
+        ReferenceQueue<K> keyQueue = this.keyQueue;
+        if (keyQueue != null) {
+            Reference<? extends K> ref;
+            while ((ref = keyQueue.poll()) != null) {
+                // The referent has been cleared, so the key reference equals itself only.
+                Node<K, V> node = this.data.get(ref);
+                if (node != null) {
+                    this.discard(node);
+                }
+            }
+        }
+    }
+    
+    @SuppressWarnings("unchecked")
+    private void drainValueReferences() {
+        ReferenceQueue<V> valueQueue = this.valueQueue;
+        if (valueQueue != null) {
+            Reference<? extends V> ref;
+            while ((ref = valueQueue.poll()) != null) {
+                Node<K, V> node = ((ValueReference<K, V>)ref).node();
+                if (node.value == ref) {
+                    this.discard(node);
+                }
+            }
+        }
+    }
+    
+    private void drainReadBuffer() {
+        AtomicReferenceArray<Node<K, V>> readBuffer = this.readBuffer;
+        long readCount = this.readBufferReadCount;
+        long writeCount = this.readBufferWriteCount.get();
+        for (; readCount < writeCount; readCount++) {
+            /*
+             * The slot may be still null because the writer has increased the 
+             * write count but has not set the slot, this access is ignored. 
+             */
+            Node<K, V> node = readBuffer.getAndSet((int)readCount & READ_BUFFER_MASK, null);
+            if (node != null) {
+                this.onAccess(node);
+            }
+        }
+        this.readBufferReadCount = readCount;
+    }
+    
+    private void onAdd(Node<K, V> node) {
+        if (node.retired || node.queueType != NONE) {
+            return;
+        }
+        int weight = node.weight;
+        node.policyWeight = weight;
+        this.weightedSize += weight;
+        this.windowWeightedSize += weight;
+        node.queueType = WINDOW;
+        this.window.addLast(node);
+        FrequencySketch frequencySketch = this.frequencySketch;
+        if (this.weigher != null) {
+            frequencySketch.ensureCapacity(this.data.mappingCount());
+        }
+        frequencySketch.increment(node.hash);
+    }
+    
+    private void onUpdate(Node<K, V> node) {
+        if (node.retired || node.queueType == NONE) {
+            return;
+        }
+        int delta = node.weight - node.policyWeight;
+        node.policyWeight += delta;
+        this.weightedSize += delta;
+        if (node.queueType == WINDOW) {
+            this.windowWeightedSize += delta;
+        } else if (node.queueType == PROTECTED) {
+            this.protectedWeightedSize += delta;
+        }
+        this.onAccess(node);
+    }
+    
+    private void onAccess(Node<K, V> node) {
+        if (node.retired || node.queueType == NONE) {
+            return;
+        }
+        this.frequencySketch.increment(node.hash);
+        switch (node.queueType) {
+        case WINDOW:
+            this.window.moveToLast(node);
+            break;
+        case PROBATION:
+            this.probation.remove(node);
+            node.queueType = PROTECTED;
+            this.protectedDeque.addLast(node);
+            this.protectedWeightedSize += node.policyWeight;
+            this.demoteFromProtected();
+            break;
+        default:
+            this.protectedDeque.moveToLast(node);
+            break;
+        }
+    }
+    
+    private void onRemove(Node<K, V> node) {
+        if (!this.bounded) {
+            return;
+        }
+        switch (node.queueType) {
+        case WINDOW:
+            this.window.remove(node);
+            this.windowWeightedSize -= node.policyWeight;
+            break;
+        case PROBATION:
+            this.probation.remove(node);
+            break;
+        case PROTECTED:
+            this.protectedDeque.remove(node);
+            this.protectedWeightedSize -= node.policyWeight;
+            break;
+        default:
+            return;
+        }
+        this.weightedSize -= node.policyWeight;
+        node.queueType = NONE;
+    }
+    
+    private void demoteFromProtected() {
+        AccessOrderDeque<K, V> protectedDeque = this.protectedDeque;
+        while (this.protectedWeightedSize > this.protectedMaxWeight) {
+            Node<K, V> node = protectedDeque.first;
+            if (node == null) {
+                break;
+            }
+            protectedDeque.remove(node);
+            this.protectedWeightedSize -= node.policyWeight;
+            node.queueType = PROBATION;
+            this.probation.addLast(node);
+        }
+    }
+    
+    private void evict() {
+        
+        /*
+         * Moves the overflowed entries of the admission window to the tail of
+         * the probation space, they are the candidates.
+         */
+        Node<K, V> candidate = null;
+        AccessOrderDeque<K, V> window = this.window;
+        while (this.windowWeightedSize > this.windowMaxWeight) {
+            Node<K, V> node = window.first;
+            if (node == null) {
+                break;
+            }
+            window.remove(node);
+            this.windowWeightedSize -= node.policyWeight;
+            node.queueType = PROBATION;
+            this.probation.addLast(node);
+            if (candidate == null) {
+                candidate = node;
+            }
+        }
+        
+        /*
+         * The candidates compete with the victims from the head of the probation space
+         */
+        Node<K, V> victim = this.probation.first;
+        while (this.weightedSize > this.maxSize) {
+            Node<K, V> evicted;
+            if (candidate == null) {
+                evicted = victim;
+                if (evicted == null) {
+                    evicted = this.protectedDeque.first;
+                }
+                if (evicted == null) {
+                    evicted = window.first;
+                }
+                if (evicted == null) {
+                    break;
+                }
+            } else if (victim == null || victim == candidate) {
+                evicted = candidate;
+            } else if (this.admit(candidate.hash, victim.hash)) {
+                evicted = victim;
+            } else {
+                evicted = candidate;
+            }
+            if (evicted == victim) {
+                victim = victim.next;
+            }
+            if (evicted == candidate) {
+                candidate = candidate.next;
+            }
+            this.discard(evicted);
+            this.evictionCount.increment();
+        }
+    }
+    
+    private boolean admit(int candidateHash, int victimHash) {
+        FrequencySketch frequencySketch = this.frequencySketch;
+        int candidateFrequency = frequencySketch.frequency(candidateHash);
+        int victimFrequency = frequencySketch.frequency(victimHash);
+        if (candidateFrequency > victimFrequency) {
+            return true;
+        }
+        if (candidateFrequency >= ADMIT_RANDOMLY_THRESHOLD) {
+            return (ThreadLocalRandom.current().nextInt() & 127) == 0;
+        }
+        return false;
+    }
+    
+    /*
+     * Must be invoked by the thread that holds the evictionLock.
+     * The node is unlinked from the eviction policy even if it has been removed 
+     * from the map by another thread, that thread does nothing when it acquires 
+     * the evictionLock later.
+     */
+    private void discard(Node<K, V> node) {
+        synchronized (node) {
+            if (!node.retired) {
+                this.data.remove(node.key, node);
+                node.retired = true;
+            }
+        }
+        this.onRemove(node);
+    }
+    
+    @I18N
+    private static native String recursiveLoading(Object key);
+    
+    public static class Builder<K, V> {
+        
+        private int initCapacity = 16;
+        
+        private long maxSize = Long.MAX_VALUE;
+        
+        private Weigher<? super K, ? super V> weigher;
+        
+        private ReferenceType keyReferenceType = ReferenceType.STRONG;
+        
+        private ReferenceType valueReferenceType = ReferenceType.STRONG;
+        
+        public Builder<K, V> setInitCapacity(int initCapacity) {
+            this.initCapacity = Arguments.mustBeGreaterThanOrEqualToValue("initCapacity", initCapacity, 0);
+            return this;
+        }
+        
+        /**
+         * @param maxSize The max count of the entries, or the max total weight 
+         * of the entries if the weigher is specified, 
+         * {@link Long#MAX_VALUE} means unbounded.
+         */
+        public Builder<K, V> setMaxSize(long maxSize) {
+            this.maxSize = Arguments.mustBeGreaterThanOrEqualToValue("maxSize", maxSize, 0L);
+            return this;
+        }
+        
+        public Builder<K, V> setWeigher(Weigher<? super K, ? super V> weigher) {
+            this.weigher = weigher;
+            return this;
+        }
+        
+        public Builder<K, V> setKeyReferenceType(ReferenceType keyReferenceType) {
+            this.keyReferenceType = keyReferenceType != null ? keyReferenceType : ReferenceType.STRONG;
+            return this;
+        }
+        
+        public Builder<K, V> setValueReferenceType(ReferenceType valueReferenceType) {
+            this.valueReferenceType = valueReferenceType != null ? valueReferenceType : ReferenceType.STRONG;
+            return this;
+        }
+        
+        public ConcurrentCache<K, V> build() {
+            return new ConcurrentCache<K, V>(this);
+        }
+    }
+    
+    private static final class Node<K, V> {
+        
+        final Object key;
+        
+        final int hash;
+        
+        /*
+         * The value, the ValueReference or the Loading
+         */
+        volatile Object value;
+        
+        volatile int weight;
+        
+        /*
+         * Guarded by the monitor of this node, it is set after
+         * this node is removed from the map. 
+         */
+        volatile boolean retired;
+        
+        // The following fields are guarded by the evictionLock
+        
+        int policyWeight;
+        
+        int queueType;
+        
+        Node<K, V> prev;
+        
+        Node<K, V> next;
+        
+        Node(Object key, int hash, Object value) {
+            this.key = key;
+            this.hash = hash;
+            this.value = value;
+        }
+        
+        @SuppressWarnings("unchecked")
+        V value() {
+            Object o = this.value;
+            if (o instanceof Loading) {
+                return null;
+            }
+            if (o instanceof ValueReference<?, ?>) {
+                return ((ValueReference<K, V>)o).get();
+            }
+            return (V)o;
+        }
+    }
+    
+    private static final class AccessOrderDeque<K, V> {
+        
+        Node<K, V> first;
+        
+        Node<K, V> last;
+        
+        void addLast(Node<K, V> node) {
+            Node<K, V> last = this.last;
+            node.prev = last;
+            node.next = null;
+            if (last == null) {
+                this.first = node;
+            } else {
+                last.next = node;
+            }
+            this.last = node;
+        }
+        
+        void remove(Node<K, V> node) {
+            Node<K, V> prev = node.prev;
+            Node<K, V> next = node.next;
+            if (prev == null) {
+                this.first = next;
+            } else {
+                prev.next = next;
+            }
+            if (next == null) {
+                this.last = prev;
+            } else {
+                next.prev = prev;
+            }
+            node.prev = null;
+            node.next = null;
+        }
+        
+        void moveToLast(Node<K, V> node) {
+            if (node != this.last) {
+                this.remove(node);
+                this.addLast(node);
+            }
+        }
+    }
+    
+    private static final class Loading {
+        
+        private final Thread owner = Thread.currentThread();
+        
+        private final CountDownLatch latch = new CountDownLatch(1);
+        
+        void await(Object key) {
+            if (this.owner == Thread.currentThread()) {
+                throw new IllegalStateException(recursiveLoading(key));
+            }
+            boolean interrupted = false;
+            for (;;) {
+                try {
+                    this.latch.await();
+                    break;
+                } catch (InterruptedException ex) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        
+        void complete() {
+            this.latch.countDown();
+        }
+    }
+    
+    private interface KeyReference {
+        
+        Object get();
+    }
+    
+    private static boolean keyReferenceEquals(KeyReference keyReference, Object o) {
+        if (keyReference == o) {
+            return true;
+        }
+        Object referent = keyReference.get();
+        if (referent == null) {
+            return false;
+        }
+        if (o instanceof KeyReference) {
+            return referent.equals(((KeyReference)o).get());
+        }
+        if (o instanceof LookupKey) {
+            return referent.equals(((LookupKey)o).key);
+        }
+        return false;
+    }
+    
+    /*
+     * The temporary key to find the weakly or softly referenced keys, 
+     * it is always the argument of the methods of ConcurrentHashMap
+     * so that its equals method is used.
+     */
+    private static final class LookupKey {
+        
+        final Object key;
+        
+        LookupKey(Object key) {
+            this.key = key;
+        }
+
+        @Override
+        public int hashCode() {
+            return this.key.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (o instanceof KeyReference) {
+                return this.key.equals(((KeyReference)o).get());
+            }
+            return o instanceof LookupKey && this.key.equals(((LookupKey)o).key);
+        }
+    }
+    
+    private static final class WeakKeyReference<K> extends WeakReference<K> implements KeyReference {
+        
+        private final int hash;
+
+        WeakKeyReference(K referent, ReferenceQueue<? super K> queue) {
+            super(referent, queue);
+            this.hash = referent.hashCode();
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return keyReferenceEquals(this, o);
+        }
+    }
+    
+    private static final class SoftKeyReference<K> extends SoftReference<K> implements KeyReference {
+        
+        private final int hash;
+
+        SoftKeyReference(K referent, ReferenceQueue<? super K> queue) {
+            super(referent, queue);
+            this.hash = referent.hashCode();
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return keyReferenceEquals(this, o);
+        }
+    }
+    
+    private interface ValueReference<K, V> {
+        
+        V get();
+        
+        Node<K, V> node();
+    }
+    
+    private static final class WeakValueReference<K, V> extends WeakReference<V> implements ValueReference<K, V> {
+        
+        private final Node<K, V> node;
+
+        WeakValueReference(Node<K, V> node, V referent, ReferenceQueue<? super V> queue) {
+            super(referent, queue);
+            this.node = node;
+        }
+
+        @Override
+        public Node<K, V> node() {
+            return this.node;
+        }
+    }
+    
+    private static final class SoftValueReference<K, V> extends SoftReference<V> implements ValueReference<K, V> {
+        
+        private final Node<K, V> node;
+
+        SoftValueReference(Node<K, V> node, V referent, ReferenceQueue<? super V> queue) {
+            super(referent, queue);
+            this.node = node;
+        }
+
+        @Override
+        public Node<K, V> node() {
+            return this.node;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+/*
+ * BabyFish, Object Model Framework for Java and JPA.
+ * https://github.com/babyfish-ct/babyfish
+ *
+ * Copyright (c) 2008-2016, Tao Chen
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * Please visit "http://opensource.org/licenses/LGPL-3.0" to know more.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ */
+package org.babyfish.collection.concurrent;
+
+/**
+ * The reference type used by {@link ConcurrentCache} to hold its keys or values.
+ * 
+ * <ul>
+ *  <li>{@link #STRONG}: The key or value is referenced strongly.</li>
+ *  <li>{@link #WEAK}: The key or value is referenced by {@link java.lang.ref.WeakReference}, 
+ *  the entry is discarded after the key or value is garbage collected. It is useful 
+ *  for the entries whose lifecycle are decided by class loaders, such as the 
+ *  caches keyed by {@link Class}.</li>
+ *  <li>{@link #SOFT}: The key or value is referenced by {@link java.lang.ref.SoftReference},
+ *  the entry is discarded only when the JVM is in demand for memory.</li>
+ * </ul>
+ * 
+ * <p>
+ * Unlike {@link java.util.IdentityHashMap}, the weakly or softly referenced keys are still 
+ * compared by {@link Object#equals(Object)}, like {@link java.util.WeakHashMap}.
+ * </p>
+ * 
+ * @author Tao Chen
+ */
+public enum ReferenceType {
+    STRONG,
+    WEAK,
+    SOFT,
+}
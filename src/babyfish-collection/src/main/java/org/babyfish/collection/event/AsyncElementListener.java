@@ -0,0 +1,94 @@
+/*
+ * BabyFish, Object Model Framework for Java and JPA.
+ * https://github.com/babyfish-ct/babyfish
+ *
+ * Copyright (c) 2008-2016, Tao Chen
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * Please visit "http://opensource.org/licenses/LGPL-3.0" to know more.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ */
+package org.babyfish.collection.event;
+
+import org.babyfish.data.event.EventType;
+import org.babyfish.data.event.PropertyVersion;
+import org.babyfish.data.event.spi.AbstractModification;
+
+/**
+ * @author Tao Chen
+ */
+final class AsyncElementListener<E> 
+extends AsyncListener<ElementListener<E>, ElementEvent<E>>
+implements ElementListener<E> {
+
+    AsyncElementListener(ElementListener<E> listener, AsyncListenerOptions options) {
+        super(listener, options);
+    }
+
+    @Override
+    public void modified(ElementEvent<E> e) {
+        this.enqueue(e);
+    }
+
+    @Override
+    ElementEvent<E> snapshot(ElementEvent<E> e) {
+        return new Snapshot<>(e);
+    }
+
+    @Override
+    void deliver(ElementEvent<E> e) throws Throwable {
+        this.listener.modified(e);
+    }
+    
+    /*
+     * The snapshot keeps the modification type, the elements and the result
+     * of the original event, its attribute contexts are its own and it has
+     * neither cause nor bubbled and dispatched events.
+     * 
+     * It does not keep the modification that references the arguments of the 
+     * modifying method, for example, the collection of "addAll" or "retainAll"; 
+     * the caller can change that collection before the snapshot is delivered, 
+     * so "getModification()" and "getFinalModification()" return null.
+     */
+    private static final class Snapshot<E> extends ElementEvent<E> {
+        
+        private static final long serialVersionUID = -4410257711262883513L;
+
+        private final EventType eventType;
+        
+        @SuppressWarnings("unchecked")
+        Snapshot(ElementEvent<E> e) {
+            super(
+                    e.getSource(), 
+                    (Modification<E>)(Modification<?>)new AsyncListener.ResultModification(e), 
+                    e.getModificationType(), 
+                    e.getElement(PropertyVersion.DETACH), 
+                    e.getElement(PropertyVersion.ATTACH)
+            );
+            this.eventType = e.getEventType();
+            AsyncListener.copyPreThrowable(e, this);
+        }
+
+        @Override
+        public EventType getEventType() {
+            return this.eventType;
+        }
+
+        @Override
+        public Modification<E> getModification() {
+            return null;
+        }
+
+        @Override
+        public <M extends AbstractModification> M getFinalModification() {
+            return null;
+        }
+    }
+}
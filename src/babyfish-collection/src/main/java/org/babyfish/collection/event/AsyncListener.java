@@ -0,0 +1,220 @@
+/*
+ * BabyFish, Object Model Framework for Java and JPA.
+ * https://github.com/babyfish-ct/babyfish
+ *
+ * Copyright (c) 2008-2016, Tao Chen
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * Please visit "http://opensource.org/licenses/LGPL-3.0" to know more.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ */
+package org.babyfish.collection.event;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+import org.babyfish.data.event.AttributeScope;
+import org.babyfish.data.event.ModificationEvent;
+import org.babyfish.data.event.ModificationType;
+import org.babyfish.data.event.spi.AbstractModification;
+import org.babyfish.data.event.spi.GlobalAttributeContext;
+import org.babyfish.data.event.spi.InAllChainAttributeContext;
+import org.babyfish.lang.I18N;
+
+/**
+ * The base class of the listener wrappers that deliver the "modified" events 
+ * to the wrapped listeners asynchronously.
+ * 
+ * <p>
+ * The wrapper is equal to the wrapped listener, so the wrapped listener can 
+ * be removed from the MA collection by the original "remove...Listener" method.
+ * </p>
+ * 
+ * <p>
+ * The modifying thread still changes the event after it is enqueued, for example,
+ * its attribute contexts and its bubbled and dispatched events, so the wrapped
+ * listener receives an immutable snapshot created by {@link #snapshot(ModificationEvent)}.
+ * </p>
+ * 
+ * @author Tao Chen
+ */
+abstract class AsyncListener<L, E extends ModificationEvent> implements ModificationTypeFilter {
+    
+    final L listener;
+    
+    private final ModificationType acceptedModificationType;
+    
+    private final Executor executor;
+    
+    private final BlockingQueue<E> queue;
+    
+    private final int queueCapacity;
+    
+    private final AsyncListenerOptions.BackPressure backPressure;
+    
+    private final Consumer<Throwable> exceptionHandler;
+    
+    private final AtomicBoolean draining = new AtomicBoolean();
+    
+    private final Runnable drainTask = this::drain;
+    
+    AsyncListener(L listener, AsyncListenerOptions options) {
+        this.listener = listener;
+        this.acceptedModificationType = 
+                listener instanceof ModificationTypeFilter ?
+                        ((ModificationTypeFilter)listener).getAcceptedModificationType() :
+                        null;
+        this.executor = options.getExecutor();
+        this.queue = new ArrayBlockingQueue<>(options.getQueueCapacity());
+        this.queueCapacity = options.getQueueCapacity();
+        this.backPressure = options.getBackPressure();
+        this.exceptionHandler = options.getExceptionHandler();
+    }
+    
+    abstract E snapshot(E e);
+    
+    abstract void deliver(E e) throws Throwable;
+    
+    @Override
+    public final ModificationType getAcceptedModificationType() {
+        return this.acceptedModificationType;
+    }
+
+    final void enqueue(E e) {
+        e = this.snapshot(e);
+        switch (this.backPressure) {
+        case BLOCK:
+            try {
+                this.queue.put(e);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                this.deliverImmediately(e);
+                return;
+            }
+            break;
+        case CALLER_RUNS:
+            if (!this.queue.offer(e)) {
+                this.deliverImmediately(e);
+                return;
+            }
+            break;
+        case DISCARD:
+            if (!this.queue.offer(e)) {
+                return;
+            }
+            break;
+        default:
+            if (!this.queue.offer(e)) {
+                throw new RejectedExecutionException(queueIsFull(this.queueCapacity));
+            }
+            break;
+        }
+        if (this.draining.compareAndSet(false, true)) {
+            try {
+                this.executor.execute(this.drainTask);
+            } catch (RuntimeException | Error ex) {
+                this.draining.set(false);
+                throw ex;
+            }
+        }
+    }
+    
+    /*
+     * Only one drain task is running at any time, 
+     * so the events are delivered in order.
+     */
+    private void drain() {
+        BlockingQueue<E> queue = this.queue;
+        do {
+            E e;
+            while ((e = queue.poll()) != null) {
+                this.deliverImmediately(e);
+            }
+            this.draining.set(false);
+            // Recheck the events enqueued after the last poll but before the flag is reset
+        } while (!queue.isEmpty() && this.draining.compareAndSet(false, true));
+    }
+    
+    private void deliverImmediately(E e) {
+        try {
+            this.deliver(e);
+        } catch (Throwable ex) {
+            Consumer<Throwable> exceptionHandler = this.exceptionHandler;
+            if (exceptionHandler != null) {
+                exceptionHandler.accept(ex);
+            } else {
+                Thread thread = Thread.currentThread();
+                thread.getUncaughtExceptionHandler().uncaughtException(thread, ex);
+            }
+        }
+    }
+
+    @Override
+    public int hashCode() {
+        return this.listener.hashCode();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj instanceof AsyncListener<?, ?>) {
+            return this.listener.equals(((AsyncListener<?, ?>)obj).listener);
+        }
+        return this.listener.equals(obj);
+    }
+
+    @Override
+    public String toString() {
+        return "async(" + this.listener + ')';
+    }
+    
+    /*
+     * Copies the pre-modification throwable of the event 
+     * into the new attribute context of its snapshot.
+     */
+    static void copyPreThrowable(ModificationEvent source, ModificationEvent snapshot) {
+        Throwable preThrowable = source.getPreModificationThrowable();
+        if (preThrowable != null) {
+            ((InAllChainAttributeContext)snapshot.getAttributeContext(AttributeScope.IN_ALL_CHAIN))
+            .setPreThrowable(preThrowable);
+        }
+    }
+    
+    /**
+     * The modification of the snapshot events, its global attribute context 
+     * only keeps the result of the original modification.
+     */
+    static final class ResultModification 
+    extends AbstractModification 
+    implements ElementEvent.Modification<Object>, MapElementEvent.MapModification<Object, Object> {
+
+        private static final long serialVersionUID = 2207316938409451264L;
+        
+        ResultModification(ModificationEvent e) {
+            GlobalAttributeContext globalAttributeContext = 
+                    (GlobalAttributeContext)this.getAttributeContext();
+            Throwable throwable = e.getModificationThrowable();
+            if (throwable != null) {
+                globalAttributeContext.setThrowable(throwable);
+            } else if (e.isModificationSuccessed()) {
+                globalAttributeContext.success();
+            }
+        }
+    }
+    
+    @I18N
+    private static native String queueIsFull(int queueCapacity);
+}
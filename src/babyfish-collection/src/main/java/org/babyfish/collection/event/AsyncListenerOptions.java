@@ -0,0 +1,157 @@
+/*
+ * BabyFish, Object Model Framework for Java and JPA.
+ * https://github.com/babyfish-ct/babyfish
+ *
+ * Copyright (c) 2008-2016, Tao Chen
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * Please visit "http://opensource.org/licenses/LGPL-3.0" to know more.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ */
+package org.babyfish.collection.event;
+
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+
+import org.babyfish.lang.Arguments;
+
+/**
+ * The options of the asynchronous listeners, for example, 
+ * {@link MapElementModificationAware#addMapElementListener(MapElementListener, AsyncListenerOptions)}.
+ * 
+ * <p>
+ * The events are appended into a bounded queue by the modifying thread after the
+ * modification, and one task that is submitted to the {@link #getExecutor() executor}
+ * delivers them to the listener one by one in the order of the modifications.
+ * The task only runs when there are pending events, so the executor can be any 
+ * executor, for example, the executor that creates one virtual thread for each task.
+ * </p>
+ * 
+ * <p>
+ * The listener receives a snapshot of each event, not the original event. The snapshot 
+ * keeps the source, the modification type, the event type, the detached and attached 
+ * elements (or keys and values) and the result of the modification, but its 
+ * {@link org.babyfish.data.event.ModificationEvent#getModification() getModification()}
+ * and {@link org.babyfish.data.event.ModificationEvent#getFinalModification() getFinalModification()}
+ * return null, because the modification objects reference the mutable arguments 
+ * of the modifying methods, for example, the map of "putAll", that may have been 
+ * changed by the caller when the snapshot is delivered.
+ * </p>
+ * 
+ * @author Tao Chen
+ */
+public final class AsyncListenerOptions {
+    
+    public static final int DEFAULT_QUEUE_CAPACITY = 1024;
+    
+    private final Executor executor;
+    
+    private final int queueCapacity;
+    
+    private final BackPressure backPressure;
+    
+    private final Consumer<Throwable> exceptionHandler;
+    
+    /**
+     * Creates the options with {@link #DEFAULT_QUEUE_CAPACITY} and 
+     * {@link BackPressure#CALLER_RUNS}, the modifying thread never waits
+     * for the listener even if the queue is full.
+     * 
+     * @param executor The executor that executes the listener.
+     */
+    public AsyncListenerOptions(Executor executor) {
+        this(executor, DEFAULT_QUEUE_CAPACITY, BackPressure.CALLER_RUNS, null);
+    }
+    
+    public AsyncListenerOptions(
+            Executor executor, 
+            int queueCapacity, 
+            BackPressure backPressure) {
+        this(executor, queueCapacity, backPressure, null);
+    }
+    
+    /**
+     * @param executor The executor that executes the listener.
+     * @param queueCapacity The max count of the pending events.
+     * @param backPressure What to do when the queue is full.
+     * @param exceptionHandler The handler of the exception thrown by the listener,
+     * it can be null, the exception is handled by the uncaught exception handler 
+     * of the current thread in that case.
+     */
+    public AsyncListenerOptions(
+            Executor executor, 
+            int queueCapacity, 
+            BackPressure backPressure,
+            Consumer<Throwable> exceptionHandler) {
+        this.executor = Arguments.mustNotBeNull("executor", executor);
+        this.queueCapacity = Arguments.mustBeGreaterThanValue("queueCapacity", queueCapacity, 0);
+        this.backPressure = Arguments.mustNotBeNull("backPressure", backPressure);
+        this.exceptionHandler = exceptionHandler;
+    }
+
+    public Executor getExecutor() {
+        return this.executor;
+    }
+
+    public int getQueueCapacity() {
+        return this.queueCapacity;
+    }
+
+    public BackPressure getBackPressure() {
+        return this.backPressure;
+    }
+
+    public Consumer<Throwable> getExceptionHandler() {
+        return this.exceptionHandler;
+    }
+    
+    /**
+     * Decides what the modifying thread does when the queue of the pending
+     * events is full.
+     * 
+     * @author Tao Chen
+     */
+    public enum BackPressure {
+        
+        /**
+         * Waits until the queue has space, if the modifying thread is interrupted, 
+         * the event is delivered by the modifying thread.
+         * 
+         * <p>
+         * <b>Hazard:</b> The modifying thread may wait while it still holds the locks
+         * of the collection, for example, the segment lock of 
+         * {@link org.babyfish.collection.ConcurrentMAHashMap} or the lock of the
+         * wrapper created by the "locked" methods of 
+         * {@link org.babyfish.collection.MACollections}. If the listener accesses the same collection, or waits 
+         * for the thread that is blocked by those locks, the two threads deadlock.
+         * Never use it in that case.
+         * </p>
+         */
+        BLOCK,
+        
+        /**
+         * The event is delivered by the modifying thread synchronously, 
+         * it may be delivered earlier than the pending events.
+         */
+        CALLER_RUNS,
+        
+        /**
+         * The event is discarded.
+         */
+        DISCARD,
+        
+        /**
+         * The modification event raising fails with 
+         * {@link java.util.concurrent.RejectedExecutionException}, 
+         * the modification has been done.
+         */
+        FAIL
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * BabyFish, Object Model Framework for Java and JPA.
+ * https://github.com/babyfish-ct/babyfish
+ *
+ * Copyright (c) 2008-2016, Tao Chen
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * Please visit "http://opensource.org/licenses/LGPL-3.0" to know more.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ */
+package org.babyfish.collection.event;
+
+import org.babyfish.data.event.EventType;
+import org.babyfish.data.event.PropertyVersion;
+import org.babyfish.data.event.spi.AbstractModification;
+
+/**
+ * @author Tao Chen
+ */
+final class AsyncMapElementListener<K, V> 
+extends AsyncListener<MapElementListener<K, V>, MapElementEvent<K, V>>
+implements MapElementListener<K, V> {
+
+    AsyncMapElementListener(MapElementListener<K, V> listener, AsyncListenerOptions options) {
+        super(listener, options);
+    }
+
+    @Override
+    public void modified(MapElementEvent<K, V> e) {
+        this.enqueue(e);
+    }
+
+    @Override
+    MapElementEvent<K, V> snapshot(MapElementEvent<K, V> e) {
+        return new Snapshot<>(e);
+    }
+
+    @Override
+    void deliver(MapElementEvent<K, V> e) throws Throwable {
+        this.listener.modified(e);
+    }
+    
+    /*
+     * The snapshot keeps the modification type, the keys, the values and the 
+     * result of the original event, its attribute contexts are its own and it 
+     * has neither cause nor bubbled and dispatched events.
+     * 
+     * It does not keep the modification because the modification references the 
+     * arguments of the modifying method, for example, the map of "putAll" or the 
+     * collection of "removeAll", and the caller can change them before the snapshot 
+     * is delivered; so both "getModification()" and "getFinalModification()" return null.
+     */
+    private static final class Snapshot<K, V> extends MapElementEvent<K, V> {
+        
+        private static final long serialVersionUID = 7862394185330410926L;
+
+        private final EventType eventType;
+        
+        @SuppressWarnings("unchecked")
+        Snapshot(MapElementEvent<K, V> e) {
+            super(
+                    e.getSource(), 
+                    (MapModification<K, V>)(MapModification<?, ?>)new AsyncListener.ResultModification(e), 
+                    e.getModificationType(), 
+                    e.getKey(PropertyVersion.DETACH), 
+                    e.getKey(PropertyVersion.ATTACH), 
+                    e.getValue(PropertyVersion.DETACH), 
+                    e.getValue(PropertyVersion.ATTACH)
+            );
+            this.eventType = e.getEventType();
+            AsyncListener.copyPreThrowable(e, this);
+        }
+
+        @Override
+        public EventType getEventType() {
+            return this.eventType;
+        }
+
+        @Override
+        public MapModification<K, V> getModification() {
+            return null;
+        }
+
+        @Override
+        public <M extends AbstractModification> M getFinalModification() {
+            return null;
+        }
+    }
+}
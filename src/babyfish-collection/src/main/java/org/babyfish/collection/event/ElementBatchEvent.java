@@ -0,0 +1,109 @@
+/*
+ * BabyFish, Object Model Framework for Java and JPA.
+ * https://github.com/babyfish-ct/babyfish
+ *
+ * Copyright (c) 2008-2016, Tao Chen
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * Please visit "http://opensource.org/licenses/LGPL-3.0" to know more.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ */
+package org.babyfish.collection.event;
+
+import java.util.List;
+
+import org.babyfish.data.event.Modification;
+import org.babyfish.data.event.ModificationEvent;
+import org.babyfish.data.event.ModificationType;
+import org.babyfish.data.event.PropertyVersion;
+import org.babyfish.lang.Arguments;
+
+/**
+ * The single event that describes all the elements changed by one modification
+ * of a set, such as {@link java.util.Collection#addAll(java.util.Collection)} 
+ * or {@link java.util.Collection#clear()}.
+ * 
+ * <p>
+ * The elements are stored as parallel arrays in the order in which they are 
+ * changed, the i<sup>th</sup> element can be accessed by {@link #getElement(int, PropertyVersion)}.
+ * </p>
+ * 
+ * @author Tao Chen
+ */
+public class ElementBatchEvent<E> extends ModificationEvent {
+
+    private static final long serialVersionUID = 6105527713386750370L;
+
+    private ModificationType[] modificationTypes;
+    
+    private Object[] detachedElements;
+    
+    private Object[] attachedElements;
+    
+    public ElementBatchEvent(
+            Object source, 
+            Modification modification, 
+            List<? extends ElementEvent<E>> events) {
+        super(source, modification, MapElementBatchEvent.modificationTypeOf(events));
+        int size = events.size();
+        ModificationType[] modificationTypes = new ModificationType[size];
+        Object[] detachedElements = new Object[size];
+        Object[] attachedElements = new Object[size];
+        for (int i = 0; i < size; i++) {
+            ElementEvent<E> e = events.get(i);
+            modificationTypes[i] = e.getModificationType();
+            detachedElements[i] = e.getElement(PropertyVersion.DETACH);
+            attachedElements[i] = e.getElement(PropertyVersion.ATTACH);
+        }
+        this.modificationTypes = modificationTypes;
+        this.detachedElements = detachedElements;
+        this.attachedElements = attachedElements;
+    }
+    
+    protected ElementBatchEvent(Object source, ElementBatchEvent<E> target) {
+        super(source, target);
+        this.modificationTypes = target.modificationTypes;
+        this.detachedElements = target.detachedElements;
+        this.attachedElements = target.attachedElements;
+    }
+    
+    public int size() {
+        return this.modificationTypes.length;
+    }
+    
+    public ModificationType getModificationType(int index) {
+        return this.modificationTypes[this.checkIndex(index)];
+    }
+    
+    @SuppressWarnings("unchecked")
+    public E getElement(int index, PropertyVersion version) {
+        return (E)MapElementBatchEvent.versionArray(
+                version, 
+                this.detachedElements, 
+                this.attachedElements)[this.checkIndex(index)];
+    }
+
+    @Override
+    public ElementBatchEvent<E> dispatch(Object source) {
+        return new ElementBatchEvent<>(source, this);
+    }
+    
+    private int checkIndex(int index) {
+        return Arguments.indexMustBetweenOther(
+                "index", 
+                index, 
+                "0", 
+                0, 
+                true, 
+                "size()", 
+                this.modificationTypes.length, 
+                false);
+    }
+}
@@ -17,11 +17,55 @@
  */
 package org.babyfish.collection.event;
 
+import java.util.concurrent.Executor;
+
 import org.babyfish.data.ModificationAware;
+import org.babyfish.lang.Arguments;
 
 public interface ElementModificationAware<E> extends ModificationAware {
 
     void addElementListener(ElementListener<? super E> listener);
     
     void removeElementListener(ElementListener<? super E> listener);
+    
+    /**
+     * Adds the listener whose "modified" method is invoked asynchronously by the executor
+     * with the default {@link AsyncListenerOptions}, its "modifying" method is never invoked.
+     * 
+     * <p>
+     * The default back-pressure policy is {@link AsyncListenerOptions.BackPressure#CALLER_RUNS},
+     * when the queue is full, the modifying thread invokes the listener by itself
+     * instead of waiting, because it may hold the locks of the collection and the 
+     * listener may need them. Do not choose {@link AsyncListenerOptions.BackPressure#BLOCK}
+     * unless the listener never accesses the collection.
+     * </p>
+     * 
+     * @see #addElementListener(ElementListener, AsyncListenerOptions)
+     */
+    default void addElementListener(ElementListener<? super E> listener, Executor executor) {
+        this.addElementListener(listener, new AsyncListenerOptions(executor));
+    }
+    
+    /**
+     * Adds the listener whose "modified" method is invoked asynchronously 
+     * after the modification, its "modifying" method is never invoked.
+     * 
+     * <p>
+     * The immutable snapshots of the events are enqueued by the modifying thread after
+     * the modification is done, they keep the modification type, the data and the result
+     * of the modification, but not the attributes, the cause, and the bubbled or 
+     * dispatched events of the original events.
+     * The listener can be removed by {@link #removeElementListener(ElementListener)},
+     * the pending events are still delivered after it is removed.
+     * </p>
+     */
+    @SuppressWarnings("unchecked")
+    default void addElementListener(ElementListener<? super E> listener, AsyncListenerOptions options) {
+        this.addElementListener(
+                new AsyncElementListener<E>(
+                        (ElementListener<E>)Arguments.mustNotBeNull("listener", listener), 
+                        Arguments.mustNotBeNull("options", options)
+                )
+        );
+    }
 }
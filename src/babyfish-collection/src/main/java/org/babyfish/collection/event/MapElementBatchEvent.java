@@ -0,0 +1,147 @@
+/*
+ * BabyFish, Object Model Framework for Java and JPA.
+ * https://github.com/babyfish-ct/babyfish
+ *
+ * Copyright (c) 2008-2016, Tao Chen
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * Please visit "http://opensource.org/licenses/LGPL-3.0" to know more.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ */
+package org.babyfish.collection.event;
+
+import java.util.List;
+
+import org.babyfish.data.event.Modification;
+import org.babyfish.data.event.ModificationEvent;
+import org.babyfish.data.event.ModificationType;
+import org.babyfish.data.event.PropertyVersion;
+import org.babyfish.lang.Arguments;
+
+/**
+ * The single event that describes all the elements changed by one modification
+ * of a map, such as {@link java.util.Map#putAll(java.util.Map)} or {@link java.util.Map#clear()}.
+ * 
+ * <p>
+ * The elements are stored as parallel arrays in the order in which they are 
+ * changed, the i<sup>th</sup> element can be accessed by {@link #getKey(int, PropertyVersion)}
+ * and {@link #getValue(int, PropertyVersion)}.
+ * </p>
+ * 
+ * @author Tao Chen
+ */
+public class MapElementBatchEvent<K, V> extends ModificationEvent {
+
+    private static final long serialVersionUID = -1878016359826094567L;
+
+    private ModificationType[] modificationTypes;
+    
+    private Object[] detachedKeys;
+    
+    private Object[] attachedKeys;
+    
+    private Object[] detachedValues;
+    
+    private Object[] attachedValues;
+    
+    public MapElementBatchEvent(
+            Object source, 
+            Modification modification, 
+            List<? extends MapElementEvent<K, V>> events) {
+        super(source, modification, modificationTypeOf(events));
+        int size = events.size();
+        ModificationType[] modificationTypes = new ModificationType[size];
+        Object[] detachedKeys = new Object[size];
+        Object[] attachedKeys = new Object[size];
+        Object[] detachedValues = new Object[size];
+        Object[] attachedValues = new Object[size];
+        for (int i = 0; i < size; i++) {
+            MapElementEvent<K, V> e = events.get(i);
+            modificationTypes[i] = e.getModificationType();
+            detachedKeys[i] = e.getKey(PropertyVersion.DETACH);
+            attachedKeys[i] = e.getKey(PropertyVersion.ATTACH);
+            detachedValues[i] = e.getValue(PropertyVersion.DETACH);
+            attachedValues[i] = e.getValue(PropertyVersion.ATTACH);
+        }
+        this.modificationTypes = modificationTypes;
+        this.detachedKeys = detachedKeys;
+        this.attachedKeys = attachedKeys;
+        this.detachedValues = detachedValues;
+        this.attachedValues = attachedValues;
+    }
+    
+    protected MapElementBatchEvent(Object source, MapElementBatchEvent<K, V> target) {
+        super(source, target);
+        this.modificationTypes = target.modificationTypes;
+        this.detachedKeys = target.detachedKeys;
+        this.attachedKeys = target.attachedKeys;
+        this.detachedValues = target.detachedValues;
+        this.attachedValues = target.attachedValues;
+    }
+    
+    public int size() {
+        return this.modificationTypes.length;
+    }
+    
+    public ModificationType getModificationType(int index) {
+        return this.modificationTypes[this.checkIndex(index)];
+    }
+    
+    @SuppressWarnings("unchecked")
+    public K getKey(int index, PropertyVersion version) {
+        return (K)versionArray(version, this.detachedKeys, this.attachedKeys)[this.checkIndex(index)];
+    }
+    
+    @SuppressWarnings("unchecked")
+    public V getValue(int index, PropertyVersion version) {
+        return (V)versionArray(version, this.detachedValues, this.attachedValues)[this.checkIndex(index)];
+    }
+
+    @Override
+    public MapElementBatchEvent<K, V> dispatch(Object source) {
+        return new MapElementBatchEvent<>(source, this);
+    }
+    
+    private int checkIndex(int index) {
+        return Arguments.indexMustBetweenOther(
+                "index", 
+                index, 
+                "0", 
+                0, 
+                true, 
+                "size()", 
+                this.modificationTypes.length, 
+                false);
+    }
+    
+    static Object[] versionArray(PropertyVersion version, Object[] detachedArray, Object[] attachedArray) {
+        switch (Arguments.mustNotBeNull("version", version)) {
+        case DETACH:
+            return detachedArray;
+        case ATTACH:
+            return attachedArray;
+        default:
+            throw new AssertionError("Internal bug");
+        }
+    }
+    
+    static ModificationType modificationTypeOf(List<? extends ModificationEvent> events) {
+        Arguments.mustNotBeEmpty("events", Arguments.mustNotBeNull("events", events));
+        ModificationType modificationType = null;
+        for (ModificationEvent e : events) {
+            if (modificationType == null) {
+                modificationType = e.getModificationType();
+            } else if (modificationType != e.getModificationType()) {
+                return ModificationType.REPLACE;
+            }
+        }
+        return modificationType;
+    }
+}
@@ -0,0 +1,34 @@
+/*
+ * BabyFish, Object Model Framework for Java and JPA.
+ * https://github.com/babyfish-ct/babyfish
+ *
+ * Copyright (c) 2008-2016, Tao Chen
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * Please visit "http://opensource.org/licenses/LGPL-3.0" to know more.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ */
+package org.babyfish.collection.event;
+
+import org.babyfish.data.ModificationAware;
+
+/**
+ * Implemented by the maps that can notify one {@link MapElementBatchEvent}
+ * for each modification instead of one {@link MapElementEvent} for each element.
+ * 
+ * @author Tao Chen
+ */
+public interface MapElementBatchModificationAware<K, V> extends ModificationAware {
+    
+    void addMapElementBatchListener(MapElementBatchListener<? super K, ? super V> listener);
+    
+    void removeMapElementBatchListener(MapElementBatchListener<? super K, ? super V> listener);
+
+}
@@ -0,0 +1,42 @@
+/*
+ * BabyFish, Object Model Framework for Java and JPA.
+ * https://github.com/babyfish-ct/babyfish
+ *
+ * Copyright (c) 2008-2016, Tao Chen
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * Please visit "http://opensource.org/licenses/LGPL-3.0" to know more.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ */
+package org.babyfish.collection.event;
+
+import org.babyfish.data.event.ModificationType;
+
+/**
+ * The optional interface of the element listeners such as {@link ElementListener} 
+ * and {@link MapElementListener}. The listener implements it to declare 
+ * that it is only interested in one {@link ModificationType}, so that the 
+ * MA collections never notify it about the events of the other types.
+ * 
+ * <p>
+ * The return value of {@link #getAcceptedModificationType()} is read only once
+ * when the listener is added, so it must not be changed.
+ * </p>
+ * 
+ * @author Tao Chen
+ */
+public interface ModificationTypeFilter {
+
+    /**
+     * @return The only modification type that this listener is interested in,
+     * or null if this listener is interested in all the modification types.
+     */
+    ModificationType getAcceptedModificationType();
+}
@@ -19,6 +19,7 @@ package org.babyfish.collection.event.modification;
 
 import java.util.Map;
 
+import org.babyfish.collection.EvictionPolicy;
 import org.babyfish.collection.event.MapElementEvent.MapModification;
 import org.babyfish.data.event.spi.AbstractModification;
 import org.babyfish.data.spi.Appender;
@@ -59,6 +60,10 @@ public class MapModifications {
     public static <K, V> ResumeViaInversedFrozenContext<K, V> resumeViaInversedFrozenContext() {
         return new ResumeViaInversedFrozenContext<>();
     }
+    
+    public static <K, V> EvictByPolicy<K, V> evict(K key, EvictionPolicy evictionPolicy) {
+        return new EvictByPolicy<>(key, evictionPolicy);
+    }
 
     public static class PutByKeyAndValue<K, V> extends AbstractModification implements MapModification<K, V> {
         
@@ -188,6 +193,33 @@ public class MapModifications {
         ResumeViaInversedFrozenContext() {}
     }
     
+    public static class EvictByPolicy<K, V> extends AbstractModification implements MapModification<K, V> {
+        
+        private static final long serialVersionUID = -3391287043716259440L;
+
+        private K key;
+        
+        private EvictionPolicy evictionPolicy;
+        
+        EvictByPolicy(K key, EvictionPolicy evictionPolicy) {
+            this.key = key;
+            this.evictionPolicy = evictionPolicy;
+        }
+        
+        public K getKey() {
+            return this.key;
+        }
+        
+        public EvictionPolicy getEvictionPolicy() {
+            return this.evictionPolicy;
+        }
+        
+        @Override
+        protected void appendTo(Appender appender) {
+            appender.property("key", this.key).property("evictionPolicy", this.evictionPolicy);
+        }
+    }
+    
     @Deprecated
     protected MapModifications() {
         throw new UnsupportedOperationException();
@@ -0,0 +1,137 @@
+/*
+ * BabyFish, Object Model Framework for Java and JPA.
+ * https://github.com/babyfish-ct/babyfish
+ *
+ * Copyright (c) 2008-2016, Tao Chen
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * Please visit "http://opensource.org/licenses/LGPL-3.0" to know more.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ */
+package org.babyfish.collection.internal;
+
+/**
+ * A count-min sketch with 4-bit counters which estimates the access frequencies 
+ * of the keys of the bounded {@link org.babyfish.collection.spi.base.LinkedHashEntries} 
+ * and {@link org.babyfish.collection.concurrent.ConcurrentCache}.
+ * 
+ * <p>
+ * Each long of the table contains 16 counters, a hash code uses 4 counters of 
+ * 4 different longs. When the count of the increments reaches the sample size, 
+ * all the counters are halved so that the old popularity ages out.
+ * </p>
+ * 
+ * <p>
+ * This class is not thread safe, the caller must guard it by its own lock.
+ * It is shared by the packages of this module only, it is not a part of the API.
+ * </p>
+ * 
+ * @author Tao Chen
+ */
+public final class FrequencySketch {
+    
+    private static final long[] SEEDS = {
+            0xc3a5c85c97cb3127L, 
+            0xb492b66fbe98f273L, 
+            0x9ae16a3b2f90404fL, 
+            0xcbf29ce484222325L
+    };
+    
+    private static final long RESET_MASK = 0x7777777777777777L;
+    
+    private static final long ONE_MASK = 0x1111111111111111L;
+    
+    private static final int MAX_TABLE_LENGTH = 1 << 26;
+    
+    private long[] table;
+    
+    private int tableMask;
+    
+    private int sampleSize;
+    
+    private int size;
+    
+    public FrequencySketch(long capacity) {
+        this.ensureCapacity(capacity);
+    }
+    
+    /*
+     * The old frequencies are discarded when the table is enlarged.
+     */
+    public void ensureCapacity(long capacity) {
+        int length = (int)Math.min(Math.max(capacity, 8L), MAX_TABLE_LENGTH);
+        if (this.table != null && this.table.length >= length) {
+            return;
+        }
+        length = Integer.highestOneBit(length - 1) << 1;
+        this.table = new long[length];
+        this.tableMask = length - 1;
+        this.sampleSize = (int)Math.min(10L * Math.max(capacity, 1L), Integer.MAX_VALUE);
+        this.size = 0;
+    }
+    
+    public int frequency(int hash) {
+        hash = spread(hash);
+        int start = (hash & 3) << 2;
+        int frequency = Integer.MAX_VALUE;
+        for (int i = 0; i < 4; i++) {
+            int offset = (start + i) << 2;
+            int count = (int)((this.table[this.indexOf(hash, i)] >>> offset) & 0xFL);
+            if (count < frequency) {
+                frequency = count;
+            }
+        }
+        return frequency;
+    }
+    
+    public void increment(int hash) {
+        hash = spread(hash);
+        int start = (hash & 3) << 2;
+        boolean added = false;
+        for (int i = 0; i < 4; i++) {
+            added |= this.incrementAt(this.indexOf(hash, i), start + i);
+        }
+        if (added && ++this.size == this.sampleSize) {
+            this.reset();
+        }
+    }
+    
+    private boolean incrementAt(int index, int counter) {
+        int offset = counter << 2;
+        long mask = 0xFL << offset;
+        if ((this.table[index] & mask) != mask) {
+            this.table[index] += 1L << offset;
+            return true;
+        }
+        return false;
+    }
+    
+    private void reset() {
+        long[] table = this.table;
+        int oddCount = 0;
+        for (int i = table.length - 1; i >= 0; i--) {
+            oddCount += Long.bitCount(table[i] & ONE_MASK);
+            table[i] = (table[i] >>> 1) & RESET_MASK;
+        }
+        this.size = (this.size >>> 1) - (oddCount >>> 2);
+    }
+    
+    private int indexOf(int hash, int i) {
+        long h = (hash + SEEDS[i]) * SEEDS[i];
+        h += h >>> 32;
+        return (int)h & this.tableMask;
+    }
+    
+    private static int spread(int x) {
+        x = ((x >>> 16) ^ x) * 0x45d9f3b;
+        x = ((x >>> 16) ^ x) * 0x45d9f3b;
+        return (x >>> 16) ^ x;
+    }
+}
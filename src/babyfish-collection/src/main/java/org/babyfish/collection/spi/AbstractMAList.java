@@ -58,6 +58,16 @@ public abstract class AbstractMAList<E> extends AbstractXList<E> implements MALi
     protected transient ElementListener<E> elementListener;
     
     protected transient ListElementListener<E> listElementListener;
+    
+    private transient ListenerDispatcher<ElementListener<E>> elementListenerDispatcher;
+    
+    private transient ListenerDispatcher<ListElementListener<E>> listElementListenerDispatcher;
+    
+    private final transient boolean modificationHooksOverridden = 
+            ModificationHooks.isOverridden(this.getClass());
+    
+    transient ModificationObservers modificationObservers = 
+            new ModificationObservers(this::isModificationObservable);
 
     protected AbstractMAList(BaseElements<E> baseElements) {
         super(baseElements);
@@ -92,34 +102,42 @@ public abstract class AbstractMAList<E> extends AbstractXList<E> implements MALi
     @SuppressWarnings("unchecked")
     @Override
     public void addElementListener(ElementListener<? super E> listener) {
+        Object oldListener = this.elementListener;
         this.elementListener = ElementListener.combine(
                     this.elementListener, 
                     (ElementListener<E>)listener);
+        this.modificationObservers.listenerChanged(oldListener, this.elementListener);
     }
 
     @SuppressWarnings("unchecked")
     @Override
     public void removeElementListener(ElementListener<? super E> listener) {
+        Object oldListener = this.elementListener;
         this.elementListener = ElementListener.remove(
                     this.elementListener, 
                     (ElementListener<E>)listener);
+        this.modificationObservers.listenerChanged(oldListener, this.elementListener);
     }
 
     @SuppressWarnings("unchecked")
     @Override
     public void addListElementListener(ListElementListener<? super E> listener) {
+        Object oldListener = this.listElementListener;
         this.listElementListener = ListElementListener.combine(
                     this.listElementListener, 
                     (ListElementListener<E>)listener);
+        this.modificationObservers.listenerChanged(oldListener, this.listElementListener);
     }
 
     @SuppressWarnings("unchecked")
     @Override
     public void removeListElementListener(
             ListElementListener<? super E> listener) {
+        Object oldListener = this.listElementListener;
         this.listElementListener = ListElementListener.remove(
                     this.listElementListener, 
                     (ListElementListener<E>)listener);
+        this.modificationObservers.listenerChanged(oldListener, this.listElementListener);
     }
     
     protected void executeModifying(ListElementEvent<E> e) {
@@ -185,23 +203,25 @@ public abstract class AbstractMAList<E> extends AbstractXList<E> implements MALi
     protected void raiseModifying(ListElementEvent<E> e) throws Throwable {
         Throwable finalThrowable = null;
         try {
-            ElementListener<E> elementListener = this.elementListener;
+            ListenerDispatcher<ElementListener<E>> elementListener = 
+                    this.elementListenerDispatcher();
             if (elementListener != null) {
                 e
                 .getAttributeContext(AttributeScope.LOCAL)
                 .addAttribute(AK_ELEMENT_LISTENER, elementListener);
-                elementListener.modifying(e);
+                elementListener.dispatchModifying(e, ElementListener::modifying);
             }
         } catch (Throwable ex) {
             finalThrowable = ex;
         }
         try {
-            ListElementListener<E> listElementListener = this.listElementListener;
+            ListenerDispatcher<ListElementListener<E>> listElementListener = 
+                    this.listElementListenerDispatcher();
             if (listElementListener != null) {
                 e
                 .getAttributeContext(AttributeScope.LOCAL)
                 .addAttribute(AK_LIST_ELEMENT_LISTENER, listElementListener);
-                listElementListener.modifying(e);
+                listElementListener.dispatchModifying(e, ListElementListener::modifying);
             }
         } catch (Throwable ex) {
             if (finalThrowable == null) {
@@ -217,25 +237,25 @@ public abstract class AbstractMAList<E> extends AbstractXList<E> implements MALi
     protected void raiseModified(ListElementEvent<E> e) throws Throwable {
         Throwable finalThrowable = null;
         try {
-            ListElementListener<E> listElementListener = 
-                (ListElementListener<E>)
+            ListenerDispatcher<ListElementListener<E>> listElementListener = 
+                (ListenerDispatcher<ListElementListener<E>>)
                 e
                 .getAttributeContext(AttributeScope.LOCAL)
                 .removeAttribute(AK_LIST_ELEMENT_LISTENER);
             if (listElementListener != null) {
-                listElementListener.modified(e);
+                listElementListener.dispatchModified(e, ListElementListener::modified);
             }
         } catch (Throwable ex) {
             finalThrowable = ex;
         }
         try {
-            ElementListener<E> elementListener = 
-                (ElementListener<E>)
+            ListenerDispatcher<ElementListener<E>> elementListener = 
+                (ListenerDispatcher<ElementListener<E>>)
                 e
                 .getAttributeContext(AttributeScope.LOCAL)
                 .removeAttribute(AK_ELEMENT_LISTENER);
             if (elementListener != null) {
-                elementListener.modified(e);
+                elementListener.dispatchModified(e, ElementListener::modified);
             }
         } catch (Throwable ex) {
             if (finalThrowable == null) {
@@ -247,6 +267,20 @@ public abstract class AbstractMAList<E> extends AbstractXList<E> implements MALi
         }
     }
     
+    private ListenerDispatcher<ElementListener<E>> elementListenerDispatcher() {
+        ListenerDispatcher<ElementListener<E>> dispatcher = 
+                ListenerDispatcher.of(this.elementListener, this.elementListenerDispatcher);
+        this.elementListenerDispatcher = dispatcher;
+        return dispatcher;
+    }
+    
+    private ListenerDispatcher<ListElementListener<E>> listElementListenerDispatcher() {
+        ListenerDispatcher<ListElementListener<E>> dispatcher = 
+                ListenerDispatcher.of(this.listElementListener, this.listElementListenerDispatcher);
+        this.listElementListenerDispatcher = dispatcher;
+        return dispatcher;
+    }
+    
     protected void bubbleModifying(ListElementEvent<E> e) {
         
     }
@@ -254,6 +288,25 @@ public abstract class AbstractMAList<E> extends AbstractXList<E> implements MALi
     protected void bubbleModified(ListElementEvent<E> e) {
         
     }
+    
+    /**
+     * Returns whether the modification events of this list can be observed
+     * by anything: the listeners of this list, the overridden event handling methods
+     * of the derived class or the parent object that the events are bubbled to.
+     * 
+     * <p>
+     * If it returns false, the modifications of this list are executed 
+     * without creating any event, like the X collection framework.
+     * The views that bubble their events must override this method
+     * to consider their parent objects.
+     * </p>
+     */
+    protected boolean isModificationObservable() {
+        return 
+                this.elementListener != null || 
+                this.listElementListener != null || 
+                this.modificationHooksOverridden;
+    }
 
     @Override
     public boolean add(E e) {
@@ -262,7 +315,9 @@ public abstract class AbstractMAList<E> extends AbstractXList<E> implements MALi
                 this.tailHide(),
                 this.baseElements.allSize() - this.headHide() - this.tailHide(), 
                 e, 
-                this.new HandlerImpl4List(ListModifications.add(e)),
+                this.isModificationObservable() ?
+                        this.new HandlerImpl4List(ListModifications.add(e)) :
+                        null,
                 this.createBaseElementsRangeChangeHandler());
         return true;
     }
@@ -274,9 +329,10 @@ public abstract class AbstractMAList<E> extends AbstractXList<E> implements MALi
                 this.tailHide(),
                 index, 
                 element, 
-                this.new HandlerImpl4List(
-                        ListModifications.add(index, element)),
-                        this.createBaseElementsRangeChangeHandler());
+                this.isModificationObservable() ?
+                        this.new HandlerImpl4List(ListModifications.add(index, element)) :
+                        null,
+                this.createBaseElementsRangeChangeHandler());
     }
 
     @Override
@@ -286,7 +342,9 @@ public abstract class AbstractMAList<E> extends AbstractXList<E> implements MALi
                 this.tailHide(),
                 this.baseElements.allSize() - this.headHide() - this.tailHide(),
                 c, 
-                this.new HandlerImpl4List(ListModifications.addAll(c)),
+                this.isModificationObservable() ?
+                        this.new HandlerImpl4List(ListModifications.addAll(c)) :
+                        null,
                 this.createBaseElementsRangeChangeHandler());
     }
 
@@ -297,7 +355,9 @@ public abstract class AbstractMAList<E> extends AbstractXList<E> implements MALi
                 this.tailHide(),
                 index,
                 c, 
-                this.new HandlerImpl4List(ListModifications.addAll(index, c)),
+                this.isModificationObservable() ?
+                        this.new HandlerImpl4List(ListModifications.addAll(index, c)) :
+                        null,
                 this.createBaseElementsRangeChangeHandler());
     }
 
@@ -306,7 +366,9 @@ public abstract class AbstractMAList<E> extends AbstractXList<E> implements MALi
         this.baseElements.clear(
                 this.headHide(),
                 this.tailHide(),
-                this.new HandlerImpl4List(ListModifications.<E>clear()));
+                this.isModificationObservable() ?
+                        this.new HandlerImpl4List(ListModifications.<E>clear()) :
+                        null);
     }
 
     @Override
@@ -330,7 +392,9 @@ public abstract class AbstractMAList<E> extends AbstractXList<E> implements MALi
                 this.headHide(),
                 this.tailHide(),
                 index, 
-                this.new HandlerImpl4List(ListModifications.<E>remove(index)));
+                this.isModificationObservable() ?
+                        this.new HandlerImpl4List(ListModifications.<E>remove(index)) :
+                        null);
     }
 
     @Override
@@ -339,7 +403,9 @@ public abstract class AbstractMAList<E> extends AbstractXList<E> implements MALi
                 this.headHide(),
                 this.tailHide(),
                 o, 
-                this.new HandlerImpl4List(ListModifications.<E>remove(o)));
+                this.isModificationObservable() ?
+                        this.new HandlerImpl4List(ListModifications.<E>remove(o)) :
+                        null);
     }
 
     @Override
@@ -348,7 +414,9 @@ public abstract class AbstractMAList<E> extends AbstractXList<E> implements MALi
                 this.headHide(),
                 this.tailHide(),
                 c, 
-                this.new HandlerImpl4List(ListModifications.<E>removeAll(c)));
+                this.isModificationObservable() ?
+                        this.new HandlerImpl4List(ListModifications.<E>removeAll(c)) :
+                        null);
     }
 
     @Override
@@ -357,7 +425,9 @@ public abstract class AbstractMAList<E> extends AbstractXList<E> implements MALi
                 this.headHide(),
                 this.tailHide(),
                 c, 
-                this.new HandlerImpl4List(ListModifications.<E>retainAll(c)));
+                this.isModificationObservable() ?
+                        this.new HandlerImpl4List(ListModifications.<E>retainAll(c)) :
+                        null);
     }
 
     @Override
@@ -367,7 +437,9 @@ public abstract class AbstractMAList<E> extends AbstractXList<E> implements MALi
                 this.tailHide(),
                 index, 
                 element, 
-                this.new HandlerImpl4List(ListModifications.set(index, element)),
+                this.isModificationObservable() ?
+                        this.new HandlerImpl4List(ListModifications.set(index, element)) :
+                        null,
                 this.createBaseElementsRangeChangeHandler());
     }
 
@@ -386,10 +458,18 @@ public abstract class AbstractMAList<E> extends AbstractXList<E> implements MALi
         
         protected transient ListElementListener<E> listElementListener;
         
+        private final transient boolean modificationHooksOverridden = 
+                ModificationHooks.isOverridden(this.getClass());
+        
+        private final transient ModificationObservers modificationObservers;
+        
         private ListViewInfos.ListIterator viewInfo;
         
         protected ListIteratorImpl(AbstractMAList<E> parentList, int index) {
             this.parentList = Arguments.mustNotBeNull("parentList", parentList);
+            this.modificationObservers = parentList.modificationObservers.attach(
+                    this.modificationHooksOverridden, 
+                    parentList::isModificationObservable);
             this.iterator = parentList.baseElements.listIterator(
                     parentList.headHide(),
                     parentList.tailHide(),
@@ -406,34 +486,42 @@ public abstract class AbstractMAList<E> extends AbstractXList<E> implements MALi
         @SuppressWarnings("unchecked")
         @Override
         public void addElementListener(ElementListener<? super E> listener) {
+            Object oldListener = this.elementListener;
             this.elementListener = ElementListener.combine(
                         this.elementListener, 
                         (ElementListener<E>)listener);
+            this.modificationObservers.listenerChanged(oldListener, this.elementListener);
         }
 
         @SuppressWarnings("unchecked")
         @Override
         public void removeElementListener(ElementListener<? super E> listener) {
+            Object oldListener = this.elementListener;
             this.elementListener = ElementListener.remove(
                         this.elementListener, 
                         (ElementListener<E>)listener);
+            this.modificationObservers.listenerChanged(oldListener, this.elementListener);
         }
 
         @SuppressWarnings("unchecked")
         @Override
         public void addListElementListener(ListElementListener<? super E> listener) {
+            Object oldListener = this.listElementListener;
             this.listElementListener = ListElementListener.combine(
                         this.listElementListener, 
                         (ListElementListener<E>)listener);
+            this.modificationObservers.listenerChanged(oldListener, this.listElementListener);
         }
 
         @SuppressWarnings("unchecked")
         @Override
         public void removeListElementListener(
                 ListElementListener<? super E> listener) {
+            Object oldListener = this.listElementListener;
             this.listElementListener = ListElementListener.remove(
                         this.listElementListener, 
                         (ListElementListener<E>)listener);
+            this.modificationObservers.listenerChanged(oldListener, this.listElementListener);
         }
         
         protected void executeModifying(ListElementEvent<E> e) {
@@ -563,6 +651,9 @@ public abstract class AbstractMAList<E> extends AbstractXList<E> implements MALi
         
         protected void bubbleModifying(ListElementEvent<E> e) {
             AbstractMAList<E> parentList = this.parentList;
+            if (!parentList.isModificationObservable()) {
+                return;
+            }
             ListElementEvent<E> bubbledEvent = new ListElementEvent<>(
                     parentList, 
                     new Cause(e), 
@@ -574,7 +665,17 @@ public abstract class AbstractMAList<E> extends AbstractXList<E> implements MALi
         protected void bubbleModified(ListElementEvent<E> e) {
             AbstractMAList<E> parentList = this.parentList;
             ListElementEvent<E> bubbleEvent = e.getBubbledEvent(parentList);
-            parentList.executeModified(bubbleEvent);
+            if (bubbleEvent != null) {
+                parentList.executeModified(bubbleEvent);
+            }
+        }
+        
+        protected boolean isModificationObservable() {
+            return 
+                    this.elementListener != null || 
+                    this.listElementListener != null || 
+                    this.modificationHooksOverridden ||
+                    this.modificationObservers.isObserved();
         }
         
         @Override
@@ -610,7 +711,11 @@ public abstract class AbstractMAList<E> extends AbstractXList<E> implements MALi
         @Override
         public void remove() {
             try {
-                this.iterator.remove(new HandlerImpl4ListIterator(ListIteratorModifications.<E>remove()));
+                this.iterator.remove(
+                        this.isModificationObservable() ? 
+                                new HandlerImpl4ListIterator(ListIteratorModifications.<E>remove()) : 
+                                null
+                );
             } finally {
                 this.syncParentModCount();
             }
@@ -619,7 +724,12 @@ public abstract class AbstractMAList<E> extends AbstractXList<E> implements MALi
         @Override
         public void set(E e) {
             try {
-                this.iterator.set(e, new HandlerImpl4ListIterator(ListIteratorModifications.set(e)));
+                this.iterator.set(
+                        e, 
+                        this.isModificationObservable() ? 
+                                new HandlerImpl4ListIterator(ListIteratorModifications.set(e)) : 
+                                null
+                );
             } finally {
                 this.syncParentModCount();
             }
@@ -628,7 +738,12 @@ public abstract class AbstractMAList<E> extends AbstractXList<E> implements MALi
         @Override
         public void add(E e) {
             try {
-                this.iterator.add(e, new HandlerImpl4ListIterator(ListIteratorModifications.add(e)));
+                this.iterator.add(
+                        e, 
+                        this.isModificationObservable() ? 
+                                new HandlerImpl4ListIterator(ListIteratorModifications.add(e)) : 
+                                null
+                );
             } finally {
                 this.syncParentModCount();
             }
@@ -774,6 +889,9 @@ public abstract class AbstractMAList<E> extends AbstractXList<E> implements MALi
         protected SubListImpl(AbstractMAList<E> parentList, int fromIndex, int toIndex) {
             super(Arguments.mustNotBeNull("parentList", parentList).baseElements);
             this.parentList = parentList;
+            this.modificationObservers = parentList.modificationObservers.attach(
+                    ModificationHooks.isOverridden(this.getClass()), 
+                    parentList::isModificationObservable);
             Arguments.indexMustBeGreaterThanOrEqualToValue("fromIndex", fromIndex, 0);
             Arguments.indexMustBeLessThanOrEqualToValue("fromIndex", fromIndex, parentList.size());
             Arguments.indexMustBeLessThanOrEqualToOther("fromIndex", fromIndex, "toIndex", toIndex);
@@ -807,6 +925,9 @@ public abstract class AbstractMAList<E> extends AbstractXList<E> implements MALi
         @Override
         protected void bubbleModifying(final ListElementEvent<E> e) {
             AbstractMAList<E> parentList = this.parentList;
+            if (!parentList.isModificationObservable()) {
+                return;
+            }
             ListElementEvent<E> bubbledEvent = new ListElementEvent<>(
                     parentList, 
                     new Cause(e), 
@@ -837,7 +958,16 @@ public abstract class AbstractMAList<E> extends AbstractXList<E> implements MALi
         protected void bubbleModified(ListElementEvent<E> e) {
             AbstractMAList<E> parentList = this.parentList;
             ListElementEvent<E> bubbleEvent = e.getBubbledEvent(parentList);
-            parentList.executeModified(bubbleEvent);
+            if (bubbleEvent != null) {
+                parentList.executeModified(bubbleEvent);
+            }
+        }
+        
+        @Override
+        protected boolean isModificationObservable() {
+            return 
+                    super.isModificationObservable() || 
+                    this.modificationObservers.isObserved();
         }
 
         @Override
@@ -1180,11 +1310,17 @@ public abstract class AbstractMAList<E> extends AbstractXList<E> implements MALi
 
         @Override
         public BaseElementsHandler<E> createInversedSuspendingHandler(E element) {
+            if (!AbstractMAList.this.isModificationObservable()) {
+                return null;
+            }
             return new HandlerImpl4List(ListModifications.suspendViaInversedFrozenContext(element));
         }
 
         @Override
         public BaseElementsHandler<E> createInversedResumingHandler() {
+            if (!AbstractMAList.this.isModificationObservable()) {
+                return null;
+            }
             return new HandlerImpl4List(ListModifications.resumeViaInversedFrozenContext());
         }
 
@@ -17,9 +17,13 @@
  */
 package org.babyfish.collection.spi;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.Map;
+import java.util.function.Supplier;
 
+import org.babyfish.collection.EvictionPolicy;
 import org.babyfish.collection.MAMap;
 import org.babyfish.collection.UnifiedComparator;
 import org.babyfish.collection.event.ElementEvent;
@@ -29,6 +33,9 @@ import org.babyfish.collection.event.EntryElementEvent;
 import org.babyfish.collection.event.EntryElementListener;
 import org.babyfish.collection.event.KeySetElementEvent;
 import org.babyfish.collection.event.KeySetElementListener;
+import org.babyfish.collection.event.MapElementBatchEvent;
+import org.babyfish.collection.event.MapElementBatchListener;
+import org.babyfish.collection.event.MapElementBatchModificationAware;
 import org.babyfish.collection.event.MapElementEvent;
 import org.babyfish.collection.event.MapElementEvent.MapModification;
 import org.babyfish.collection.event.MapElementListener;
@@ -52,6 +59,7 @@ import org.babyfish.data.View;
 import org.babyfish.data.ViewInfo;
 import org.babyfish.data.event.AttributeScope;
 import org.babyfish.data.event.Cause;
+import org.babyfish.data.event.EventAttributeContext;
 import org.babyfish.data.event.spi.GlobalAttributeContext;
 import org.babyfish.data.event.spi.InAllChainAttributeContext;
 import org.babyfish.lang.Arguments;
@@ -62,12 +70,14 @@ import org.babyfish.validator.Validator;
  */
 public abstract class AbstractMAMap<K, V> 
     extends AbstractXMap<K, V> 
-    implements MAMap<K, V> {
+    implements MAMap<K, V>, MapElementBatchModificationAware<K, V> {
     
     private static final Object AK_ELEMENT_LISTENER = new Object();
     
     private static final Object AK_MAP_ELEMENT_LISTENER = new Object();
     
+    private static final Object AK_MAP_ELEMENT_BATCH_LISTENER = new Object();
+    
     private static final Object AK_KEY_SET_ELEMENT_LISTENER = new Object();
     
     private static final Object AK_VALUES_ELEMENT_LISTENER = new Object();
@@ -76,6 +86,29 @@ public abstract class AbstractMAMap<K, V>
 
     protected transient MapElementListener<K, V> mapElementListener;
     
+    protected transient MapElementBatchListener<K, V> mapElementBatchListener;
+    
+    private transient ListenerDispatcher<MapElementListener<K, V>> mapElementListenerDispatcher;
+    
+    private final transient boolean modificationHooksOverridden = 
+            ModificationHooks.isOverridden(this.getClass());
+    
+    transient ModificationObservers modificationObservers = 
+            new ModificationObservers(this::isModificationObservable);
+    
+    private final transient boolean batchHooksOverridden = 
+            ModificationHooks.isBatchOverridden(this.getClass());
+    
+    private final transient boolean elementHooksOverridden = 
+            ModificationHooks.isElementOverridden(this.getClass());
+    
+    /*
+     * The key of the pending events of this map in the global attribute context 
+     * of the modification, it cannot be this map because the hashCode() and equals() 
+     * of the map depend on its elements.
+     */
+    private final transient Object batchAttributeKey = new Object();
+    
     protected AbstractMAMap(BaseEntries<K, V> baseEntries) {
         super(baseEntries);
         if (!(this instanceof View)) {
@@ -109,6 +142,20 @@ public abstract class AbstractMAMap<K, V>
     }
 
     protected void executeModifying(MapElementEvent<K, V> e) {
+        if (this.mapElementBatchListener != null || this.batchHooksOverridden) {
+            EventAttributeContext globalAttributeContext = 
+                    e.getAttributeContext(AttributeScope.GLOBAL);
+            List<MapElementEvent<K, V>> batchEvents = 
+                    globalAttributeContext.getAttribute(this.batchAttributeKey);
+            if (batchEvents == null) {
+                batchEvents = new ArrayList<>();
+                globalAttributeContext.addAttribute(this.batchAttributeKey, batchEvents);
+            }
+            batchEvents.add(e);
+            if (this.isOnlyBatchObservable()) {
+                return;
+            }
+        }
         Throwable finalThrowable = null;
         try {
             this.onModifying(e);    
@@ -135,6 +182,9 @@ public abstract class AbstractMAMap<K, V>
     }
 
     protected void executeModified(MapElementEvent<K, V> e) {
+        if ((this.mapElementBatchListener != null || this.batchHooksOverridden) && this.isOnlyBatchObservable()) {
+            return;
+        }
         Throwable finalThrowable = null;
         try {
             this.bubbleModified(e);     
@@ -169,27 +219,35 @@ public abstract class AbstractMAMap<K, V>
     }
 
     protected void raiseModifying(MapElementEvent<K, V> e) throws Throwable {
-        MapElementListener<K, V> mapElementListener = this.mapElementListener;
+        ListenerDispatcher<MapElementListener<K, V>> mapElementListener = 
+                this.mapElementListenerDispatcher();
         if (mapElementListener != null) {
             e
             .getAttributeContext(AttributeScope.LOCAL)
             .addAttribute(AK_MAP_ELEMENT_LISTENER, mapElementListener);
-            mapElementListener.modifying(e);
+            mapElementListener.dispatchModifying(e, MapElementListener::modifying);
         }
     }
     
     @SuppressWarnings("unchecked")
     protected void raiseModified(MapElementEvent<K, V> e) throws Throwable {
-        MapElementListener<K, V> mapElementListener = 
-            (MapElementListener<K, V>)
+        ListenerDispatcher<MapElementListener<K, V>> mapElementListener = 
+            (ListenerDispatcher<MapElementListener<K, V>>)
             e
             .getAttributeContext(AttributeScope.LOCAL)
             .removeAttribute(AK_MAP_ELEMENT_LISTENER);
         if (mapElementListener != null) {
-            mapElementListener.modified(e);
+            mapElementListener.dispatchModified(e, MapElementListener::modified);
         }
     }
     
+    private ListenerDispatcher<MapElementListener<K, V>> mapElementListenerDispatcher() {
+        ListenerDispatcher<MapElementListener<K, V>> dispatcher = 
+                ListenerDispatcher.of(this.mapElementListener, this.mapElementListenerDispatcher);
+        this.mapElementListenerDispatcher = dispatcher;
+        return dispatcher;
+    }
+    
     protected void bubbleModifying(MapElementEvent<K, V> e) {
         
     }
@@ -198,6 +256,159 @@ public abstract class AbstractMAMap<K, V>
         
     }
     
+    /**
+     * Invoked once by each modification after all the elements of it are passed to 
+     * {@link #executeModifying(MapElementEvent)}, raises one {@link MapElementBatchEvent} 
+     * that contains all of them if this map has batch listeners and then bubbles 
+     * the batch to the parent object.
+     */
+    protected void executeBatchModifying(org.babyfish.data.event.Modification modification) {
+        EventAttributeContext globalAttributeContext = modification.getAttributeContext();
+        List<MapElementEvent<K, V>> batchEvents = 
+                globalAttributeContext.getAttribute(this.batchAttributeKey);
+        if (batchEvents == null) {
+            this.bubbleBatchModifying(modification);
+            return;
+        }
+        MapElementBatchEvent<K, V> e = new MapElementBatchEvent<>(this, modification, batchEvents);
+        globalAttributeContext.setAttribute(this.batchAttributeKey, e);
+        Throwable finalThrowable = null;
+        try {
+            this.onBatchModifying(e);
+        } catch (Throwable ex) {
+            finalThrowable = ex;
+        }
+        try {
+            this.raiseBatchModifying(e);
+        } catch (Throwable ex) {
+            if (finalThrowable == null) {
+                finalThrowable = ex;
+            }
+        }
+        try {
+            this.bubbleBatchModifying(modification);
+        } catch (Throwable ex) {
+            if (finalThrowable == null) {
+                finalThrowable = ex;
+            }
+        }
+        if (finalThrowable != null) {
+            throw new ModificationException(false, e, finalThrowable);
+        }
+    }
+    
+    protected void executeBatchModified(org.babyfish.data.event.Modification modification) {
+        Object attribute = modification.getAttributeContext().removeAttribute(this.batchAttributeKey);
+        if (!(attribute instanceof MapElementBatchEvent<?, ?>)) {
+            this.bubbleBatchModified(modification);
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        MapElementBatchEvent<K, V> e = (MapElementBatchEvent<K, V>)attribute;
+        Throwable finalThrowable = null;
+        try {
+            this.bubbleBatchModified(modification);
+        } catch (Throwable ex) {
+            finalThrowable = ex;
+        }
+        try {
+            this.raiseBatchModified(e);
+        } catch (Throwable ex) {
+            if (finalThrowable == null) {
+                finalThrowable = ex;
+            }
+        }
+        try {
+            this.onBatchModified(e);
+        } catch (Throwable ex) {
+            if (finalThrowable == null) {
+                finalThrowable = ex;
+            }
+        }
+        if (finalThrowable != null) {
+            throw new ModificationException(true, e, finalThrowable);
+        }
+    }
+    
+    protected void onBatchModifying(MapElementBatchEvent<K, V> e) throws Throwable {
+        
+    }
+    
+    protected void onBatchModified(MapElementBatchEvent<K, V> e) throws Throwable {
+        
+    }
+    
+    protected void raiseBatchModifying(MapElementBatchEvent<K, V> e) throws Throwable {
+        MapElementBatchListener<K, V> mapElementBatchListener = this.mapElementBatchListener;
+        if (mapElementBatchListener != null) {
+            e
+            .getAttributeContext(AttributeScope.LOCAL)
+            .addAttribute(AK_MAP_ELEMENT_BATCH_LISTENER, mapElementBatchListener);
+            mapElementBatchListener.modifying(e);
+        }
+    }
+    
+    @SuppressWarnings("unchecked")
+    protected void raiseBatchModified(MapElementBatchEvent<K, V> e) throws Throwable {
+        MapElementBatchListener<K, V> mapElementBatchListener = 
+            (MapElementBatchListener<K, V>)
+            e
+            .getAttributeContext(AttributeScope.LOCAL)
+            .removeAttribute(AK_MAP_ELEMENT_BATCH_LISTENER);
+        if (mapElementBatchListener != null) {
+            mapElementBatchListener.modified(e);
+        }
+    }
+    
+    protected void bubbleBatchModifying(org.babyfish.data.event.Modification modification) {
+        
+    }
+    
+    protected void bubbleBatchModified(org.babyfish.data.event.Modification modification) {
+        
+    }
+    
+    /*
+     * When only the batch event is observed, the element events are collected 
+     * for it but are neither handled nor raised. The views never skip them 
+     * because they bubble them to their parent objects.
+     */
+    private boolean isOnlyBatchObservable() {
+        return 
+                this.mapElementListener == null && 
+                !this.elementHooksOverridden && 
+                !(this instanceof View);
+    }
+    
+    /**
+     * Returns whether the modification events of this map can be observed
+     * by anything: the listeners of this map, the overridden event handling methods
+     * of the derived class or the parent object that the events are bubbled to.
+     * 
+     * <p>
+     * If it returns false, the modifications of this map are executed 
+     * without creating any event, like the X collection framework.
+     * The views that bubble their events must override this method
+     * to consider their parent objects.
+     * </p>
+     */
+    protected boolean isModificationObservable() {
+        return 
+                this.mapElementListener != null || 
+                this.mapElementBatchListener != null || 
+                this.modificationHooksOverridden;
+    }
+    
+    /**
+     * Executes the suspending or resuming of a frozen key of this map 
+     * which is triggered by the {@link org.babyfish.collection.FrozenContext}. 
+     * The derived class which guards this map by a lock should override 
+     * this method to execute the action under that lock.
+     */
+    protected <R> R executeViaFrozenContext(Supplier<R> action) {
+        return action.get();
+    }
+    
     @Override
     protected MAEntrySetView<K, V> createEntrySet() {
         return new EntrySetImpl<K, V>(this);
@@ -216,17 +427,41 @@ public abstract class AbstractMAMap<K, V>
     @SuppressWarnings("unchecked")
     @Override
     public void addMapElementListener(MapElementListener<? super K, ? super V> listener) {
+        Object oldListener = this.mapElementListener;
         this.mapElementListener = MapElementListener.combine(
                     this.mapElementListener, 
                     (MapElementListener<K, V>)listener);
+        this.modificationObservers.listenerChanged(oldListener, this.mapElementListener);
     }
 
     @SuppressWarnings("unchecked")
     @Override
     public void removeMapElementListener(MapElementListener<? super K, ? super V> listener) {
+        Object oldListener = this.mapElementListener;
         this.mapElementListener = MapElementListener.remove(
                     this.mapElementListener, 
                     (MapElementListener<K, V>)listener);
+        this.modificationObservers.listenerChanged(oldListener, this.mapElementListener);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public void addMapElementBatchListener(MapElementBatchListener<? super K, ? super V> listener) {
+        Object oldListener = this.mapElementBatchListener;
+        this.mapElementBatchListener = MapElementBatchListener.combine(
+                    this.mapElementBatchListener, 
+                    (MapElementBatchListener<K, V>)listener);
+        this.modificationObservers.listenerChanged(oldListener, this.mapElementBatchListener);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public void removeMapElementBatchListener(MapElementBatchListener<? super K, ? super V> listener) {
+        Object oldListener = this.mapElementBatchListener;
+        this.mapElementBatchListener = MapElementBatchListener.remove(
+                    this.mapElementBatchListener, 
+                    (MapElementBatchListener<K, V>)listener);
+        this.modificationObservers.listenerChanged(oldListener, this.mapElementBatchListener);
     }
     
     @Override
@@ -267,20 +502,26 @@ public abstract class AbstractMAMap<K, V>
         return this.baseEntries.put(
                 key, 
                 value, 
-                this.new HandlerImpl4Map(MapModifications.put(key, value)));
+                this.isModificationObservable() ?
+                        this.new HandlerImpl4Map(MapModifications.put(key, value)) :
+                        null);
     }
 
     @Override
     public void putAll(Map<? extends K, ? extends V> m) {
         this.baseEntries.putAll(
                 m, 
-                this.new HandlerImpl4Map(MapModifications.putAll(m)));
+                this.isModificationObservable() ?
+                        this.new HandlerImpl4Map(MapModifications.putAll(m)) :
+                        null);
     }
 
     @Override
     public void clear() {
         this.baseEntries.clear(
-                this.new HandlerImpl4Map(MapModifications.<K, V>clear()));
+                this.isModificationObservable() ?
+                        this.new HandlerImpl4Map(MapModifications.<K, V>clear()) :
+                        null);
     }
 
     @SuppressWarnings("unchecked")
@@ -288,7 +529,9 @@ public abstract class AbstractMAMap<K, V>
     public V remove(Object key) {
         BaseEntry<K, V> be = this.baseEntries.removeByKey(
                 key, 
-                this.new HandlerImpl4Map(MapModifications.<K, V>remove((K)key)));
+                this.isModificationObservable() ?
+                        this.new HandlerImpl4Map(MapModifications.<K, V>remove((K)key)) :
+                        null);
         return be != null ? be.getValue() : null;
     }
 
@@ -298,8 +541,16 @@ public abstract class AbstractMAMap<K, V>
         
         private transient ElementListener<Entry<K, V>> elementListener;
         
+        private final transient boolean modificationHooksOverridden = 
+                ModificationHooks.isOverridden(this.getClass());
+        
+        private final transient ModificationObservers modificationObservers;
+        
         protected EntrySetImpl(AbstractMAMap<K, V> parentMap) {
             super(parentMap);
+            this.modificationObservers = parentMap.modificationObservers.attach(
+                    this.modificationHooksOverridden, 
+                    parentMap::isModificationObservable);
         }
         
         protected void executeModifying(ElementEvent<Entry<K, V>> e) {
@@ -385,41 +636,60 @@ public abstract class AbstractMAMap<K, V>
         }
         
         protected void bubbleModifying(final ElementEvent<Entry<K, V>> e) {
+            AbstractMAMap<K, V> parentMap = this.<AbstractMAMap<K, V>>getParentMap();
+            if (!parentMap.isModificationObservable()) {
+                return;
+            }
             MapElementEvent<K, V> bubbledEvent = new MapElementEvent<>(
-                    this.getParentMap(), 
+                    parentMap, 
                     new Cause(e),
                     version -> e.getElement(version).getKey(),
                     version -> e.getElement(version).getValue()
             );
-            this.<AbstractMAMap<K, V>>getParentMap().executeModifying(bubbledEvent);
+            parentMap.executeModifying(bubbledEvent);
         }
         
         protected void bubbleModified(ElementEvent<Entry<K, V>> e) {
             AbstractMAMap<K, V> parentMap = this.<AbstractMAMap<K, V>>getParentMap();
             MapElementEvent<K, V> bubbledEvent = e.getBubbledEvent(parentMap);
-            parentMap.executeModified(bubbledEvent);
+            if (bubbledEvent != null) {
+                parentMap.executeModified(bubbledEvent);
+            }
+        }
+        
+        protected boolean isModificationObservable() {
+            return 
+                    this.elementListener != null || 
+                    this.modificationHooksOverridden ||
+                    this.modificationObservers.isObserved();
         }
 
         @SuppressWarnings("unchecked")
         @Override
         public void addElementListener(ElementListener<? super Entry<K, V>> listener) {
+            Object oldListener = this.elementListener;
             this.elementListener = ElementListener.combine(
                         this.elementListener, 
                         (ElementListener<Entry<K ,V>>)listener);
+            this.modificationObservers.listenerChanged(oldListener, this.elementListener);
         }
 
         @SuppressWarnings("unchecked")
         @Override
         public void removeElementListener(ElementListener<? super Entry<K, V>> listener) {
+            Object oldListener = this.elementListener;
             this.elementListener = ElementListener.remove(
                         this.elementListener, 
                         (ElementListener<Entry<K ,V>>)listener);
+            this.modificationObservers.listenerChanged(oldListener, this.elementListener);
         }
 
         @Override
         public void clear() {
             this.getParentMap().baseEntries.clear(
-                    this.new HandlerImpl4EntrySet(CollectionModifications.<Entry<K, V>>clear()));
+                    this.isModificationObservable() ?
+                            this.new HandlerImpl4EntrySet(CollectionModifications.<Entry<K, V>>clear()) :
+                            null);
         }
     
         @Override
@@ -429,7 +699,9 @@ public abstract class AbstractMAMap<K, V>
             }
             return this.getParentMap().baseEntries.removeByEntry(
                     o, 
-                    this.new HandlerImpl4EntrySet(CollectionModifications.<Entry<K, V>>remove(o))
+                    this.isModificationObservable() ?
+                            this.new HandlerImpl4EntrySet(CollectionModifications.<Entry<K, V>>remove(o)) :
+                            null
             ) != null;
         }
     
@@ -437,14 +709,18 @@ public abstract class AbstractMAMap<K, V>
         public boolean removeAll(Collection<?> c) {
             return this.getParentMap().baseEntries.removeAllByEntryCollection(
                     c, 
-                    this.new HandlerImpl4EntrySet(CollectionModifications.<Entry<K, V>>removeAll(c)));
+                    this.isModificationObservable() ?
+                            this.new HandlerImpl4EntrySet(CollectionModifications.<Entry<K, V>>removeAll(c)) :
+                            null);
         }
     
         @Override
         public boolean retainAll(Collection<?> c) {
             return this.getParentMap().baseEntries.retainAllByEntryCollection(
                     c, 
-                    this.new HandlerImpl4EntrySet(CollectionModifications.<Entry<K, V>>retainAll(c)));
+                    this.isModificationObservable() ?
+                            this.new HandlerImpl4EntrySet(CollectionModifications.<Entry<K, V>>retainAll(c)) :
+                            null);
         }
 
         @Override
@@ -460,9 +736,17 @@ public abstract class AbstractMAMap<K, V>
             
             private transient ElementListener<Entry<K, V>> elementListener;
             
+            private final transient boolean modificationHooksOverridden = 
+                    ModificationHooks.isOverridden(this.getClass());
+            
+            private final transient ModificationObservers modificationObservers;
+            
             protected IteratorImpl(EntrySetImpl<K, V> parentEntrySet) {
                 this.parentEntrySet = parentEntrySet;
                 this.beIterator = parentEntrySet.getParentMap().baseEntries.iterator();
+                this.modificationObservers = parentEntrySet.modificationObservers.attach(
+                        this.modificationHooksOverridden, 
+                        parentEntrySet::isModificationObservable);
             }
             
             @SuppressWarnings("unchecked")
@@ -473,17 +757,21 @@ public abstract class AbstractMAMap<K, V>
             @SuppressWarnings("unchecked")
             @Override
             public void addElementListener(ElementListener<? super Entry<K, V>> listener) {
+                Object oldListener = this.elementListener;
                 this.elementListener = ElementListener.combine(
                             this.elementListener, 
                             (ElementListener<Entry<K ,V>>)listener);
+                this.modificationObservers.listenerChanged(oldListener, this.elementListener);
             }
 
             @SuppressWarnings("unchecked")
             @Override
             public void removeElementListener(ElementListener<? super Entry<K, V>> listener) {
+                Object oldListener = this.elementListener;
                 this.elementListener = ElementListener.remove(
                             this.elementListener, 
                             (ElementListener<Entry<K ,V>>)listener);
+                this.modificationObservers.listenerChanged(oldListener, this.elementListener);
             }
             
             protected void executeModifying(ElementEvent<Entry<K, V>> e) {
@@ -570,6 +858,9 @@ public abstract class AbstractMAMap<K, V>
             
             protected void bubbleModifying(ElementEvent<Entry<K, V>> e) {
                 EntrySetImpl<K, V> parentEntrySet = this.parentEntrySet;
+                if (!parentEntrySet.isModificationObservable()) {
+                    return;
+                }
                 ElementEvent<Entry<K, V>> bubbledEvent = new ElementEvent<>(
                         parentEntrySet, 
                         new Cause(e), 
@@ -580,7 +871,16 @@ public abstract class AbstractMAMap<K, V>
             protected void bubbleModified(ElementEvent<Entry<K, V>> e) {
                 EntrySetImpl<K, V> parentEntrySet = this.parentEntrySet;
                 ElementEvent<Entry<K, V>> bubbledEvent = e.getBubbledEvent(parentEntrySet);
-                parentEntrySet.executeModified(bubbledEvent);
+                if (bubbledEvent != null) {
+                    parentEntrySet.executeModified(bubbledEvent);
+                }
+            }
+            
+            protected boolean isModificationObservable() {
+                return 
+                        this.elementListener != null || 
+                        this.modificationHooksOverridden ||
+                        this.modificationObservers.isObserved();
             }
             
             @Override
@@ -601,7 +901,10 @@ public abstract class AbstractMAMap<K, V>
         
             @Override
             public void remove() {
-                this.beIterator.remove(this.new HandlerImpl4EntryIterator());
+                this.beIterator.remove(
+                        this.isModificationObservable() ? 
+                                this.new HandlerImpl4EntryIterator() : 
+                                null);
             }
             
             @Override
@@ -640,6 +943,11 @@ public abstract class AbstractMAMap<K, V>
                     IteratorImpl.this.executeModified(e);
                 }
                 
+                @Override
+                protected AbstractMAMap<K, V> parentMap() {
+                    return IteratorImpl.this.parentEntrySet.getParentMap();
+                }
+                
             }
         }
 
@@ -663,6 +971,11 @@ public abstract class AbstractMAMap<K, V>
                 EntrySetImpl.this.executeModified(e);
             }
             
+            @Override
+            protected AbstractMAMap<K, V> parentMap() {
+                return EntrySetImpl.this.getParentMap();
+            }
+            
         }
         
     }
@@ -677,6 +990,9 @@ public abstract class AbstractMAMap<K, V>
         protected KeySetImpl(AbstractMAMap<K, V> parentMap) {
             super((BaseEntries)parentMap.baseEntries);
             this.parentMap = Arguments.mustNotBeNull("parentMap", parentMap);
+            this.modificationObservers = parentMap.modificationObservers.attach(
+                    ModificationHooks.isOverridden(this.getClass()), 
+                    parentMap::isModificationObservable);
         }
         
         @SuppressWarnings("unchecked")
@@ -688,18 +1004,22 @@ public abstract class AbstractMAMap<K, V>
         @Override
         public void addKeySetElementListener(
                 KeySetElementListener<? super K, ? super V> listener) {
+            Object oldListener = this.keySetElementListener;
             this.keySetElementListener = KeySetElementListener.combine(
                         this.keySetElementListener, 
                         (KeySetElementListener<K, V>)listener);
+            this.modificationObservers.listenerChanged(oldListener, this.keySetElementListener);
         }
 
         @SuppressWarnings("unchecked")
         @Override
         public void removeKeySetElementListener(
                 KeySetElementListener<? super K, ? super V> listener) {
+            Object oldListener = this.keySetElementListener;
             this.keySetElementListener = KeySetElementListener.remove(
                         this.keySetElementListener, 
                         (KeySetElementListener<K, V>)listener);
+            this.modificationObservers.listenerChanged(oldListener, this.keySetElementListener);
         }
         
         @Deprecated
@@ -866,6 +1186,9 @@ public abstract class AbstractMAMap<K, V>
         
         protected void bubbleModifying(final KeySetElementEvent<K, V> e) {
             AbstractMAMap<K, V> parentMap = this.parentMap;
+            if (!parentMap.isModificationObservable()) {
+                return;
+            }
             MapElementEvent<K, V> bubbledEvent = new MapElementEvent<>(
                     parentMap, 
                     new Cause(e),
@@ -878,7 +1201,27 @@ public abstract class AbstractMAMap<K, V>
         protected void bubbleModified(KeySetElementEvent<K, V> e) {
             AbstractMAMap<K, V> parentMap = this.parentMap;
             MapElementEvent<K, V> bubbledEvent = e.getBubbledEvent(parentMap);
-            parentMap.executeModified(bubbledEvent);
+            if (bubbledEvent != null) {
+                parentMap.executeModified(bubbledEvent);
+            }
+        }
+        
+        @Override
+        protected void bubbleBatchModifying(org.babyfish.data.event.Modification modification) {
+            this.parentMap.executeBatchModifying(modification);
+        }
+        
+        @Override
+        protected void bubbleBatchModified(org.babyfish.data.event.Modification modification) {
+            this.parentMap.executeBatchModified(modification);
+        }
+        
+        @Override
+        protected boolean isModificationObservable() {
+            return 
+                    super.isModificationObservable() || 
+                    this.keySetElementListener != null || 
+                    this.modificationObservers.isObserved();
         }
 
         protected static class IteratorImpl<K, V> 
@@ -891,6 +1234,13 @@ public abstract class AbstractMAMap<K, V>
                 super(parentSet, false);
             }
             
+            @Override
+            protected boolean isModificationObservable() {
+                return 
+                        this.keySetElementListener != null || 
+                        super.isModificationObservable();
+            }
+            
             @Override
             public ViewInfo viewInfo() {
                 return CollectionViewInfos.iterator();
@@ -1032,18 +1382,22 @@ public abstract class AbstractMAMap<K, V>
             @Override
             public void addKeySetElementListener(
                     KeySetElementListener<? super K, ? super V> listener) {
+                Object oldListener = this.keySetElementListener;
                 this.keySetElementListener = KeySetElementListener.combine(
                             this.keySetElementListener, 
                             (KeySetElementListener<K, V>)listener);
+                this.modificationObservers.listenerChanged(oldListener, this.keySetElementListener);
             }
 
             @SuppressWarnings("unchecked")
             @Override
             public void removeKeySetElementListener(
                     KeySetElementListener<? super K, ? super V> listener) {
+                Object oldListener = this.keySetElementListener;
                 this.keySetElementListener = KeySetElementListener.remove(
                             this.keySetElementListener, 
                             (KeySetElementListener<K, V>)listener);
+                this.modificationObservers.listenerChanged(oldListener, this.keySetElementListener);
             } 
         }
     }
@@ -1056,8 +1410,16 @@ public abstract class AbstractMAMap<K, V>
         
         private transient ValuesElementListener<K, V> valuesElementListener;
         
+        private final transient boolean modificationHooksOverridden = 
+                ModificationHooks.isOverridden(this.getClass());
+        
+        private final transient ModificationObservers modificationObservers;
+        
         protected ValuesImpl(AbstractMAMap<K, V> parentMap) {
             super(parentMap);
+            this.modificationObservers = parentMap.modificationObservers.attach(
+                    this.modificationHooksOverridden, 
+                    parentMap::isModificationObservable);
         }
 
         @Override
@@ -1192,6 +1554,9 @@ public abstract class AbstractMAMap<K, V>
         
         protected void bubbleModifying(final ValuesElementEvent<K, V> e) {
             AbstractMAMap<K, V> parentMap = this.getParentMap();
+            if (!parentMap.isModificationObservable()) {
+                return;
+            }
             MapElementEvent<K, V> bubbledEvent = new MapElementEvent<>(
                     parentMap, 
                     new Cause(e),
@@ -1204,52 +1569,74 @@ public abstract class AbstractMAMap<K, V>
         protected void bubbleModified(ValuesElementEvent<K, V> e) {
             AbstractMAMap<K, V> parentMap = this.getParentMap();
             MapElementEvent<K, V> bubbleEvent = e.getBubbledEvent(parentMap);
-            parentMap.executeModified(bubbleEvent);
+            if (bubbleEvent != null) {
+                parentMap.executeModified(bubbleEvent);
+            }
+        }
+        
+        protected boolean isModificationObservable() {
+            return 
+                    this.elementListener != null || 
+                    this.valuesElementListener != null || 
+                    this.modificationHooksOverridden ||
+                    this.modificationObservers.isObserved();
         }
         
         @SuppressWarnings("unchecked")
         @Override
         public void addElementListener(ElementListener<? super V> listener) {
+            Object oldListener = this.elementListener;
             this.elementListener = ElementListener.combine(
                         this.elementListener, 
                         (ElementListener<V>)listener);
+            this.modificationObservers.listenerChanged(oldListener, this.elementListener);
         }
 
         @SuppressWarnings("unchecked")
         @Override
         public void removeElementListener(ElementListener<? super V> listener) {
+            Object oldListener = this.elementListener;
             this.elementListener = ElementListener.remove(
                         this.elementListener, 
                         (ElementListener<V>)listener);
+            this.modificationObservers.listenerChanged(oldListener, this.elementListener);
         }
         
         @SuppressWarnings("unchecked")
         @Override
         public void addValuesElementListener(ValuesElementListener<? super K, ? super V> listener) {
+            Object oldListener = this.valuesElementListener;
             this.valuesElementListener = ValuesElementListener.combine(
                         this.valuesElementListener, 
                         (ValuesElementListener<K, V>)listener);
+            this.modificationObservers.listenerChanged(oldListener, this.valuesElementListener);
         }
 
         @SuppressWarnings("unchecked")
         @Override
         public void removeValuesElementListener(ValuesElementListener<? super K, ? super V> listener) {
+            Object oldListener = this.valuesElementListener;
             this.valuesElementListener = ValuesElementListener.remove(
                         this.valuesElementListener, 
                         (ValuesElementListener<K, V>)listener);
+            this.modificationObservers.listenerChanged(oldListener, this.valuesElementListener);
         }
 
         @Override
         public void clear() {
             this.<AbstractMAMap<K, V>>getParentMap().baseEntries.clear(
-                    this.new HandlerImpl(CollectionModifications.<V>clear()));
+                    this.isModificationObservable() ?
+                            this.new HandlerImpl(CollectionModifications.<V>clear()) :
+                            null);
         }
 
         @Override
         public boolean remove(Object o) {
             return this.<AbstractMAMap<K, V>>getParentMap().baseEntries.removeByValue(
                     o, 
-                    this.new HandlerImpl(CollectionModifications.<V>remove(o))
+                    this.isModificationObservable() ?
+                            this.new HandlerImpl(CollectionModifications.<V>remove(o)) :
+                            null
             ) != null;
         }
 
@@ -1257,14 +1644,18 @@ public abstract class AbstractMAMap<K, V>
         public boolean removeAll(Collection<?> c) {
             return this.<AbstractMAMap<K, V>>getParentMap().baseEntries.removeAllByValueCollection(
                     c, 
-                    this.new HandlerImpl(CollectionModifications.<V>removeAll(c)));
+                    this.isModificationObservable() ?
+                            this.new HandlerImpl(CollectionModifications.<V>removeAll(c)) :
+                            null);
         }
 
         @Override
         public boolean retainAll(Collection<?> c) {
             return this.<AbstractMAMap<K, V>>getParentMap().baseEntries.retainAllByValueCollection(
                     c, 
-                    this.new HandlerImpl(CollectionModifications.<V>retainAll(c)));
+                    this.isModificationObservable() ?
+                            this.new HandlerImpl(CollectionModifications.<V>retainAll(c)) :
+                            null);
         }
         
         @Override
@@ -1280,11 +1671,19 @@ public abstract class AbstractMAMap<K, V>
             
             private transient ValuesElementListener<K, V> valuesElementListener;
             
+            private final transient boolean modificationHooksOverridden = 
+                    ModificationHooks.isOverridden(this.getClass());
+            
+            private final transient ModificationObservers modificationObservers;
+            
             private final BaseEntryIterator<K, V> beIterator;
             
             protected IteratorImpl(ValuesImpl<K, V> parentValues) {
                 this.parentValues = Arguments.mustNotBeNull("parentValues", parentValues);
                 this.beIterator = parentValues.getParentMap().baseEntries.iterator();
+                this.modificationObservers = parentValues.modificationObservers.attach(
+                        this.modificationHooksOverridden, 
+                        parentValues::isModificationObservable);
             }
             
             @SuppressWarnings("unchecked")
@@ -1295,33 +1694,41 @@ public abstract class AbstractMAMap<K, V>
             @SuppressWarnings("unchecked")
             @Override
             public void addElementListener(ElementListener<? super V> listener) {
+                Object oldListener = this.elementListener;
                 this.elementListener = ElementListener.combine(
                             this.elementListener, 
                             (ElementListener<V>)listener);
+                this.modificationObservers.listenerChanged(oldListener, this.elementListener);
             }
 
             @SuppressWarnings("unchecked")
             @Override
             public void removeElementListener(ElementListener<? super V> listener) {
+                Object oldListener = this.elementListener;
                 this.elementListener = ElementListener.remove(
                             this.elementListener, 
                             (ElementListener<V>)listener);
+                this.modificationObservers.listenerChanged(oldListener, this.elementListener);
             }
             
             @SuppressWarnings("unchecked")
             @Override
             public void addValuesElementListener(ValuesElementListener<? super K, ? super V> listener) {
+                Object oldListener = this.valuesElementListener;
                 this.valuesElementListener = ValuesElementListener.combine(
                             this.valuesElementListener, 
                             (ValuesElementListener<K, V>)listener);
+                this.modificationObservers.listenerChanged(oldListener, this.valuesElementListener);
             }
 
             @SuppressWarnings("unchecked")
             @Override
             public void removeValuesElementListener(ValuesElementListener<? super K, ? super V> listener) {
+                Object oldListener = this.valuesElementListener;
                 this.valuesElementListener = ValuesElementListener.remove(
                             this.valuesElementListener, 
                             (ValuesElementListener<K, V>)listener);
+                this.modificationObservers.listenerChanged(oldListener, this.valuesElementListener);
             }
 
             protected void executeModifying(ValuesElementEvent<K, V> e) {
@@ -1451,6 +1858,9 @@ public abstract class AbstractMAMap<K, V>
             
             protected void bubbleModifying(final ValuesElementEvent<K, V> e) {
                 ValuesImpl<K, V> parentValues = this.parentValues;
+                if (!parentValues.isModificationObservable()) {
+                    return;
+                }
                 ValuesElementEvent<K, V> bubbledEvent = new ValuesElementEvent<>(
                         parentValues, 
                         new Cause(e), 
@@ -1462,7 +1872,17 @@ public abstract class AbstractMAMap<K, V>
             protected void bubbleModified(ValuesElementEvent<K, V> e) {
                 ValuesImpl<K, V> parentValues = this.parentValues;
                 ValuesElementEvent<K, V> bubbledEvent = e.getBubbledEvent(parentValues);
-                parentValues.executeModified(bubbledEvent);
+                if (bubbledEvent != null) {
+                    parentValues.executeModified(bubbledEvent);
+                }
+            }
+            
+            protected boolean isModificationObservable() {
+                return 
+                        this.elementListener != null || 
+                        this.valuesElementListener != null || 
+                        this.modificationHooksOverridden ||
+                        this.modificationObservers.isObserved();
             }
 
             @Override
@@ -1477,7 +1897,11 @@ public abstract class AbstractMAMap<K, V>
 
             @Override
             public void remove() {
-                this.beIterator.remove(this.new HandlerImpl());
+                this.beIterator.remove(
+                        this.isModificationObservable() ? 
+                                this.new HandlerImpl() : 
+                                null
+                );
             }
             
             @Override
@@ -1516,6 +1940,11 @@ public abstract class AbstractMAMap<K, V>
                     IteratorImpl.this.executeModified(e);
                 }
                 
+                @Override
+                protected AbstractMAMap<K, V> parentMap() {
+                    return IteratorImpl.this.parentValues.getParentMap();
+                }
+                
             }
             
         }
@@ -1541,6 +1970,11 @@ public abstract class AbstractMAMap<K, V>
                 ValuesImpl.this.executeModified(e);
             }
             
+            @Override
+            protected AbstractMAMap<K, V> parentMap() {
+                return ValuesImpl.this.getParentMap();
+            }
+            
         }
         
     }
@@ -1555,16 +1989,29 @@ public abstract class AbstractMAMap<K, V>
         
         private transient EntryElementListener<K, V> entryElementListener;
         
+        private final transient boolean modificationHooksOverridden = 
+                ModificationHooks.isOverridden(this.getClass());
+        
+        private final transient ModificationObservers modificationObservers;
+        
         protected AbstractEntryImpl(
                 AbstractMAMap<K, V> parentMap, 
                 BaseEntry<K, V> baseEntry) throws NoEntryException {
             super (baseEntry);
             this.parentMap = Arguments.mustNotBeNull("parentMap", parentMap);
+            this.modificationObservers = parentMap.modificationObservers.attach(
+                    this.modificationHooksOverridden, 
+                    parentMap::isModificationObservable);
         }
         
         @Override
         public V setValue(V value) {
-            return this.baseEntry.setValue(value, this.new HandlerImpl4Entry(EntryModifications.<V>set(value)));
+            return this.baseEntry.setValue(
+                    value, 
+                    this.isModificationObservable() ?
+                            this.new HandlerImpl4Entry(EntryModifications.<V>set(value)) :
+                            null
+            );
         }
         
         @SuppressWarnings("unchecked")
@@ -1575,33 +2022,41 @@ public abstract class AbstractMAMap<K, V>
         @SuppressWarnings("unchecked")
         @Override
         public void addElementListener(ElementListener<? super V> listener) {
+            Object oldListener = this.elementListener;
             this.elementListener = ElementListener.combine(
                         this.elementListener, 
                         (ElementListener<V>)listener);
+            this.modificationObservers.listenerChanged(oldListener, this.elementListener);
         }
 
         @SuppressWarnings("unchecked")
         @Override
         public void removeElementListener(ElementListener<? super V> listener) {
+            Object oldListener = this.elementListener;
             this.elementListener = ElementListener.remove(
                         this.elementListener, 
                         (ElementListener<V>)listener);
+            this.modificationObservers.listenerChanged(oldListener, this.elementListener);
         }
         
         @SuppressWarnings("unchecked")
         @Override
         public void addEntryElementListener(EntryElementListener<? super K, ? super V> listener) {
+            Object oldListener = this.entryElementListener;
             this.entryElementListener = EntryElementListener.combine(
                         this.entryElementListener, 
                         (EntryElementListener<K, V>)listener);
+            this.modificationObservers.listenerChanged(oldListener, this.entryElementListener);
         }
 
         @SuppressWarnings("unchecked")
         @Override
         public void removeEntryElementListener(EntryElementListener<? super K, ? super V> listener) {
+            Object oldListener = this.entryElementListener;
             this.entryElementListener = EntryElementListener.remove(
                         this.entryElementListener, 
                         (EntryElementListener<K, V>)listener);
+            this.modificationObservers.listenerChanged(oldListener, this.entryElementListener);
         }
 
         protected void executeModifying(EntryElementEvent<K, V> e) {
@@ -1731,6 +2186,9 @@ public abstract class AbstractMAMap<K, V>
 
         protected void bubbleModifying(final EntryElementEvent<K, V> e) {
             AbstractMAMap<K, V> parentMap = this.parentMap;
+            if (!parentMap.isModificationObservable()) {
+                return;
+            }
             MapElementEvent<K, V> bubbledEvent = new MapElementEvent<>(
                     parentMap,
                     new Cause(e),
@@ -1743,7 +2201,17 @@ public abstract class AbstractMAMap<K, V>
         protected void bubbleModified(ElementEvent<V> e) {
             AbstractMAMap<K, V> parentMap = this.parentMap;
             MapElementEvent<K, V> bubbleEvent = e.getBubbledEvent(parentMap);
-            parentMap.executeModified(bubbleEvent);
+            if (bubbleEvent != null) {
+                parentMap.executeModified(bubbleEvent);
+            }
+        }
+        
+        protected boolean isModificationObservable() {
+            return 
+                    this.elementListener != null || 
+                    this.entryElementListener != null || 
+                    this.modificationHooksOverridden ||
+                    this.modificationObservers.isObserved();
         }
 
         private class HandlerImpl4Entry implements BaseEntriesHandler<K, V> {
@@ -1818,6 +2286,16 @@ public abstract class AbstractMAMap<K, V>
                     ((GlobalAttributeContext)this.modification.getAttributeContext()).success();    
                 }
             }
+
+            @Override
+            public void batchModifying() {
+                AbstractEntryImpl.this.parentMap.executeBatchModifying(this.modification);
+            }
+
+            @Override
+            public void batchModified() {
+                AbstractEntryImpl.this.parentMap.executeBatchModified(this.modification);
+            }
         }
         
     }
@@ -1963,6 +2441,16 @@ public abstract class AbstractMAMap<K, V>
                 ((GlobalAttributeContext)this.modification.getAttributeContext()).success();    
             }
         }
+
+        @Override
+        public void batchModifying() {
+            AbstractMAMap.this.executeBatchModifying(this.modification);
+        }
+
+        @Override
+        public void batchModified() {
+            AbstractMAMap.this.executeBatchModified(this.modification);
+        }
     }
     
     private static abstract class AbstractEntryHandlerImpl<K, V> implements BaseEntriesHandler<K, V> {
@@ -1978,6 +2466,8 @@ public abstract class AbstractMAMap<K, V>
         protected abstract void modifying(ElementEvent<Entry<K, V>> e);
         
         protected abstract void modified(ElementEvent<Entry<K, V>> e);
+        
+        protected abstract AbstractMAMap<K, V> parentMap();
 
         @Override
         public final Object createRemovingArgument(K oldKey, V oldValue) {
@@ -2017,6 +2507,16 @@ public abstract class AbstractMAMap<K, V>
                 ((GlobalAttributeContext)this.modification.getAttributeContext()).success();    
             }
         }
+
+        @Override
+        public void batchModifying() {
+            this.parentMap().executeBatchModifying(this.modification);
+        }
+
+        @Override
+        public void batchModified() {
+            this.parentMap().executeBatchModified(this.modification);
+        }
     }
     
     private static abstract class AbstractValuesHandlerImpl<K, V> implements BaseEntriesHandler<K, V> {
@@ -2032,6 +2532,8 @@ public abstract class AbstractMAMap<K, V>
         protected abstract void modifying(ValuesElementEvent<K, V> e);
         
         protected abstract void modified(ValuesElementEvent<K, V> e);
+        
+        protected abstract AbstractMAMap<K, V> parentMap();
 
         @Override
         public Object createRemovingArgument(K oldKey, V oldValue) {
@@ -2072,6 +2574,16 @@ public abstract class AbstractMAMap<K, V>
                 ((GlobalAttributeContext)this.modification.getAttributeContext()).success();    
             }
         }
+
+        @Override
+        public void batchModifying() {
+            this.parentMap().executeBatchModifying(this.modification);
+        }
+
+        @Override
+        public void batchModified() {
+            this.parentMap().executeBatchModified(this.modification);
+        }
     }
     
     private static <K, V> Entry<K, V> entry(final K key, final V value) {
@@ -2128,8 +2640,21 @@ public abstract class AbstractMAMap<K, V>
 
         private static final long serialVersionUID = -4121831778722720450L;
 
+        @Override
+        public boolean isModificationObservable() {
+            return AbstractMAMap.this.isModificationObservable();
+        }
+
+        @Override
+        public <R> R executeViaFrozenContext(Supplier<R> action) {
+            return AbstractMAMap.this.executeViaFrozenContext(action);
+        }
+
         @Override
         public BaseEntriesHandler<K, V> createSuspendingHandler(K key) {
+            if (!AbstractMAMap.this.isModificationObservable()) {
+                return null;
+            }
             return AbstractMAMap.this.new HandlerImpl4Map(
                     MapModifications.suspendViaFrozenContext(key)
             );
@@ -2137,6 +2662,9 @@ public abstract class AbstractMAMap<K, V>
 
         @Override
         public BaseEntriesHandler<K, V> createResumingHandler() {
+            if (!AbstractMAMap.this.isModificationObservable()) {
+                return null;
+            }
             return AbstractMAMap.this.new HandlerImpl4Map(
                     MapModifications.resumeViaFrozenContext()
             );
@@ -2144,6 +2672,9 @@ public abstract class AbstractMAMap<K, V>
 
         @Override
         public BaseEntriesHandler<K, V> createInversedSuspendingHandler(V value) {
+            if (!AbstractMAMap.this.isModificationObservable()) {
+                return null;
+            }
             return AbstractMAMap.this.new HandlerImpl4Map(
                     MapModifications.suspendViaInversedFrozenContext(value)
             );
@@ -2151,10 +2682,23 @@ public abstract class AbstractMAMap<K, V>
 
         @Override
         public BaseEntriesHandler<K, V> createInversedResumingHandler() {
+            if (!AbstractMAMap.this.isModificationObservable()) {
+                return null;
+            }
             return AbstractMAMap.this.new HandlerImpl4Map(
                     MapModifications.resumeViaInversedFrozenContext()
             );
         }
+
+        @Override
+        public BaseEntriesHandler<K, V> createEvictingHandler(K key, EvictionPolicy evictionPolicy) {
+            if (!AbstractMAMap.this.isModificationObservable()) {
+                return null;
+            }
+            return AbstractMAMap.this.new HandlerImpl4Map(
+                    MapModifications.evict(key, evictionPolicy)
+            );
+        }
         
     }
 }
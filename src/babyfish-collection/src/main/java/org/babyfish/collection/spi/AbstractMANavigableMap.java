@@ -134,6 +134,21 @@ implements MANavigableMap<K, V> {
         }
     }
 
+    @Override
+    public MAEntry<K, V> entryAt(int index) {
+        try {
+            return new EntryAtImpl<K, V>(this, index);
+        } catch (NoEntryException e) {
+            // The index has been validated by base entries
+            throw new AssertionError();
+        }
+    }
+
+    @Override
+    public int indexOf(K key) {
+        return ((NavigableBaseEntries<K, V>)this.baseEntries).indexOf(key);
+    }
+
     @Override
     public final MANavigableMapView<K, V> headMap(K toKey) {
         return this.headMap(toKey, false);
@@ -231,16 +246,18 @@ implements MANavigableMap<K, V> {
     public Entry<K, V> pollFirstEntry() {
         // The returned entry is dead, need not wrap it.
         return ((NavigableBaseEntries<K, V>)this.baseEntries).pollFirst(
-                this.new HandlerImpl4NavigableMap(
-                        NavigableMapModifications.<K, V>pollFirstEntry()));
+                this.isModificationObservable() ?
+                        this.new HandlerImpl4NavigableMap(NavigableMapModifications.<K, V>pollFirstEntry()) :
+                        null);
     }
 
     @Override
     public Entry<K, V> pollLastEntry() {
         // The returned entry is dead, need not wrap it.
         return ((NavigableBaseEntries<K, V>)this.baseEntries).pollFirst(
-                this.new HandlerImpl4NavigableMap(
-                        NavigableMapModifications.<K, V>pollLastEntry()));
+                this.isModificationObservable() ?
+                        this.new HandlerImpl4NavigableMap(NavigableMapModifications.<K, V>pollLastEntry()) :
+                        null);
     }
 
     @Override
@@ -260,6 +277,9 @@ implements MANavigableMap<K, V> {
         protected AbstractSubMapImpl(AbstractMANavigableMap<K, V> parentMap, NavigableBaseEntries<K, V> baseEntries) {
             super(baseEntries);
             this.parentMap = Arguments.mustNotBeNull("parentMap", parentMap);
+            this.modificationObservers = parentMap.modificationObservers.attach(
+                    ModificationHooks.isOverridden(this.getClass()), 
+                    parentMap::isModificationObservable);
         }
         
         @SuppressWarnings("unchecked")
@@ -270,6 +290,9 @@ implements MANavigableMap<K, V> {
         @Override
         protected void bubbleModifying(MapElementEvent<K, V> e) {
             AbstractMANavigableMap<K, V> parentMap = this.parentMap;
+            if (!parentMap.isModificationObservable()) {
+                return;
+            }
             MapElementEvent<K, V> bubbledEvent = new MapElementEvent<>(
                     parentMap, 
                     new Cause(e), 
@@ -282,7 +305,26 @@ implements MANavigableMap<K, V> {
         protected void bubbleModified(MapElementEvent<K, V> e) {
             AbstractMANavigableMap<K, V> parentMap = this.parentMap;
             MapElementEvent<K, V> bubbledEvent = e.getBubbledEvent(parentMap);
-            parentMap.executeModified(bubbledEvent);
+            if (bubbledEvent != null) {
+                parentMap.executeModified(bubbledEvent);
+            }
+        }
+        
+        @Override
+        protected void bubbleBatchModifying(org.babyfish.data.event.Modification modification) {
+            this.parentMap.executeBatchModifying(modification);
+        }
+        
+        @Override
+        protected void bubbleBatchModified(org.babyfish.data.event.Modification modification) {
+            this.parentMap.executeBatchModified(modification);
+        }
+        
+        @Override
+        protected boolean isModificationObservable() {
+            return 
+                    super.isModificationObservable() || 
+                    this.modificationObservers.isObserved();
         }
         
     }
@@ -379,12 +421,39 @@ implements MANavigableMap<K, V> {
         AbstractNavigableKeySetImpl(AbstractMANavigableMap<K, V> parentMap, NavigableBaseEntries<K, Object> navigableBaseEntries) {
             super(navigableBaseEntries);
             this.parentMap = Arguments.mustNotBeNull("parentMap", parentMap);
+            this.modificationObservers = parentMap.modificationObservers.attach(
+                    ModificationHooks.isOverridden(this.getClass()), 
+                    parentMap::isModificationObservable);
         }
         
         AbstractNavigableKeySetImpl(NavigableBaseEntries<K, Object> navigableBaseEntries) {
             super(navigableBaseEntries);
         }
         
+        @Override
+        protected boolean isModificationObservable() {
+            return 
+                    super.isModificationObservable() || 
+                    this.keySetElementListener != null || 
+                    (this.parentMap != null && this.modificationObservers.isObserved());
+        }
+        
+        @Override
+        protected void bubbleBatchModifying(org.babyfish.data.event.Modification modification) {
+            AbstractMANavigableMap<K, V> parentMap = this.parentMap;
+            if (parentMap != null) {
+                parentMap.executeBatchModifying(modification);
+            }
+        }
+        
+        @Override
+        protected void bubbleBatchModified(org.babyfish.data.event.Modification modification) {
+            AbstractMANavigableMap<K, V> parentMap = this.parentMap;
+            if (parentMap != null) {
+                parentMap.executeBatchModified(modification);
+            }
+        }
+        
         @SuppressWarnings("unchecked")
         protected final <T extends AbstractMANavigableMap<K, V>> T getParentMap() {
             AbstractMANavigableMap<K, V> parentMap = this.parentMap;
@@ -538,18 +607,22 @@ implements MANavigableMap<K, V> {
         @Override
         public void addKeySetElementListener(
                 KeySetElementListener<? super K, ? super V> listener) {
+            Object oldListener = this.keySetElementListener;
             this.keySetElementListener = KeySetElementListener.combine(
                         this.keySetElementListener, 
                         (KeySetElementListener<K, V>)listener);
+            this.modificationObservers.listenerChanged(oldListener, this.keySetElementListener);
         }
 
         @SuppressWarnings("unchecked")
         @Override
         public void removeKeySetElementListener(
                 KeySetElementListener<? super K, ? super V> listener) {
+            Object oldListener = this.keySetElementListener;
             this.keySetElementListener = KeySetElementListener.remove(
                         this.keySetElementListener, 
                         (KeySetElementListener<K, V>)listener);
+            this.modificationObservers.listenerChanged(oldListener, this.keySetElementListener);
         }
         
         @Override
@@ -618,6 +691,9 @@ implements MANavigableMap<K, V> {
                                 hasFrom, from, fromInclusive, 
                                 hasEnd, to, toInclusive));
                 this.parentSet = parentSet;
+                this.modificationObservers = parentSet.modificationObservers.attach(
+                        ModificationHooks.isOverridden(this.getClass()), 
+                        parentSet::isModificationObservable);
             }
             
             @SuppressWarnings("unchecked")
@@ -626,6 +702,9 @@ implements MANavigableMap<K, V> {
                     NavigableBaseEntries<K, ?> baseEntries) {
                 super((NavigableBaseEntries<K, Object>)baseEntries);
                 this.parentSet = parentSet;
+                this.modificationObservers = parentSet.modificationObservers.attach(
+                        ModificationHooks.isOverridden(this.getClass()), 
+                        parentSet::isModificationObservable);
             }
             
             @SuppressWarnings("unchecked")
@@ -636,6 +715,9 @@ implements MANavigableMap<K, V> {
             @Override
             protected void bubbleModifying(KeySetElementEvent<K, V> e) {
                 AbstractNavigableKeySetImpl<K, V> parentSet = this.parentSet;
+                if (!parentSet.isModificationObservable()) {
+                    return;
+                }
                 KeySetElementEvent<K, V> event = new KeySetElementEvent<>(
                         parentSet, 
                         new Cause(e), 
@@ -648,7 +730,26 @@ implements MANavigableMap<K, V> {
             protected void bubbleModified(KeySetElementEvent<K, V> e) {
                 AbstractNavigableKeySetImpl<K, V> parentSet = this.parentSet;
                 KeySetElementEvent<K, V> bubbleEvent = e.getBubbledEvent(parentSet);
-                parentSet.executeModified(bubbleEvent);
+                if (bubbleEvent != null) {
+                    parentSet.executeModified(bubbleEvent);
+                }
+            }
+            
+            @Override
+            protected void bubbleBatchModifying(org.babyfish.data.event.Modification modification) {
+                this.parentSet.executeBatchModifying(modification);
+            }
+            
+            @Override
+            protected void bubbleBatchModified(org.babyfish.data.event.Modification modification) {
+                this.parentSet.executeBatchModified(modification);
+            }
+            
+            @Override
+            protected boolean isModificationObservable() {
+                return 
+                        super.isModificationObservable() || 
+                        this.modificationObservers.isObserved();
             }
             
         }
@@ -750,6 +851,13 @@ implements MANavigableMap<K, V> {
                 super(parentSet, descending);
             }
             
+            @Override
+            protected boolean isModificationObservable() {
+                return 
+                        this.keySetElementListener != null || 
+                        super.isModificationObservable();
+            }
+            
             @SuppressWarnings("unchecked")
             @Deprecated
             @Override
@@ -886,18 +994,22 @@ implements MANavigableMap<K, V> {
             @Override
             public void addKeySetElementListener(
                     KeySetElementListener<? super K, ? super V> listener) {
+                Object oldListener = this.keySetElementListener;
                 this.keySetElementListener = KeySetElementListener.combine(
                             this.keySetElementListener, 
                             (KeySetElementListener<K, V>)listener);
+                this.modificationObservers.listenerChanged(oldListener, this.keySetElementListener);
             }
 
             @SuppressWarnings("unchecked")
             @Override
             public void removeKeySetElementListener(
                     KeySetElementListener<? super K, ? super V> listener) {
+                Object oldListener = this.keySetElementListener;
                 this.keySetElementListener = KeySetElementListener.remove(
                             this.keySetElementListener, 
                             (KeySetElementListener<K, V>)listener);
+                this.modificationObservers.listenerChanged(oldListener, this.keySetElementListener);
             }
             
         }
@@ -942,6 +1054,9 @@ implements MANavigableMap<K, V> {
         @Override
         protected void bubbleModifying(final KeySetElementEvent<K, V> e) {
             AbstractMANavigableMap<K, V> parentMap = this.getParentMap();
+            if (!parentMap.isModificationObservable()) {
+                return;
+            }
             MapElementEvent<K, V> bubbledEvent = new MapElementEvent<>(
                     parentMap, 
                     new Cause(e),
@@ -955,7 +1070,9 @@ implements MANavigableMap<K, V> {
         protected void bubbleModified(KeySetElementEvent<K, V> e) {
             AbstractMANavigableMap<K, V> parentMap = this.getParentMap();
             MapElementEvent<K, V> bubbledEvent = e.getBubbledEvent(parentMap);
-            parentMap.executeModified(bubbledEvent);
+            if (bubbledEvent != null) {
+                parentMap.executeModified(bubbledEvent);
+            }
         }
 
         @Override
@@ -978,6 +1095,9 @@ implements MANavigableMap<K, V> {
         @Override
         protected void bubbleModifying(final KeySetElementEvent<K, V> e) {
             AbstractMANavigableMap<K, V> parentMap = this.getParentMap();
+            if (!parentMap.isModificationObservable()) {
+                return;
+            }
             MapElementEvent<K, V> event = new MapElementEvent<>(
                     parentMap, 
                     new Cause(e),
@@ -991,7 +1111,9 @@ implements MANavigableMap<K, V> {
         protected void bubbleModified(KeySetElementEvent<K, V> e) {
             AbstractMANavigableMap<K, V> parentMap = this.getParentMap();
             MapElementEvent<K, V> bubbleEvent = e.getBubbledEvent(parentMap);
-            parentMap.executeModified(bubbleEvent);
+            if (bubbleEvent != null) {
+                parentMap.executeModified(bubbleEvent);
+            }
         }
 
         @Override
@@ -1091,6 +1213,22 @@ implements MANavigableMap<K, V> {
         
     }
     
+    protected static class EntryAtImpl<K, V> extends AbstractEntryImpl<K, V> {
+        
+        private NavigableMapViewInfos.EntryAt viewInfo;
+
+        protected EntryAtImpl(AbstractMANavigableMap<K, V> parentMap, int index) throws NoEntryException {
+            super(parentMap, ((NavigableBaseEntries<K, V>)parentMap.baseEntries).entryAt(index));
+            this.viewInfo = NavigableMapViewInfos.entryAt(index);
+        }
+        
+        @Override
+        public NavigableMapViewInfos.EntryAt viewInfo() {
+            return this.viewInfo;
+        }
+        
+    }
+    
     class HandlerImpl4NavigableMap implements BaseEntriesHandler<K, V> {
         
         private final MapModification<K, V> modification;
@@ -1180,6 +1318,16 @@ implements MANavigableMap<K, V> {
                 ((GlobalAttributeContext)this.modification.getAttributeContext()).success();    
             }
         }
+
+        @Override
+        public void batchModifying() {
+            AbstractMANavigableMap.this.executeBatchModifying(this.modification);
+        }
+
+        @Override
+        public void batchModified() {
+            AbstractMANavigableMap.this.executeBatchModified(this.modification);
+        }
     }
     
     @I18N
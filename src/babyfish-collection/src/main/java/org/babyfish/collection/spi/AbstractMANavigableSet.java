@@ -164,8 +164,9 @@ implements MANavigableSet<E> {
     public E pollFirst() {
         BaseEntry<E, Object> be = 
             ((NavigableBaseEntries<E, Object>)this.baseEntries).pollFirst(
-                    this.new HandlerImpl4Set(
-                            NavigableSetModifications.<E>pollFirst()));
+                    this.isModificationObservable() ?
+                            this.new HandlerImpl4Set(NavigableSetModifications.<E>pollFirst()) :
+                            null);
         return be == null ? null : be.getKey();
     }
 
@@ -173,8 +174,9 @@ implements MANavigableSet<E> {
     public E pollLast() {
         BaseEntry<E, Object> be = 
             ((NavigableBaseEntries<E, Object>)this.baseEntries).pollLast(
-                    this.new HandlerImpl4Set(
-                            NavigableSetModifications.<E>pollLast()));
+                    this.isModificationObservable() ?
+                            this.new HandlerImpl4Set(NavigableSetModifications.<E>pollLast()) :
+                            null);
         return be == null ? null : be.getKey();
     }
 
@@ -192,11 +194,17 @@ implements MANavigableSet<E> {
                 NavigableBaseEntries<E, Object> baseEntries) {
             super(baseEntries);
             this.parentSet = parentSet;
+            this.modificationObservers = parentSet.modificationObservers.attach(
+                    ModificationHooks.isOverridden(this.getClass()), 
+                    parentSet::isModificationObservable);
         }
         
         @Override
         protected void bubbleModifying(ElementEvent<E> e) {
             AbstractMANavigableSet<E> parentSet = this.parentSet;
+            if (!parentSet.isModificationObservable()) {
+                return;
+            }
             ElementEvent<E> bubbledEvent = new ElementEvent<>(
                     parentSet, 
                     new Cause(e), 
@@ -208,7 +216,26 @@ implements MANavigableSet<E> {
         protected void bubbleModified(ElementEvent<E> e) {
             AbstractMANavigableSet<E> parentSet = this.parentSet;
             ElementEvent<E> bubbledEvent = e.getBubbledEvent(parentSet);
-            parentSet.executeModified(bubbledEvent);
+            if (bubbledEvent != null) {
+                parentSet.executeModified(bubbledEvent);
+            }
+        }
+        
+        @Override
+        protected void bubbleBatchModifying(org.babyfish.data.event.Modification modification) {
+            this.parentSet.executeBatchModifying(modification);
+        }
+        
+        @Override
+        protected void bubbleBatchModified(org.babyfish.data.event.Modification modification) {
+            this.parentSet.executeBatchModified(modification);
+        }
+        
+        @Override
+        protected boolean isModificationObservable() {
+            return 
+                    super.isModificationObservable() || 
+                    this.modificationObservers.isObserved();
         }
     }
     
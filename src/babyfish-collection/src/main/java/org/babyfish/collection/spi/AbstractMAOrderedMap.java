@@ -146,7 +146,9 @@ implements MAOrderedMap<K, V> {
         BaseEntry<K, V> be=
                 ((OrderedBaseEntries<K, V>)this.baseEntries).access(
                         key,
-                        this.new HandlerImpl4OrderedMap(OrderedMapModifications.<K, V>access(key)));
+                        this.isModificationObservable() ?
+                                this.new HandlerImpl4OrderedMap(OrderedMapModifications.<K, V>access(key)) :
+                                null);
         if (be != null) {
             return be.getValue();
         }
@@ -157,14 +159,18 @@ implements MAOrderedMap<K, V> {
     public Entry<K, V> pollFirstEntry() {
         // The returned entry is dead, need not wrap it.
         return ((OrderedBaseEntries<K, V>)this.baseEntries).pollFirst(
-                this.new HandlerImpl4OrderedMap(OrderedMapModifications.<K, V>pollFirstEntry()));
+                this.isModificationObservable() ?
+                        this.new HandlerImpl4OrderedMap(OrderedMapModifications.<K, V>pollFirstEntry()) :
+                        null);
     }
 
     @Override
     public Entry<K, V> pollLastEntry() {
         // The returned entry is dead, need not wrap it.
         return ((OrderedBaseEntries<K, V>)this.baseEntries).pollLast(
-                this.new HandlerImpl4OrderedMap(OrderedMapModifications.<K, V>pollLastEntry()));
+                this.isModificationObservable() ?
+                        this.new HandlerImpl4OrderedMap(OrderedMapModifications.<K, V>pollLastEntry()) :
+                        null);
     }
 
     @Override
@@ -183,6 +189,9 @@ implements MAOrderedMap<K, V> {
                     ((OrderedBaseEntries<K, V>)Arguments.mustNotBeNull("parentMap", parentMap).baseEntries)
                     .descendingEntries());
             this.parentMap = parentMap;
+            this.modificationObservers = parentMap.modificationObservers.attach(
+                    ModificationHooks.isOverridden(this.getClass()), 
+                    parentMap::isModificationObservable);
         }
         
         @Override
@@ -193,6 +202,9 @@ implements MAOrderedMap<K, V> {
         @Override
         protected void bubbleModifying(MapElementEvent<K, V> e) {
             AbstractMAOrderedMap<K, V> parentMap = this.parentMap;
+            if (!parentMap.isModificationObservable()) {
+                return;
+            }
             MapElementEvent<K, V> bubbledEvent = new MapElementEvent<>(
                     parentMap, 
                     new Cause(e), 
@@ -205,7 +217,26 @@ implements MAOrderedMap<K, V> {
         protected void bubbleModified(MapElementEvent<K, V> e) {
             AbstractMAOrderedMap<K, V> parentMap = this.parentMap;
             MapElementEvent<K, V> bubbledEvent = e.getBubbledEvent(parentMap);
-            parentMap.executeModified(bubbledEvent);
+            if (bubbledEvent != null) {
+                parentMap.executeModified(bubbledEvent);
+            }
+        }
+        
+        @Override
+        protected void bubbleBatchModifying(org.babyfish.data.event.Modification modification) {
+            this.parentMap.executeBatchModifying(modification);
+        }
+        
+        @Override
+        protected void bubbleBatchModified(org.babyfish.data.event.Modification modification) {
+            this.parentMap.executeBatchModified(modification);
+        }
+        
+        @Override
+        protected boolean isModificationObservable() {
+            return 
+                    super.isModificationObservable() || 
+                    this.modificationObservers.isObserved();
         }
     }
     
@@ -222,12 +253,39 @@ implements MAOrderedMap<K, V> {
                 OrderedBaseEntries<K, Object> orderedBaseEntries) {
             super(orderedBaseEntries);
             this.parentMap = parentMap;
+            this.modificationObservers = parentMap.modificationObservers.attach(
+                    ModificationHooks.isOverridden(this.getClass()), 
+                    parentMap::isModificationObservable);
         }
         
         AbstractOrderedKeySetImpl(OrderedBaseEntries<K, Object> orderedBaseEntries) {
             super(orderedBaseEntries);
         }
         
+        @Override
+        protected boolean isModificationObservable() {
+            return 
+                    super.isModificationObservable() || 
+                    this.keySetElementListener != null || 
+                    (this.parentMap != null && this.modificationObservers.isObserved());
+        }
+        
+        @Override
+        protected void bubbleBatchModifying(org.babyfish.data.event.Modification modification) {
+            AbstractMAOrderedMap<K, V> parentMap = this.parentMap;
+            if (parentMap != null) {
+                parentMap.executeBatchModifying(modification);
+            }
+        }
+        
+        @Override
+        protected void bubbleBatchModified(org.babyfish.data.event.Modification modification) {
+            AbstractMAOrderedMap<K, V> parentMap = this.parentMap;
+            if (parentMap != null) {
+                parentMap.executeBatchModified(modification);
+            }
+        }
+        
         @SuppressWarnings("unchecked")
         protected final <T extends AbstractMAOrderedMap<K, V>> T getParentMap() {
             return (T)this.parentMap;
@@ -237,18 +295,22 @@ implements MAOrderedMap<K, V> {
         @Override
         public void addKeySetElementListener(
                 KeySetElementListener<? super K, ? super V> listener) {
+            Object oldListener = this.keySetElementListener;
             this.keySetElementListener = KeySetElementListener.combine(
                         this.keySetElementListener, 
                         (KeySetElementListener<K, V>)listener);
+            this.modificationObservers.listenerChanged(oldListener, this.keySetElementListener);
         }
 
         @SuppressWarnings("unchecked")
         @Override
         public void removeKeySetElementListener(
                 KeySetElementListener<? super K, ? super V> listener) {
+            Object oldListener = this.keySetElementListener;
             this.keySetElementListener = KeySetElementListener.remove(
                         this.keySetElementListener, 
                         (KeySetElementListener<K, V>)listener);
+            this.modificationObservers.listenerChanged(oldListener, this.keySetElementListener);
         }
 
         @Deprecated
@@ -413,6 +475,9 @@ implements MAOrderedMap<K, V> {
             protected DescendingSetImpl(AbstractOrderedKeySetImpl<K, V> parentSet) {
                 super(((OrderedBaseEntries<K, Object>)parentSet.baseEntries).descendingEntries());
                 this.parentSet = parentSet;
+                this.modificationObservers = parentSet.modificationObservers.attach(
+                        ModificationHooks.isOverridden(this.getClass()), 
+                        parentSet::isModificationObservable);
             }
             
             @SuppressWarnings("unchecked")
@@ -423,6 +488,9 @@ implements MAOrderedMap<K, V> {
             @Override
             protected void bubbleModifying(final KeySetElementEvent<K, V> e) {
                 AbstractOrderedKeySetImpl<K, V> parentSet = this.parentSet;
+                if (!parentSet.isModificationObservable()) {
+                    return;
+                }
                 KeySetElementEvent<K, V> event = new KeySetElementEvent<>(
                         parentSet, 
                         new Cause(e), 
@@ -435,7 +503,26 @@ implements MAOrderedMap<K, V> {
             protected void bubbleModified(KeySetElementEvent<K, V> e) {
                 AbstractOrderedKeySetImpl<K, V> parentSet = this.parentSet;
                 KeySetElementEvent<K, V> bubbleEvent = e.getBubbledEvent(parentSet);
-                parentSet.executeModified(bubbleEvent);
+                if (bubbleEvent != null) {
+                    parentSet.executeModified(bubbleEvent);
+                }
+            }
+            
+            @Override
+            protected void bubbleBatchModifying(org.babyfish.data.event.Modification modification) {
+                this.parentSet.executeBatchModifying(modification);
+            }
+            
+            @Override
+            protected void bubbleBatchModified(org.babyfish.data.event.Modification modification) {
+                this.parentSet.executeBatchModified(modification);
+            }
+            
+            @Override
+            protected boolean isModificationObservable() {
+                return 
+                        super.isModificationObservable() || 
+                        this.modificationObservers.isObserved();
             }
 
             @Override
@@ -456,6 +543,13 @@ implements MAOrderedMap<K, V> {
                 super(parentSet, descending);
             }
             
+            @Override
+            protected boolean isModificationObservable() {
+                return 
+                        this.keySetElementListener != null || 
+                        super.isModificationObservable();
+            }
+            
             @SuppressWarnings("unchecked")
             @Deprecated
             @Override
@@ -592,18 +686,22 @@ implements MAOrderedMap<K, V> {
             @Override
             public void addKeySetElementListener(
                     KeySetElementListener<? super K, ? super V> listener) {
+                Object oldListener = this.keySetElementListener;
                 this.keySetElementListener = KeySetElementListener.combine(
                             this.keySetElementListener, 
                             (KeySetElementListener<K, V>)listener);
+                this.modificationObservers.listenerChanged(oldListener, this.keySetElementListener);
             }
 
             @SuppressWarnings("unchecked")
             @Override
             public void removeKeySetElementListener(
                     KeySetElementListener<? super K, ? super V> listener) {
+                Object oldListener = this.keySetElementListener;
                 this.keySetElementListener = KeySetElementListener.remove(
                             this.keySetElementListener, 
                             (KeySetElementListener<K, V>)listener);
+                this.modificationObservers.listenerChanged(oldListener, this.keySetElementListener);
             }
             
         }
@@ -647,6 +745,9 @@ implements MAOrderedMap<K, V> {
         @Override
         protected void bubbleModifying(final KeySetElementEvent<K, V> e) {
             AbstractMAOrderedMap<K, V> parentMap = this.getParentMap();
+            if (!parentMap.isModificationObservable()) {
+                return;
+            }
             MapElementEvent<K, V> bubbledEvent = new MapElementEvent<>(
                     parentMap, 
                     new Cause(e),
@@ -660,7 +761,9 @@ implements MAOrderedMap<K, V> {
         protected void bubbleModified(KeySetElementEvent<K, V> e) {
             AbstractMAOrderedMap<K, V> parentMap = this.getParentMap();
             MapElementEvent<K, V> bubbledEvent = e.getBubbledEvent(parentMap);
-            parentMap.executeModified(bubbledEvent);
+            if (bubbledEvent != null) {
+                parentMap.executeModified(bubbledEvent);
+            }
         }
 
         @Override
@@ -683,6 +786,9 @@ implements MAOrderedMap<K, V> {
         @Override
         protected void bubbleModifying(final KeySetElementEvent<K, V> e) {
             AbstractMAOrderedMap<K, V> parentMap = this.getParentMap();
+            if (!parentMap.isModificationObservable()) {
+                return;
+            }
             MapElementEvent<K, V> event = new MapElementEvent<>(
                     parentMap, 
                     new Cause(e),
@@ -696,7 +802,9 @@ implements MAOrderedMap<K, V> {
         protected void bubbleModified(KeySetElementEvent<K, V> e) {
             AbstractMAOrderedMap<K, V> parentMap = this.getParentMap();
             MapElementEvent<K, V> bubbleEvent = e.getBubbledEvent(parentMap);
-            parentMap.executeModified(bubbleEvent);
+            if (bubbleEvent != null) {
+                parentMap.executeModified(bubbleEvent);
+            }
         }
 
         @Override
@@ -799,6 +907,16 @@ implements MAOrderedMap<K, V> {
                 ((GlobalAttributeContext)this.modification.getAttributeContext()).success();    
             }
         }
+
+        @Override
+        public void batchModifying() {
+            AbstractMAOrderedMap.this.executeBatchModifying(this.modification);
+        }
+
+        @Override
+        public void batchModified() {
+            AbstractMAOrderedMap.this.executeBatchModified(this.modification);
+        }
     }
     
     protected static class FirstEntryImpl<K, V> extends AbstractEntryImpl<K, V> {
@@ -99,7 +99,9 @@ implements MAOrderedSet<E> {
     public E pollFirst() {
         BaseEntry<E, Object> be = 
             ((OrderedBaseEntries<E, Object>)this.baseEntries).pollFirst(
-                    this.new HandlerImpl4Set(OrderedSetModifications.<E>pollFirst()));
+                    this.isModificationObservable() ?
+                            this.new HandlerImpl4Set(OrderedSetModifications.<E>pollFirst()) :
+                            null);
         return be == null ? null : be.getKey();
     }
     
@@ -107,7 +109,9 @@ implements MAOrderedSet<E> {
     public E pollLast() {
         BaseEntry<E, Object> be = 
             ((OrderedBaseEntries<E, Object>)this.baseEntries).pollLast(
-                    this.new HandlerImpl4Set(OrderedSetModifications.<E>pollLast()));
+                    this.isModificationObservable() ?
+                            this.new HandlerImpl4Set(OrderedSetModifications.<E>pollLast()) :
+                            null);
         return be == null ? null : be.getKey();
     }
 
@@ -124,11 +128,17 @@ implements MAOrderedSet<E> {
                     )
                     .descendingEntries());
             this.parentSet = parentSet;
+            this.modificationObservers = parentSet.modificationObservers.attach(
+                    ModificationHooks.isOverridden(this.getClass()), 
+                    parentSet::isModificationObservable);
         }
         
         @Override
         protected void bubbleModifying(ElementEvent<E> e) {
             AbstractMAOrderedSet<E> parentSet = this.parentSet;
+            if (!parentSet.isModificationObservable()) {
+                return;
+            }
             ElementEvent<E> bubbledEvent = new ElementEvent<>(
                     parentSet, 
                     new Cause(e), 
@@ -140,7 +150,26 @@ implements MAOrderedSet<E> {
         protected void bubbleModified(ElementEvent<E> e) {
             AbstractMAOrderedSet<E> parentSet = this.parentSet;
             ElementEvent<E> bubbledEvent = e.getBubbledEvent(parentSet);
-            parentSet.executeModified(bubbledEvent);
+            if (bubbledEvent != null) {
+                parentSet.executeModified(bubbledEvent);
+            }
+        }
+        
+        @Override
+        protected void bubbleBatchModifying(org.babyfish.data.event.Modification modification) {
+            this.parentSet.executeBatchModifying(modification);
+        }
+        
+        @Override
+        protected void bubbleBatchModified(org.babyfish.data.event.Modification modification) {
+            this.parentSet.executeBatchModified(modification);
+        }
+        
+        @Override
+        protected boolean isModificationObservable() {
+            return 
+                    super.isModificationObservable() || 
+                    this.modificationObservers.isObserved();
         }
         
         @Override
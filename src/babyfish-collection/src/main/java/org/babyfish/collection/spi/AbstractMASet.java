@@ -17,11 +17,16 @@
  */
 package org.babyfish.collection.spi;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 
 import org.babyfish.collection.MASet;
 import org.babyfish.collection.ReplacementRule;
 import org.babyfish.collection.UnifiedComparator;
+import org.babyfish.collection.event.ElementBatchEvent;
+import org.babyfish.collection.event.ElementBatchListener;
+import org.babyfish.collection.event.ElementBatchModificationAware;
 import org.babyfish.collection.event.ElementEvent;
 import org.babyfish.collection.event.ElementEvent.Modification;
 import org.babyfish.collection.event.ElementListener;
@@ -40,6 +45,7 @@ import org.babyfish.data.ModificationException;
 import org.babyfish.data.View;
 import org.babyfish.data.event.AttributeScope;
 import org.babyfish.data.event.Cause;
+import org.babyfish.data.event.EventAttributeContext;
 import org.babyfish.data.event.spi.GlobalAttributeContext;
 import org.babyfish.data.event.spi.InAllChainAttributeContext;
 import org.babyfish.lang.Arguments;
@@ -49,15 +55,40 @@ import org.babyfish.lang.Arguments;
  */
 public abstract class AbstractMASet<E> 
 extends AbstractXSet<E> 
-implements MASet<E> {
+implements MASet<E>, ElementBatchModificationAware<E> {
     
     private static final EventCreator<?> EVENT_CREATOR_4_SET =
             new EventCreatorImpl4Set<>();
     
     private static final Object AK_ELEMENT_LISTENER = new Object();
     
+    private static final Object AK_ELEMENT_BATCH_LISTENER = new Object();
+    
     protected transient ElementListener<E> elementListener;
     
+    protected transient ElementBatchListener<E> elementBatchListener;
+    
+    private transient ListenerDispatcher<ElementListener<E>> elementListenerDispatcher;
+    
+    private final transient boolean modificationHooksOverridden = 
+            ModificationHooks.isOverridden(this.getClass());
+    
+    transient ModificationObservers modificationObservers = 
+            new ModificationObservers(this::isModificationObservable);
+    
+    private final transient boolean batchHooksOverridden = 
+            ModificationHooks.isBatchOverridden(this.getClass());
+    
+    private final transient boolean elementHooksOverridden = 
+            ModificationHooks.isElementOverridden(this.getClass());
+    
+    /*
+     * The key of the pending events of this set in the global attribute context 
+     * of the modification, it cannot be this set because the hashCode() and equals() 
+     * of the set depend on its elements.
+     */
+    private final transient Object batchAttributeKey = new Object();
+    
     protected AbstractMASet(BaseEntries<E, Object> baseEntries) {
         super(baseEntries);
         if (!(this instanceof View)) {
@@ -91,6 +122,20 @@ implements MASet<E> {
     }
 
     protected void executeModifying(ElementEvent<E> e) {
+        if (this.elementBatchListener != null || this.batchHooksOverridden) {
+            EventAttributeContext globalAttributeContext = 
+                    e.getAttributeContext(AttributeScope.GLOBAL);
+            List<ElementEvent<E>> batchEvents = 
+                    globalAttributeContext.getAttribute(this.batchAttributeKey);
+            if (batchEvents == null) {
+                batchEvents = new ArrayList<>();
+                globalAttributeContext.addAttribute(this.batchAttributeKey, batchEvents);
+            }
+            batchEvents.add(e);
+            if (this.isOnlyBatchObservable()) {
+                return;
+            }
+        }
         Throwable finalThrowable = null;
         try {
             this.onModifying(e);    
@@ -117,6 +162,9 @@ implements MASet<E> {
     }
 
     protected void executeModified(ElementEvent<E> e) {
+        if ((this.elementBatchListener != null || this.batchHooksOverridden) && this.isOnlyBatchObservable()) {
+            return;
+        }
         Throwable finalThrowable = null;
         try {
             this.bubbleModified(e);     
@@ -151,27 +199,35 @@ implements MASet<E> {
     }
 
     protected void raiseModifying(ElementEvent<E> e) throws Throwable {
-        ElementListener<E> elementListener = this.elementListener;
+        ListenerDispatcher<ElementListener<E>> elementListener = 
+                this.elementListenerDispatcher();
         if (elementListener != null) {
             e
             .getAttributeContext(AttributeScope.LOCAL)
             .addAttribute(AK_ELEMENT_LISTENER, elementListener);
-            elementListener.modifying(e);
+            elementListener.dispatchModifying(e, ElementListener::modifying);
         }
     }
     
     @SuppressWarnings("unchecked")
     protected void raiseModified(ElementEvent<E> e) throws Throwable {
-        ElementListener<E> elementListener = 
-            (ElementListener<E>)
+        ListenerDispatcher<ElementListener<E>> elementListener = 
+            (ListenerDispatcher<ElementListener<E>>)
             e
             .getAttributeContext(AttributeScope.LOCAL)
             .removeAttribute(AK_ELEMENT_LISTENER);
         if (elementListener != null) {
-            elementListener.modified(e);
+            elementListener.dispatchModified(e, ElementListener::modified);
         }
     }
     
+    private ListenerDispatcher<ElementListener<E>> elementListenerDispatcher() {
+        ListenerDispatcher<ElementListener<E>> dispatcher = 
+                ListenerDispatcher.of(this.elementListener, this.elementListenerDispatcher);
+        this.elementListenerDispatcher = dispatcher;
+        return dispatcher;
+    }
+    
     protected void bubbleModifying(ElementEvent<E> e) {
         
     }
@@ -180,6 +236,149 @@ implements MASet<E> {
         
     }
     
+    /**
+     * Invoked once by each modification after all the elements of it are passed to 
+     * {@link #executeModifying(ElementEvent)}, raises one {@link ElementBatchEvent} 
+     * that contains all of them if this set has batch listeners and then bubbles 
+     * the batch to the parent object.
+     */
+    protected void executeBatchModifying(org.babyfish.data.event.Modification modification) {
+        EventAttributeContext globalAttributeContext = modification.getAttributeContext();
+        List<ElementEvent<E>> batchEvents = 
+                globalAttributeContext.getAttribute(this.batchAttributeKey);
+        if (batchEvents == null) {
+            this.bubbleBatchModifying(modification);
+            return;
+        }
+        ElementBatchEvent<E> e = new ElementBatchEvent<>(this, modification, batchEvents);
+        globalAttributeContext.setAttribute(this.batchAttributeKey, e);
+        Throwable finalThrowable = null;
+        try {
+            this.onBatchModifying(e);
+        } catch (Throwable ex) {
+            finalThrowable = ex;
+        }
+        try {
+            this.raiseBatchModifying(e);
+        } catch (Throwable ex) {
+            if (finalThrowable == null) {
+                finalThrowable = ex;
+            }
+        }
+        try {
+            this.bubbleBatchModifying(modification);
+        } catch (Throwable ex) {
+            if (finalThrowable == null) {
+                finalThrowable = ex;
+            }
+        }
+        if (finalThrowable != null) {
+            throw new ModificationException(false, e, finalThrowable);
+        }
+    }
+    
+    protected void executeBatchModified(org.babyfish.data.event.Modification modification) {
+        Object attribute = modification.getAttributeContext().removeAttribute(this.batchAttributeKey);
+        if (!(attribute instanceof ElementBatchEvent<?>)) {
+            this.bubbleBatchModified(modification);
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        ElementBatchEvent<E> e = (ElementBatchEvent<E>)attribute;
+        Throwable finalThrowable = null;
+        try {
+            this.bubbleBatchModified(modification);
+        } catch (Throwable ex) {
+            finalThrowable = ex;
+        }
+        try {
+            this.raiseBatchModified(e);
+        } catch (Throwable ex) {
+            if (finalThrowable == null) {
+                finalThrowable = ex;
+            }
+        }
+        try {
+            this.onBatchModified(e);
+        } catch (Throwable ex) {
+            if (finalThrowable == null) {
+                finalThrowable = ex;
+            }
+        }
+        if (finalThrowable != null) {
+            throw new ModificationException(true, e, finalThrowable);
+        }
+    }
+    
+    protected void onBatchModifying(ElementBatchEvent<E> e) throws Throwable {
+        
+    }
+    
+    protected void onBatchModified(ElementBatchEvent<E> e) throws Throwable {
+        
+    }
+    
+    protected void raiseBatchModifying(ElementBatchEvent<E> e) throws Throwable {
+        ElementBatchListener<E> elementBatchListener = this.elementBatchListener;
+        if (elementBatchListener != null) {
+            e
+            .getAttributeContext(AttributeScope.LOCAL)
+            .addAttribute(AK_ELEMENT_BATCH_LISTENER, elementBatchListener);
+            elementBatchListener.modifying(e);
+        }
+    }
+    
+    @SuppressWarnings("unchecked")
+    protected void raiseBatchModified(ElementBatchEvent<E> e) throws Throwable {
+        ElementBatchListener<E> elementBatchListener = 
+            (ElementBatchListener<E>)
+            e
+            .getAttributeContext(AttributeScope.LOCAL)
+            .removeAttribute(AK_ELEMENT_BATCH_LISTENER);
+        if (elementBatchListener != null) {
+            elementBatchListener.modified(e);
+        }
+    }
+    
+    protected void bubbleBatchModifying(org.babyfish.data.event.Modification modification) {
+        
+    }
+    
+    protected void bubbleBatchModified(org.babyfish.data.event.Modification modification) {
+        
+    }
+    
+    /*
+     * When only the batch event is observed, the element events are collected 
+     * for it but are neither handled nor raised. The views never skip them 
+     * because they bubble them to their parent objects.
+     */
+    private boolean isOnlyBatchObservable() {
+        return 
+                this.elementListener == null && 
+                !this.elementHooksOverridden && 
+                !(this instanceof View);
+    }
+    
+    /**
+     * Returns whether the modification events of this set can be observed
+     * by anything: the listeners of this set, the overridden event handling methods
+     * of the derived class or the parent object that the events are bubbled to.
+     * 
+     * <p>
+     * If it returns false, the modifications of this set are executed 
+     * without creating any event, like the X collection framework.
+     * The views that bubble their events must override this method
+     * to consider their parent objects.
+     * </p>
+     */
+    protected boolean isModificationObservable() {
+        return 
+                this.elementListener != null || 
+                this.elementBatchListener != null || 
+                this.modificationHooksOverridden;
+    }
+    
     @SuppressWarnings("unchecked")
     protected final EventCreator<E> eventCreator() {
         return this instanceof KeySetElementModificationAware<?, ?> ?
@@ -190,17 +389,41 @@ implements MASet<E> {
     @SuppressWarnings("unchecked")
     @Override
     public void addElementListener(ElementListener<? super E> listener) {
+        Object oldListener = this.elementListener;
         this.elementListener = ElementListener.combine(
                     this.elementListener, 
                     (ElementListener<E>)listener);
+        this.modificationObservers.listenerChanged(oldListener, this.elementListener);
     }
 
     @SuppressWarnings("unchecked")
     @Override
     public void removeElementListener(ElementListener<? super E> listener) {
+        Object oldListener = this.elementListener;
         this.elementListener = ElementListener.remove(
                     this.elementListener, 
                     (ElementListener<E>)listener);
+        this.modificationObservers.listenerChanged(oldListener, this.elementListener);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public void addElementBatchListener(ElementBatchListener<? super E> listener) {
+        Object oldListener = this.elementBatchListener;
+        this.elementBatchListener = ElementBatchListener.combine(
+                    this.elementBatchListener, 
+                    (ElementBatchListener<E>)listener);
+        this.modificationObservers.listenerChanged(oldListener, this.elementBatchListener);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public void removeElementBatchListener(ElementBatchListener<? super E> listener) {
+        Object oldListener = this.elementBatchListener;
+        this.elementBatchListener = ElementBatchListener.remove(
+                    this.elementBatchListener, 
+                    (ElementBatchListener<E>)listener);
+        this.modificationObservers.listenerChanged(oldListener, this.elementBatchListener);
     }
     
     @Override
@@ -208,41 +431,53 @@ implements MASet<E> {
         return null == this.baseEntries.put(
                 e, 
                 BaseEntries.PRESENT, 
-                this.new HandlerImpl4Set(CollectionModifications.add(e)));
+                this.isModificationObservable() ?
+                        this.new HandlerImpl4Set(CollectionModifications.add(e)) :
+                        null);
     }
     
     @Override
     public boolean addAll(Collection<? extends E> c) {
         return this.baseEntries.addAll(
                 c,
-                this.new HandlerImpl4Set(CollectionModifications.addAll(c)));
+                this.isModificationObservable() ?
+                        this.new HandlerImpl4Set(CollectionModifications.addAll(c)) :
+                        null);
     }
 
     @Override
     public void clear() {
         this.baseEntries.clear(
-                this.new HandlerImpl4Set(CollectionModifications.<E>clear()));
+                this.isModificationObservable() ?
+                        this.new HandlerImpl4Set(CollectionModifications.<E>clear()) :
+                        null);
     }
 
     @Override
     public boolean remove(Object o) {
         return null != this.baseEntries.removeByKey(
                 o, 
-                this.new HandlerImpl4Set(CollectionModifications.<E>remove(o)));
+                this.isModificationObservable() ?
+                        this.new HandlerImpl4Set(CollectionModifications.<E>remove(o)) :
+                        null);
     }
 
     @Override
     public boolean removeAll(Collection<?> c) {
         return this.baseEntries.removeAllByKeyCollection(
                 c, 
-                this.new HandlerImpl4Set(CollectionModifications.<E>removeAll(c)));
+                this.isModificationObservable() ?
+                        this.new HandlerImpl4Set(CollectionModifications.<E>removeAll(c)) :
+                        null);
     }
     
     @Override
     public boolean retainAll(Collection<?> c) {
         return this.baseEntries.retainAllByKeyCollection(
                 c, 
-                this.new HandlerImpl4Set(CollectionModifications.<E>retainAll(c)));
+                this.isModificationObservable() ?
+                        this.new HandlerImpl4Set(CollectionModifications.<E>retainAll(c)) :
+                        null);
     }
     
     @Override
@@ -267,8 +502,16 @@ implements MASet<E> {
         
         private transient ElementListener<E> elementListener;
         
+        private final transient boolean modificationHooksOverridden = 
+                ModificationHooks.isOverridden(this.getClass());
+        
+        final transient ModificationObservers modificationObservers;
+        
         protected AbstractIteratorImpl(AbstractMASet<E> parentSet, boolean descending) {
             this.parentSet = parentSet;
+            this.modificationObservers = parentSet.modificationObservers.attach(
+                    this.modificationHooksOverridden, 
+                    parentSet::isModificationObservable);
             BaseEntries<E, Object> baseEntries = parentSet.baseEntries;
             if (descending) {
                 if (!(baseEntries instanceof DescendingBaseEntries<?, ?>)) {
@@ -293,17 +536,21 @@ implements MASet<E> {
         @SuppressWarnings("unchecked")
         @Override
         public void addElementListener(ElementListener<? super E> listener) {
+            Object oldListener = this.elementListener;
             this.elementListener = ElementListener.combine(
                         this.elementListener, 
                         (ElementListener<E>)listener);
+            this.modificationObservers.listenerChanged(oldListener, this.elementListener);
         }
 
         @SuppressWarnings("unchecked")
         @Override
         public void removeElementListener(ElementListener<? super E> listener) {
+            Object oldListener = this.elementListener;
             this.elementListener = ElementListener.remove(
                         this.elementListener, 
                         (ElementListener<E>)listener);
+            this.modificationObservers.listenerChanged(oldListener, this.elementListener);
         }
 
         protected void executeModifying(ElementEvent<E> e) {
@@ -390,6 +637,9 @@ implements MASet<E> {
         
         protected void bubbleModifying(ElementEvent<E> e) {
             AbstractMASet<E> parentSet = this.parentSet;
+            if (!parentSet.isModificationObservable()) {
+                return;
+            }
             ElementEvent<E> bubbledEvent = 
                 parentSet.eventCreator().createBubbleEvent(parentSet, e);
             parentSet.executeModifying(bubbledEvent);
@@ -398,7 +648,16 @@ implements MASet<E> {
         protected void bubbleModified(ElementEvent<E> e) {
             AbstractMASet<E> parentSet = this.parentSet;
             ElementEvent<E> bubbleEvent = e.getBubbledEvent(parentSet);
-            parentSet.executeModified(bubbleEvent);
+            if (bubbleEvent != null) {
+                parentSet.executeModified(bubbleEvent);
+            }
+        }
+        
+        protected boolean isModificationObservable() {
+            return 
+                    this.elementListener != null || 
+                    this.modificationHooksOverridden ||
+                    this.modificationObservers.isObserved();
         }
 
         @Override
@@ -413,7 +672,10 @@ implements MASet<E> {
 
         @Override
         public void remove() {
-            this.beIterator.remove(this.new HandlerImpl4Iterator());
+            this.beIterator.remove(
+                    this.isModificationObservable() ? 
+                            this.new HandlerImpl4Iterator() : 
+                            null);
         }
 
         @Override
@@ -469,6 +731,16 @@ implements MASet<E> {
                     ((GlobalAttributeContext)this.modification.getAttributeContext()).success();    
                 }
             }
+
+            @Override
+            public void batchModifying() {
+                AbstractIteratorImpl.this.parentSet.executeBatchModifying(this.modification);
+            }
+
+            @Override
+            public void batchModified() {
+                AbstractIteratorImpl.this.parentSet.executeBatchModified(this.modification);
+            }
         }
         
     }
@@ -596,6 +868,16 @@ implements MASet<E> {
                 ((GlobalAttributeContext)this.modification.getAttributeContext()).success();    
             }
         }
+
+        @Override
+        public void batchModifying() {
+            AbstractMASet.this.executeBatchModifying(this.modification);
+        }
+
+        @Override
+        public void batchModified() {
+            AbstractMASet.this.executeBatchModified(this.modification);
+        }
     }
     
     private static class EventCreatorImpl4Set<E> implements EventCreator<E> {
@@ -647,8 +929,16 @@ implements MASet<E> {
 
         private static final long serialVersionUID = -1808843657376861934L;
 
+        @Override
+        public boolean isModificationObservable() {
+            return AbstractMASet.this.isModificationObservable();
+        }
+
         @Override
         public BaseEntriesHandler<E, Object> createSuspendingHandler(E key) {
+            if (!AbstractMASet.this.isModificationObservable()) {
+                return null;
+            }
             return AbstractMASet.this.new HandlerImpl4Set(
                     SetModifications.suspendViaFrozenContext(key)
             );
@@ -656,6 +946,9 @@ implements MASet<E> {
 
         @Override
         public BaseEntriesHandler<E, Object> createResumingHandler() {
+            if (!AbstractMASet.this.isModificationObservable()) {
+                return null;
+            }
             return AbstractMASet.this.new HandlerImpl4Set(
                     SetModifications.resumeViaFrozenContext()
             );
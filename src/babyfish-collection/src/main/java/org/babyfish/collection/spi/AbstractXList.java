@@ -22,6 +22,8 @@ import java.io.Serializable;
 import java.util.Collection;
 import java.util.ConcurrentModificationException;
 import java.util.NavigableSet;
+import java.util.Spliterator;
+import java.util.function.Consumer;
 
 import org.babyfish.collection.BidiType;
 import org.babyfish.collection.UnifiedComparator;
@@ -367,6 +369,16 @@ public abstract class AbstractXList<E> extends StatefulObject implements XList<E
         return null;
     }
     
+    @Override
+    public void forEach(Consumer<? super E> action) {
+        this.baseElements.forEach(this.headHide(), this.tailHide(), action);
+    }
+    
+    @Override
+    public Spliterator<E> spliterator() {
+        return this.baseElements.spliterator(this.headHide(), this.tailHide());
+    }
+
     @Override
     public Object[] toArray() {
         return BasicAlgorithms.collectionToArray(this);
@@ -611,6 +623,18 @@ public abstract class AbstractXList<E> extends StatefulObject implements XList<E
             return super.subList(fromIndex, toIndex);
         }
 
+        @Override
+        public void forEach(Consumer<? super E> action) {
+            this.checkConcurrentModification();
+            super.forEach(action);
+        }
+
+        @Override
+        public Spliterator<E> spliterator() {
+            this.checkConcurrentModification();
+            return super.spliterator();
+        }
+
         private void checkConcurrentModification() {
             if (this.expectedModCount != this.baseElements.modCount()) {
                 throw new ConcurrentModificationException(viewBecameInvalid(this.getClass()));
@@ -20,9 +20,16 @@ package org.babyfish.collection.spi;
 import java.io.IOException;
 import java.io.Serializable;
 import java.util.Collection;
+import java.util.ConcurrentModificationException;
 import java.util.Map;
+import java.util.Spliterator;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 import org.babyfish.collection.BidiType;
+import org.babyfish.collection.OrderAdjustMode;
 import org.babyfish.collection.ReplacementRule;
 import org.babyfish.collection.UnifiedComparator;
 import org.babyfish.collection.XMap;
@@ -32,6 +39,8 @@ import org.babyfish.collection.spi.base.BaseEntry;
 import org.babyfish.collection.spi.base.BaseEntryIterator;
 import org.babyfish.collection.spi.base.BasicAlgorithms;
 import org.babyfish.collection.spi.base.NoEntryException;
+import org.babyfish.collection.spi.base.OptimisticReadableBaseEntries;
+import org.babyfish.collection.spi.base.OrderedBaseEntries;
 import org.babyfish.collection.spi.base.TransientValueEntries;
 import org.babyfish.collection.viewinfo.CollectionViewInfos;
 import org.babyfish.collection.viewinfo.MapViewInfos;
@@ -217,6 +226,52 @@ public abstract class AbstractXMap<K, V> extends StatefulObject implements XMap<
         BaseEntry<K, V> be = this.baseEntries.getBaseEntry(key);
         return be == null ? null : be.getValue();
     }
+    
+    /**
+     * Returns whether {@link #getOptimistically(Object)} and 
+     * {@link #containsKeyOptimistically(Object)} are supported, 
+     * they are used by {@link org.babyfish.collection.OptimisticReadWriteLock}.
+     */
+    public final boolean isOptimisticReadSupported() {
+        return this.baseEntries instanceof OptimisticReadableBaseEntries<?, ?>;
+    }
+    
+    /**
+     * Gets the value without any lock, the result is meaningless if this map 
+     * is modified by another thread during this method, so the caller must 
+     * validate it by {@link java.util.concurrent.locks.StampedLock#validate(long)}.
+     * If the validation fails, the caller falls back to the read lock, that lock
+     * is not reentrant so the caller must not hold the write lock of the same
+     * {@link java.util.concurrent.locks.StampedLock}.
+     * 
+     * @exception UnsupportedOperationException {@link #isOptimisticReadSupported()} is false
+     */
+    public final V getOptimistically(Object key) {
+        BaseEntry<K, V> be = this.optimisticReadableBaseEntries().getBaseEntryOptimistically(key);
+        return be == null ? null : be.getValue();
+    }
+    
+    /**
+     * Checks the key without any lock, the result is meaningless if this map 
+     * is modified by another thread during this method, so the caller must 
+     * validate it by {@link java.util.concurrent.locks.StampedLock#validate(long)}.
+     * If the validation fails, the caller falls back to the read lock, that lock
+     * is not reentrant so the caller must not hold the write lock of the same
+     * {@link java.util.concurrent.locks.StampedLock}.
+     * 
+     * @exception UnsupportedOperationException {@link #isOptimisticReadSupported()} is false
+     */
+    public final boolean containsKeyOptimistically(Object key) {
+        return this.optimisticReadableBaseEntries().getBaseEntryOptimistically(key) != null;
+    }
+    
+    private OptimisticReadableBaseEntries<K, V> optimisticReadableBaseEntries() {
+        BaseEntries<K, V> baseEntries = this.baseEntries;
+        if (!(baseEntries instanceof OptimisticReadableBaseEntries<?, ?>)) {
+            throw new UnsupportedOperationException();
+        }
+        return (OptimisticReadableBaseEntries<K, V>)baseEntries;
+    }
 
     @Override
     public V put(K key, V value) {
@@ -239,6 +294,66 @@ public abstract class AbstractXMap<K, V> extends StatefulObject implements XMap<
         return be != null ? be.getValue() : null;
     }
     
+    @Override
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        Arguments.mustNotBeNull("action", action);
+        this.baseEntries.forEach(be -> action.accept(be.getKey(), be.getValue()));
+    }
+    
+    /*
+     * Each value is replaced by the virtual method put so that the derived classes
+     * can handle it(for example, raise the modification events).
+     * The replaced entry may be moved by the ordered base entries 
+     * without changing the modCount, so the entries must be copied before the
+     * replacement in that case.
+     */
+    @SuppressWarnings("unchecked")
+    @Override
+    public void replaceAll(BiFunction<? super K, ? super V, ? extends V> function) {
+        Arguments.mustNotBeNull("function", function);
+        BaseEntries<K, V> baseEntries = this.baseEntries;
+        int expectedModCount = baseEntries.modCount();
+        if (baseEntries instanceof OrderedBaseEntries<?, ?> && 
+                ((OrderedBaseEntries<K, V>)baseEntries).replaceMode() != OrderAdjustMode.NONE) {
+            Object[] arr = new Object[baseEntries.size()];
+            int[] index = new int[1];
+            baseEntries.forEach(be -> arr[index[0]++] = be);
+            for (Object o : arr) {
+                BaseEntry<K, V> be = (BaseEntry<K, V>)o;
+                K key = be.getKey();
+                this.put(key, function.apply(key, be.getValue()));
+                if (expectedModCount != baseEntries.modCount()) {
+                    throw new ConcurrentModificationException(CommonMessages.mapModifiedByFunction());
+                }
+            }
+        } else {
+            baseEntries.forEach(be -> {
+                K key = be.getKey();
+                this.put(key, function.apply(key, be.getValue()));
+                if (expectedModCount != baseEntries.modCount()) {
+                    throw new ConcurrentModificationException(CommonMessages.mapModifiedByFunction());
+                }
+            });
+        }
+    }
+    
+    @Override
+    public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+        Arguments.mustNotBeNull("mappingFunction", mappingFunction);
+        V value = this.get(key);
+        if (value == null) {
+            int expectedModCount = this.baseEntries.modCount();
+            value = mappingFunction.apply(key);
+            if (expectedModCount != this.baseEntries.modCount()) {
+                throw new ConcurrentModificationException(CommonMessages.mapModifiedByFunction());
+            }
+            if (value != null) {
+                this.put(key, value);
+            }
+        }
+        return value;
+    }
+    
     @Override
     public int hashCode() {
         return BasicAlgorithms.mapHashCode(this);
@@ -667,6 +782,20 @@ public abstract class AbstractXMap<K, V> extends StatefulObject implements XMap<
             return this.parentMap.baseEntries.retainAllByValueCollection(c, null);
         }
         
+        @Override
+        public void forEach(Consumer<? super V> action) {
+            Arguments.mustNotBeNull("action", action);
+            this.parentMap.baseEntries.forEach(be -> action.accept(be.getValue()));
+        }
+        
+        @Override
+        public Spliterator<V> spliterator() {
+            return new MappedSpliterator<>(
+                    this.parentMap.baseEntries.spliterator(), 
+                    BaseEntry::getValue, 
+                    ~Spliterator.DISTINCT);
+        }
+        
         @Override
         public XIterator<V> iterator() {
             final BaseEntryIterator<K, V> beIterator = 
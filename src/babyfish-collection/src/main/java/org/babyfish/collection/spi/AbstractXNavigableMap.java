@@ -170,6 +170,21 @@ public class AbstractXNavigableMap<K, V> extends AbstractXMap<K, V> implements X
         }
     }
 
+    @Override
+    public XEntry<K, V> entryAt(int index) {
+        try {
+            return new EntryAtImpl<K, V>(this, index);
+        } catch (NoEntryException ex) {
+            // The index has been validated by base entries
+            throw new AssertionError();
+        }
+    }
+
+    @Override
+    public int indexOf(K key) {
+        return this.<NavigableBaseEntries<K, V>>getBaseEntries().indexOf(key);
+    }
+
     @Override
     public K firstKey() {
         BaseEntry<K, V> be = this.<NavigableBaseEntries<K, V>>getBaseEntries().first();
@@ -547,4 +562,20 @@ public class AbstractXNavigableMap<K, V> extends AbstractXMap<K, V> implements X
             return this.viewInfo;
         }
     }
+    
+    protected static class EntryAtImpl<K, V> extends AbstractEntryImpl<K, V> {
+
+        private NavigableMapViewInfos.EntryAt viewInfo;
+        
+        public EntryAtImpl(AbstractXNavigableMap<K, V> parentMap, int index)
+                throws NoEntryException {
+            super(((NavigableBaseEntries<K, V>)parentMap.baseEntries).entryAt(index));
+            this.viewInfo = NavigableMapViewInfos.entryAt(index);
+        }
+
+        @Override
+        public NavigableMapViewInfos.EntryAt viewInfo() {
+            return this.viewInfo;
+        }
+    }
 }
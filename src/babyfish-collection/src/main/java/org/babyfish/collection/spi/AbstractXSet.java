@@ -20,6 +20,8 @@ package org.babyfish.collection.spi;
 import java.io.IOException;
 import java.io.Serializable;
 import java.util.Collection;
+import java.util.Spliterator;
+import java.util.function.Consumer;
 
 import org.babyfish.collection.ReplacementRule;
 import org.babyfish.collection.UnifiedComparator;
@@ -27,6 +29,7 @@ import org.babyfish.collection.XMap;
 import org.babyfish.collection.XMap.XKeySetView;
 import org.babyfish.collection.XSet;
 import org.babyfish.collection.spi.base.BaseEntries;
+import org.babyfish.collection.spi.base.BaseEntry;
 import org.babyfish.collection.spi.base.BaseEntryIterator;
 import org.babyfish.collection.spi.base.BasicAlgorithms;
 import org.babyfish.collection.spi.base.TransientValueEntries;
@@ -217,6 +220,17 @@ public abstract class AbstractXSet<E> extends StatefulObject implements XSet<E>
             }
         };
     }
+    
+    @Override
+    public void forEach(Consumer<? super E> action) {
+        Arguments.mustNotBeNull("action", action);
+        this.baseEntries.forEach(be -> action.accept(be.getKey()));
+    }
+    
+    @Override
+    public Spliterator<E> spliterator() {
+        return new MappedSpliterator<>(this.baseEntries.spliterator(), BaseEntry::getKey, ~0);
+    }
 
     @Override
     public Object[] toArray() {
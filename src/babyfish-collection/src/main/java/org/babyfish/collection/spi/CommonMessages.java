@@ -38,4 +38,7 @@ class CommonMessages {
     @I18N
     public static native String illegalDescendingOnNonDescendingSet(
             Class<DescendingBaseEntries> descendingBaseEntriesType);
+    
+    @I18N
+    public static native String mapModifiedByFunction();
 }
@@ -0,0 +1,345 @@
+/*
+ * BabyFish, Object Model Framework for Java and JPA.
+ * https://github.com/babyfish-ct/babyfish
+ *
+ * Copyright (c) 2008-2016, Tao Chen
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * Please visit "http://opensource.org/licenses/LGPL-3.0" to know more.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ */
+package org.babyfish.collection.spi;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+import org.babyfish.collection.event.ModificationTypeFilter;
+import org.babyfish.data.event.ModificationEvent;
+import org.babyfish.data.event.ModificationType;
+import org.babyfish.lang.internal.AbstractCombinedDelegate;
+
+/**
+ * The immutable listener list of the MA collections, it is the faster alternative
+ * of the combined delegate of the listener interfaces such as 
+ * {@link org.babyfish.collection.event.ElementListener} and
+ * {@link org.babyfish.collection.event.MapElementListener}.
+ * 
+ * <p>
+ * The listener arrays are computed for each phase (modifying and modified)
+ * and each {@link ModificationType} when the listener is added or removed,
+ * so the dispatching never visits the listener that does not override 
+ * the method of that phase or the listener that is not interested in that
+ * modification type (see {@link ModificationTypeFilter}). The dispatching 
+ * of one or two listeners is unrolled.
+ * </p>
+ * 
+ * <p>
+ * Like the combined delegate, all the listeners are notified even if some of 
+ * them throw exceptions, and the first exception is thrown finally.
+ * </p>
+ * 
+ * @author Tao Chen
+ */
+public final class ListenerDispatcher<L> {
+    
+    private static final int MODIFYING_OVERRIDDEN = 1;
+    
+    private static final int MODIFIED_OVERRIDDEN = 2;
+    
+    private static final int TYPE_COUNT = ModificationType.values().length;
+    
+    private static final Object[] EMPTY_LISTENERS = new Object[0];
+    
+    private static final String BUILT_IN_EVENT_PACKAGE = "org.babyfish.collection.event";
+    
+    private static final ClassValue<Integer> CACHE =
+            new ClassValue<Integer>() {
+                @Override
+                protected Integer computeValue(Class<?> type) {
+                    return overriddenFlags0(type);
+                }
+            };
+    
+    private final Object source;
+    
+    private final Object[] listeners;
+    
+    private final Object[][] modifyingListeners;
+    
+    private final Object[][] modifiedListeners;
+    
+    private ListenerDispatcher(Object source, Object[] listeners) {
+        Object[][] modifyingListeners = new Object[TYPE_COUNT][];
+        Object[][] modifiedListeners = new Object[TYPE_COUNT][];
+        int[] flags = new int[listeners.length];
+        ModificationType[] acceptedTypes = new ModificationType[listeners.length];
+        for (int i = listeners.length - 1; i >= 0; i--) {
+            Object listener = listeners[i];
+            flags[i] = overriddenFlags(listener.getClass());
+            if (listener instanceof ModificationTypeFilter) {
+                acceptedTypes[i] = ((ModificationTypeFilter)listener).getAcceptedModificationType();
+            }
+        }
+        for (ModificationType modificationType : ModificationType.values()) {
+            int ordinal = modificationType.ordinal();
+            modifyingListeners[ordinal] = 
+                    select(listeners, flags, acceptedTypes, MODIFYING_OVERRIDDEN, modificationType);
+            modifiedListeners[ordinal] = 
+                    select(listeners, flags, acceptedTypes, MODIFIED_OVERRIDDEN, modificationType);
+        }
+        this.source = source;
+        this.listeners = listeners;
+        this.modifyingListeners = modifyingListeners;
+        this.modifiedListeners = modifiedListeners;
+    }
+    
+    /**
+     * Returns the dispatcher of a listener field, the field is the single listener 
+     * or the combined delegate that is maintained by the "combine" and "remove" 
+     * methods of the listener interface.
+     * 
+     * <p>
+     * The dispatcher is rebuilt only when the field is changed, no matter whether
+     * it is changed by the "add...Listener"/"remove...Listener" methods or assigned
+     * directly by the derived class.
+     * </p>
+     * 
+     * @param listener The current value of the listener field
+     * @param cachedDispatcher The dispatcher returned by the previous invocation, or null
+     * @return The dispatcher of the listener, or null if the listener is null
+     */
+    public static <L> ListenerDispatcher<L> of(L listener, ListenerDispatcher<L> cachedDispatcher) {
+        if (listener == null) {
+            return null;
+        }
+        if (cachedDispatcher != null && cachedDispatcher.source == listener) {
+            return cachedDispatcher;
+        }
+        return new ListenerDispatcher<>(listener, flat(listener));
+    }
+    
+    public static <L> ListenerDispatcher<L> combine(ListenerDispatcher<L> dispatcher, L listener) {
+        if (listener == null) {
+            return dispatcher;
+        }
+        Object[] addedListeners = flat(listener);
+        Object[] oldListeners = dispatcher != null ? dispatcher.listeners : EMPTY_LISTENERS;
+        Object[] listeners = new Object[oldListeners.length + addedListeners.length];
+        System.arraycopy(oldListeners, 0, listeners, 0, oldListeners.length);
+        System.arraycopy(addedListeners, 0, listeners, oldListeners.length, addedListeners.length);
+        return new ListenerDispatcher<>(null, listeners);
+    }
+    
+    public static <L> ListenerDispatcher<L> remove(ListenerDispatcher<L> dispatcher, L listener) {
+        if (dispatcher == null) {
+            return null;
+        }
+        if (listener == null) {
+            return dispatcher;
+        }
+        Object[] listeners = dispatcher.listeners;
+        int count = listeners.length;
+        boolean changed = false;
+        for (Object removedListener : flat(listener)) {
+            for (int i = 0; i < count; i++) {
+                if (listeners[i].equals(removedListener)) {
+                    if (!changed) {
+                        listeners = listeners.clone();
+                        changed = true;
+                    }
+                    System.arraycopy(listeners, i + 1, listeners, i, --count - i);
+                    listeners[count] = null;
+                    break;
+                }
+            }
+        }
+        if (!changed) {
+            return dispatcher;
+        }
+        if (count == 0) {
+            return null;
+        }
+        Object[] arr = new Object[count];
+        System.arraycopy(listeners, 0, arr, 0, count);
+        return new ListenerDispatcher<>(null, arr);
+    }
+    
+    /**
+     * Notifies the listeners that override the modifying method
+     * and are interested in the modification type of the event.
+     * 
+     * @param e The event
+     * @param invoker The method reference of the modifying method of the listener,
+     * for example: {@code MapElementListener::modifying}
+     */
+    public <E extends ModificationEvent> void dispatchModifying(
+            E e, Invoker<? super L, ? super E> invoker) throws Throwable {
+        dispatch(this.modifyingListeners[e.getModificationType().ordinal()], e, invoker);
+    }
+    
+    /**
+     * Notifies the listeners that override the modified method
+     * and are interested in the modification type of the event.
+     * 
+     * @param e The event
+     * @param invoker The method reference of the modified method of the listener,
+     * for example: {@code MapElementListener::modified}
+     */
+    public <E extends ModificationEvent> void dispatchModified(
+            E e, Invoker<? super L, ? super E> invoker) throws Throwable {
+        dispatch(this.modifiedListeners[e.getModificationType().ordinal()], e, invoker);
+    }
+    
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        builder.append(this.getClass().getName()).append(" { ");
+        Object[] arr = this.listeners;
+        for (int i = 0; i < arr.length; i++) {
+            if (i != 0) {
+                builder.append(", ");
+            }
+            builder.append(arr[i]);
+        }
+        builder.append(" }");
+        return builder.toString();
+    }
+    
+    @SuppressWarnings("unchecked")
+    private static <L, E> void dispatch(
+            Object[] listeners, E e, Invoker<L, E> invoker) throws Throwable {
+        switch (listeners.length) {
+        case 0:
+            return;
+        case 1:
+            invoker.invoke((L)listeners[0], e);
+            return;
+        case 2:
+            Throwable finalThrowable = null;
+            try {
+                invoker.invoke((L)listeners[0], e);
+            } catch (Throwable ex) {
+                finalThrowable = ex;
+            }
+            try {
+                invoker.invoke((L)listeners[1], e);
+            } catch (Throwable ex) {
+                if (finalThrowable == null) {
+                    finalThrowable = ex;
+                }
+            }
+            if (finalThrowable != null) {
+                throw finalThrowable;
+            }
+            return;
+        default:
+            dispatchAll(listeners, e, invoker);
+        }
+    }
+    
+    @SuppressWarnings("unchecked")
+    private static <L, E> void dispatchAll(
+            Object[] listeners, E e, Invoker<L, E> invoker) throws Throwable {
+        Throwable finalThrowable = null;
+        for (Object listener : listeners) {
+            try {
+                invoker.invoke((L)listener, e);
+            } catch (Throwable ex) {
+                if (finalThrowable == null) {
+                    finalThrowable = ex;
+                }
+            }
+        }
+        if (finalThrowable != null) {
+            throw finalThrowable;
+        }
+    }
+    
+    private static Object[] select(
+            Object[] listeners, 
+            int[] flags, 
+            ModificationType[] acceptedTypes, 
+            int flag, 
+            ModificationType modificationType) {
+        int count = 0;
+        for (int i = listeners.length - 1; i >= 0; i--) {
+            if (accepts(flags[i], acceptedTypes[i], flag, modificationType)) {
+                count++;
+            }
+        }
+        if (count == 0) {
+            return EMPTY_LISTENERS;
+        }
+        Object[] arr = new Object[count];
+        int index = 0;
+        for (int i = 0; i < listeners.length; i++) {
+            if (accepts(flags[i], acceptedTypes[i], flag, modificationType)) {
+                arr[index++] = listeners[i];
+            }
+        }
+        return arr;
+    }
+    
+    private static boolean accepts(
+            int flags, 
+            ModificationType acceptedType, 
+            int flag, 
+            ModificationType modificationType) {
+        return 
+                (flags & flag) != 0 && 
+                (acceptedType == null || acceptedType == modificationType);
+    }
+    
+    private static Object[] flat(Object listener) {
+        if (listener instanceof AbstractCombinedDelegate) {
+            return ((AbstractCombinedDelegate)listener).getCombinedDelegates();
+        }
+        return new Object[] { listener };
+    }
+    
+    private static int overriddenFlags(Class<?> clazz) {
+        return CACHE.get(clazz);
+    }
+    
+    /*
+     * The modifying and modified methods of the listener interfaces are
+     * default methods that do nothing, so the listener that does not 
+     * override them can be ignored.
+     */
+    private static int overriddenFlags0(Class<?> clazz) {
+        int flags = 0;
+        for (Method method : clazz.getMethods()) {
+            if (Modifier.isStatic(method.getModifiers()) || 
+                    method.getParameterCount() != 1 ||
+                    isBuiltIn(method.getDeclaringClass())) {
+                continue;
+            }
+            if (method.getName().equals("modifying")) {
+                flags |= MODIFYING_OVERRIDDEN;
+            } else if (method.getName().equals("modified")) {
+                flags |= MODIFIED_OVERRIDDEN;
+            }
+        }
+        return flags;
+    }
+    
+    private static boolean isBuiltIn(Class<?> clazz) {
+        return 
+                clazz.isInterface() && 
+                clazz.getName().startsWith(BUILT_IN_EVENT_PACKAGE) &&
+                clazz.getName().lastIndexOf('.') == BUILT_IN_EVENT_PACKAGE.length();
+    }
+    
+    @FunctionalInterface
+    public interface Invoker<L, E> {
+        
+        void invoke(L listener, E e) throws Throwable;
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * BabyFish, Object Model Framework for Java and JPA.
+ * https://github.com/babyfish-ct/babyfish
+ *
+ * Copyright (c) 2008-2016, Tao Chen
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * Please visit "http://opensource.org/licenses/LGPL-3.0" to know more.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ */
+package org.babyfish.collection.spi;
+
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * The spliterator of the views which maps the base entries to keys, values or entries.
+ *
+ * @author Tao Chen
+ */
+final class MappedSpliterator<T, R> implements Spliterator<R> {
+    
+    private final Spliterator<T> base;
+    
+    private final Function<? super T, ? extends R> mapper;
+    
+    private final int characteristicsMask;
+    
+    MappedSpliterator(
+            Spliterator<T> base, 
+            Function<? super T, ? extends R> mapper, 
+            int characteristicsMask) {
+        this.base = base;
+        this.mapper = mapper;
+        this.characteristicsMask = characteristicsMask;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super R> action) {
+        Function<? super T, ? extends R> mapper = this.mapper;
+        return this.base.tryAdvance(t -> action.accept(mapper.apply(t)));
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super R> action) {
+        Function<? super T, ? extends R> mapper = this.mapper;
+        this.base.forEachRemaining(t -> action.accept(mapper.apply(t)));
+    }
+
+    @Override
+    public Spliterator<R> trySplit() {
+        Spliterator<T> split = this.base.trySplit();
+        if (split == null) {
+            return null;
+        }
+        return new MappedSpliterator<>(split, this.mapper, this.characteristicsMask);
+    }
+
+    @Override
+    public long estimateSize() {
+        return this.base.estimateSize();
+    }
+
+    @Override
+    public int characteristics() {
+        return this.base.characteristics() & this.characteristicsMask;
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * BabyFish, Object Model Framework for Java and JPA.
+ * https://github.com/babyfish-ct/babyfish
+ *
+ * Copyright (c) 2008-2016, Tao Chen
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * Please visit "http://opensource.org/licenses/LGPL-3.0" to know more.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ */
+package org.babyfish.collection.spi;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+/**
+ * Detects whether a class of the MA collection framework is derived by the
+ * customer to override the event handling methods such as "onModifying", 
+ * "onModified", "raiseModifying", "raiseModified", "executeModifying", 
+ * "executeModified", "bubbleModifying" and "bubbleModified", or their batch
+ * versions such as "onBatchModifying" and "onBatchModified".
+ * 
+ * <p>
+ * The classes of the packages "org.babyfish.collection" and 
+ * "org.babyfish.collection.spi" are ignored because they override those methods
+ * only to raise the events to their own listeners or to bubble the events
+ * to their parent objects, that is already considered by the method 
+ * "isModificationObservable()" of themselves.
+ * </p>
+ * 
+ * @author Tao Chen
+ */
+final class ModificationHooks {
+    
+    private static final int HOOK_OVERRIDDEN = 1;
+    
+    private static final int BATCH_HOOK_OVERRIDDEN = 2;
+    
+    private static final int ELEMENT_HOOK_OVERRIDDEN = 4;
+    
+    private static final ClassValue<Integer> CACHE = new ClassValue<Integer>() {
+        @Override
+        protected Integer computeValue(Class<?> type) {
+            return overriddenFlags0(type);
+        }
+    };
+    
+    private static final String BUILT_IN_PACKAGE = "org.babyfish.collection";
+    
+    private static final String BUILT_IN_SPI_PACKAGE = "org.babyfish.collection.spi";
+
+    private ModificationHooks() {
+        throw new UnsupportedOperationException();
+    }
+    
+    static boolean isOverridden(Class<?> clazz) {
+        return (overriddenFlags(clazz) & HOOK_OVERRIDDEN) != 0;
+    }
+    
+    /**
+     * Returns whether the class overrides the batch event handling methods, 
+     * the batch events are created only when this method returns true
+     * or there are batch listeners.
+     */
+    static boolean isBatchOverridden(Class<?> clazz) {
+        return (overriddenFlags(clazz) & BATCH_HOOK_OVERRIDDEN) != 0;
+    }
+    
+    /**
+     * Returns whether the class overrides the event handling methods 
+     * of the elements, not only the batch versions.
+     */
+    static boolean isElementOverridden(Class<?> clazz) {
+        return (overriddenFlags(clazz) & ELEMENT_HOOK_OVERRIDDEN) != 0;
+    }
+    
+    private static int overriddenFlags(Class<?> clazz) {
+        return CACHE.get(clazz);
+    }
+    
+    private static int overriddenFlags0(Class<?> clazz) {
+        int flags = 0;
+        for (Class<?> c = clazz; c != null && !isBuiltIn(c); c = c.getSuperclass()) {
+            for (Method method : c.getDeclaredMethods()) {
+                if (!Modifier.isStatic(method.getModifiers())) {
+                    if (isHookName(method.getName())) {
+                        flags |= HOOK_OVERRIDDEN | ELEMENT_HOOK_OVERRIDDEN;
+                    } else if (isBatchHookName(method.getName())) {
+                        flags |= HOOK_OVERRIDDEN | BATCH_HOOK_OVERRIDDEN;
+                    }
+                }
+            }
+        }
+        return flags;
+    }
+    
+    private static boolean isBuiltIn(Class<?> clazz) {
+        String className = clazz.getName();
+        int lastDotIndex = className.lastIndexOf('.');
+        if (lastDotIndex == -1) {
+            return false;
+        }
+        String packageName = className.substring(0, lastDotIndex);
+        return 
+                packageName.equals(BUILT_IN_PACKAGE) || 
+                packageName.equals(BUILT_IN_SPI_PACKAGE);
+    }
+    
+    private static boolean isHookName(String methodName) {
+        switch (methodName) {
+        case "onModifying":
+        case "onModified":
+        case "raiseModifying":
+        case "raiseModified":
+        case "executeModifying":
+        case "executeModified":
+        case "bubbleModifying":
+        case "bubbleModified":
+            return true;
+        default:
+            return false;
+        }
+    }
+    
+    private static boolean isBatchHookName(String methodName) {
+        switch (methodName) {
+        case "onBatchModifying":
+        case "onBatchModified":
+        case "raiseBatchModifying":
+        case "raiseBatchModified":
+        case "executeBatchModifying":
+        case "executeBatchModified":
+        case "bubbleBatchModifying":
+        case "bubbleBatchModified":
+            return true;
+        default:
+            return false;
+        }
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * BabyFish, Object Model Framework for Java and JPA.
+ * https://github.com/babyfish-ct/babyfish
+ *
+ * Copyright (c) 2008-2016, Tao Chen
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * Please visit "http://opensource.org/licenses/LGPL-3.0" to know more.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ */
+package org.babyfish.collection.spi;
+
+import java.util.function.BooleanSupplier;
+
+/**
+ * Decides whether the modification events of a view of an MA collection 
+ * can be observed by its parents without walking the parent chain for each 
+ * modification.
+ * 
+ * <p>
+ * The events of a view are bubbled to its parent, so they can be observed 
+ * if the view itself, any of its parents or the root collection is observed.
+ * The root collection creates the first instance, each view creates its own
+ * instance by {@link #attach(boolean, BooleanSupplier)} of its parent, all of 
+ * them share the same counter and version:
+ * <ul>
+ *      <li>The counter is the number of the listener fields of the views that 
+ *      are not null, plus the number of the attached views whose classes override
+ *      the event handling methods. It is updated incrementally by 
+ *      {@link #listenerChanged(Object, Object)} and {@link #attach(boolean, BooleanSupplier)}.</li>
+ *      <li>The version is changed when a listener field of any view changes 
+ *      between null and non-null, each view caches the observability of its parent
+ *      for one version.</li>
+ * </ul>
+ * The root collection is always asked directly, that is one field access for 
+ * a root collection that is not derived by the customer, so listeners added to 
+ * the root collection need not to change the version.
+ * </p>
+ * 
+ * <p>
+ * When no view is observed, {@link #isObserved()} only asks the root collection. 
+ * Otherwise, the parent chain is walked once after each change of the version. 
+ * A derived view class that assigns its protected listener fields directly must 
+ * invoke {@link #listenerChanged(Object, Object)} too, otherwise the views created 
+ * from it may keep a stale result.
+ * </p>
+ * 
+ * @author Tao Chen
+ */
+final class ModificationObservers {
+    
+    private final Family family;
+    
+    private final BooleanSupplier parentObservable;
+    
+    private int version;
+    
+    private boolean parentObserved;
+    
+    ModificationObservers(BooleanSupplier rootObservable) {
+        this.family = new Family(rootObservable);
+        this.parentObservable = null;
+    }
+    
+    private ModificationObservers(Family family, BooleanSupplier parentObservable) {
+        this.family = family;
+        this.parentObservable = parentObservable;
+        this.version = family.version - 1;
+    }
+    
+    /**
+     * Invoked by the constructor of a view to create its own instance.
+     * 
+     * @param modificationHooksOverridden Whether the class of the view overrides
+     * the event handling methods.
+     * @param parentObservable The "isModificationObservable()" of the parent of the view.
+     * @return The instance of the view.
+     */
+    ModificationObservers attach(
+            boolean modificationHooksOverridden, 
+            BooleanSupplier parentObservable) {
+        if (modificationHooksOverridden) {
+            /*
+             * Views are never detached explicitly, so a view with overridden 
+             * event handling methods keeps the views of the same root on the slow path,
+             * the result is still exact. The version need not be changed because the 
+             * new view does not have any child views yet.
+             */
+            this.family.observerCount++;
+        }
+        return new ModificationObservers(this.family, parentObservable);
+    }
+    
+    /**
+     * Invoked after a listener field of the root or a view is changed 
+     * by its "add...Listener" or "remove...Listener" method.
+     */
+    void listenerChanged(Object oldListener, Object newListener) {
+        if (this.parentObservable == null || (oldListener == null) == (newListener == null)) {
+            return;
+        }
+        Family family = this.family;
+        if (oldListener == null) {
+            family.observerCount++;
+        } else {
+            family.observerCount--;
+        }
+        family.version++;
+    }
+    
+    /**
+     * Returns whether the events bubbled from a view to its parent can be observed 
+     * by the listeners or the overridden event handling methods of the parent, 
+     * the grandparents or the root collection. 
+     * It must not be invoked by the root collection.
+     */
+    boolean isObserved() {
+        Family family = this.family;
+        if (family.rootObservable.getAsBoolean()) {
+            return true;
+        }
+        if (family.observerCount == 0) {
+            return false;
+        }
+        int version = family.version;
+        if (this.version != version) {
+            this.parentObserved = this.parentObservable.getAsBoolean();
+            this.version = version;
+        }
+        return this.parentObserved;
+    }
+    
+    private static final class Family {
+        
+        final BooleanSupplier rootObservable;
+        
+        int observerCount;
+        
+        int version;
+        
+        Family(BooleanSupplier rootObservable) {
+            this.rootObservable = rootObservable;
+        }
+    }
+}
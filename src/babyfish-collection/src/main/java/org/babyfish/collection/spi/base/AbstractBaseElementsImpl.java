@@ -29,6 +29,9 @@ import java.util.NavigableSet;
 import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
 
 import org.babyfish.collection.BidiType;
 import org.babyfish.collection.EqualityComparator;
@@ -57,6 +60,8 @@ public abstract class AbstractBaseElementsImpl<E> implements BaseElements<E>, Se
     
     private static final Object INVERSED_HANDLER_ARGUMENT = new Object();
     
+    private static final Object HASH_INDEX_HANDLER_ARGUMENT = new Object();
+    
     private static final byte ATTACH_PROCESSOR_NEW = 0;
     
     private static final byte ATTACH_PROCESSOR_INITIALIZED = 1;
@@ -91,6 +96,16 @@ public abstract class AbstractBaseElementsImpl<E> implements BaseElements<E>, Se
     
     private transient int inversedSuspendingIndex = -1;
     
+    private boolean hashIndexed;
+    
+    /*
+     * Maps the element to its occurrence count, so that the lookups
+     * for the elements which are not contained need not to scan.
+     * It is never created for the bidi elements because the 
+     * inversedEntries has the same ability.
+     */
+    private transient BaseEntries<E, HashIndexCount> hashIndex;
+    
     protected AbstractBaseElementsImpl(
             BidiType bidiType,
             Object comparatorOrEqualityComparatorOrUnifiedComparator) {
@@ -119,6 +134,24 @@ public abstract class AbstractBaseElementsImpl<E> implements BaseElements<E>, Se
         return this.bidiType;
     }
     
+    @Override
+    public final void initHashIndex() {
+        if (this.hashIndexed || this.bidiType != BidiType.NONE) {
+            return;
+        }
+        this.hashIndexed = true;
+        this.initHashIndexEntries();
+        BaseListIterator<E> itr = this.listIterator(0, 0, 0, null);
+        while (itr.hasNext()) {
+            this.hashIndexAdd(itr.next());
+        }
+    }
+    
+    @Override
+    public final boolean isHashIndexed() {
+        return this.hashIndexed;
+    }
+    
     @SuppressWarnings("unchecked")
     @Override
     public UnifiedComparator<? super E> unifiedComparator() {
@@ -156,6 +189,13 @@ public abstract class AbstractBaseElementsImpl<E> implements BaseElements<E>, Se
             if (inversedEntries != null) {
                 return inversedEntries.getBaseEntry(o) != null;
             }
+            BaseEntries<E, HashIndexCount> hashIndex = this.hashIndex;
+            if (hashIndex != null) {
+                return hashIndex.getBaseEntry(o) != null;
+            }
+        }
+        if (this.isNotIndexed(o)) {
+            return false;
         }
         return this.firstIndex(subListHeadHide, subListTailHide, o) != -1;
     }
@@ -168,6 +208,9 @@ public abstract class AbstractBaseElementsImpl<E> implements BaseElements<E>, Se
                 return -1;
             }
         }
+        if (this.isNotIndexed(o)) {
+            return -1;
+        }
         return this.firstIndex(subListHeadHide, subListTailHide, o);
     }
 
@@ -179,6 +222,9 @@ public abstract class AbstractBaseElementsImpl<E> implements BaseElements<E>, Se
                 return -1;
             }
         }
+        if (this.isNotIndexed(o)) {
+            return -1;
+        }
         return this.lastIndex(subListHeadHide, subListTailHide, o);
     }
 
@@ -247,6 +293,9 @@ public abstract class AbstractBaseElementsImpl<E> implements BaseElements<E>, Se
         if (inversedEntries != null && inversedEntries.getBaseEntry(o) == null) {
             return false;
         }
+        if (this.isNotIndexed(o)) {
+            return false;
+        }
         return this.remove(subListHeadHide, subListTailHide, o, this.triggerOf(subListHeadHide, handler));
     }
 
@@ -418,6 +467,33 @@ public abstract class AbstractBaseElementsImpl<E> implements BaseElements<E>, Se
         return null;
     }
 
+    @Override
+    public void forEach(int subListHeadHide, int subListTailHide, Consumer<? super E> action) {
+        Arguments.mustNotBeNull("action", action);
+        BaseListIterator<E> itr = this.listIterator(subListHeadHide, subListTailHide, 0, null);
+        while (itr.hasNext()) {
+            action.accept(itr.next());
+        }
+    }
+    
+    @Override
+    public Spliterator<E> spliterator(int subListHeadHide, int subListTailHide) {
+        final BaseListIterator<E> itr = this.listIterator(subListHeadHide, subListTailHide, 0, null);
+        return Spliterators.spliterator(
+                new Iterator<E>() {
+                    @Override
+                    public boolean hasNext() {
+                        return itr.hasNext();
+                    }
+                    @Override
+                    public E next() {
+                        return itr.next();
+                    }
+                }, 
+                this.allSize() - subListHeadHide - subListTailHide, 
+                Spliterator.ORDERED);
+    }
+    
     protected final void checkSubListRange(int subListHeadHide, int subListTailHide) {
         Arguments.mustBeGreaterThanOrEqualToValue("subListHeadHide", subListHeadHide, 0);
         Arguments.mustBeGreaterThanOrEqualToValue("subListTailHide", subListTailHide, 0);
@@ -441,6 +517,54 @@ public abstract class AbstractBaseElementsImpl<E> implements BaseElements<E>, Se
     protected final BaseEntries<E, Object> inversedEntries() {
         return this.inversedEntries;
     }
+    
+    /**
+     * Must be called by the derived classes whenever an element is added into the elements,
+     * nothing will be done if the hash index is not enabled.
+     */
+    protected final void hashIndexAdd(E element) {
+        BaseEntries<E, HashIndexCount> hashIndex = this.hashIndex;
+        if (hashIndex != null) {
+            BaseEntry<E, HashIndexCount> be = hashIndex.getBaseEntry(element);
+            if (be == null) {
+                hashIndex.put(element, new HashIndexCount(1), null);
+            } else {
+                be.getValue().value++;
+            }
+        }
+    }
+    
+    /**
+     * Must be called by the derived classes whenever an element is removed from the elements,
+     * nothing will be done if the hash index is not enabled.
+     */
+    protected final void hashIndexRemove(Object element) {
+        BaseEntries<E, HashIndexCount> hashIndex = this.hashIndex;
+        if (hashIndex != null) {
+            BaseEntry<E, HashIndexCount> be = hashIndex.getBaseEntry(element);
+            if (be == null) {
+                throw new AssertionError();
+            }
+            HashIndexCount count = be.getValue();
+            if (count.value == 1) {
+                hashIndex.removeByKey(element, null);
+            } else {
+                count.value--;
+            }
+        }
+    }
+    
+    protected final void hashIndexClear() {
+        BaseEntries<E, HashIndexCount> hashIndex = this.hashIndex;
+        if (hashIndex != null) {
+            hashIndex.clear(null);
+        }
+    }
+    
+    private boolean isNotIndexed(Object o) {
+        BaseEntries<E, HashIndexCount> hashIndex = this.hashIndex;
+        return hashIndex != null && hashIndex.getBaseEntry(o) == null;
+    }
 
     private static String attachProcessorState(int attachProcessState) {
         switch (attachProcessState) {
@@ -472,33 +596,47 @@ public abstract class AbstractBaseElementsImpl<E> implements BaseElements<E>, Se
         }
     }
     
-    @SuppressWarnings("unchecked")
     private void initInversedEntries() {
         BidiType bidiType = this.bidiType;
         if (bidiType == BidiType.NONE) {
             return;
         }
+        BaseEntries<E, Object> inversedEntries = this.createElementEntries();
+        inversedEntries.initSpecialHandlerFactory(this.new InversedSpecialHandlerFactory());
+        this.inversedEntries = inversedEntries;
+    }
+    
+    private void initHashIndexEntries() {
+        /*
+         * When the hash code of an element is changed by FrozenContext,
+         * the hash index re-hashes it and its entry may be merged with the
+         * entry of another element that is equal to it now, the handlers
+         * keep the sum of their counts.
+         */
+        BaseEntries<E, HashIndexCount> hashIndex = this.createElementEntries();
+        hashIndex.initSpecialHandlerFactory(new HashIndexSpecialHandlerFactory<E>());
+        this.hashIndex = hashIndex;
+    }
+    
+    @SuppressWarnings("unchecked")
+    private <V> BaseEntries<E, V> createElementEntries() {
         Object comparatorOrEqualityComparator = this.comparatorOrEqualityComparator;
-        BaseEntries<E, Object> inversedEntries;
         if (comparatorOrEqualityComparator instanceof Comparator<?>) {
-            inversedEntries = new RedBlackTreeEntries<>(
+            return new RedBlackTreeEntries<>(
                     BidiType.NONE,
                     ReplacementRule.NEW_REFERENCE_WIN,
                     (Comparator<E>)comparatorOrEqualityComparator,
                     null
             );
-        } else {
-            inversedEntries = new HashEntries<>(
-                    BidiType.NONE,
-                    ReplacementRule.NEW_REFERENCE_WIN,
-                    (EqualityComparator<E>)comparatorOrEqualityComparator,
-                    null,
-                    32,
-                    .75F
-            );
         }
-        inversedEntries.initSpecialHandlerFactory(this.new InversedSpecialHandlerFactory());
-        this.inversedEntries = inversedEntries;
+        return new HashEntries<>(
+                BidiType.NONE,
+                ReplacementRule.NEW_REFERENCE_WIN,
+                (EqualityComparator<E>)comparatorOrEqualityComparator,
+                null,
+                32,
+                .75F
+        );
     }
     
     private void suspendViaInversedFrozenContext(E element) {
@@ -563,6 +701,9 @@ public abstract class AbstractBaseElementsImpl<E> implements BaseElements<E>, Se
     private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
         in.defaultReadObject();
         this.initInversedEntries();
+        if (this.hashIndexed) {
+            this.initHashIndexEntries();
+        }
         this.inversedSuspendingIndex = -1;
     }
     
@@ -1926,6 +2067,57 @@ public abstract class AbstractBaseElementsImpl<E> implements BaseElements<E>, Se
         }
     }
     
+    private static final class HashIndexCount {
+        
+        int value;
+        
+        HashIndexCount(int value) {
+            this.value = value;
+        }
+    }
+    
+    private static class HashIndexSpecialHandlerFactory<E> 
+    implements BaseEntriesSpecialHandlerFactory<E, HashIndexCount> {
+
+        private static final long serialVersionUID = 2951638279409417413L;
+
+        @Override
+        public BaseEntriesHandler<E, HashIndexCount> createResumingHandler() {
+            return new HashIndexResumingHandler<E>();
+        }
+    }
+    
+    private static class HashIndexResumingHandler<E> implements BaseEntriesHandler<E, HashIndexCount> {
+
+        @Override
+        public Object createAddingArgument(E key, HashIndexCount value) {
+            return HASH_INDEX_HANDLER_ARGUMENT;
+        }
+
+        @Override
+        public void adding(E key, HashIndexCount value, Object argument) {}
+
+        @Override
+        public void added(E key, HashIndexCount value, Object argument) {}
+
+        @Override
+        public Object createChangingArgument(
+                E oldKey, HashIndexCount oldValue, E newKey, HashIndexCount newValue) {
+            return HASH_INDEX_HANDLER_ARGUMENT;
+        }
+
+        @Override
+        public void changing(
+                E oldKey, HashIndexCount oldValue, E newKey, HashIndexCount newValue, Object argument) {}
+
+        @Override
+        public void changed(
+                E oldKey, HashIndexCount oldValue, E newKey, HashIndexCount newValue, Object argument) {
+            // The resumed element is merged into the entry of an equal element
+            newValue.value += oldValue.value;
+        }
+    }
+    
     @SuppressWarnings("rawtypes")
     @I18N
     private static native String specialHandlerFactoryHasBeenInitialized(
@@ -30,6 +30,10 @@ import java.util.Map.Entry;
 import java.util.NavigableMap;
 import java.util.Objects;
 import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 import org.babyfish.collection.ArrayList;
 import org.babyfish.collection.BidiType;
@@ -624,6 +628,55 @@ public abstract class AbstractBaseEntriesImpl<K, V> implements BaseEntries<K, V>
         return this.retainAllByValueCollection(vc, this.triggerOf(handler));
     }
 
+    @Override
+    public void forEach(Consumer<? super BaseEntry<K, V>> action) {
+        Arguments.mustNotBeNull("action", action);
+        BaseEntryIterator<K, V> itr = this.iterator();
+        while (itr.hasNext()) {
+            action.accept(itr.next());
+        }
+    }
+    
+    @Override
+    public Spliterator<BaseEntry<K, V>> spliterator() {
+        return this.iteratorSpliterator(
+                this instanceof OrderedBaseEntries<?, ?> ? 
+                        Spliterator.DISTINCT | Spliterator.ORDERED : 
+                        Spliterator.DISTINCT);
+    }
+    
+    /**
+     * Creates the spliterator based on the iterator of this object, 
+     * it can only be split by buffering the entries into arrays.
+     */
+    protected final Spliterator<BaseEntry<K, V>> iteratorSpliterator(int characteristics) {
+        final BaseEntryIterator<K, V> itr = this.iterator();
+        return Spliterators.spliterator(
+                new Iterator<BaseEntry<K, V>>() {
+                    @Override
+                    public boolean hasNext() {
+                        return itr.hasNext();
+                    }
+                    @Override
+                    public BaseEntry<K, V> next() {
+                        return itr.next();
+                    }
+                }, 
+                this.size(), 
+                characteristics);
+    }
+
+    @SuppressWarnings("unchecked")
+    protected final BaseEntriesSpecialHandlerFactory<K, V> specialHandlerFactory() {
+        Object o = this.rootEntriesOrRootData;
+        if (!(o instanceof RootData<?, ?>)) {
+            throw new IllegalStateException(
+                    methodIsOnlySupportedByRootEntries("specialHandlerFactory")
+            );
+        }
+        return ((RootData<K, V>)o).specialHandlerFactory;
+    }
+
     @SuppressWarnings("unchecked")
     @Override
     public final FrozenContextSuspending<K, V> suspendViaFrozenContext(K key) {
@@ -635,17 +688,19 @@ public abstract class AbstractBaseEntriesImpl<K, V> implements BaseEntries<K, V>
         }
         BaseEntriesSpecialHandlerFactory<K, V> specialHandlerFactory = 
                 ((RootData<K, V>)o).specialHandlerFactory;
-        BaseEntriesHandler<K, V> suspendingHandler;
-        if (specialHandlerFactory != null) {
-            suspendingHandler = specialHandlerFactory.createSuspendingHandler(key);
-        } else {
-            suspendingHandler = null;
-        }
-        BaseEntry<K, V> be = this.removeByKey(key, suspendingHandler);
-        if (be != null) {
-            return this.createFrozenContextSuspending(be);
-        }
-        return null;
+        return executeViaFrozenContext(specialHandlerFactory, () -> {
+            BaseEntriesHandler<K, V> suspendingHandler;
+            if (specialHandlerFactory != null) {
+                suspendingHandler = specialHandlerFactory.createSuspendingHandler(key);
+            } else {
+                suspendingHandler = null;
+            }
+            BaseEntry<K, V> be = this.removeByKey(key, suspendingHandler);
+            if (be != null) {
+                return this.createFrozenContextSuspending(be);
+            }
+            return null;
+        });
     }
 
     @SuppressWarnings("unchecked")
@@ -658,25 +713,168 @@ public abstract class AbstractBaseEntriesImpl<K, V> implements BaseEntries<K, V>
             );
         }
         if (suspending != null) {
-            try {
-                BaseEntriesSpecialHandlerFactory<K, V> specialHandlerFactory = 
-                        ((RootData<K, V>)o).specialHandlerFactory;
-                BaseEntriesHandler<K, V> resumingHandler;
-                if (specialHandlerFactory != null) {
-                    resumingHandler = specialHandlerFactory.createResumingHandler();
-                } else {
-                    resumingHandler = null;
+            BaseEntriesSpecialHandlerFactory<K, V> specialHandlerFactory = 
+                    ((RootData<K, V>)o).specialHandlerFactory;
+            executeViaFrozenContext(specialHandlerFactory, () -> {
+                try {
+                    BaseEntriesHandler<K, V> resumingHandler;
+                    if (specialHandlerFactory != null) {
+                        resumingHandler = specialHandlerFactory.createResumingHandler();
+                    } else {
+                        resumingHandler = null;
+                    }
+                    this.put(
+                            suspending.getKey(), 
+                            suspending.getValue(), 
+                            this.triggerOf(resumingHandler), 
+                            suspending
+                    );
+                } finally {
+                    suspending.resume();
                 }
-                this.put(
-                        suspending.getKey(), 
-                        suspending.getValue(), 
-                        this.triggerOf(resumingHandler), 
-                        suspending
-                );
-            } finally {
-                suspending.resume();
+                return null;
+            });
+        }
+    }
+    
+    @SuppressWarnings("unchecked")
+    @Override
+    public final BaseEntry<K, V> suspendInPlaceViaFrozenContext(K key) {
+        Object o = this.rootEntriesOrRootData;
+        if (!(o instanceof RootData<?, ?>)) {
+            throw new IllegalStateException(
+                    methodIsOnlySupportedByRootEntries("suspendInPlaceViaFrozenContext")
+            );
+        }
+        BaseEntriesSpecialHandlerFactory<K, V> specialHandlerFactory = 
+                ((RootData<K, V>)o).specialHandlerFactory;
+        return executeViaFrozenContext(specialHandlerFactory, () -> {
+            if ((specialHandlerFactory != null && specialHandlerFactory.isModificationObservable()) ||
+                    this.inversedEntries() != null ||
+                    this.isFrozen()) {
+                return null;
             }
+            return this.detachFrozenEntry(key);
+        });
+    }
+    
+    @SuppressWarnings("unchecked")
+    @Override
+    public final void resumeInPlaceViaFrozenContext(BaseEntry<K, V> be) {
+        Object o = this.rootEntriesOrRootData;
+        if (!(o instanceof RootData<?, ?>)) {
+            throw new IllegalStateException(
+                    methodIsOnlySupportedByRootEntries("resumeInPlaceViaFrozenContext")
+            );
         }
+        if (be != null) {
+            executeViaFrozenContext(((RootData<K, V>)o).specialHandlerFactory, () -> {
+                if (!this.reattachFrozenEntry(be)) {
+                    /*
+                     * The changed key conflicts with another entry, this rare case 
+                     * uses the standard deletion and insertion.
+                     */
+                    K key = be.getKey();
+                    V value = be.getValue();
+                    this.deleteDetachedFrozenEntry(be);
+                    this.put(key, value, this.triggerOf(null), null);
+                }
+                return null;
+            });
+        }
+    }
+    
+    @SuppressWarnings("unchecked")
+    @Override
+    public final void resumeAllInPlaceViaFrozenContext(List<BaseEntry<K, V>> bes) {
+        Object o = this.rootEntriesOrRootData;
+        if (!(o instanceof RootData<?, ?>)) {
+            throw new IllegalStateException(
+                    methodIsOnlySupportedByRootEntries("resumeAllInPlaceViaFrozenContext")
+            );
+        }
+        if (bes.isEmpty()) {
+            return;
+        }
+        executeViaFrozenContext(((RootData<K, V>)o).specialHandlerFactory, () -> {
+            List<BaseEntry<K, V>> conflictedEntries = this.reattachFrozenEntries(bes);
+            if (conflictedEntries != null) {
+                for (BaseEntry<K, V> be : conflictedEntries) {
+                    K key = be.getKey();
+                    V value = be.getValue();
+                    this.deleteDetachedFrozenEntry(be);
+                    this.put(key, value, this.triggerOf(null), null);
+                }
+            }
+            return null;
+        });
+    }
+    
+    /**
+     * Unlinks the entry of the frozen key from the index structure so that the
+     * key can be changed, the entry is neither deleted nor unfrozen and the 
+     * other structures such as the linked order are not changed. 
+     * 
+     * <p>
+     * This entries must not be accessed before the entry is reattached by 
+     * {@link #reattachFrozenEntry(BaseEntry)} or deleted by 
+     * {@link #deleteDetachedFrozenEntry(BaseEntry)}.
+     * </p>
+     * 
+     * @param key The frozen key whose data will be changed
+     * @return The detached entry, or null if the key does not exist or the 
+     * storage does not support this optimization.
+     */
+    protected BaseEntry<K, V> detachFrozenEntry(K key) {
+        return null;
+    }
+    
+    /**
+     * Relinks the entry detached by {@link #detachFrozenEntry(Object)} 
+     * into the index structure according to its changed key.
+     * 
+     * @param be The detached entry
+     * @return false if the changed key conflicts with another entry, 
+     * the entry is still detached in this case.
+     */
+    protected boolean reattachFrozenEntry(BaseEntry<K, V> be) {
+        throw new UnsupportedOperationException(
+                pleaseOverrideTheMethod("reattachFrozenEntry", BaseEntry.class)
+        );
+    }
+    
+    /**
+     * Relinks several entries detached by {@link #detachFrozenEntry(Object)}.
+     * By default, it invokes {@link #reattachFrozenEntry(BaseEntry)} for each entry,
+     * the storage whose index structure can be rebuilt faster should override it.
+     * 
+     * @param bes The detached entries
+     * @return The entries whose changed keys conflict with other entries, 
+     * they are still detached; or null if there is no conflict.
+     */
+    protected List<BaseEntry<K, V>> reattachFrozenEntries(List<BaseEntry<K, V>> bes) {
+        List<BaseEntry<K, V>> conflictedEntries = null;
+        for (BaseEntry<K, V> be : bes) {
+            if (!this.reattachFrozenEntry(be)) {
+                if (conflictedEntries == null) {
+                    conflictedEntries = new ArrayList<>();
+                }
+                conflictedEntries.add(be);
+            }
+        }
+        return conflictedEntries;
+    }
+    
+    /**
+     * Deletes the entry detached by {@link #detachFrozenEntry(Object)} 
+     * without raising any event.
+     * 
+     * @param be The detached entry
+     */
+    protected void deleteDetachedFrozenEntry(BaseEntry<K, V> be) {
+        throw new UnsupportedOperationException(
+                pleaseOverrideTheMethod("deleteDetachedFrozenEntry", BaseEntry.class)
+        );
     }
     
     protected V put(
@@ -1232,6 +1430,15 @@ public abstract class AbstractBaseEntriesImpl<K, V> implements BaseEntries<K, V>
         return trigger.flush();
     }
     
+    private static <R> R executeViaFrozenContext(
+            BaseEntriesSpecialHandlerFactory<?, ?> specialHandlerFactory, 
+            Supplier<R> action) {
+        if (specialHandlerFactory == null) {
+            return action.get();
+        }
+        return specialHandlerFactory.executeViaFrozenContext(action);
+    }
+    
     protected FrozenContextSuspending<K, V> createFrozenContextSuspending(BaseEntry<K, V> be) {
         return new FrozenContextSuspending<K, V>(be);
     }
@@ -1741,6 +1948,8 @@ public abstract class AbstractBaseEntriesImpl<K, V> implements BaseEntries<K, V>
         
         private int state = TRIGGER_NEW;
         
+        private boolean batchModifying;
+        
         private TriggerImpl(BaseEntriesHandler<K, V> handler, int capacity) {
             this.handler = handler;
             this.elementItemCount = this.handler == null ? 5 : 6;
@@ -1893,6 +2102,21 @@ public abstract class AbstractBaseEntriesImpl<K, V> implements BaseEntries<K, V>
                         )
                 );
             }
+            BaseEntriesHandler<K, V> handler = this.handler;
+            if (handler != null && this.len != 0) {
+                AbstractBaseEntriesImpl<K, V> owner = AbstractBaseEntriesImpl.this;
+                owner.freeze();
+                try {
+                    this.batchModifying = true;
+                    handler.batchModifying();
+                } catch (RuntimeException | Error ex) {
+                    if (this.finalThrowable == null) {
+                        this.finalThrowable = ex;
+                    }
+                } finally {
+                    owner.unfreeze();
+                }
+            }
             if (this.finalThrowable != null) {
                 this.state = TRIGGER_EXECUTED;
                 return false;
@@ -1980,6 +2204,19 @@ public abstract class AbstractBaseEntriesImpl<K, V> implements BaseEntries<K, V>
                 retval = true;
             }
             this.state = TRIGGER_FLUSHED;
+            if (this.flushedLen == len && this.batchModifying) {
+                this.batchModifying = false;
+                owner.freeze();
+                try {
+                    this.handler.batchModified();
+                } catch (RuntimeException | Error ex) {
+                    if (this.finalThrowable == null) {
+                        this.finalThrowable = ex;
+                    }
+                } finally {
+                    owner.unfreeze();
+                }
+            }
             if (this.flushedLen == len && this.finalThrowable != null) {
                 //Actually, finalThrowable can only be RuntimeException or Error
                 UncheckedException.rethrow(this.finalThrowable);
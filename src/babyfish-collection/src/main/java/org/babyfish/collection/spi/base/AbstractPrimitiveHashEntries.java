@@ -0,0 +1,789 @@
+/*
+ * BabyFish, Object Model Framework for Java and JPA.
+ * https://github.com/babyfish-ct/babyfish
+ *
+ * Copyright (c) 2008-2016, Tao Chen
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * Please visit "http://opensource.org/licenses/LGPL-3.0" to know more.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ */
+package org.babyfish.collection.spi.base;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.NoSuchElementException;
+
+import org.babyfish.collection.BidiType;
+import org.babyfish.collection.ReplacementRule;
+import org.babyfish.collection.UnifiedComparator;
+import org.babyfish.collection.spi.base.AbstractBaseEntriesImpl.Trigger.History;
+import org.babyfish.lang.Arguments;
+
+/**
+ * The base class of the hash entries whose keys are primitive values.
+ * 
+ * <p>
+ * Unlike {@link HashEntries}, this class does not create a node object for each key;
+ * the keys are stored in a primitive array, the values are stored in a parallel array
+ * and the collisions are resolved by linear probing. The {@link BaseEntry} objects
+ * are only created when the entry based API(iterators, entry views, events) requires them,
+ * and each one is cached by its slot so that its identity is kept until it is removed.
+ * Even the read operations fill that cache, so this class does not support the 
+ * read-write lock, the read operations of the locked wrappers are serialized 
+ * by the write lock.
+ * </p>
+ * 
+ * <p>
+ * The keys are stored as long values, the derived classes only need to convert 
+ * the boxed keys to long values and the long values back to the boxed keys.
+ * </p>
+ * 
+ * @author Tao Chen
+ */
+public abstract class AbstractPrimitiveHashEntries<K, V> 
+extends AbstractRootBaseEntriesImpl<K, V> 
+implements BaseEntries<K, V> {
+    
+    private static final long serialVersionUID = -3419402213575390487L;
+
+    private static final int MIN_CAPACITY = 4;
+    
+    private static final int MAX_CAPACITY = 1 << 30;
+    
+    private static final float DEFAULT_LOAD_FACTOR = .75F;
+    
+    private static final byte FREE = 0;
+    
+    private static final byte FULL = 1;
+    
+    private static final byte REMOVED = 2;
+    
+    private byte[] states;
+    
+    private long[] keys;
+    
+    private Object[] values;
+    
+    private BaseEntryImpl<K, V>[] entries;
+    
+    private int size;
+    
+    private int removedCount;
+    
+    private float loadFactor;
+    
+    private int initCapacity;
+    
+    private int threshold;
+    
+    int modCount;
+    
+    AbstractPrimitiveHashEntries(
+            BidiType bidiType,
+            Object valueComparatorOrEqualityComparatorOrUnifiedComparator,
+            int initCapacity,
+            Float loadFactor) {
+        super(
+                bidiType, 
+                ReplacementRule.NEW_REFERENCE_WIN, 
+                null, 
+                valueComparatorOrEqualityComparatorOrUnifiedComparator);
+        Arguments.mustBeLessThanOrEqualToValue("initCapacity", initCapacity, MAX_CAPACITY);
+        if (loadFactor != null) {
+            Arguments.mustBeGreaterThanValue("loadFactor.floatValue()", loadFactor.floatValue(), 0F);
+            Arguments.mustBeLessThanValue("loadFactor.floatValue()", loadFactor.floatValue(), 1F);
+        } else {
+            loadFactor = DEFAULT_LOAD_FACTOR;
+        }
+        int c = MIN_CAPACITY;
+        while (c < initCapacity) {
+            c <<= 1;
+        }
+        this.loadFactor = loadFactor;
+        this.initCapacity = c;
+        this.allocate(c);
+    }
+    
+    abstract boolean isKey(Object key);
+    
+    abstract long bitsOf(K key);
+    
+    abstract K keyOf(long bits);
+    
+    @Override
+    public boolean isReadWriteLockSupported() {
+        // getBaseEntry() and the iterators fill the flyweight cache
+        return false;
+    }
+
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+    
+    @Override
+    public int modCount() {
+        return this.modCount;
+    }
+    
+    @SuppressWarnings("unchecked")
+    @Override
+    public final BaseEntry<K, V> getBaseEntry(Object key) {
+        if (!this.isKey(key)) {
+            return null;
+        }
+        int index = this.indexOf(this.bitsOf((K)key));
+        return index == -1 ? null : this.entryAt(index);
+    }
+    
+    @SuppressWarnings("unchecked")
+    @Override
+    public boolean containsKey(Object key) {
+        return this.isKey(key) && this.indexOf(this.bitsOf((K)key)) != -1;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public boolean containsEntry(Object o) {
+        if (!(o instanceof Entry<?, ?>)) {
+            return false;
+        }
+        Entry<?, ?> e = (Entry<?, ?>)o;
+        Object key = e.getKey();
+        if (!this.isKey(key)) {
+            return false;
+        }
+        int index = this.indexOf(this.bitsOf((K)key));
+        return index != -1 && this.valueEquals((V)e.getValue(), this.valueAt(index));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public boolean containsValue(Object v) {
+        if (this.inversedEntries() != null) {
+            return super.containsValue(v);
+        }
+        byte[] states = this.states;
+        for (int i = states.length - 1; i >= 0; i--) {
+            if (states[i] == FULL && this.valueEquals((V)v, this.valueAt(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public BaseEntry<K, V> getBaseEntryByValue(V value) {
+        if (this.inversedEntries() != null) {
+            return super.getBaseEntryByValue(value);
+        }
+        byte[] states = this.states;
+        for (int i = 0; i < states.length; i++) {
+            if (states[i] == FULL && this.valueEquals(value, this.valueAt(i))) {
+                return this.entryAt(i);
+            }
+        }
+        return null;
+    }
+
+    @Override
+    protected V put(
+            K key, 
+            V value, 
+            Trigger<K, V> trigger,
+            FrozenContextSuspending<K, V> suspending) {
+        Arguments.mustNotBeNull("key", key);
+        return super.put(key, value, trigger, suspending);
+    }
+
+    @Override
+    protected void putAll(Map<? extends K, ? extends V> m, Trigger<K, V> trigger) {
+        for (K key : m.keySet()) {
+            Arguments.mustNotBeNull("key", key);
+        }
+        super.putAll(m, trigger);
+    }
+
+    @Override
+    protected boolean addAll(Collection<? extends K> kc, Trigger<K, V> trigger) {
+        for (K key : kc) {
+            Arguments.mustNotBeNull("key", key);
+        }
+        return super.addAll(kc, trigger);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    protected V putWithoutTriggerFlushing(
+            K key, 
+            V value, 
+            AttachProcessor<K, V> attachProcessor) {
+        History<K, V> puttingHistory = attachProcessor.getPuttingHistory();
+        V oldV = null;
+        if (attachProcessor.beginExcute()) {
+            try {
+                int index;
+                if (puttingHistory != null) {
+                    BaseEntryImpl<K, V> be = (BaseEntryImpl<K, V>)puttingHistory.getBaseEntry(0);
+                    index = be != null ? be.index : -1;
+                } else {
+                    index = this.indexOf(this.bitsOf(key));
+                }
+                if (index != -1) {
+                    oldV = this.changeValue(index, value);
+                } else {
+                    this.insert(this.bitsOf(key), value);
+                }
+                attachProcessor.endExecute(null);
+            } catch (RuntimeException | Error ex) {
+                attachProcessor.endExecute(ex);
+            }
+        }
+        return oldV;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    protected void putAllWithoutTriggerFlushing(
+            Map<? extends K, ? extends V> m,
+            AttachProcessor<K, V> attachProcessor) {
+        History<K, V> puttingHistory = attachProcessor.getPuttingHistory();
+        if (attachProcessor.beginExcute()) {
+            try {
+                if (puttingHistory == null) {
+                    for (Entry<? extends K, ? extends V> e : m.entrySet()) {
+                        long bits = this.bitsOf(e.getKey());
+                        int index = this.indexOf(bits);
+                        if (index != -1) {
+                            this.changeValue(index, e.getValue());
+                        } else {
+                            this.insert(bits, e.getValue());
+                        }
+                    }
+                } else {
+                    int count = puttingHistory.getCount();
+                    for (int i = 0; i < count; i++) {
+                        BaseEntryImpl<K, V> be = (BaseEntryImpl<K, V>)puttingHistory.getBaseEntry(i);
+                        V value = puttingHistory.getNewValue(i);
+                        if (be != null) {
+                            this.changeValue(be.index, value);
+                        } else {
+                            this.insert(this.bitsOf(puttingHistory.getNewKey(i)), value);
+                        }
+                    }
+                }
+                attachProcessor.endExecute(null);
+            } catch (RuntimeException | Error ex) {
+                attachProcessor.endExecute(ex);
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    protected boolean addAllWithoutTriggerFlushing(
+            Collection<? extends K> c,
+            Trigger<K, V> trigger) {
+        
+        // In this method, inversedEntries always is null
+        
+        int oldSize = this.size;
+        if (trigger == null) {
+            for (K key : c) {
+                long bits = this.bitsOf(key);
+                if (this.indexOf(bits) == -1) {
+                    this.insert(bits, (V)PRESENT);
+                }
+            }
+        } else {
+            for (K key : c) {
+                int index = this.indexOf(this.bitsOf(key));
+                if (index != -1) {
+                    BaseEntry<K, V> be = this.entryAt(index);
+                    trigger.preChange(be, key, (V)PRESENT);
+                } else {
+                    trigger.preAdd(key, (V)PRESENT);
+                }
+            }
+            if (trigger.beginExecute()) {
+                try {
+                    History<K, V> history = trigger.getHistory(0);
+                    int count = history.getCount();
+                    for (int i = 0; i < count; i++) {
+                        if (history.getBaseEntry(i) == null) {
+                            this.insert(this.bitsOf(history.getNewKey(i)), (V)PRESENT);
+                        }
+                    }
+                    trigger.endExecute(null);
+                } catch (RuntimeException | Error ex) {
+                    trigger.endExecute(ex);
+                }
+            }
+            trigger.flush();
+        }
+        return oldSize != this.size;
+    }
+
+    @Override
+    protected void clear(Trigger<K, V> trigger) {
+        if (trigger != null) {
+            BaseEntryIterator<K, V> iterator = this.iterator();
+            while (iterator.hasNext()) {
+                trigger.preRemove(iterator.next());
+            }
+        }
+        if (trigger == null || trigger.beginExecute()) {
+            try {
+                BaseEntryImpl<K, V>[] entries = this.entries;
+                if (entries != null) {
+                    for (int i = entries.length - 1; i >= 0; i--) {
+                        BaseEntryImpl<K, V> be = entries[i];
+                        if (be != null) {
+                            be.detach(this.valueAt(i));
+                        }
+                    }
+                }
+                this.allocate(this.initCapacity);
+                BaseEntries<V, K> inversedEntries = this.inversedEntries();
+                if (inversedEntries != null) {
+                    inversedEntries.clear(null);
+                }
+                this.modCount++;
+                this.size = 0;
+                if (trigger != null) {
+                    trigger.endExecute(null);
+                }
+            } catch (RuntimeException | Error ex) {
+                if (trigger == null) {
+                    throw ex;
+                }
+                trigger.endExecute(ex);
+            }
+        }
+        if (trigger != null) {
+            trigger.flush();
+        }
+    }
+
+    @Override
+    protected final void deleteBaseEntry(BaseEntry<K, V> be) {
+        BaseEntryImpl<K, V> e = (BaseEntryImpl<K, V>)be;
+        if (e.owner == this) {
+            this.delete(e.index);
+        }
+    }
+
+    @Override
+    public BaseEntryIterator<K, V> iterator() {
+        return this.new EntryIterator();
+    }
+    
+    final V getByBits(long bits) {
+        int index = this.indexOf(bits);
+        return index == -1 ? null : this.valueAt(index);
+    }
+    
+    final boolean containsBits(long bits) {
+        return this.indexOf(bits) != -1;
+    }
+    
+    /*
+     * The events, the validators and the bidi-constraint require the full algorithm 
+     * of the super class, otherwise, the entry is modified directly and no BaseEntry 
+     * or AttachProcessor is created.
+     */
+    final V putByBits(long bits, V value) {
+        if (this.isFrozen() || 
+                this.inversedEntries() != null ||
+                this.keyValidator() != null ||
+                this.valueValidator() != null ||
+                (this.values == null && value != PRESENT)) {
+            return this.put(this.keyOf(bits), value, (BaseEntriesHandler<K, V>)null);
+        }
+        int index = this.indexOf(bits);
+        if (index != -1) {
+            return this.changeValue(index, value);
+        }
+        this.insert(bits, value);
+        return null;
+    }
+    
+    final V removeByBits(long bits) {
+        if (this.isFrozen() || this.inversedEntries() != null) {
+            BaseEntry<K, V> be = this.removeByKey(this.keyOf(bits), (BaseEntriesHandler<K, V>)null);
+            return be == null ? null : be.getValue();
+        }
+        int index = this.indexOf(bits);
+        if (index == -1) {
+            return null;
+        }
+        return this.delete(index);
+    }
+    
+    private int indexOf(long bits) {
+        byte[] states = this.states;
+        long[] keys = this.keys;
+        int mask = states.length - 1;
+        for (int i = slotOf(bits, mask); ; i = (i + 1) & mask) {
+            byte state = states[i];
+            if (state == FREE) {
+                return -1;
+            }
+            if (state == FULL && keys[i] == bits) {
+                return i;
+            }
+        }
+    }
+    
+    @SuppressWarnings("unchecked")
+    private V valueAt(int index) {
+        Object[] values = this.values;
+        return values != null ? (V)values[index] : (V)PRESENT;
+    }
+    
+    @SuppressWarnings("unchecked")
+    private BaseEntryImpl<K, V> entryAt(int index) {
+        BaseEntryImpl<K, V>[] entries = this.entries;
+        if (entries == null) {
+            this.entries = entries = new BaseEntryImpl[this.states.length];
+        }
+        BaseEntryImpl<K, V> be = entries[index];
+        if (be == null) {
+            entries[index] = be = new BaseEntryImpl<K, V>(this, index, this.keyOf(this.keys[index]));
+        }
+        return be;
+    }
+    
+    private void insert(long bits, V value) {
+        if (this.size + this.removedCount >= this.threshold) {
+            this.rehash();
+        }
+        byte[] states = this.states;
+        int mask = states.length - 1;
+        int index = slotOf(bits, mask);
+        while (states[index] == FULL) {
+            index = (index + 1) & mask;
+        }
+        if (states[index] == REMOVED) {
+            this.removedCount--;
+        }
+        states[index] = FULL;
+        this.keys[index] = bits;
+        Object[] values = this.values;
+        if (values != null) {
+            values[index] = value;
+        }
+        this.size++;
+        this.modCount++;
+        BaseEntries<V, K> inversedEntries = this.inversedEntries();
+        if (inversedEntries != null) {
+            inversedEntries.put(value, this.keyOf(bits), null);
+        }
+    }
+    
+    private V changeValue(int index, V newValue) {
+        V oldValue = this.valueAt(index);
+        Object[] values = this.values;
+        if (values != null) {
+            values[index] = newValue;
+        }
+        BaseEntries<V, K> inversedEntries = this.inversedEntries();
+        if (inversedEntries != null) {
+            inversedEntries.removeByKey(oldValue, null);
+            inversedEntries.put(newValue, this.keyOf(this.keys[index]), null);
+        }
+        return oldValue;
+    }
+    
+    private V delete(int index) {
+        V oldValue = this.valueAt(index);
+        byte[] states = this.states;
+        /*
+         * If the next slot is free, no probing sequence passes this slot,
+         * so it can be freed directly without leaving a tombstone.
+         */
+        if (states[(index + 1) & (states.length - 1)] == FREE) {
+            states[index] = FREE;
+        } else {
+            states[index] = REMOVED;
+            this.removedCount++;
+        }
+        Object[] values = this.values;
+        if (values != null) {
+            values[index] = null;
+        }
+        BaseEntryImpl<K, V>[] entries = this.entries;
+        if (entries != null) {
+            BaseEntryImpl<K, V> be = entries[index];
+            if (be != null) {
+                entries[index] = null;
+                be.detach(oldValue);
+            }
+        }
+        this.size--;
+        this.modCount++;
+        BaseEntries<V, K> inversedEntries = this.inversedEntries();
+        if (inversedEntries != null) {
+            inversedEntries.removeByKey(oldValue, null);
+        }
+        return oldValue;
+    }
+    
+    @SuppressWarnings("unchecked")
+    private void rehash() {
+        byte[] oldStates = this.states;
+        long[] oldKeys = this.keys;
+        Object[] oldValues = this.values;
+        BaseEntryImpl<K, V>[] oldEntries = this.entries;
+        int capacity = oldStates.length;
+        
+        // Grow when the table is really full, otherwise, only clean the tombstones.
+        if (this.size + 1 > this.threshold >> 1 && capacity < MAX_CAPACITY) {
+            capacity <<= 1;
+        }
+        this.allocate(capacity);
+        byte[] states = this.states;
+        long[] keys = this.keys;
+        Object[] values = this.values;
+        BaseEntryImpl<K, V>[] entries = 
+                oldEntries != null ? new BaseEntryImpl[capacity] : null;
+        int mask = capacity - 1;
+        for (int i = oldStates.length - 1; i >= 0; i--) {
+            if (oldStates[i] == FULL) {
+                long bits = oldKeys[i];
+                int index = slotOf(bits, mask);
+                while (states[index] != FREE) {
+                    index = (index + 1) & mask;
+                }
+                states[index] = FULL;
+                keys[index] = bits;
+                if (values != null) {
+                    values[index] = oldValues[i];
+                }
+                if (oldEntries != null) {
+                    BaseEntryImpl<K, V> be = oldEntries[i];
+                    if (be != null) {
+                        be.index = index;
+                        entries[index] = be;
+                    }
+                }
+            }
+        }
+        this.entries = entries;
+    }
+    
+    private void allocate(int capacity) {
+        this.states = new byte[capacity];
+        this.keys = new long[capacity];
+        this.values = this instanceof TransientValueEntries ? null : new Object[capacity];
+        this.entries = null;
+        this.removedCount = 0;
+        
+        // Keep at least one free slot so that the probing always terminates.
+        this.threshold = Math.min((int)(capacity * this.loadFactor), capacity - 1);
+    }
+    
+    private static int slotOf(long bits, int mask) {
+        long h = bits * 0x9E3779B97F4A7C15L;
+        return (int)(h ^ (h >>> 32)) & mask;
+    }
+    
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        out.writeInt(this.initCapacity);
+        out.writeFloat(this.loadFactor);
+        out.writeInt(this.size);
+        out.writeInt(this.states.length);
+        byte[] states = this.states;
+        long[] keys = this.keys;
+        Object[] values = this.values;
+        for (int i = 0; i < states.length; i++) {
+            if (states[i] == FULL) {
+                out.writeLong(keys[i]);
+                if (values != null) {
+                    out.writeObject(values[i]);
+                }
+            }
+        }
+    }
+    
+    @SuppressWarnings("unchecked")
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        this.initCapacity = in.readInt();
+        this.loadFactor = in.readFloat();
+        int size = in.readInt();
+        this.allocate(in.readInt());
+        boolean transientValue = this instanceof TransientValueEntries;
+        for (int i = size - 1; i >= 0; i--) {
+            long bits = in.readLong();
+            V value = transientValue ? (V)PRESENT : (V)in.readObject();
+            this.insert(bits, value);
+        }
+    }
+    
+    private class EntryIterator implements BaseEntryIterator<K, V> {
+        
+        private int nextIndex;
+        
+        private BaseEntryImpl<K, V> current;
+        
+        private int expectedModCount;
+        
+        EntryIterator() {
+            this.nextIndex = this.seek(0);
+            this.expectedModCount = AbstractPrimitiveHashEntries.this.modCount;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.nextIndex != -1;
+        }
+
+        @Override
+        public BaseEntry<K, V> next() {
+            AbstractPrimitiveHashEntries<K, V> owner = AbstractPrimitiveHashEntries.this;
+            if (this.expectedModCount != owner.modCount) {
+                throw new ConcurrentModificationException(IteratorMessages.concurrentModifcation());
+            }
+            int index = this.nextIndex;
+            if (index == -1) {
+                throw new NoSuchElementException(IteratorMessages.noSuchElement());
+            }
+            this.nextIndex = this.seek(index + 1);
+            return this.current = owner.entryAt(index);
+        }
+
+        @Override
+        public void remove(BaseEntriesHandler<K, V> handler) {
+            AbstractPrimitiveHashEntries<K, V> owner = AbstractPrimitiveHashEntries.this;
+            if (this.current == null) {
+                throw new IllegalStateException(IteratorMessages.removeNoExtractedElement());
+            }
+            if (this.expectedModCount != owner.modCount) {
+                throw new ConcurrentModificationException(IteratorMessages.concurrentModifcation());
+            }
+            Trigger<K, V> trigger = owner.triggerOf(handler);
+            if (trigger != null) {
+                trigger.preRemove(this.current);
+            }
+            if (trigger == null || trigger.beginExecute()) {
+                try {
+                    owner.deleteBaseEntry(this.current);
+                    this.current = null;
+                    this.expectedModCount = owner.modCount;
+                    if (trigger != null) {
+                        trigger.endExecute(null);
+                    }
+                } catch (RuntimeException | Error ex) {
+                    if (trigger == null) {
+                        throw ex;
+                    }
+                    trigger.endExecute(ex);
+                }
+            }
+            if (trigger != null) {
+                trigger.flush();
+            }
+        }
+        
+        /*
+         * The deletion never moves the other keys, so the slots 
+         * after the current one can be visited safely after the 
+         * current one is removed by this iterator.
+         */
+        private int seek(int index) {
+            byte[] states = AbstractPrimitiveHashEntries.this.states;
+            while (index < states.length) {
+                if (states[index] == FULL) {
+                    return index;
+                }
+                index++;
+            }
+            return -1;
+        }
+    }
+    
+    static class BaseEntryImpl<K, V> extends AbstractBaseEntryImpl<K, V> {
+        
+        /**
+         * It is null after this object has been deleted from the owner.
+         */
+        AbstractPrimitiveHashEntries<K, V> owner;
+        
+        int index;
+        
+        private K key;
+        
+        /**
+         * Only used after this object has been deleted from the owner.
+         */
+        private V value;
+        
+        private UnifiedComparator<? super Entry<K, V>> unifiedComparator;
+        
+        BaseEntryImpl(AbstractPrimitiveHashEntries<K, V> owner, int index, K key) {
+            this.owner = owner;
+            this.index = index;
+            this.key = key;
+            this.unifiedComparator = owner.entryUnifiedComparator();
+        }
+
+        @Override
+        public boolean isNonFairLockSupported() {
+            return true;
+        }
+
+        @Override
+        public BaseEntries<K, V> getOwner() {
+            return this.owner;
+        }
+
+        @Override
+        public K getKey() {
+            return this.key;
+        }
+
+        @Override
+        public V getValue() {
+            AbstractPrimitiveHashEntries<K, V> owner = this.owner;
+            return owner != null ? owner.valueAt(this.index) : this.value;
+        }
+
+        @Override
+        protected void setRawValue(V value) {
+            AbstractPrimitiveHashEntries<K, V> owner = this.owner;
+            if (owner == null) {
+                this.value = value;
+            } else if (owner.values != null) {
+                owner.values[this.index] = value;
+            }
+        }
+
+        @Override
+        protected UnifiedComparator<? super Entry<K, V>> unifiedComparator() {
+            return this.unifiedComparator;
+        }
+        
+        void detach(V value) {
+            this.owner = null;
+            this.value = value;
+        }
+    }
+}
@@ -21,6 +21,9 @@ import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Spliterator;
+import java.util.function.Consumer;
 
 import org.babyfish.collection.BidiType;
 import org.babyfish.collection.UnifiedComparator;
@@ -168,6 +171,7 @@ public class ArrayElements<E> extends AbstractBaseElementsImpl<E> {
                 if (inversedEntries != null) {
                     inversedEntries.put(element, null, null);
                 }
+                this.hashIndexAdd(element);
                 this.allSize++;
                 this.modCount++;
                 attachProcessor.endExecute(null);
@@ -222,6 +226,11 @@ public class ArrayElements<E> extends AbstractBaseElementsImpl<E> {
                         inversedEntries.put((E)appendData[i], null, null);
                     }
                 }
+                if (this.isHashIndexed()) {
+                    for (Object e : appendData) {
+                        this.hashIndexAdd((E)e);
+                    }
+                }
                 this.allSize += appendData.length;
                 this.modCount++;
                 attachProcessor.endExecute(null);
@@ -255,6 +264,8 @@ public class ArrayElements<E> extends AbstractBaseElementsImpl<E> {
                     inversedEntries.removeByKey(retval, null);
                     inversedEntries.put(element, null, null);
                 }
+                this.hashIndexRemove(retval);
+                this.hashIndexAdd(element);
                 attachProcessor.endExecute(null);
             } catch (RuntimeException | Error ex) {
                 attachProcessor.endExecute(ex);
@@ -288,6 +299,7 @@ public class ArrayElements<E> extends AbstractBaseElementsImpl<E> {
                     if (inversedEntries != null) {
                         inversedEntries.clear(null);
                     }
+                    this.hashIndexClear();
                 } else {
                     assert this.data != null;
                     Object[] oldData = this.data;
@@ -296,6 +308,11 @@ public class ArrayElements<E> extends AbstractBaseElementsImpl<E> {
                             inversedEntries.removeByKey(oldData[i], null);
                         }
                     }
+                    if (this.isHashIndexed()) {
+                        for (int i = this.allSize - subListTailHide - 1; i >= subListHeadHide; i--) {
+                            this.hashIndexRemove(oldData[i]);
+                        }
+                    }
                     int newCapacity = this.collapseCapacity(this.allSize - subListSize);
                     if (newCapacity != -1) {
                         Object[] newData = new Object[newCapacity];
@@ -379,6 +396,7 @@ public class ArrayElements<E> extends AbstractBaseElementsImpl<E> {
                 if (inversedEntries != null) {
                     inversedEntries.removeByKey(retval, null);
                 }
+                this.hashIndexRemove(retval);
                 this.allSize--;
                 this.modCount++;
                 if (trigger != null) {
@@ -527,6 +545,31 @@ public class ArrayElements<E> extends AbstractBaseElementsImpl<E> {
         return this.modCount;
     }
     
+    @SuppressWarnings("unchecked")
+    @Override
+    public void forEach(int subListHeadHide, int subListTailHide, Consumer<? super E> action) {
+        this.checkSubListRange(subListHeadHide, subListTailHide);
+        Arguments.mustNotBeNull("action", action);
+        Object[] data = this.data;
+        int expectedModCount = this.modCount;
+        int fence = this.allSize - subListTailHide;
+        for (int i = subListHeadHide; i < fence; i++) {
+            action.accept((E)data[i]);
+            if (expectedModCount != this.modCount) {
+                throw new ConcurrentModificationException(IteratorMessages.concurrentModifcation());
+            }
+        }
+    }
+    
+    @Override
+    public Spliterator<E> spliterator(int subListHeadHide, int subListTailHide) {
+        this.checkSubListRange(subListHeadHide, subListTailHide);
+        return this.new ElementSpliterator(
+                subListHeadHide, 
+                this.allSize - subListTailHide, 
+                this.modCount);
+    }
+    
     private int expandCapacity(int newSize) {
         int oldCapacity = this.data == null ? 0 : this.data.length;
         if (oldCapacity < newSize) {
@@ -589,6 +632,88 @@ public class ArrayElements<E> extends AbstractBaseElementsImpl<E> {
                     inversedEntries.put((E)data[i], null, null);
                 }
             }
+            if (this.isHashIndexed()) {
+                for (int i = 0; i < allSize; i++) {
+                    this.hashIndexAdd((E)data[i]);
+                }
+            }
+        }
+    }
+
+    private class ElementSpliterator implements Spliterator<E> {
+        
+        private int index;
+        
+        private int fence;
+        
+        private int expectedModCount;
+        
+        ElementSpliterator(int origin, int fence, int expectedModCount) {
+            this.index = origin;
+            this.fence = fence;
+            this.expectedModCount = expectedModCount;
+        }
+
+        @Override
+        public Spliterator<E> trySplit() {
+            int lo = this.index;
+            int mid = (lo + this.fence) >>> 1;
+            if (lo >= mid) {
+                return null;
+            }
+            this.index = mid;
+            return ArrayElements.this.new ElementSpliterator(lo, mid, this.expectedModCount);
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public boolean tryAdvance(Consumer<? super E> action) {
+            Arguments.mustNotBeNull("action", action);
+            int i = this.index;
+            if (i >= this.fence) {
+                return false;
+            }
+            if (this.expectedModCount != ArrayElements.this.modCount) {
+                throw new ConcurrentModificationException(IteratorMessages.concurrentModifcation());
+            }
+            this.index = i + 1;
+            action.accept((E)ArrayElements.this.data[i]);
+            if (this.expectedModCount != ArrayElements.this.modCount) {
+                throw new ConcurrentModificationException(IteratorMessages.concurrentModifcation());
+            }
+            return true;
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public void forEachRemaining(Consumer<? super E> action) {
+            Arguments.mustNotBeNull("action", action);
+            int i = this.index;
+            int hi = this.fence;
+            if (i >= hi) {
+                return;
+            }
+            if (this.expectedModCount != ArrayElements.this.modCount) {
+                throw new ConcurrentModificationException(IteratorMessages.concurrentModifcation());
+            }
+            Object[] data = ArrayElements.this.data;
+            this.index = hi;
+            for (; i < hi; i++) {
+                action.accept((E)data[i]);
+            }
+            if (this.expectedModCount != ArrayElements.this.modCount) {
+                throw new ConcurrentModificationException(IteratorMessages.concurrentModifcation());
+            }
+        }
+
+        @Override
+        public long estimateSize() {
+            return this.fence - this.index;
+        }
+
+        @Override
+        public int characteristics() {
+            return Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED;
         }
     }
 
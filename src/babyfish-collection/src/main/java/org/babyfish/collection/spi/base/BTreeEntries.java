@@ -0,0 +1,1269 @@
+/*
+ * BabyFish, Object Model Framework for Java and JPA.
+ * https://github.com/babyfish-ct/babyfish
+ *
+ * Copyright (c) 2008-2016, Tao Chen
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * Please visit "http://opensource.org/licenses/LGPL-3.0" to know more.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ */
+package org.babyfish.collection.spi.base;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+
+import org.babyfish.collection.BidiType;
+import org.babyfish.collection.FrozenComparator;
+import org.babyfish.collection.FrozenContext;
+import org.babyfish.collection.ReplacementRule;
+import org.babyfish.collection.UnifiedComparator;
+import org.babyfish.collection.spi.base.AbstractBaseEntriesImpl.Trigger.History;
+import org.babyfish.lang.Arguments;
+
+/**
+ * The B+tree implementation of {@link NavigableBaseEntries}.
+ * 
+ * <p>
+ * The entries are stored in the arrays of the leaves and the leaves are chained, 
+ * so the range scan reads the adjacent array elements instead of walking along 
+ * the parent/left/right references of {@link RedBlackTreeEntries}. Each branch 
+ * contains the first entry and the size of each child, so the positions of the 
+ * entries can be located in O(log(n)) too.
+ * </p>
+ * 
+ * <p>
+ * The entry objects are never copied or swapped, so this class supports 
+ * {@link BidiType}, {@link ReplacementRule} and {@link FrozenContext} 
+ * just like {@link RedBlackTreeEntries}.
+ * </p>
+ * 
+ * @author Tao Chen
+ */
+public class BTreeEntries<K, V> 
+extends AbstractRootBaseEntriesImpl<K, V> 
+implements NavigableBaseEntries<K, V> {
+
+    private static final long serialVersionUID = 4227961364395040437L;
+    
+    /*
+     * The max count of the entries of a leaf 
+     * and the max count of the children of a branch.
+     */
+    private static final int ORDER = 64;
+    
+    /*
+     * The node whose count is less than this value is merged 
+     * with its sibling if the merged count is not greater than MERGE_LIMIT.
+     */
+    private static final int MIN_COUNT = ORDER / 4;
+    
+    private static final int MERGE_LIMIT = ORDER * 3 / 4;
+    
+    private Node<K, V> root;
+    
+    private Leaf<K, V> firstLeaf;
+    
+    private Leaf<K, V> lastLeaf;
+    
+    private int size;
+
+    private int modCount;
+
+    public BTreeEntries(
+            BidiType bidiType,
+            ReplacementRule keyReplacementRule,
+            Comparator<? super K> comparator, 
+            Object valueComparatorOrEqualityComparatorOrUnifiedComparator) {
+        super(
+                bidiType,
+                keyReplacementRule, 
+                comparator, 
+                valueComparatorOrEqualityComparatorOrUnifiedComparator);
+    }
+    
+    @Override
+    public boolean isReadWriteLockSupported() {
+        return true;
+    }
+    
+    @Override
+    protected void deleteBaseEntry(BaseEntry<K, V> be) {
+        this.deleteBaseEntry0((BaseEntryImpl<K, V>)be);
+    }
+    
+    @Override
+    public final NavigableBaseEntries<K, V> descendingEntries() {
+        return this.new SubEntries(NavigableRange.descendingRange(this));
+    }
+
+    @Override
+    public final NavigableBaseEntries<K, V> subEntries(
+            boolean hasFrom, K from, boolean fromInclusive, 
+            boolean hasTo, K to, boolean toInclusive) {
+        return this.new SubEntries(
+                NavigableRange.subRange(
+                        this, 
+                        hasFrom, from, fromInclusive, 
+                        hasTo, to, toInclusive
+                )
+        );
+    }
+
+    @Override
+    public final int size() {
+        return this.size;
+    }
+    
+    @Override
+    public final boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    @Override
+    public final Comparator<? super K> comparator() {
+        return this.keyUnifiedComparator().comparator();
+    }
+
+    @Override
+    public NavigableRange<K> range() {
+        return null;
+    }
+    
+    @Override
+    public int modCount() {
+        return this.modCount;
+    }
+
+    @Override
+    public BaseEntryIterator<K, V> iterator() {
+        return this.new EntryIterator(this.first(), this.size, false);
+    }
+    
+    /*
+     * Visits the arrays of the leaves directly.
+     */
+    @Override
+    public void forEach(Consumer<? super BaseEntry<K, V>> action) {
+        Arguments.mustNotBeNull("action", action);
+        int expectedModCount = this.modCount;
+        for (Leaf<K, V> leaf = this.firstLeaf; leaf != null; leaf = leaf.next) {
+            BaseEntryImpl<K, V>[] entries = leaf.entries;
+            for (int i = 0; i < leaf.count; i++) {
+                action.accept(entries[i]);
+                if (expectedModCount != this.modCount) {
+                    throw new ConcurrentModificationException(IteratorMessages.concurrentModifcation());
+                }
+            }
+        }
+    }
+    
+    @SuppressWarnings("unchecked")
+    @Override
+    public final BaseEntryImpl<K, V> getBaseEntry(Object key) {
+        Comparator<? super K> comparator = this.keyUnifiedComparator().comparator();
+        if (comparator == null) {
+            Arguments.mustBeInstanceOfValue(
+                    "key", 
+                    Arguments.mustNotBeNull("key", key), //be compatible with JDK, throw NullPointerException 
+                    Comparable.class);
+        }
+        if (this.root == null) {
+            return null;
+        }
+        Leaf<K, V> leaf = this.leafOf((K)key, comparator);
+        int index = leaf.search((K)key, comparator);
+        return index >= 0 ? leaf.entries[index] : null;
+    }
+    
+    @Override
+    public final BaseEntry<K, V> pollFirst(BaseEntriesHandler<K, V> handler) {
+        return this.pollFirst(this.triggerOf(handler));
+    }
+    
+    @Override
+    public final BaseEntry<K, V> pollLast(BaseEntriesHandler<K, V> handler) {
+        return this.pollLast(this.triggerOf(handler));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    protected final V putWithoutTriggerFlushing(
+            K key, 
+            V value, 
+            AttachProcessor<K, V> attachProcessor) {
+        
+        boolean isKeyStrict = this.keyReplacementRule() == ReplacementRule.NEW_REFERENCE_WIN;
+        if (attachProcessor.beginExcute()) {
+            try {
+                Comparator<? super K> comparator = this.keyUnifiedComparator().comparator();
+                if (comparator == null) {
+                    Arguments.mustBeInstanceOfValue(
+                            "key", 
+                            Arguments.mustNotBeNull("key", key), //be compatible with JDK, throw NullPointerException 
+                            Comparable.class);
+                }
+                Leaf<K, V> leaf = null;
+                int index = -1;
+                if (this.root != null) {
+                    leaf = this.leafOf(key, comparator);
+                    index = leaf.search(key, comparator);
+                    if (index >= 0) {
+                        BaseEntryImpl<K, V> be = leaf.entries[index];
+                        if (isKeyStrict) {
+                            be.setRawKey(key, this.keyComparatorOrEqualityComparator());
+                        }
+                        V oldValue = be.value;
+                        be.value = value;
+                        BaseEntries<V, K> inversedEntries = this.inversedEntries();
+                        if (inversedEntries != null) {
+                            inversedEntries.removeByKey(oldValue, null);
+                            inversedEntries.put(value, be.key, null);
+                        }
+                        attachProcessor.endExecute(null);
+                        return oldValue;
+                    }
+                }
+                this.insertEntry(leaf, -index - 1, new BaseEntryImpl<K, V>(this, key, value));
+                BaseEntries<V, K> inversedEntries = this.inversedEntries();
+                if (inversedEntries != null) {
+                    inversedEntries.put(value, key, null);
+                }
+                attachProcessor.endExecute(null);
+                return null;
+            } catch (RuntimeException | Error ex) {
+                attachProcessor.endExecute(ex);
+            }
+        }
+        
+        return null;
+    }
+
+    @Override
+    protected void putAllWithoutTriggerFlushing(
+            Map<? extends K, ? extends V> m,
+            AttachProcessor<K, V> attachProcessor) {
+        
+        History<K, V> puttingHistory = attachProcessor.getPuttingHistory();
+        boolean isKeyStrict = this.keyReplacementRule() == ReplacementRule.NEW_REFERENCE_WIN;
+
+        if (m.size() == 1) {
+            Entry<? extends K, ? extends V> entry = m.entrySet().iterator().next();
+            this.putWithoutTriggerFlushing(entry.getKey(), entry.getValue(), attachProcessor);
+            return;
+        }
+
+        if (puttingHistory == null) {
+            if (attachProcessor.beginExcute()) {
+                try {
+                    for (Entry<? extends K, ? extends V> entry : m.entrySet()) {
+                        this.put(
+                                entry.getKey(), 
+                                entry.getValue(), 
+                                null,
+                                null
+                        );
+                    }
+                    attachProcessor.endExecute(null);
+                } catch (RuntimeException | Error ex) {
+                    attachProcessor.endExecute(ex);
+                }
+            }
+        } else {
+            if (attachProcessor.beginExcute()) {
+                int count = puttingHistory.getCount();
+                Object keyComparator = this.keyComparatorOrEqualityComparator();
+                try {
+                    for(int i = 0; i < count; i++) {
+                        BaseEntryImpl<K, V> be = (BaseEntryImpl<K, V>)puttingHistory.getBaseEntry(i);
+                        if (be == null) {
+                            this.put(
+                                    puttingHistory.getNewKey(i), 
+                                    puttingHistory.getNewValue(i), 
+                                    null,
+                                    null);
+                        } else {
+                            if (isKeyStrict) {
+                                be.setRawKey(puttingHistory.getNewKey(i), keyComparator);
+                            }
+                            V value = puttingHistory.getNewValue(i);
+                            V oldValue = be.value;
+                            be.value = value;
+                            BaseEntries<V, K> inversedEntries = this.inversedEntries();
+                            if (inversedEntries != null) {
+                                inversedEntries.removeByKey(oldValue, null);
+                                inversedEntries.put(value, be.key, null);
+                            }
+                        }
+                    }
+                    attachProcessor.endExecute(null);
+                } catch (RuntimeException | Error ex) {
+                    attachProcessor.endExecute(ex);
+                }
+            }
+        }
+    }
+    
+    @SuppressWarnings("unchecked")
+    @Override
+    protected boolean addAllWithoutTriggerFlushing(
+            Collection<? extends K> c, 
+            Trigger<K, V> trigger) {
+        
+        // In this method, inversedEntries always is null
+        
+        int cSize = c.size();
+        boolean isKeyStrict = this.keyReplacementRule() == ReplacementRule.NEW_REFERENCE_WIN;
+        
+        if (trigger == null) {
+            int oldSize = this.size;
+            for (K k : c) {
+                this.put(k, (V)PRESENT, (Trigger<K, V>)null, null);
+            }
+            return oldSize != this.size;
+        }
+
+        Iterator<?> iterator = c.iterator();
+        for (int i = 0; i < cSize; i++) {
+            K k = (K)iterator.next();
+            BaseEntryImpl<K, V> be = this.getBaseEntry(k);
+            if (be == null) {
+                trigger.preAdd(k, (V)PRESENT);
+            } else {
+                trigger.preChange(be, isKeyStrict ? k : be.key, (V)PRESENT);
+            }
+        }
+        
+        int oldSize = this.size;
+        if (trigger.beginExecute()) {
+            try {
+                History<K, V> history = trigger.getHistory(0);
+                Object keyComparator = this.keyComparatorOrEqualityComparator();
+                for (int i = 0; i < cSize; i++) {
+                    K k = history.getNewKey(i);
+                    BaseEntryImpl<K, V> be = (BaseEntryImpl<K, V>)history.getBaseEntry(i);
+                    if (be == null) {
+                        this.put(k, (V)PRESENT, (Trigger<K, V>)null, null);
+                    } else {
+                        if (isKeyStrict) {
+                            be.setRawKey(k, keyComparator);
+                        }
+                        be.value = (V)PRESENT;
+                    }
+                }
+                trigger.endExecute(null);
+            } catch (RuntimeException | Error ex) {
+                trigger.endExecute(ex);
+            }
+        }
+        trigger.flush();
+        return oldSize != this.size;
+    }
+
+    @Override
+    protected void clear(Trigger<K, V> trigger) {
+        if (trigger != null) {
+            BaseEntryIterator<K, V> iterator = this.iterator();
+            while (iterator.hasNext()) {
+                trigger.preRemove(iterator.next());
+            }
+        }
+        if (trigger == null) {
+            this.clear0();
+        } else if (trigger.beginExecute()) {
+            try {
+                this.clear0();
+                trigger.endExecute(null);
+            } catch (RuntimeException | Error ex) {
+                trigger.endExecute(ex);
+            }
+        }
+        if (trigger != null) {
+            trigger.flush();
+        }
+    }
+
+    protected BaseEntry<K, V> pollFirst(Trigger<K, V> trigger) {
+        return this.poll(this.first(), trigger);
+    }
+    
+    protected BaseEntry<K, V> pollLast(Trigger<K, V> trigger) {
+        return this.poll(this.last(), trigger);
+    }
+
+    @Override
+    public BaseEntryImpl<K, V> first() {
+        Leaf<K, V> leaf = this.firstLeaf;
+        return leaf == null ? null : leaf.entries[0];
+    }
+
+    @Override
+    public BaseEntryImpl<K, V> last() {
+        Leaf<K, V> leaf = this.lastLeaf;
+        return leaf == null ? null : leaf.entries[leaf.count - 1];
+    }
+
+    @Override
+    public final BaseEntryImpl<K, V> floor(K key) {
+        if (this.root == null) {
+            return null;
+        }
+        Comparator<? super K> comparator = this.comparator();
+        Leaf<K, V> leaf = this.leafOf(key, comparator);
+        int index = leaf.search(key, comparator);
+        return entryBefore(leaf, index >= 0 ? index : -index - 2);
+    }
+
+    @Override
+    public final BaseEntryImpl<K, V> ceiling(K key) {
+        if (this.root == null) {
+            return null;
+        }
+        Comparator<? super K> comparator = this.comparator();
+        Leaf<K, V> leaf = this.leafOf(key, comparator);
+        int index = leaf.search(key, comparator);
+        return entryAfter(leaf, index >= 0 ? index : -index - 1);
+    }
+
+    @Override
+    public final BaseEntryImpl<K, V> lower(K key) {
+        if (this.root == null) {
+            return null;
+        }
+        Comparator<? super K> comparator = this.comparator();
+        Leaf<K, V> leaf = this.leafOf(key, comparator);
+        int index = leaf.search(key, comparator);
+        return entryBefore(leaf, index >= 0 ? index - 1 : -index - 2);
+    }
+
+    @Override
+    public final BaseEntryImpl<K, V> higher(K key) {
+        if (this.root == null) {
+            return null;
+        }
+        Comparator<? super K> comparator = this.comparator();
+        Leaf<K, V> leaf = this.leafOf(key, comparator);
+        int index = leaf.search(key, comparator);
+        return entryAfter(leaf, index >= 0 ? index + 1 : -index - 1);
+    }
+
+    @Override
+    public BaseEntryImpl<K, V> entryAt(int index) {
+        Arguments.indexMustBetweenOther("index", index, "0", 0, true, "size()", this.size, false);
+        Node<K, V> node = this.root;
+        while (node instanceof Branch<?, ?>) {
+            Branch<K, V> branch = (Branch<K, V>)node;
+            int slot = 0;
+            while (index >= branch.sizes[slot]) {
+                index -= branch.sizes[slot++];
+            }
+            node = branch.children[slot];
+        }
+        return ((Leaf<K, V>)node).entries[index];
+    }
+
+    @Override
+    public int indexOf(K key) {
+        BaseEntryImpl<K, V> be = this.getBaseEntry(key);
+        return be == null ? -1 : rankOf(be);
+    }
+    
+    final void deleteBaseEntry0(BaseEntryImpl<K, V> p) {
+        Leaf<K, V> leaf = p.leaf;
+        if (p.owner != this || leaf == null) {
+            return;
+        }
+        int index = leaf.indexOf(p);
+        leaf.removeAt(index);
+        if (--this.size == 0) {
+            this.root = null;
+            this.firstLeaf = null;
+            this.lastLeaf = null;
+        } else {
+            addSizes(leaf, -1);
+            if (index == 0 && leaf.count != 0) {
+                refreshFirst(leaf);
+            }
+            this.rebalance(leaf);
+        }
+        this.modCount++;
+        p.recordRemove();
+        BaseEntries<V, K> inversedEntries = this.inversedEntries();
+        if (inversedEntries != null) {
+            inversedEntries.removeByKey(p.value, null);
+        }
+    }
+    
+    private BaseEntry<K, V> poll(BaseEntryImpl<K, V> be, Trigger<K, V> trigger) {
+        if (be != null) {
+            if (trigger != null) {
+                trigger.preRemove(be);
+                if (trigger.beginExecute()) {
+                    try {
+                        this.deleteBaseEntry0(be);
+                        trigger.endExecute(null);
+                    } catch (RuntimeException | Error ex) {
+                        trigger.endExecute(ex);
+                    }
+                }
+                trigger.flush();
+            } else {
+                this.deleteBaseEntry(be);
+            }
+        }
+        return be;
+    }
+    
+    private void clear0() {
+        for (Leaf<K, V> leaf = this.firstLeaf; leaf != null; leaf = leaf.next) {
+            for (int i = 0; i < leaf.count; i++) {
+                leaf.entries[i].recordRemove();
+            }
+        }
+        BaseEntries<V, K> inversedEntries = this.inversedEntries();
+        if (inversedEntries != null) {
+            inversedEntries.clear(null);
+        }
+        this.root = null;
+        this.firstLeaf = null;
+        this.lastLeaf = null;
+        this.size = 0;
+        this.modCount++;
+    }
+    
+    private Leaf<K, V> leafOf(K key, Comparator<? super K> comparator) {
+        Node<K, V> node = this.root;
+        while (node instanceof Branch<?, ?>) {
+            Branch<K, V> branch = (Branch<K, V>)node;
+            node = branch.children[branch.childIndexOf(key, comparator)];
+        }
+        return (Leaf<K, V>)node;
+    }
+    
+    /*
+     * The leaf is null when this tree is empty.
+     */
+    private void insertEntry(Leaf<K, V> leaf, int index, BaseEntryImpl<K, V> be) {
+        if (leaf == null) {
+            leaf = new Leaf<>();
+            this.root = this.firstLeaf = this.lastLeaf = leaf;
+            leaf.insertAt(0, be);
+        } else if (leaf.count < ORDER) {
+            leaf.insertAt(index, be);
+            addSizes(leaf, 1);
+            if (index == 0) {
+                refreshFirst(leaf);
+            }
+        } else {
+            this.addSibling(leaf, this.splitLeaf(leaf, index, be));
+            if (index == 0) {
+                refreshFirst(leaf);
+            }
+        }
+        this.size++;
+        this.modCount++;
+    }
+    
+    /*
+     * Inserts the new right sibling into the parent of the left node, 
+     * and the parent is split recursively if it is full.
+     */
+    private void addSibling(Node<K, V> left, Node<K, V> right) {
+        Branch<K, V> parent = left.parent;
+        if (parent == null) {
+            parent = new Branch<>();
+            parent.insertAt(0, left);
+            this.root = parent;
+        }
+        int index = parent.indexOf(left);
+        parent.sizes[index] = left.size();
+        if (parent.count < ORDER) {
+            parent.insertAt(index + 1, right);
+            addSizes(parent, 1);
+        } else {
+            this.addSibling(parent, splitBranch(parent, index + 1, right));
+        }
+    }
+    
+    /*
+     * When the entry is appended to the end, the left leaf is kept full 
+     * so that the sequential insertion does not leave half empty leaves.
+     */
+    @SuppressWarnings("unchecked")
+    private Leaf<K, V> splitLeaf(Leaf<K, V> leaf, int index, BaseEntryImpl<K, V> be) {
+        BaseEntryImpl<K, V>[] entries = new BaseEntryImpl[ORDER + 1];
+        System.arraycopy(leaf.entries, 0, entries, 0, index);
+        System.arraycopy(leaf.entries, index, entries, index + 1, ORDER - index);
+        entries[index] = be;
+        be.leaf = leaf;
+        int leftCount = index == ORDER ? ORDER : (ORDER + 1) >> 1;
+        Leaf<K, V> right = new Leaf<>();
+        System.arraycopy(entries, 0, leaf.entries, 0, leftCount);
+        Arrays.fill(leaf.entries, leftCount, ORDER, null);
+        for (int i = leftCount; i <= ORDER; i++) {
+            BaseEntryImpl<K, V> e = entries[i];
+            right.entries[i - leftCount] = e;
+            e.leaf = right;
+        }
+        leaf.count = leftCount;
+        right.count = ORDER + 1 - leftCount;
+        Leaf<K, V> next = leaf.next;
+        right.prev = leaf;
+        right.next = next;
+        if (next != null) {
+            next.prev = right;
+        } else {
+            this.lastLeaf = right;
+        }
+        leaf.next = right;
+        return right;
+    }
+    
+    @SuppressWarnings("unchecked")
+    private static <K, V> Branch<K, V> splitBranch(Branch<K, V> branch, int index, Node<K, V> child) {
+        Node<K, V>[] children = new Node[ORDER + 1];
+        System.arraycopy(branch.children, 0, children, 0, index);
+        System.arraycopy(branch.children, index, children, index + 1, ORDER - index);
+        children[index] = child;
+        int leftCount = index == ORDER ? ORDER : (ORDER + 1) >> 1;
+        Branch<K, V> right = new Branch<>();
+        int[] sizes = new int[ORDER + 1];
+        System.arraycopy(branch.sizes, 0, sizes, 0, index);
+        System.arraycopy(branch.sizes, index, sizes, index + 1, ORDER - index);
+        sizes[index] = child.size();
+        branch.count = 0;
+        for (int i = 0; i < leftCount; i++) {
+            branch.children[i] = children[i];
+            branch.firsts[i] = children[i].first();
+            branch.sizes[i] = sizes[i];
+            children[i].parent = branch;
+        }
+        Arrays.fill(branch.children, leftCount, ORDER, null);
+        Arrays.fill(branch.firsts, leftCount, ORDER, null);
+        branch.count = leftCount;
+        for (int i = leftCount; i <= ORDER; i++) {
+            int j = i - leftCount;
+            right.children[j] = children[i];
+            right.firsts[j] = children[i].first();
+            right.sizes[j] = sizes[i];
+            children[i].parent = right;
+        }
+        right.count = ORDER + 1 - leftCount;
+        return right;
+    }
+    
+    /*
+     * Removes the empty nodes, merges the small nodes with their siblings 
+     * and reduces the height if the root branch has only one child.
+     */
+    private void rebalance(Node<K, V> node) {
+        Branch<K, V> parent;
+        while ((parent = node.parent) != null) {
+            int index = parent.indexOf(node);
+            if (node.count == 0) {
+                this.unlink(node);
+                parent.removeAt(index);
+                if (index == 0 && parent.count != 0) {
+                    refreshFirst(parent);
+                }
+            } else if (node.count < MIN_COUNT) {
+                if (index + 1 < parent.count && 
+                        node.count + parent.children[index + 1].count <= MERGE_LIMIT) {
+                    this.merge(parent, index);
+                } else if (index > 0 && 
+                        parent.children[index - 1].count + node.count <= MERGE_LIMIT) {
+                    this.merge(parent, index - 1);
+                } else {
+                    break;
+                }
+            } else {
+                break;
+            }
+            node = parent;
+        }
+        while (this.root instanceof Branch<?, ?> && this.root.count == 1) {
+            Node<K, V> child = ((Branch<K, V>)this.root).children[0];
+            child.parent = null;
+            this.root = child;
+        }
+    }
+    
+    /*
+     * Moves the child at index + 1 into the child at index.
+     */
+    private void merge(Branch<K, V> parent, int index) {
+        Node<K, V> left = parent.children[index];
+        Node<K, V> right = parent.children[index + 1];
+        int leftCount = left.count;
+        int rightCount = right.count;
+        if (left instanceof Leaf<?, ?>) {
+            Leaf<K, V> leftLeaf = (Leaf<K, V>)left;
+            Leaf<K, V> rightLeaf = (Leaf<K, V>)right;
+            for (int i = 0; i < rightCount; i++) {
+                BaseEntryImpl<K, V> e = rightLeaf.entries[i];
+                leftLeaf.entries[leftCount + i] = e;
+                e.leaf = leftLeaf;
+            }
+            Arrays.fill(rightLeaf.entries, 0, rightCount, null);
+            this.unlink(rightLeaf);
+        } else {
+            Branch<K, V> leftBranch = (Branch<K, V>)left;
+            Branch<K, V> rightBranch = (Branch<K, V>)right;
+            for (int i = 0; i < rightCount; i++) {
+                Node<K, V> child = rightBranch.children[i];
+                leftBranch.children[leftCount + i] = child;
+                leftBranch.firsts[leftCount + i] = rightBranch.firsts[i];
+                leftBranch.sizes[leftCount + i] = rightBranch.sizes[i];
+                child.parent = leftBranch;
+            }
+            Arrays.fill(rightBranch.children, 0, rightCount, null);
+            Arrays.fill(rightBranch.firsts, 0, rightCount, null);
+        }
+        left.count = leftCount + rightCount;
+        right.count = 0;
+        parent.sizes[index] += parent.sizes[index + 1];
+        parent.removeAt(index + 1);
+    }
+    
+    private void unlink(Node<K, V> node) {
+        if (node instanceof Leaf<?, ?>) {
+            Leaf<K, V> leaf = (Leaf<K, V>)node;
+            Leaf<K, V> prev = leaf.prev;
+            Leaf<K, V> next = leaf.next;
+            if (prev != null) {
+                prev.next = next;
+            } else {
+                this.firstLeaf = next;
+            }
+            if (next != null) {
+                next.prev = prev;
+            } else {
+                this.lastLeaf = prev;
+            }
+            leaf.prev = null;
+            leaf.next = null;
+        }
+    }
+    
+    private static <K, V> void addSizes(Node<K, V> node, int delta) {
+        for (Branch<K, V> parent = node.parent; parent != null; node = parent, parent = parent.parent) {
+            parent.sizes[parent.indexOf(node)] += delta;
+        }
+    }
+    
+    private static <K, V> void refreshFirst(Node<K, V> node) {
+        for (Branch<K, V> parent = node.parent; parent != null; node = parent, parent = parent.parent) {
+            int index = parent.indexOf(node);
+            parent.firsts[index] = node.first();
+            if (index != 0) {
+                break;
+            }
+        }
+    }
+    
+    private static <K, V> int rankOf(BaseEntryImpl<K, V> be) {
+        Node<K, V> node = be.leaf;
+        int rank = be.leaf.indexOf(be);
+        for (Branch<K, V> parent = node.parent; parent != null; node = parent, parent = parent.parent) {
+            int[] sizes = parent.sizes;
+            for (int i = parent.indexOf(node) - 1; i >= 0; i--) {
+                rank += sizes[i];
+            }
+        }
+        return rank;
+    }
+    
+    private static <K, V> BaseEntryImpl<K, V> entryBefore(Leaf<K, V> leaf, int index) {
+        if (index < 0) {
+            leaf = leaf.prev;
+            if (leaf == null) {
+                return null;
+            }
+            index = leaf.count - 1;
+        }
+        return leaf.entries[index];
+    }
+    
+    private static <K, V> BaseEntryImpl<K, V> entryAfter(Leaf<K, V> leaf, int index) {
+        if (index >= leaf.count) {
+            leaf = leaf.next;
+            if (leaf == null) {
+                return null;
+            }
+            index = 0;
+        }
+        return leaf.entries[index];
+    }
+    
+    @SuppressWarnings("unchecked")
+    private static <K> int compare(Comparator<? super K> comparator, K k1, K k2) {
+        if (comparator != null) {
+            return comparator.compare(k1, k2);
+        }
+        return ((Comparable<? super K>)k1).compareTo(k2);
+    }
+    
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        out.writeInt(this.size);
+        boolean transientValue = this instanceof TransientValueEntries;
+        for (Leaf<K, V> leaf = this.firstLeaf; leaf != null; leaf = leaf.next) {
+            for (int i = 0; i < leaf.count; i++) {
+                BaseEntryImpl<K, V> be = leaf.entries[i];
+                out.writeObject(be.key);
+                if (!transientValue) {
+                    out.writeObject(be.value);
+                }
+            }
+        }
+    }
+
+    /*
+     * The keys are sorted, so each entry is appended to the last leaf
+     * and the leaves are kept full.
+     */
+    @SuppressWarnings("unchecked")
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        int size = in.readInt();
+        boolean transientValue = this instanceof TransientValueEntries;
+        BaseEntries<V, K> inversedEntries = this.inversedEntries();
+        for (int i = 0; i < size; i++) {
+            K key = (K)in.readObject();
+            V value = transientValue ? (V)PRESENT : (V)in.readObject();
+            Leaf<K, V> lastLeaf = this.lastLeaf;
+            this.insertEntry(
+                    lastLeaf, 
+                    lastLeaf == null ? 0 : lastLeaf.count, 
+                    new BaseEntryImpl<K, V>(this, key, value));
+            if (inversedEntries != null) {
+                inversedEntries.put(value, key, null);
+            }
+        }
+    }
+    
+    private class SubEntries extends NavigableSubEntries<K, V> {
+
+        SubEntries(NavigableRange<K> range) {
+            super(range);
+        }
+
+        @Override
+        protected AbstractBaseEntriesImpl<K, V> getParent() {
+            return BTreeEntries.this;
+        }
+
+        @Override
+        protected NavigableSubEntries<K, V> createSubEntries(NavigableRange<K> range) {
+            return BTreeEntries.this.new SubEntries(range);
+        }
+
+        @Override
+        protected BaseEntryIterator<K, V> iterator(BaseEntry<K, V> first, int count, boolean descending) {
+            return BTreeEntries.this.new EntryIterator(first, count, descending);
+        }
+    }
+    
+    /*
+     * The position of the next entry is cached, it is located again by 
+     * the next entry itself when the removal of this iterator has moved it.
+     */
+    private class EntryIterator implements BaseEntryIterator<K, V> {
+        
+        private final boolean descending;
+        
+        private Leaf<K, V> leaf;
+        
+        private int index;
+        
+        private BaseEntryImpl<K, V> next;
+        
+        private int remaining;
+        
+        private BaseEntryImpl<K, V> lastReturned;
+        
+        private int expectedModCount;
+        
+        EntryIterator(BaseEntry<K, V> first, int count, boolean descending) {
+            if (first != null && count > 0) {
+                BaseEntryImpl<K, V> be = (BaseEntryImpl<K, V>)first;
+                this.next = be;
+                this.leaf = be.leaf;
+                this.index = be.leaf.indexOf(be);
+                this.remaining = count;
+            }
+            this.descending = descending;
+            this.expectedModCount = BTreeEntries.this.modCount;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.remaining > 0;
+        }
+
+        @Override
+        public BaseEntry<K, V> next() {
+            if (this.expectedModCount != BTreeEntries.this.modCount) {
+                throw new ConcurrentModificationException(IteratorMessages.concurrentModifcation());
+            }
+            if (this.remaining == 0) {
+                throw new NoSuchElementException(IteratorMessages.noSuchElement());
+            }
+            BaseEntryImpl<K, V> be = this.next;
+            Leaf<K, V> leaf = this.leaf;
+            int index = this.index;
+            if (leaf.entries[index] != be) {
+                leaf = be.leaf;
+                index = leaf.indexOf(be);
+            }
+            if (--this.remaining != 0) {
+                if (!this.descending) {
+                    if (++index == leaf.count) {
+                        leaf = leaf.next;
+                        index = 0;
+                    }
+                } else if (--index < 0) {
+                    leaf = leaf.prev;
+                    index = leaf.count - 1;
+                }
+                this.next = leaf.entries[index];
+            } else {
+                this.next = null;
+            }
+            this.leaf = leaf;
+            this.index = index;
+            return this.lastReturned = be;
+        }
+
+        @Override
+        public void remove(BaseEntriesHandler<K, V> handler) {
+            BTreeEntries<K, V> owner = BTreeEntries.this;
+            if (this.expectedModCount != owner.modCount) {
+                throw new ConcurrentModificationException(IteratorMessages.concurrentModifcation());
+            }
+            BaseEntryImpl<K, V> be = this.lastReturned;
+            if (be == null) {
+                throw new IllegalStateException(IteratorMessages.removeNoExtractedElement());
+            }
+            Trigger<K, V> trigger = owner.triggerOf(handler);
+            if (trigger != null) {
+                trigger.preRemove(be);
+            }
+            if (trigger == null || trigger.beginExecute()) {
+                try {
+                    owner.deleteBaseEntry0(be);
+                    this.expectedModCount = owner.modCount;
+                    this.lastReturned = null;
+                    if (trigger != null) {
+                        trigger.endExecute(null);
+                    }
+                } catch (RuntimeException | Error ex) {
+                    if (trigger == null) {
+                        throw ex;
+                    }
+                    trigger.endExecute(ex);
+                }
+            }
+            if (trigger != null) {
+                trigger.flush();
+            }
+        }
+    }
+    
+    private static abstract class Node<K, V> {
+        
+        Branch<K, V> parent;
+        
+        int count;
+        
+        abstract BaseEntryImpl<K, V> first();
+        
+        abstract int size();
+    }
+    
+    private static final class Leaf<K, V> extends Node<K, V> {
+        
+        @SuppressWarnings("unchecked")
+        final BaseEntryImpl<K, V>[] entries = new BaseEntryImpl[ORDER];
+        
+        Leaf<K, V> prev;
+        
+        Leaf<K, V> next;
+
+        @Override
+        BaseEntryImpl<K, V> first() {
+            return this.entries[0];
+        }
+
+        @Override
+        int size() {
+            return this.count;
+        }
+        
+        void insertAt(int index, BaseEntryImpl<K, V> be) {
+            System.arraycopy(this.entries, index, this.entries, index + 1, this.count - index);
+            this.entries[index] = be;
+            be.leaf = this;
+            this.count++;
+        }
+        
+        void removeAt(int index) {
+            System.arraycopy(this.entries, index + 1, this.entries, index, this.count - index - 1);
+            this.entries[--this.count] = null;
+        }
+        
+        int indexOf(BaseEntryImpl<K, V> be) {
+            BaseEntryImpl<K, V>[] entries = this.entries;
+            for (int i = this.count - 1; i >= 0; i--) {
+                if (entries[i] == be) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+        
+        /*
+         * Returns the index of the key if it is found,
+         * otherwise, returns -(insertion point) - 1.
+         */
+        int search(K key, Comparator<? super K> comparator) {
+            BaseEntryImpl<K, V>[] entries = this.entries;
+            int low = 0;
+            int high = this.count - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                int cmp = compare(comparator, key, entries[mid].key);
+                if (cmp > 0) {
+                    low = mid + 1;
+                } else if (cmp < 0) {
+                    high = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -(low + 1);
+        }
+    }
+    
+    /*
+     * The first entries of the children are used as the separators, 
+     * they are always in this tree so that their keys are not changed 
+     * by the FrozenContext.
+     */
+    private static final class Branch<K, V> extends Node<K, V> {
+        
+        @SuppressWarnings("unchecked")
+        final Node<K, V>[] children = new Node[ORDER];
+        
+        @SuppressWarnings("unchecked")
+        final BaseEntryImpl<K, V>[] firsts = new BaseEntryImpl[ORDER];
+        
+        final int[] sizes = new int[ORDER];
+
+        @Override
+        BaseEntryImpl<K, V> first() {
+            return this.firsts[0];
+        }
+
+        @Override
+        int size() {
+            int size = 0;
+            int[] sizes = this.sizes;
+            for (int i = this.count - 1; i >= 0; i--) {
+                size += sizes[i];
+            }
+            return size;
+        }
+        
+        void insertAt(int index, Node<K, V> child) {
+            int moved = this.count - index;
+            System.arraycopy(this.children, index, this.children, index + 1, moved);
+            System.arraycopy(this.firsts, index, this.firsts, index + 1, moved);
+            System.arraycopy(this.sizes, index, this.sizes, index + 1, moved);
+            this.children[index] = child;
+            this.firsts[index] = child.first();
+            this.sizes[index] = child.size();
+            child.parent = this;
+            this.count++;
+        }
+        
+        void removeAt(int index) {
+            int moved = this.count - index - 1;
+            System.arraycopy(this.children, index + 1, this.children, index, moved);
+            System.arraycopy(this.firsts, index + 1, this.firsts, index, moved);
+            System.arraycopy(this.sizes, index + 1, this.sizes, index, moved);
+            this.count--;
+            this.children[this.count] = null;
+            this.firsts[this.count] = null;
+        }
+        
+        int indexOf(Node<K, V> child) {
+            Node<K, V>[] children = this.children;
+            for (int i = this.count - 1; i >= 0; i--) {
+                if (children[i] == child) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+        
+        /*
+         * Returns the last child whose first key is not greater than the key.
+         */
+        int childIndexOf(K key, Comparator<? super K> comparator) {
+            BaseEntryImpl<K, V>[] firsts = this.firsts;
+            int low = 1;
+            int high = this.count - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                if (compare(comparator, key, firsts[mid].key) >= 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            return low - 1;
+        }
+    }
+
+    static class BaseEntryImpl<K, V> extends AbstractBaseEntryImpl<K, V> {
+        
+        /**
+         * It is null after this object has be deleted from the BTreeEntries.
+         */
+        BTreeEntries<K, V> owner;
+        
+        /*
+         * The entry object is never copied or swapped,
+         * only this reference is changed when the leaves are split or merged.
+         */
+        private Leaf<K, V> leaf;
+        
+        private K key;
+    
+        private V value;
+        
+        private UnifiedComparator<? super Entry<K, V>> unifiedComparator;
+    
+        @SuppressWarnings({ "unchecked", "rawtypes" })
+        BaseEntryImpl(BTreeEntries<K, V> owner, K key, V value) {
+            if (key != null) {
+                Object keyComparator = owner.keyComparatorOrEqualityComparator();
+                if (keyComparator instanceof FrozenComparator<?>) {
+                    FrozenComparator<? super K> frozenComparator =
+                            (FrozenComparator<? super K>)keyComparator;
+                    frozenComparator.freeze(key, (FrozenContext)FrozenContext.create(owner));
+                }
+                this.key = key;
+            }
+            this.owner = owner;
+            this.value = value;
+            this.unifiedComparator = owner.entryUnifiedComparator();
+        }
+        
+        @Override
+        public boolean isNonFairLockSupported() {
+            return true;
+        }
+        
+        @Override
+        public AbstractBaseEntriesImpl<K, V> getOwner() {
+            return this.owner;
+        }
+        
+        @Override
+        public final K getKey() {
+            return this.key;
+        }
+        
+        @Override
+        public final V getValue() {
+            return this.value;
+        }
+        
+        @Override
+        protected void setRawValue(V value) {
+            this.value = value;
+        }
+        
+        @Override
+        protected UnifiedComparator<? super Entry<K, V>> unifiedComparator() {
+            return this.unifiedComparator;
+        }
+    
+        @SuppressWarnings({ "unchecked", "rawtypes" })
+        void recordRemove() {
+            BTreeEntries<K, V> owner = this.owner;
+            K oldKey = this.key;
+            this.owner = null;
+            this.leaf = null;
+            if (oldKey != null) {
+                Object keyComparator = 
+                        owner.keyComparatorOrEqualityComparator();
+                if (keyComparator instanceof FrozenComparator<?>) {
+                    FrozenComparator<? super K> frozenComparator =
+                            (FrozenComparator<? super K>)keyComparator;
+                    frozenComparator.unfreeze(
+                            oldKey, 
+                            (FrozenContext)FrozenContext.create(owner));
+                }
+            }
+        }
+
+        /*
+         * The parameter is owner.keyComparatorOrEqualityComparator(), 
+         * please see the same method of RedBlackTreeEntries.BaseEntryImpl.
+         */
+        @SuppressWarnings({ "unchecked", "rawtypes" })
+        private void setRawKey(K key, Object comparator) {
+            K oldKey = this.key;
+            if (oldKey != key) {
+                if (comparator instanceof FrozenComparator<?>) {
+                    FrozenContext frozenContext = FrozenContext.create(this.owner);
+                    FrozenComparator<? super K> frozenComparator =
+                            (FrozenComparator<? super K>)comparator;
+                    if (key != null) {
+                        frozenComparator.freeze(key, frozenContext);
+                    }
+                    this.key = key;
+                    if (oldKey != null) {
+                        frozenComparator.unfreeze(oldKey, frozenContext);
+                    }
+                } else {
+                    this.key = key;
+                }
+            }
+        }
+    }
+    
+    public static class TransientValue<K, V> extends BTreeEntries<K, V> implements TransientValueEntries {
+
+        private static final long serialVersionUID = 6127036937418811254L;
+
+        public TransientValue(
+                ReplacementRule keyReplacementRule,
+                Comparator<? super K> comparator,
+                Object valueComparatorOrEqualityComparatorOrUnifiedComparator) {
+            super(
+                    BidiType.NONE,
+                    keyReplacementRule, 
+                    comparator,
+                    valueComparatorOrEqualityComparatorOrUnifiedComparator);
+        }
+    }
+}
@@ -18,6 +18,8 @@
 package org.babyfish.collection.spi.base;
 
 import java.util.Collection;
+import java.util.Spliterator;
+import java.util.function.Consumer;
 
 import org.babyfish.collection.BidiType;
 import org.babyfish.collection.UnifiedComparator;
@@ -32,6 +34,20 @@ public interface BaseElements<E> extends BaseContainer {
     
     BidiType bidiType();
     
+    /**
+     * Enables the hash index keyed by {@link #unifiedComparator()}, after this,
+     * {@link #contains(int, int, Object)}, {@link #indexOf(int, int, Object)},
+     * {@link #lastIndexOf(int, int, Object)} and {@link #remove(int, int, Object, BaseElementsHandler)}
+     * return immediately for the elements which are not contained by the elements
+     * and contains of the whole list becomes O(1) expected.
+     * 
+     * <p>Nothing will be done if the {@link #bidiType()} is not {@link BidiType#NONE}
+     * because the bidi elements are always indexed.</p>
+     */
+    void initHashIndex();
+    
+    boolean isHashIndexed();
+    
     UnifiedComparator<? super E> unifiedComparator();
     
     boolean randomAccess();
@@ -91,4 +107,18 @@ public interface BaseElements<E> extends BaseContainer {
             int subListTailHide, 
             int index, 
             BaseElementsConflictHandler rangeChangeHandler);
+    
+    /**
+     * Performs the action for each element of the sub list without 
+     * creating the iterator.
+     * 
+     * @exception java.util.ConcurrentModificationException 
+     * This object is modified by the action
+     */
+    void forEach(int subListHeadHide, int subListTailHide, Consumer<? super E> action);
+    
+    /**
+     * @return The fail-fast and ordered spliterator of the sub list.
+     */
+    Spliterator<E> spliterator(int subListHeadHide, int subListTailHide);
 }
@@ -18,8 +18,11 @@
 package org.babyfish.collection.spi.base;
 
 import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Spliterator;
+import java.util.function.Consumer;
 
 import org.babyfish.collection.BidiType;
 import org.babyfish.collection.ReplacementRule;
@@ -110,5 +113,45 @@ public interface BaseEntries<K, V> extends BaseContainer {
     
     void resumeViaFronzeContext(FrozenContextSuspending<K, V> suspending);
     
+    /**
+     * Suspends the frozen key without deleting its entry and without raising any event,
+     * it is the faster alternative of {@link #suspendViaFrozenContext(Object)}.
+     * 
+     * @param key The frozen key whose data will be changed.
+     * @return The detached entry which must be passed to 
+     * {@link #resumeInPlaceViaFrozenContext(BaseEntry)} after the key is changed, 
+     * or null if the key does not exist or this optimization is unavailable because 
+     * the modifications are observed, the entries are bidirectional or the storage 
+     * does not support it, the caller should use {@link #suspendViaFrozenContext(Object)} 
+     * in that case.
+     */
+    BaseEntry<K, V> suspendInPlaceViaFrozenContext(K key);
+    
+    void resumeInPlaceViaFrozenContext(BaseEntry<K, V> be);
+    
+    /**
+     * Resumes several entries returned by {@link #suspendInPlaceViaFrozenContext(Object)}
+     * together, it is used by {@link org.babyfish.collection.FrozenContext#batch(Runnable)}
+     * so that the storage can re-index them by one pass.
+     * 
+     * @param bes The detached entries.
+     */
+    void resumeAllInPlaceViaFrozenContext(List<BaseEntry<K, V>> bes);
+    
     BaseEntryIterator<K, V> iterator();
+    
+    /**
+     * Performs the action for each entry in the iteration order without 
+     * creating the iterator.
+     * 
+     * @exception java.util.ConcurrentModificationException 
+     * This object is modified by the action
+     */
+    void forEach(Consumer<? super BaseEntry<K, V>> action);
+    
+    /**
+     * @return The fail-fast spliterator of the entries, 
+     * it can be split when this object is not ordered.
+     */
+    Spliterator<BaseEntry<K, V>> spliterator();
 }
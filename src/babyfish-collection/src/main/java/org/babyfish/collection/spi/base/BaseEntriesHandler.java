@@ -61,4 +61,19 @@ public interface BaseEntriesHandler<K, V> {
     default void setPreThrowable(Object argument, Throwable throwable) {}
     
     default void setNullOrThrowable(Throwable nullOrThrowable) {}
+    
+    /**
+     * Invoked once after all the elements of a modification have been 
+     * passed to the adding, changing or removing methods and before
+     * the modification is executed. Throwing an exception here cancels
+     * the modification, like the exception thrown by those methods.
+     */
+    default void batchModifying() {}
+    
+    /**
+     * Invoked once after all the elements of a modification have been 
+     * passed to the added, changed or removed methods, only when 
+     * {@link #batchModifying()} has been invoked.
+     */
+    default void batchModified() {}
 }
@@ -18,9 +18,33 @@
 package org.babyfish.collection.spi.base;
 
 import java.io.Serializable;
+import java.util.function.Supplier;
+
+import org.babyfish.collection.EvictionPolicy;
 
 public interface BaseEntriesSpecialHandlerFactory<K, V> extends Serializable {
 
+    /**
+     * @return Whether the handlers created by this factory must be used, 
+     * the base entries can take the faster ways which raise no event 
+     * if it returns false.
+     */
+    default boolean isModificationObservable() {
+        return true;
+    }
+    
+
+    /**
+     * Executes the suspending or resuming of a frozen key which is triggered by 
+     * the {@link org.babyfish.collection.FrozenContext} rather than by the 
+     * owner of the base entries. The owner which guards its base entries 
+     * by a lock should override this method to execute the action under 
+     * the same lock as its own modifications.
+     */
+    default <R> R executeViaFrozenContext(Supplier<R> action) {
+        return action.get();
+    }
+    
     default BaseEntriesHandler<K, V> createSuspendingHandler(K key) {
         return null;
     }
@@ -36,4 +60,8 @@ public interface BaseEntriesSpecialHandlerFactory<K, V> extends Serializable {
     default BaseEntriesHandler<K, V> createInversedResumingHandler() {
         return null;
     }
+    
+    default BaseEntriesHandler<K, V> createEvictingHandler(K key, EvictionPolicy evictionPolicy) {
+        return null;
+    }
 }
@@ -0,0 +1,78 @@
+/*
+ * BabyFish, Object Model Framework for Java and JPA.
+ * https://github.com/babyfish-ct/babyfish
+ *
+ * Copyright (c) 2008-2016, Tao Chen
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * Please visit "http://opensource.org/licenses/LGPL-3.0" to know more.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ */
+package org.babyfish.collection.spi.base;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+
+/**
+ * Releases the memory of the direct buffers and the mapped buffers
+ * without waiting for the garbage collector.
+ * 
+ * @author Tao Chen
+ */
+final class DirectBuffers {
+    
+    private static final Releaser RELEASER = createReleaser();
+
+    private DirectBuffers() {
+        throw new UnsupportedOperationException();
+    }
+    
+    /*
+     * If the memory can not be released immediately,
+     * it will be released by the garbage collector later.
+     * The buffer must not be used after this method is called.
+     */
+    static void release(ByteBuffer buffer) {
+        if (buffer != null && buffer.isDirect()) {
+            try {
+                RELEASER.release(buffer);
+            } catch (ReflectiveOperationException | RuntimeException ex) {
+            }
+        }
+    }
+    
+    private static Releaser createReleaser() {
+        try {
+            // Java 9+
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Method invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+            Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+            theUnsafe.setAccessible(true);
+            Object unsafe = theUnsafe.get(null);
+            return buffer -> invokeCleaner.invoke(unsafe, buffer);
+        } catch (ReflectiveOperationException | RuntimeException ex) {
+            // Java 8
+            return buffer -> {
+                Method cleanerMethod = buffer.getClass().getMethod("cleaner");
+                cleanerMethod.setAccessible(true);
+                Object cleaner = cleanerMethod.invoke(buffer);
+                if (cleaner != null) {
+                    cleaner.getClass().getMethod("clean").invoke(cleaner);
+                }
+            };
+        }
+    }
+    
+    @FunctionalInterface
+    private interface Releaser {
+        void release(ByteBuffer buffer) throws ReflectiveOperationException;
+    }
+}
@@ -21,10 +21,13 @@ import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.util.Collection;
+import java.util.Comparator;
 import java.util.ConcurrentModificationException;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.function.Consumer;
 
 import org.babyfish.collection.BidiType;
 import org.babyfish.collection.EqualityComparator;
@@ -38,7 +41,9 @@ import org.babyfish.lang.Arguments;
 /**
  * @author Tao Chen
  */
-public class HashEntries<K, V> extends AbstractRootBaseEntriesImpl<K, V> implements BaseEntries<K, V> {
+public class HashEntries<K, V> 
+extends AbstractRootBaseEntriesImpl<K, V> 
+implements OptimisticReadableBaseEntries<K, V> {
     
     private static final long serialVersionUID = 8630263080651900905L;
     
@@ -46,7 +51,50 @@ public class HashEntries<K, V> extends AbstractRootBaseEntriesImpl<K, V> impleme
     
     private static final int MAX_CAPACITY = 1 << 30;
     
+    /*
+     * When the chain of a bucket reaches this length, 
+     * a balanced tree is created to index that bucket.
+     */
+    private static final int TREEIFY_THRESHOLD = 8;
+    
+    private static final int UNTREEIFY_THRESHOLD = 6;
+    
+    /*
+     * If the capacity is smaller than this, scaling up the hash table 
+     * is better than treeifying the buckets, unless the loadFactor is null.
+     */
+    private static final int MIN_TREEIFY_CAPACITY = 64;
+    
+    private static final Comparator<Object> NATURAL_ORDER = new Comparator<Object>() {
+        @SuppressWarnings({ "unchecked", "rawtypes" })
+        @Override
+        public int compare(Object k1, Object k2) {
+            boolean comparable1 = k1 instanceof Comparable<?>;
+            boolean comparable2 = k2 instanceof Comparable<?>;
+            if (comparable1 != comparable2) {
+                return comparable1 ? -1 : +1;
+            }
+            if (!comparable1) {
+                return 0;
+            }
+            Class<?> type1 = k1.getClass();
+            Class<?> type2 = k2.getClass();
+            if (type1 != type2) {
+                return type1.getName().compareTo(type2.getName());
+            }
+            return ((Comparable)k1).compareTo(k2);
+        }
+    };
+    
     private BaseEntryImpl<K, V>[] buckets;
+    
+    /*
+     * The balanced trees of the buckets whose chains are too long,
+     * it is null if no bucket is treeified.
+     */
+    private BucketTree<K, V>[] trees;
+    
+    private int treeifiedBucketCount;
 
     private int size;
     
@@ -111,6 +159,16 @@ public class HashEntries<K, V> extends AbstractRootBaseEntriesImpl<K, V> impleme
         return (EqualityComparator<? super K>)this.keyComparatorOrEqualityComparator();
     }
     
+    /**
+     * Returns how many buckets are indexed by balanced trees 
+     * because too many keys are put into them. 
+     * If it is not zero, the hash function of the keys 
+     * (or the {@link EqualityComparator} of this entries) is poor.
+     */
+    public int treeifiedBucketCount() {
+        return this.treeifiedBucketCount;
+    }
+    
     @SuppressWarnings("unchecked")
     @Override
     public final BaseEntryImpl<K, V> getBaseEntry(Object key) {
@@ -124,12 +182,28 @@ public class HashEntries<K, V> extends AbstractRootBaseEntriesImpl<K, V> impleme
             return null;
         }
         UnifiedComparator<? super K> keyUnifiedComparator = this.keyUnifiedComparator();
-        int hash = hash(keyUnifiedComparator.hashCode((K)key));
-        int bucketIndex = (buckets.length - 1) & hash;
-        for (BaseEntryImpl<K, V> e = buckets[bucketIndex]; e != null; e = e.next) {
+        return this.getBaseEntry(
+                hash(keyUnifiedComparator.hashCode((K)key)), 
+                (K)key, 
+                keyUnifiedComparator);
+    }
+    
+    private BaseEntryImpl<K, V> getBaseEntry(
+            int hash, 
+            K key, 
+            UnifiedComparator<? super K> keyUnifiedComparator) {
+        int bucketIndex = (this.buckets.length - 1) & hash;
+        BucketTree<K, V>[] trees = this.trees;
+        if (trees != null) {
+            BucketTree<K, V> tree = trees[bucketIndex];
+            if (tree != null) {
+                return tree.find(hash, key, keyUnifiedComparator);
+            }
+        }
+        for (BaseEntryImpl<K, V> e = this.buckets[bucketIndex]; e != null; e = e.next) {
             if (e.hash == hash) {
                 K k = e.key;
-                if (keyUnifiedComparator.equals((K)key, k)) { 
+                if (keyUnifiedComparator.equals(key, k)) { 
                     return e;
                 }
             }
@@ -137,6 +211,39 @@ public class HashEntries<K, V> extends AbstractRootBaseEntriesImpl<K, V> impleme
         return null;
     }
     
+    /*
+     * The trees of the buckets are ignored because their rotations are not 
+     * safe for the reader without lock, the chain is always complete.
+     * The chain can be reversed by the transfer of another thread, so the 
+     * traversal is limited by the size to avoid the dead loop.
+     */
+    @SuppressWarnings("unchecked")
+    @Override
+    public final BaseEntry<K, V> getBaseEntryOptimistically(Object key) {
+        BaseEntryImpl<K, V>[] buckets = this.buckets;
+        int limit = this.size;
+        int hash;
+        UnifiedComparator<? super K> keyUnifiedComparator = null;
+        if (key == null) {
+            hash = 0;
+        } else {
+            keyUnifiedComparator = this.keyUnifiedComparator();
+            hash = hash(keyUnifiedComparator.hashCode((K)key));
+        }
+        for (BaseEntryImpl<K, V> e = buckets[(buckets.length - 1) & hash]; 
+                e != null && limit-- >= 0; 
+                e = e.next) {
+            if (key == null) {
+                if (e.key == null) {
+                    return e;
+                }
+            } else if (e.hash == hash && keyUnifiedComparator.equals((K)key, e.key)) {
+                return e;
+            }
+        }
+        return null;
+    }
+    
     @Override
     protected V putWithoutTriggerFlushing(
             K key, 
@@ -348,6 +455,8 @@ public class HashEntries<K, V> extends AbstractRootBaseEntriesImpl<K, V> impleme
                     be.recordRemove(true);
                 }
                 this.buckets = new BaseEntryImpl[this.initCapacity];
+                this.trees = null;
+                this.treeifiedBucketCount = 0;
                 if (this.loadFactor != null) {
                     this.threshold = (int)(this.initCapacity * this.loadFactor);
                 }
@@ -446,13 +555,81 @@ public class HashEntries<K, V> extends AbstractRootBaseEntriesImpl<K, V> impleme
         return this.modCount;
     }
     
+    @Override
+    public void forEach(Consumer<? super BaseEntry<K, V>> action) {
+        Arguments.mustNotBeNull("action", action);
+        BaseEntryImpl<K, V>[] buckets = this.buckets;
+        int expectedModCount = this.modCount;
+        for (int i = 0; i < buckets.length; i++) {
+            for (BaseEntryImpl<K, V> e = buckets[i]; e != null; e = e.next) {
+                action.accept(e);
+                if (expectedModCount != this.modCount) {
+                    throw new ConcurrentModificationException(IteratorMessages.concurrentModifcation());
+                }
+            }
+        }
+    }
+    
+    @Override
+    public Spliterator<BaseEntry<K, V>> spliterator() {
+        return this.new EntrySpliterator(0, -1, 0, 0);
+    }
+    
     @Override
     protected final void deleteBaseEntry(BaseEntry<K, V> be) {
         this.deleteBaseEntryImpl((BaseEntryImpl<K, V>)be);
     }
 
     protected void deleteBaseEntryImpl(BaseEntryImpl<K, V> be) {
-        
+        if (this.unlinkEntry(be)) {
+            be.recordRemove(false);
+            BaseEntries<V, K> inversedEntries = this.inversedEntries();
+            if (inversedEntries != null) {
+                inversedEntries.removeByKey(be.value, null);
+            }
+        }
+    }
+    
+    /*
+     * The in-place suspension only rehashes the entry, 
+     * it is neither deleted nor recreated so that no FrozenContext 
+     * is removed from or combined into the key. 
+     */
+    @Override
+    protected BaseEntry<K, V> detachFrozenEntry(K key) {
+        BaseEntryImpl<K, V> be = this.getBaseEntry(key);
+        if (be != null) {
+            this.unlinkEntry(be);
+        }
+        return be;
+    }
+
+    @Override
+    protected boolean reattachFrozenEntry(BaseEntry<K, V> be) {
+        BaseEntryImpl<K, V> e = (BaseEntryImpl<K, V>)be;
+        UnifiedComparator<? super K> keyUnifiedComparator = this.keyUnifiedComparator();
+        int hash = hash(keyUnifiedComparator.hashCode(e.key));
+        if (this.getBaseEntry(hash, e.key, keyUnifiedComparator) != null) {
+            return false;
+        }
+        BaseEntryImpl<K, V>[] buckets = this.buckets;
+        int bucketIndex = (buckets.length - 1) & hash;
+        e.hash = hash;
+        e.next = buckets[bucketIndex];
+        buckets[bucketIndex] = e;
+        this.indexEntry(bucketIndex, e);
+        this.size++;
+        this.modCount++;
+        return true;
+    }
+
+    @Override
+    protected void deleteDetachedFrozenEntry(BaseEntry<K, V> be) {
+        this.modCount++;
+        ((BaseEntryImpl<K, V>)be).recordRemove(false);
+    }
+
+    private boolean unlinkEntry(BaseEntryImpl<K, V> be) {
         this.modCount++;
         BaseEntryImpl<K, V>[] buckets = this.buckets;
         int bucketIndex = (buckets.length - 1) & be.hash;
@@ -467,16 +644,13 @@ public class HashEntries<K, V> extends AbstractRootBaseEntriesImpl<K, V> impleme
                     prev.next = next;
                 }
                 this.size--;
-                be.recordRemove(false);
-                BaseEntries<V, K> inversedEntries = this.inversedEntries();
-                if (inversedEntries != null) {
-                    inversedEntries.removeByKey(be.value, null);
-                }
-                return;
+                this.unindexEntry(bucketIndex, be);
+                return true;
             }
             prev = ce;
             ce = next;
         }
+        return false;
     }
     
     /* virtual */ void transfer(BaseEntryImpl<K, V>[] newEntries) {
@@ -548,6 +722,7 @@ public class HashEntries<K, V> extends AbstractRootBaseEntriesImpl<K, V> impleme
         this.transfer(newEntries);
         this.buckets = newEntries;
         this.threshold = (int)(newCapacity * this.loadFactor);
+        this.retreeify();
     }
     
     private void addEntry(
@@ -557,7 +732,10 @@ public class HashEntries<K, V> extends AbstractRootBaseEntriesImpl<K, V> impleme
             int bucketIndex) {
         BaseEntryImpl<K, V>[] buckets = this.buckets;
         BaseEntryImpl<K, V> e = buckets[bucketIndex];
-        buckets[bucketIndex] = this.createBaseEntry(hash, key, value, e);
+        buckets[bucketIndex] = e = this.createBaseEntry(hash, key, value, e);
+        if (key != null) {
+            this.indexEntry(bucketIndex, e);
+        }
         BaseEntries<V, K> inversedEntries = this.inversedEntries();
         if (inversedEntries != null) {
             inversedEntries.put(value, key, null);
@@ -587,6 +765,82 @@ public class HashEntries<K, V> extends AbstractRootBaseEntriesImpl<K, V> impleme
         return oldValue;
     }
 
+    private void indexEntry(int bucketIndex, BaseEntryImpl<K, V> be) {
+        BucketTree<K, V>[] trees = this.trees;
+        if (trees != null) {
+            BucketTree<K, V> tree = trees[bucketIndex];
+            if (tree != null) {
+                tree.insert(be);
+                return;
+            }
+        }
+        if (this.buckets.length >= MIN_TREEIFY_CAPACITY || this.loadFactor == null) {
+            int count = 0;
+            for (BaseEntryImpl<K, V> e = this.buckets[bucketIndex]; e != null; e = e.next) {
+                if (++count >= TREEIFY_THRESHOLD) {
+                    this.treeify(bucketIndex);
+                    return;
+                }
+            }
+        }
+    }
+    
+    private void unindexEntry(int bucketIndex, BaseEntryImpl<K, V> be) {
+        BucketTree<K, V>[] trees = this.trees;
+        if (trees != null && be.key != null) {
+            BucketTree<K, V> tree = trees[bucketIndex];
+            if (tree != null) {
+                tree.remove(be);
+                if (tree.size <= UNTREEIFY_THRESHOLD) {
+                    trees[bucketIndex] = null;
+                    if (--this.treeifiedBucketCount == 0) {
+                        this.trees = null;
+                    }
+                }
+            }
+        }
+    }
+    
+    @SuppressWarnings("unchecked")
+    private void treeify(int bucketIndex) {
+        BucketTree<K, V>[] trees = this.trees;
+        if (trees == null) {
+            this.trees = trees = new BucketTree[this.buckets.length];
+        }
+        Object keyEqualityComparator = this.keyComparatorOrEqualityComparator();
+        BucketTree<K, V> tree = new BucketTree<>(
+                keyEqualityComparator == null ? 
+                        NATURAL_ORDER :
+                        keyEqualityComparator instanceof Comparator<?> ?
+                                (Comparator<Object>)keyEqualityComparator :
+                                null
+        );
+        for (BaseEntryImpl<K, V> e = this.buckets[bucketIndex]; e != null; e = e.next) {
+            if (e.key != null) {
+                tree.insert(e);
+            }
+        }
+        trees[bucketIndex] = tree;
+        this.treeifiedBucketCount++;
+    }
+    
+    private void retreeify() {
+        this.trees = null;
+        this.treeifiedBucketCount = 0;
+        BaseEntryImpl<K, V>[] buckets = this.buckets;
+        if (buckets.length >= MIN_TREEIFY_CAPACITY || this.loadFactor == null) {
+            for (int i = buckets.length - 1; i >= 0; i--) {
+                int count = 0;
+                for (BaseEntryImpl<K, V> e = buckets[i]; e != null; e = e.next) {
+                    if (++count >= TREEIFY_THRESHOLD) {
+                        this.treeify(i);
+                        break;
+                    }
+                }
+            }
+        }
+    }
+
     private static int hash(int h) {
         h ^= (h >>> 20) ^ (h >>> 12);
         return h ^ (h >>> 7) ^ (h >>> 4);
@@ -717,6 +971,114 @@ public class HashEntries<K, V> extends AbstractRootBaseEntriesImpl<K, V> impleme
         
     }
 
+    /*
+     * Splits the bucket range, like the spliterator of java.util.HashMap.
+     * Only the top-level spliterator knows the exact size, the estimated 
+     * size of the split spliterators is halved for each split.
+     */
+    private class EntrySpliterator implements Spliterator<BaseEntry<K, V>> {
+        
+        private int index;
+        
+        private int fence; // -1 until first used
+        
+        private int est;
+        
+        private int expectedModCount;
+        
+        private BaseEntryImpl<K, V> current;
+        
+        EntrySpliterator(int origin, int fence, int est, int expectedModCount) {
+            this.index = origin;
+            this.fence = fence;
+            this.est = est;
+            this.expectedModCount = expectedModCount;
+        }
+        
+        private int getFence() {
+            int hi = this.fence;
+            if (hi < 0) {
+                HashEntries<K, V> owner = HashEntries.this;
+                this.est = owner.size;
+                this.expectedModCount = owner.modCount;
+                hi = this.fence = owner.buckets.length;
+            }
+            return hi;
+        }
+
+        @Override
+        public Spliterator<BaseEntry<K, V>> trySplit() {
+            int hi = this.getFence();
+            int lo = this.index;
+            int mid = (lo + hi) >>> 1;
+            if (lo >= mid || this.current != null) {
+                return null;
+            }
+            this.index = mid;
+            return HashEntries.this.new EntrySpliterator(
+                    lo, mid, this.est >>>= 1, this.expectedModCount);
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super BaseEntry<K, V>> action) {
+            Arguments.mustNotBeNull("action", action);
+            int hi = this.getFence();
+            BaseEntryImpl<K, V>[] buckets = HashEntries.this.buckets;
+            if (buckets.length >= hi && this.index >= 0) {
+                while (this.current != null || this.index < hi) {
+                    if (this.current == null) {
+                        this.current = buckets[this.index++];
+                    } else {
+                        BaseEntryImpl<K, V> be = this.current;
+                        this.current = be.next;
+                        action.accept(be);
+                        if (this.expectedModCount != HashEntries.this.modCount) {
+                            throw new ConcurrentModificationException(IteratorMessages.concurrentModifcation());
+                        }
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super BaseEntry<K, V>> action) {
+            Arguments.mustNotBeNull("action", action);
+            int hi = this.getFence();
+            BaseEntryImpl<K, V>[] buckets = HashEntries.this.buckets;
+            int i = this.index;
+            BaseEntryImpl<K, V> be = this.current;
+            if (buckets.length >= hi && i >= 0 && (i < hi || be != null)) {
+                this.index = hi;
+                this.current = null;
+                do {
+                    if (be == null) {
+                        be = buckets[i++];
+                    } else {
+                        action.accept(be);
+                        be = be.next;
+                    }
+                } while (be != null || i < hi);
+                if (this.expectedModCount != HashEntries.this.modCount) {
+                    throw new ConcurrentModificationException(IteratorMessages.concurrentModifcation());
+                }
+            }
+        }
+
+        @Override
+        public long estimateSize() {
+            this.getFence();
+            return this.est;
+        }
+
+        @Override
+        public int characteristics() {
+            return (this.fence < 0 || this.est == HashEntries.this.size ? Spliterator.SIZED : 0) | 
+                    Spliterator.DISTINCT;
+        }
+    }
+
     static class BaseEntryImpl<K, V> extends AbstractBaseEntryImpl<K, V> {
         
         /**
@@ -726,7 +1088,7 @@ public class HashEntries<K, V> extends AbstractRootBaseEntriesImpl<K, V> impleme
          */
         HashEntries<K, V> owner;
         
-        private int hash;
+        int hash;
         
         private K key;
         
@@ -855,6 +1217,209 @@ public class HashEntries<K, V> extends AbstractRootBaseEntriesImpl<K, V> impleme
         
     }
     
+    /**
+     * The AVL tree to index a bucket whose chain is too long, 
+     * the chain itself is not changed so that the iteration, 
+     * the deletion and the rehashing still use the chain.
+     * 
+     * <p>
+     * The entries are ordered by their hash codes, the entries with same hash code 
+     * are ordered by the key order if it is available, otherwise, they are 
+     * grouped into one tree node.
+     * </p>
+     */
+    private static final class BucketTree<K, V> {
+        
+        private final Comparator<Object> keyOrder;
+        
+        private TreeNode<K, V> root;
+        
+        int size;
+        
+        BucketTree(Comparator<Object> keyOrder) {
+            this.keyOrder = keyOrder;
+        }
+        
+        BaseEntryImpl<K, V> find(int hash, K key, UnifiedComparator<? super K> keyUnifiedComparator) {
+            TreeNode<K, V> node = this.root;
+            while (node != null) {
+                int cmp = this.compare(hash, key, node.entry);
+                if (cmp < 0) {
+                    node = node.left;
+                } else if (cmp > 0) {
+                    node = node.right;
+                } else {
+                    do {
+                        if (keyUnifiedComparator.equals(key, node.entry.key)) {
+                            return node.entry;
+                        }
+                        node = node.same;
+                    } while (node != null);
+                    return null;
+                }
+            }
+            return null;
+        }
+        
+        void insert(BaseEntryImpl<K, V> be) {
+            this.root = this.insert(this.root, new TreeNode<K, V>(be));
+            this.size++;
+        }
+        
+        void remove(BaseEntryImpl<K, V> be) {
+            this.root = this.remove(this.root, be);
+        }
+        
+        private TreeNode<K, V> insert(TreeNode<K, V> node, TreeNode<K, V> newNode) {
+            if (node == null) {
+                return newNode;
+            }
+            BaseEntryImpl<K, V> be = newNode.entry;
+            int cmp = this.compare(be.hash, be.key, node.entry);
+            if (cmp < 0) {
+                node.left = this.insert(node.left, newNode);
+            } else if (cmp > 0) {
+                node.right = this.insert(node.right, newNode);
+            } else {
+                newNode.same = node.same;
+                node.same = newNode;
+                return node;
+            }
+            return balance(node);
+        }
+        
+        private TreeNode<K, V> remove(TreeNode<K, V> node, BaseEntryImpl<K, V> be) {
+            if (node == null) {
+                return null;
+            }
+            int cmp = this.compare(be.hash, be.key, node.entry);
+            if (cmp < 0) {
+                node.left = this.remove(node.left, be);
+            } else if (cmp > 0) {
+                node.right = this.remove(node.right, be);
+            } else if (node.entry == be) {
+                this.size--;
+                TreeNode<K, V> same = node.same;
+                if (same != null) {
+                    node.entry = same.entry;
+                    node.same = same.same;
+                    return node;
+                }
+                if (node.left == null) {
+                    return node.right;
+                }
+                if (node.right == null) {
+                    return node.left;
+                }
+                TreeNode<K, V> min = node.right;
+                while (min.left != null) {
+                    min = min.left;
+                }
+                min.right = removeMin(node.right);
+                min.left = node.left;
+                node = min;
+            } else {
+                for (TreeNode<K, V> prev = node; prev.same != null; prev = prev.same) {
+                    if (prev.same.entry == be) {
+                        prev.same = prev.same.same;
+                        this.size--;
+                        break;
+                    }
+                }
+                return node;
+            }
+            return balance(node);
+        }
+        
+        @SuppressWarnings("unchecked")
+        private int compare(int hash, Object key, BaseEntryImpl<K, V> be) {
+            if (hash != be.hash) {
+                return hash < be.hash ? -1 : +1;
+            }
+            Comparator<Object> keyOrder = this.keyOrder;
+            if (keyOrder == null) {
+                return 0;
+            }
+            return keyOrder.compare((K)key, be.key);
+        }
+        
+        private static <K, V> TreeNode<K, V> removeMin(TreeNode<K, V> node) {
+            if (node.left == null) {
+                return node.right;
+            }
+            node.left = removeMin(node.left);
+            return balance(node);
+        }
+        
+        private static <K, V> TreeNode<K, V> balance(TreeNode<K, V> node) {
+            int leftHeight = height(node.left);
+            int rightHeight = height(node.right);
+            if (leftHeight > rightHeight + 1) {
+                TreeNode<K, V> left = node.left;
+                if (height(left.left) < height(left.right)) {
+                    node.left = rotateLeft(left);
+                }
+                return rotateRight(node);
+            }
+            if (rightHeight > leftHeight + 1) {
+                TreeNode<K, V> right = node.right;
+                if (height(right.right) < height(right.left)) {
+                    node.right = rotateRight(right);
+                }
+                return rotateLeft(node);
+            }
+            node.height = Math.max(leftHeight, rightHeight) + 1;
+            return node;
+        }
+        
+        private static <K, V> TreeNode<K, V> rotateLeft(TreeNode<K, V> node) {
+            TreeNode<K, V> right = node.right;
+            node.right = right.left;
+            right.left = node;
+            updateHeight(node);
+            updateHeight(right);
+            return right;
+        }
+        
+        private static <K, V> TreeNode<K, V> rotateRight(TreeNode<K, V> node) {
+            TreeNode<K, V> left = node.left;
+            node.left = left.right;
+            left.right = node;
+            updateHeight(node);
+            updateHeight(left);
+            return left;
+        }
+        
+        private static void updateHeight(TreeNode<?, ?> node) {
+            node.height = Math.max(height(node.left), height(node.right)) + 1;
+        }
+        
+        private static int height(TreeNode<?, ?> node) {
+            return node != null ? node.height : 0;
+        }
+    }
+    
+    private static final class TreeNode<K, V> {
+        
+        BaseEntryImpl<K, V> entry;
+        
+        /*
+         * The other entries whose order is same with this one,
+         * they are not the nodes of the tree.
+         */
+        TreeNode<K, V> same;
+        
+        TreeNode<K, V> left;
+        
+        TreeNode<K, V> right;
+        
+        int height = 1;
+        
+        TreeNode(BaseEntryImpl<K, V> entry) {
+            this.entry = entry;
+        }
+    }
+    
     public static class TransientValue<K, V> extends HashEntries<K, V> implements TransientValueEntries {
 
         private static final long serialVersionUID = 5186650749530128201L;
@@ -34,6 +34,8 @@ import org.babyfish.lang.Arguments;
 public final class LinkedElements<E> extends AbstractBaseElementsImpl<E> {
     
     private static final long serialVersionUID = 6722586312433255701L;
+    
+    private static final int MAX_SKIP_LEVEL = 15;
 
     private NodeImpl<E> invalid;
     
@@ -47,6 +49,12 @@ public final class LinkedElements<E> extends AbstractBaseElementsImpl<E> {
     
     private transient int modCount;
     
+    //Only used when readerOptimizationType == ReaderOptimizationType.OPTIMIZE_RANDOM_ACCESS,
+    //the skip links of the nodes are only changed by the modification operations
+    private transient int skipLevel;
+    
+    private transient int skipSeed;
+    
     public LinkedElements(
             BidiType bidiType,
             ReaderOptimizationType readerOptimizationType, 
@@ -56,6 +64,9 @@ public final class LinkedElements<E> extends AbstractBaseElementsImpl<E> {
         NodeImpl<E> invalid = new NodeImpl<>();
         this.invalid = invalid;
         invalid.prev = invalid.next = invalid;
+        if (readerOptimizationType == ReaderOptimizationType.OPTIMIZE_RANDOM_ACCESS) {
+            this.initSkipLinks();
+        }
     }
     
     public ReaderOptimizationType readerOptimizationType() {
@@ -64,7 +75,7 @@ public final class LinkedElements<E> extends AbstractBaseElementsImpl<E> {
     
     @Override
     public boolean isReadWriteLockSupported() {
-        return this.readerOptimizationType == ReaderOptimizationType.OPTIMIZE_READ_LOCK;
+        return this.readerOptimizationType != ReaderOptimizationType.OPTIMIZE_READING;
     }
 
     @Override
@@ -238,11 +249,12 @@ public final class LinkedElements<E> extends AbstractBaseElementsImpl<E> {
                         }
                     }
                 }
-                this.addBefore(addBefore, element);
+                this.addBefore(absIndex, addBefore, element);
                 BaseEntries<E, Object> inversedEntries = this.inversedEntries();
                 if (inversedEntries != null) {
                     inversedEntries.put(element, null, null);
                 }
+                this.hashIndexAdd(element);
                 this.allSize++;
                 this.modCount++;
                 attachProcessor.endExecute(null);
@@ -272,6 +284,7 @@ public final class LinkedElements<E> extends AbstractBaseElementsImpl<E> {
                     absIndex == this.allSize ?
                             this.invalid :
                             this.nodeAt(absIndex, false);
+                int insertIndex = absIndex;
                 LastAccess<E> lastAccess = this.lastAccess;
                 if (this.readerOptimizationType == ReaderOptimizationType.OPTIMIZE_READING && lastAccess != null) {
                     for (E e : c) {
@@ -287,12 +300,12 @@ public final class LinkedElements<E> extends AbstractBaseElementsImpl<E> {
                                 lastAccess.matchLast = false;
                             }
                         }
-                        this.addBefore(addBefore, e);
+                        this.addBefore(insertIndex++, addBefore, e);
                         this.allSize++;
                     }
                 } else {
                     for (E e : c) {
-                        this.addBefore(addBefore, e);
+                        this.addBefore(insertIndex++, addBefore, e);
                         this.allSize++;
                     }
                 }
@@ -302,6 +315,11 @@ public final class LinkedElements<E> extends AbstractBaseElementsImpl<E> {
                         inversedEntries.put(e, null, null);
                     }
                 }
+                if (this.isHashIndexed()) {
+                    for (E e : c) {
+                        this.hashIndexAdd(e);
+                    }
+                }
                 this.modCount++;
                 attachProcessor.endExecute(null);
             } catch (RuntimeException | Error ex) {
@@ -328,11 +346,18 @@ public final class LinkedElements<E> extends AbstractBaseElementsImpl<E> {
             try {
                 retval = node.value;
                 node.value = element;
+                LastAccess<E> lastAccess = this.lastAccess;
+                if (lastAccess != null) {
+                    lastAccess.matchFirst = false;
+                    lastAccess.matchLast = false;
+                }
                 BaseEntries<E, Object> inversedEntries = this.inversedEntries();
                 if (inversedEntries != null) {
                     inversedEntries.removeByKey(retval, null);
                     inversedEntries.put(element, null, null);
                 }
+                this.hashIndexRemove(retval);
+                this.hashIndexAdd(element);
                 attachProcessor.endExecute(null);
             } catch (RuntimeException | Error ex) {
                 attachProcessor.endExecute(ex);
@@ -345,6 +370,9 @@ public final class LinkedElements<E> extends AbstractBaseElementsImpl<E> {
     @Override
     protected void clear(int subListHeadHide, int subListTailHide, Trigger<E> trigger) {
         this.checkSubListRange(subListHeadHide, subListTailHide);
+        if (this.allSize == subListHeadHide + subListTailHide) {
+            return;
+        }
         NodeImpl<E> firstNode = this.nodeAt(subListHeadHide, false);
         NodeImpl<E> lastNode = this.nodeAt(this.allSize - subListTailHide - 1, false);
         BaseEntries<E, Object> inversedEntries = this.inversedEntries();
@@ -360,15 +388,27 @@ public final class LinkedElements<E> extends AbstractBaseElementsImpl<E> {
                 }
             }
         }
+        if (this.isHashIndexed()) {
+            if (subListHeadHide == 0 && subListTailHide == 0) {
+                this.hashIndexClear();
+            } else {
+                NodeImpl<E> fenceNode = lastNode.next;
+                for (NodeImpl<E> removedNode = firstNode; 
+                        removedNode != fenceNode; 
+                        removedNode = removedNode.next) {
+                    this.hashIndexRemove(removedNode.value);
+                }
+            }
+        }
         LastAccess<E> lastAccess = this.lastAccess;
         if (trigger == null) {
             firstNode.prev.next = lastNode.next;
             lastNode.next.prev = firstNode.prev;
             this.allSize = subListHeadHide + subListTailHide;
+            this.rebuildSkipLinks();
             if (this.readerOptimizationType == ReaderOptimizationType.OPTIMIZE_READING &&
                     lastAccess != null && 
-                    lastAccess.index >= subListHeadHide && 
-                    lastAccess.index < this.allSize - subListTailHide) {
+                    lastAccess.index >= subListHeadHide) {
                 this.lastAccess = null;
             }
             this.modCount++;
@@ -384,10 +424,10 @@ public final class LinkedElements<E> extends AbstractBaseElementsImpl<E> {
                     firstNode.prev.next = lastNode.next;
                     lastNode.next.prev = firstNode.prev;
                     this.allSize = subListHeadHide + subListTailHide;
+                    this.rebuildSkipLinks();
                     if (this.readerOptimizationType == ReaderOptimizationType.OPTIMIZE_READING &&
                             lastAccess != null && 
-                            lastAccess.index >= subListHeadHide && 
-                            lastAccess.index < this.allSize - subListTailHide) {
+                            lastAccess.index >= subListHeadHide) {
                         this.lastAccess = null;
                     }
                     this.modCount++;
@@ -481,7 +521,9 @@ public final class LinkedElements<E> extends AbstractBaseElementsImpl<E> {
             try {
                 History<E> history = trigger.getHistory(0);
                 for (int i = 0; i < trigger.getLength(); i++) {
-                    this.deleteAt(history.getOldIndex(i) - i, (NodeImpl<E>)history.getNode(i));
+                    this.deleteAt(
+                            subListHeadHide + history.getOldIndex(i) - i, 
+                            (NodeImpl<E>)history.getNode(i));
                 }
                 if (trigger.getLength() != 0) {
                     this.modCount++;
@@ -532,7 +574,9 @@ public final class LinkedElements<E> extends AbstractBaseElementsImpl<E> {
             try {
                 History<E> history = trigger.getHistory(0);
                 for (int i = 0; i < trigger.getLength(); i++) {
-                    this.deleteAt(history.getOldIndex(i) - i, (NodeImpl<E>)history.getNode(i));
+                    this.deleteAt(
+                            subListHeadHide + history.getOldIndex(i) - i, 
+                            (NodeImpl<E>)history.getNode(i));
                 }
                 if (trigger.getLength() != 0) {
                     this.modCount++;
@@ -561,6 +605,9 @@ public final class LinkedElements<E> extends AbstractBaseElementsImpl<E> {
     }
 
     private NodeImpl<E> nodeAt(int absIndex, boolean updateLastAccess) {
+        if (this.invalid.skipNexts != null) {
+            return this.skipNodeAt(absIndex);
+        }
         LastAccess<E> lastAccess = this.lastAccess;
         NodeImpl<E> lastAccessNode = lastAccess == null ? null : lastAccess.node;
         int fromHead = absIndex;
@@ -595,9 +642,11 @@ public final class LinkedElements<E> extends AbstractBaseElementsImpl<E> {
         if (this.readerOptimizationType == ReaderOptimizationType.OPTIMIZE_READING && updateLastAccess) {
             if (lastAccess == null) {
                 this.lastAccess = new LastAccess<E>(absIndex, lastAccessNode);
-            } else {
+            } else if (lastAccess.node != lastAccessNode) {
                 lastAccess.index = absIndex;
                 lastAccess.node = lastAccessNode;
+                lastAccess.matchFirst = false;
+                lastAccess.matchLast = false;
             }
         }
         return lastAccessNode;
@@ -632,6 +681,9 @@ public final class LinkedElements<E> extends AbstractBaseElementsImpl<E> {
                     lastAccess.index--;
                 }
             }
+            if (this.invalid.skipNexts != null) {
+                this.unlinkSkips(absIndex, node);
+            }
             node.prev.next = node.next;
             node.next.prev = node.prev;
             this.allSize--;
@@ -639,6 +691,7 @@ public final class LinkedElements<E> extends AbstractBaseElementsImpl<E> {
             if (inversedEntries != null) {
                 inversedEntries.removeByKey(node.value, null);
             }
+            this.hashIndexRemove(node.value);
         }
         return node;
     }
@@ -648,19 +701,177 @@ public final class LinkedElements<E> extends AbstractBaseElementsImpl<E> {
      * {@link #add0(int, Object)} and {@link #add0(int, Collection)}
      * because it doesn't modify the 
      * {@link #lastAccess} and {@link #allSize}
+     * @param absIndex The index of the new node
      * @param node
      * @param value
      */
-    private void addBefore(NodeImpl<E> node, E value) {
+    private void addBefore(int absIndex, NodeImpl<E> node, E value) {
         NodeImpl<E> newNode = new NodeImpl<E>();
         newNode.prev = node.prev;
         newNode.next = node;
         newNode.value = value;
+        if (this.invalid.skipNexts != null) {
+            this.linkSkips(absIndex, newNode);
+        }
         node.prev.next = newNode;
         node.prev = newNode;
     }
     
+    /*
+     * The skip links make an indexable skip list over the doubly linked nodes:
+     * the skipWidths[level] of a node is the distance from that node to 
+     * skipNexts[level], the invalid node is both the head (index -1) 
+     * and the tail (index allSize). The base level is the "next" link itself.
+     * 
+     * The read operations never modify the skip links so that the
+     * O(log n) positional access is safe under the read lock.
+     */
+    @SuppressWarnings("unchecked")
+    private void initSkipLinks() {
+        NodeImpl<E> invalid = this.invalid;
+        invalid.skipNexts = new NodeImpl[MAX_SKIP_LEVEL];
+        invalid.skipWidths = new int[MAX_SKIP_LEVEL];
+        this.skipLevel = 0;
+        this.skipSeed = System.identityHashCode(this) | 1;
+    }
+    
+    private NodeImpl<E> skipNodeAt(int absIndex) {
+        NodeImpl<E> node = this.invalid;
+        int index = -1;
+        for (int level = this.skipLevel - 1; level >= 0; level--) {
+            while (index + node.skipWidths[level] <= absIndex) {
+                index += node.skipWidths[level];
+                node = node.skipNexts[level];
+            }
+        }
+        while (index < absIndex) {
+            node = node.next;
+            index++;
+        }
+        return node;
+    }
+    
+    /**
+     * Must be called before {@link #allSize} is increased.
+     */
+    @SuppressWarnings("unchecked")
+    private void linkSkips(int absIndex, NodeImpl<E> newNode) {
+        NodeImpl<E> invalid = this.invalid;
+        int newLevel = this.nextSkipLevel();
+        if (newLevel > this.skipLevel) {
+            for (int level = this.skipLevel; level < newLevel; level++) {
+                invalid.skipNexts[level] = invalid;
+                invalid.skipWidths[level] = this.allSize + 1;
+            }
+            this.skipLevel = newLevel;
+        }
+        if (newLevel != 0) {
+            newNode.skipNexts = new NodeImpl[newLevel];
+            newNode.skipWidths = new int[newLevel];
+        }
+        NodeImpl<E> node = invalid;
+        int index = -1;
+        for (int level = this.skipLevel - 1; level >= 0; level--) {
+            while (index + node.skipWidths[level] < absIndex) {
+                index += node.skipWidths[level];
+                node = node.skipNexts[level];
+            }
+            if (level < newLevel) {
+                newNode.skipNexts[level] = node.skipNexts[level];
+                newNode.skipWidths[level] = index + node.skipWidths[level] + 1 - absIndex;
+                node.skipNexts[level] = newNode;
+                node.skipWidths[level] = absIndex - index;
+            } else {
+                node.skipWidths[level]++;
+            }
+        }
+    }
+    
+    /**
+     * Must be called before {@link #allSize} is decreased.
+     */
+    private void unlinkSkips(int absIndex, NodeImpl<E> oldNode) {
+        NodeImpl<E> invalid = this.invalid;
+        int oldLevel = oldNode.skipNexts == null ? 0 : oldNode.skipNexts.length;
+        NodeImpl<E> node = invalid;
+        int index = -1;
+        for (int level = this.skipLevel - 1; level >= 0; level--) {
+            while (index + node.skipWidths[level] < absIndex) {
+                index += node.skipWidths[level];
+                node = node.skipNexts[level];
+            }
+            if (level < oldLevel) {
+                if (node.skipNexts[level] != oldNode) {
+                    throw new AssertionError();
+                }
+                node.skipNexts[level] = oldNode.skipNexts[level];
+                node.skipWidths[level] += oldNode.skipWidths[level] - 1;
+            } else {
+                node.skipWidths[level]--;
+            }
+        }
+        while (this.skipLevel > 0 && invalid.skipNexts[this.skipLevel - 1] == invalid) {
+            this.skipLevel--;
+        }
+    }
+    
+    /**
+     * Rebuilds a perfectly balanced skip list, used by the bulk operations
+     * whose cost is already linear.
+     */
+    @SuppressWarnings("unchecked")
+    private void rebuildSkipLinks() {
+        NodeImpl<E> invalid = this.invalid;
+        if (invalid.skipNexts == null) {
+            return;
+        }
+        NodeImpl<E>[] lastNodes = new NodeImpl[MAX_SKIP_LEVEL];
+        int[] lastIndexes = new int[MAX_SKIP_LEVEL];
+        for (int level = 0; level < MAX_SKIP_LEVEL; level++) {
+            lastNodes[level] = invalid;
+            lastIndexes[level] = -1;
+        }
+        int maxLevel = 0;
+        int index = 0;
+        for (NodeImpl<E> node = invalid.next; node != invalid; node = node.next) {
+            int nodeLevel = Math.min(Integer.numberOfTrailingZeros(index + 1) >>> 1, MAX_SKIP_LEVEL);
+            if (nodeLevel == 0) {
+                node.skipNexts = null;
+                node.skipWidths = null;
+            } else {
+                node.skipNexts = new NodeImpl[nodeLevel];
+                node.skipWidths = new int[nodeLevel];
+                for (int level = 0; level < nodeLevel; level++) {
+                    lastNodes[level].skipNexts[level] = node;
+                    lastNodes[level].skipWidths[level] = index - lastIndexes[level];
+                    lastNodes[level] = node;
+                    lastIndexes[level] = index;
+                }
+                if (nodeLevel > maxLevel) {
+                    maxLevel = nodeLevel;
+                }
+            }
+            index++;
+        }
+        for (int level = 0; level < maxLevel; level++) {
+            lastNodes[level].skipNexts[level] = invalid;
+            lastNodes[level].skipWidths[level] = this.allSize - lastIndexes[level];
+        }
+        this.skipLevel = maxLevel;
+    }
+    
+    private int nextSkipLevel() {
+        // xorshift, each level is kept with the probability 1/4
+        int seed = this.skipSeed;
+        seed ^= seed << 13;
+        seed ^= seed >>> 17;
+        seed ^= seed << 5;
+        this.skipSeed = seed;
+        return Math.min(Integer.numberOfTrailingZeros(seed) >>> 1, MAX_SKIP_LEVEL);
+    }
+    
     private void writeObject(ObjectOutputStream out) throws IOException {
+        out.writeObject(this.readerOptimizationType);
         out.writeInt(this.allSize);
         int allSize = this.allSize;
         NodeImpl<E> invalid = this.invalid;
@@ -679,35 +890,45 @@ public final class LinkedElements<E> extends AbstractBaseElementsImpl<E> {
     
     @SuppressWarnings("unchecked")
     private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        this.readerOptimizationType = (ReaderOptimizationType)in.readObject();
         this.allSize = in.readInt();
         int allSize = this.allSize;
         NodeImpl<E> invalid = new NodeImpl<>();
         NodeImpl<E> prevNode = invalid;
-        if (allSize != 0) {
-            for (int i = 0; i < allSize; i++) {
-                E e = (E)in.readObject();
-                NodeImpl<E> node = new NodeImpl<E>();
-                prevNode.next = node;
-                node.prev = prevNode;
-                node.value = e;
-                prevNode = node;
-            }
-            prevNode.next = invalid;
-            invalid.prev = prevNode;
-        }
+        for (int i = 0; i < allSize; i++) {
+            E e = (E)in.readObject();
+            NodeImpl<E> node = new NodeImpl<E>();
+            prevNode.next = node;
+            node.prev = prevNode;
+            node.value = e;
+            prevNode = node;
+        }
+        prevNode.next = invalid;
+        invalid.prev = prevNode;
         this.invalid = invalid;
+        if (this.readerOptimizationType == ReaderOptimizationType.OPTIMIZE_RANDOM_ACCESS) {
+            this.initSkipLinks();
+            this.rebuildSkipLinks();
+        }
         BaseEntries<E, Object> inversedEntries = this.inversedEntries();
         if (inversedEntries != null) {
             for (NodeImpl<E> node = invalid.next; node != invalid; node = node.next) {
                 inversedEntries.put(node.value, null, null);
             }
         }
+        if (this.isHashIndexed()) {
+            for (NodeImpl<E> node = invalid.next; node != invalid; node = node.next) {
+                this.hashIndexAdd(node.value);
+            }
+        }
     }
     
     private static class NodeImpl<E> implements Node<E> {
         NodeImpl<E> prev;
         NodeImpl<E> next;
         E value;
+        NodeImpl<E>[] skipNexts;
+        int[] skipWidths;
         @Override
         public E get() {
             return this.value;
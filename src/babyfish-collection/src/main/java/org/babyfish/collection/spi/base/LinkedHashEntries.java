@@ -17,15 +17,23 @@
  */
 package org.babyfish.collection.spi.base;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.util.Collection;
 import java.util.ConcurrentModificationException;
 import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.function.Consumer;
 
 import org.babyfish.collection.EqualityComparator;
 import org.babyfish.collection.BidiType;
+import org.babyfish.collection.EvictionPolicy;
 import org.babyfish.collection.OrderAdjustMode;
 import org.babyfish.collection.ReplacementRule;
+import org.babyfish.collection.Weigher;
+import org.babyfish.collection.internal.FrequencySketch;
+import org.babyfish.lang.Arguments;
 
 /**
  * @author Tao Chen
@@ -36,8 +44,30 @@ public class LinkedHashEntries<K, V> extends HashEntries<K, V> implements Ordere
     
     private static final OrderAdjustMode[] OAM_VALUES = OrderAdjustMode.values();
     
+    /*
+     * The LFU victim is the least frequently used one 
+     * of the entries nearest the eviction end.
+     */
+    private static final int LFU_SAMPLE_SIZE = 8;
+    
     private int initFlags;
     
+    /*
+     * It is null if this object is unbounded.
+     * 
+     * When this object is deserialized, the entries are restored by the 
+     * readObject of HashEntries before this field so that they are not evicted.
+     */
+    private EvictionPolicy evictionPolicy;
+    
+    private long maxSize;
+    
+    private Weigher<? super K, ? super V> weigher;
+    
+    private transient long totalWeight;
+    
+    private transient FrequencySketch frequencySketch;
+    
     private transient BaseEntryImpl<K, V> invalid;
     
     private transient OrderedBaseEntries<K, V> descendingEntries;
@@ -52,6 +82,41 @@ public class LinkedHashEntries<K, V> extends HashEntries<K, V> implements Ordere
             boolean headAppend,
             OrderAdjustMode accessMode,
             OrderAdjustMode replaceMode) {
+        this(
+                bidiType,
+                keyReplacementRule, 
+                keyEqualityComparator, 
+                valueComparatorOrEqualityComparatorOrUnifiedComparator, 
+                initCapacity, 
+                loadFactor,
+                headAppend,
+                accessMode,
+                replaceMode,
+                null,
+                0L,
+                null);
+    }
+    
+    /**
+     * @param evictionPolicy The eviction policy, this object is unbounded if it is null.
+     * @param maxSize The max count of the entries, or the max total weight 
+     * of the entries when the weigher is specified. It is ignored if 
+     * the evictionPolicy is null.
+     * @param weigher The weigher of the entries, it can be null.
+     */
+    public LinkedHashEntries(
+            BidiType bidiType,
+            ReplacementRule keyReplacementRule,
+            EqualityComparator<? super K> keyEqualityComparator,
+            Object valueComparatorOrEqualityComparatorOrUnifiedComparator,
+            int initCapacity, 
+            Float loadFactor,
+            boolean headAppend,
+            OrderAdjustMode accessMode,
+            OrderAdjustMode replaceMode,
+            EvictionPolicy evictionPolicy,
+            long maxSize,
+            Weigher<? super K, ? super V> weigher) {
         super(
                 bidiType,
                 keyReplacementRule, 
@@ -63,6 +128,32 @@ public class LinkedHashEntries<K, V> extends HashEntries<K, V> implements Ordere
             (headAppend ? 0x01 : 0x00) |
             (accessMode.ordinal() << 8) |
             (replaceMode.ordinal() << 16);
+        if (evictionPolicy != null) {
+            this.evictionPolicy = evictionPolicy;
+            this.maxSize = Arguments.mustBeGreaterThanOrEqualToValue("maxSize", maxSize, 0L);
+            this.weigher = weigher;
+            this.initFrequencySketch();
+        }
+    }
+    
+    public final EvictionPolicy evictionPolicy() {
+        return this.evictionPolicy;
+    }
+    
+    public final long maxSize() {
+        return this.maxSize;
+    }
+    
+    public final Weigher<? super K, ? super V> weigher() {
+        return this.weigher;
+    }
+    
+    /**
+     * @return The total weight of the entries if the weigher is specified, 
+     * otherwise, the size of this object.
+     */
+    public final long totalWeight() {
+        return this.weigher != null ? this.totalWeight : this.size();
     }
 
     @Override
@@ -122,6 +213,8 @@ public class LinkedHashEntries<K, V> extends HashEntries<K, V> implements Ordere
             return null;
         }
         
+        this.recordFrequency(be);
+        
         OrderAdjustMode accessMode = this.accessMode();
         if (accessMode == null || accessMode == OrderAdjustMode.NONE) {
             return be;
@@ -192,20 +285,7 @@ public class LinkedHashEntries<K, V> extends HashEntries<K, V> implements Ordere
     protected BaseEntry<K, V> pollFirst(Trigger<K, V> trigger) {
         BaseEntryImpl<K, V> be = this.invalid.after;
         if (be != null) {
-            if (trigger == null) {
-                this.deleteBaseEntryImpl(be);
-            } else {
-                trigger.preRemove(be);
-                if (trigger.beginExecute()) {
-                    try {
-                        this.deleteBaseEntryImpl(be);
-                        trigger.endExecute(null);
-                    } catch (RuntimeException | Error ex) {
-                        trigger.endExecute(ex);
-                    }
-                }
-                trigger.flush();
-            }
+            this.delete(be, trigger);
         }
         return be;
     }
@@ -213,22 +293,139 @@ public class LinkedHashEntries<K, V> extends HashEntries<K, V> implements Ordere
     protected BaseEntry<K, V> pollLast(Trigger<K, V> trigger) {
         BaseEntryImpl<K, V> be = this.invalid.before;
         if (be != null) {
-            if (trigger == null) {
-                this.deleteBaseEntryImpl(be);
+            this.delete(be, trigger);
+        }
+        return be;
+    }
+    
+    @Override
+    protected V put(
+            K key, 
+            V value, 
+            Trigger<K, V> trigger,
+            FrozenContextSuspending<K, V> suspending) {
+        V retval = super.put(key, value, trigger, suspending);
+        this.evict();
+        return retval;
+    }
+
+    @Override
+    protected void putAll(
+            Map<? extends K, ? extends V> m,
+            Trigger<K, V> trigger) {
+        super.putAll(m, trigger);
+        this.evict();
+    }
+
+    @Override
+    protected boolean addAll(
+            Collection<? extends K> kc, 
+            Trigger<K, V> trigger) {
+        boolean retval = super.addAll(kc, trigger);
+        this.evict();
+        return retval;
+    }
+    
+    /*
+     * Each victim is removed by its own trigger after the modification 
+     * that made this object overflow has been flushed, so the evictions 
+     * are reported as separate modifications.
+     */
+    private void evict() {
+        EvictionPolicy evictionPolicy = this.evictionPolicy;
+        if (evictionPolicy == null) {
+            return;
+        }
+        while (this.weigher != null ? this.totalWeight > this.maxSize : this.size() > this.maxSize) {
+            BaseEntryImpl<K, V> victim = this.victim(evictionPolicy);
+            BaseEntriesSpecialHandlerFactory<K, V> specialHandlerFactory = this.specialHandlerFactory();
+            BaseEntriesHandler<K, V> evictingHandler;
+            if (specialHandlerFactory != null) {
+                evictingHandler = specialHandlerFactory.createEvictingHandler(victim.getKey(), evictionPolicy);
             } else {
-                trigger.preRemove(be);
-                if (trigger.beginExecute()) {
-                    try {
-                        this.deleteBaseEntryImpl(be);
-                        trigger.endExecute(null);
-                    } catch (RuntimeException | Error ex) {
-                        trigger.endExecute(ex);
-                    }
+                evictingHandler = null;
+            }
+            this.delete(victim, this.triggerOf(evictingHandler));
+        }
+    }
+    
+    private BaseEntryImpl<K, V> victim(EvictionPolicy evictionPolicy) {
+        BaseEntryImpl<K, V> invalid = this.invalid;
+        boolean headAppend = this.headAppend();
+        BaseEntryImpl<K, V> victim = headAppend ? invalid.before : invalid.after;
+        if (evictionPolicy == EvictionPolicy.LFU) {
+            FrequencySketch frequencySketch = this.frequencySketch;
+            int minFrequency = frequencySketch.frequency(victim.hash);
+            BaseEntryImpl<K, V> be = victim;
+            for (int i = LFU_SAMPLE_SIZE - 1; i > 0 && minFrequency != 0; i--) {
+                be = headAppend ? be.before : be.after;
+                if (be == invalid) {
+                    break;
+                }
+                int frequency = frequencySketch.frequency(be.hash);
+                if (frequency < minFrequency) {
+                    minFrequency = frequency;
+                    victim = be;
                 }
-                trigger.flush();
             }
         }
-        return be;
+        return victim;
+    }
+    
+    private void delete(BaseEntryImpl<K, V> be, Trigger<K, V> trigger) {
+        if (trigger == null) {
+            this.deleteBaseEntryImpl(be);
+        } else {
+            trigger.preRemove(be);
+            if (trigger.beginExecute()) {
+                try {
+                    this.deleteBaseEntryImpl(be);
+                    trigger.endExecute(null);
+                } catch (RuntimeException | Error ex) {
+                    trigger.endExecute(ex);
+                }
+            }
+            trigger.flush();
+        }
+    }
+    
+    private void initFrequencySketch() {
+        if (this.evictionPolicy == EvictionPolicy.LFU) {
+            this.frequencySketch = new FrequencySketch(this.weigher == null ? this.maxSize : 1024L);
+        }
+    }
+    
+    private void recordFrequency(BaseEntryImpl<K, V> be) {
+        FrequencySketch frequencySketch = this.frequencySketch;
+        if (frequencySketch != null) {
+            if (this.weigher != null) {
+                frequencySketch.ensureCapacity(this.size());
+            }
+            frequencySketch.increment(be.hash);
+        }
+    }
+    
+    private void changeWeight(BaseEntryImpl<K, V> be, int weight) {
+        this.totalWeight += weight - be.weight;
+        be.weight = weight;
+    }
+    
+    private int weigh(K key, V value) {
+        return Arguments.mustBeGreaterThanOrEqualToValue(
+                "weigher.weigh(key, value)", 
+                this.weigher.weigh(key, value), 
+                0);
+    }
+    
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        if (this.weigher != null) {
+            BaseEntryImpl<K, V> invalid = this.invalid;
+            for (BaseEntryImpl<K, V> be = invalid.after; be != invalid; be = be.after) {
+                this.changeWeight(be, this.weigh(be.getKey(), be.getValue()));
+            }
+        }
+        this.initFrequencySketch();
     }
 
     @Override
@@ -240,6 +437,7 @@ public class LinkedHashEntries<K, V> extends HashEntries<K, V> implements Ordere
     @Override
     void afterAllRecordsRemove() {
         this.invalid.before = this.invalid.after = this.invalid;
+        this.totalWeight = 0;
     }
 
     @Override
@@ -251,6 +449,40 @@ public class LinkedHashEntries<K, V> extends HashEntries<K, V> implements Ordere
     public BaseEntryIterator<K, V> iterator() {
         return this.new AscendingEntryIterator();
     }
+    
+    @Override
+    public void forEach(Consumer<? super BaseEntry<K, V>> action) {
+        Arguments.mustNotBeNull("action", action);
+        BaseEntryImpl<K, V> invalid = this.invalid;
+        int expectedModCount = this.modCount;
+        for (BaseEntryImpl<K, V> be = invalid.after; be != invalid; be = be.after) {
+            action.accept(be);
+            if (expectedModCount != this.modCount) {
+                throw new ConcurrentModificationException(IteratorMessages.concurrentModifcation());
+            }
+        }
+    }
+    
+    /*
+     * The buckets does not keep the linked order, 
+     * so this spliterator can only be split by buffering the entries.
+     */
+    @Override
+    public Spliterator<BaseEntry<K, V>> spliterator() {
+        return this.iteratorSpliterator(Spliterator.DISTINCT | Spliterator.ORDERED);
+    }
+
+    /*
+     * The linked order is kept by the in-place suspension automatically,
+     * but the weight may depend on the changed key.
+     */
+    @Override
+    protected BaseEntry<K, V> detachFrozenEntry(K key) {
+        if (this.weigher != null) {
+            return null;
+        }
+        return super.detachFrozenEntry(key);
+    }
 
     @Override
     protected LinkedFrozenContextSuspending<K, V> createFrozenContextSuspending(BaseEntry<K, V> be) {
@@ -272,6 +504,11 @@ public class LinkedHashEntries<K, V> extends HashEntries<K, V> implements Ordere
         
         BaseEntryImpl<K, V> after;
         
+        /*
+         * Always 0 if the owner does not have weigher
+         */
+        int weight;
+        
         /**
          * Only for {@link LinkedHashEntries#invalid
          */
@@ -292,11 +529,28 @@ public class LinkedHashEntries<K, V> extends HashEntries<K, V> implements Ordere
             }
             this.before.after = this;
             this.after.before = this;
+            if (owner.weigher != null) {
+                owner.changeWeight(this, owner.weigh(key, value));
+            }
+            owner.recordFrequency(this);
+        }
+        
+        @Override
+        protected void setRawValue(V value) {
+            super.setRawValue(value);
+            LinkedHashEntries<K, V> linkedOwner = (LinkedHashEntries<K, V>)this.owner;
+            if (linkedOwner != null && linkedOwner.weigher != null) {
+                linkedOwner.changeWeight(this, linkedOwner.weigh(this.getKey(), value));
+            }
         }
         
         @Override
         void recordChange() {
             LinkedHashEntries<K, V> linkedOwner = (LinkedHashEntries<K, V>)this.owner;
+            if (linkedOwner.weigher != null) {
+                linkedOwner.changeWeight(this, linkedOwner.weigh(this.getKey(), this.getValue()));
+            }
+            linkedOwner.recordFrequency(this);
             OrderAdjustMode replaceMode = linkedOwner.replaceMode();
             if (OrderAdjustMode.HEAD.equals(replaceMode)) {
                 this.moveToHead();
@@ -319,6 +573,7 @@ public class LinkedHashEntries<K, V> extends HashEntries<K, V> implements Ordere
             if (!clearAll) {
                 this.before.after = this.after;
                 this.after.before = this.before;
+                ((LinkedHashEntries<K, V>)this.owner).changeWeight(this, 0);
             }
             
             super.recordRemove(clearAll);
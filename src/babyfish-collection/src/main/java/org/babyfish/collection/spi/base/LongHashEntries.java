@@ -0,0 +1,91 @@
+/*
+ * BabyFish, Object Model Framework for Java and JPA.
+ * https://github.com/babyfish-ct/babyfish
+ *
+ * Copyright (c) 2008-2016, Tao Chen
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * Please visit "http://opensource.org/licenses/LGPL-3.0" to know more.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ */
+package org.babyfish.collection.spi.base;
+
+import org.babyfish.collection.BidiType;
+
+/**
+ * The hash entries whose keys are {@code long} values, 
+ * see {@link AbstractPrimitiveHashEntries}.
+ * 
+ * @author Tao Chen
+ */
+public class LongHashEntries<V> extends AbstractPrimitiveHashEntries<Long, V> {
+
+    private static final long serialVersionUID = -692266078037874873L;
+
+    public LongHashEntries(
+            BidiType bidiType,
+            Object valueComparatorOrEqualityComparatorOrUnifiedComparator,
+            int initCapacity, 
+            Float loadFactor) {
+        super(
+                bidiType, 
+                valueComparatorOrEqualityComparatorOrUnifiedComparator, 
+                initCapacity, 
+                loadFactor);
+    }
+    
+    public V get(long key) {
+        return this.getByBits(key);
+    }
+    
+    public boolean containsKey(long key) {
+        return this.containsBits(key);
+    }
+    
+    public V put(long key, V value) {
+        return this.putByBits(key, value);
+    }
+    
+    public V remove(long key) {
+        return this.removeByBits(key);
+    }
+
+    @Override
+    final boolean isKey(Object key) {
+        return key instanceof Long;
+    }
+
+    @Override
+    final long bitsOf(Long key) {
+        return key.longValue();
+    }
+
+    @Override
+    final Long keyOf(long bits) {
+        return bits;
+    }
+
+    public static class TransientValue<V> extends LongHashEntries<V> implements TransientValueEntries {
+
+        private static final long serialVersionUID = 1064109819871773190L;
+
+        public TransientValue(
+                Object valueComparatorOrEqualityComparatorOrUnifiedComparator,
+                int initCapacity, 
+                Float loadFactor) {
+            super(
+                    BidiType.NONE,
+                    valueComparatorOrEqualityComparatorOrUnifiedComparator, 
+                    initCapacity,
+                    loadFactor);
+        }
+        
+    }
+}
@@ -0,0 +1,1568 @@
+/*
+ * BabyFish, Object Model Framework for Java and JPA.
+ * https://github.com/babyfish-ct/babyfish
+ *
+ * Copyright (c) 2008-2016, Tao Chen
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * Please visit "http://opensource.org/licenses/LGPL-3.0" to know more.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ */
+package org.babyfish.collection.spi.base;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.NoSuchElementException;
+
+import org.babyfish.collection.BidiType;
+import org.babyfish.collection.OffHeapSerializer;
+import org.babyfish.collection.ReplacementRule;
+import org.babyfish.collection.UnifiedComparator;
+import org.babyfish.collection.spi.base.AbstractBaseEntriesImpl.Trigger.History;
+import org.babyfish.lang.Arguments;
+import org.babyfish.lang.I18N;
+
+/**
+ * The navigable entries that are stored in a memory-mapped file as a B+tree.
+ * 
+ * <p>
+ * The file is mapped by segments, it contains a header, the pages of the 
+ * B+tree and the records of the entries. Each record contains the key and the 
+ * value serialized by {@link OffHeapSerializer}s, the leaf pages contain the 
+ * addresses of the records and they are chained for the range scan, the internal
+ * pages contain the sizes of their children so that the position of an entry 
+ * can be found in O(log(n)).
+ * </p>
+ * 
+ * <p>
+ * Opening an existing file only reads the header and maps the segments, 
+ * the tree is not rebuilt. The header is marked as dirty before the first 
+ * modification and it is marked as clean by {@link #flush()} after all the 
+ * segments have been forced to the storage, so a file that was neither flushed 
+ * nor closed after its last modification can not be opened again unless the 
+ * recovery is required explicitly. The recovery verifies the chain of the leaves 
+ * and rebuilds the internal pages above it, the entries of the modification that 
+ * was interrupted may be lost.
+ * The same comparator and serializers must be used by all the instances 
+ * that open the same file, and one file can only be opened by one instance at the same time.
+ * </p>
+ * 
+ * <p>
+ * The {@link BaseEntry} objects are deserialized copies just like {@link OffHeapHashEntries},
+ * the removed records and the replaced values that can not be overwritten in place are 
+ * not reused until the entries are cleared.
+ * </p>
+ * 
+ * @author Tao Chen
+ */
+public class MappedTreeEntries<K, V> 
+extends AbstractBaseEntriesImpl<K, V> 
+implements NavigableBaseEntries<K, V>, Closeable, Flushable {
+    
+    private static final int MAGIC = 0x42465442;
+    
+    private static final int VERSION = 1;
+    
+    private static final int MIN_SEGMENT_SIZE = 1 << 12;
+    
+    private static final int MAX_SEGMENT_SIZE = 1 << 30;
+    
+    /*
+     * The max count of the records of a leaf page 
+     * and the max count of the children of an internal page.
+     */
+    private static final int ORDER = 64;
+    
+    private static final int HEADER_MAGIC = 0;
+    
+    private static final int HEADER_VERSION = 4;
+    
+    private static final int HEADER_DIRTY = 8;
+    
+    private static final int HEADER_SEGMENT_SHIFT = 12;
+    
+    private static final int HEADER_HEIGHT = 16;
+    
+    private static final int HEADER_ENTRY_COUNT = 20;
+    
+    private static final int HEADER_ROOT = 24;
+    
+    private static final int HEADER_TAIL = 32;
+    
+    private static final int HEADER_FREE_PAGE = 40;
+    
+    private static final int HEADER_FIRST_LEAF = 48;
+    
+    private static final int HEADER_LAST_LEAF = 56;
+    
+    private static final int HEADER_LENGTH = 64;
+    
+    private static final int PAGE_LEAF = 0;
+    
+    private static final int PAGE_COUNT = 4;
+    
+    private static final int PAGE_NEXT_FREE = 8;
+    
+    private static final int LEAF_PREV = 8;
+    
+    private static final int LEAF_NEXT = 16;
+    
+    private static final int LEAF_RECORDS = 24;
+    
+    private static final int NODE_CHILDREN = 8;
+    
+    /*
+     * The separator of the first child is meaningless except the right page 
+     * created by the split, it is used to return the separator to the parent.
+     */
+    private static final int NODE_SEPARATORS = NODE_CHILDREN + 8 * ORDER;
+    
+    private static final int NODE_SIZES = NODE_SEPARATORS + 8 * ORDER;
+    
+    private static final int PAGE_LENGTH = NODE_SIZES + 4 * ORDER;
+    
+    /*
+     * Each record is: the key length(4 bytes), the value length(4 bytes, -1 means null),
+     * the value capacity(4 bytes), the key bytes, the value bytes.
+     */
+    private static final int RECORD_HEADER_LENGTH = 12;
+    
+    private File file;
+    
+    private FileChannel channel;
+    
+    private OffHeapSerializer<K> keySerializer;
+    
+    private OffHeapSerializer<V> valueSerializer;
+    
+    private MappedByteBuffer[] segments;
+    
+    private int segmentShift;
+    
+    private int height;
+    
+    private int size;
+    
+    private long root;
+    
+    private long tail;
+    
+    private long freePage;
+    
+    private long firstLeaf;
+    
+    private long lastLeaf;
+    
+    private boolean dirty;
+    
+    private boolean closed;
+    
+    private int modCount;
+    
+    /**
+     * Opens the file if it is not empty, otherwise, creates the B+tree in it.
+     * 
+     * @param segmentSize The byte size of each mapped segment, it is rounded up to 
+     * the power of 2 and it is ignored when an existing file is opened. 
+     * The length of a record can not be greater than it.
+     */
+    public MappedTreeEntries(
+            File file,
+            Comparator<? super K> comparator,
+            OffHeapSerializer<K> keySerializer,
+            OffHeapSerializer<V> valueSerializer,
+            int segmentSize) throws IOException {
+        this(file, comparator, keySerializer, valueSerializer, segmentSize, false);
+    }
+    
+    /**
+     * Opens the file if it is not empty, otherwise, creates the B+tree in it.
+     * 
+     * @param segmentSize The byte size of each mapped segment, it is rounded up to 
+     * the power of 2 and it is ignored when an existing file is opened. 
+     * The length of a record can not be greater than it.
+     * @param recoverDirtyFile Whether the file that was neither flushed nor closed 
+     * after its last modification should be recovered, if it is false, such file 
+     * can not be opened. The recovered file is flushed before this constructor returns.
+     * @exception IllegalStateException The file is dirty but the recovery is not 
+     * required, or the file can not be recovered because its chain of the leaves is broken.
+     */
+    public MappedTreeEntries(
+            File file,
+            Comparator<? super K> comparator,
+            OffHeapSerializer<K> keySerializer,
+            OffHeapSerializer<V> valueSerializer,
+            int segmentSize,
+            boolean recoverDirtyFile) throws IOException {
+        super(BidiType.NONE, ReplacementRule.OLD_REFERENCE_WIN, comparator, null);
+        this.file = Arguments.mustNotBeNull("file", file);
+        this.keySerializer = Arguments.mustNotBeNull("keySerializer", keySerializer);
+        this.valueSerializer = Arguments.mustNotBeNull("valueSerializer", valueSerializer);
+        Arguments.mustBeGreaterThanOrEqualToValue("segmentSize", segmentSize, MIN_SEGMENT_SIZE);
+        Arguments.mustBeLessThanOrEqualToValue("segmentSize", segmentSize, MAX_SEGMENT_SIZE);
+        FileChannel channel = FileChannel.open(
+                file.toPath(), 
+                StandardOpenOption.CREATE, 
+                StandardOpenOption.READ, 
+                StandardOpenOption.WRITE);
+        try {
+            this.channel = channel;
+            this.segments = new MappedByteBuffer[4];
+            if (channel.size() == 0) {
+                this.create(32 - Integer.numberOfLeadingZeros(segmentSize - 1));
+            } else {
+                this.open(recoverDirtyFile);
+            }
+        } catch (IOException | RuntimeException | Error ex) {
+            channel.close();
+            throw ex;
+        }
+    }
+    
+    @Override
+    public boolean isReadWriteLockSupported() {
+        return true;
+    }
+
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+    
+    @Override
+    public int modCount() {
+        return this.modCount;
+    }
+    
+    @Override
+    public Comparator<? super K> comparator() {
+        return this.keyUnifiedComparator().comparator();
+    }
+
+    @Override
+    public NavigableRange<K> range() {
+        return null;
+    }
+    
+    public File getFile() {
+        return this.file;
+    }
+    
+    public boolean isClosed() {
+        return this.closed;
+    }
+    
+    /**
+     * Forces all the modifications to the storage and marks the file as clean.
+     */
+    @Override
+    public void flush() throws IOException {
+        this.requireOpen();
+        if (this.dirty) {
+            MappedByteBuffer[] segments = this.segments;
+            for (int i = segments.length - 1; i >= 0; i--) {
+                if (segments[i] != null) {
+                    segments[i].force();
+                }
+            }
+            this.writeHeader(false);
+            segments[0].force();
+            this.dirty = false;
+        }
+    }
+
+    /**
+     * Flushes the modifications and unmaps the file, 
+     * any operation except {@link #close()}, {@link #isClosed()} and {@link #getFile()} 
+     * throws {@link IllegalStateException} after that.
+     */
+    @Override
+    public void close() throws IOException {
+        if (!this.closed) {
+            try {
+                this.flush();
+            } finally {
+                this.closed = true;
+                this.modCount++;
+                MappedByteBuffer[] segments = this.segments;
+                this.segments = null;
+                for (int i = segments.length - 1; i >= 0; i--) {
+                    DirectBuffers.release(segments[i]);
+                }
+                this.channel.close();
+            }
+        }
+    }
+
+    @Override
+    public final BaseEntry<K, V> getBaseEntry(Object key) {
+        K k = this.keyOf(key);
+        if (k == null) {
+            return null;
+        }
+        long leaf = this.descend(k, null, null);
+        int index = this.search(leaf, k);
+        return index < 0 ? null : this.entryAt(leaf, index);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        K k = this.keyOf(key);
+        return k != null && this.search(this.descend(k, null, null), k) >= 0;
+    }
+    
+    /**
+     * Gets the value without creating the {@link BaseEntry}.
+     */
+    public V getValue(Object key) {
+        K k = this.keyOf(key);
+        if (k == null) {
+            return null;
+        }
+        long leaf = this.descend(k, null, null);
+        int index = this.search(leaf, k);
+        return index < 0 ? null : this.recordValue(this.recordAt(leaf, index));
+    }
+    
+    public V putValue(K key, V value) {
+        if (this.isFrozen() || this.keyValidator() != null || this.valueValidator() != null) {
+            return this.put(key, value, (BaseEntriesHandler<K, V>)null);
+        }
+        return this.put0(this.checkKey(key), value);
+    }
+    
+    public V removeValue(Object key) {
+        if (this.isFrozen()) {
+            BaseEntry<K, V> be = this.removeByKey(key, (BaseEntriesHandler<K, V>)null);
+            return be == null ? null : be.getValue();
+        }
+        K k = this.keyOf(key);
+        if (k == null) {
+            return null;
+        }
+        long[] pages = new long[this.height];
+        int[] slots = new int[this.height];
+        if (this.find(k, pages, slots) < 0) {
+            return null;
+        }
+        V oldValue = this.recordValue(this.recordAt(pages[this.height - 1], slots[this.height - 1]));
+        this.delete(pages, slots);
+        return oldValue;
+    }
+
+    @Override
+    public BaseEntry<K, V> first() {
+        this.requireOpen();
+        return this.size == 0 ? null : this.entryAt(this.firstLeaf, 0);
+    }
+
+    @Override
+    public BaseEntry<K, V> last() {
+        this.requireOpen();
+        return this.size == 0 ? null : this.entryAt(this.lastLeaf, this.countOf(this.lastLeaf) - 1);
+    }
+
+    @Override
+    public BaseEntry<K, V> floor(K key) {
+        K k = this.checkKey(key);
+        long leaf = this.descend(k, null, null);
+        int index = this.search(leaf, k);
+        return this.entryBefore(leaf, index >= 0 ? index : -index - 2);
+    }
+
+    @Override
+    public BaseEntry<K, V> ceiling(K key) {
+        K k = this.checkKey(key);
+        long leaf = this.descend(k, null, null);
+        int index = this.search(leaf, k);
+        return this.entryAfter(leaf, index >= 0 ? index : -index - 1);
+    }
+
+    @Override
+    public BaseEntry<K, V> lower(K key) {
+        K k = this.checkKey(key);
+        long leaf = this.descend(k, null, null);
+        int index = this.search(leaf, k);
+        return this.entryBefore(leaf, index >= 0 ? index - 1 : -index - 2);
+    }
+
+    @Override
+    public BaseEntry<K, V> higher(K key) {
+        K k = this.checkKey(key);
+        long leaf = this.descend(k, null, null);
+        int index = this.search(leaf, k);
+        return this.entryAfter(leaf, index >= 0 ? index + 1 : -index - 1);
+    }
+
+    @Override
+    public BaseEntry<K, V> entryAt(int index) {
+        this.requireOpen();
+        Arguments.indexMustBetweenOther("index", index, "0", 0, true, "size()", this.size, false);
+        long page = this.root;
+        for (int depth = this.height - 1; depth > 0; depth--) {
+            int slot = 0;
+            int childSize;
+            while (index >= (childSize = this.childSizeAt(page, slot))) {
+                index -= childSize;
+                slot++;
+            }
+            page = this.childAt(page, slot);
+        }
+        return this.entryAt(page, index);
+    }
+
+    @Override
+    public int indexOf(K key) {
+        K k = this.keyOf(key);
+        if (k == null) {
+            return -1;
+        }
+        long page = this.root;
+        int rank = 0;
+        for (int depth = this.height - 1; depth > 0; depth--) {
+            int slot = this.childIndexOf(page, k);
+            for (int i = 0; i < slot; i++) {
+                rank += this.childSizeAt(page, i);
+            }
+            page = this.childAt(page, slot);
+        }
+        int index = this.search(page, k);
+        return index < 0 ? -1 : rank + index;
+    }
+    
+    @Override
+    public final BaseEntry<K, V> pollFirst(BaseEntriesHandler<K, V> handler) {
+        return this.poll(this.first(), this.triggerOf(handler));
+    }
+    
+    @Override
+    public final BaseEntry<K, V> pollLast(BaseEntriesHandler<K, V> handler) {
+        return this.poll(this.last(), this.triggerOf(handler));
+    }
+    
+    @Override
+    public final NavigableBaseEntries<K, V> descendingEntries() {
+        return this.new SubEntries(NavigableRange.descendingRange(this));
+    }
+
+    @Override
+    public final NavigableBaseEntries<K, V> subEntries(
+            boolean hasFrom, K from, boolean fromInclusive, 
+            boolean hasTo, K to, boolean toInclusive) {
+        return this.new SubEntries(
+                NavigableRange.subRange(
+                        this, 
+                        hasFrom, from, fromInclusive, 
+                        hasTo, to, toInclusive
+                )
+        );
+    }
+
+    @Override
+    public BaseEntryIterator<K, V> iterator() {
+        return this.new EntryIterator(this.first(), this.size, false);
+    }
+
+    @Override
+    protected V put(
+            K key, 
+            V value, 
+            Trigger<K, V> trigger,
+            FrozenContextSuspending<K, V> suspending) {
+        return super.put(this.checkKey(key), value, trigger, suspending);
+    }
+
+    @Override
+    protected void putAll(Map<? extends K, ? extends V> m, Trigger<K, V> trigger) {
+        for (K key : m.keySet()) {
+            this.checkKey(key);
+        }
+        super.putAll(m, trigger);
+    }
+
+    @Override
+    protected V putWithoutTriggerFlushing(
+            K key, 
+            V value, 
+            AttachProcessor<K, V> attachProcessor) {
+        V oldV = null;
+        if (attachProcessor.beginExcute()) {
+            try {
+                oldV = this.put0(key, value);
+                attachProcessor.endExecute(null);
+            } catch (RuntimeException | Error ex) {
+                attachProcessor.endExecute(ex);
+            }
+        }
+        return oldV;
+    }
+
+    @Override
+    protected void putAllWithoutTriggerFlushing(
+            Map<? extends K, ? extends V> m,
+            AttachProcessor<K, V> attachProcessor) {
+        History<K, V> puttingHistory = attachProcessor.getPuttingHistory();
+        if (attachProcessor.beginExcute()) {
+            try {
+                if (puttingHistory == null) {
+                    for (Entry<? extends K, ? extends V> e : m.entrySet()) {
+                        this.put0(e.getKey(), e.getValue());
+                    }
+                } else {
+                    int count = puttingHistory.getCount();
+                    for (int i = 0; i < count; i++) {
+                        this.put0(puttingHistory.getNewKey(i), puttingHistory.getNewValue(i));
+                    }
+                }
+                attachProcessor.endExecute(null);
+            } catch (RuntimeException | Error ex) {
+                attachProcessor.endExecute(ex);
+            }
+        }
+    }
+
+    @Override
+    protected void clear(Trigger<K, V> trigger) {
+        this.requireOpen();
+        if (trigger != null) {
+            BaseEntryIterator<K, V> iterator = this.iterator();
+            while (iterator.hasNext()) {
+                trigger.preRemove(iterator.next());
+            }
+        }
+        if (trigger == null || trigger.beginExecute()) {
+            try {
+                this.markDirty();
+                this.tail = HEADER_LENGTH;
+                this.freePage = 0L;
+                this.root = this.lastLeaf = this.allocatePage(true);
+                this.setFirstLeaf(this.root);
+                this.height = 1;
+                this.size = 0;
+                this.modCount++;
+                if (trigger != null) {
+                    trigger.endExecute(null);
+                }
+            } catch (RuntimeException | Error ex) {
+                if (trigger == null) {
+                    throw ex;
+                }
+                trigger.endExecute(ex);
+            }
+        }
+        if (trigger != null) {
+            trigger.flush();
+        }
+    }
+
+    @Override
+    protected final void deleteBaseEntry(BaseEntry<K, V> be) {
+        BaseEntryImpl<K, V> e = (BaseEntryImpl<K, V>)be;
+        if (e.owner == this && e.locate() != -1) {
+            long[] pages = new long[this.height];
+            int[] slots = new int[this.height];
+            if (this.find(e.key, pages, slots) >= 0) {
+                V oldValue = this.recordValue(this.recordAt(pages[this.height - 1], slots[this.height - 1]));
+                this.delete(pages, slots);
+                e.detach(oldValue);
+            }
+        }
+    }
+    
+    private BaseEntry<K, V> poll(BaseEntry<K, V> be, Trigger<K, V> trigger) {
+        if (be != null) {
+            if (trigger != null) {
+                trigger.preRemove(be);
+                if (trigger.beginExecute()) {
+                    try {
+                        this.deleteBaseEntry(be);
+                        trigger.endExecute(null);
+                    } catch (RuntimeException | Error ex) {
+                        trigger.endExecute(ex);
+                    }
+                }
+                trigger.flush();
+            } else {
+                this.deleteBaseEntry(be);
+            }
+        }
+        return be;
+    }
+    
+    private V put0(K key, V value) {
+        long[] pages = new long[this.height];
+        int[] slots = new int[this.height];
+        int index = this.find(key, pages, slots);
+        if (index >= 0) {
+            return this.changeValue(pages[this.height - 1], index, value);
+        }
+        long record = this.writeRecord(
+                this.keySerializer.serialize(key), 
+                value != null ? this.valueSerializer.serialize(value) : null);
+        this.insert(pages, slots, record);
+        return null;
+    }
+    
+    private void requireOpen() {
+        if (this.closed) {
+            throw new IllegalStateException(mappedTreeEntriesClosed(MappedTreeEntries.class));
+        }
+    }
+    
+    @SuppressWarnings("unchecked")
+    private K checkKey(Object key) {
+        this.requireOpen();
+        Arguments.mustNotBeNull("key", key);
+        if (this.comparator() == null) {
+            Arguments.mustBeInstanceOfValue("key", key, Comparable.class);
+        }
+        return (K)key;
+    }
+    
+    /*
+     * Returns null if the key can not be contained by this object.
+     */
+    @SuppressWarnings("unchecked")
+    private K keyOf(Object key) {
+        this.requireOpen();
+        if (key == null || (this.comparator() == null && !(key instanceof Comparable<?>))) {
+            return null;
+        }
+        return (K)key;
+    }
+    
+    @SuppressWarnings("unchecked")
+    private int compare(K key, long record) {
+        K k = this.recordKey(record);
+        Comparator<? super K> comparator = this.comparator();
+        if (comparator != null) {
+            return comparator.compare(key, k);
+        }
+        return ((Comparable<? super K>)key).compareTo(k);
+    }
+    
+    /*
+     * Returns the index of the key in the leaf if it is found,
+     * otherwise, returns -(insertion point) - 1.
+     */
+    private int search(long leaf, K key) {
+        int low = 0;
+        int high = this.countOf(leaf) - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = this.compare(key, this.recordAt(leaf, mid));
+            if (cmp > 0) {
+                low = mid + 1;
+            } else if (cmp < 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+    
+    /*
+     * Returns the last child whose separator is not greater than the key.
+     */
+    private int childIndexOf(long node, K key) {
+        int low = 1;
+        int high = this.countOf(node) - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (this.compare(key, this.separatorAt(node, mid)) >= 0) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low - 1;
+    }
+    
+    /*
+     * Returns the leaf that may contain the key, the pages and 
+     * the selected slots of the path are saved if the arrays are specified.
+     */
+    private long descend(K key, long[] pages, int[] slots) {
+        long page = this.root;
+        int leafDepth = this.height - 1;
+        for (int depth = 0; depth < leafDepth; depth++) {
+            int slot = this.childIndexOf(page, key);
+            if (pages != null) {
+                pages[depth] = page;
+                slots[depth] = slot;
+            }
+            page = this.childAt(page, slot);
+        }
+        if (pages != null) {
+            pages[leafDepth] = page;
+        }
+        return page;
+    }
+    
+    /*
+     * The last slot is the index of the key in the leaf or the insertion point.
+     */
+    private int find(K key, long[] pages, int[] slots) {
+        long leaf = this.descend(key, pages, slots);
+        int index = this.search(leaf, key);
+        slots[this.height - 1] = index >= 0 ? index : -index - 1;
+        return index;
+    }
+    
+    private BaseEntryImpl<K, V> entryAt(long leaf, int index) {
+        return new BaseEntryImpl<K, V>(this, leaf, index, this.recordKey(this.recordAt(leaf, index)));
+    }
+    
+    private BaseEntryImpl<K, V> entryBefore(long leaf, int index) {
+        if (index < 0) {
+            leaf = this.getLong(leaf + LEAF_PREV);
+            if (leaf == 0L) {
+                return null;
+            }
+            index = this.countOf(leaf) - 1;
+        }
+        return this.entryAt(leaf, index);
+    }
+    
+    private BaseEntryImpl<K, V> entryAfter(long leaf, int index) {
+        if (index >= this.countOf(leaf)) {
+            leaf = this.getLong(leaf + LEAF_NEXT);
+            if (leaf == 0L) {
+                return null;
+            }
+            index = 0;
+        }
+        return this.entryAt(leaf, index);
+    }
+    
+    private void insert(long[] pages, int[] slots, long record) {
+        this.markDirty();
+        int leafDepth = this.height - 1;
+        long leaf = pages[leafDepth];
+        long right = 0L;
+        if (this.countOf(leaf) < ORDER) {
+            this.insertRecord(leaf, slots[leafDepth], record);
+        } else {
+            right = this.splitLeaf(leaf, slots[leafDepth], record);
+        }
+        for (int depth = leafDepth - 1; depth >= 0; depth--) {
+            long node = pages[depth];
+            int slot = slots[depth];
+            if (right == 0L) {
+                this.setChildSizeAt(node, slot, this.childSizeAt(node, slot) + 1);
+            } else {
+                this.setChildSizeAt(node, slot, this.sizeOf(pages[depth + 1]));
+                if (this.countOf(node) < ORDER) {
+                    this.insertChild(node, slot + 1, right, this.separatorOf(right), this.sizeOf(right));
+                    right = 0L;
+                } else {
+                    right = this.splitNode(node, slot + 1, right, this.separatorOf(right), this.sizeOf(right));
+                }
+            }
+        }
+        if (right != 0L) {
+            long oldRoot = this.root;
+            long newRoot = this.allocatePage(false);
+            this.setCount(newRoot, 2);
+            this.setChildAt(newRoot, 0, oldRoot, 0L, this.sizeOf(oldRoot));
+            this.setChildAt(newRoot, 1, right, this.separatorOf(right), this.sizeOf(right));
+            this.root = newRoot;
+            this.height++;
+        }
+        this.size++;
+        this.modCount++;
+    }
+    
+    /*
+     * The pages are never merged, only the empty pages are removed. 
+     * When the height is greater than 1, no leaf is empty and the 
+     * root contains 2 children at least.
+     */
+    private void delete(long[] pages, int[] slots) {
+        this.markDirty();
+        int depth = this.height - 1;
+        this.removeRecord(pages[depth], slots[depth]);
+        while (depth > 0 && this.countOf(pages[depth]) == 0) {
+            long page = pages[depth];
+            if (this.isLeaf(page)) {
+                long prev = this.getLong(page + LEAF_PREV);
+                long next = this.getLong(page + LEAF_NEXT);
+                if (prev != 0L) {
+                    this.putLong(prev + LEAF_NEXT, next);
+                } else {
+                    this.setFirstLeaf(next);
+                }
+                if (next != 0L) {
+                    this.putLong(next + LEAF_PREV, prev);
+                } else {
+                    this.lastLeaf = prev;
+                }
+            }
+            this.freePage(page);
+            depth--;
+            this.removeChild(pages[depth], slots[depth]);
+        }
+        while (--depth >= 0) {
+            this.setChildSizeAt(pages[depth], slots[depth], this.childSizeAt(pages[depth], slots[depth]) - 1);
+        }
+        while (this.height > 1 && this.countOf(this.root) == 1) {
+            long oldRoot = this.root;
+            this.root = this.childAt(oldRoot, 0);
+            this.freePage(oldRoot);
+            this.height--;
+        }
+        this.size--;
+        this.modCount++;
+    }
+    
+    private V changeValue(long leaf, int index, V value) {
+        this.markDirty();
+        long record = this.recordAt(leaf, index);
+        V oldValue = this.recordValue(record);
+        int keyLength = this.getInt(record);
+        byte[] valueBytes = value != null ? this.valueSerializer.serialize(value) : null;
+        int valueLength = valueBytes != null ? valueBytes.length : -1;
+        if (valueLength <= this.getInt(record + 8)) {
+            this.putInt(record + 4, valueLength);
+            if (valueBytes != null) {
+                this.putBytes(record + RECORD_HEADER_LENGTH + keyLength, valueBytes);
+            }
+        } else {
+            byte[] keyBytes = this.getBytes(record + RECORD_HEADER_LENGTH, keyLength);
+            this.setRecordAt(leaf, index, this.writeRecord(keyBytes, valueBytes));
+        }
+        return oldValue;
+    }
+    
+    private void insertRecord(long leaf, int index, long record) {
+        int count = this.countOf(leaf);
+        for (int i = count - 1; i >= index; i--) {
+            this.setRecordAt(leaf, i + 1, this.recordAt(leaf, i));
+        }
+        this.setRecordAt(leaf, index, record);
+        this.setCount(leaf, count + 1);
+    }
+    
+    private void removeRecord(long leaf, int index) {
+        int count = this.countOf(leaf) - 1;
+        for (int i = index; i < count; i++) {
+            this.setRecordAt(leaf, i, this.recordAt(leaf, i + 1));
+        }
+        this.setCount(leaf, count);
+    }
+    
+    private void insertChild(long node, int index, long child, long separator, int size) {
+        int count = this.countOf(node);
+        for (int i = count - 1; i >= index; i--) {
+            this.setChildAt(node, i + 1, this.childAt(node, i), this.separatorAt(node, i), this.childSizeAt(node, i));
+        }
+        this.setChildAt(node, index, child, separator, size);
+        this.setCount(node, count + 1);
+    }
+    
+    private void removeChild(long node, int index) {
+        int count = this.countOf(node) - 1;
+        for (int i = index; i < count; i++) {
+            this.setChildAt(node, i, this.childAt(node, i + 1), this.separatorAt(node, i + 1), this.childSizeAt(node, i + 1));
+        }
+        this.setCount(node, count);
+    }
+    
+    /*
+     * When the record is appended to the end, the left page is kept full 
+     * so that the sequential insertion does not leave half empty pages.
+     */
+    private long splitLeaf(long leaf, int index, long record) {
+        long[] records = new long[ORDER + 1];
+        for (int i = 0; i < ORDER; i++) {
+            records[i < index ? i : i + 1] = this.recordAt(leaf, i);
+        }
+        records[index] = record;
+        int leftCount = index == ORDER ? ORDER : (ORDER + 1) >> 1;
+        long right = this.allocatePage(true);
+        for (int i = 0; i < leftCount; i++) {
+            this.setRecordAt(leaf, i, records[i]);
+        }
+        for (int i = leftCount; i <= ORDER; i++) {
+            this.setRecordAt(right, i - leftCount, records[i]);
+        }
+        this.setCount(leaf, leftCount);
+        this.setCount(right, ORDER + 1 - leftCount);
+        long next = this.getLong(leaf + LEAF_NEXT);
+        this.putLong(right + LEAF_PREV, leaf);
+        this.putLong(right + LEAF_NEXT, next);
+        if (next != 0L) {
+            this.putLong(next + LEAF_PREV, right);
+        } else {
+            this.lastLeaf = right;
+        }
+        this.putLong(leaf + LEAF_NEXT, right);
+        return right;
+    }
+    
+    private long splitNode(long node, int index, long child, long separator, int size) {
+        long[] children = new long[ORDER + 1];
+        long[] separators = new long[ORDER + 1];
+        int[] sizes = new int[ORDER + 1];
+        for (int i = 0; i < ORDER; i++) {
+            int j = i < index ? i : i + 1;
+            children[j] = this.childAt(node, i);
+            separators[j] = this.separatorAt(node, i);
+            sizes[j] = this.childSizeAt(node, i);
+        }
+        children[index] = child;
+        separators[index] = separator;
+        sizes[index] = size;
+        int leftCount = index == ORDER ? ORDER : (ORDER + 1) >> 1;
+        long right = this.allocatePage(false);
+        for (int i = 0; i < leftCount; i++) {
+            this.setChildAt(node, i, children[i], separators[i], sizes[i]);
+        }
+        for (int i = leftCount; i <= ORDER; i++) {
+            this.setChildAt(right, i - leftCount, children[i], separators[i], sizes[i]);
+        }
+        this.setCount(node, leftCount);
+        this.setCount(right, ORDER + 1 - leftCount);
+        return right;
+    }
+    
+    private long separatorOf(long page) {
+        return this.isLeaf(page) ? this.recordAt(page, 0) : this.separatorAt(page, 0);
+    }
+    
+    private int sizeOf(long page) {
+        int count = this.countOf(page);
+        if (this.isLeaf(page)) {
+            return count;
+        }
+        int size = 0;
+        for (int i = 0; i < count; i++) {
+            size += this.childSizeAt(page, i);
+        }
+        return size;
+    }
+    
+    private boolean isLeaf(long page) {
+        return this.getInt(page + PAGE_LEAF) != 0;
+    }
+    
+    private int countOf(long page) {
+        return this.getInt(page + PAGE_COUNT);
+    }
+    
+    private void setCount(long page, int count) {
+        this.putInt(page + PAGE_COUNT, count);
+    }
+    
+    private long recordAt(long leaf, int index) {
+        return this.getLong(leaf + LEAF_RECORDS + 8 * index);
+    }
+    
+    private void setRecordAt(long leaf, int index, long record) {
+        this.putLong(leaf + LEAF_RECORDS + 8 * index, record);
+    }
+    
+    private long childAt(long node, int index) {
+        return this.getLong(node + NODE_CHILDREN + 8 * index);
+    }
+    
+    private long separatorAt(long node, int index) {
+        return this.getLong(node + NODE_SEPARATORS + 8 * index);
+    }
+    
+    private int childSizeAt(long node, int index) {
+        return this.getInt(node + NODE_SIZES + 4 * index);
+    }
+    
+    private void setChildSizeAt(long node, int index, int size) {
+        this.putInt(node + NODE_SIZES + 4 * index, size);
+    }
+    
+    private void setChildAt(long node, int index, long child, long separator, int size) {
+        this.putLong(node + NODE_CHILDREN + 8 * index, child);
+        this.putLong(node + NODE_SEPARATORS + 8 * index, separator);
+        this.putInt(node + NODE_SIZES + 4 * index, size);
+    }
+    
+    private long allocatePage(boolean leaf) {
+        long page = this.freePage;
+        if (page != 0L) {
+            this.freePage = this.getLong(page + PAGE_NEXT_FREE);
+        } else {
+            page = this.allocate(PAGE_LENGTH);
+        }
+        this.putInt(page + PAGE_LEAF, leaf ? 1 : 0);
+        this.putInt(page + PAGE_COUNT, 0);
+        if (leaf) {
+            this.putLong(page + LEAF_PREV, 0L);
+            this.putLong(page + LEAF_NEXT, 0L);
+        }
+        return page;
+    }
+    
+    private void freePage(long page) {
+        this.putLong(page + PAGE_NEXT_FREE, this.freePage);
+        this.freePage = page;
+    }
+    
+    private long writeRecord(byte[] keyBytes, byte[] valueBytes) {
+        int valueLength = valueBytes != null ? valueBytes.length : -1;
+        int valueCapacity = Math.max(valueLength, 0);
+        long record = this.allocate(RECORD_HEADER_LENGTH + keyBytes.length + valueCapacity);
+        this.putInt(record, keyBytes.length);
+        this.putInt(record + 4, valueLength);
+        this.putInt(record + 8, valueCapacity);
+        this.putBytes(record + RECORD_HEADER_LENGTH, keyBytes);
+        if (valueBytes != null) {
+            this.putBytes(record + RECORD_HEADER_LENGTH + keyBytes.length, valueBytes);
+        }
+        return record;
+    }
+    
+    private K recordKey(long record) {
+        return this.keySerializer.deserialize(
+                this.getBytes(record + RECORD_HEADER_LENGTH, this.getInt(record)));
+    }
+    
+    private V recordValue(long record) {
+        int valueLength = this.getInt(record + 4);
+        if (valueLength == -1) {
+            return null;
+        }
+        return this.valueSerializer.deserialize(
+                this.getBytes(record + RECORD_HEADER_LENGTH + this.getInt(record), valueLength));
+    }
+    
+    /*
+     * Each block is allocated in one segment, so the absolute 
+     * get/put methods of one segment can be used for it.
+     */
+    private long allocate(int length) {
+        this.markDirty();
+        int segmentSize = 1 << this.segmentShift;
+        if (length > segmentSize) {
+            throw new IllegalArgumentException(recordIsTooLarge(length, segmentSize));
+        }
+        long address = this.tail;
+        if ((address & (segmentSize - 1)) + length > segmentSize) {
+            address = ((address >>> this.segmentShift) + 1) << this.segmentShift;
+        }
+        this.map((int)((address + length - 1) >>> this.segmentShift));
+        this.tail = address + length;
+        return address;
+    }
+    
+    private void map(int segmentIndex) {
+        MappedByteBuffer[] segments = this.segments;
+        if (segmentIndex >= segments.length) {
+            this.segments = segments = Arrays.copyOf(segments, Math.max(segmentIndex + 1, segments.length << 1));
+        }
+        if (segments[segmentIndex] == null) {
+            int segmentSize = 1 << this.segmentShift;
+            try {
+                segments[segmentIndex] = this.channel.map(
+                        MapMode.READ_WRITE, 
+                        (long)segmentIndex * segmentSize, 
+                        segmentSize);
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+    }
+    
+    private ByteBuffer segmentOf(long address) {
+        return this.segments[(int)(address >>> this.segmentShift)];
+    }
+    
+    private int offsetOf(long address) {
+        return (int)address & ((1 << this.segmentShift) - 1);
+    }
+    
+    private int getInt(long address) {
+        return this.segmentOf(address).getInt(this.offsetOf(address));
+    }
+    
+    private long getLong(long address) {
+        return this.segmentOf(address).getLong(this.offsetOf(address));
+    }
+    
+    private void putInt(long address, int value) {
+        this.segmentOf(address).putInt(this.offsetOf(address), value);
+    }
+    
+    private void putLong(long address, long value) {
+        this.segmentOf(address).putLong(this.offsetOf(address), value);
+    }
+    
+    private byte[] getBytes(long address, int length) {
+        byte[] bytes = new byte[length];
+        ByteBuffer buffer = this.segmentOf(address).duplicate();
+        buffer.position(this.offsetOf(address));
+        buffer.get(bytes);
+        return bytes;
+    }
+    
+    private void putBytes(long address, byte[] bytes) {
+        ByteBuffer buffer = this.segmentOf(address).duplicate();
+        buffer.position(this.offsetOf(address));
+        buffer.put(bytes);
+    }
+    
+    /*
+     * The dirty flag is forced to the storage before the first 
+     * modification after the file is opened or flushed.
+     */
+    private void markDirty() {
+        if (!this.dirty) {
+            this.dirty = true;
+            this.segments[0].putInt(HEADER_DIRTY, 1);
+            this.segments[0].force();
+        }
+    }
+    
+    /*
+     * Unlike the other fields of the header, the first leaf is written into 
+     * the header immediately, so the chain of the leaves can always be found 
+     * when the file must be recovered.
+     */
+    private void setFirstLeaf(long firstLeaf) {
+        this.firstLeaf = firstLeaf;
+        this.segments[0].putLong(HEADER_FIRST_LEAF, firstLeaf);
+    }
+    
+    private void create(int segmentShift) {
+        this.segmentShift = segmentShift;
+        this.map(0);
+        this.tail = HEADER_LENGTH;
+        this.root = this.firstLeaf = this.lastLeaf = this.allocatePage(true);
+        this.height = 1;
+        this.writeHeader(false);
+        this.segments[0].force();
+        this.dirty = false;
+    }
+    
+    private void open(boolean recoverDirtyFile) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_LENGTH);
+        while (header.hasRemaining() && this.channel.read(header, header.position()) != -1);
+        int segmentShift = header.getInt(HEADER_SEGMENT_SHIFT);
+        if (header.hasRemaining() || 
+                header.getInt(HEADER_MAGIC) != MAGIC || 
+                header.getInt(HEADER_VERSION) != VERSION ||
+                segmentShift < Integer.numberOfTrailingZeros(MIN_SEGMENT_SIZE) ||
+                segmentShift > Integer.numberOfTrailingZeros(MAX_SEGMENT_SIZE)) {
+            throw new IllegalArgumentException(invalidMappedFile(this.file));
+        }
+        boolean dirty = header.getInt(HEADER_DIRTY) != 0;
+        if (dirty && !recoverDirtyFile) {
+            throw new IllegalStateException(mappedFileIsDirty(this.file));
+        }
+        this.segmentShift = segmentShift;
+        this.height = header.getInt(HEADER_HEIGHT);
+        this.size = header.getInt(HEADER_ENTRY_COUNT);
+        this.root = header.getLong(HEADER_ROOT);
+        this.tail = header.getLong(HEADER_TAIL);
+        this.freePage = header.getLong(HEADER_FREE_PAGE);
+        this.firstLeaf = header.getLong(HEADER_FIRST_LEAF);
+        this.lastLeaf = header.getLong(HEADER_LAST_LEAF);
+        
+        // Map all the used segments so that the read operations never change this object.
+        long usedLength = dirty ? this.channel.size() : this.tail;
+        int lastSegmentIndex = (int)((usedLength - 1) >>> this.segmentShift);
+        for (int i = 0; i <= lastSegmentIndex; i++) {
+            this.map(i);
+        }
+        if (dirty) {
+            this.recover(usedLength);
+        }
+    }
+    
+    /*
+     * The header fields except the first leaf are only written by flush(), 
+     * so they are stale in a dirty file, but the leaves and the records are 
+     * modified in place. The chain of the leaves is verified before anything 
+     * is changed, then the empty leaves are unlinked and the internal pages 
+     * are rebuilt after the last block used by the leaves and the records. 
+     * The old internal pages and the free pages are abandoned.
+     */
+    private void recover(long fileLength) throws IOException {
+        long[] leaves = new long[16];
+        int leafCount = 0;
+        long maxVisitedCount = fileLength / PAGE_LENGTH;
+        long visitedCount = 0;
+        long tail = HEADER_LENGTH;
+        int size = 0;
+        K lastKey = null;
+        for (long leaf = this.firstLeaf; leaf != 0L; leaf = this.getLong(leaf + LEAF_NEXT)) {
+            if (++visitedCount > maxVisitedCount || 
+                    !this.isBlock(leaf, PAGE_LENGTH, fileLength) || 
+                    !this.isLeaf(leaf)) {
+                throw new IllegalStateException(mappedFileIsBroken(this.file));
+            }
+            int count = this.countOf(leaf);
+            if (count < 0 || count > ORDER) {
+                throw new IllegalStateException(mappedFileIsBroken(this.file));
+            }
+            for (int i = 0; i < count; i++) {
+                long record = this.recordAt(leaf, i);
+                if (!this.isBlock(record, RECORD_HEADER_LENGTH, fileLength)) {
+                    throw new IllegalStateException(mappedFileIsBroken(this.file));
+                }
+                int keyLength = this.getInt(record);
+                int valueLength = this.getInt(record + 4);
+                int valueCapacity = this.getInt(record + 8);
+                long recordLength = (long)RECORD_HEADER_LENGTH + keyLength + valueCapacity;
+                if (keyLength < 0 || 
+                        valueLength < -1 || 
+                        valueCapacity < Math.max(valueLength, 0) ||
+                        recordLength > Integer.MAX_VALUE ||
+                        !this.isBlock(record, (int)recordLength, fileLength) ||
+                        (lastKey != null && this.compare(lastKey, record) >= 0)) {
+                    throw new IllegalStateException(mappedFileIsBroken(this.file));
+                }
+                lastKey = this.recordKey(record);
+                tail = Math.max(tail, record + recordLength);
+            }
+            tail = Math.max(tail, leaf + PAGE_LENGTH);
+            if (count != 0) {
+                if (leafCount == leaves.length) {
+                    leaves = Arrays.copyOf(leaves, leafCount << 1);
+                }
+                leaves[leafCount++] = leaf;
+                size += count;
+            }
+        }
+        if (visitedCount == 0) {
+            throw new IllegalStateException(mappedFileIsBroken(this.file));
+        }
+        
+        this.dirty = true;
+        this.tail = tail;
+        this.freePage = 0L;
+        this.size = size;
+        if (leafCount == 0) {
+            leaves[leafCount++] = this.allocatePage(true);
+        }
+        for (int i = 0; i < leafCount; i++) {
+            this.putLong(leaves[i] + LEAF_PREV, i == 0 ? 0L : leaves[i - 1]);
+            this.putLong(leaves[i] + LEAF_NEXT, i == leafCount - 1 ? 0L : leaves[i + 1]);
+        }
+        this.setFirstLeaf(leaves[0]);
+        this.lastLeaf = leaves[leafCount - 1];
+        
+        /*
+         * Each level is built by distributing its pages to the parents evenly, 
+         * so every parent except the root contains ORDER / 2 children at least.
+         */
+        long[] pages = leaves;
+        int pageCount = leafCount;
+        int height = 1;
+        while (pageCount > 1) {
+            int parentCount = (pageCount + ORDER - 1) / ORDER;
+            long[] parents = new long[parentCount];
+            int pageIndex = 0;
+            for (int parentIndex = 0; parentIndex < parentCount; parentIndex++) {
+                int childCount = (pageCount - pageIndex) / (parentCount - parentIndex);
+                long node = this.allocatePage(false);
+                for (int i = 0; i < childCount; i++) {
+                    long child = pages[pageIndex++];
+                    this.setChildAt(node, i, child, this.separatorOf(child), this.sizeOf(child));
+                }
+                this.setCount(node, childCount);
+                parents[parentIndex] = node;
+            }
+            pages = parents;
+            pageCount = parentCount;
+            height++;
+        }
+        this.root = pages[0];
+        this.height = height;
+        this.flush();
+    }
+    
+    private boolean isBlock(long address, int length, long fileLength) {
+        return address >= HEADER_LENGTH && 
+                address + length <= fileLength && 
+                this.offsetOf(address) + length <= 1 << this.segmentShift;
+    }
+    
+    private void writeHeader(boolean dirty) {
+        ByteBuffer header = this.segments[0];
+        header.putInt(HEADER_MAGIC, MAGIC);
+        header.putInt(HEADER_VERSION, VERSION);
+        header.putInt(HEADER_DIRTY, dirty ? 1 : 0);
+        header.putInt(HEADER_SEGMENT_SHIFT, this.segmentShift);
+        header.putInt(HEADER_HEIGHT, this.height);
+        header.putInt(HEADER_ENTRY_COUNT, this.size);
+        header.putLong(HEADER_ROOT, this.root);
+        header.putLong(HEADER_TAIL, this.tail);
+        header.putLong(HEADER_FREE_PAGE, this.freePage);
+        header.putLong(HEADER_FIRST_LEAF, this.firstLeaf);
+        header.putLong(HEADER_LAST_LEAF, this.lastLeaf);
+    }
+    
+    private class SubEntries extends NavigableSubEntries<K, V> {
+
+        SubEntries(NavigableRange<K> range) {
+            super(range);
+        }
+
+        @Override
+        protected AbstractBaseEntriesImpl<K, V> getParent() {
+            return MappedTreeEntries.this;
+        }
+
+        @Override
+        protected NavigableSubEntries<K, V> createSubEntries(NavigableRange<K> range) {
+            return MappedTreeEntries.this.new SubEntries(range);
+        }
+
+        @Override
+        protected BaseEntryIterator<K, V> iterator(BaseEntry<K, V> first, int count, boolean descending) {
+            return MappedTreeEntries.this.new EntryIterator(first, count, descending);
+        }
+    }
+    
+    /*
+     * Walks along the chain of the leaves, the count is used 
+     * to stop the iteration of the range view.
+     */
+    private class EntryIterator implements BaseEntryIterator<K, V> {
+        
+        private final boolean descending;
+        
+        private long leaf;
+        
+        private int index;
+        
+        private int remaining;
+        
+        private BaseEntryImpl<K, V> current;
+        
+        private int expectedModCount;
+        
+        EntryIterator(BaseEntry<K, V> first, int count, boolean descending) {
+            if (first != null) {
+                BaseEntryImpl<K, V> e = (BaseEntryImpl<K, V>)first;
+                this.leaf = e.leaf;
+                this.index = e.index;
+                this.remaining = count;
+            }
+            this.descending = descending;
+            this.expectedModCount = MappedTreeEntries.this.modCount;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.remaining > 0;
+        }
+
+        @Override
+        public BaseEntry<K, V> next() {
+            MappedTreeEntries<K, V> owner = MappedTreeEntries.this;
+            owner.requireOpen();
+            if (this.expectedModCount != owner.modCount) {
+                throw new ConcurrentModificationException(IteratorMessages.concurrentModifcation());
+            }
+            if (this.remaining == 0) {
+                throw new NoSuchElementException(IteratorMessages.noSuchElement());
+            }
+            BaseEntryImpl<K, V> e = owner.entryAt(this.leaf, this.index);
+            if (--this.remaining != 0) {
+                if (!this.descending) {
+                    if (++this.index == owner.countOf(this.leaf)) {
+                        this.leaf = owner.getLong(this.leaf + LEAF_NEXT);
+                        this.index = 0;
+                    }
+                } else if (--this.index < 0) {
+                    this.leaf = owner.getLong(this.leaf + LEAF_PREV);
+                    this.index = owner.countOf(this.leaf) - 1;
+                }
+            }
+            return this.current = e;
+        }
+
+        /*
+         * The deletion only shifts the records of the same leaf, 
+         * and the leaf is released only when it becomes empty, 
+         * so the next position is adjusted without searching.
+         */
+        @Override
+        public void remove(BaseEntriesHandler<K, V> handler) {
+            MappedTreeEntries<K, V> owner = MappedTreeEntries.this;
+            BaseEntryImpl<K, V> current = this.current;
+            if (current == null) {
+                throw new IllegalStateException(IteratorMessages.removeNoExtractedElement());
+            }
+            if (this.expectedModCount != owner.modCount) {
+                throw new ConcurrentModificationException(IteratorMessages.concurrentModifcation());
+            }
+            Trigger<K, V> trigger = owner.triggerOf(handler);
+            if (trigger != null) {
+                trigger.preRemove(current);
+            }
+            if (trigger == null || trigger.beginExecute()) {
+                try {
+                    long leaf = current.leaf;
+                    owner.deleteBaseEntry(current);
+                    if (!this.descending && this.leaf == leaf) {
+                        this.index--;
+                    }
+                    this.current = null;
+                    this.expectedModCount = owner.modCount;
+                    if (trigger != null) {
+                        trigger.endExecute(null);
+                    }
+                } catch (RuntimeException | Error ex) {
+                    if (trigger == null) {
+                        throw ex;
+                    }
+                    trigger.endExecute(ex);
+                }
+            }
+            if (trigger != null) {
+                trigger.flush();
+            }
+        }
+    }
+    
+    /*
+     * The entry is a deserialized copy, it locates its record again 
+     * by the key when the structure of the owner has been changed.
+     */
+    static class BaseEntryImpl<K, V> extends AbstractBaseEntryImpl<K, V> {
+        
+        /**
+         * It is null after this object has been deleted from the owner.
+         */
+        MappedTreeEntries<K, V> owner;
+        
+        long leaf;
+        
+        int index;
+        
+        private int expectedModCount;
+        
+        final K key;
+        
+        /**
+         * The last known value, it is used after this object has been deleted from the owner.
+         */
+        private V value;
+        
+        private UnifiedComparator<? super Entry<K, V>> unifiedComparator;
+        
+        BaseEntryImpl(MappedTreeEntries<K, V> owner, long leaf, int index, K key) {
+            this.owner = owner;
+            this.leaf = leaf;
+            this.index = index;
+            this.expectedModCount = owner.modCount;
+            this.key = key;
+            this.unifiedComparator = owner.entryUnifiedComparator();
+        }
+
+        @Override
+        public boolean isNonFairLockSupported() {
+            return true;
+        }
+
+        @Override
+        public BaseEntries<K, V> getOwner() {
+            return this.locate() != -1 ? this.owner : null;
+        }
+
+        @Override
+        public K getKey() {
+            return this.key;
+        }
+
+        @Override
+        public V getValue() {
+            if (this.locate() != -1) {
+                this.value = this.owner.recordValue(this.owner.recordAt(this.leaf, this.index));
+            }
+            return this.value;
+        }
+
+        @Override
+        protected void setRawValue(V value) {
+            if (this.locate() != -1) {
+                this.owner.changeValue(this.leaf, this.index, value);
+            }
+            this.value = value;
+        }
+
+        @Override
+        protected UnifiedComparator<? super Entry<K, V>> unifiedComparator() {
+            return this.unifiedComparator;
+        }
+        
+        int locate() {
+            MappedTreeEntries<K, V> owner = this.owner;
+            if (owner == null) {
+                return -1;
+            }
+            if (owner.modCount != this.expectedModCount) {
+                if (owner.closed) {
+                    this.owner = null;
+                    return -1;
+                }
+                long leaf = owner.descend(this.key, null, null);
+                int index = owner.search(leaf, this.key);
+                if (index < 0) {
+                    this.owner = null;
+                    return -1;
+                }
+                this.leaf = leaf;
+                this.index = index;
+                this.expectedModCount = owner.modCount;
+            }
+            return this.index;
+        }
+        
+        void detach(V value) {
+            this.owner = null;
+            this.value = value;
+        }
+    }
+    
+    @I18N
+    private static native String mappedTreeEntriesClosed(Class<?> mappedTreeEntriesType);
+    
+    @I18N
+    private static native String invalidMappedFile(File file);
+    
+    @I18N
+    private static native String mappedFileIsDirty(File file);
+    
+    @I18N
+    private static native String mappedFileIsBroken(File file);
+    
+    @I18N
+    private static native String recordIsTooLarge(int recordLength, int segmentSize);
+}
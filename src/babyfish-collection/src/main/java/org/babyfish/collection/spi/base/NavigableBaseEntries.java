@@ -45,6 +45,20 @@ public interface NavigableBaseEntries<K, V> extends DescendingBaseEntries<K, V>
     
     BaseEntry<K, V> higher(K key);
     
+    /**
+     * @param index The position of the entry in the iteration order of this object
+     * @return The entry at the specified position
+     * @exception IndexOutOfBoundsException The index is not between 0(inclusive) and size()(exclusive) 
+     */
+    BaseEntry<K, V> entryAt(int index);
+    
+    /**
+     * @param key The key of the entry
+     * @return The position of the entry in the iteration order of this object, 
+     * or -1 if this object does not contain the key
+     */
+    int indexOf(K key);
+    
     BaseEntry<K, V> pollFirst(BaseEntriesHandler<K, V> handler);
     
     BaseEntry<K, V> pollLast(BaseEntriesHandler<K, V> handler);
@@ -0,0 +1,430 @@
+/*
+ * BabyFish, Object Model Framework for Java and JPA.
+ * https://github.com/babyfish-ct/babyfish
+ *
+ * Copyright (c) 2008-2016, Tao Chen
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * Please visit "http://opensource.org/licenses/LGPL-3.0" to know more.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ */
+package org.babyfish.collection.spi.base;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Map;
+
+import org.babyfish.collection.UnifiedComparator;
+import org.babyfish.lang.Arguments;
+import org.babyfish.lang.I18N;
+
+/**
+ * The range view of a root {@link NavigableBaseEntries} whose entries 
+ * are not linked by the parent/left/right references.
+ * 
+ * <p>
+ * All the navigations are delegated to the root entries and the size is 
+ * calculated by the positions of the lowest entry and the highest entry, 
+ * so the root entries must support {@link #entryAt(int)} and 
+ * {@link #indexOf(Object)} efficiently.
+ * </p>
+ * 
+ * @author Tao Chen
+ */
+abstract class NavigableSubEntries<K, V> 
+extends AbstractBaseEntriesImpl<K, V> 
+implements NavigableBaseEntries<K, V> {
+    
+    private NavigableRange<K> range;
+    
+    private int sizeModCount;
+    
+    private int size;
+    
+    private int absLowestModCount;
+    
+    private BaseEntry<K, V> absLowest;
+    
+    private int absHighestModCount;
+    
+    private BaseEntry<K, V> absHighest;
+    
+    protected NavigableSubEntries(NavigableRange<K> range) {
+        this.range = range;
+        int diffModCount = this.getParent().modCount() - 1;
+        this.sizeModCount = diffModCount;
+        this.absLowestModCount = diffModCount;
+        this.absHighestModCount = diffModCount;
+    }
+    
+    /**
+     * The root entries must be returned even if this method is 
+     * invoked by the super constructor, so the derived class should
+     * be an inner class of the root entries.
+     */
+    @Override
+    protected abstract AbstractBaseEntriesImpl<K, V> getParent();
+    
+    /**
+     * Creates the range view of the same root entries.
+     */
+    protected abstract NavigableSubEntries<K, V> createSubEntries(NavigableRange<K> range);
+    
+    /**
+     * Creates the iterator of the root entries that visits count entries 
+     * from the specified entry.
+     */
+    protected abstract BaseEntryIterator<K, V> iterator(
+            BaseEntry<K, V> first, int count, boolean descending);
+    
+    @Override
+    public boolean isReadWriteLockSupported() {
+        return this.root().isReadWriteLockSupported();
+    }
+    
+    @Override
+    public int modCount() {
+        return this.root().modCount();
+    }
+
+    @Override
+    public NavigableRange<K> range() {
+        return this.range;
+    }
+
+    @Override
+    public Comparator<? super K> comparator() {
+        return this.range.comparator(false);
+    }
+    
+    @Override
+    public UnifiedComparator<? super K> keyUnifiedComparator() {
+        return UnifiedComparator.nullToEmpty(
+                UnifiedComparator.of(this.range.comparator(false))
+        );
+    }
+
+    @Override
+    public int size() {
+        int modCount = this.root().modCount();
+        if (this.sizeModCount == modCount) {
+            return this.size;
+        }
+        BaseEntry<K, V> absLowest = this.absLowest();
+        BaseEntry<K, V> absHighest = this.absHighest();
+        int size = 0;
+        if (absLowest != null && absHighest != null) {
+            size = this.root().indexOf(absHighest.getKey()) - this.root().indexOf(absLowest.getKey()) + 1;
+            if (size < 0) {
+                size = 0;
+            }
+        }
+        this.sizeModCount = modCount;
+        return this.size = size;
+    }
+    
+    @Override
+    public boolean isEmpty() {
+        return this.size() == 0;
+    }
+    
+    @Override
+    public BaseEntry<K, V> first() {
+        if (this.range.descending()) {
+            return this.absHighest();
+        }
+        return this.absLowest();
+    }
+
+    @Override
+    public BaseEntry<K, V> last() {
+        if (this.range.descending()) {
+            return this.absLowest();
+        }
+        return this.absHighest();
+    }
+
+    @Override
+    public BaseEntry<K, V> floor(K key) {
+        if (this.range.descending()) {
+            return this.absCeiling(key);
+        }
+        return this.absFloor(key);
+    }
+
+    @Override
+    public BaseEntry<K, V> ceiling(K key) {
+        if (this.range.descending()) {
+            return this.absFloor(key);
+        }
+        return this.absCeiling(key);
+    }
+
+    @Override
+    public BaseEntry<K, V> lower(K key) {
+        if (this.range.descending()) {
+            return this.absHigher(key);
+        }
+        return this.absLower(key);
+    }
+
+    @Override
+    public BaseEntry<K, V> higher(K key) {
+        if (this.range.descending()) {
+            return this.absLower(key);
+        }
+        return this.absHigher(key);
+    }
+
+    @Override
+    public BaseEntry<K, V> entryAt(int index) {
+        int size = this.size();
+        Arguments.indexMustBetweenOther("index", index, "0", 0, true, "size()", size, false);
+        if (this.range.descending()) {
+            index = size - 1 - index;
+        }
+        return this.root().entryAt(this.root().indexOf(this.absLowest().getKey()) + index);
+    }
+    
+    @Override
+    public int indexOf(K key) {
+        if (this.getBaseEntry(key) == null) {
+            return -1;
+        }
+        int index = this.root().indexOf(key) - this.root().indexOf(this.absLowest().getKey());
+        if (this.range.descending()) {
+            return this.size() - 1 - index;
+        }
+        return index;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public BaseEntry<K, V> getBaseEntry(Object key) {
+        K k = (K)key;
+        NavigableRange<K> range = this.range;
+        if (!range.tooLow(k, true) && !range.tooHigh(k, true)) {
+            return this.root().getBaseEntry(k);
+        }
+        return null;
+    }
+    
+    @Override
+    public final BaseEntry<K, V> pollFirst(BaseEntriesHandler<K, V> handler) {
+        return this.pollFirst(this.triggerOf(handler));
+    }
+    
+    @Override
+    public final BaseEntry<K, V> pollLast(BaseEntriesHandler<K, V> handler) {
+        return this.pollLast(this.triggerOf(handler));
+    }
+    
+    @Override
+    public NavigableBaseEntries<K, V> descendingEntries() {
+        return this.createSubEntries(NavigableRange.descendingRange(this));
+    }
+
+    @Override
+    public NavigableBaseEntries<K, V> subEntries(
+            boolean hasFrom, K from, boolean fromInclusive, 
+            boolean hasTo, K to, boolean toInclusive) {
+        return this.createSubEntries(
+                NavigableRange.subRange(
+                        this,
+                        hasFrom, from, fromInclusive,
+                        hasTo, to, toInclusive
+                )
+        );
+    }
+
+    @Override
+    public BaseEntryIterator<K, V> iterator() {
+        return this.iterator(this.first(), this.size(), this.range.descending());
+    }
+
+    @Override
+    protected void deleteBaseEntry(BaseEntry<K, V> be) {
+        this.getParent().deleteBaseEntry(be);
+    }
+
+    @Override
+    protected V put(K key, V value, Trigger<K, V> trigger, FrozenContextSuspending<K, V> suspending) {
+        if (!this.range.contains(key)) {
+            throw new IllegalArgumentException(elementOfKeyOutOfRange(this.range));
+        }
+        return this.getParent().put(key, value, trigger, suspending);
+    }
+
+    @Override
+    protected void putAll(Map<? extends K, ? extends V> m, Trigger<K, V> trigger) {
+        if (!this.range.containsAll(m.keySet())) {
+            throw new IllegalArgumentException(elementOfKeyOutOfRange(this.range));
+        }
+        this.getParent().putAll(m, trigger);
+    }
+
+    @Override
+    protected boolean addAll(
+            Collection<? extends K> kc, 
+            Trigger<K, V> trigger) {
+        if (!this.range.containsAll(kc)) {
+            throw new IllegalArgumentException(elementOfKeyOutOfRange(this.range));
+        }
+        return this.getParent().addAll(kc, trigger);
+    }
+
+    protected BaseEntry<K, V> pollFirst(Trigger<K, V> trigger) {
+        return this.poll(this.first(), trigger);
+    }
+    
+    protected BaseEntry<K, V> pollLast(Trigger<K, V> trigger) {
+        return this.poll(this.last(), trigger);
+    }
+    
+    @Override
+    protected void clear(Trigger<K, V> trigger) {
+        
+        NavigableRange<K> range = this.range;
+        if (!range.hasFrom(true) && !range.hasTo(true)) {
+            this.getParent().clear(trigger);
+            return;
+        }
+    
+        if (trigger != null) {
+            BaseEntryIterator<K, V> iterator = this.iterator();
+            while (iterator.hasNext()) {
+                trigger.preRemove(iterator.next());
+            }
+        }
+    
+        BaseEntryIterator<K, V> iterator = this.iterator();
+        if (trigger == null) {
+            while (iterator.hasNext()) {
+                iterator.next();
+                iterator.remove(null);
+            }
+        } else if (trigger.beginExecute()) {
+            try {
+                while (iterator.hasNext()) {
+                    iterator.next();
+                    iterator.remove(null);
+                }
+                trigger.endExecute(null);
+            } catch (RuntimeException | Error ex) {
+                trigger.endExecute(ex);
+            }
+            trigger.flush();
+        }
+    }
+    
+    @SuppressWarnings("unchecked")
+    private NavigableBaseEntries<K, V> root() {
+        return (NavigableBaseEntries<K, V>)this.getParent();
+    }
+    
+    private BaseEntry<K, V> poll(BaseEntry<K, V> be, Trigger<K, V> trigger) {
+        if (be != null) {
+            if (trigger != null) {
+                trigger.preRemove(be);
+                if (trigger.beginExecute()) {
+                    try {
+                        this.getParent().deleteBaseEntry(be);
+                        trigger.endExecute(null);
+                    } catch (RuntimeException | Error ex) {
+                        trigger.endExecute(ex);
+                    }
+                }
+                trigger.flush();
+            } else {
+                this.deleteBaseEntry(be);
+            }
+        }
+        return be;
+    }
+
+    private BaseEntry<K, V> absLowest() {
+        
+        int modCount = this.root().modCount();
+        if (this.absLowestModCount == modCount) {
+            return this.absLowest;
+        }
+        
+        NavigableRange<K> range = this.range;
+        BaseEntry<K, V> e = null;
+        if (!range.hasFrom(true)) {
+            e = this.root().first();
+        } else {
+            e = range.fromInclusive(true) ? 
+                    this.root().ceiling(range.from(true)) :
+                    this.root().higher(range.from(true));
+        }
+        this.absLowestModCount = modCount;
+        return this.absLowest = (e == null || range.tooHigh(e.getKey(), true)) ? null : e;
+    }
+
+    private BaseEntry<K, V> absHighest() {
+        
+        int modCount = this.root().modCount();
+        if (this.absHighestModCount == modCount) {
+            return this.absHighest;
+        }
+        
+        NavigableRange<K> range = this.range;
+        BaseEntry<K, V> e = null;
+        if (!range.hasTo(true)) {
+            e = this.root().last();
+        } else {
+            e = range.toInclusive(true) ?
+                    this.root().floor(range.to(true)) :
+                    this.root().lower(range.to(true));
+        }
+        this.absHighestModCount = modCount;
+        return this.absHighest = (e == null || range.tooLow(e.getKey(), true)) ? null : e;
+    }
+
+    private BaseEntry<K, V> absFloor(K key) {
+        NavigableRange<K> range = this.range;
+        if (range.tooHigh(key, true)) {
+            return this.absHighest();
+        }
+        BaseEntry<K, V> be = this.root().floor(key);
+        return (be == null || range.tooLow(be.getKey(), true)) ? null : be;
+    }
+
+    private BaseEntry<K, V> absCeiling(K key) {
+        NavigableRange<K> range = this.range;
+        if (range.tooLow(key, true)) {
+            return this.absLowest();
+        }
+        BaseEntry<K, V> be = this.root().ceiling(key);
+        return (be == null || range.tooHigh(be.getKey(), true)) ? null : be;
+    }
+
+    private BaseEntry<K, V> absLower(K key) {
+        NavigableRange<K> range = this.range;
+        if (range.tooHigh(key, true)) {
+            return this.absHighest();
+        }
+        BaseEntry<K, V> be = this.root().lower(key);
+        return (be == null || range.tooLow(be.getKey(), true)) ? null : be;
+    }
+
+    private BaseEntry<K, V> absHigher(K key) {
+        NavigableRange<K> range = this.range;
+        if (range.tooLow(key, true)) {
+            return this.absLowest();
+        }
+        BaseEntry<K, V> be = this.root().higher(key);
+        return (be == null || range.tooHigh(be.getKey(), true)) ? null : be;
+    }
+    
+    @I18N
+    private static native String elementOfKeyOutOfRange(NavigableRange<?> range);
+}
@@ -0,0 +1,961 @@
+/*
+ * BabyFish, Object Model Framework for Java and JPA.
+ * https://github.com/babyfish-ct/babyfish
+ *
+ * Copyright (c) 2008-2016, Tao Chen
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * Please visit "http://opensource.org/licenses/LGPL-3.0" to know more.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ */
+package org.babyfish.collection.spi.base;
+
+import java.io.Closeable;
+import java.io.NotSerializableException;
+import java.io.ObjectStreamException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.NoSuchElementException;
+
+import org.babyfish.collection.BidiType;
+import org.babyfish.collection.OffHeapSerializer;
+import org.babyfish.collection.ReplacementRule;
+import org.babyfish.collection.UnifiedComparator;
+import org.babyfish.collection.spi.base.AbstractBaseEntriesImpl.Trigger.History;
+import org.babyfish.lang.Arguments;
+import org.babyfish.lang.I18N;
+
+/**
+ * The hash entries whose keys and values are stored out of the java heap.
+ * 
+ * <p>
+ * The keys and the values are serialized by {@link OffHeapSerializer}s into 
+ * direct {@link ByteBuffer} chunks, each entry is a record of a chunk. 
+ * The hash table is a direct {@link ByteBuffer} too, each slot of it 
+ * contains the address of the record and the hash code of the serialized key,
+ * collisions are resolved by linear probing like {@link AbstractPrimitiveHashEntries}.
+ * So no java object is retained for the entries and the garbage collector 
+ * never traces them.
+ * </p>
+ * 
+ * <p>
+ * The keys are compared by their serialized bytes and the {@link BaseEntry} objects
+ * are deserialized copies that are created when the entry based API requires them,
+ * they are neither cached nor identical for the same key.
+ * The memory is released by {@link #close()} deterministically, 
+ * this object can not be used after that.
+ * </p>
+ * 
+ * <p>
+ * The hash table can not grow beyond 2<sup>27</sup> slots, the insertion 
+ * throws {@link IllegalStateException} when it is full. 
+ * This object is not serializable because the direct memory can not be serialized.
+ * </p>
+ * 
+ * @author Tao Chen
+ */
+public class OffHeapHashEntries<K, V> extends AbstractBaseEntriesImpl<K, V> implements Closeable {
+    
+    private static final int MIN_CAPACITY = 4;
+    
+    private static final int MAX_CAPACITY = 1 << 27;
+    
+    private static final int MIN_CHUNK_SIZE = 1 << 12;
+    
+    private static final float DEFAULT_LOAD_FACTOR = .75F;
+    
+    private static final int SLOT_SIZE = 12;
+    
+    private static final int RECORD_HEADER_SIZE = 12;
+    
+    private static final long FREE = 0L;
+    
+    private static final long REMOVED = -1L;
+    
+    private OffHeapSerializer<K> keySerializer;
+    
+    private OffHeapSerializer<V> valueSerializer;
+    
+    /*
+     * Each slot is 12 bytes: the address of the record plus one(8 bytes, 
+     * FREE or REMOVED for the empty slots) and the hash code of the key(4 bytes).
+     */
+    private ByteBuffer slots;
+    
+    private int capacity;
+    
+    /*
+     * Each record is: the key length(4 bytes), the value length(4 bytes, -1 means null),
+     * the value capacity(4 bytes), the key bytes, the value bytes.
+     */
+    private ByteBuffer[] chunks;
+    
+    private int chunkCount;
+    
+    private int chunkSize;
+    
+    private int tailOffset;
+    
+    private long garbageBytes;
+    
+    private int size;
+    
+    private int removedCount;
+    
+    private float loadFactor;
+    
+    private int initCapacity;
+    
+    private int threshold;
+    
+    private boolean closed;
+    
+    int modCount;
+    
+    public OffHeapHashEntries(
+            OffHeapSerializer<K> keySerializer,
+            OffHeapSerializer<V> valueSerializer,
+            int initCapacity,
+            Float loadFactor,
+            int chunkSize) {
+        super(BidiType.NONE, ReplacementRule.NEW_REFERENCE_WIN, null, null);
+        Arguments.mustBeLessThanOrEqualToValue("initCapacity", initCapacity, MAX_CAPACITY);
+        if (loadFactor != null) {
+            Arguments.mustBeGreaterThanValue("loadFactor.floatValue()", loadFactor.floatValue(), 0F);
+            Arguments.mustBeLessThanValue("loadFactor.floatValue()", loadFactor.floatValue(), 1F);
+        } else {
+            loadFactor = DEFAULT_LOAD_FACTOR;
+        }
+        this.keySerializer = Arguments.mustNotBeNull("keySerializer", keySerializer);
+        this.valueSerializer = Arguments.mustNotBeNull("valueSerializer", valueSerializer);
+        this.chunkSize = Arguments.mustBeGreaterThanOrEqualToValue("chunkSize", chunkSize, MIN_CHUNK_SIZE);
+        int c = MIN_CAPACITY;
+        while (c < initCapacity) {
+            c <<= 1;
+        }
+        this.loadFactor = loadFactor;
+        this.initCapacity = c;
+        this.chunks = new ByteBuffer[4];
+        this.allocate(c);
+    }
+    
+    @Override
+    public boolean isReadWriteLockSupported() {
+        return true;
+    }
+
+    @Override
+    public int size() {
+        this.requireOpen();
+        return this.size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        this.requireOpen();
+        return this.size == 0;
+    }
+    
+    @Override
+    public int modCount() {
+        return this.modCount;
+    }
+    
+    /**
+     * @return How many bytes of the direct memory are allocated by this object, 
+     * or 0 if it has been closed.
+     */
+    public long allocatedBytes() {
+        if (this.closed) {
+            return 0L;
+        }
+        long bytes = this.slots.capacity();
+        ByteBuffer[] chunks = this.chunks;
+        for (int i = this.chunkCount - 1; i >= 0; i--) {
+            bytes += chunks[i].capacity();
+        }
+        return bytes;
+    }
+    
+    public boolean isClosed() {
+        return this.closed;
+    }
+    
+    /**
+     * Releases all the direct memory immediately, 
+     * any operation except {@link #close()}, {@link #isClosed()} and 
+     * {@link #allocatedBytes()} throws {@link IllegalStateException} after that.
+     */
+    @Override
+    public void close() {
+        if (!this.closed) {
+            this.closed = true;
+            this.releaseChunks();
+            DirectBuffers.release(this.slots);
+            this.slots = null;
+            this.size = 0;
+            this.modCount++;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public final BaseEntry<K, V> getBaseEntry(Object key) {
+        byte[] keyBytes = this.keyBytesOf(key);
+        if (keyBytes == null) {
+            return null;
+        }
+        int index = this.indexOf(keyBytes, hashOf(keyBytes));
+        return index == -1 ? null : this.entryAt(index, (K)key, keyBytes);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        byte[] keyBytes = this.keyBytesOf(key);
+        return keyBytes != null && this.indexOf(keyBytes, hashOf(keyBytes)) != -1;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public boolean containsEntry(Object o) {
+        if (!(o instanceof Entry<?, ?>)) {
+            return false;
+        }
+        Entry<?, ?> e = (Entry<?, ?>)o;
+        byte[] keyBytes = this.keyBytesOf(e.getKey());
+        if (keyBytes == null) {
+            return false;
+        }
+        int index = this.indexOf(keyBytes, hashOf(keyBytes));
+        return index != -1 && this.valueEquals((V)e.getValue(), this.valueAt(index));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public boolean containsValue(Object v) {
+        this.requireOpen();
+        int capacity = this.capacity;
+        for (int i = 0; i < capacity; i++) {
+            if (this.addressAt(i) > 0 && this.valueEquals((V)v, this.valueAt(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public BaseEntry<K, V> getBaseEntryByValue(V value) {
+        this.requireOpen();
+        int capacity = this.capacity;
+        for (int i = 0; i < capacity; i++) {
+            if (this.addressAt(i) > 0 && this.valueEquals(value, this.valueAt(i))) {
+                return this.entryAt(i);
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * Gets the value without creating the {@link BaseEntry} and deserializing the key.
+     */
+    public V getValue(Object key) {
+        byte[] keyBytes = this.keyBytesOf(key);
+        if (keyBytes == null) {
+            return null;
+        }
+        int index = this.indexOf(keyBytes, hashOf(keyBytes));
+        return index == -1 ? null : this.valueAt(index);
+    }
+    
+    /*
+     * The validators require the full algorithm of the super class, 
+     * otherwise, the record is modified directly and no BaseEntry 
+     * or AttachProcessor is created.
+     */
+    public V putValue(K key, V value) {
+        this.requireOpen();
+        if (this.isFrozen() || this.keyValidator() != null || this.valueValidator() != null) {
+            return this.put(key, value, (BaseEntriesHandler<K, V>)null);
+        }
+        byte[] keyBytes = this.keySerializer.serialize(Arguments.mustNotBeNull("key", key));
+        int hash = hashOf(keyBytes);
+        int index = this.indexOf(keyBytes, hash);
+        if (index != -1) {
+            return this.changeValue(index, value);
+        }
+        this.insert(keyBytes, hash, value);
+        return null;
+    }
+    
+    public V removeValue(Object key) {
+        if (this.isFrozen()) {
+            BaseEntry<K, V> be = this.removeByKey(key, (BaseEntriesHandler<K, V>)null);
+            return be == null ? null : be.getValue();
+        }
+        byte[] keyBytes = this.keyBytesOf(key);
+        if (keyBytes == null) {
+            return null;
+        }
+        int index = this.indexOf(keyBytes, hashOf(keyBytes));
+        return index == -1 ? null : this.delete(index);
+    }
+
+    @Override
+    protected V put(
+            K key, 
+            V value, 
+            Trigger<K, V> trigger,
+            FrozenContextSuspending<K, V> suspending) {
+        this.requireOpen();
+        Arguments.mustNotBeNull("key", key);
+        return super.put(key, value, trigger, suspending);
+    }
+
+    @Override
+    protected void putAll(Map<? extends K, ? extends V> m, Trigger<K, V> trigger) {
+        this.requireOpen();
+        for (K key : m.keySet()) {
+            Arguments.mustNotBeNull("key", key);
+        }
+        super.putAll(m, trigger);
+    }
+
+    @Override
+    protected boolean addAll(Collection<? extends K> kc, Trigger<K, V> trigger) {
+        this.requireOpen();
+        for (K key : kc) {
+            Arguments.mustNotBeNull("key", key);
+        }
+        return super.addAll(kc, trigger);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    protected V putWithoutTriggerFlushing(
+            K key, 
+            V value, 
+            AttachProcessor<K, V> attachProcessor) {
+        this.requireOpen();
+        History<K, V> puttingHistory = attachProcessor.getPuttingHistory();
+        V oldV = null;
+        if (attachProcessor.beginExcute()) {
+            try {
+                byte[] keyBytes = this.keySerializer.serialize(key);
+                int hash = hashOf(keyBytes);
+                int index;
+                if (puttingHistory != null) {
+                    BaseEntryImpl<K, V> be = (BaseEntryImpl<K, V>)puttingHistory.getBaseEntry(0);
+                    index = be != null ? be.locate() : -1;
+                } else {
+                    index = this.indexOf(keyBytes, hash);
+                }
+                if (index != -1) {
+                    oldV = this.changeValue(index, value);
+                } else {
+                    this.insert(keyBytes, hash, value);
+                }
+                attachProcessor.endExecute(null);
+            } catch (RuntimeException | Error ex) {
+                attachProcessor.endExecute(ex);
+            }
+        }
+        return oldV;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    protected void putAllWithoutTriggerFlushing(
+            Map<? extends K, ? extends V> m,
+            AttachProcessor<K, V> attachProcessor) {
+        this.requireOpen();
+        History<K, V> puttingHistory = attachProcessor.getPuttingHistory();
+        if (attachProcessor.beginExcute()) {
+            try {
+                if (puttingHistory == null) {
+                    for (Entry<? extends K, ? extends V> e : m.entrySet()) {
+                        byte[] keyBytes = this.keySerializer.serialize(e.getKey());
+                        int hash = hashOf(keyBytes);
+                        int index = this.indexOf(keyBytes, hash);
+                        if (index != -1) {
+                            this.changeValue(index, e.getValue());
+                        } else {
+                            this.insert(keyBytes, hash, e.getValue());
+                        }
+                    }
+                } else {
+                    int count = puttingHistory.getCount();
+                    for (int i = 0; i < count; i++) {
+                        BaseEntryImpl<K, V> be = (BaseEntryImpl<K, V>)puttingHistory.getBaseEntry(i);
+                        V value = puttingHistory.getNewValue(i);
+                        int index = be != null ? be.locate() : -1;
+                        if (index != -1) {
+                            this.changeValue(index, value);
+                        } else {
+                            byte[] keyBytes = this.keySerializer.serialize(puttingHistory.getNewKey(i));
+                            this.insert(keyBytes, hashOf(keyBytes), value);
+                        }
+                    }
+                }
+                attachProcessor.endExecute(null);
+            } catch (RuntimeException | Error ex) {
+                attachProcessor.endExecute(ex);
+            }
+        }
+    }
+
+    @Override
+    protected void clear(Trigger<K, V> trigger) {
+        this.requireOpen();
+        if (trigger != null) {
+            BaseEntryIterator<K, V> iterator = this.iterator();
+            while (iterator.hasNext()) {
+                trigger.preRemove(iterator.next());
+            }
+        }
+        if (trigger == null || trigger.beginExecute()) {
+            try {
+                this.releaseChunks();
+                DirectBuffers.release(this.slots);
+                this.allocate(this.initCapacity);
+                this.garbageBytes = 0;
+                this.modCount++;
+                this.size = 0;
+                if (trigger != null) {
+                    trigger.endExecute(null);
+                }
+            } catch (RuntimeException | Error ex) {
+                if (trigger == null) {
+                    throw ex;
+                }
+                trigger.endExecute(ex);
+            }
+        }
+        if (trigger != null) {
+            trigger.flush();
+        }
+    }
+
+    @Override
+    protected final void deleteBaseEntry(BaseEntry<K, V> be) {
+        BaseEntryImpl<K, V> e = (BaseEntryImpl<K, V>)be;
+        if (e.owner == this) {
+            int index = e.locate();
+            if (index != -1) {
+                e.detach(this.delete(index));
+            }
+        }
+    }
+
+    @Override
+    public BaseEntryIterator<K, V> iterator() {
+        this.requireOpen();
+        return this.new EntryIterator();
+    }
+    
+    /*
+     * The direct memory can not be serialized, so even the derived class 
+     * which implements java.io.Serializable can not be serialized.
+     */
+    protected final Object writeReplace() throws ObjectStreamException {
+        throw new NotSerializableException(this.getClass().getName());
+    }
+    
+    private void requireOpen() {
+        if (this.closed) {
+            throw new IllegalStateException(offHeapEntriesClosed(OffHeapHashEntries.class));
+        }
+    }
+    
+    private byte[] keyBytesOf(Object key) {
+        this.requireOpen();
+        if (key == null) {
+            return null;
+        }
+        try {
+            @SuppressWarnings("unchecked")
+            byte[] keyBytes = this.keySerializer.serialize((K)key);
+            return keyBytes;
+        } catch (ClassCastException ex) {
+            return null;
+        }
+    }
+    
+    private long addressAt(int index) {
+        return this.slots.getLong(index * SLOT_SIZE);
+    }
+    
+    private int hashAt(int index) {
+        return this.slots.getInt(index * SLOT_SIZE + 8);
+    }
+    
+    private void setSlot(int index, long address, int hash) {
+        this.slots.putLong(index * SLOT_SIZE, address);
+        this.slots.putInt(index * SLOT_SIZE + 8, hash);
+    }
+    
+    private int indexOf(byte[] keyBytes, int hash) {
+        int mask = this.capacity - 1;
+        for (int i = slotOf(hash, mask); ; i = (i + 1) & mask) {
+            long address = this.addressAt(i);
+            if (address == FREE) {
+                return -1;
+            }
+            if (address != REMOVED && this.hashAt(i) == hash && this.keyEquals(address - 1, keyBytes)) {
+                return i;
+            }
+        }
+    }
+    
+    private boolean keyEquals(long address, byte[] keyBytes) {
+        ByteBuffer chunk = this.chunks[(int)(address >>> 32)];
+        int offset = (int)address;
+        int len = keyBytes.length;
+        if (chunk.getInt(offset) != len) {
+            return false;
+        }
+        offset += RECORD_HEADER_SIZE;
+        for (int i = 0; i < len; i++) {
+            if (chunk.get(offset + i) != keyBytes[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    private byte[] keyBytesAt(int index) {
+        long address = this.addressAt(index) - 1;
+        ByteBuffer chunk = this.chunks[(int)(address >>> 32)];
+        int offset = (int)address;
+        return read(chunk, offset + RECORD_HEADER_SIZE, chunk.getInt(offset));
+    }
+    
+    private V valueAt(int index) {
+        long address = this.addressAt(index) - 1;
+        ByteBuffer chunk = this.chunks[(int)(address >>> 32)];
+        int offset = (int)address;
+        int valueLength = chunk.getInt(offset + 4);
+        if (valueLength == -1) {
+            return null;
+        }
+        return this.valueSerializer.deserialize(
+                read(chunk, offset + RECORD_HEADER_SIZE + chunk.getInt(offset), valueLength));
+    }
+    
+    private BaseEntryImpl<K, V> entryAt(int index) {
+        byte[] keyBytes = this.keyBytesAt(index);
+        return this.entryAt(index, this.keySerializer.deserialize(keyBytes), keyBytes);
+    }
+    
+    private BaseEntryImpl<K, V> entryAt(int index, K key, byte[] keyBytes) {
+        return new BaseEntryImpl<K, V>(this, index, key, keyBytes, this.valueAt(index));
+    }
+    
+    private void insert(byte[] keyBytes, int hash, V value) {
+        if (this.size + this.removedCount >= this.threshold) {
+            this.rehash();
+            // The table of the max capacity can not grow, keep the free slot for probing
+            if (this.size >= this.threshold) {
+                throw new IllegalStateException(
+                        offHeapEntriesFull(OffHeapHashEntries.class, MAX_CAPACITY)
+                );
+            }
+        }
+        long address = this.write(keyBytes, value, null);
+        int mask = this.capacity - 1;
+        int index = slotOf(hash, mask);
+        long slotAddress;
+        while ((slotAddress = this.addressAt(index)) > 0) {
+            index = (index + 1) & mask;
+        }
+        if (slotAddress == REMOVED) {
+            this.removedCount--;
+        }
+        this.setSlot(index, address + 1, hash);
+        this.size++;
+        this.modCount++;
+    }
+    
+    private V changeValue(int index, V newValue) {
+        V oldValue = this.valueAt(index);
+        long address = this.addressAt(index) - 1;
+        ByteBuffer chunk = this.chunks[(int)(address >>> 32)];
+        int offset = (int)address;
+        int keyLength = chunk.getInt(offset);
+        byte[] valueBytes = newValue != null ? this.valueSerializer.serialize(newValue) : null;
+        int valueLength = valueBytes != null ? valueBytes.length : -1;
+        if (valueLength <= chunk.getInt(offset + 8)) {
+            chunk.putInt(offset + 4, valueLength);
+            if (valueBytes != null) {
+                write(chunk, offset + RECORD_HEADER_SIZE + keyLength, valueBytes);
+            }
+        } else {
+            byte[] keyBytes = read(chunk, offset + RECORD_HEADER_SIZE, keyLength);
+            this.garbageBytes += RECORD_HEADER_SIZE + keyLength + chunk.getInt(offset + 8);
+            this.setSlot(index, this.write(keyBytes, null, valueBytes) + 1, this.hashAt(index));
+            this.compactIfNecessary();
+        }
+        return oldValue;
+    }
+    
+    private V delete(int index) {
+        V oldValue = this.valueAt(index);
+        long address = this.addressAt(index) - 1;
+        ByteBuffer chunk = this.chunks[(int)(address >>> 32)];
+        int offset = (int)address;
+        this.garbageBytes += RECORD_HEADER_SIZE + chunk.getInt(offset) + chunk.getInt(offset + 8);
+        /*
+         * If the next slot is free, no probing sequence passes this slot,
+         * so it can be freed directly without leaving a tombstone.
+         */
+        if (this.addressAt((index + 1) & (this.capacity - 1)) == FREE) {
+            this.setSlot(index, FREE, 0);
+        } else {
+            this.setSlot(index, REMOVED, 0);
+            this.removedCount++;
+        }
+        this.size--;
+        this.modCount++;
+        this.compactIfNecessary();
+        return oldValue;
+    }
+    
+    /*
+     * Appends a record to the last chunk, either value or valueBytes is used.
+     */
+    private long write(byte[] keyBytes, V value, byte[] valueBytes) {
+        if (value != null) {
+            valueBytes = this.valueSerializer.serialize(value);
+        }
+        int valueLength = valueBytes != null ? valueBytes.length : -1;
+        int recordSize = RECORD_HEADER_SIZE + keyBytes.length + Math.max(valueLength, 0);
+        ByteBuffer chunk = this.chunkCount == 0 ? null : this.chunks[this.chunkCount - 1];
+        if (chunk == null || this.tailOffset + recordSize > chunk.capacity()) {
+            chunk = this.addChunk(Math.max(this.chunkSize, recordSize));
+        }
+        int offset = this.tailOffset;
+        chunk.putInt(offset, keyBytes.length);
+        chunk.putInt(offset + 4, valueLength);
+        chunk.putInt(offset + 8, Math.max(valueLength, 0));
+        write(chunk, offset + RECORD_HEADER_SIZE, keyBytes);
+        if (valueBytes != null) {
+            write(chunk, offset + RECORD_HEADER_SIZE + keyBytes.length, valueBytes);
+        }
+        this.tailOffset = offset + recordSize;
+        return (long)(this.chunkCount - 1) << 32 | offset;
+    }
+    
+    private ByteBuffer addChunk(int chunkSize) {
+        ByteBuffer[] chunks = this.chunks;
+        if (this.chunkCount == chunks.length) {
+            this.chunks = chunks = Arrays.copyOf(chunks, chunks.length << 1);
+        }
+        ByteBuffer chunk = ByteBuffer.allocateDirect(chunkSize).order(ByteOrder.nativeOrder());
+        chunks[this.chunkCount++] = chunk;
+        this.tailOffset = 0;
+        return chunk;
+    }
+    
+    private void releaseChunks() {
+        ByteBuffer[] chunks = this.chunks;
+        for (int i = this.chunkCount - 1; i >= 0; i--) {
+            DirectBuffers.release(chunks[i]);
+            chunks[i] = null;
+        }
+        this.chunkCount = 0;
+        this.tailOffset = 0;
+    }
+    
+    /*
+     * Copies the live records into the new chunks when more than half 
+     * of the chunks are garbage, the slots are not moved so that this
+     * operation is invisible for the iterators and the entries.
+     */
+    private void compactIfNecessary() {
+        long garbageBytes = this.garbageBytes;
+        if (garbageBytes < this.chunkSize || garbageBytes < this.allocatedBytes() >> 1) {
+            return;
+        }
+        ByteBuffer[] oldChunks = this.chunks;
+        int oldChunkCount = this.chunkCount;
+        this.chunks = new ByteBuffer[Math.max(oldChunks.length, 4)];
+        this.chunkCount = 0;
+        this.tailOffset = 0;
+        this.garbageBytes = 0;
+        int capacity = this.capacity;
+        for (int i = 0; i < capacity; i++) {
+            long address = this.addressAt(i);
+            if (address > 0) {
+                address--;
+                ByteBuffer chunk = oldChunks[(int)(address >>> 32)];
+                int offset = (int)address;
+                int keyLength = chunk.getInt(offset);
+                int valueLength = chunk.getInt(offset + 4);
+                byte[] keyBytes = read(chunk, offset + RECORD_HEADER_SIZE, keyLength);
+                byte[] valueBytes = valueLength == -1 ? 
+                        null : 
+                        read(chunk, offset + RECORD_HEADER_SIZE + keyLength, valueLength);
+                this.setSlot(i, this.write(keyBytes, null, valueBytes) + 1, this.hashAt(i));
+            }
+        }
+        for (int i = oldChunkCount - 1; i >= 0; i--) {
+            DirectBuffers.release(oldChunks[i]);
+        }
+    }
+    
+    private void rehash() {
+        ByteBuffer oldSlots = this.slots;
+        int oldCapacity = this.capacity;
+        int capacity = oldCapacity;
+        
+        // Grow when the table is really full, otherwise, only clean the tombstones.
+        if (this.size + 1 > this.threshold >> 1 && capacity < MAX_CAPACITY) {
+            capacity <<= 1;
+        }
+        this.allocate(capacity);
+        int mask = capacity - 1;
+        for (int i = oldCapacity - 1; i >= 0; i--) {
+            long address = oldSlots.getLong(i * SLOT_SIZE);
+            if (address > 0) {
+                int hash = oldSlots.getInt(i * SLOT_SIZE + 8);
+                int index = slotOf(hash, mask);
+                while (this.addressAt(index) != FREE) {
+                    index = (index + 1) & mask;
+                }
+                this.setSlot(index, address, hash);
+            }
+        }
+        DirectBuffers.release(oldSlots);
+        this.modCount++;
+    }
+    
+    private void allocate(int capacity) {
+        
+        // The direct buffer is filled by zero, so all the slots are FREE.
+        this.slots = ByteBuffer.allocateDirect(capacity * SLOT_SIZE).order(ByteOrder.nativeOrder());
+        this.capacity = capacity;
+        this.removedCount = 0;
+        
+        // Keep at least one free slot so that the probing always terminates.
+        this.threshold = Math.min((int)(capacity * this.loadFactor), capacity - 1);
+    }
+    
+    private static byte[] read(ByteBuffer chunk, int offset, int length) {
+        byte[] bytes = new byte[length];
+        ByteBuffer buffer = chunk.duplicate();
+        buffer.position(offset);
+        buffer.get(bytes);
+        return bytes;
+    }
+    
+    private static void write(ByteBuffer chunk, int offset, byte[] bytes) {
+        ByteBuffer buffer = chunk.duplicate();
+        buffer.position(offset);
+        buffer.put(bytes);
+    }
+    
+    private static int hashOf(byte[] keyBytes) {
+        return Arrays.hashCode(keyBytes) * 0x9E3779B9;
+    }
+    
+    private static int slotOf(int hash, int mask) {
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+    
+    private class EntryIterator implements BaseEntryIterator<K, V> {
+        
+        private int nextIndex;
+        
+        private BaseEntryImpl<K, V> current;
+        
+        private int expectedModCount;
+        
+        EntryIterator() {
+            this.nextIndex = this.seek(0);
+            this.expectedModCount = OffHeapHashEntries.this.modCount;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.nextIndex != -1;
+        }
+
+        @Override
+        public BaseEntry<K, V> next() {
+            OffHeapHashEntries<K, V> owner = OffHeapHashEntries.this;
+            if (this.expectedModCount != owner.modCount) {
+                throw new ConcurrentModificationException(IteratorMessages.concurrentModifcation());
+            }
+            int index = this.nextIndex;
+            if (index == -1) {
+                throw new NoSuchElementException(IteratorMessages.noSuchElement());
+            }
+            this.nextIndex = this.seek(index + 1);
+            return this.current = owner.entryAt(index);
+        }
+
+        @Override
+        public void remove(BaseEntriesHandler<K, V> handler) {
+            OffHeapHashEntries<K, V> owner = OffHeapHashEntries.this;
+            if (this.current == null) {
+                throw new IllegalStateException(IteratorMessages.removeNoExtractedElement());
+            }
+            if (this.expectedModCount != owner.modCount) {
+                throw new ConcurrentModificationException(IteratorMessages.concurrentModifcation());
+            }
+            Trigger<K, V> trigger = owner.triggerOf(handler);
+            if (trigger != null) {
+                trigger.preRemove(this.current);
+            }
+            if (trigger == null || trigger.beginExecute()) {
+                try {
+                    owner.deleteBaseEntry(this.current);
+                    this.current = null;
+                    this.expectedModCount = owner.modCount;
+                    if (trigger != null) {
+                        trigger.endExecute(null);
+                    }
+                } catch (RuntimeException | Error ex) {
+                    if (trigger == null) {
+                        throw ex;
+                    }
+                    trigger.endExecute(ex);
+                }
+            }
+            if (trigger != null) {
+                trigger.flush();
+            }
+        }
+        
+        /*
+         * The deletion never moves the other slots, so the slots 
+         * after the current one can be visited safely after the 
+         * current one is removed by this iterator.
+         */
+        private int seek(int index) {
+            OffHeapHashEntries<K, V> owner = OffHeapHashEntries.this;
+            int capacity = owner.capacity;
+            while (index < capacity) {
+                if (owner.addressAt(index) > 0) {
+                    return index;
+                }
+                index++;
+            }
+            return -1;
+        }
+    }
+    
+    /*
+     * The entry is a deserialized copy, it locates its slot again by 
+     * the serialized key when the structure of the owner has been changed.
+     */
+    static class BaseEntryImpl<K, V> extends AbstractBaseEntryImpl<K, V> {
+        
+        /**
+         * It is null after this object has been deleted from the owner.
+         */
+        OffHeapHashEntries<K, V> owner;
+        
+        private int index;
+        
+        private int expectedModCount;
+        
+        private K key;
+        
+        private byte[] keyBytes;
+        
+        /**
+         * The last known value, it is used after this object has been deleted from the owner.
+         */
+        private V value;
+        
+        private UnifiedComparator<? super Entry<K, V>> unifiedComparator;
+        
+        BaseEntryImpl(OffHeapHashEntries<K, V> owner, int index, K key, byte[] keyBytes, V value) {
+            this.owner = owner;
+            this.index = index;
+            this.expectedModCount = owner.modCount;
+            this.key = key;
+            this.keyBytes = keyBytes;
+            this.value = value;
+            this.unifiedComparator = owner.entryUnifiedComparator();
+        }
+
+        @Override
+        public boolean isNonFairLockSupported() {
+            return true;
+        }
+
+        @Override
+        public BaseEntries<K, V> getOwner() {
+            return this.locate() != -1 ? this.owner : null;
+        }
+
+        @Override
+        public K getKey() {
+            return this.key;
+        }
+
+        @Override
+        public V getValue() {
+            int index = this.locate();
+            if (index != -1) {
+                this.value = this.owner.valueAt(index);
+            }
+            return this.value;
+        }
+
+        @Override
+        protected void setRawValue(V value) {
+            int index = this.locate();
+            if (index != -1) {
+                this.owner.changeValue(index, value);
+            }
+            this.value = value;
+        }
+
+        @Override
+        protected UnifiedComparator<? super Entry<K, V>> unifiedComparator() {
+            return this.unifiedComparator;
+        }
+        
+        int locate() {
+            OffHeapHashEntries<K, V> owner = this.owner;
+            if (owner == null) {
+                return -1;
+            }
+            if (owner.modCount != this.expectedModCount) {
+                int index = owner.closed ? -1 : owner.indexOf(this.keyBytes, hashOf(this.keyBytes));
+                if (index == -1) {
+                    this.owner = null;
+                    return -1;
+                }
+                this.index = index;
+                this.expectedModCount = owner.modCount;
+            }
+            return this.index;
+        }
+        
+        void detach(V value) {
+            this.owner = null;
+            this.value = value;
+        }
+    }
+    
+    @I18N
+    private static native String offHeapEntriesClosed(Class<?> offHeapEntriesType);
+    
+    @I18N
+    private static native String offHeapEntriesFull(Class<?> offHeapEntriesType, int maxCapacity);
+}
@@ -0,0 +1,821 @@
+/*
+ * BabyFish, Object Model Framework for Java and JPA.
+ * https://github.com/babyfish-ct/babyfish
+ *
+ * Copyright (c) 2008-2016, Tao Chen
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * Please visit "http://opensource.org/licenses/LGPL-3.0" to know more.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ */
+package org.babyfish.collection.spi.base;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.NoSuchElementException;
+
+import org.babyfish.collection.BidiType;
+import org.babyfish.collection.EqualityComparator;
+import org.babyfish.collection.FrozenContext;
+import org.babyfish.collection.FrozenEqualityComparator;
+import org.babyfish.collection.ReplacementRule;
+import org.babyfish.collection.UnifiedComparator;
+import org.babyfish.collection.spi.base.AbstractBaseEntriesImpl.Trigger.History;
+import org.babyfish.lang.Arguments;
+
+/**
+ * The hash entries based on open addressing.
+ * 
+ * <p>
+ * Unlike {@link HashEntries}, this class does not create a node object for each key,
+ * the hash codes, the keys and the values are stored in parallel arrays 
+ * and the collisions are resolved by linear probing. 
+ * The {@link BaseEntry} objects are only created when the entry based API
+ * (iterators, entry views, events, {@link FrozenContext}) requires them, 
+ * each one is cached by its slot and keeps its identity until it is removed.
+ * Even the read operations fill that cache, so this class does not support the 
+ * read-write lock, the read operations of the locked wrappers are serialized 
+ * by the write lock.
+ * </p>
+ * 
+ * @author Tao Chen
+ */
+public class OpenHashEntries<K, V> extends AbstractRootBaseEntriesImpl<K, V> implements BaseEntries<K, V> {
+
+    private static final long serialVersionUID = 2591745038296604382L;
+    
+    private static final int MIN_CAPACITY = 4;
+    
+    private static final int MAX_CAPACITY = 1 << 30;
+    
+    private static final float DEFAULT_LOAD_FACTOR = .75F;
+    
+    private static final byte FREE = 0;
+    
+    private static final byte FULL = 1;
+    
+    private static final byte REMOVED = 2;
+    
+    private transient byte[] states;
+    
+    private transient int[] hashes;
+    
+    private transient Object[] keys;
+    
+    private transient Object[] values;
+    
+    private transient BaseEntryImpl<K, V>[] entries;
+    
+    private transient int size;
+    
+    private transient int removedCount;
+    
+    private transient int threshold;
+    
+    private float loadFactor;
+    
+    private int initCapacity;
+    
+    transient int modCount;
+    
+    public OpenHashEntries(
+            BidiType bidiType,
+            ReplacementRule keyReplacementRule,
+            EqualityComparator<? super K> keyEqualityComparator,
+            Object valueComparatorOrEqualityComparatorOrUnifiedComparator,
+            int initCapacity, 
+            Float loadFactor) {
+        super(
+                bidiType,
+                keyReplacementRule, 
+                keyEqualityComparator, 
+                valueComparatorOrEqualityComparatorOrUnifiedComparator);
+        Arguments.mustBeLessThanOrEqualToValue("initCapacity", initCapacity, MAX_CAPACITY);
+        if (loadFactor != null) {
+            Arguments.mustBeGreaterThanValue("loadFactor.floatValue()", loadFactor.floatValue(), 0F);
+            Arguments.mustBeLessThanValue("loadFactor.floatValue()", loadFactor.floatValue(), 1F);
+        } else {
+            loadFactor = DEFAULT_LOAD_FACTOR;
+        }
+        int c = MIN_CAPACITY;
+        while (c < initCapacity) {
+            c <<= 1;
+        }
+        this.loadFactor = loadFactor;
+        this.initCapacity = c;
+        this.allocate(c);
+    }
+    
+    @Override
+    public boolean isReadWriteLockSupported() {
+        // getBaseEntry() and the iterators fill the flyweight cache
+        return false;
+    }
+        
+    @Override
+    public int size() {
+        return this.size;
+    }
+    
+    @Override
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+    
+    @Override
+    public int modCount() {
+        return this.modCount;
+    }
+    
+    @SuppressWarnings("unchecked")
+    public EqualityComparator<? super K> equalityComparator() {
+        return (EqualityComparator<? super K>)this.keyComparatorOrEqualityComparator();
+    }
+    
+    @Override
+    public final BaseEntry<K, V> getBaseEntry(Object key) {
+        int index = this.indexOf(key);
+        return index == -1 ? null : this.entryAt(index);
+    }
+    
+    @Override
+    public boolean containsKey(Object key) {
+        return this.indexOf(key) != -1;
+    }
+    
+    @SuppressWarnings("unchecked")
+    @Override
+    public boolean containsEntry(Object o) {
+        if (!(o instanceof Entry<?, ?>)) {
+            return false;
+        }
+        Entry<?, ?> e = (Entry<?, ?>)o;
+        int index = this.indexOf(e.getKey());
+        return index != -1 && this.valueEquals((V)e.getValue(), this.valueAt(index));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public boolean containsValue(Object v) {
+        if (this.inversedEntries() != null) {
+            return super.containsValue(v);
+        }
+        byte[] states = this.states;
+        for (int i = states.length - 1; i >= 0; i--) {
+            if (states[i] == FULL && this.valueEquals((V)v, this.valueAt(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public BaseEntry<K, V> getBaseEntryByValue(V value) {
+        if (this.inversedEntries() != null) {
+            return super.getBaseEntryByValue(value);
+        }
+        byte[] states = this.states;
+        for (int i = 0; i < states.length; i++) {
+            if (states[i] == FULL && this.valueEquals(value, this.valueAt(i))) {
+                return this.entryAt(i);
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * Returns the value of the key without creating any {@link BaseEntry}.
+     */
+    public V get(Object key) {
+        int index = this.indexOf(key);
+        return index == -1 ? null : this.valueAt(index);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    protected V putWithoutTriggerFlushing(
+            K key, 
+            V value, 
+            AttachProcessor<K, V> attachProcessor) {
+        History<K, V> puttingHistory = attachProcessor.getPuttingHistory();
+        boolean isKeyStrict = this.keyReplacementRule() == ReplacementRule.NEW_REFERENCE_WIN;
+        V oldV = null;
+        if (attachProcessor.beginExcute()) {
+            try {
+                int index;
+                if (puttingHistory != null) {
+                    BaseEntryImpl<K, V> be = (BaseEntryImpl<K, V>)puttingHistory.getBaseEntry(0);
+                    index = be != null ? be.index : -1;
+                } else {
+                    index = this.indexOf(key);
+                }
+                if (index != -1) {
+                    oldV = this.change(index, key, value, isKeyStrict);
+                } else {
+                    this.insert(key, value);
+                }
+                attachProcessor.endExecute(null);
+            } catch (RuntimeException | Error ex) {
+                attachProcessor.endExecute(ex);
+            }
+        }
+        return oldV;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    protected final void putAllWithoutTriggerFlushing(
+            Map<? extends K, ? extends V> m,
+            AttachProcessor<K, V> attachProcessor) {
+        History<K, V> puttingHistory = attachProcessor.getPuttingHistory();
+        boolean isKeyStrict = this.keyReplacementRule() == ReplacementRule.NEW_REFERENCE_WIN;
+        if (attachProcessor.beginExcute()) {
+            try {
+                if (puttingHistory == null) {
+                    for (Entry<? extends K, ? extends V> e : m.entrySet()) {
+                        K key = e.getKey();
+                        int index = this.indexOf(key);
+                        if (index != -1) {
+                            this.change(index, key, e.getValue(), isKeyStrict);
+                        } else {
+                            this.insert(key, e.getValue());
+                        }
+                    }
+                } else {
+                    int count = puttingHistory.getCount();
+                    for (int i = 0; i < count; i++) {
+                        BaseEntryImpl<K, V> be = (BaseEntryImpl<K, V>)puttingHistory.getBaseEntry(i);
+                        K key = puttingHistory.getNewKey(i);
+                        V value = puttingHistory.getNewValue(i);
+                        if (be != null) {
+                            this.change(be.index, key, value, isKeyStrict);
+                        } else {
+                            this.insert(key, value);
+                        }
+                    }
+                }
+                attachProcessor.endExecute(null);
+            } catch (RuntimeException | Error ex) {
+                attachProcessor.endExecute(ex);
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    protected final boolean addAllWithoutTriggerFlushing(
+            Collection<? extends K> c,
+            Trigger<K, V> trigger) {
+        
+        // In this method, inversedEntries always is null
+        
+        boolean isKeyStrict = this.keyReplacementRule() == ReplacementRule.NEW_REFERENCE_WIN;
+        int oldSize = this.size;
+        if (trigger == null) {
+            for (K key : c) {
+                int index = this.indexOf(key);
+                if (index != -1) {
+                    this.change(index, key, (V)PRESENT, isKeyStrict);
+                } else {
+                    this.insert(key, (V)PRESENT);
+                }
+            }
+        } else {
+            for (K key : c) {
+                int index = this.indexOf(key);
+                if (index != -1) {
+                    BaseEntry<K, V> be = this.entryAt(index);
+                    trigger.preChange(be, isKeyStrict ? key : be.getKey(), (V)PRESENT);
+                } else {
+                    trigger.preAdd(key, (V)PRESENT);
+                }
+            }
+            if (trigger.beginExecute()) {
+                try {
+                    History<K, V> history = trigger.getHistory(0);
+                    int count = history.getCount();
+                    for (int i = 0; i < count; i++) {
+                        K key = history.getNewKey(i);
+                        BaseEntryImpl<K, V> be = (BaseEntryImpl<K, V>)history.getBaseEntry(i);
+                        if (be != null) {
+                            this.change(be.index, key, (V)PRESENT, isKeyStrict);
+                        } else {
+                            this.insert(key, (V)PRESENT);
+                        }
+                    }
+                    trigger.endExecute(null);
+                } catch (RuntimeException | Error ex) {
+                    trigger.endExecute(ex);
+                }
+            }
+            trigger.flush();
+        }
+        return oldSize != this.size;
+    }
+
+    @Override
+    protected void clear(Trigger<K, V> trigger) {
+        if (trigger != null) {
+            BaseEntryIterator<K, V> iterator = this.iterator();
+            while (iterator.hasNext()) {
+                trigger.preRemove(iterator.next());
+            }
+        }
+        if (trigger == null || trigger.beginExecute()) {
+            try {
+                byte[] states = this.states;
+                for (int i = states.length - 1; i >= 0; i--) {
+                    if (states[i] == FULL) {
+                        this.detach(i);
+                    }
+                }
+                this.allocate(this.initCapacity);
+                BaseEntries<V, K> inversedEntries = this.inversedEntries();
+                if (inversedEntries != null) {
+                    inversedEntries.clear(null);
+                }
+                this.modCount++;
+                this.size = 0;
+                if (trigger != null) {
+                    trigger.endExecute(null);
+                }
+            } catch (RuntimeException | Error ex) {
+                if (trigger == null) {
+                    throw ex;
+                }
+                trigger.endExecute(ex);
+            }
+        }
+        if (trigger != null) {
+            trigger.flush();
+        }
+    }
+
+    @Override
+    public BaseEntryIterator<K, V> iterator() {
+        return this.new EntryIterator();
+    }
+    
+    @Override
+    protected final void deleteBaseEntry(BaseEntry<K, V> be) {
+        BaseEntryImpl<K, V> e = (BaseEntryImpl<K, V>)be;
+        if (e.owner == this) {
+            this.delete(e.index);
+        }
+    }
+    
+    @SuppressWarnings("unchecked")
+    private int indexOf(Object key) {
+        byte[] states = this.states;
+        Object[] keys = this.keys;
+        int mask = states.length - 1;
+        if (key == null) {
+            for (int i = 0; ; i = (i + 1) & mask) {
+                byte state = states[i];
+                if (state == FREE) {
+                    return -1;
+                }
+                if (state == FULL && keys[i] == null) {
+                    return i;
+                }
+            }
+        }
+        UnifiedComparator<? super K> keyUnifiedComparator = this.keyUnifiedComparator();
+        int[] hashes = this.hashes;
+        int hash = hash(keyUnifiedComparator.hashCode((K)key));
+        for (int i = hash & mask; ; i = (i + 1) & mask) {
+            byte state = states[i];
+            if (state == FREE) {
+                return -1;
+            }
+            if (state == FULL && hashes[i] == hash) {
+                K k = (K)keys[i];
+                if (k != null && keyUnifiedComparator.equals((K)key, k)) {
+                    return i;
+                }
+            }
+        }
+    }
+    
+    @SuppressWarnings("unchecked")
+    private V valueAt(int index) {
+        Object[] values = this.values;
+        return values != null ? (V)values[index] : (V)PRESENT;
+    }
+    
+    @SuppressWarnings("unchecked")
+    private BaseEntryImpl<K, V> entryAt(int index) {
+        BaseEntryImpl<K, V>[] entries = this.entries;
+        if (entries == null) {
+            this.entries = entries = new BaseEntryImpl[this.states.length];
+        }
+        BaseEntryImpl<K, V> be = entries[index];
+        if (be == null) {
+            entries[index] = be = new BaseEntryImpl<K, V>(this, index);
+        }
+        return be;
+    }
+    
+    private void insert(K key, V value) {
+        if (this.size + this.removedCount >= this.threshold) {
+            this.rehash();
+        }
+        int hash = key == null ? 0 : hash(this.keyUnifiedComparator().hashCode(key));
+        byte[] states = this.states;
+        int mask = states.length - 1;
+        int index = hash & mask;
+        while (states[index] == FULL) {
+            index = (index + 1) & mask;
+        }
+        if (states[index] == REMOVED) {
+            this.removedCount--;
+        }
+        this.freezeKey(key);
+        states[index] = FULL;
+        this.hashes[index] = hash;
+        this.keys[index] = key;
+        Object[] values = this.values;
+        if (values != null) {
+            values[index] = value;
+        }
+        this.size++;
+        this.modCount++;
+        BaseEntries<V, K> inversedEntries = this.inversedEntries();
+        if (inversedEntries != null) {
+            inversedEntries.put(value, key, null);
+        }
+    }
+    
+    @SuppressWarnings("unchecked")
+    private V change(int index, K newKey, V newValue, boolean isKeyStrict) {
+        V oldValue = this.valueAt(index);
+        Object[] keys = this.keys;
+        if (isKeyStrict) {
+            K oldKey = (K)keys[index];
+            if (oldKey != newKey) {
+                this.freezeKey(newKey);
+                keys[index] = newKey;
+                this.unfreezeKey(oldKey);
+            }
+        }
+        Object[] values = this.values;
+        if (values != null) {
+            values[index] = newValue;
+        }
+        BaseEntries<V, K> inversedEntries = this.inversedEntries();
+        if (inversedEntries != null) {
+            inversedEntries.removeByKey(oldValue, null);
+            inversedEntries.put(newValue, (K)keys[index], null);
+        }
+        return oldValue;
+    }
+    
+    private void delete(int index) {
+        V oldValue = this.valueAt(index);
+        byte[] states = this.states;
+        this.detach(index);
+        
+        /*
+         * If the next slot is free, no probing sequence passes this slot,
+         * so it can be freed directly without leaving a tombstone.
+         */
+        if (states[(index + 1) & (states.length - 1)] == FREE) {
+            states[index] = FREE;
+        } else {
+            states[index] = REMOVED;
+            this.removedCount++;
+        }
+        this.keys[index] = null;
+        Object[] values = this.values;
+        if (values != null) {
+            values[index] = null;
+        }
+        this.size--;
+        this.modCount++;
+        BaseEntries<V, K> inversedEntries = this.inversedEntries();
+        if (inversedEntries != null) {
+            inversedEntries.removeByKey(oldValue, null);
+        }
+    }
+    
+    @SuppressWarnings("unchecked")
+    private void detach(int index) {
+        K key = (K)this.keys[index];
+        BaseEntryImpl<K, V>[] entries = this.entries;
+        if (entries != null) {
+            BaseEntryImpl<K, V> be = entries[index];
+            if (be != null) {
+                entries[index] = null;
+                be.detach(key, this.valueAt(index));
+            }
+        }
+        this.unfreezeKey(key);
+    }
+    
+    @SuppressWarnings("unchecked")
+    private void rehash() {
+        byte[] oldStates = this.states;
+        int[] oldHashes = this.hashes;
+        Object[] oldKeys = this.keys;
+        Object[] oldValues = this.values;
+        BaseEntryImpl<K, V>[] oldEntries = this.entries;
+        int capacity = oldStates.length;
+        
+        // Grow when the table is really full, otherwise, only clean the tombstones.
+        if (this.size + 1 > this.threshold >> 1 && capacity < MAX_CAPACITY) {
+            capacity <<= 1;
+        }
+        this.allocate(capacity);
+        byte[] states = this.states;
+        int[] hashes = this.hashes;
+        Object[] keys = this.keys;
+        Object[] values = this.values;
+        BaseEntryImpl<K, V>[] entries = 
+                oldEntries != null ? new BaseEntryImpl[capacity] : null;
+        int mask = capacity - 1;
+        for (int i = oldStates.length - 1; i >= 0; i--) {
+            if (oldStates[i] == FULL) {
+                int hash = oldHashes[i];
+                int index = hash & mask;
+                while (states[index] != FREE) {
+                    index = (index + 1) & mask;
+                }
+                states[index] = FULL;
+                hashes[index] = hash;
+                keys[index] = oldKeys[i];
+                if (values != null) {
+                    values[index] = oldValues[i];
+                }
+                if (oldEntries != null) {
+                    BaseEntryImpl<K, V> be = oldEntries[i];
+                    if (be != null) {
+                        be.index = index;
+                        entries[index] = be;
+                    }
+                }
+            }
+        }
+        this.entries = entries;
+    }
+    
+    private void allocate(int capacity) {
+        this.states = new byte[capacity];
+        this.hashes = new int[capacity];
+        this.keys = new Object[capacity];
+        this.values = this instanceof TransientValueEntries ? null : new Object[capacity];
+        this.entries = null;
+        this.removedCount = 0;
+        
+        // Keep at least one free slot so that the probing always terminates.
+        this.threshold = Math.min((int)(capacity * this.loadFactor), capacity - 1);
+    }
+    
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private void freezeKey(K key) {
+        if (key != null) {
+            Object keyEqualityComparator = this.keyComparatorOrEqualityComparator();
+            if (keyEqualityComparator instanceof FrozenEqualityComparator<?>) {
+                ((FrozenEqualityComparator<? super K>)keyEqualityComparator)
+                .freeze(key, (FrozenContext)FrozenContext.create(this));
+            }
+        }
+    }
+    
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private void unfreezeKey(K key) {
+        if (key != null) {
+            Object keyEqualityComparator = this.keyComparatorOrEqualityComparator();
+            if (keyEqualityComparator instanceof FrozenEqualityComparator<?>) {
+                ((FrozenEqualityComparator<? super K>)keyEqualityComparator)
+                .unfreeze(key, (FrozenContext)FrozenContext.create(this));
+            }
+        }
+    }
+
+    private static int hash(int h) {
+        h ^= (h >>> 20) ^ (h >>> 12);
+        return h ^ (h >>> 7) ^ (h >>> 4);
+    }
+    
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        out.defaultWriteObject();
+        out.writeInt(this.size);
+        out.writeInt(this.states.length);
+        byte[] states = this.states;
+        Object[] keys = this.keys;
+        Object[] values = this.values;
+        for (int i = 0; i < states.length; i++) {
+            if (states[i] == FULL) {
+                out.writeObject(keys[i]);
+                if (values != null) {
+                    out.writeObject(values[i]);
+                }
+            }
+        }
+    }
+    
+    @SuppressWarnings("unchecked")
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        int size = in.readInt();
+        this.allocate(in.readInt());
+        boolean transientValue = this instanceof TransientValueEntries;
+        for (int i = size - 1; i >= 0; i--) {
+            K key = (K)in.readObject();
+            V value = transientValue ? (V)PRESENT : (V)in.readObject();
+            this.put(key, value, null, null);
+        }
+    }
+
+    private class EntryIterator implements BaseEntryIterator<K, V> {
+        
+        private int nextIndex;
+        
+        private BaseEntryImpl<K, V> current;
+        
+        private int expectedModCount;
+        
+        EntryIterator() {
+            this.nextIndex = this.seek(0);
+            this.expectedModCount = OpenHashEntries.this.modCount;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.nextIndex != -1;
+        }
+
+        @Override
+        public BaseEntry<K, V> next() {
+            OpenHashEntries<K, V> owner = OpenHashEntries.this;
+            if (this.expectedModCount != owner.modCount) {
+                throw new ConcurrentModificationException(IteratorMessages.concurrentModifcation());
+            }
+            int index = this.nextIndex;
+            if (index == -1) {
+                throw new NoSuchElementException(IteratorMessages.noSuchElement());
+            }
+            this.nextIndex = this.seek(index + 1);
+            return this.current = owner.entryAt(index);
+        }
+
+        @Override
+        public void remove(BaseEntriesHandler<K, V> handler) {
+            OpenHashEntries<K, V> owner = OpenHashEntries.this;
+            if (this.current == null) {
+                throw new IllegalStateException(IteratorMessages.removeNoExtractedElement());
+            }
+            if (this.expectedModCount != owner.modCount) {
+                throw new ConcurrentModificationException(IteratorMessages.concurrentModifcation());
+            }
+            Trigger<K, V> trigger = owner.triggerOf(handler);
+            if (trigger != null) {
+                trigger.preRemove(this.current);
+            }
+            if (trigger == null || trigger.beginExecute()) {
+                try {
+                    owner.deleteBaseEntry(this.current);
+                    this.current = null;
+                    this.expectedModCount = owner.modCount;
+                    if (trigger != null) {
+                        trigger.endExecute(null);
+                    }
+                } catch (RuntimeException | Error ex) {
+                    if (trigger == null) {
+                        throw ex;
+                    }
+                    trigger.endExecute(ex);
+                }
+            }
+            if (trigger != null) {
+                trigger.flush();
+            }
+        }
+        
+        /*
+         * The deletion never moves the other keys, so the slots 
+         * after the current one can be visited safely after the 
+         * current one is removed by this iterator.
+         */
+        private int seek(int index) {
+            byte[] states = OpenHashEntries.this.states;
+            while (index < states.length) {
+                if (states[index] == FULL) {
+                    return index;
+                }
+                index++;
+            }
+            return -1;
+        }
+    }
+    
+    /**
+     * The stable handle of a slot, it reads the key and the value from the 
+     * arrays of the owner so that it is always consistent with the owner even if 
+     * the key is replaced or the slot is moved by rehashing.
+     */
+    static class BaseEntryImpl<K, V> extends AbstractBaseEntryImpl<K, V> {
+        
+        /**
+         * It is null after this object has been deleted from the owner.
+         */
+        OpenHashEntries<K, V> owner;
+        
+        int index;
+        
+        /**
+         * Only used after this object has been deleted from the owner.
+         */
+        private K key;
+        
+        /**
+         * Only used after this object has been deleted from the owner.
+         */
+        private V value;
+        
+        private UnifiedComparator<? super Entry<K, V>> unifiedComparator;
+        
+        BaseEntryImpl(OpenHashEntries<K, V> owner, int index) {
+            this.owner = owner;
+            this.index = index;
+            this.unifiedComparator = owner.entryUnifiedComparator();
+        }
+
+        @Override
+        public boolean isNonFairLockSupported() {
+            return true;
+        }
+
+        @Override
+        public BaseEntries<K, V> getOwner() {
+            return this.owner;
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public K getKey() {
+            OpenHashEntries<K, V> owner = this.owner;
+            return owner != null ? (K)owner.keys[this.index] : this.key;
+        }
+
+        @Override
+        public V getValue() {
+            OpenHashEntries<K, V> owner = this.owner;
+            return owner != null ? owner.valueAt(this.index) : this.value;
+        }
+
+        @Override
+        protected void setRawValue(V value) {
+            OpenHashEntries<K, V> owner = this.owner;
+            if (owner == null) {
+                this.value = value;
+            } else if (owner.values != null) {
+                owner.values[this.index] = value;
+            }
+        }
+
+        @Override
+        protected UnifiedComparator<? super Entry<K, V>> unifiedComparator() {
+            return this.unifiedComparator;
+        }
+        
+        void detach(K key, V value) {
+            this.owner = null;
+            this.key = key;
+            this.value = value;
+        }
+    }
+    
+    public static class TransientValue<K, V> extends OpenHashEntries<K, V> implements TransientValueEntries {
+
+        private static final long serialVersionUID = -6093316625720381725L;
+
+        public TransientValue(
+                ReplacementRule keyReplacementRule,
+                EqualityComparator<? super K> keyEqualityComparator,
+                Object valueComparatorOrEqualityComparatorOrUnifiedComparator,
+                int initCapacity, 
+                Float loadFactor) {
+            super(
+                    BidiType.NONE,
+                    keyReplacementRule, 
+                    keyEqualityComparator,
+                    valueComparatorOrEqualityComparatorOrUnifiedComparator, 
+                    initCapacity,
+                    loadFactor);
+        }
+        
+    }
+}
@@ -0,0 +1,41 @@
+/*
+ * BabyFish, Object Model Framework for Java and JPA.
+ * https://github.com/babyfish-ct/babyfish
+ *
+ * Copyright (c) 2008-2016, Tao Chen
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * Please visit "http://opensource.org/licenses/LGPL-3.0" to know more.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ */
+package org.babyfish.collection.spi.base;
+
+/**
+ * The base entries whose lookup can be executed without any lock, 
+ * it is used by the optimistic read of {@link java.util.concurrent.locks.StampedLock}.
+ * 
+ * @author Tao Chen
+ */
+public interface OptimisticReadableBaseEntries<K, V> extends BaseEntries<K, V> {
+
+    /**
+     * Finds the entry without any lock, this method never changes this object
+     * and it always terminates even if this object is being modified by 
+     * another thread.
+     * 
+     * <p>The result is meaningless if this object is modified by another thread 
+     * during this method, so the caller must validate it, for example, 
+     * by {@link java.util.concurrent.locks.StampedLock#validate(long)}.</p>
+     * 
+     * @param key The key
+     * @return The found entry or null
+     */
+    BaseEntry<K, V> getBaseEntryOptimistically(Object key);
+}
@@ -20,23 +20,27 @@ package org.babyfish.collection.spi.base;
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Comparator;
 import java.util.ConcurrentModificationException;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.SortedMap;
 import java.util.SortedSet;
+import java.util.Spliterator;
+import java.util.function.Consumer;
 
+import org.babyfish.collection.ArrayList;
 import org.babyfish.collection.BidiType;
 import org.babyfish.collection.FrozenComparator;
 import org.babyfish.collection.FrozenContext;
 import org.babyfish.collection.ReplacementRule;
 import org.babyfish.collection.UnifiedComparator;
-import org.babyfish.collection.XMap;
 import org.babyfish.collection.spi.base.AbstractBaseEntriesImpl.Trigger.History;
 import org.babyfish.lang.Arguments;
 import org.babyfish.lang.I18N;
@@ -46,10 +50,21 @@ import org.babyfish.lang.I18N;
  */
 public class RedBlackTreeEntries<K, V> 
 extends AbstractRootBaseEntriesImpl<K, V> 
-implements NavigableBaseEntries<K, V> {
+implements NavigableBaseEntries<K, V>, OptimisticReadableBaseEntries<K, V> {
 
     private static final long serialVersionUID = -6731784374752661716L;
     
+    /*
+     * The height of the red-black tree is not greater than 2 * log2(n + 1)
+     */
+    private static final int MAX_HEIGHT = 64;
+    
+    /*
+     * The sorted keys are merged into the tree if their count 
+     * is not less than (tree size >>> MERGE_SHIFT)
+     */
+    private static final int MERGE_SHIFT = 4;
+    
     private BaseEntryImpl<K, V> root;
 
     private int modCount;
@@ -119,6 +134,23 @@ implements NavigableBaseEntries<K, V> {
         return this.new AscendingEntryIterator(this.first(), null);
     }
     
+    @Override
+    public void forEach(Consumer<? super BaseEntry<K, V>> action) {
+        Arguments.mustNotBeNull("action", action);
+        int expectedModCount = this.modCount;
+        for (BaseEntryImpl<K, V> be = this.first(); be != null; be = successor(be)) {
+            action.accept(be);
+            if (expectedModCount != this.modCount) {
+                throw new ConcurrentModificationException(IteratorMessages.concurrentModifcation());
+            }
+        }
+    }
+    
+    @Override
+    public Spliterator<BaseEntry<K, V>> spliterator() {
+        return this.new EntrySpliterator(null, 0, -1, false, null, 0);
+    }
+    
     @SuppressWarnings("unchecked")
     public final BaseEntryImpl<K, V> getBaseEntry(Object key) {
         Comparator<? super K> comparator = this.keyUnifiedComparator().comparator();
@@ -154,6 +186,36 @@ implements NavigableBaseEntries<K, V> {
         return null;
     }
     
+    /*
+     * The rotations of another thread can make the reader without lock walk 
+     * along an invalid path, so the traversal is limited by the max height.
+     */
+    @SuppressWarnings("unchecked")
+    @Override
+    public final BaseEntry<K, V> getBaseEntryOptimistically(Object key) {
+        Comparator<? super K> comparator = this.keyUnifiedComparator().comparator();
+        if (comparator == null) {
+            Arguments.mustBeInstanceOfValue(
+                    "key", 
+                    Arguments.mustNotBeNull("key", key), 
+                    Comparable.class);
+        }
+        BaseEntryImpl<K, V> p = this.root;
+        for (int limit = MAX_HEIGHT; p != null && limit > 0; limit--) {
+            int cmp = comparator != null ? 
+                    comparator.compare((K)key, p.key) : 
+                    ((Comparable<? super K>)key).compareTo(p.key);
+            if (cmp < 0) {
+                p = p.left;
+            } else if (cmp > 0) {
+                p = p.right;
+            } else {
+                return p;
+            }
+        }
+        return null;
+    }
+    
     @Override
     public final BaseEntry<K, V> pollFirst(BaseEntriesHandler<K, V> handler) {
         return this.pollFirst(this.triggerOf(handler));
@@ -281,41 +343,40 @@ implements NavigableBaseEntries<K, V> {
             return;
         }
 
-        if (this.root == null && 
-                m instanceof SortedMap<?, ?> &&
-                Objects.equals(
-                        this.keyComparatorOrEqualityComparator(), 
-                        ((SortedMap<?, ?>)m).comparator()
-                ) &&
-                (
-                        this.bidiType() == null ||
-                        (
-                                m instanceof XMap<?, ?> && 
-                                this.bidiType() == 
-                                ((XMap<?, ?>)m).bidiType()
-                        ) 
-                )
-        ) {
-            /*
-             * Increase modCount at first to wreck the iterator if the
-             * parameter is this object or wrapper of this object
-             */
-            this.modCount++;
-            if (attachProcessor.beginExcute()) {
-                try {
-                    Iterator<? extends Entry<? extends K, ? extends V>> iterator = 
-                        m.entrySet().iterator();
+        if (this.isMergeable(mapSize)) {
+            Object[] keys;
+            Object[] values;
+            boolean sorted;
+            if (puttingHistory == null) {
+                keys = new Object[mapSize];
+                values = new Object[mapSize];
+                int index = 0;
+                for (Entry<? extends K, ? extends V> entry : m.entrySet()) {
+                    keys[index] = entry.getKey();
+                    values[index++] = entry.getValue();
+                }
+                sorted = this.isSortedByKeyComparator(m) || this.isStrictlyAscending(keys);
+            } else {
+                int count = puttingHistory.getCount();
+                keys = new Object[count];
+                values = new Object[count];
+                for (int i = 0; i < count; i++) {
+                    keys[i] = puttingHistory.getNewKey(i);
+                    values[i] = puttingHistory.getNewValue(i);
+                }
+                sorted = this.isStrictlyAscending(keys);
+            }
+            if (sorted) {
+                if (attachProcessor.beginExcute()) {
                     try {
-                        this.buildFromSorted(mapSize, iterator, null, null);
-                    } catch (IOException impossible) {
-                    } catch (ClassNotFoundException impossible) {
+                        this.merge(keys, values);
+                        attachProcessor.endExecute(null);
+                    } catch (RuntimeException | Error ex) {
+                        attachProcessor.endExecute(ex);
                     }
-                    attachProcessor.endExecute(null);
-                } catch (RuntimeException | Error ex) {
-                    attachProcessor.endExecute(ex);
                 }
+                return;
             }
-            return;
         }
 
         if (puttingHistory == null) {
@@ -389,49 +450,36 @@ implements NavigableBaseEntries<K, V> {
             return oldSize != root.size;
         }
 
-        if (this.root == null && 
-                c instanceof SortedSet<?> &&
-                Objects.equals(
-                        this.keyComparatorOrEqualityComparator(), 
-                        ((SortedSet<?>)c).comparator()
-                )
-        ) {
-            /*
-             * Increase modCount at first to wreck the iterator if the
-             * parameter is this object or wrapper of this object
-             */
-            this.modCount++;
-            if (trigger != null) {
-                Iterator<?> iterator = c.iterator();
-                for (int i = 0; i < cSize; i++) {
-                    K k = (K)iterator.next();
-                    trigger.preAdd(k, (V)PRESENT);
-                }
-            }
-            if (trigger == null) {
-                Iterator<?> iterator = c.iterator();
-                try {
-                    this.buildFromSorted(cSize, iterator, null, (V)PRESENT);
-                } catch (IOException impossible) {
-                } catch (ClassNotFoundException impossible) {
+        if (this.isMergeable(cSize)) {
+            Object[] keys = c.toArray();
+            if (this.isSortedByKeyComparator(c) || this.isStrictlyAscending(keys)) {
+                if (trigger != null) {
+                    for (Object o : keys) {
+                        K k = (K)o;
+                        BaseEntryImpl<K, V> be = this.getBaseEntry(k);
+                        if (be == null) {
+                            trigger.preAdd(k, (V)PRESENT);
+                        } else {
+                            trigger.preChange(be, isKeyStrict ? k : be.key, (V)PRESENT);
+                        }
+                    }
                 }
-            } else if (trigger.beginExecute()) {
-                try {
-                    Iterator<?> iterator = c.iterator();
+                int oldSize = this.size();
+                if (trigger == null) {
+                    this.merge(keys, null);
+                } else if (trigger.beginExecute()) {
                     try {
-                        this.buildFromSorted(cSize, iterator, null, (V)PRESENT);
-                    } catch (IOException impossible) {
-                    } catch (ClassNotFoundException impossible) {
+                        this.merge(keys, null);
+                        trigger.endExecute(null);
+                    } catch (RuntimeException | Error ex) {
+                        trigger.endExecute(ex);
                     }
-                    trigger.endExecute(null);
-                } catch (RuntimeException | Error ex) {
-                    trigger.endExecute(ex);
                 }
+                if (trigger != null) {
+                    trigger.flush();
+                }
+                return oldSize != this.size();
             }
-            if (trigger != null) {
-                trigger.flush();
-            }
-            return cSize != 0;
         }
 
         if (trigger == null) {
@@ -569,6 +617,143 @@ implements NavigableBaseEntries<K, V> {
      * If the return is not null, EntryIterator use it to change field "next";
      */
     final BaseEntryImpl<K, V> deleteBaseEntry0(final BaseEntryImpl<K, V> p) {
+        BaseEntryImpl<K, V> s = this.unlinkBaseEntry(p);
+        p.recordRemove();
+        BaseEntries<V, K> inversedEntries = this.inversedEntries();
+        if (inversedEntries != null) {
+            inversedEntries.removeByKey(p.value, null);
+        }
+        return s;
+    }
+    
+    /*
+     * The in-place suspension only repositions the entry, 
+     * it is neither deleted nor recreated so that no FrozenContext 
+     * is removed from or combined into the key. 
+     */
+    @Override
+    protected BaseEntry<K, V> detachFrozenEntry(K key) {
+        BaseEntryImpl<K, V> be = this.getBaseEntry(key);
+        if (be != null) {
+            this.unlinkBaseEntry(be);
+        }
+        return be;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    protected boolean reattachFrozenEntry(BaseEntry<K, V> be) {
+        BaseEntryImpl<K, V> p = (BaseEntryImpl<K, V>)be;
+        K key = p.key;
+        p.left = null;
+        p.right = null;
+        p.parent = null;
+        p.size = 1;
+        BaseEntryImpl<K, V> t = this.root;
+        if (t == null) {
+            p.red = false;
+            this.root = p;
+            this.modCount++;
+            return true;
+        }
+        Comparator<? super K> comparator = this.keyUnifiedComparator().comparator();
+        Comparable<? super K> comparable = comparator == null ? (Comparable<? super K>)key : null;
+        BaseEntryImpl<K, V> parent;
+        int cmp;
+        do {
+            parent = t;
+            cmp = comparator != null ? comparator.compare(key, t.key) : comparable.compareTo(t.key);
+            if (cmp < 0) {
+                t = t.left;
+            } else if (cmp > 0) {
+                t = t.right;
+            } else {
+                return false;
+            }
+        } while (t != null);
+        p.parent = parent;
+        if (cmp < 0) {
+            parent.left = p;
+        } else {
+            parent.right = p;
+        }
+        for (BaseEntryImpl<K, V> x = parent; x != null; x = x.parent) {
+            x.size++;
+        }
+        this.fixAfterInsertion(p);
+        this.modCount++;
+        return true;
+    }
+
+    /*
+     * Reattaching the entries one by one costs O(k * log(n)), so when k is large,
+     * sorts the detached entries and merges them with the existing entries, 
+     * then rebuilds the balanced tree by the merged sequence, that costs 
+     * O(n + k * log(k)).
+     */
+    @SuppressWarnings("unchecked")
+    @Override
+    protected List<BaseEntry<K, V>> reattachFrozenEntries(List<BaseEntry<K, V>> bes) {
+        int count = bes.size();
+        int size = sizeOf(this.root);
+        if (count < 2 || count * (32 - Integer.numberOfLeadingZeros(size + count)) < size) {
+            return super.reattachFrozenEntries(bes);
+        }
+        Comparator<? super K> comparator = this.keyUnifiedComparator().comparator();
+        BaseEntryImpl<K, V>[] detachedEntries = new BaseEntryImpl[count];
+        for (int i = 0; i < count; i++) {
+            detachedEntries[i] = (BaseEntryImpl<K, V>)bes.get(i);
+        }
+        // Stable sort: When detached entries conflict, the first one is reattached
+        Arrays.sort(detachedEntries, (be1, be2) -> compare(comparator, be1.key, be2.key));
+        BaseEntryImpl<K, V>[] entries = new BaseEntryImpl[size + count];
+        List<BaseEntry<K, V>> conflictedEntries = null;
+        int len = 0;
+        BaseEntryImpl<K, V> oldEntry = this.first();
+        BaseEntryImpl<K, V> lastReattachedEntry = null;
+        for (int i = 0; i < count; i++) {
+            BaseEntryImpl<K, V> be = detachedEntries[i];
+            int cmp = -1;
+            while (oldEntry != null && (cmp = compare(comparator, oldEntry.key, be.key)) < 0) {
+                entries[len++] = oldEntry;
+                oldEntry = successor(oldEntry);
+            }
+            if ((oldEntry != null && cmp == 0) ||
+                    (lastReattachedEntry != null && 
+                    compare(comparator, lastReattachedEntry.key, be.key) == 0)) {
+                if (conflictedEntries == null) {
+                    conflictedEntries = new ArrayList<>();
+                }
+                conflictedEntries.add(be);
+            } else {
+                entries[len++] = be;
+                lastReattachedEntry = be;
+            }
+        }
+        while (oldEntry != null) {
+            entries[len++] = oldEntry;
+            oldEntry = successor(oldEntry);
+        }
+        BaseEntryImpl<K, V> root = link(entries, 0, 0, len - 1, computeRedLevel(len));
+        if (root != null) {
+            root.parent = null;
+        }
+        this.root = root;
+        this.modCount++;
+        return conflictedEntries;
+    }
+
+    @Override
+    protected void deleteDetachedFrozenEntry(BaseEntry<K, V> be) {
+        this.modCount++;
+        ((BaseEntryImpl<K, V>)be).recordRemove();
+    }
+    
+    /*
+     * Unlinks the entry from the tree without deleting it, 
+     * the return value is same with deleteBaseEntry0.
+     */
+    private BaseEntryImpl<K, V> unlinkBaseEntry(final BaseEntryImpl<K, V> p) {
         
         this.modCount++;
         BaseEntryImpl<K, V> s = null;
@@ -689,24 +874,14 @@ implements NavigableBaseEntries<K, V> {
             p.left = null;
             p.right = null;
             p.parent = null;
-            p.recordRemove();
             for (BaseEntryImpl<K, V> rp = replacement.parent; rp != null; rp = rp.parent) {
                 rp.size--;
             }
             if (!isRed(p)) {
                 this.fixAfterDeletion(replacement);
             }
-            BaseEntries<V, K> inversedEntries = this.inversedEntries();
-            if (inversedEntries != null) {
-                inversedEntries.removeByKey(p.value, null);
-            }
         } else if (p.parent == null) {
             this.root = null;
-            p.recordRemove();
-            BaseEntries<V, K> inversedEntries = this.inversedEntries();
-            if (inversedEntries != null) {
-                inversedEntries.removeByKey(p.value, null);
-            }
         } else {
             if (!isRed(p)) {
                 this.fixAfterDeletion(p);
@@ -722,11 +897,6 @@ implements NavigableBaseEntries<K, V> {
                 }
                 p.parent = null;
             }
-            p.recordRemove();
-            BaseEntries<V, K> inversedEntries = this.inversedEntries();
-            if (inversedEntries != null) {
-                inversedEntries.removeByKey(p.value, null);
-            }
         }
 
         return s;
@@ -884,6 +1054,18 @@ implements NavigableBaseEntries<K, V> {
         return null;
     }
     
+    @Override
+    public BaseEntryImpl<K, V> entryAt(int index) {
+        Arguments.indexMustBetweenOther("index", index, "0", 0, true, "size()", this.size(), false);
+        return select(this.root, index);
+    }
+    
+    @Override
+    public int indexOf(K key) {
+        BaseEntryImpl<K, V> be = this.getBaseEntry(key);
+        return be == null ? -1 : rankOf(be);
+    }
+    
     @Override
     public int modCount() {
         return this.modCount;
@@ -1035,6 +1217,140 @@ implements NavigableBaseEntries<K, V> {
         }
     }
 
+    /*
+     * Merging the sorted keys costs O(size + count) while putting them 
+     * one by one costs O(count * log(size + count)), so the merging is 
+     * used only when the count is not too small.
+     * 
+     * The merging does not support the bidi-constraint, because the new values 
+     * may conflict with each other.
+     */
+    private boolean isMergeable(int count) {
+        return count > 1 && 
+                count >= (sizeOf(this.root) >>> MERGE_SHIFT) && 
+                this.inversedEntries() == null;
+    }
+    
+    private boolean isSortedByKeyComparator(Object c) {
+        Comparator<?> comparator;
+        if (c instanceof SortedMap<?, ?>) {
+            comparator = ((SortedMap<?, ?>)c).comparator();
+        } else if (c instanceof SortedSet<?>) {
+            comparator = ((SortedSet<?>)c).comparator();
+        } else {
+            return false;
+        }
+        return Objects.equals(this.keyComparatorOrEqualityComparator(), comparator);
+    }
+    
+    @SuppressWarnings("unchecked")
+    private boolean isStrictlyAscending(Object[] keys) {
+        Comparator<? super K> comparator = this.keyUnifiedComparator().comparator();
+        for (int i = 0; i < keys.length; i++) {
+            Object key = keys[i];
+            if (comparator == null && !(key instanceof Comparable<?>)) {
+                // Let the normal algorithm report the error
+                return false;
+            }
+            if (i != 0 && compare(comparator, (K)keys[i - 1], (K)key) >= 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /*
+     * Merges the strictly ascending keys with the existing entries of this tree
+     * and rebuilds the balanced tree by the merged sequence. The existing entries
+     * are reused so that their identities are not changed, the tree is not rebuilt
+     * and the modCount is not changed if no new entry is created.
+     * 
+     * The keys and values have been copied into the arrays, so the iterators of 
+     * the argument are never used after the structure of this tree is changed
+     * even if the argument is this object or the wrapper of this object.
+     */
+    @SuppressWarnings("unchecked")
+    private void merge(Object[] keys, Object[] values) {
+        boolean isKeyStrict = this.keyReplacementRule() == ReplacementRule.NEW_REFERENCE_WIN;
+        Object keyComparator = this.keyComparatorOrEqualityComparator();
+        Comparator<? super K> comparator = this.keyUnifiedComparator().comparator();
+        int size = sizeOf(this.root);
+        BaseEntryImpl<K, V>[] oldEntries = new BaseEntryImpl[size];
+        int oldCount = 0;
+        for (BaseEntryImpl<K, V> be = this.first(); be != null; be = successor(be)) {
+            oldEntries[oldCount++] = be;
+        }
+        BaseEntryImpl<K, V>[] entries = new BaseEntryImpl[size + keys.length];
+        int count = 0;
+        int oldIndex = 0;
+        for (int i = 0; i < keys.length; i++) {
+            K key = (K)keys[i];
+            V value = values != null ? (V)values[i] : (V)PRESENT;
+            int cmp = -1;
+            while (oldIndex < size && (cmp = compare(comparator, oldEntries[oldIndex].key, key)) < 0) {
+                entries[count++] = oldEntries[oldIndex++];
+            }
+            if (oldIndex < size && cmp == 0) {
+                BaseEntryImpl<K, V> be = oldEntries[oldIndex++];
+                if (isKeyStrict) {
+                    be.setRawKey(key, keyComparator);
+                }
+                be.value = value;
+                entries[count++] = be;
+            } else {
+                entries[count++] = new BaseEntryImpl<K, V>(this, null, key, value);
+            }
+        }
+        if (count == oldIndex) {
+            return;
+        }
+        while (oldIndex < size) {
+            entries[count++] = oldEntries[oldIndex++];
+        }
+        BaseEntryImpl<K, V> root = link(entries, 0, 0, count - 1, computeRedLevel(count));
+        if (root != null) {
+            root.parent = null;
+        }
+        this.root = root;
+        this.modCount++;
+    }
+    
+    private static <K, V> BaseEntryImpl<K, V> link(
+            BaseEntryImpl<K, V>[] entries, 
+            int level, 
+            int lo, 
+            int hi, 
+            int redLevel) {
+        if (hi < lo) {
+            return null;
+        }
+        int mid = (lo + hi) >>> 1;
+        BaseEntryImpl<K, V> middle = entries[mid];
+        BaseEntryImpl<K, V> left = link(entries, level + 1, lo, mid - 1, redLevel);
+        BaseEntryImpl<K, V> right = link(entries, level + 1, mid + 1, hi, redLevel);
+        middle.left = left;
+        middle.right = right;
+        middle.red = level == redLevel;
+        middle.size = 1;
+        if (left != null) {
+            left.parent = middle;
+            middle.size += left.size;
+        }
+        if (right != null) {
+            right.parent = middle;
+            middle.size += right.size;
+        }
+        return middle;
+    }
+    
+    @SuppressWarnings("unchecked")
+    private static <K> int compare(Comparator<? super K> comparator, K k1, K k2) {
+        if (comparator != null) {
+            return comparator.compare(k1, k2);
+        }
+        return ((Comparable<? super K>)k1).compareTo(k2);
+    }
+
     private void buildFromSorted(
             int size, 
             Iterator<?> iterator,
@@ -1162,6 +1478,40 @@ implements NavigableBaseEntries<K, V> {
         return (p == null) ? 0 : p.size;
     }
 
+    /*
+     * Finds the entry by its position in O(log(n)), 
+     * it uses the subtree sizes that are maintained by the tree.
+     */
+    private static <K, V> BaseEntryImpl<K, V> select(BaseEntryImpl<K, V> p, int index) {
+        while (p != null) {
+            int leftSize = sizeOf(p.left);
+            if (index < leftSize) {
+                p = p.left;
+            } else if (index > leftSize) {
+                index -= leftSize + 1;
+                p = p.right;
+            } else {
+                return p;
+            }
+        }
+        return null;
+    }
+    
+    /*
+     * Returns the position of the entry in O(log(n)), 
+     * it uses the subtree sizes that are maintained by the tree.
+     */
+    private static <K, V> int rankOf(BaseEntryImpl<K, V> be) {
+        int rank = sizeOf(be.left);
+        for (BaseEntryImpl<K, V> p = be.parent; p != null; p = p.parent) {
+            if (p.right == be) {
+                rank += sizeOf(p.left) + 1;
+            }
+            be = p;
+        }
+        return rank;
+    }
+
     private static <K, V> BaseEntryImpl<K, V> successor(BaseEntryImpl<K, V> t) {
         if (t == null) {
             return null;
@@ -1409,6 +1759,29 @@ implements NavigableBaseEntries<K, V> {
             return this.absHigher(key);
         }
 
+        @Override
+        public BaseEntry<K, V> entryAt(int index) {
+            int size = this.size();
+            Arguments.indexMustBetweenOther("index", index, "0", 0, true, "size()", size, false);
+            if (this.range.descending()) {
+                index = size - 1 - index;
+            }
+            return select(RedBlackTreeEntries.this.root, rankOf(this.absLowest()) + index);
+        }
+        
+        @Override
+        public int indexOf(K key) {
+            BaseEntryImpl<K, V> be = (BaseEntryImpl<K, V>)this.getBaseEntry(key);
+            if (be == null) {
+                return -1;
+            }
+            int index = rankOf(be) - rankOf(this.absLowest());
+            if (this.range.descending()) {
+                return this.size() - 1 - index;
+            }
+            return index;
+        }
+
         @SuppressWarnings("unchecked")
         @Override
         public BaseEntry<K, V> getBaseEntry(Object key) {
@@ -1462,6 +1835,12 @@ implements NavigableBaseEntries<K, V> {
             );
         }
 
+        @Override
+        public Spliterator<BaseEntry<K, V>> spliterator() {
+            return RedBlackTreeEntries.this.new EntrySpliterator(
+                    this, 0, -1, this.range.descending(), null, 0);
+        }
+
         @Override
         protected AbstractBaseEntriesImpl<K, V> getParent() {
             return RedBlackTreeEntries.this;
@@ -1691,6 +2070,126 @@ implements NavigableBaseEntries<K, V> {
         }
     }
 
+    /*
+     * Splits the range of the positions, each position can be 
+     * located in O(log(n)) because the subtree sizes are maintained.
+     */
+    private class EntrySpliterator implements Spliterator<BaseEntry<K, V>> {
+        
+        private final SubTree subTree;
+        
+        private int origin;
+        
+        private int fence; // -1 until first used
+        
+        private final boolean descending;
+        
+        private BaseEntryImpl<K, V> next;
+        
+        private int expectedModCount;
+        
+        EntrySpliterator(
+                SubTree subTree,
+                int origin, 
+                int fence, 
+                boolean descending, 
+                BaseEntryImpl<K, V> next, 
+                int expectedModCount) {
+            this.subTree = subTree;
+            this.origin = origin;
+            this.fence = fence;
+            this.descending = descending;
+            this.next = next;
+            this.expectedModCount = expectedModCount;
+        }
+        
+        private int getFence() {
+            int hi = this.fence;
+            if (hi < 0) {
+                RedBlackTreeEntries<K, V> owner = RedBlackTreeEntries.this;
+                if (this.subTree == null) {
+                    hi = owner.size();
+                } else {
+                    BaseEntryImpl<K, V> absLowest = this.subTree.absLowest();
+                    if (absLowest != null) {
+                        this.origin = rankOf(absLowest);
+                        hi = this.origin + this.subTree.size();
+                    } else {
+                        hi = 0;
+                    }
+                }
+                this.fence = hi;
+                this.expectedModCount = owner.modCount;
+            }
+            return hi;
+        }
+
+        @Override
+        public Spliterator<BaseEntry<K, V>> trySplit() {
+            int hi = this.getFence();
+            int lo = this.origin;
+            int mid = (lo + hi) >>> 1;
+            if (lo >= mid) {
+                return null;
+            }
+            BaseEntryImpl<K, V> next = this.next;
+            this.next = null;
+            if (this.descending) {
+                this.fence = mid;
+                return new EntrySpliterator(
+                        this.subTree, mid, hi, true, next, this.expectedModCount);
+            }
+            this.origin = mid;
+            return new EntrySpliterator(
+                    this.subTree, lo, mid, false, next, this.expectedModCount);
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super BaseEntry<K, V>> action) {
+            Arguments.mustNotBeNull("action", action);
+            int hi = this.getFence();
+            if (this.origin >= hi) {
+                return false;
+            }
+            RedBlackTreeEntries<K, V> owner = RedBlackTreeEntries.this;
+            if (this.expectedModCount != owner.modCount) {
+                throw new ConcurrentModificationException(IteratorMessages.concurrentModifcation());
+            }
+            BaseEntryImpl<K, V> be = this.next;
+            if (this.descending) {
+                if (be == null) {
+                    be = select(owner.root, hi - 1);
+                }
+                this.fence = hi - 1;
+                this.next = predecessor(be);
+            } else {
+                if (be == null) {
+                    be = select(owner.root, this.origin);
+                }
+                this.origin++;
+                this.next = successor(be);
+            }
+            action.accept(be);
+            if (this.expectedModCount != owner.modCount) {
+                throw new ConcurrentModificationException(IteratorMessages.concurrentModifcation());
+            }
+            return true;
+        }
+
+        @Override
+        public long estimateSize() {
+            return this.getFence() - this.origin;
+        }
+
+        @Override
+        public int characteristics() {
+            return Spliterator.SIZED | 
+                    Spliterator.SUBSIZED | 
+                    Spliterator.ORDERED | 
+                    Spliterator.DISTINCT;
+        }
+    }
+    
     private abstract class AbstractEntryIterator implements BaseEntryIterator<K, V> {
         
         /*
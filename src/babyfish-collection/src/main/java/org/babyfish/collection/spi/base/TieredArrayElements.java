@@ -0,0 +1,757 @@
+/*
+ * BabyFish, Object Model Framework for Java and JPA.
+ * https://github.com/babyfish-ct/babyfish
+ *
+ * Copyright (c) 2008-2016, Tao Chen
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * Please visit "http://opensource.org/licenses/LGPL-3.0" to know more.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ */
+package org.babyfish.collection.spi.base;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Collection;
+
+import org.babyfish.collection.BidiType;
+import org.babyfish.collection.UnifiedComparator;
+import org.babyfish.collection.spi.base.AbstractBaseElementsImpl.Trigger.History;
+import org.babyfish.lang.Arguments;
+
+/**
+ * The tiered array implementation of {@link BaseElements}.
+ * 
+ * <p>
+ * The elements are stored in blocks whose capacity is 2<sup>shift</sup>,
+ * each block is a circular buffer and all the blocks except the last one are full.
+ * So the element can be got by its index in O(1) like {@link ArrayElements},
+ * but inserting or removing an element in the middle only needs to shift 
+ * the elements inside one block and move one element between each pair of 
+ * the following blocks, that costs O(sqrt(n)) because the block capacity
+ * is kept near sqrt(n), not O(n) like {@link ArrayElements}.
+ * </p>
+ * 
+ * @author Tao Chen
+ */
+public class TieredArrayElements<E> extends AbstractBaseElementsImpl<E> {
+    
+    private static final long serialVersionUID = -4619310624874095265L;
+    
+    private static final int MIN_SHIFT = 4;
+    
+    private static final int MAX_SHIFT = 15;
+
+    private Object[][] blocks;
+    
+    private int[] heads;
+    
+    private int shift;
+    
+    private int allSize;
+    
+    private int modCount;
+    
+    public TieredArrayElements(
+            BidiType bidiType,
+            Object comparatorOrEqualityComparatorOrUnifiedComparator,
+            int initCapacity) {
+        super(bidiType, comparatorOrEqualityComparatorOrUnifiedComparator);
+        Arguments.mustBeGreaterThanOrEqualToValue("initCapacity", initCapacity, 0);
+        this.shift = shiftOf(initCapacity);
+    }
+
+    @Override
+    public boolean isReadWriteLockSupported() {
+        return true;
+    }
+
+    @Override
+    public boolean randomAccess() {
+        return true;
+    }
+
+    @Override
+    public int allSize() {
+        return this.allSize;
+    }
+    
+    @SuppressWarnings("unchecked")
+    @Override
+    protected int firstIndex(int subListHeadHide, int subListTailHide, Object o) {
+        this.checkSubListRange(subListHeadHide, subListTailHide);
+        int fenceIndex = this.allSize - subListTailHide;
+        if (o == null) {
+            for (int i = subListHeadHide; i < fenceIndex; i++) {
+                if (this.elementAt(i) == null) {
+                    return i - subListHeadHide;
+                }
+            }
+        } else {
+            UnifiedComparator<? super E> unifiedComparator = this.unifiedComparator();
+            for (int i = subListHeadHide; i < fenceIndex; i++) {
+                E ei = (E)this.elementAt(i);
+                if (unifiedComparator.equals((E)o, ei)) {
+                    return i - subListHeadHide;
+                }
+            }
+        }
+        return -1;
+    }
+    
+    @SuppressWarnings("unchecked")
+    @Override
+    protected int lastIndex(int subListHeadHide, int subListTailHide, Object o) {
+        this.checkSubListRange(subListHeadHide, subListTailHide);
+        if (o == null) {
+            for (int i = this.allSize - subListTailHide - 1; i >= subListHeadHide; i--) {
+                if (this.elementAt(i) == null) {
+                    return i - subListHeadHide;
+                }
+            }
+        } else {
+            UnifiedComparator<? super E> unifiedComparator = this.unifiedComparator();
+            for (int i = this.allSize - subListTailHide - 1; i >= subListHeadHide; i--) {
+                E ei = (E)this.elementAt(i);
+                if (unifiedComparator.equals((E)o, ei)) {
+                    return i - subListHeadHide;
+                }
+            }
+        }
+        return -1;
+    }
+    
+    @SuppressWarnings("unchecked")
+    @Override
+    public E get(int subListHeadHide, int subListTailHide, int index) {
+        this.checkSubListRange(subListHeadHide, subListTailHide);
+        Arguments.indexMustBetweenOther(
+                "index", 
+                index, 
+                "0", 
+                0, 
+                true, 
+                "allSize() - subListHeadHide - subListTailHide", 
+                this.allSize - subListHeadHide - subListTailHide, 
+                false);
+        return (E)this.elementAt(subListHeadHide + index);
+    }
+    
+    @Override
+    protected void addImpl(E element, AttachProcessor<E> attachProcessor) {
+        
+        Trigger<E> trigger = attachProcessor.getTrigger();
+        if (trigger != null) {
+            trigger.preAdd(attachProcessor.getActualIndex(false), element);
+        }
+        if (attachProcessor.beginExecute()) {
+            try {
+                int absoluteIndex = attachProcessor.getActualIndex(true);
+                this.insert(absoluteIndex, element);
+                BaseEntries<E, Object> inversedEntries = this.inversedEntries();
+                if (inversedEntries != null) {
+                    inversedEntries.put(element, null, null);
+                }
+                this.hashIndexAdd(element);
+                this.modCount++;
+                attachProcessor.endExecute(null);
+            } catch (RuntimeException | Error ex) {
+                attachProcessor.endExecute(ex);
+            }
+        }
+        attachProcessor.flush();
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    protected void addAllImpl(Collection<? extends E> c, AttachProcessor<E> attachProcessor) {
+        Trigger<E> trigger = attachProcessor.getTrigger();
+        if (trigger != null) {
+            int addedCount = 0;
+            int actualIndex = attachProcessor.getActualIndex(false);
+            for (E e : c) {
+                trigger.preAdd(actualIndex + addedCount++, e);
+            }
+        }
+        if (attachProcessor.beginExecute()) {
+            try {
+                int absoluteIndex = attachProcessor.getActualIndex(true);
+                Object[] appendData = c.toArray();
+                if (this.isRebuildingCheaper(appendData.length)) {
+                    int allSize = this.allSize;
+                    Object[] data = new Object[allSize + appendData.length];
+                    this.copyTo(0, absoluteIndex, data, 0);
+                    System.arraycopy(appendData, 0, data, absoluteIndex, appendData.length);
+                    this.copyTo(absoluteIndex, allSize, data, absoluteIndex + appendData.length);
+                    this.rebuild(data);
+                } else {
+                    for (int i = 0; i < appendData.length; i++) {
+                        this.insert(absoluteIndex + i, appendData[i]);
+                    }
+                }
+                BaseEntries<E, Object> inversedEntries = this.inversedEntries();
+                if (inversedEntries != null) {
+                    for (int i = appendData.length - 1; i >= 0; i--) {
+                        inversedEntries.put((E)appendData[i], null, null);
+                    }
+                }
+                if (this.isHashIndexed()) {
+                    for (Object e : appendData) {
+                        this.hashIndexAdd((E)e);
+                    }
+                }
+                this.modCount++;
+                attachProcessor.endExecute(null);
+            } catch (RuntimeException | Error ex) {
+                attachProcessor.endExecute(ex);
+            }
+        }
+        attachProcessor.flush();
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    protected E setImpl(E element, AttachProcessor<E> attachProcessor) {
+        Trigger<E> trigger = attachProcessor.getTrigger();
+        if (trigger != null) {
+            trigger.preChange(
+                    attachProcessor.getExpectedIndex(false), 
+                    attachProcessor.getActualIndex(false), 
+                    this.get(0, 0, attachProcessor.getExpectedIndex(true)), 
+                    element);
+        }
+        E retval = null;
+        if (attachProcessor.beginExecute()) {
+            try {
+                int absoluteIndex = attachProcessor.getActualIndex(true);
+                int shift = this.shift;
+                int blockIndex = absoluteIndex >> shift;
+                int slot = (this.heads[blockIndex] + absoluteIndex) & ((1 << shift) - 1);
+                Object[] block = this.blocks[blockIndex];
+                retval = (E)block[slot];
+                block[slot] = element;
+                BaseEntries<E, Object> inversedEntries = this.inversedEntries();
+                if (inversedEntries != null) {
+                    inversedEntries.removeByKey(retval, null);
+                    inversedEntries.put(element, null, null);
+                }
+                this.hashIndexRemove(retval);
+                this.hashIndexAdd(element);
+                attachProcessor.endExecute(null);
+            } catch (RuntimeException | Error ex) {
+                attachProcessor.endExecute(ex);
+            }
+        }
+        attachProcessor.flush();
+        return retval;
+    }
+    
+    @SuppressWarnings("unchecked")
+    @Override
+    protected void clear(
+            int subListHeadHide, 
+            int subListTailHide, 
+            Trigger<E> trigger) {
+        this.checkSubListRange(subListHeadHide, subListTailHide);
+        int subListSize = this.allSize - subListHeadHide - subListTailHide;
+        if (subListSize == 0) {
+            return;
+        }
+        if (trigger != null) {
+            for (int i = 0; i < subListSize; i++) {
+                trigger.preRemove(i, (E)this.elementAt(subListHeadHide + i));
+            }
+        }
+        if (trigger == null || trigger.beginExecute()) {
+            try {
+                BaseEntries<E, Object> inversedEntries = this.inversedEntries();
+                if (this.allSize == subListSize) {
+                    this.blocks = null;
+                    this.heads = null;
+                    this.allSize = 0;
+                    if (inversedEntries != null) {
+                        inversedEntries.clear(null);
+                    }
+                    this.hashIndexClear();
+                } else {
+                    if (inversedEntries != null) {
+                        for (int i = this.allSize - subListTailHide - 1; i >= subListHeadHide; i--) {
+                            inversedEntries.removeByKey(this.elementAt(i), null);
+                        }
+                    }
+                    if (this.isHashIndexed()) {
+                        for (int i = this.allSize - subListTailHide - 1; i >= subListHeadHide; i--) {
+                            this.hashIndexRemove(this.elementAt(i));
+                        }
+                    }
+                    if (this.isRebuildingCheaper(subListSize)) {
+                        int allSize = this.allSize;
+                        Object[] data = new Object[allSize - subListSize];
+                        this.copyTo(0, subListHeadHide, data, 0);
+                        this.copyTo(allSize - subListTailHide, allSize, data, subListHeadHide);
+                        this.rebuild(data);
+                    } else {
+                        for (int i = subListHeadHide + subListSize - 1; i >= subListHeadHide; i--) {
+                            this.delete(i);
+                        }
+                    }
+                }
+                this.modCount++;
+                if (trigger != null) {
+                    trigger.endExecute(null);
+                }
+            } catch (RuntimeException | Error ex) {
+                if (trigger == null) {
+                    throw ex;
+                }
+                trigger.endExecute(ex);
+            }
+        }
+        if (trigger != null) {
+            trigger.flush();
+        }
+    }
+    
+    @SuppressWarnings("unchecked")
+    @Override
+    protected E removeAt(
+            int subListHeadHide, 
+            int subListTailHide, 
+            int index, 
+            Trigger<E> trigger) {
+        this.checkSubListRange(subListHeadHide, subListTailHide);
+        int subListSize = this.allSize - subListHeadHide - subListTailHide;
+        Arguments.indexMustBetweenOther(
+                "index", 
+                index, 
+                "0", 
+                0, 
+                true, 
+                "allSize() - subListHeadHide - subListTailHide", 
+                subListSize, 
+                false);
+        int absIndex = subListHeadHide + index;
+        if (trigger != null) {
+            trigger.preRemove(index, (E)this.elementAt(absIndex));
+        }
+        E retval = null;
+        if (trigger == null || trigger.beginExecute()) {
+            try {
+                retval = (E)this.delete(absIndex);
+                BaseEntries<E, Object> inversedEntries = this.inversedEntries();
+                if (inversedEntries != null) {
+                    inversedEntries.removeByKey(retval, null);
+                }
+                this.hashIndexRemove(retval);
+                this.modCount++;
+                if (trigger != null) {
+                    trigger.endExecute(null);
+                }
+            } catch (RuntimeException | Error ex) {
+                if (trigger == null) {
+                    throw ex;
+                }
+                trigger.endExecute(ex);
+            }
+        }
+        if (trigger != null) {
+            trigger.flush();
+        }
+        return retval;
+    }
+    
+    @Override
+    protected boolean remove(
+            int subListHeadHide,
+            int subListTailHide,
+            Object o,
+            Trigger<E> trigger) {
+        
+        //Need to call this.checkSubListRange because this.indexOf will call it
+        int index = this.indexOf(subListHeadHide, subListTailHide, o);
+        if (index != -1) {
+            this.removeAt(subListHeadHide, subListTailHide, index, trigger);
+            return true;
+        }
+        return false;
+    }
+    
+    @SuppressWarnings("unchecked")
+    @Override
+    protected boolean removeAll(
+            int subListHeadHide,
+            int subListTailHide,
+            Collection<?> c,
+            Trigger<E> trigger) {
+        this.checkSubListRange(subListHeadHide, subListTailHide);
+        OverriddenContainsBehavior ocb = OverriddenContainsBehavior.of(
+                (Collection<? extends E>)c, this.unifiedComparator());
+        return this.removeIf(subListHeadHide, subListTailHide, ocb, true, trigger);
+    }
+    
+    @SuppressWarnings("unchecked")
+    @Override
+    protected boolean retainAll(
+            int subListHeadHide,
+            int subListTailHide,
+            Collection<?> c,
+            Trigger<E> trigger) {
+        this.checkSubListRange(subListHeadHide, subListTailHide);
+        OverriddenContainsBehavior ocb = OverriddenContainsBehavior.of(
+                (Collection<? extends E>)c, this.unifiedComparator());
+        return this.removeIf(subListHeadHide, subListTailHide, ocb, false, trigger);
+    }
+    
+    @Override
+    public BaseListIterator<E> listIterator(
+            int subListHeadHide, 
+            int subListTailHide, 
+            int index,
+            BaseElementsConflictHandler rangeChangeHandler) {
+        return this.new BaseElementIteratorImpl(subListHeadHide, subListTailHide, index, rangeChangeHandler);
+    }
+    
+    @Override
+    public int modCount() {
+        return this.modCount;
+    }
+    
+    /*
+     * Unlike ArrayElements, this method compacts the remaining elements 
+     * in one pass rather than removing the matched elements one by one.
+     */
+    @SuppressWarnings("unchecked")
+    private boolean removeIf(
+            int subListHeadHide,
+            int subListTailHide,
+            OverriddenContainsBehavior ocb,
+            boolean removeContained,
+            Trigger<E> trigger) {
+        int fenceIndex = this.allSize - subListTailHide;
+        if (trigger != null) {
+            for (int absIndex = subListHeadHide; absIndex < fenceIndex; absIndex++) {
+                Object e = this.elementAt(absIndex);
+                if (ocb.contains(e) == removeContained) {
+                    trigger.preRemove(absIndex - subListHeadHide, (E)e);
+                }
+            }
+        }
+        int deleteCount = 0;
+        if (trigger == null || trigger.beginExecute()) {
+            try {
+                int allSize = this.allSize;
+                Object[] data = new Object[allSize];
+                this.copyTo(0, allSize, data, 0);
+                BaseEntries<E, Object> inversedEntries = this.inversedEntries();
+                int index = subListHeadHide;
+                if (trigger != null) {
+                    History<E> history = trigger.getHistory(0);
+                    int length = trigger.getLength();
+                    int historyIndex = 0;
+                    for (int absIndex = subListHeadHide; absIndex < fenceIndex; absIndex++) {
+                        if (historyIndex < length && 
+                                history.getOldIndex(historyIndex) == absIndex - subListHeadHide) {
+                            historyIndex++;
+                            if (inversedEntries != null) {
+                                inversedEntries.removeByKey(data[absIndex], null);
+                            }
+                            this.hashIndexRemove(data[absIndex]);
+                        } else {
+                            data[index++] = data[absIndex];
+                        }
+                    }
+                } else {
+                    for (int absIndex = subListHeadHide; absIndex < fenceIndex; absIndex++) {
+                        Object e = data[absIndex];
+                        if (ocb.contains(e) == removeContained) {
+                            if (inversedEntries != null) {
+                                inversedEntries.removeByKey(e, null);
+                            }
+                            this.hashIndexRemove(e);
+                        } else {
+                            data[index++] = e;
+                        }
+                    }
+                }
+                deleteCount = fenceIndex - index;
+                if (deleteCount != 0) {
+                    System.arraycopy(data, fenceIndex, data, index, subListTailHide);
+                    Object[] newData = new Object[allSize - deleteCount];
+                    System.arraycopy(data, 0, newData, 0, newData.length);
+                    this.rebuild(newData);
+                    this.modCount++;
+                }
+                if (trigger != null) {
+                    trigger.endExecute(null);
+                }
+            } catch (RuntimeException | Error ex) {
+                if (trigger == null) {
+                    throw ex;
+                }
+                trigger.endExecute(ex);
+            }
+        }
+        if (trigger != null) {
+            trigger.flush();
+            return trigger.getLength() != 0;
+        }
+        return deleteCount != 0;
+    }
+    
+    private Object elementAt(int absoluteIndex) {
+        int shift = this.shift;
+        int blockIndex = absoluteIndex >> shift;
+        return this.blocks[blockIndex][(this.heads[blockIndex] + absoluteIndex) & ((1 << shift) - 1)];
+    }
+    
+    /*
+     * Inserts the element into its block and moves the last element of
+     * each full block to the head of the next block, from the last block 
+     * to the block of the index.
+     */
+    private void insert(int absoluteIndex, Object element) {
+        int allSize = this.allSize;
+        if (allSize >= 1 << (this.shift << 1) + 2 && this.shift < MAX_SHIFT) {
+            this.retier();
+        }
+        int shift = this.shift;
+        int capacity = 1 << shift;
+        int mask = capacity - 1;
+        int lastBlockIndex = allSize >> shift;
+        Object[][] blocks = this.blocks;
+        if (blocks == null || lastBlockIndex >= blocks.length) {
+            int newLength = blocks == null ? 4 : blocks.length << 1;
+            Object[][] newBlocks = new Object[newLength][];
+            int[] newHeads = new int[newLength];
+            if (blocks != null) {
+                System.arraycopy(blocks, 0, newBlocks, 0, blocks.length);
+                System.arraycopy(this.heads, 0, newHeads, 0, blocks.length);
+            }
+            this.blocks = blocks = newBlocks;
+            this.heads = newHeads;
+        }
+        if (blocks[lastBlockIndex] == null) {
+            blocks[lastBlockIndex] = new Object[capacity];
+        }
+        int[] heads = this.heads;
+        int blockIndex = absoluteIndex >> shift;
+        for (int i = lastBlockIndex; i > blockIndex; i--) {
+            Object[] prevBlock = blocks[i - 1];
+            int prevTail = (heads[i - 1] + mask) & mask;
+            int head = (heads[i] - 1) & mask;
+            blocks[i][head] = prevBlock[prevTail];
+            prevBlock[prevTail] = null;
+            heads[i] = head;
+        }
+        int size = blockIndex == lastBlockIndex ? allSize & mask : mask;
+        int offset = absoluteIndex & mask;
+        Object[] block = blocks[blockIndex];
+        int head = heads[blockIndex];
+        if (offset < size - offset) {
+            head = (head - 1) & mask;
+            for (int i = 0; i < offset; i++) {
+                block[(head + i) & mask] = block[(head + i + 1) & mask];
+            }
+            heads[blockIndex] = head;
+        } else {
+            for (int i = size; i > offset; i--) {
+                block[(head + i) & mask] = block[(head + i - 1) & mask];
+            }
+        }
+        block[(head + offset) & mask] = element;
+        this.allSize = allSize + 1;
+    }
+    
+    /*
+     * Deletes the element from its block and moves the first element of
+     * each following block to the tail of the previous block.
+     */
+    private Object delete(int absoluteIndex) {
+        int allSize = this.allSize;
+        int shift = this.shift;
+        int mask = (1 << shift) - 1;
+        int lastBlockIndex = (allSize - 1) >> shift;
+        int blockIndex = absoluteIndex >> shift;
+        int size = blockIndex == lastBlockIndex ? allSize - (blockIndex << shift) : mask + 1;
+        int offset = absoluteIndex & mask;
+        Object[][] blocks = this.blocks;
+        int[] heads = this.heads;
+        Object[] block = blocks[blockIndex];
+        int head = heads[blockIndex];
+        Object retval = block[(head + offset) & mask];
+        if (offset < size - 1 - offset) {
+            for (int i = offset; i > 0; i--) {
+                block[(head + i) & mask] = block[(head + i - 1) & mask];
+            }
+            block[head] = null;
+            heads[blockIndex] = (head + 1) & mask;
+        } else {
+            for (int i = offset; i < size - 1; i++) {
+                block[(head + i) & mask] = block[(head + i + 1) & mask];
+            }
+            block[(head + size - 1) & mask] = null;
+        }
+        for (int i = blockIndex + 1; i <= lastBlockIndex; i++) {
+            Object[] nextBlock = blocks[i];
+            int nextHead = heads[i];
+            blocks[i - 1][(heads[i - 1] + mask) & mask] = nextBlock[nextHead];
+            nextBlock[nextHead] = null;
+            heads[i] = (nextHead + 1) & mask;
+        }
+        this.allSize = --allSize;
+        if (allSize == 0) {
+            this.blocks = null;
+            this.heads = null;
+        } else {
+            if ((allSize & mask) == 0) {
+                //Let JVM GC the empty block
+                blocks[lastBlockIndex] = null;
+                heads[lastBlockIndex] = 0;
+            }
+            if (allSize < 1 << (shift << 1) - 2 && shift > MIN_SHIFT) {
+            this.retier();
+            }
+        }
+        return retval;
+    }
+    
+    /*
+     * Rebuilding costs O(n), inserting or deleting the elements 
+     * one by one costs O(count * sqrt(n))
+     */
+    private boolean isRebuildingCheaper(int count) {
+        return count > (this.allSize >> this.shift);
+    }
+    
+    /*
+     * Chooses the new block capacity by the current size, so the size is 
+     * between capacity^2/4 and capacity^2 after this method. The next retiering
+     * happens only after the size grows to 4 * capacity^2 or shrinks to capacity^2/4 
+     * so that its O(n) cost is amortized.
+     */
+    private void retier() {
+        int allSize = this.allSize;
+        Object[] data = new Object[allSize];
+        this.copyTo(0, allSize, data, 0);
+        this.rebuild(data);
+    }
+    
+    private void rebuild(Object[] data) {
+        int allSize = data.length;
+        if (allSize == 0) {
+            this.blocks = null;
+            this.heads = null;
+            this.allSize = 0;
+            return;
+        }
+        int shift = shiftOf(allSize);
+        this.shift = shift;
+        int capacity = 1 << shift;
+        int blockCount = (allSize + capacity - 1) >> shift;
+        Object[][] blocks = new Object[Math.max(4, blockCount)][];
+        for (int i = 0; i < blockCount; i++) {
+            Object[] block = new Object[capacity];
+            int from = i << shift;
+            System.arraycopy(data, from, block, 0, Math.min(capacity, allSize - from));
+            blocks[i] = block;
+        }
+        this.blocks = blocks;
+        this.heads = new int[blocks.length];
+        this.allSize = allSize;
+    }
+    
+    private void copyTo(int fromIndex, int toIndex, Object[] dest, int destIndex) {
+        int shift = this.shift;
+        int capacity = 1 << shift;
+        int mask = capacity - 1;
+        Object[][] blocks = this.blocks;
+        int[] heads = this.heads;
+        while (fromIndex < toIndex) {
+            int blockIndex = fromIndex >> shift;
+            int offset = fromIndex & mask;
+            int length = Math.min(capacity - offset, toIndex - fromIndex);
+            Object[] block = blocks[blockIndex];
+            int slot = (heads[blockIndex] + offset) & mask;
+            int firstLength = Math.min(length, capacity - slot);
+            System.arraycopy(block, slot, dest, destIndex, firstLength);
+            if (firstLength < length) {
+                System.arraycopy(block, 0, dest, destIndex + firstLength, length - firstLength);
+            }
+            fromIndex += length;
+            destIndex += length;
+        }
+    }
+    
+    /*
+     * The block capacity 2^shift is the smallest one that is not less than sqrt(size)
+     */
+    private static int shiftOf(int size) {
+        int shift = MIN_SHIFT;
+        while (shift < MAX_SHIFT && 1L << (shift << 1) < size) {
+            shift++;
+        }
+        return shift;
+    }
+    
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        int allSize = this.allSize;
+        out.writeInt(allSize);
+        for (int i = 0; i < allSize; i++) {
+            out.writeObject(this.elementAt(i));
+        }
+    }
+    
+    @SuppressWarnings("unchecked")
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        int allSize = in.readInt();
+        Object[] data = new Object[allSize];
+        for (int i = 0; i < allSize; i++) {
+            data[i] = in.readObject();
+        }
+        this.shift = shiftOf(allSize);
+        this.rebuild(data);
+        BaseEntries<E, Object> inversedEntries = this.inversedEntries();
+        if (inversedEntries != null) {
+            for (int i = 0; i < allSize; i++) {
+                inversedEntries.put((E)data[i], null, null);
+            }
+        }
+        if (this.isHashIndexed()) {
+            for (int i = 0; i < allSize; i++) {
+                this.hashIndexAdd((E)data[i]);
+            }
+        }
+    }
+
+    private class BaseElementIteratorImpl extends AbstractBaseElementIteratorImpl {
+
+        BaseElementIteratorImpl(
+                int subListHeadHide, 
+                int subListTailHide,
+                int index,
+                BaseElementsConflictHandler conflictHandler) {
+            super(subListHeadHide, subListTailHide, index, conflictHandler);
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        protected E get(int absoluteIndex) {
+            return (E)TieredArrayElements.this.elementAt(absoluteIndex);
+        }
+        
+        @Override
+        public void reset() {
+            
+        }
+        
+    }
+    
+}
@@ -26,6 +26,7 @@ import org.babyfish.collection.XList;
 import org.babyfish.collection.event.ElementListener;
 import org.babyfish.collection.event.ListElementEvent;
 import org.babyfish.collection.event.ListElementListener;
+import org.babyfish.collection.spi.ListenerDispatcher;
 import org.babyfish.collection.spi.wrapper.event.AbstractListElementEventDispatcher;
 import org.babyfish.collection.viewinfo.CollectionViewInfos;
 import org.babyfish.collection.viewinfo.ListViewInfos;
@@ -45,9 +46,9 @@ public abstract class AbstractLazyMAList<E> extends AbstractLazyXList<E> impleme
     
     private static final Object AK_LIST_ELEMENT_LISTENER = new Object();
 
-    private transient ElementListener<E> elementListener;
+    private transient ListenerDispatcher<ElementListener<E>> elementListener;
     
-    private transient ListElementListener<E> listElementListener;
+    private transient ListenerDispatcher<ListElementListener<E>> listElementListener;
     
     protected AbstractLazyMAList(MAList<E> base) {
         super(base);
@@ -85,28 +86,28 @@ public abstract class AbstractLazyMAList<E> extends AbstractLazyXList<E> impleme
     @SuppressWarnings("unchecked")
     @Override
     public void addElementListener(ElementListener<? super E> listener) {
-        this.elementListener = ElementListener.combine(
+        this.elementListener = ListenerDispatcher.combine(
                         this.elementListener, (ElementListener<E>)listener);
     }
 
     @SuppressWarnings("unchecked")
     @Override
     public void removeElementListener(ElementListener<? super E> listener) {
-        this.elementListener = ElementListener.remove(
+        this.elementListener = ListenerDispatcher.remove(
                         this.elementListener, (ElementListener<E>)listener);
     }
 
     @SuppressWarnings("unchecked")
     @Override
     public void addListElementListener(ListElementListener<? super E> listener) {
-        this.listElementListener = ListElementListener.combine(
+        this.listElementListener = ListenerDispatcher.combine(
                         this.listElementListener, (ListElementListener<E>)listener);
     }
 
     @SuppressWarnings("unchecked")
     @Override
     public void removeListElementListener(ListElementListener<? super E> listener) {
-        this.listElementListener = ListElementListener.remove(
+        this.listElementListener = ListenerDispatcher.remove(
                         this.listElementListener, (ListElementListener<E>)listener);
     }
     
@@ -173,23 +174,23 @@ public abstract class AbstractLazyMAList<E> extends AbstractLazyXList<E> impleme
     protected void raiseModifying(ListElementEvent<E> e) throws Throwable {
         Throwable finalThrowable = null;
         try {
-            ElementListener<E> elementListener = this.elementListener;
+            ListenerDispatcher<ElementListener<E>> elementListener = this.elementListener;
             if (elementListener != null) {
                 e
                 .getAttributeContext(AttributeScope.LOCAL)
                 .addAttribute(AK_ELEMENT_LISTENER, elementListener);
-                elementListener.modifying(e);
+                elementListener.dispatchModifying(e, ElementListener::modifying);
             }
         } catch (Throwable ex) {
             finalThrowable = ex;
         }
         try {
-            ListElementListener<E> listElementListener = this.listElementListener;
+            ListenerDispatcher<ListElementListener<E>> listElementListener = this.listElementListener;
             if (listElementListener != null) {
                 e
                 .getAttributeContext(AttributeScope.LOCAL)
                 .addAttribute(AK_LIST_ELEMENT_LISTENER, listElementListener);
-                listElementListener.modifying(e);
+                listElementListener.dispatchModifying(e, ListElementListener::modifying);
             }
         } catch (Throwable ex) {
             if (finalThrowable == null) {
@@ -205,25 +206,25 @@ public abstract class AbstractLazyMAList<E> extends AbstractLazyXList<E> impleme
     protected void raiseModified(ListElementEvent<E> e) throws Throwable {
         Throwable finalThrowable = null;
         try {
-            ListElementListener<E> listElementListener = 
-                (ListElementListener<E>)
+            ListenerDispatcher<ListElementListener<E>> listElementListener = 
+                (ListenerDispatcher<ListElementListener<E>>)
                 e
                 .getAttributeContext(AttributeScope.LOCAL)
                 .removeAttribute(AK_LIST_ELEMENT_LISTENER);
             if (listElementListener != null) {
-                listElementListener.modified(e);
+                listElementListener.dispatchModified(e, ListElementListener::modified);
             }
         } catch (Throwable ex) {
             finalThrowable = ex;
         }
         try {
-            ElementListener<E> elementListener = 
-                (ElementListener<E>)
+            ListenerDispatcher<ElementListener<E>> elementListener = 
+                (ListenerDispatcher<ElementListener<E>>)
                 e
                 .getAttributeContext(AttributeScope.LOCAL)
                 .removeAttribute(AK_ELEMENT_LISTENER);
             if (elementListener != null) {
-                elementListener.modified(e);
+                elementListener.dispatchModified(e, ElementListener::modified);
             }
         } catch (Throwable ex) {
             if (finalThrowable == null) {
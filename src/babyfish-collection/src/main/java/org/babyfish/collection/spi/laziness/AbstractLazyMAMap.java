@@ -40,6 +40,7 @@ import org.babyfish.collection.event.ValuesElementEvent;
 import org.babyfish.collection.event.ValuesElementListener;
 import org.babyfish.collection.event.modification.CollectionModifications;
 import org.babyfish.collection.event.modification.MapModifications;
+import org.babyfish.collection.spi.ListenerDispatcher;
 import org.babyfish.collection.spi.base.EntryEqualityComparator;
 import org.babyfish.collection.spi.base.NoEntryException;
 import org.babyfish.collection.spi.wrapper.event.AbstractElementEventDispatcher;
@@ -74,7 +75,7 @@ public abstract class AbstractLazyMAMap<K, V> extends AbstractLazyXMap<K, V> imp
     
     private static final Object AK_ENTRY_ELEMENT_LISTENER = new Object();
 
-    private transient MapElementListener<K, V> mapElementListener;
+    private transient ListenerDispatcher<MapElementListener<K, V>> mapElementListener;
 
     protected AbstractLazyMAMap(MAMap<K, V> base) {
         super(base);
@@ -112,7 +113,7 @@ public abstract class AbstractLazyMAMap<K, V> extends AbstractLazyXMap<K, V> imp
     @SuppressWarnings("unchecked")
     @Override
     public void addMapElementListener(MapElementListener<? super K, ? super V> listener) {
-        this.mapElementListener = MapElementListener.combine(
+        this.mapElementListener = ListenerDispatcher.combine(
                     this.mapElementListener, 
                     (MapElementListener<K, V>)listener);
     }
@@ -120,7 +121,7 @@ public abstract class AbstractLazyMAMap<K, V> extends AbstractLazyXMap<K, V> imp
     @SuppressWarnings("unchecked")
     @Override
     public void removeMapElementListener(MapElementListener<? super K, ? super V> listener) {
-        this.mapElementListener = MapElementListener.remove(
+        this.mapElementListener = ListenerDispatcher.remove(
                     this.mapElementListener, 
                     (MapElementListener<K, V>)listener);
     }
@@ -219,24 +220,24 @@ public abstract class AbstractLazyMAMap<K, V> extends AbstractLazyXMap<K, V> imp
     }
 
     protected void raiseModifying(MapElementEvent<K, V> e) throws Throwable {
-        MapElementListener<K, V> mapElementListener = this.mapElementListener;
+        ListenerDispatcher<MapElementListener<K, V>> mapElementListener = this.mapElementListener;
         if (mapElementListener != null) {
             e
             .getAttributeContext(AttributeScope.LOCAL)
             .addAttribute(AK_MAP_ELEMENT_LISTENER, mapElementListener);
-            mapElementListener.modifying(e);
+            mapElementListener.dispatchModifying(e, MapElementListener::modifying);
         }
     }
     
     @SuppressWarnings("unchecked")
     protected void raiseModified(MapElementEvent<K, V> e) throws Throwable {
-        MapElementListener<K, V> mapElementListener = 
-            (MapElementListener<K, V>)
+        ListenerDispatcher<MapElementListener<K, V>> mapElementListener = 
+            (ListenerDispatcher<MapElementListener<K, V>>)
             e
             .getAttributeContext(AttributeScope.LOCAL)
             .removeAttribute(AK_MAP_ELEMENT_LISTENER);
         if (mapElementListener != null) {
-            mapElementListener.modified(e);
+            mapElementListener.dispatchModified(e, MapElementListener::modified);
         }
     }
     
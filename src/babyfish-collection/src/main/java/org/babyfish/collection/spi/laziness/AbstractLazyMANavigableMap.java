@@ -110,6 +110,12 @@ public abstract class AbstractLazyMANavigableMap<K, V> extends AbstractLazyMAMap
         return this.<MANavigableMap<K, V>>getBase().higherKey(key);
     }
 
+    @Override
+    public int indexOf(K key) {
+        this.requiredEnabled();
+        return this.<MANavigableMap<K, V>>getBase().indexOf(key);
+    }
+
     @Override
     public MAEntry<K, V> firstEntry() {
         try {
@@ -164,6 +170,16 @@ public abstract class AbstractLazyMANavigableMap<K, V> extends AbstractLazyMAMap
         }
     }
 
+    @Override
+    public MAEntry<K, V> entryAt(int index) {
+        try {
+            return new EntryAtImpl<K, V>(this, index);
+        } catch (NoEntryException ex) {
+            // The index has been validated by the base map
+            throw new AssertionError();
+        }
+    }
+
     @Override
     public MANavigableMapView<K, V> descendingMap() {
         return new DescendingMapImpl<K, V>(this);
@@ -875,6 +891,27 @@ public abstract class AbstractLazyMANavigableMap<K, V> extends AbstractLazyMAMap
         }
     }
     
+    protected static class EntryAtImpl<K, V> extends AbstractEntryImpl<K, V> {
+
+        protected EntryAtImpl(
+                AbstractLazyMANavigableMap<K, V> parentMap,
+                int index) throws NoEntryException {
+            super(parentMap, NavigableMapViewInfos.entryAt(index));
+        }
+
+        @Override
+        protected MAEntry<K, V> createBaseView(
+                MANavigableMap<K, V> baseMap, 
+                ViewInfo viewInfo) {
+            if (viewInfo instanceof NavigableMapViewInfos.EntryAt) {
+                NavigableMapViewInfos.EntryAt entryAtViewInfo =
+                        (NavigableMapViewInfos.EntryAt)viewInfo;
+                return baseMap.entryAt(entryAtViewInfo.getIndex());
+            }
+            throw new IllegalArgumentException(CommonMessages.illegalViewInfo());
+        }
+    }
+    
     protected static abstract class RootData<K, V> extends AbstractLazyMAMap.RootData<K, V> {
 
         private static final long serialVersionUID = -9077203726400698449L;
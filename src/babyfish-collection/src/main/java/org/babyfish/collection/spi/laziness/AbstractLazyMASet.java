@@ -41,6 +41,7 @@ import org.babyfish.collection.event.ElementListener;
 import org.babyfish.collection.event.MapElementEvent;
 import org.babyfish.collection.event.MapElementListener;
 import org.babyfish.collection.event.modification.CollectionModifications;
+import org.babyfish.collection.spi.ListenerDispatcher;
 import org.babyfish.collection.spi.wrapper.event.AbstractElementEventDispatcher;
 import org.babyfish.collection.viewinfo.CollectionViewInfos;
 import org.babyfish.data.ModificationException;
@@ -61,7 +62,7 @@ public abstract class AbstractLazyMASet<E> extends AbstractLazyXSet<E> implement
     
     private static final Object AK_ELEMENT_LISTENER = new Object();
     
-    private transient ElementListener<E> elementListener;
+    private transient ListenerDispatcher<ElementListener<E>> elementListener;
     
     protected AbstractLazyMASet(MASet<E> baseSet) {
         super(baseSet);
@@ -134,7 +135,7 @@ public abstract class AbstractLazyMASet<E> extends AbstractLazyXSet<E> implement
     @SuppressWarnings("unchecked")
     @Override
     public void addElementListener(ElementListener<? super E> listener) {
-        this.elementListener = ElementListener.combine(
+        this.elementListener = ListenerDispatcher.combine(
                     this.elementListener, 
                     (ElementListener<E>)listener);
     }
@@ -142,7 +143,7 @@ public abstract class AbstractLazyMASet<E> extends AbstractLazyXSet<E> implement
     @SuppressWarnings("unchecked")
     @Override
     public void removeElementListener(ElementListener<? super E> listener) {
-        this.elementListener = ElementListener.remove(
+        this.elementListener = ListenerDispatcher.remove(
                     this.elementListener, 
                     (ElementListener<E>)listener);
     }
@@ -208,24 +209,24 @@ public abstract class AbstractLazyMASet<E> extends AbstractLazyXSet<E> implement
     }
 
     protected void raiseModifying(ElementEvent<E> e) throws Throwable {
-        ElementListener<E> elementListener = this.elementListener;
+        ListenerDispatcher<ElementListener<E>> elementListener = this.elementListener;
         if (elementListener != null) {
             e
             .getAttributeContext(AttributeScope.LOCAL)
             .addAttribute(AK_ELEMENT_LISTENER, elementListener);
-            elementListener.modifying(e);
+            elementListener.dispatchModifying(e, ElementListener::modifying);
         }
     }
     
     @SuppressWarnings("unchecked")
     protected void raiseModified(ElementEvent<E> e) throws Throwable {
-        ElementListener<E> elementListener = 
-            (ElementListener<E>)
+        ListenerDispatcher<ElementListener<E>> elementListener = 
+            (ListenerDispatcher<ElementListener<E>>)
             e
             .getAttributeContext(AttributeScope.LOCAL)
             .removeAttribute(AK_ELEMENT_LISTENER);
         if (elementListener != null) {
-            elementListener.modified(e);
+            elementListener.dispatchModified(e, ElementListener::modified);
         }
     }
     
@@ -105,6 +105,12 @@ public abstract class AbstractLazyXNavigableMap<K, V> extends AbstractLazyXMap<K
         return this.<XNavigableMap<K, V>>getBase().higherKey(key);
     }
 
+    @Override
+    public int indexOf(K key) {
+        this.requiredEnabled();
+        return this.<XNavigableMap<K, V>>getBase().indexOf(key);
+    }
+
     @Override
     public XEntry<K, V> firstEntry() {
         try {
@@ -159,6 +165,16 @@ public abstract class AbstractLazyXNavigableMap<K, V> extends AbstractLazyXMap<K
         }
     }
 
+    @Override
+    public XEntry<K, V> entryAt(int index) {
+        try {
+            return new EntryAtImpl<K, V>(this, index);
+        } catch (NoEntryException ex) {
+            // The index has been validated by the base map
+            throw new AssertionError();
+        }
+    }
+
     @Override
     public XNavigableMapView<K, V> descendingMap() {
         return new DescendingMapImpl<K, V>(this);
@@ -883,6 +899,28 @@ public abstract class AbstractLazyXNavigableMap<K, V> extends AbstractLazyXMap<K
         
     }
     
+    protected static class EntryAtImpl<K, V> extends AbstractEntryImpl<K, V> {
+
+        protected EntryAtImpl(
+                AbstractLazyXNavigableMap<K, V> parentMap,
+                int index) throws NoEntryException {
+            super(parentMap, NavigableMapViewInfos.entryAt(index));
+        }
+
+        @Override
+        protected XEntry<K, V> createBaseView(
+                XNavigableMap<K, V> baseMap, 
+                ViewInfo viewInfo) {
+            if (viewInfo instanceof NavigableMapViewInfos.EntryAt) {
+                NavigableMapViewInfos.EntryAt entryAtViewInfo =
+                        (NavigableMapViewInfos.EntryAt)viewInfo;
+                return baseMap.entryAt(entryAtViewInfo.getIndex());
+            }
+            throw new IllegalArgumentException(CommonMessages.illegalViewInfo());
+        }
+        
+    }
+    
     protected static abstract class RootData<K, V> extends AbstractLazyXMap.RootData<K, V> {
         
         private static final long serialVersionUID = 7421888179784582003L;
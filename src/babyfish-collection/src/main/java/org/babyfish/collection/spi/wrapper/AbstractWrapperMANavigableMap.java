@@ -107,6 +107,12 @@ implements MANavigableMap<K, V> {
         return this.<MANavigableMap<K, V>>getBase().higherKey(key);
     }
 
+    @Override
+    public int indexOf(K key) {
+        this.requiredEnabled();
+        return this.<MANavigableMap<K, V>>getBase().indexOf(key);
+    }
+
     @Override
     public MAEntry<K, V> firstEntry() {
         try {
@@ -161,6 +167,16 @@ implements MANavigableMap<K, V> {
         }
     }
 
+    @Override
+    public MAEntry<K, V> entryAt(int index) {
+        try {
+            return new EntryAtImpl<K, V>(this, index);
+        } catch (NoEntryException ex) {
+            // The index has been validated by the base map
+            throw new AssertionError();
+        }
+    }
+
     @Override
     public MANavigableMapView<K, V> descendingMap() {
         return new DescendingMapImpl<K, V>(this);
@@ -880,6 +896,28 @@ implements MANavigableMap<K, V> {
         
     }
     
+    protected static class EntryAtImpl<K, V> extends AbstractEntryImpl<K, V> {
+
+        protected EntryAtImpl(
+                AbstractWrapperMANavigableMap<K, V> parentMap,
+                int index) throws NoEntryException {
+            super(parentMap, NavigableMapViewInfos.entryAt(index));
+        }
+
+        @Override
+        protected MAEntry<K, V> createBaseView(
+                MANavigableMap<K, V> baseMap, 
+                ViewInfo viewInfo) {
+            if (viewInfo instanceof NavigableMapViewInfos.EntryAt) {
+                NavigableMapViewInfos.EntryAt entryAtViewInfo =
+                        (NavigableMapViewInfos.EntryAt)viewInfo;
+                return baseMap.entryAt(entryAtViewInfo.getIndex());
+            }
+            throw new IllegalArgumentException(CommonMessages.illegalViewInfo());
+        }
+        
+    }
+    
     protected static class RootData<K, V> extends AbstractWrapperMAMap.RootData<K, V> {
 
         private static final long serialVersionUID = -3555431862619153930L;
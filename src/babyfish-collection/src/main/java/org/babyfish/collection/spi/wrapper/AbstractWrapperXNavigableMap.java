@@ -107,6 +107,12 @@ implements XNavigableMap<K, V> {
         return this.<XNavigableMap<K, V>>getBase().higherKey(key);
     }
 
+    @Override
+    public int indexOf(K key) {
+        this.requiredEnabled();
+        return this.<XNavigableMap<K, V>>getBase().indexOf(key);
+    }
+
     @Override
     public XEntry<K, V> firstEntry() {
         try {
@@ -161,6 +167,16 @@ implements XNavigableMap<K, V> {
         }
     }
 
+    @Override
+    public XEntry<K, V> entryAt(int index) {
+        try {
+            return new EntryAtImpl<K, V>(this, index);
+        } catch (NoEntryException ex) {
+            // The index has been validated by the base map
+            throw new AssertionError();
+        }
+    }
+
     @Override
     public XNavigableMapView<K, V> descendingMap() {
         return new DescendingMapImpl<K, V>(this);
@@ -883,6 +899,28 @@ implements XNavigableMap<K, V> {
         
     }
     
+    protected static class EntryAtImpl<K, V> extends AbstractEntryImpl<K, V> {
+
+        protected EntryAtImpl(
+                AbstractWrapperXNavigableMap<K, V> parentMap,
+                int index) throws NoEntryException {
+            super(parentMap, NavigableMapViewInfos.entryAt(index));
+        }
+
+        @Override
+        protected XEntry<K, V> createBaseView(
+                XNavigableMap<K, V> baseMap, 
+                ViewInfo viewInfo) {
+            if (viewInfo instanceof NavigableMapViewInfos.EntryAt) {
+                NavigableMapViewInfos.EntryAt entryAtViewInfo =
+                        (NavigableMapViewInfos.EntryAt)viewInfo;
+                return baseMap.entryAt(entryAtViewInfo.getIndex());
+            }
+            throw new IllegalArgumentException(CommonMessages.illegalViewInfo());
+        }
+        
+    }
+    
     protected static class RootData<K, V> extends AbstractWrapperXMap.RootData<K, V> {
 
         private static final long serialVersionUID = -2689312190744395740L;
@@ -78,6 +78,10 @@ public class NavigableMapViewInfos extends SortedMapViewInfos {
         return new HigherEntry(key);
     }
     
+    public static EntryAt entryAt(int index) {
+        return new EntryAt(index);
+    }
+    
     public static class HeadMap extends SortedMapViewInfos.HeadMap {
        
         private static final long serialVersionUID = 6076735429810170204L;
@@ -395,6 +399,43 @@ public class NavigableMapViewInfos extends SortedMapViewInfos {
         }
     }
     
+    public static class EntryAt extends AbstractViewInfo {
+        
+        private static final long serialVersionUID = -8800117129461420923L;
+        
+        private int index;
+        
+        EntryAt(int index) {
+            this.index = index;
+        }
+        
+        public int getIndex() {
+            return this.index;
+        }
+        
+        @Override
+        public int hashCode() {
+            return this.index;
+        }
+        
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (obj == null || this.getClass() != obj.getClass()) {
+                return false;
+            }
+            EntryAt other = (EntryAt)obj;
+            return this.index == other.index;
+        }
+        
+        @Override
+        protected void appendTo(Appender appender) {
+            appender.property("index", this.index);
+        }
+    }
+    
     @Deprecated
     protected NavigableMapViewInfos() {}
 }
@@ -0,0 +1,262 @@
+/*
+ * BabyFish, Object Model Framework for Java and JPA.
+ * https://github.com/babyfish-ct/babyfish
+ *
+ * Copyright (c) 2008-2016, Tao Chen
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * Please visit "http://opensource.org/licenses/LGPL-3.0" to know more.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ */
+package org.babyfish.test.collection;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.babyfish.collection.MAArrayList;
+import org.babyfish.collection.MAHashMap;
+import org.babyfish.collection.MAList;
+import org.babyfish.collection.MAMap;
+import org.babyfish.collection.event.AsyncListenerOptions;
+import org.babyfish.collection.event.AsyncListenerOptions.BackPressure;
+import org.babyfish.collection.event.ElementEvent;
+import org.babyfish.collection.event.ElementListener;
+import org.babyfish.collection.event.MapElementEvent;
+import org.babyfish.collection.event.MapElementListener;
+import org.babyfish.data.ModificationException;
+import org.babyfish.data.event.AttributeScope;
+import org.babyfish.data.event.PropertyVersion;
+import org.junit.Test;
+
+import junit.framework.Assert;
+
+/**
+ * @author Tao Chen
+ */
+public class AsyncListenerTest {
+
+    @Test
+    public void testOrder() throws InterruptedException {
+        ExecutorService executor = Executors.newCachedThreadPool();
+        try {
+            List<String> logs = Collections.synchronizedList(new ArrayList<>());
+            CountDownLatch latch = new CountDownLatch(1000);
+            Thread mutatingThread = Thread.currentThread();
+            MAMap<Integer, String> map = new MAHashMap<>();
+            map.addMapElementListener(new MapElementListener<Integer, String>() {
+                @Override
+                public void modifying(MapElementEvent<Integer, String> e) {
+                    Assert.fail();
+                }
+                @Override
+                public void modified(MapElementEvent<Integer, String> e) {
+                    Assert.assertNotSame(mutatingThread, Thread.currentThread());
+                    logs.add(e.getKey(PropertyVersion.ATTACH) + "=" + e.getValue(PropertyVersion.ATTACH));
+                    latch.countDown();
+                }
+            }, executor);
+            List<String> expected = new ArrayList<>();
+            for (int i = 0; i < 1000; i++) {
+                map.put(i, "V" + i);
+                expected.add(i + "=V" + i);
+            }
+            Assert.assertTrue(latch.await(10, TimeUnit.SECONDS));
+            Assert.assertEquals(expected, logs);
+        } finally {
+            executor.shutdown();
+        }
+    }
+    
+    @Test
+    public void testRemove() throws InterruptedException {
+        List<String> logs = Collections.synchronizedList(new ArrayList<>());
+        ElementListener<String> listener = new ElementListener<String>() {
+            @Override
+            public void modified(ElementEvent<String> e) {
+                logs.add(e.getElement(PropertyVersion.ATTACH));
+            }
+        };
+        MAList<String> list = new MAArrayList<>();
+        list.addElementListener(listener, Runnable::run);
+        list.add("a");
+        list.removeElementListener(listener);
+        list.add("b");
+        Assert.assertEquals(Collections.singletonList("a"), logs);
+    }
+    
+    @Test
+    public void testBackPressure() throws InterruptedException {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            CountDownLatch started = new CountDownLatch(1);
+            CountDownLatch blocker = new CountDownLatch(1);
+            List<String> logs = Collections.synchronizedList(new ArrayList<>());
+            List<Throwable> exceptions = Collections.synchronizedList(new ArrayList<>());
+            MAList<String> list = new MAArrayList<>();
+            list.addElementListener(new ElementListener<String>() {
+                @Override
+                public void modified(ElementEvent<String> e) throws InterruptedException {
+                    started.countDown();
+                    blocker.await();
+                    logs.add(e.getElement(PropertyVersion.ATTACH));
+                    if (e.getElement(PropertyVersion.ATTACH).equals("b")) {
+                        throw new IllegalStateException();
+                    }
+                }
+            }, new AsyncListenerOptions(executor, 1, BackPressure.FAIL, exceptions::add));
+            list.add("a");
+            // Wait until "a" is taken from the queue
+            Assert.assertTrue(started.await(10, TimeUnit.SECONDS));
+            list.add("b");
+            try {
+                list.add("c");
+                Assert.fail();
+            } catch (ModificationException ex) {
+                Assert.assertTrue(ex.getCause() instanceof RejectedExecutionException);
+            }
+            Assert.assertEquals(3, list.size());
+            blocker.countDown();
+            executor.shutdown();
+            Assert.assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+            Assert.assertEquals(2, logs.size());
+            Assert.assertEquals("a", logs.get(0));
+            Assert.assertEquals("b", logs.get(1));
+            Assert.assertEquals(1, exceptions.size());
+            Assert.assertTrue(exceptions.get(0) instanceof IllegalStateException);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+    
+    @Test
+    public void testCallerRuns() {
+        List<String> logs = new ArrayList<>();
+        List<Runnable> tasks = new ArrayList<>();
+        MAList<String> list = new MAArrayList<>();
+        list.addElementListener(new ElementListener<String>() {
+            @Override
+            public void modified(ElementEvent<String> e) {
+                logs.add(e.getElement(PropertyVersion.ATTACH));
+            }
+        }, new AsyncListenerOptions(tasks::add, 2, BackPressure.CALLER_RUNS));
+        list.add("a");
+        list.add("b");
+        list.add("c");
+        Assert.assertEquals(Collections.singletonList("c"), logs);
+        Assert.assertEquals(1, tasks.size());
+        tasks.get(0).run();
+        Assert.assertEquals(3, logs.size());
+        Assert.assertEquals("a", logs.get(1));
+        Assert.assertEquals("b", logs.get(2));
+    }
+    
+    @Test
+    public void testSnapshot() {
+        Object key = new Object();
+        List<Runnable> tasks = new ArrayList<>();
+        List<MapElementEvent<String, Integer>> events = new ArrayList<>();
+        List<MapElementEvent<String, Integer>> asyncEvents = new ArrayList<>();
+        MAMap<String, Integer> map = new MAHashMap<>();
+        map.addMapElementListener(new MapElementListener<String, Integer>() {
+            @Override
+            public void modified(MapElementEvent<String, Integer> e) {
+                asyncEvents.add(e);
+            }
+        }, tasks::add);
+        map.addMapElementListener(new MapElementListener<String, Integer>() {
+            @Override
+            public void modified(MapElementEvent<String, Integer> e) {
+                // Changed by the modifying thread after the event is enqueued
+                e.getAttributeContext(AttributeScope.GLOBAL).addAttribute(key, "late");
+                events.add(e);
+            }
+        });
+        map.put("a", 1);
+        map.put("a", 2);
+        Assert.assertEquals(1, tasks.size());
+        tasks.get(0).run();
+        Assert.assertEquals(2, asyncEvents.size());
+        for (int i = 0; i < 2; i++) {
+            MapElementEvent<String, Integer> e = events.get(i);
+            MapElementEvent<String, Integer> asyncEvent = asyncEvents.get(i);
+            Assert.assertNotSame(e, asyncEvent);
+            Assert.assertSame(map, asyncEvent.getSource());
+            Assert.assertEquals(e.getModificationType(), asyncEvent.getModificationType());
+            Assert.assertEquals(e.getEventType(), asyncEvent.getEventType());
+            Assert.assertNull(asyncEvent.getModification());
+            Assert.assertNull(asyncEvent.getFinalModification());
+            Assert.assertEquals(e.getKey(PropertyVersion.DETACH), asyncEvent.getKey(PropertyVersion.DETACH));
+            Assert.assertEquals(e.getKey(PropertyVersion.ATTACH), asyncEvent.getKey(PropertyVersion.ATTACH));
+            Assert.assertEquals(e.getValue(PropertyVersion.DETACH), asyncEvent.getValue(PropertyVersion.DETACH));
+            Assert.assertEquals(e.getValue(PropertyVersion.ATTACH), asyncEvent.getValue(PropertyVersion.ATTACH));
+            Assert.assertTrue(asyncEvent.isModificationSuccessed());
+            Assert.assertNull(asyncEvent.getModificationThrowable());
+            Assert.assertTrue(e.getAttributeContext(AttributeScope.GLOBAL).hasAttribute(key));
+            Assert.assertFalse(asyncEvent.getAttributeContext(AttributeScope.GLOBAL).hasAttribute(key));
+        }
+        Assert.assertEquals(Integer.valueOf(1), asyncEvents.get(1).getValue(PropertyVersion.DETACH));
+        Assert.assertEquals(Integer.valueOf(2), asyncEvents.get(1).getValue(PropertyVersion.ATTACH));
+    }
+    
+    @Test
+    public void testSourceMapOfPutAllChangedBeforeDelivery() {
+        List<Runnable> tasks = new ArrayList<>();
+        List<String> logs = new ArrayList<>();
+        MAMap<String, Integer> map = new MAHashMap<>();
+        map.addMapElementListener(new MapElementListener<String, Integer>() {
+            @Override
+            public void modified(MapElementEvent<String, Integer> e) {
+                Assert.assertNull(e.getModification());
+                Assert.assertNull(e.getFinalModification());
+                logs.add(e.getKey(PropertyVersion.ATTACH) + "=" + e.getValue(PropertyVersion.ATTACH));
+            }
+        }, tasks::add);
+        Map<String, Integer> source = new HashMap<>();
+        source.put("a", 1);
+        map.putAll(source);
+        source.put("a", 2);
+        source.put("b", 3);
+        Assert.assertEquals(1, tasks.size());
+        tasks.get(0).run();
+        Assert.assertEquals(Collections.singletonList("a=1"), logs);
+    }
+    
+    @Test
+    public void testDefaultBackPressureNeverBlocks() {
+        Thread mutatingThread = Thread.currentThread();
+        List<Runnable> tasks = new ArrayList<>();
+        List<String> logs = new ArrayList<>();
+        MAList<String> list = new MAArrayList<>();
+        list.addElementListener(new ElementListener<String>() {
+            @Override
+            public void modified(ElementEvent<String> e) {
+                Assert.assertSame(mutatingThread, Thread.currentThread());
+                logs.add(e.getElement(PropertyVersion.ATTACH));
+            }
+        }, tasks::add);
+        // The submitted drain task is never executed, so the queue becomes full
+        for (int i = 0; i <= AsyncListenerOptions.DEFAULT_QUEUE_CAPACITY; i++) {
+            list.add("E" + i);
+        }
+        Assert.assertEquals(1, tasks.size());
+        Assert.assertEquals(
+                Collections.singletonList("E" + AsyncListenerOptions.DEFAULT_QUEUE_CAPACITY), 
+                logs
+        );
+    }
+}
@@ -0,0 +1,227 @@
+/*
+ * BabyFish, Object Model Framework for Java and JPA.
+ * https://github.com/babyfish-ct/babyfish
+ *
+ * Copyright (c) 2008-2016, Tao Chen
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * Please visit "http://opensource.org/licenses/LGPL-3.0" to know more.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ */
+package org.babyfish.test.collection;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.NavigableMap;
+import java.util.Random;
+
+import org.babyfish.collection.BidiType;
+import org.babyfish.collection.MATreeSet;
+import org.babyfish.collection.ReplacementRule;
+import org.babyfish.collection.TreeMap;
+import org.babyfish.collection.TreeSet;
+import org.babyfish.collection.TreeStorage;
+import org.babyfish.collection.UnifiedComparator;
+import org.babyfish.collection.XNavigableMap;
+import org.babyfish.collection.XNavigableSet;
+import org.babyfish.collection.event.ElementEvent;
+import org.babyfish.collection.event.ElementListener;
+import org.babyfish.data.event.PropertyVersion;
+import org.babyfish.test.collection.FrozenContextTest.Element;
+import org.junit.Test;
+
+import junit.framework.Assert;
+
+/**
+ * @author Tao Chen
+ */
+public class BTreeEntriesTest {
+
+    @Test
+    public void testCompareWithTreeMap() {
+        NavigableMap<Integer, String> expected = new java.util.TreeMap<>();
+        XNavigableMap<Integer, String> map = new TreeMap<>(TreeStorage.B_TREE);
+        Random random = new Random(31);
+        for (int i = 0; i < 50000; i++) {
+            int key = random.nextInt(10000);
+            if (i % 3 == 0) {
+                Assert.assertEquals(expected.remove(key), map.remove(key));
+            } else {
+                String value = "v" + key + "-" + i;
+                Assert.assertEquals(expected.put(key, value), map.put(key, value));
+            }
+            if (i % 5000 == 0) {
+                assertMap(expected, map);
+            }
+        }
+        assertMap(expected, map);
+        assertMap(expected.descendingMap(), map.descendingMap());
+        assertMap(expected.headMap(3700, true), map.headMap(3700, true));
+        assertMap(expected.subMap(1000, true, 8000, false), map.subMap(1000, true, 8000, false));
+        assertMap(
+                expected.subMap(1000, false, 8000, true).descendingMap(), 
+                map.subMap(1000, false, 8000, true).descendingMap());
+        for (int key = -1; key <= 10001; key += 7) {
+            Assert.assertEquals(key(expected.floorEntry(key)), key(map.floorEntry(key)));
+            Assert.assertEquals(key(expected.ceilingEntry(key)), key(map.ceilingEntry(key)));
+            Assert.assertEquals(key(expected.lowerEntry(key)), key(map.lowerEntry(key)));
+            Assert.assertEquals(key(expected.higherEntry(key)), key(map.higherEntry(key)));
+        }
+        
+        int index = 0;
+        for (Integer key : expected.keySet()) {
+            Assert.assertEquals(key, map.entryAt(index).getKey());
+            Assert.assertEquals(index, map.indexOf(key));
+            index++;
+        }
+        
+        expected.subMap(2000, 7000).clear();
+        map.subMap(2000, 7000).clear();
+        assertMap(expected, map);
+        
+        while (!expected.isEmpty()) {
+            Assert.assertEquals(key(expected.pollFirstEntry()), key(map.pollFirstEntry()));
+            Assert.assertEquals(key(expected.pollLastEntry()), key(map.pollLastEntry()));
+        }
+        Assert.assertTrue(map.isEmpty());
+        Assert.assertNull(map.firstEntry());
+    }
+    
+    @Test
+    public void testIteratorRemove() {
+        XNavigableMap<Integer, String> map = new TreeMap<>(TreeStorage.B_TREE);
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            map.put(i, "v" + i);
+            if (i % 4 != 0) {
+                expected.add(i);
+            }
+        }
+        Iterator<Integer> itr = map.keySet().iterator();
+        while (itr.hasNext()) {
+            if (itr.next() % 4 == 0) {
+                itr.remove();
+            }
+        }
+        Assert.assertEquals(expected, new ArrayList<>(map.keySet()));
+        
+        itr = map.descendingMap().keySet().iterator();
+        while (itr.hasNext()) {
+            itr.next();
+            itr.remove();
+        }
+        Assert.assertTrue(map.isEmpty());
+    }
+    
+    @Test
+    public void testFrozenKeys() {
+        XNavigableSet<Element> set = new TreeSet<Element>(
+                TreeStorage.B_TREE, ReplacementRule.NEW_REFERENCE_WIN, Element.CODE_COMPARATOR);
+        List<Element> elements = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            Element element = new Element(String.format("%04d", i), "E" + i);
+            elements.add(element);
+            set.add(element);
+        }
+        for (int i = 0; i < 1000; i += 2) {
+            elements.get(i).setCode(String.format("%04d", 1000 + i));
+        }
+        Assert.assertEquals(1000, set.size());
+        String prev = "";
+        for (Element element : set) {
+            Assert.assertTrue(prev.compareTo(element.getCode()) < 0);
+            prev = element.getCode();
+        }
+        Assert.assertEquals("1998", set.last().getCode());
+        
+        XNavigableMap<Element, Object> map = new TreeMap<Element, Object>(
+                TreeStorage.B_TREE,
+                BidiType.NONE,
+                ReplacementRule.NEW_REFERENCE_WIN,
+                Element.CODE_COMPARATOR, 
+                UnifiedComparator.empty());
+        Element one = new Element("1", "One");
+        Element two = new Element("2", "Two");
+        map.put(one, null);
+        map.put(two, null);
+        one.setCode("2");
+        Assert.assertEquals(1, map.size());
+        Assert.assertSame(one, map.firstKey());
+    }
+    
+    @Test
+    public void testMATreeSet() {
+        MATreeSet<String> set = new MATreeSet.Builder<String>().setStorage(TreeStorage.B_TREE).build();
+        List<String> removed = new ArrayList<>();
+        set.addElementListener(
+                new ElementListener<String>() {
+                    @Override
+                    public void modified(ElementEvent<String> e) throws Throwable {
+                        if (e.getModificationType().contains(PropertyVersion.DETACH)) {
+                            removed.add(e.getElement(PropertyVersion.DETACH));
+                        }
+                    }
+                });
+        for (int i = 0; i < 200; i++) {
+            set.add("s" + (1000 + i));
+        }
+        set.headSet("s1100").clear();
+        Assert.assertEquals(100, removed.size());
+        Assert.assertEquals("s1100", set.first());
+        Assert.assertEquals("s1199", set.last());
+    }
+    
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testSerialization() throws IOException, ClassNotFoundException {
+        TreeMap<Integer, String> map = new TreeMap<>(TreeStorage.B_TREE);
+        for (int i = 0; i < 3000; i++) {
+            map.put(i * 3, "v" + i);
+        }
+        ByteArrayOutputStream bout = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bout)) {
+            out.writeObject(map);
+        }
+        TreeMap<Integer, String> clone;
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bout.toByteArray()))) {
+            clone = (TreeMap<Integer, String>)in.readObject();
+        }
+        Assert.assertEquals(map, clone);
+        Assert.assertEquals(1500, clone.indexOf(4500));
+        clone.put(1, "one");
+        Assert.assertEquals(Integer.valueOf(1), clone.higherKey(0));
+    }
+    
+    private static void assertMap(NavigableMap<Integer, String> expected, NavigableMap<Integer, String> map) {
+        Assert.assertEquals(expected.size(), map.size());
+        Iterator<Entry<Integer, String>> itr = map.entrySet().iterator();
+        for (Entry<Integer, String> e : expected.entrySet()) {
+            Entry<Integer, String> a = itr.next();
+            Assert.assertEquals(e.getKey(), a.getKey());
+            Assert.assertEquals(e.getValue(), a.getValue());
+        }
+        Assert.assertFalse(itr.hasNext());
+        if (!expected.isEmpty()) {
+            Assert.assertEquals(expected.firstKey(), map.firstKey());
+            Assert.assertEquals(expected.lastKey(), map.lastKey());
+        }
+    }
+    
+    private static Integer key(Entry<Integer, ?> e) {
+        return e == null ? null : e.getKey();
+    }
+}
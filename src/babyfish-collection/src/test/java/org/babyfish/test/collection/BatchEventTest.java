@@ -0,0 +1,318 @@
+/*
+ * BabyFish, Object Model Framework for Java and JPA.
+ * https://github.com/babyfish-ct/babyfish
+ *
+ * Copyright (c) 2008-2016, Tao Chen
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * Please visit "http://opensource.org/licenses/LGPL-3.0" to know more.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ */
+package org.babyfish.test.collection;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.babyfish.collection.MAHashMap;
+import org.babyfish.collection.MAHashSet;
+import org.babyfish.collection.MATreeMap;
+import org.babyfish.collection.MATreeSet;
+import org.babyfish.collection.event.ElementBatchEvent;
+import org.babyfish.collection.event.ElementBatchListener;
+import org.babyfish.collection.event.ElementEvent;
+import org.babyfish.collection.event.ElementListener;
+import org.babyfish.collection.event.MapElementBatchEvent;
+import org.babyfish.collection.event.MapElementBatchListener;
+import org.babyfish.collection.event.MapElementEvent;
+import org.babyfish.collection.event.MapElementListener;
+import org.babyfish.data.ModificationException;
+import org.babyfish.data.event.ModificationType;
+import org.babyfish.data.event.PropertyVersion;
+import org.junit.Test;
+
+import junit.framework.Assert;
+
+/**
+ * @author Tao Chen
+ */
+public class BatchEventTest {
+
+    @Test
+    public void testPutAll() {
+        MAHashMap<String, Integer> map = new MAHashMap<>();
+        map.put("a", 1);
+        MapRecorder recorder = new MapRecorder();
+        map.addMapElementBatchListener(recorder);
+        java.util.Map<String, Integer> m = new java.util.LinkedHashMap<>();
+        m.put("a", 10);
+        m.put("b", 2);
+        m.put("c", 3);
+        map.putAll(m);
+        Assert.assertEquals(
+                Arrays.asList(
+                        "modifying:REPLACE[a=1->a=10, +b=2, +c=3]", 
+                        "modified:REPLACE[a=1->a=10, +b=2, +c=3]"), 
+                recorder.logs);
+    }
+    
+    @Test
+    public void testClear() {
+        MAHashMap<String, Integer> map = new MAHashMap<>();
+        map.put("a", 1);
+        map.put("b", 2);
+        MapRecorder recorder = new MapRecorder();
+        map.addMapElementBatchListener(recorder);
+        map.clear();
+        Assert.assertEquals(2, recorder.logs.size());
+        Assert.assertTrue(recorder.logs.get(0).startsWith("modifying:DETACH["));
+        Assert.assertTrue(recorder.logs.get(1).startsWith("modified:DETACH["));
+        Assert.assertTrue(recorder.logs.get(1).contains("-a=1"));
+        Assert.assertTrue(recorder.logs.get(1).contains("-b=2"));
+        
+        recorder.logs.clear();
+        map.clear();
+        Assert.assertTrue(recorder.logs.isEmpty());
+    }
+    
+    @Test
+    public void testSingleModification() {
+        MAHashMap<String, Integer> map = new MAHashMap<>();
+        MapRecorder recorder = new MapRecorder();
+        map.addMapElementBatchListener(recorder);
+        map.put("a", 1);
+        map.remove("a");
+        Assert.assertEquals(
+                Arrays.asList(
+                        "modifying:ATTACH[+a=1]", 
+                        "modified:ATTACH[+a=1]",
+                        "modifying:DETACH[-a=1]", 
+                        "modified:DETACH[-a=1]"), 
+                recorder.logs);
+    }
+    
+    @Test
+    public void testViews() {
+        MATreeMap<String, Integer> map = new MATreeMap<>();
+        map.put("a", 1);
+        map.put("b", 2);
+        map.put("c", 3);
+        map.put("d", 4);
+        MapRecorder recorder = new MapRecorder();
+        map.addMapElementBatchListener(recorder);
+        
+        map.keySet().removeAll(Arrays.asList("a", "x"));
+        map.values().retainAll(Arrays.asList(2, 4));
+        map.headMap("c").clear();
+        java.util.Iterator<?> itr = map.entrySet().iterator();
+        itr.next();
+        itr.remove();
+        Assert.assertEquals(
+                Arrays.asList(
+                        "modifying:DETACH[-a=1]", 
+                        "modified:DETACH[-a=1]",
+                        "modifying:DETACH[-c=3]", 
+                        "modified:DETACH[-c=3]",
+                        "modifying:DETACH[-b=2]", 
+                        "modified:DETACH[-b=2]",
+                        "modifying:DETACH[-d=4]", 
+                        "modified:DETACH[-d=4]"), 
+                recorder.logs);
+        Assert.assertTrue(map.isEmpty());
+    }
+    
+    @Test
+    public void testSet() {
+        MATreeSet<Integer> set = new MATreeSet<>();
+        set.addAll(Arrays.asList(1, 2, 3, 4, 5));
+        final List<String> logs = new ArrayList<>();
+        set.addElementBatchListener(new ElementBatchListener<Integer>() {
+            @Override
+            public void modified(ElementBatchEvent<Integer> e) {
+                StringBuilder builder = new StringBuilder();
+                builder.append(e.getModificationType()).append(e.size()).append(':');
+                for (int i = 0; i < e.size(); i++) {
+                    Assert.assertEquals(ModificationType.DETACH, e.getModificationType(i));
+                    builder.append(e.getElement(i, PropertyVersion.DETACH));
+                }
+                logs.add(builder.toString());
+            }
+        });
+        set.subSet(2, 5).removeAll(Arrays.asList(1, 2, 4));
+        set.descendingSet().headSet(3).clear();
+        java.util.Iterator<Integer> itr = set.iterator();
+        itr.next();
+        itr.remove();
+        Assert.assertEquals(Arrays.asList("DETACH2:24", "DETACH1:5", "DETACH1:1"), logs);
+        Assert.assertEquals(Arrays.asList(3), new ArrayList<>(set));
+    }
+    
+    @Test
+    public void testMixedSetModifications() {
+        MAHashSet<String> set = new MAHashSet<>();
+        set.add("a");
+        final List<String> logs = new ArrayList<>();
+        set.addElementBatchListener(new ElementBatchListener<String>() {
+            @Override
+            public void modified(ElementBatchEvent<String> e) {
+                StringBuilder builder = new StringBuilder();
+                builder.append(e.getModificationType()).append(':');
+                for (int i = 0; i < e.size(); i++) {
+                    builder.append(e.getModificationType(i).name().charAt(0));
+                }
+                logs.add(builder.toString());
+            }
+        });
+        set.addAll(Arrays.asList("a", "b", "c"));
+        set.addAll(Arrays.asList("d", "e"));
+        Assert.assertEquals(Arrays.asList("REPLACE:RAA", "ATTACH:AA"), logs);
+    }
+    
+    @Test
+    public void testBatchListenerCancelsModification() {
+        MAHashMap<String, Integer> map = new MAHashMap<>();
+        map.put("a", 1);
+        final List<String> logs = new ArrayList<>();
+        map.addMapElementListener(new MapElementListener<String, Integer>() {
+            @Override
+            public void modified(MapElementEvent<String, Integer> e) {
+                logs.add(e.isModificationSuccessed() ? "success" : "failure");
+            }
+        });
+        map.addMapElementBatchListener(new MapElementBatchListener<String, Integer>() {
+            @Override
+            public void modifying(MapElementBatchEvent<String, Integer> e) {
+                if (e.size() > 1) {
+                    throw new IllegalStateException();
+                }
+            }
+            @Override
+            public void modified(MapElementBatchEvent<String, Integer> e) {
+                logs.add("batch:" + (e.isModificationSuccessed() ? "success" : "failure"));
+            }
+        });
+        java.util.Map<String, Integer> m = new java.util.LinkedHashMap<>();
+        m.put("b", 2);
+        m.put("c", 3);
+        try {
+            map.putAll(m);
+            Assert.fail();
+        } catch (ModificationException ex) {
+            Assert.assertTrue(ex.getCause() instanceof IllegalStateException);
+        }
+        Assert.assertEquals(1, map.size());
+        Assert.assertEquals(Arrays.asList("failure", "failure", "batch:failure"), logs);
+        
+        logs.clear();
+        map.put("b", 2);
+        Assert.assertEquals(Arrays.asList("success", "batch:success"), logs);
+    }
+    
+    @Test
+    public void testElementHandlersWithBatchListener() {
+        final List<String> logs = new ArrayList<>();
+        MAHashMap<String, Integer> map = new MAHashMap<String, Integer>() {
+            private static final long serialVersionUID = 1L;
+            @Override
+            protected void onModified(MapElementEvent<String, Integer> e) throws Throwable {
+                logs.add("element:" + e.getKey(PropertyVersion.ATTACH));
+            }
+        };
+        MapRecorder recorder = new MapRecorder();
+        map.addMapElementBatchListener(recorder);
+        java.util.Map<String, Integer> m = new java.util.LinkedHashMap<>();
+        m.put("a", 1);
+        m.put("b", 2);
+        map.putAll(m);
+        Assert.assertEquals(Arrays.asList("element:a", "element:b"), logs);
+        Assert.assertEquals(
+                Arrays.asList(
+                        "modifying:ATTACH[+a=1, +b=2]", 
+                        "modified:ATTACH[+a=1, +b=2]"), 
+                recorder.logs);
+    }
+    
+    @Test
+    public void testOverriddenBatchHandler() {
+        final List<String> logs = new ArrayList<>();
+        MAHashSet<String> set = new MAHashSet<String>() {
+            private static final long serialVersionUID = 1L;
+            @Override
+            protected void onBatchModified(ElementBatchEvent<String> e) throws Throwable {
+                logs.add("batch" + e.size());
+            }
+        };
+        set.addAll(Arrays.asList("a", "b", "c"));
+        Assert.assertEquals(Arrays.asList("batch3"), logs);
+        
+        set.addElementListener(new ElementListener<String>() {
+            @Override
+            public void modified(ElementEvent<String> e) {
+                logs.add("element:" + e.getElement(PropertyVersion.DETACH));
+            }
+        });
+        logs.clear();
+        set.removeAll(Arrays.asList("a", "c"));
+        Assert.assertEquals(Arrays.asList("element:a", "element:c", "batch2"), logs);
+    }
+    
+    private static class MapRecorder implements MapElementBatchListener<String, Integer> {
+        
+        List<String> logs = new ArrayList<>();
+
+        @Override
+        public void modifying(MapElementBatchEvent<String, Integer> e) {
+            this.logs.add("modifying:" + toString(e));
+        }
+
+        @Override
+        public void modified(MapElementBatchEvent<String, Integer> e) {
+            Assert.assertTrue(e.isModificationSuccessed());
+            this.logs.add("modified:" + toString(e));
+        }
+        
+        private static String toString(MapElementBatchEvent<String, Integer> e) {
+            StringBuilder builder = new StringBuilder();
+            builder.append(e.getModificationType()).append('[');
+            for (int i = 0; i < e.size(); i++) {
+                if (i != 0) {
+                    builder.append(", ");
+                }
+                switch (e.getModificationType(i)) {
+                case ATTACH:
+                    builder
+                    .append('+')
+                    .append(e.getKey(i, PropertyVersion.ATTACH))
+                    .append('=')
+                    .append(e.getValue(i, PropertyVersion.ATTACH));
+                    break;
+                case DETACH:
+                    builder
+                    .append('-')
+                    .append(e.getKey(i, PropertyVersion.DETACH))
+                    .append('=')
+                    .append(e.getValue(i, PropertyVersion.DETACH));
+                    break;
+                default:
+                    builder
+                    .append(e.getKey(i, PropertyVersion.DETACH))
+                    .append('=')
+                    .append(e.getValue(i, PropertyVersion.DETACH))
+                    .append("->")
+                    .append(e.getKey(i, PropertyVersion.ATTACH))
+                    .append('=')
+                    .append(e.getValue(i, PropertyVersion.ATTACH));
+                    break;
+                }
+            }
+            return builder.append(']').toString();
+        }
+    }
+}
@@ -0,0 +1,317 @@
+/*
+ * BabyFish, Object Model Framework for Java and JPA.
+ * https://github.com/babyfish-ct/babyfish
+ *
+ * Copyright (c) 2008-2016, Tao Chen
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * Please visit "http://opensource.org/licenses/LGPL-3.0" to know more.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ */
+package org.babyfish.test.collection;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.babyfish.collection.ConcurrentMAHashMap;
+import org.babyfish.collection.event.MapElementEvent;
+import org.babyfish.collection.event.MapElementListener;
+import org.babyfish.data.event.PropertyVersion;
+import org.babyfish.test.collection.bidi.Unstable;
+import org.junit.Test;
+
+import junit.framework.Assert;
+
+/**
+ * @author Tao Chen
+ */
+public class ConcurrentMAHashMapTest {
+
+    @Test
+    public void testBasicOperations() {
+        ConcurrentMAHashMap<String, Integer> map = new ConcurrentMAHashMap<>(4);
+        Assert.assertEquals(4, map.segmentCount());
+        Assert.assertTrue(map.isEmpty());
+        for (int i = 0; i < 100; i++) {
+            Assert.assertNull(map.put("k" + i, i));
+        }
+        Assert.assertEquals(100, map.size());
+        Assert.assertEquals((Integer)7, map.get("k7"));
+        Assert.assertTrue(map.containsKey("k99"));
+        Assert.assertFalse(map.containsKey("k100"));
+        Assert.assertTrue(map.containsValue(50));
+        Assert.assertEquals((Integer)1, map.putIfAbsent("k1", -1));
+        Assert.assertNull(map.putIfAbsent(null, -1));
+        Assert.assertEquals((Integer)(-1), map.get(null));
+        Assert.assertFalse(map.remove("k2", 3));
+        Assert.assertTrue(map.remove("k2", 2));
+        Assert.assertTrue(map.replace("k3", 3, 33));
+        Assert.assertEquals((Integer)34, map.merge("k3", 1, Integer::sum));
+        Assert.assertNull(map.compute("k4", (k, v) -> null));
+        Assert.assertFalse(map.containsKey("k4"));
+        Assert.assertEquals(99, map.size());
+        
+        int count = 0;
+        for (Map.Entry<String, Integer> e : map.entrySet()) {
+            Assert.assertEquals(e.getValue(), map.get(e.getKey()));
+            count++;
+        }
+        Assert.assertEquals(99, count);
+        map.keySet().removeIf(k -> k != null && k.length() == 2);
+        Assert.assertEquals(91, map.size());
+        map.clear();
+        Assert.assertTrue(map.isEmpty());
+    }
+    
+    @Test
+    public void testEvents() {
+        ConcurrentMAHashMap<String, Integer> map = new ConcurrentMAHashMap<>();
+        StringBuilder builder = new StringBuilder();
+        map.addMapElementListener(new MapElementListener<String, Integer>() {
+            @Override
+            public void modified(MapElementEvent<String, Integer> e) throws Throwable {
+                Assert.assertSame(map, e.getSource());
+                if (e.getModificationType().contains(PropertyVersion.DETACH)) {
+                    builder
+                    .append("-(")
+                    .append(e.getKey(PropertyVersion.DETACH))
+                    .append(':')
+                    .append(e.getValue(PropertyVersion.DETACH))
+                    .append(')');
+                }
+                if (e.getModificationType().contains(PropertyVersion.ATTACH)) {
+                    builder
+                    .append("+(")
+                    .append(e.getKey(PropertyVersion.ATTACH))
+                    .append(':')
+                    .append(e.getValue(PropertyVersion.ATTACH))
+                    .append(')');
+                }
+            }
+        });
+        map.put("a", 1);
+        map.put("a", 2);
+        map.computeIfAbsent("b", k -> 3);
+        map.remove("a");
+        Assert.assertEquals("+(a:1)-(a:1)+(a:2)+(b:3)-(a:2)", builder.toString());
+    }
+    
+    @Test
+    public void testAtomicComputeIfAbsent() throws InterruptedException {
+        ConcurrentMAHashMap<Integer, Integer> map = new ConcurrentMAHashMap<>();
+        AtomicInteger computeCount = new AtomicInteger();
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        CountDownLatch startLatch = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    startLatch.await();
+                    for (int i = 0; i < 1000; i++) {
+                        map.computeIfAbsent(i, k -> {
+                            computeCount.incrementAndGet();
+                            return k * 2;
+                        });
+                        Assert.assertEquals((Integer)(i * 2), map.get(i));
+                    }
+                } catch (Throwable ex) {
+                    error.compareAndSet(null, ex);
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        startLatch.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        Assert.assertNull(error.get());
+        Assert.assertEquals(1000, computeCount.get());
+        Assert.assertEquals(1000, map.size());
+    }
+    
+    @Test
+    public void testFrozenContextRelocation() {
+        ConcurrentMAHashMap<Unstable, String> map = 
+                new ConcurrentMAHashMap<>(Unstable.EQUALITY_COMPARATOR, 64);
+        List<Unstable> keys = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            Unstable key = new Unstable("k" + i);
+            keys.add(key);
+            map.put(key, "v" + i);
+        }
+        for (int i = 0; i < 100; i++) {
+            keys.get(i).setVal("key" + i);
+        }
+        Assert.assertEquals(100, map.size());
+        for (int i = 0; i < 100; i++) {
+            Assert.assertEquals("v" + i, map.get(new Unstable("key" + i)));
+            Assert.assertNull(map.get(new Unstable("k" + i)));
+        }
+    }
+    
+    @Test
+    public void testResumedKeyIsVisibleWhenLocksAreReleased() {
+        ConcurrentMAHashMap<Unstable, String> map = 
+                new ConcurrentMAHashMap<>(Unstable.EQUALITY_COMPARATOR, 64);
+        List<Unstable> keys = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            Unstable key = new Unstable("k" + i);
+            keys.add(key);
+            map.put(key, "v" + i);
+        }
+        List<String> missedKeys = new ArrayList<>();
+        map.addMapElementListener(new MapElementListener<Unstable, String>() {
+            @Override
+            public void modified(MapElementEvent<Unstable, String> e) throws Throwable {
+                if (e.getModificationType().contains(PropertyVersion.ATTACH)) {
+                    Unstable key = e.getKey(PropertyVersion.ATTACH);
+                    if (!e.getValue(PropertyVersion.ATTACH).equals(map.get(key))) {
+                        missedKeys.add(key.getVal());
+                    }
+                }
+            }
+        });
+        for (int i = 0; i < 100; i++) {
+            keys.get(i).setVal("key" + i);
+        }
+        Assert.assertEquals("[]", missedKeys.toString());
+        Assert.assertEquals(100, map.size());
+    }
+    
+    @Test
+    public void testListenerAccessesMap() {
+        ConcurrentMAHashMap<String, Integer> map = new ConcurrentMAHashMap<>(1);
+        List<Integer> sizes = new ArrayList<>();
+        map.addMapElementListener(new MapElementListener<String, Integer>() {
+            @Override
+            public void modified(MapElementEvent<String, Integer> e) throws Throwable {
+                sizes.add(map.size());
+                if (e.getModificationType().contains(PropertyVersion.ATTACH)) {
+                    Assert.assertEquals(
+                            e.getValue(PropertyVersion.ATTACH), 
+                            map.get(e.getKey(PropertyVersion.ATTACH)));
+                }
+            }
+        });
+        map.put("a", 1);
+        map.put("b", 2);
+        map.remove("a");
+        Assert.assertEquals("[1, 2, 1]", sizes.toString());
+    }
+    
+    @Test
+    public void testPutAll() {
+        ConcurrentMAHashMap<String, Integer> map = new ConcurrentMAHashMap<>(4);
+        java.util.Map<String, Integer> m = new java.util.LinkedHashMap<>();
+        for (int i = 0; i < 100; i++) {
+            m.put("k" + i, i);
+        }
+        AtomicInteger eventCount = new AtomicInteger();
+        map.addMapElementListener(new MapElementListener<String, Integer>() {
+            @Override
+            public void modified(MapElementEvent<String, Integer> e) throws Throwable {
+                eventCount.incrementAndGet();
+            }
+        });
+        map.putAll(m);
+        Assert.assertEquals(m, map);
+        Assert.assertEquals(100, eventCount.get());
+    }
+    
+    @Test
+    public void testConcurrentFrozenKeys() throws InterruptedException {
+        int threadCount = 4;
+        int keyCount = 50;
+        int roundCount = 200;
+        ConcurrentMAHashMap<Unstable, Integer> map = 
+                new ConcurrentMAHashMap<>(Unstable.EQUALITY_COMPARATOR, 8);
+        AtomicInteger modifiedCount = new AtomicInteger();
+        map.addMapElementListener(new MapElementListener<Unstable, Integer>() {
+            @Override
+            public void modified(MapElementEvent<Unstable, Integer> e) throws Throwable {
+                // The listener reads the map, it must not be dead locked
+                map.containsKey(e.getKey(PropertyVersion.DETACH));
+                modifiedCount.incrementAndGet();
+            }
+        });
+        List<List<Unstable>> keyGroups = new ArrayList<>();
+        for (int t = 0; t < threadCount; t++) {
+            List<Unstable> keys = new ArrayList<>();
+            for (int i = 0; i < keyCount; i++) {
+                Unstable key = new Unstable(t + "-" + i + "-0");
+                keys.add(key);
+                map.put(key, t * keyCount + i);
+            }
+            keyGroups.add(keys);
+        }
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        CountDownLatch startLatch = new CountDownLatch(1);
+        CountDownLatch writerLatch = new CountDownLatch(threadCount);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < threadCount; t++) {
+            List<Unstable> keys = keyGroups.get(t);
+            int threadIndex = t;
+            Thread writer = new Thread(() -> {
+                try {
+                    startLatch.await();
+                    for (int round = 1; round <= roundCount; round++) {
+                        for (int i = 0; i < keyCount; i++) {
+                            keys.get(i).setVal(threadIndex + "-" + i + "-" + round);
+                        }
+                    }
+                } catch (Throwable ex) {
+                    error.compareAndSet(null, ex);
+                } finally {
+                    writerLatch.countDown();
+                }
+            });
+            Thread reader = new Thread(() -> {
+                try {
+                    startLatch.await();
+                    while (writerLatch.getCount() != 0) {
+                        for (Integer value : map.values()) {
+                            Assert.assertTrue(value >= 0 && value < threadCount * keyCount);
+                        }
+                        for (int i = 0; i < keyCount; i++) {
+                            Integer value = map.get(new Unstable(threadIndex + "-" + i + "-0"));
+                            Assert.assertTrue(value == null || value.intValue() == threadIndex * keyCount + i);
+                        }
+                    }
+                } catch (Throwable ex) {
+                    error.compareAndSet(null, ex);
+                }
+            });
+            writer.start();
+            reader.start();
+            threads.add(writer);
+            threads.add(reader);
+        }
+        startLatch.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        Assert.assertNull(error.get());
+        Assert.assertEquals(threadCount * keyCount, map.size());
+        for (int t = 0; t < threadCount; t++) {
+            for (int i = 0; i < keyCount; i++) {
+                Assert.assertEquals(
+                        (Integer)(t * keyCount + i), 
+                        map.get(new Unstable(t + "-" + i + "-" + roundCount)));
+            }
+        }
+        // Each change of a key suspends and resumes it, relocation raises 2 more events.
+        Assert.assertTrue(modifiedCount.get() >= 2 * threadCount * keyCount * roundCount);
+    }
+}
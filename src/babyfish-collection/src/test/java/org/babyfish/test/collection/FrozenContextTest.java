@@ -20,10 +20,13 @@ package org.babyfish.test.collection;
 import java.util.Collection;
 import java.util.Comparator;
 
+import org.babyfish.collection.BidiType;
 import org.babyfish.collection.EqualityComparator;
 import org.babyfish.collection.FrozenComparator;
 import org.babyfish.collection.FrozenContext;
 import org.babyfish.collection.FrozenEqualityComparator;
+import org.babyfish.collection.HashMap;
+import org.babyfish.collection.HashStorage;
 import org.babyfish.collection.LinkedHashMap;
 import org.babyfish.collection.LinkedHashSet;
 import org.babyfish.collection.MALinkedHashMap;
@@ -34,9 +37,11 @@ import org.babyfish.collection.MAOrderedMap;
 import org.babyfish.collection.MAOrderedSet;
 import org.babyfish.collection.MATreeMap;
 import org.babyfish.collection.MATreeSet;
+import org.babyfish.collection.ReplacementRule;
 import org.babyfish.collection.TreeMap;
 import org.babyfish.collection.TreeSet;
 import org.babyfish.collection.UnifiedComparator;
+import org.babyfish.collection.XMap;
 import org.babyfish.collection.XNavigableMap;
 import org.babyfish.collection.XNavigableSet;
 import org.babyfish.collection.XOrderedMap;
@@ -497,6 +502,203 @@ public class FrozenContextTest {
         Assert.assertEquals("-[1, One]+[I, One]-[2, Two]+[II, Two]-[3, Three]+[III, Three]-[4, Four]+[IV, Four]-[I, One]+[Unknown, One]-[II, Two]-[Unknown, One]+[Unknown, Two]-[III, Three]-[Unknown, Two]+[Unknown, Three]-[IV, Four]-[Unknown, Three]+[Unknown, Four]", builder.toString());
     }
     
+    @Test
+    public void testByOpenAddressingMap() {
+        XMap<Element, String> map = new HashMap<Element, String>(
+                HashStorage.OPEN_ADDRESSING,
+                BidiType.NONE,
+                ReplacementRule.NEW_REFERENCE_WIN,
+                Element.CODE_EQUALITY_COMPARATOR, 
+                null,
+                4,
+                .75F);
+        Element one = new Element("1", "One");
+        Element two = new Element("2", "Two");
+        Element three = new Element("3", "Three");
+        map.put(one, "One");
+        map.put(two, "Two");
+        map.put(three, "Three");
+        for (int i = 4; i < 32; i++) {
+            map.put(new Element(Integer.toString(i), null), null);
+        }
+        
+        one.setCode("I");
+        Assert.assertEquals("One", map.get(new Element("I", null)));
+        Assert.assertFalse(map.containsKey(new Element("1", null)));
+        Assert.assertEquals(31, map.size());
+        
+        two.setCode("I");
+        Assert.assertEquals("Two", map.get(new Element("I", null)));
+        Assert.assertEquals(30, map.size());
+        
+        /*
+         * The key "one" has been removed from the map, 
+         * so its code can be changed without affecting the map.
+         */
+        one.setCode("3");
+        Assert.assertEquals("Three", map.get(new Element("3", null)));
+        Assert.assertSame(three, map.entrySet().stream().filter(e -> "Three".equals(e.getValue())).findFirst().get().getKey());
+        
+        three.setCode("III");
+        Assert.assertEquals("Three", map.get(new Element("III", null)));
+        Assert.assertNull(map.get(new Element("3", null)));
+        Assert.assertEquals(30, map.size());
+    }
+    
+    @Test
+    public void testByCombinedContext() {
+        XMap<Element, String> hashMap = new HashMap<Element, String>(
+                Element.CODE_EQUALITY_COMPARATOR, 
+                UnifiedComparator.empty());
+        XNavigableMap<Element, String> treeMap = new TreeMap<Element, String>(
+                Element.CODE_COMPARATOR, 
+                UnifiedComparator.empty());
+        XOrderedMap<Element, String> linkedHashMap = new LinkedHashMap<Element, String>(
+                Element.CODE_EQUALITY_COMPARATOR, 
+                UnifiedComparator.empty());
+        MANavigableMap<Element, String> maTreeMap = new MATreeMap<Element, String>(
+                Element.CODE_COMPARATOR, 
+                UnifiedComparator.empty());
+        final StringBuilder builder = new StringBuilder();
+        maTreeMap.addMapElementListener(
+                new MapElementListener<Element, String>() {
+                    @Override
+                    public void modified(MapElementEvent<Element, String> e) throws Throwable {
+                        if (e.getModificationType().contains(PropertyVersion.DETACH)) {
+                            builder.append("-[").append(e.getKey(PropertyVersion.DETACH).getCode()).append(']');
+                        }
+                        if (e.getModificationType().contains(PropertyVersion.ATTACH)) {
+                            builder.append("+[").append(e.getKey(PropertyVersion.ATTACH).getCode()).append(']');
+                        }
+                    }
+                });
+        Element[] elements = new Element[64];
+        for (int i = 0; i < elements.length; i++) {
+            Element element = new Element(Integer.toString(i), "Name" + i);
+            elements[i] = element;
+            hashMap.put(element, element.getName());
+            treeMap.put(element, element.getName());
+            linkedHashMap.put(element, element.getName());
+        }
+        maTreeMap.put(elements[0], "Name0");
+        builder.setLength(0);
+        
+        for (int i = 0; i < elements.length; i++) {
+            elements[i].setCode("X" + i);
+        }
+        Assert.assertEquals("-[0]+[X0]", builder.toString());
+        for (int i = 0; i < elements.length; i++) {
+            Element key = new Element("X" + i, null);
+            Assert.assertEquals("Name" + i, hashMap.get(key));
+            Assert.assertEquals("Name" + i, treeMap.get(key));
+            Assert.assertEquals("Name" + i, linkedHashMap.get(key));
+            Assert.assertFalse(hashMap.containsKey(new Element(Integer.toString(i), null)));
+            Assert.assertFalse(treeMap.containsKey(new Element(Integer.toString(i), null)));
+        }
+        int index = 0;
+        for (Element element : linkedHashMap.keySet()) {
+            Assert.assertSame(elements[index++], element);
+        }
+        Assert.assertEquals("X0", treeMap.firstKey().getCode());
+        Assert.assertEquals("X9", treeMap.lastKey().getCode());
+        
+        hashMap.remove(elements[1]);
+        treeMap.remove(elements[1]);
+        elements[1].setCode("Y1");
+        Assert.assertNull(hashMap.get(new Element("Y1", null)));
+        Assert.assertNull(treeMap.get(new Element("Y1", null)));
+        Assert.assertEquals("Name1", linkedHashMap.get(new Element("Y1", null)));
+        
+        elements[2].setCode("X3");
+        Assert.assertEquals(62, hashMap.size());
+        Assert.assertEquals(62, treeMap.size());
+        Assert.assertEquals(63, linkedHashMap.size());
+        Assert.assertEquals("Name2", hashMap.get(new Element("X3", null)));
+        Assert.assertEquals("Name2", treeMap.get(new Element("X3", null)));
+        Assert.assertEquals("Name2", linkedHashMap.get(new Element("X3", null)));
+        
+        elements[3].setCode("Z3");
+        Assert.assertNull(hashMap.get(new Element("Z3", null)));
+        Assert.assertEquals("Name2", hashMap.get(new Element("X3", null)));
+    }
+    
+    @Test
+    public void testBatch() {
+        XNavigableMap<Element, String> treeMap = new TreeMap<Element, String>(
+                Element.CODE_COMPARATOR, 
+                UnifiedComparator.empty());
+        XOrderedMap<Element, String> linkedHashMap = new LinkedHashMap<Element, String>(
+                Element.CODE_EQUALITY_COMPARATOR, 
+                UnifiedComparator.empty());
+        MANavigableMap<Element, String> maTreeMap = new MATreeMap<Element, String>(
+                Element.CODE_COMPARATOR, 
+                UnifiedComparator.empty());
+        final StringBuilder builder = new StringBuilder();
+        maTreeMap.addMapElementListener(
+                new MapElementListener<Element, String>() {
+                    @Override
+                    public void modified(MapElementEvent<Element, String> e) throws Throwable {
+                        if (e.getModificationType().contains(PropertyVersion.DETACH)) {
+                            builder.append("-[").append(e.getKey(PropertyVersion.DETACH).getCode()).append(']');
+                        }
+                        if (e.getModificationType().contains(PropertyVersion.ATTACH)) {
+                            builder.append("+[").append(e.getKey(PropertyVersion.ATTACH).getCode()).append(']');
+                        }
+                    }
+                });
+        Element[] elements = new Element[100];
+        for (int i = 0; i < elements.length; i++) {
+            Element element = new Element(String.format("%03d", i), "Name" + i);
+            elements[i] = element;
+            treeMap.put(element, element.getName());
+            linkedHashMap.put(element, element.getName());
+        }
+        maTreeMap.put(elements[0], "Name0");
+        builder.setLength(0);
+        
+        FrozenContext.batch(() -> {
+            for (int i = 0; i < elements.length; i++) {
+                elements[i].setCode("Temp" + i);
+            }
+            FrozenContext.batch(() -> {
+                for (int i = 0; i < elements.length; i++) {
+                    elements[i].setCode(String.format("%03d", elements.length - i));
+                }
+            });
+            Assert.assertEquals("-[000]+[Temp0]-[Temp0]+[100]", builder.toString());
+            Assert.assertEquals(0, treeMap.size());
+            Assert.assertEquals(0, linkedHashMap.size());
+        });
+        
+        Assert.assertEquals(100, treeMap.size());
+        Assert.assertEquals(100, linkedHashMap.size());
+        int index = elements.length;
+        for (Element element : treeMap.keySet()) {
+            Assert.assertSame(elements[--index], element);
+        }
+        index = 0;
+        for (Element element : linkedHashMap.keySet()) {
+            Assert.assertSame(elements[index++], element);
+        }
+        for (int i = 0; i < elements.length; i++) {
+            Element key = new Element(String.format("%03d", elements.length - i), null);
+            Assert.assertEquals("Name" + i, treeMap.get(key));
+            Assert.assertEquals("Name" + i, linkedHashMap.get(key));
+        }
+        
+        FrozenContext.batch(() -> {
+            for (int i = 0; i < elements.length; i++) {
+                elements[i].setCode(i < 10 ? "Conflict" : "X" + i);
+            }
+        });
+        Assert.assertEquals(91, treeMap.size());
+        Assert.assertEquals(91, linkedHashMap.size());
+        Assert.assertEquals("Conflict", treeMap.firstKey().getCode());
+        Assert.assertEquals("X99", treeMap.lastKey().getCode());
+        Assert.assertEquals("Name9", treeMap.get(new Element("Conflict", null)));
+        Assert.assertEquals("Name9", linkedHashMap.get(new Element("Conflict", null)));
+    }
+    
     private static void assertElementCodeAndNames(Collection<Element> elements, String ... elementCodeAndNames) {
         if (elementCodeAndNames.length % 2 != 0) {
             throw new IllegalArgumentException();
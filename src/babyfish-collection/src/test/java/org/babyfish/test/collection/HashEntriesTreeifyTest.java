@@ -0,0 +1,160 @@
+/*
+ * BabyFish, Object Model Framework for Java and JPA.
+ * https://github.com/babyfish-ct/babyfish
+ *
+ * Copyright (c) 2008-2016, Tao Chen
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * Please visit "http://opensource.org/licenses/LGPL-3.0" to know more.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ */
+package org.babyfish.test.collection;
+
+import java.util.Map;
+import java.util.Random;
+
+import org.babyfish.collection.BidiType;
+import org.babyfish.collection.EqualityComparator;
+import org.babyfish.collection.HashMap;
+import org.babyfish.collection.HashSet;
+import org.babyfish.collection.HashStorage;
+import org.babyfish.collection.MAHashMap;
+import org.babyfish.collection.ReplacementRule;
+import org.babyfish.collection.spi.base.BaseEntry;
+import org.babyfish.collection.spi.base.BaseEntryIterator;
+import org.babyfish.collection.spi.base.HashEntries;
+import org.junit.Test;
+
+import junit.framework.Assert;
+
+/**
+ * @author Tao Chen
+ */
+public class HashEntriesTreeifyTest {
+    
+    private static final EqualityComparator<Long> POOR_EQUALITY_COMPARATOR =
+            new EqualityComparator<Long>() {
+                @Override
+                public int hashCode(Long o) {
+                    return (int)(o % 3);
+                }
+                @Override
+                public boolean equals(Long o1, Long o2) {
+                    return o1.equals(o2);
+                }
+            };
+
+    @Test
+    public void testPoorHashCode() {
+        testRandomModifications(
+                new HashEntries<Long, Integer>(
+                        BidiType.NONE, 
+                        ReplacementRule.NEW_REFERENCE_WIN, 
+                        POOR_EQUALITY_COMPARATOR, 
+                        null, 
+                        16, 
+                        .75F),
+                false
+        );
+    }
+    
+    @Test
+    public void testSameHashCodeOfComparableKeys() {
+        testRandomModifications(
+                new HashEntries<Long, Integer>(
+                        BidiType.NONE, 
+                        ReplacementRule.NEW_REFERENCE_WIN, 
+                        null, 
+                        null, 
+                        16, 
+                        .75F),
+                true
+        );
+    }
+    
+    @Test
+    public void testFixedCapacity() {
+        testRandomModifications(
+                new HashEntries<Long, Integer>(
+                        BidiType.NONE, 
+                        ReplacementRule.NEW_REFERENCE_WIN, 
+                        null, 
+                        null, 
+                        16, 
+                        null),
+                false
+        );
+    }
+    
+    @Test
+    public void testTreeifiedBucketCountOfCollections() {
+        HashMap<Long, Integer> map = new HashMap<>(POOR_EQUALITY_COMPARATOR);
+        HashSet<Long> set = new HashSet<>(POOR_EQUALITY_COMPARATOR);
+        MAHashMap<Long, Integer> openMap = new MAHashMap<>(HashStorage.OPEN_ADDRESSING);
+        Assert.assertEquals(0, map.treeifiedBucketCount());
+        for (long i = 0; i < 100; i++) {
+            map.put(i, (int)i);
+            set.add(i);
+            openMap.put(i * 3, (int)i);
+        }
+        Assert.assertTrue(map.treeifiedBucketCount() > 0);
+        Assert.assertTrue(set.treeifiedBucketCount() > 0);
+        Assert.assertEquals(0, openMap.treeifiedBucketCount());
+        map.clear();
+        Assert.assertEquals(0, map.treeifiedBucketCount());
+    }
+    
+    private static void testRandomModifications(HashEntries<Long, Integer> entries, boolean sameHashCode) {
+        Random random = new Random(17);
+        Map<Long, Integer> expected = new java.util.HashMap<>();
+        for (int i = 0; i < 20000; i++) {
+            Long key = key(random.nextInt(3000), sameHashCode);
+            switch (random.nextInt(4)) {
+            case 0:
+                BaseEntry<Long, Integer> be = entries.removeByKey(key, null);
+                Assert.assertEquals(expected.remove(key), be != null ? be.getValue() : null);
+                break;
+            case 1:
+                Assert.assertEquals(expected.containsKey(key), entries.containsKey(key));
+                break;
+            default:
+                Assert.assertEquals(expected.put(key, i), entries.put(key, i, null));
+                break;
+            }
+            Assert.assertEquals(expected.size(), entries.size());
+        }
+        Assert.assertTrue(entries.treeifiedBucketCount() > 0);
+        
+        BaseEntryIterator<Long, Integer> itr = entries.iterator();
+        while (itr.hasNext()) {
+            BaseEntry<Long, Integer> be = itr.next();
+            Assert.assertEquals(expected.get(be.getKey()), be.getValue());
+            if (be.getValue() % 2 == 0) {
+                expected.remove(be.getKey());
+                itr.remove(null);
+            }
+        }
+        Assert.assertEquals(expected.size(), entries.size());
+        for (int i = 0; i < 3000; i++) {
+            Long key = key(i, sameHashCode);
+            BaseEntry<Long, Integer> be = entries.getBaseEntry(key);
+            Assert.assertEquals(expected.get(key), be != null ? be.getValue() : null);
+        }
+        
+        entries.clear(null);
+        Assert.assertEquals(0, entries.treeifiedBucketCount());
+        Assert.assertNull(entries.getBaseEntry(key(1, sameHashCode)));
+    }
+    
+    private static Long key(int i, boolean sameHashCode) {
+        // The hashCode of the Long "(i << 32) | i" is always 0
+        return sameHashCode ? ((long)i << 32) | i : (long)i;
+    }
+}
@@ -0,0 +1,168 @@
+/*
+ * BabyFish, Object Model Framework for Java and JPA.
+ * https://github.com/babyfish-ct/babyfish
+ *
+ * Copyright (c) 2008-2016, Tao Chen
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * Please visit "http://opensource.org/licenses/LGPL-3.0" to know more.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ */
+package org.babyfish.test.collection;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.babyfish.collection.ArrayList;
+import org.babyfish.collection.ArrayStorage;
+import org.babyfish.collection.LinkedList;
+import org.babyfish.collection.MAArrayList;
+import org.babyfish.collection.MALinkedList;
+import org.babyfish.collection.ReaderOptimizationType;
+import org.babyfish.collection.XList;
+import org.junit.Test;
+
+import junit.framework.Assert;
+
+/**
+ * @author Tao Chen
+ */
+public class HashIndexedListTest {
+
+    @Test
+    public void testArrayList() {
+        testRandomModifications(new ArrayList.Builder<Integer>().setHashIndexed(true).build());
+    }
+    
+    @Test
+    public void testTieredArrayList() {
+        testRandomModifications(
+                new MAArrayList.Builder<Integer>()
+                .setStorage(ArrayStorage.TIERED)
+                .setHashIndexed(true)
+                .build()
+        );
+    }
+    
+    @Test
+    public void testLinkedList() {
+        testRandomModifications(new LinkedList.Builder<Integer>().setHashIndexed(true).build());
+    }
+    
+    @Test
+    public void testRandomAccessLinkedList() {
+        testRandomModifications(
+                new MALinkedList.Builder<Integer>()
+                .setReaderOptimizationType(ReaderOptimizationType.OPTIMIZE_RANDOM_ACCESS)
+                .setHashIndexed(true)
+                .build()
+        );
+    }
+    
+    @Test
+    public void testMergedFrozenElements() {
+        FrozenContextTest.StringRef a = new FrozenContextTest.StringRef("A");
+        FrozenContextTest.StringRef b1 = new FrozenContextTest.StringRef("B");
+        FrozenContextTest.StringRef b2 = new FrozenContextTest.StringRef("B");
+        XList<FrozenContextTest.StringRef> list = 
+                new ArrayList.Builder<FrozenContextTest.StringRef>()
+                .setEqualityComparator(FrozenContextTest.StringRef.VFE)
+                .setHashIndexed(true)
+                .build();
+        list.addAll(Arrays.asList(a, b1, b2));
+        
+        // The entry of "A" is merged into the entry of "B" in the hash index
+        a.setValue("B");
+        Assert.assertFalse(list.contains(new FrozenContextTest.StringRef("A")));
+        for (int i = 0; i < 3; i++) {
+            Assert.assertTrue(list.contains(new FrozenContextTest.StringRef("B")));
+            list.remove(0);
+        }
+        Assert.assertFalse(list.contains(new FrozenContextTest.StringRef("B")));
+        Assert.assertTrue(list.isEmpty());
+    }
+    
+    @Test
+    public void testSerialization() throws IOException, ClassNotFoundException {
+        XList<Integer> list = new MAArrayList.Builder<Integer>().setHashIndexed(true).build();
+        list.addAll(Arrays.asList(1, 2, 3, 2));
+        XList<Integer> deserializedList = clone(list);
+        Assert.assertEquals(list, deserializedList);
+        Assert.assertEquals(3, deserializedList.lastIndexOf(2));
+        deserializedList.remove((Object)2);
+        Assert.assertTrue(deserializedList.contains(2));
+        deserializedList.remove((Object)2);
+        Assert.assertFalse(deserializedList.contains(2));
+        Assert.assertEquals(-1, deserializedList.indexOf(2));
+    }
+    
+    private static void testRandomModifications(List<Integer> list) {
+        List<Integer> expected = new java.util.ArrayList<>();
+        Random random = new Random(7);
+        for (int i = 0; i < 5000; i++) {
+            int op = random.nextInt(10);
+            Integer e = random.nextInt(300);
+            if (op < 5 || expected.isEmpty()) {
+                int index = random.nextInt(expected.size() + 1);
+                expected.add(index, e);
+                list.add(index, e);
+            } else if (op < 7) {
+                Assert.assertEquals(expected.remove(e), list.remove(e));
+            } else if (op < 8) {
+                int index = random.nextInt(expected.size());
+                Assert.assertEquals(expected.set(index, e), list.set(index, e));
+            } else {
+                int fromIndex = random.nextInt(expected.size());
+                int toIndex = fromIndex + random.nextInt(expected.size() - fromIndex + 1);
+                List<Integer> expectedSubList = expected.subList(fromIndex, toIndex);
+                List<Integer> subList = list.subList(fromIndex, toIndex);
+                Assert.assertEquals(expectedSubList.indexOf(e), subList.indexOf(e));
+                Assert.assertEquals(expectedSubList.contains(e), subList.contains(e));
+                if (op == 9 && expectedSubList.size() < 20) {
+                    expectedSubList.clear();
+                    subList.clear();
+                }
+            }
+            Assert.assertEquals(expected.contains(e), list.contains(e));
+            Assert.assertEquals(expected.indexOf(e), list.indexOf(e));
+        }
+        Assert.assertEquals(expected, list);
+        for (int e = 0; e < 300; e++) {
+            Assert.assertEquals(expected.contains(e), list.contains(e));
+        }
+        List<Integer> removed = Arrays.asList(1, 2, 3, 5, 8, 13, 21, 34, 55, 89, 144, 233);
+        expected.removeAll(removed);
+        list.removeAll(removed);
+        for (Integer e : removed) {
+            Assert.assertFalse(list.contains(e));
+        }
+        list.clear();
+        Assert.assertFalse(list.contains(0));
+        list.add(0);
+        Assert.assertTrue(list.contains(0));
+    }
+    
+    @SuppressWarnings("unchecked")
+    private static <T> T clone(T o) throws IOException, ClassNotFoundException {
+        ByteArrayOutputStream bout = new ByteArrayOutputStream();
+        try (ObjectOutputStream oout = new ObjectOutputStream(bout)) {
+            oout.writeObject(o);
+        }
+        try (ObjectInputStream oin = new ObjectInputStream(new ByteArrayInputStream(bout.toByteArray()))) {
+            return (T)oin.readObject();
+        }
+    }
+}
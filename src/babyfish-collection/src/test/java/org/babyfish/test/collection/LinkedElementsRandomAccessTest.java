@@ -0,0 +1,143 @@
+/*
+ * BabyFish, Object Model Framework for Java and JPA.
+ * https://github.com/babyfish-ct/babyfish
+ *
+ * Copyright (c) 2008-2016, Tao Chen
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * Please visit "http://opensource.org/licenses/LGPL-3.0" to know more.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ */
+package org.babyfish.test.collection;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.babyfish.collection.LinkedList;
+import org.babyfish.collection.MALinkedList;
+import org.babyfish.collection.ReaderOptimizationType;
+import org.junit.Test;
+
+import junit.framework.Assert;
+
+/**
+ * @author Tao Chen
+ */
+public class LinkedElementsRandomAccessTest {
+
+    @Test
+    public void testRandomModifications() {
+        List<Integer> expected = new java.util.ArrayList<>();
+        List<Integer> list = new LinkedList<>(ReaderOptimizationType.OPTIMIZE_RANDOM_ACCESS);
+        Random random = new Random(31);
+        for (int i = 0; i < 20000; i++) {
+            int op = random.nextInt(10);
+            if (op < 6 || expected.isEmpty()) {
+                int index = random.nextInt(expected.size() + 1);
+                expected.add(index, i);
+                list.add(index, i);
+            } else if (op < 8) {
+                int index = random.nextInt(expected.size());
+                Assert.assertEquals(expected.remove(index), list.remove(index));
+            } else {
+                int index = random.nextInt(expected.size());
+                Assert.assertEquals(expected.get(index), list.get(index));
+            }
+        }
+        Assert.assertEquals(expected, list);
+        for (int i = expected.size() - 1; i >= 0; i--) {
+            Assert.assertEquals(expected.get(i), list.get(i));
+        }
+    }
+    
+    @Test
+    public void testBulkModifications() {
+        List<Integer> expected = new java.util.ArrayList<>();
+        List<Integer> list = new MALinkedList<>(ReaderOptimizationType.OPTIMIZE_RANDOM_ACCESS);
+        for (int i = 0; i < 3000; i++) {
+            expected.add(i);
+            list.add(i);
+        }
+        List<Integer> inserted = Arrays.asList(-1, -2, -3, -4, -5, -6, -7, -8);
+        expected.addAll(1000, inserted);
+        list.addAll(1000, inserted);
+        assertPositions(expected, list);
+        
+        expected.subList(100, 900).clear();
+        list.subList(100, 900).clear();
+        assertPositions(expected, list);
+        
+        List<Integer> removed = Arrays.asList(filter(expected, 200, 1200));
+        expected.subList(200, 1200).removeAll(removed);
+        list.subList(200, 1200).removeAll(removed);
+        assertPositions(expected, list);
+        
+        List<Integer> retained = Arrays.asList(filter(expected, 0, expected.size()));
+        expected.subList(10, 500).retainAll(retained);
+        list.subList(10, 500).retainAll(retained);
+        assertPositions(expected, list);
+        
+        expected.clear();
+        list.clear();
+        assertPositions(expected, list);
+        list.add(1);
+        Assert.assertEquals(1, list.get(0).intValue());
+    }
+    
+    @Test
+    public void testSerialization() throws IOException, ClassNotFoundException {
+        List<Integer> list = new MALinkedList<>(ReaderOptimizationType.OPTIMIZE_RANDOM_ACCESS);
+        for (int i = 0; i < 1000; i++) {
+            list.add(i / 2, i);
+        }
+        List<Integer> deserializedList = clone(list);
+        assertPositions(list, deserializedList);
+        deserializedList.add(500, -1);
+        list.add(500, -1);
+        assertPositions(list, deserializedList);
+        
+        List<Integer> emptyList = clone(new MALinkedList<Integer>(ReaderOptimizationType.OPTIMIZE_RANDOM_ACCESS));
+        emptyList.add(0, 3);
+        emptyList.add(0, 2);
+        Assert.assertEquals(Arrays.asList(2, 3), emptyList);
+    }
+    
+    private static Integer[] filter(List<Integer> list, int fromIndex, int toIndex) {
+        return list
+                .subList(fromIndex, toIndex)
+                .stream()
+                .filter(e -> e % 3 == 0)
+                .toArray(Integer[]::new);
+    }
+    
+    private static void assertPositions(List<Integer> expected, List<Integer> list) {
+        Assert.assertEquals(expected.size(), list.size());
+        for (int i = 0; i < expected.size(); i++) {
+            Assert.assertEquals(expected.get(i), list.get(i));
+        }
+    }
+    
+    @SuppressWarnings("unchecked")
+    private static <T> T clone(T o) throws IOException, ClassNotFoundException {
+        ByteArrayOutputStream bout = new ByteArrayOutputStream();
+        try (ObjectOutputStream oout = new ObjectOutputStream(bout)) {
+            oout.writeObject(o);
+        }
+        try (ObjectInputStream oin = new ObjectInputStream(new ByteArrayInputStream(bout.toByteArray()))) {
+            return (T)oin.readObject();
+        }
+    }
+}
@@ -0,0 +1,175 @@
+/*
+ * BabyFish, Object Model Framework for Java and JPA.
+ * https://github.com/babyfish-ct/babyfish
+ *
+ * Copyright (c) 2008-2016, Tao Chen
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * Please visit "http://opensource.org/licenses/LGPL-3.0" to know more.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ */
+package org.babyfish.test.collection;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.babyfish.collection.EvictionPolicy;
+import org.babyfish.collection.LinkedHashMap;
+import org.babyfish.collection.MALinkedHashMap;
+import org.babyfish.collection.OrderAdjustMode;
+import org.babyfish.collection.Weigher;
+import org.babyfish.collection.XOrderedMap;
+import org.babyfish.collection.event.MapElementEvent;
+import org.babyfish.collection.event.MapElementListener;
+import org.babyfish.collection.event.modification.MapModifications.EvictByPolicy;
+import org.babyfish.data.event.PropertyVersion;
+import org.junit.Test;
+
+import junit.framework.Assert;
+
+/**
+ * @author Tao Chen
+ */
+public class LinkedHashMapEvictionTest {
+
+    @Test
+    public void testLRU() {
+        XOrderedMap<String, Integer> map = new LinkedHashMap<>(EvictionPolicy.LRU, 3);
+        map.put("a", 1);
+        map.put("b", 2);
+        map.put("c", 3);
+        map.access("a");
+        map.put("d", 4);
+        Assert.assertEquals(Arrays.asList("c", "a", "d"), new ArrayList<>(map.keySet()));
+        map.put("c", 30);
+        map.put("e", 5);
+        Assert.assertEquals(Arrays.asList("d", "c", "e"), new ArrayList<>(map.keySet()));
+        map.putAll(new java.util.LinkedHashMap<String, Integer>() {
+            private static final long serialVersionUID = 1L;
+            {
+                this.put("f", 6);
+                this.put("g", 7);
+            }
+        });
+        Assert.assertEquals(Arrays.asList("e", "f", "g"), new ArrayList<>(map.keySet()));
+    }
+    
+    @Test
+    public void testLFU() {
+        XOrderedMap<String, Integer> map = 
+                new LinkedHashMap.Builder<String, Integer>()
+                .setEvictionPolicy(EvictionPolicy.LFU)
+                .setMaxSize(3)
+                .build();
+        map.put("a", 1);
+        map.put("b", 2);
+        map.put("c", 3);
+        for (int i = 0; i < 5; i++) {
+            map.access("a");
+            map.access("c");
+        }
+        map.put("d", 4);
+        Assert.assertEquals(Arrays.asList("a", "c", "d"), new ArrayList<>(map.keySet()));
+        map.put("e", 5);
+        Assert.assertEquals(Arrays.asList("a", "c", "e"), new ArrayList<>(map.keySet()));
+    }
+    
+    @Test
+    public void testWeigher() {
+        LinkedHashMap<String, String> map = new LinkedHashMap<>(
+                EvictionPolicy.LRU, 
+                10, 
+                (String key, String value) -> value.length());
+        map.put("a", "1234");
+        map.put("b", "1234");
+        Assert.assertEquals(2, map.size());
+        map.put("c", "123");
+        Assert.assertEquals(Arrays.asList("b", "c"), new ArrayList<>(map.keySet()));
+        map.put("b", "1234567");
+        Assert.assertEquals(Arrays.asList("c", "b"), new ArrayList<>(map.keySet()));
+        map.entryOfKey("c").setValue("12345");
+        map.put("d", "");
+        Assert.assertEquals(Arrays.asList("b", "d"), new ArrayList<>(map.keySet()));
+        map.put("e", "12345678901");
+        Assert.assertTrue(map.isEmpty());
+    }
+    
+    @Test
+    public void testEvictionEvent() {
+        MALinkedHashMap<String, Integer> map = 
+                new MALinkedHashMap.Builder<String, Integer>()
+                .setAccessMode(OrderAdjustMode.TAIL)
+                .setEvictionPolicy(EvictionPolicy.LRU)
+                .setMaxSize(2)
+                .build();
+        List<String> evicted = new ArrayList<>();
+        List<String> detached = new ArrayList<>();
+        map.addMapElementListener(
+                new MapElementListener<String, Integer>() {
+                    @Override
+                    public void modified(MapElementEvent<String, Integer> e) throws Throwable {
+                        if (e.getModificationType().contains(PropertyVersion.DETACH) &&
+                                !e.getModificationType().contains(PropertyVersion.ATTACH)) {
+                            detached.add(e.getKey(PropertyVersion.DETACH));
+                            if (e.getModification() instanceof EvictByPolicy<?, ?>) {
+                                EvictByPolicy<?, ?> modification = (EvictByPolicy<?, ?>)e.getModification();
+                                Assert.assertEquals(EvictionPolicy.LRU, modification.getEvictionPolicy());
+                                evicted.add((String)modification.getKey());
+                            }
+                        }
+                    }
+                });
+        map.put("a", 1);
+        map.put("b", 2);
+        map.access("a");
+        map.put("c", 3);
+        map.remove("a");
+        map.put("d", 4);
+        map.put("e", 5);
+        Assert.assertEquals(Arrays.asList("b", "a", "c"), detached);
+        Assert.assertEquals(Arrays.asList("b", "c"), evicted);
+        Assert.assertEquals(Arrays.asList("d", "e"), new ArrayList<>(map.keySet()));
+    }
+    
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testSerialization() throws IOException, ClassNotFoundException {
+        LinkedHashMap<String, String> map = new LinkedHashMap<>(EvictionPolicy.LFU, 8, new LengthWeigher());
+        map.put("a", "1234");
+        map.put("b", "1234");
+        ByteArrayOutputStream bout = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bout)) {
+            out.writeObject(map);
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bout.toByteArray()))) {
+            map = (LinkedHashMap<String, String>)in.readObject();
+        }
+        Assert.assertEquals(Arrays.asList("a", "b"), new ArrayList<>(map.keySet()));
+        map.put("c", "1");
+        Assert.assertEquals(Arrays.asList("b", "c"), new ArrayList<>(map.keySet()));
+    }
+    
+    private static class LengthWeigher implements Weigher<String, String>, Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public int weigh(String key, String value) {
+            return value.length();
+        }
+    }
+}
@@ -0,0 +1,249 @@
+/*
+ * BabyFish, Object Model Framework for Java and JPA.
+ * https://github.com/babyfish-ct/babyfish
+ *
+ * Copyright (c) 2008-2016, Tao Chen
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * Please visit "http://opensource.org/licenses/LGPL-3.0" to know more.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ */
+package org.babyfish.test.collection;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.babyfish.collection.MAArrayList;
+import org.babyfish.collection.MAHashMap;
+import org.babyfish.collection.MAHashSet;
+import org.babyfish.collection.MAList;
+import org.babyfish.collection.MAMap;
+import org.babyfish.collection.MASet;
+import org.babyfish.collection.event.ElementEvent;
+import org.babyfish.collection.event.ElementListener;
+import org.babyfish.collection.event.ListElementEvent;
+import org.babyfish.collection.event.ListElementListener;
+import org.babyfish.collection.event.MapElementEvent;
+import org.babyfish.collection.event.MapElementListener;
+import org.babyfish.collection.event.ModificationTypeFilter;
+import org.babyfish.data.ModificationException;
+import org.babyfish.data.event.ModificationType;
+import org.junit.Test;
+
+import junit.framework.Assert;
+
+/**
+ * @author Tao Chen
+ */
+public class ListenerDispatcherTest {
+
+    @Test
+    public void testPhases() {
+        List<String> logs = new ArrayList<>();
+        MAMap<String, Integer> map = new MAHashMap<>();
+        map.addMapElementListener(new MapElementListener<String, Integer>() {
+            @Override
+            public void modified(MapElementEvent<String, Integer> e) {
+                logs.add("modified-only:" + e.getModificationType());
+            }
+        });
+        map.addMapElementListener(new MapElementListener<String, Integer>() {
+            @Override
+            public void modifying(MapElementEvent<String, Integer> e) {
+                logs.add("modifying:" + e.getModificationType());
+            }
+            @Override
+            public void modified(MapElementEvent<String, Integer> e) {
+                logs.add("modified:" + e.getModificationType());
+            }
+        });
+        map.put("a", 1);
+        map.put("a", 2);
+        map.remove("a");
+        Assert.assertEquals(
+                Arrays.asList(
+                        "modifying:ATTACH", "modified-only:ATTACH", "modified:ATTACH",
+                        "modifying:REPLACE", "modified-only:REPLACE", "modified:REPLACE",
+                        "modifying:DETACH", "modified-only:DETACH", "modified:DETACH"
+                ), 
+                logs);
+    }
+    
+    @Test
+    public void testProtectedListenerFieldAssignedDirectly() {
+        List<String> logs = new ArrayList<>();
+        MapElementListener<String, Integer> listener1 = new MapElementListener<String, Integer>() {
+            @Override
+            public void modified(MapElementEvent<String, Integer> e) {
+                logs.add("listener1:" + e.getModificationType());
+            }
+        };
+        MapElementListener<String, Integer> listener2 = new MapElementListener<String, Integer>() {
+            @Override
+            public void modified(MapElementEvent<String, Integer> e) {
+                logs.add("listener2:" + e.getModificationType());
+            }
+        };
+        class DerivedMap extends MAHashMap<String, Integer> {
+            private static final long serialVersionUID = 1L;
+            void assignListener(MapElementListener<String, Integer> listener) {
+                this.mapElementListener = listener;
+            }
+        }
+        DerivedMap map = new DerivedMap();
+        map.assignListener(listener1);
+        map.put("a", 1);
+        map.assignListener(MapElementListener.combine(listener1, listener2));
+        map.put("a", 2);
+        map.addMapElementListener(listener1);
+        map.removeMapElementListener(listener2);
+        map.remove("a");
+        map.assignListener(null);
+        map.put("b", 1);
+        Assert.assertEquals(
+                Arrays.asList(
+                        "listener1:ATTACH", 
+                        "listener1:REPLACE", "listener2:REPLACE",
+                        "listener1:DETACH", "listener1:DETACH"
+                ), 
+                logs);
+    }
+    
+    @Test
+    public void testModificationTypeFilter() {
+        List<String> logs = new ArrayList<>();
+        MASet<String> set = new MAHashSet<>();
+        set.addElementListener(new AttachListener<>(logs));
+        set.addElementListener(new ElementListener<String>() {
+            @Override
+            public void modified(ElementEvent<String> e) {
+                logs.add("all:" + e.getModificationType());
+            }
+        });
+        set.add("a");
+        set.remove("a");
+        Assert.assertEquals(Arrays.asList("attach", "all:ATTACH", "all:DETACH"), logs);
+        
+        logs.clear();
+        set.removeElementListener(new AttachListener<>(logs));
+        set.add("b");
+        Assert.assertEquals(Arrays.asList("all:ATTACH"), logs);
+    }
+    
+    @Test
+    public void testCombinedListener() {
+        List<String> logs = new ArrayList<>();
+        MAList<String> list = new MAArrayList<>();
+        ElementListener<String> listener1 = new ElementListener<String>() {
+            @Override
+            public void modified(ElementEvent<String> e) {
+                logs.add("1");
+            }
+        };
+        ElementListener<String> listener2 = new ElementListener<String>() {
+            @Override
+            public void modified(ElementEvent<String> e) {
+                logs.add("2");
+            }
+        };
+        list.addElementListener(ElementListener.combine(listener1, listener2));
+        list.add("a");
+        Assert.assertEquals(Arrays.asList("1", "2"), logs);
+        
+        logs.clear();
+        list.removeElementListener(listener1);
+        list.add("b");
+        Assert.assertEquals(Arrays.asList("2"), logs);
+        
+        logs.clear();
+        list.removeElementListener(listener2);
+        list.add("c");
+        Assert.assertTrue(logs.isEmpty());
+    }
+    
+    @Test
+    public void testException() {
+        List<String> logs = new ArrayList<>();
+        MAList<String> list = new MAArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            String name = Integer.toString(i);
+            list.addListElementListener(new ListElementListener<String>() {
+                @Override
+                public void modifying(ListElementEvent<String> e) {
+                    logs.add(name);
+                    throw new IllegalStateException(name);
+                }
+            });
+        }
+        try {
+            list.add("a");
+            Assert.fail();
+        } catch (ModificationException ex) {
+            Assert.assertEquals("0", ex.getCause().getMessage());
+        }
+        Assert.assertEquals(Arrays.asList("0", "1", "2"), logs);
+        Assert.assertTrue(list.isEmpty());
+    }
+    
+    @Test
+    public void testListenerAddedByModifying() {
+        List<String> logs = new ArrayList<>();
+        MAMap<String, Integer> map = new MAHashMap<>();
+        MapElementListener<String, Integer> lateListener = new MapElementListener<String, Integer>() {
+            @Override
+            public void modified(MapElementEvent<String, Integer> e) {
+                logs.add("late");
+            }
+        };
+        map.addMapElementListener(new MapElementListener<String, Integer>() {
+            @Override
+            public void modifying(MapElementEvent<String, Integer> e) {
+                map.addMapElementListener(lateListener);
+            }
+        });
+        map.put("a", 1);
+        Assert.assertTrue(logs.isEmpty());
+        map.put("b", 2);
+        Assert.assertEquals(Arrays.asList("late"), logs);
+    }
+    
+    private static class AttachListener<E> implements ElementListener<E>, ModificationTypeFilter {
+        
+        private List<String> logs;
+        
+        AttachListener(List<String> logs) {
+            this.logs = logs;
+        }
+
+        @Override
+        public ModificationType getAcceptedModificationType() {
+            return ModificationType.ATTACH;
+        }
+
+        @Override
+        public void modified(ElementEvent<E> e) {
+            if (e.getModificationType() != ModificationType.ATTACH) {
+                throw new AssertionError();
+            }
+            this.logs.add("attach");
+        }
+
+        @Override
+        public int hashCode() {
+            return 0;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof AttachListener<?>;
+        }
+    }
+}
@@ -0,0 +1,249 @@
+/*
+ * BabyFish, Object Model Framework for Java and JPA.
+ * https://github.com/babyfish-ct/babyfish
+ *
+ * Copyright (c) 2008-2016, Tao Chen
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * Please visit "http://opensource.org/licenses/LGPL-3.0" to know more.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ */
+package org.babyfish.test.collection;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.NavigableMap;
+import java.util.Random;
+import java.util.TreeMap;
+
+import org.babyfish.collection.MappedTreeMap;
+import org.babyfish.collection.OffHeapSerializers;
+import org.babyfish.collection.XNavigableMap;
+import org.junit.Test;
+
+import junit.framework.Assert;
+
+/**
+ * @author Tao Chen
+ */
+public class MappedTreeMapTest {
+
+    @Test
+    public void testCompareWithTreeMap() throws IOException {
+        File file = createFile();
+        NavigableMap<Integer, String> expected = new java.util.TreeMap<>();
+        try (MappedTreeMap<Integer, String> map = new MappedTreeMap<>(
+                file, null, OffHeapSerializers.INTEGER, OffHeapSerializers.STRING, 1 << 16)) {
+            Random random = new Random(17);
+            for (int i = 0; i < 20000; i++) {
+                int key = random.nextInt(5000);
+                if (i % 3 == 0) {
+                    Assert.assertEquals(expected.remove(key), map.remove(key));
+                } else {
+                    String value = i % 7 == 0 ? null : "v" + key + "-" + i;
+                    Assert.assertEquals(expected.put(key, value), map.put(key, value));
+                }
+            }
+            assertMap(expected, map);
+            assertMap(expected.descendingMap(), map.descendingMap());
+            assertMap(expected.headMap(1700, true), map.headMap(1700, true));
+            assertMap(expected.subMap(1000, true, 4000, false), map.subMap(1000, true, 4000, false));
+            assertMap(
+                    expected.subMap(1000, false, 4000, true).descendingMap(), 
+                    map.subMap(1000, false, 4000, true).descendingMap());
+            for (int key = -1; key <= 5001; key += 3) {
+                Assert.assertEquals(key(expected.floorEntry(key)), key(map.floorEntry(key)));
+                Assert.assertEquals(key(expected.ceilingEntry(key)), key(map.ceilingEntry(key)));
+                Assert.assertEquals(key(expected.lowerEntry(key)), key(map.lowerEntry(key)));
+                Assert.assertEquals(key(expected.higherEntry(key)), key(map.higherEntry(key)));
+            }
+        } finally {
+            file.delete();
+        }
+    }
+    
+    @Test
+    public void testReopen() throws IOException {
+        File file = createFile();
+        try {
+            try (MappedTreeMap<String, Long> map = new MappedTreeMap<>(
+                    file, OffHeapSerializers.STRING, OffHeapSerializers.LONG)) {
+                for (long i = 0; i < 3000; i++) {
+                    map.put("key-" + i, i);
+                }
+            }
+            try (MappedTreeMap<String, Long> map = new MappedTreeMap<>(
+                    file, OffHeapSerializers.STRING, OffHeapSerializers.LONG)) {
+                Assert.assertEquals(3000, map.size());
+                Assert.assertEquals((Long)1234L, map.get("key-1234"));
+                Assert.assertEquals("key-0", map.firstKey());
+                Assert.assertEquals("key-999", map.lastKey());
+                map.put("key-1234", -1L);
+                map.remove("key-0");
+                map.flush();
+                map.put("a", 1L);
+                map.remove("a");
+            }
+            try (MappedTreeMap<String, Long> map = new MappedTreeMap<>(
+                    file, OffHeapSerializers.STRING, OffHeapSerializers.LONG)) {
+                Assert.assertEquals(2999, map.size());
+                Assert.assertEquals((Long)(-1L), map.get("key-1234"));
+                Assert.assertFalse(map.containsKey("key-0"));
+                Assert.assertFalse(map.containsKey("a"));
+            }
+        } finally {
+            file.delete();
+        }
+    }
+    
+    @Test
+    public void testDirtyFile() throws IOException {
+        File file = createFile();
+        try {
+            MappedTreeMap<Integer, Integer> map = new MappedTreeMap<>(
+                    file, OffHeapSerializers.INTEGER, OffHeapSerializers.INTEGER);
+            map.put(1, 1);
+            try {
+                new MappedTreeMap<>(file, OffHeapSerializers.INTEGER, OffHeapSerializers.INTEGER);
+                Assert.fail();
+            } catch (IllegalStateException ex) {
+            }
+            map.close();
+            Assert.assertTrue(map.isClosed());
+            try {
+                map.get(1);
+                Assert.fail();
+            } catch (IllegalStateException ex) {
+            }
+        } finally {
+            file.delete();
+        }
+    }
+    
+    @Test
+    public void testRecoverDirtyFile() throws IOException {
+        File file = createFile();
+        try {
+            NavigableMap<Integer, String> expected = new TreeMap<>();
+            MappedTreeMap<Integer, String> map = new MappedTreeMap<>(
+                    file, null, OffHeapSerializers.INTEGER, OffHeapSerializers.STRING, 1 << 12);
+            try {
+                for (int i = 0; i < 2000; i++) {
+                    map.put(i, "v" + i);
+                    expected.put(i, "v" + i);
+                }
+                map.flush();
+                for (int i = 0; i < 300; i++) {
+                    map.remove(i);
+                    expected.remove(i);
+                }
+                for (int i = 1000; i < 1100; i++) {
+                    map.put(i, "changed-value-" + i);
+                    expected.put(i, "changed-value-" + i);
+                }
+                for (int i = 2000; i < 2500; i++) {
+                    map.put(i, "v" + i);
+                    expected.put(i, "v" + i);
+                }
+                try {
+                    new MappedTreeMap<>(file, OffHeapSerializers.INTEGER, OffHeapSerializers.STRING);
+                    Assert.fail();
+                } catch (IllegalStateException ex) {
+                }
+                try (MappedTreeMap<Integer, String> recovered = new MappedTreeMap<>(
+                        file, null, OffHeapSerializers.INTEGER, OffHeapSerializers.STRING, 1 << 12, true)) {
+                    assertMap(expected, recovered);
+                    recovered.put(-1, "v-1");
+                    expected.put(-1, "v-1");
+                    recovered.headMap(500).clear();
+                    expected.headMap(500).clear();
+                    assertMap(expected, recovered);
+                }
+                try (MappedTreeMap<Integer, String> reopened = new MappedTreeMap<>(
+                        file, OffHeapSerializers.INTEGER, OffHeapSerializers.STRING)) {
+                    assertMap(expected, reopened);
+                }
+            } finally {
+                map.close();
+            }
+        } finally {
+            file.delete();
+        }
+    }
+    
+    @Test
+    public void testIteratorRemove() throws IOException {
+        File file = createFile();
+        try (MappedTreeMap<Integer, Integer> map = new MappedTreeMap<>(
+                file, null, OffHeapSerializers.INTEGER, OffHeapSerializers.INTEGER, 1 << 12)) {
+            for (int i = 0; i < 1000; i++) {
+                map.put(i, i);
+            }
+            for (Iterator<Entry<Integer, Integer>> itr = map.subMap(100, 900).entrySet().iterator(); itr.hasNext();) {
+                Entry<Integer, Integer> e = itr.next();
+                if (e.getKey() % 2 == 0) {
+                    itr.remove();
+                } else {
+                    e.setValue(-e.getKey());
+                }
+            }
+            for (Iterator<Integer> itr = map.descendingMap().headMap(100).keySet().iterator(); itr.hasNext();) {
+                if (itr.next() > 950) {
+                    itr.remove();
+                }
+            }
+            Assert.assertEquals(600 - 49, map.size());
+            Assert.assertNull(map.get(100));
+            Assert.assertEquals((Integer)(-101), map.get(101));
+            Assert.assertEquals((Integer)950, map.lastKey());
+            Assert.assertEquals(400, map.subMap(100, 900).size());
+            map.headMap(500).clear();
+            Assert.assertEquals((Integer)501, map.firstKey());
+            map.clear();
+            Assert.assertTrue(map.isEmpty());
+            map.put(3, 3);
+            Assert.assertEquals(0, map.indexOf(3));
+        } finally {
+            file.delete();
+        }
+    }
+    
+    private static void assertMap(NavigableMap<Integer, String> expected, XNavigableMap<Integer, String> map) {
+        Assert.assertEquals(expected.size(), map.size());
+        List<Entry<Integer, String>> entries = new ArrayList<>(expected.entrySet());
+        int index = 0;
+        for (Entry<Integer, String> e : map.entrySet()) {
+            Assert.assertEquals(entries.get(index).getKey(), e.getKey());
+            Assert.assertEquals(entries.get(index).getValue(), e.getValue());
+            Assert.assertEquals(index, map.indexOf(e.getKey()));
+            Assert.assertEquals(e.getKey(), map.entryAt(index).getKey());
+            index++;
+        }
+        Assert.assertEquals(expected.size(), index);
+        if (!expected.isEmpty()) {
+            Assert.assertEquals(expected.firstKey(), map.firstKey());
+            Assert.assertEquals(expected.lastKey(), map.lastKey());
+        }
+    }
+    
+    private static Integer key(Entry<Integer, ?> e) {
+        return e == null ? null : e.getKey();
+    }
+    
+    private static File createFile() throws IOException {
+        File file = File.createTempFile("babyfish-mapped-tree", ".dat");
+        file.deleteOnExit();
+        return file;
+    }
+}
@@ -0,0 +1,239 @@
+/*
+ * BabyFish, Object Model Framework for Java and JPA.
+ * https://github.com/babyfish-ct/babyfish
+ *
+ * Copyright (c) 2008-2016, Tao Chen
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * Please visit "http://opensource.org/licenses/LGPL-3.0" to know more.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ */
+package org.babyfish.test.collection;
+
+import java.util.Iterator;
+
+import org.babyfish.collection.MAArrayList;
+import org.babyfish.collection.MAHashMap;
+import org.babyfish.collection.MAList;
+import org.babyfish.collection.MAMap;
+import org.babyfish.collection.MATreeMap;
+import org.babyfish.collection.event.ElementEvent;
+import org.babyfish.collection.event.ElementListener;
+import org.babyfish.collection.event.ListElementEvent;
+import org.babyfish.collection.event.ListElementListener;
+import org.babyfish.collection.event.MapElementEvent;
+import org.babyfish.collection.event.MapElementListener;
+import org.babyfish.data.event.PropertyVersion;
+import org.junit.Test;
+
+import junit.framework.Assert;
+
+/**
+ * @author Tao Chen
+ */
+public class ModificationObservableTest {
+
+    @Test
+    public void testListenerAddedAfterUnobservedModifications() {
+        final StringBuilder builder = new StringBuilder();
+        MAMap<String, String> map = new MAHashMap<>();
+        map.put("A", "a");
+        map.put("B", "b");
+        map.remove("A");
+        map.addMapElementListener(new MapElementListener<String, String>() {
+            @Override
+            public void modified(MapElementEvent<String, String> e) throws Throwable {
+                builder.append(e.getKey(PropertyVersion.ATTACH));
+            }
+        });
+        map.put("C", "c");
+        Assert.assertEquals("C", builder.toString());
+        Assert.assertEquals(2, map.size());
+    }
+    
+    @Test
+    public void testViewListenerOfUnobservedMap() {
+        final StringBuilder builder = new StringBuilder();
+        MAMap<String, String> map = new MATreeMap<>();
+        map.put("A", "a");
+        map.put("B", "b");
+        map.put("C", "c");
+        map.keySet().addElementListener(new ElementListener<String>() {
+            @Override
+            public void modified(ElementEvent<String> e) throws Throwable {
+                builder.append(e.getElement(PropertyVersion.DETACH));
+            }
+        });
+        map.keySet().remove("A");
+        Iterator<String> itr = map.keySet().iterator();
+        itr.next();
+        itr.remove();
+        map.remove("C");
+        Assert.assertEquals("AB", builder.toString());
+        Assert.assertTrue(map.isEmpty());
+    }
+    
+    @Test
+    public void testOverriddenEventHandlingMethod() {
+        final StringBuilder builder = new StringBuilder();
+        MAMap<String, String> map = new MAHashMap<String, String>() {
+            private static final long serialVersionUID = 1L;
+            @Override
+            protected void onModified(MapElementEvent<String, String> e) throws Throwable {
+                builder.append(e.getKey(PropertyVersion.ATTACH));
+            }
+        };
+        map.put("A", "a");
+        map.entrySet().iterator().next().setValue("b");
+        Assert.assertEquals("AA", builder.toString());
+    }
+    
+    @Test
+    public void testSubListBubblesToObservedList() {
+        final StringBuilder builder = new StringBuilder();
+        MAList<String> list = new MAArrayList<>();
+        list.add("A");
+        list.add("B");
+        list.add("C");
+        list.addListElementListener(new ListElementListener<String>() {
+            @Override
+            public void modified(ListElementEvent<String> e) throws Throwable {
+                builder
+                .append(e.getElement(PropertyVersion.ATTACH))
+                .append(e.getIndex(PropertyVersion.ATTACH));
+            }
+        });
+        MAList<String> subList = list.subList(1, 3);
+        subList.add("D");
+        subList.listIterator(1).add("E");
+        Assert.assertEquals("D3E2", builder.toString());
+        Assert.assertEquals("[A, B, E, C, D]", list.toString());
+    }
+    
+    @Test
+    public void testSubListDoesNotBubbleToUnobservedLists() {
+        final StringBuilder builder = new StringBuilder();
+        MAList<String> list = new MAArrayList<>();
+        list.add("A");
+        list.add("B");
+        list.add("C");
+        final MAList<String> subList = list.subList(1, 3);
+        MAList<String> subSubList = subList.subList(0, 1);
+        subSubList.addListElementListener(new ListElementListener<String>() {
+            @Override
+            public void modified(ListElementEvent<String> e) throws Throwable {
+                builder.append(e.getElement(PropertyVersion.ATTACH));
+                Assert.assertNull(e.getBubbledEvent(subList));
+            }
+        });
+        subSubList.add("D");
+        Assert.assertEquals("D", builder.toString());
+        Assert.assertEquals("[A, B, D, C]", list.toString());
+    }
+    
+    @Test
+    public void testCauseChainOfObservedList() {
+        final StringBuilder builder = new StringBuilder();
+        final ListElementEvent<?>[] subSubListEvents = new ListElementEvent<?>[1];
+        MAList<String> list = new MAArrayList<>();
+        list.add("A");
+        list.add("B");
+        list.add("C");
+        final MAList<String> subList = list.subList(1, 3);
+        final MAList<String> subSubList = subList.subList(0, 1);
+        subSubList.addListElementListener(new ListElementListener<String>() {
+            @Override
+            public void modifying(ListElementEvent<String> e) throws Throwable {
+                subSubListEvents[0] = e;
+            }
+        });
+        list.addListElementListener(new ListElementListener<String>() {
+            @Override
+            public void modified(ListElementEvent<String> e) throws Throwable {
+                ListElementEvent<String> subListEvent = e.getCause().getViewEvent();
+                Assert.assertSame(subList, subListEvent.getSource());
+                Assert.assertSame(subListEvent, subSubListEvents[0].getBubbledEvent(subList));
+                Assert.assertSame(subSubListEvents[0], subListEvent.getCause().getViewEvent());
+                Assert.assertSame(e, subListEvent.getBubbledEvent(e.getSource()));
+                builder
+                .append(e.getElement(PropertyVersion.ATTACH))
+                .append(e.getIndex(PropertyVersion.ATTACH));
+            }
+        });
+        subSubList.add("D");
+        Assert.assertEquals("D2", builder.toString());
+        Assert.assertEquals("[A, B, D, C]", list.toString());
+    }
+    
+    @Test
+    public void testKeySetDoesNotBubbleToUnobservedMap() {
+        final StringBuilder builder = new StringBuilder();
+        final MAMap<String, String> map = new MAHashMap<>();
+        map.put("A", "a");
+        map.put("B", "b");
+        map.keySet().addElementListener(new ElementListener<String>() {
+            @Override
+            public void modified(ElementEvent<String> e) throws Throwable {
+                builder.append(e.getElement(PropertyVersion.DETACH));
+                Assert.assertNull(e.getBubbledEvent(map));
+            }
+        });
+        map.keySet().remove("A");
+        Assert.assertEquals("A", builder.toString());
+        Assert.assertEquals(1, map.size());
+    }
+    
+    @Test
+    public void testListenerOfParentViewAddedAfterChildView() {
+        final StringBuilder builder = new StringBuilder();
+        MAList<String> list = new MAArrayList<>();
+        list.add("A");
+        list.add("B");
+        list.add("C");
+        MAList<String> subList = list.subList(1, 3);
+        MAList<String> subSubList = subList.subList(0, 1);
+        subSubList.add("D");
+        ListElementListener<String> listener = new ListElementListener<String>() {
+            @Override
+            public void modified(ListElementEvent<String> e) throws Throwable {
+                builder.append(e.getElement(PropertyVersion.ATTACH));
+            }
+        };
+        subList.addListElementListener(listener);
+        subSubList.add("E");
+        subList.removeListElementListener(listener);
+        subSubList.add("F");
+        Assert.assertEquals("E", builder.toString());
+        Assert.assertEquals("[A, B, D, E, F, C]", list.toString());
+    }
+    
+    @Test
+    public void testListenerOfRootAddedAfterIterator() {
+        final StringBuilder builder = new StringBuilder();
+        MAMap<String, String> map = new MATreeMap<>();
+        map.put("A", "a");
+        map.put("B", "b");
+        Iterator<String> itr = map.keySet().iterator();
+        MapElementListener<String, String> listener = new MapElementListener<String, String>() {
+            @Override
+            public void modified(MapElementEvent<String, String> e) throws Throwable {
+                builder.append(e.getKey(PropertyVersion.DETACH));
+            }
+        };
+        map.addMapElementListener(listener);
+        itr.next();
+        itr.remove();
+        map.removeMapElementListener(listener);
+        itr.next();
+        itr.remove();
+        Assert.assertEquals("A", builder.toString());
+        Assert.assertTrue(map.isEmpty());
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * BabyFish, Object Model Framework for Java and JPA.
+ * https://github.com/babyfish-ct/babyfish
+ *
+ * Copyright (c) 2008-2016, Tao Chen
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * Please visit "http://opensource.org/licenses/LGPL-3.0" to know more.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ */
+package org.babyfish.test.collection;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.Random;
+
+import org.babyfish.collection.MACollections;
+import org.babyfish.collection.MATreeMap;
+import org.babyfish.collection.TreeMap;
+import org.babyfish.collection.XNavigableMap;
+import org.junit.Test;
+
+import junit.framework.Assert;
+
+/**
+ * @author Tao Chen
+ */
+public class NavigableMapIndexTest {
+
+    @Test
+    public void testTreeMap() {
+        testIndex(new TreeMap<Integer, String>());
+    }
+    
+    @Test
+    public void testMATreeMap() {
+        testIndex(new MATreeMap<Integer, String>());
+    }
+    
+    @Test
+    public void testWrappers() {
+        XNavigableMap<Integer, String> map = new MATreeMap<>();
+        for (int i = 0; i < 10; i++) {
+            map.put(i * 10, "v" + i);
+        }
+        XNavigableMap<Integer, String> unmodifiable = MACollections.unmodifiable(map);
+        Assert.assertEquals(Integer.valueOf(30), unmodifiable.entryAt(3).getKey());
+        Assert.assertEquals(3, unmodifiable.indexOf(30));
+        Assert.assertEquals(Integer.valueOf(70), unmodifiable.descendingMap().entryAt(2).getKey());
+        XNavigableMap<Integer, String> locked = MACollections.locked(map);
+        Assert.assertEquals(Integer.valueOf(40), locked.entryAt(4).getKey());
+        Assert.assertEquals(-1, locked.indexOf(41));
+        Assert.assertEquals(1, locked.tailMap(50).indexOf(60));
+    }
+    
+    @Test
+    public void testEntryAtIsUpdatable() {
+        MATreeMap<Integer, String> map = new MATreeMap<>();
+        map.put(1, "a");
+        map.put(2, "b");
+        map.put(3, "c");
+        map.headMap(3).entryAt(1).setValue("B");
+        Assert.assertEquals("B", map.get(2));
+    }
+    
+    @Test
+    public void testIndexOutOfBounds() {
+        XNavigableMap<Integer, String> map = new TreeMap<>();
+        map.put(1, "a");
+        map.put(2, "b");
+        map.put(3, "c");
+        assertIndexOutOfBounds(map, -1);
+        assertIndexOutOfBounds(map, 3);
+        assertIndexOutOfBounds(map.headMap(2), 1);
+        assertIndexOutOfBounds(map.tailMap(4), 0);
+    }
+    
+    private static void testIndex(XNavigableMap<Integer, String> map) {
+        Random random = new Random(31);
+        for (int i = 0; i < 1000; i++) {
+            int key = random.nextInt(2000);
+            if (i % 3 == 0) {
+                map.remove(key);
+            } else {
+                map.put(key, "v" + key);
+            }
+        }
+        assertIndex(map);
+        assertIndex(map.descendingMap());
+        assertIndex(map.headMap(700, true));
+        assertIndex(map.tailMap(300, false));
+        assertIndex(map.subMap(500, true, 1500, false));
+        assertIndex(map.subMap(500, true, 1500, false).descendingMap());
+        assertIndex(map.descendingMap().subMap(1800, false, 200, true));
+        assertIndex(map.subMap(2500, true, 3000, true));
+    }
+    
+    private static void assertIndex(XNavigableMap<Integer, String> map) {
+        List<Integer> keys = new ArrayList<>(map.keySet());
+        Assert.assertEquals(keys.size(), map.size());
+        for (int i = 0; i < keys.size(); i++) {
+            Entry<Integer, String> entry = map.entryAt(i);
+            Assert.assertEquals(keys.get(i), entry.getKey());
+            Assert.assertEquals("v" + keys.get(i), entry.getValue());
+            Assert.assertEquals(i, map.indexOf(keys.get(i)));
+        }
+        for (int key = -1; key <= 2001; key += 7) {
+            Assert.assertEquals(keys.indexOf(key), map.indexOf(key));
+        }
+    }
+    
+    private static void assertIndexOutOfBounds(XNavigableMap<Integer, String> map, int index) {
+        try {
+            map.entryAt(index);
+            Assert.fail();
+        } catch (IndexOutOfBoundsException ex) {
+        }
+    }
+}
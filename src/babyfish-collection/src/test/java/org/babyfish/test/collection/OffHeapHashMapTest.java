@@ -0,0 +1,162 @@
+/*
+ * BabyFish, Object Model Framework for Java and JPA.
+ * https://github.com/babyfish-ct/babyfish
+ *
+ * Copyright (c) 2008-2016, Tao Chen
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * Please visit "http://opensource.org/licenses/LGPL-3.0" to know more.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ */
+package org.babyfish.test.collection;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.NotSerializableException;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.Iterator;
+import java.util.Map.Entry;
+
+import org.babyfish.collection.OffHeapHashMap;
+import org.babyfish.collection.OffHeapSerializers;
+import org.junit.Test;
+
+import junit.framework.Assert;
+
+/**
+ * @author Tao Chen
+ */
+public class OffHeapHashMapTest {
+
+    @Test
+    public void testPutGetRemove() {
+        try (OffHeapHashMap<String, String> map = 
+                new OffHeapHashMap<>(OffHeapSerializers.STRING, OffHeapSerializers.STRING)) {
+            Assert.assertNull(map.put("a", "1"));
+            Assert.assertNull(map.put("b", null));
+            Assert.assertEquals(2, map.size());
+            Assert.assertEquals("1", map.get("a"));
+            Assert.assertNull(map.get("b"));
+            Assert.assertTrue(map.containsKey("b"));
+            Assert.assertFalse(map.containsKey("c"));
+            Assert.assertNull(map.get(3));
+            Assert.assertEquals("1", map.put("a", "2"));
+            Assert.assertEquals("2", map.put("a", "a much longer value"));
+            Assert.assertEquals("a much longer value", map.get("a"));
+            Assert.assertTrue(map.containsValue("a much longer value"));
+            Assert.assertEquals("a much longer value", map.remove("a"));
+            Assert.assertNull(map.remove("a"));
+            Assert.assertEquals(1, map.size());
+            map.clear();
+            Assert.assertTrue(map.isEmpty());
+        }
+    }
+    
+    @Test
+    public void testIterator() {
+        try (OffHeapHashMap<Integer, Long> map = 
+                new OffHeapHashMap<>(OffHeapSerializers.INTEGER, OffHeapSerializers.LONG)) {
+            for (int i = 0; i < 100; i++) {
+                map.put(i, i * 10L);
+            }
+            long sum = 0;
+            for (Iterator<Entry<Integer, Long>> itr = map.entrySet().iterator(); itr.hasNext();) {
+                Entry<Integer, Long> e = itr.next();
+                Assert.assertEquals(e.getKey() * 10L, e.getValue().longValue());
+                sum += e.getKey();
+                if (e.getKey() % 2 == 0) {
+                    itr.remove();
+                } else {
+                    e.setValue(-1L);
+                }
+            }
+            Assert.assertEquals(4950, sum);
+            Assert.assertEquals(50, map.size());
+            Assert.assertNull(map.get(2));
+            Assert.assertEquals((Long)(-1L), map.get(3));
+            map.keySet().removeIf(k -> k > 10);
+            Assert.assertEquals(5, map.size());
+        }
+    }
+    
+    @Test
+    public void testGrowAndCompact() {
+        try (OffHeapHashMap<Integer, byte[]> map = 
+                new OffHeapHashMap<>(OffHeapSerializers.INTEGER, OffHeapSerializers.BYTE_ARRAY, 4, .75F, 4096)) {
+            for (int i = 0; i < 1000; i++) {
+                map.put(i, new byte[] { (byte)i });
+            }
+            long allocatedBytes = map.allocatedBytes();
+            for (int round = 2; round < 20; round++) {
+                for (int i = 0; i < 1000; i++) {
+                    byte[] value = new byte[round];
+                    value[0] = (byte)i;
+                    map.put(i, value);
+                }
+            }
+            for (int i = 0; i < 1000; i++) {
+                byte[] value = map.get(i);
+                Assert.assertEquals(19, value.length);
+                Assert.assertEquals((byte)i, value[0]);
+            }
+            Assert.assertTrue(map.allocatedBytes() < allocatedBytes * 19);
+        }
+    }
+    
+    @Test
+    public void testClose() {
+        OffHeapHashMap<String, String> map = 
+                new OffHeapHashMap<>(OffHeapSerializers.STRING, OffHeapSerializers.STRING);
+        map.put("a", "b");
+        map.close();
+        Assert.assertTrue(map.isClosed());
+        Assert.assertEquals(0L, map.allocatedBytes());
+        try {
+            map.get("a");
+            Assert.fail();
+        } catch (IllegalStateException ex) {
+        }
+        try {
+            map.put("c", "d");
+            Assert.fail();
+        } catch (IllegalStateException ex) {
+        }
+        try {
+            map.size();
+            Assert.fail();
+        } catch (IllegalStateException ex) {
+        }
+        map.close();
+    }
+    
+    @Test
+    public void testNotSerializable() throws IOException {
+        try (SerializableOffHeapHashMap map = new SerializableOffHeapHashMap()) {
+            map.put("a", "b");
+            try (ObjectOutputStream out = new ObjectOutputStream(new ByteArrayOutputStream())) {
+                out.writeObject(map);
+                Assert.fail();
+            } catch (NotSerializableException ex) {
+            }
+        }
+    }
+    
+    private static class SerializableOffHeapHashMap 
+    extends OffHeapHashMap<String, String> 
+    implements Serializable {
+        
+        private static final long serialVersionUID = 1924683516352790541L;
+
+        SerializableOffHeapHashMap() {
+            super(OffHeapSerializers.STRING, OffHeapSerializers.STRING);
+        }
+    }
+}
@@ -0,0 +1,204 @@
+/*
+ * BabyFish, Object Model Framework for Java and JPA.
+ * https://github.com/babyfish-ct/babyfish
+ *
+ * Copyright (c) 2008-2016, Tao Chen
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * Please visit "http://opensource.org/licenses/LGPL-3.0" to know more.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ */
+package org.babyfish.test.collection;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.Lock;
+
+import org.babyfish.collection.HashMap;
+import org.babyfish.collection.HashStorage;
+import org.babyfish.collection.MACollections;
+import org.babyfish.collection.MAHashMap;
+import org.babyfish.collection.MAMap;
+import org.babyfish.collection.OptimisticReadWriteLock;
+import org.babyfish.collection.TreeMap;
+import org.babyfish.collection.XMap;
+import org.babyfish.collection.event.MapElementEvent;
+import org.babyfish.collection.event.MapElementListener;
+import org.junit.Test;
+
+import junit.framework.Assert;
+
+/**
+ * @author Tao Chen
+ */
+public class OptimisticReadWriteLockTest {
+
+    @Test
+    public void testOptimisticRead() {
+        OptimisticReadWriteLock lock = new OptimisticReadWriteLock();
+        XMap<String, Integer> map = MACollections.locked(new HashMap<String, Integer>(), lock);
+        map.put("a", 1);
+        map.put("b", 2);
+        Assert.assertEquals((Integer)1, map.get("a"));
+        Assert.assertNull(map.get("c"));
+        Assert.assertTrue(map.containsKey("b"));
+        Assert.assertFalse(map.containsKey("c"));
+        Assert.assertEquals(2, map.size());
+        Assert.assertFalse(map.isEmpty());
+        Assert.assertEquals(6, lock.getOptimisticReadCount());
+        Assert.assertEquals(0, lock.getFallbackReadCount());
+        Assert.assertEquals(0D, lock.getOptimisticRetryRate());
+    }
+    
+    @Test
+    public void testUnsupportedMapUsesLock() {
+        OptimisticReadWriteLock lock = new OptimisticReadWriteLock();
+        HashMap<String, Integer> target = new HashMap<String, Integer>(HashStorage.OPEN_ADDRESSING);
+        Assert.assertFalse(target.isReadWriteLockSupported());
+        XMap<String, Integer> map = MACollections.locked(target, lock);
+        map.put("a", 1);
+        Assert.assertEquals((Integer)1, map.get("a"));
+        Assert.assertEquals(0, lock.getOptimisticReadCount());
+        Assert.assertEquals(0, lock.getFallbackReadCount());
+    }
+    
+    @Test
+    public void testFallback() throws InterruptedException {
+        OptimisticReadWriteLock lock = new OptimisticReadWriteLock();
+        XMap<Integer, Integer> map = MACollections.locked(new TreeMap<Integer, Integer>(), lock);
+        map.put(1, 2);
+        Lock writeLock = lock.writeLock();
+        writeLock.lock();
+        AtomicReference<Integer> ref = new AtomicReference<>();
+        CountDownLatch latch = new CountDownLatch(1);
+        Thread reader = new Thread(() -> {
+            latch.countDown();
+            ref.set(map.get(1));
+        });
+        try {
+            reader.start();
+            latch.await();
+            Thread.sleep(50);
+        } finally {
+            writeLock.unlock();
+        }
+        reader.join();
+        Assert.assertEquals((Integer)2, ref.get());
+        Assert.assertEquals(0, lock.getOptimisticReadCount());
+        Assert.assertEquals(1, lock.getFallbackReadCount());
+        Assert.assertEquals(1D, lock.getOptimisticRetryRate());
+        lock.resetStatistics();
+        Assert.assertEquals(0, lock.getFallbackReadCount());
+    }
+    
+    @Test
+    public void testListenerReadsDuringWrite() {
+        OptimisticReadWriteLock lock = new OptimisticReadWriteLock();
+        MAMap<String, Integer> map = MACollections.locked(new MAHashMap<String, Integer>(), lock);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        map.addMapElementListener(new MapElementListener<String, Integer>() {
+            @Override
+            public void modified(MapElementEvent<String, Integer> e) {
+                try {
+                    map.get("a");
+                } catch (Throwable ex) {
+                    failure.set(ex);
+                }
+            }
+        });
+        map.put("a", 1);
+        Assert.assertTrue(failure.get() instanceof IllegalStateException);
+        
+        // The lock is still usable after the reentry is refused
+        Assert.assertEquals((Integer)1, map.get("a"));
+        Lock writeLock = lock.writeLock();
+        writeLock.lock();
+        try {
+            try {
+                lock.readLock().lock();
+                Assert.fail();
+            } catch (IllegalStateException ex) {
+            }
+            try {
+                writeLock.lock();
+                Assert.fail();
+            } catch (IllegalStateException ex) {
+            }
+        } finally {
+            writeLock.unlock();
+        }
+        
+        // The default lock is reentrant
+        MAMap<String, Integer> defaultMap = MACollections.locked(new MAHashMap<String, Integer>());
+        AtomicReference<Integer> ref = new AtomicReference<>();
+        defaultMap.addMapElementListener(new MapElementListener<String, Integer>() {
+            @Override
+            public void modified(MapElementEvent<String, Integer> e) {
+                ref.set(defaultMap.get("a"));
+            }
+        });
+        defaultMap.put("a", 1);
+        Assert.assertEquals((Integer)1, ref.get());
+    }
+    
+    @Test
+    public void testConcurrentReadAndWrite() throws InterruptedException {
+        testConcurrentReadAndWrite(new HashMap<Integer, Integer>());
+        testConcurrentReadAndWrite(new TreeMap<Integer, Integer>());
+    }
+    
+    private static void testConcurrentReadAndWrite(XMap<Integer, Integer> target) throws InterruptedException {
+        OptimisticReadWriteLock lock = new OptimisticReadWriteLock();
+        XMap<Integer, Integer> map = MACollections.locked(target, lock);
+        for (int i = 0; i < 100; i++) {
+            map.put(i, i * 2);
+        }
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread writer = new Thread(() -> {
+            for (int round = 0; round < 200; round++) {
+                for (int i = 100; i < 1000; i++) {
+                    map.put(i, i * 2);
+                }
+                for (int i = 100; i < 1000; i++) {
+                    map.remove(i);
+                }
+            }
+        });
+        Thread[] readers = new Thread[4];
+        for (int r = 0; r < readers.length; r++) {
+            readers[r] = new Thread(() -> {
+                try {
+                    for (int round = 0; round < 20000; round++) {
+                        int key = round % 100;
+                        Assert.assertEquals((Integer)(key * 2), map.get(key));
+                        Assert.assertTrue(map.containsKey(key));
+                        Assert.assertTrue(map.size() >= 100);
+                    }
+                } catch (Throwable ex) {
+                    failure.compareAndSet(null, ex);
+                }
+            });
+        }
+        writer.start();
+        for (Thread reader : readers) {
+            reader.start();
+        }
+        writer.join();
+        for (Thread reader : readers) {
+            reader.join();
+        }
+        if (failure.get() != null) {
+            throw new AssertionError(failure.get());
+        }
+        Assert.assertEquals(
+                readers.length * 20000L * 3, 
+                lock.getOptimisticReadCount() + lock.getFallbackReadCount());
+    }
+}
@@ -0,0 +1,208 @@
+/*
+ * BabyFish, Object Model Framework for Java and JPA.
+ * https://github.com/babyfish-ct/babyfish
+ *
+ * Copyright (c) 2008-2016, Tao Chen
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * Please visit "http://opensource.org/licenses/LGPL-3.0" to know more.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ */
+package org.babyfish.test.collection;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Random;
+
+import org.babyfish.collection.BidiType;
+import org.babyfish.collection.IntHashMap;
+import org.babyfish.collection.LongHashMap;
+import org.babyfish.collection.LongHashSet;
+import org.babyfish.collection.MALongHashMap;
+import org.babyfish.collection.MALongHashSet;
+import org.babyfish.collection.event.ElementEvent;
+import org.babyfish.collection.event.ElementListener;
+import org.babyfish.collection.event.MapElementEvent;
+import org.babyfish.collection.event.MapElementListener;
+import org.babyfish.data.event.PropertyVersion;
+import org.junit.Test;
+
+import junit.framework.Assert;
+
+/**
+ * @author Tao Chen
+ */
+public class PrimitiveHashMapTest {
+
+    @Test
+    public void testReadWriteLockIsNotSupported() {
+        // The read operations cache the entry flyweights
+        Assert.assertFalse(new LongHashMap<Long>().isReadWriteLockSupported());
+        Assert.assertFalse(new IntHashMap<Long>().isReadWriteLockSupported());
+    }
+
+    @Test
+    public void testRandomModifications() {
+        Random random = new Random(31);
+        LongHashMap<Long> map = new LongHashMap<>();
+        Map<Long, Long> expected = new java.util.HashMap<>();
+        for (int i = 0; i < 100000; i++) {
+            // Small key range with the multiple of 1024 makes many collisions and tombstones
+            long key = (random.nextInt(2000) - 1000) * 1024L;
+            if (random.nextInt(3) == 0) {
+                Assert.assertEquals(expected.remove(key), map.remove(key));
+            } else {
+                Assert.assertEquals(expected.put(key, Long.valueOf(i)), map.put(key, Long.valueOf(i)));
+            }
+            Assert.assertEquals(expected.size(), map.size());
+        }
+        Assert.assertEquals(expected, map);
+        Assert.assertEquals(map, expected);
+        for (long key = -1000 * 1024L; key < 1000 * 1024L; key += 1024) {
+            Assert.assertEquals(expected.get(key), map.get(key));
+            Assert.assertEquals(expected.containsKey(key), map.containsKey(key));
+        }
+        Assert.assertNull(map.get("0"));
+        Assert.assertFalse(map.containsKey(Integer.valueOf(0)));
+    }
+    
+    @Test
+    public void testEntryAfterRehashAndRemove() {
+        IntHashMap<String> map = new IntHashMap<>(4);
+        map.put(1, "a");
+        Entry<Integer, String> entry = map.entrySet().iterator().next();
+        for (int i = 2; i < 100; i++) {
+            map.put(i, "v" + i);
+        }
+        entry.setValue("b");
+        Assert.assertEquals("b", map.get(1));
+        map.remove(1);
+        Assert.assertEquals("b", entry.getValue());
+        Assert.assertEquals(Integer.valueOf(1), entry.getKey());
+        Assert.assertNull(map.entryOfKey(1));
+    }
+    
+    @Test
+    public void testIteratorRemove() {
+        LongHashSet set = new LongHashSet();
+        for (long i = 0; i < 1000; i++) {
+            set.add(i * i);
+        }
+        Iterator<Long> itr = set.iterator();
+        while (itr.hasNext()) {
+            if (itr.next() % 2 == 0) {
+                itr.remove();
+            }
+        }
+        Assert.assertEquals(500, set.size());
+        for (long i = 0; i < 1000; i++) {
+            Assert.assertEquals(i % 2 != 0, set.contains(i * i));
+        }
+        Assert.assertFalse(set.add(1L));
+        Assert.assertTrue(set.remove(1L));
+        Assert.assertFalse(set.remove("1"));
+    }
+    
+    @Test
+    public void testBidi() {
+        LongHashMap<String> map = new LongHashMap<>(BidiType.NONNULL_VALUES);
+        map.put(1L, "a");
+        map.put(2L, "b");
+        map.put(3L, "a");
+        Assert.assertEquals(2, map.size());
+        Assert.assertFalse(map.containsKey(1L));
+        Assert.assertEquals(Long.valueOf(3L), map.entryOfValue("a").getKey());
+        map.remove(3L);
+        map.put(4L, "a");
+        Assert.assertEquals(Long.valueOf(4L), map.entryOfValue("a").getKey());
+    }
+    
+    @Test
+    public void testModificationEvents() {
+        final StringBuilder builder = new StringBuilder();
+        MALongHashMap<String> map = new MALongHashMap<>();
+        map.put(1L, "a");
+        map.put(2L, "b");
+        map.addMapElementListener(new MapElementListener<Long, String>() {
+            @Override
+            public void modified(MapElementEvent<Long, String> e) throws Throwable {
+                if (e.getModificationType().contains(PropertyVersion.DETACH)) {
+                    builder.append("-").append(e.getKey(PropertyVersion.DETACH));
+                }
+                if (e.getModificationType().contains(PropertyVersion.ATTACH)) {
+                    builder.append("+").append(e.getKey(PropertyVersion.ATTACH));
+                }
+            }
+        });
+        map.put(3L, "c");
+        map.remove(1L);
+        map.put(2L, "d");
+        Assert.assertEquals("+3-1-2+2", builder.toString());
+        Assert.assertEquals("d", map.get(2L));
+        
+        final StringBuilder setBuilder = new StringBuilder();
+        MALongHashSet set = new MALongHashSet();
+        set.add(1L);
+        set.addElementListener(new ElementListener<Long>() {
+            @Override
+            public void modified(ElementEvent<Long> e) throws Throwable {
+                if (e.getModificationType().contains(PropertyVersion.DETACH)) {
+                    setBuilder.append("-").append(e.getElement(PropertyVersion.DETACH));
+                }
+                if (e.getModificationType().contains(PropertyVersion.ATTACH)) {
+                    setBuilder.append("+").append(e.getElement(PropertyVersion.ATTACH));
+                }
+            }
+        });
+        set.add(2L);
+        set.remove(1L);
+        Assert.assertEquals("+2-1", setBuilder.toString());
+    }
+    
+    @Test
+    public void testSerialization() throws IOException, ClassNotFoundException {
+        LongHashMap<String> map = new LongHashMap<>();
+        for (long i = 0; i < 100; i++) {
+            map.put(i << 32, "v" + i);
+        }
+        for (long i = 0; i < 100; i += 2) {
+            map.remove(i << 32);
+        }
+        LongHashMap<String> clone = serializingClone(map);
+        Assert.assertEquals(map, clone);
+        Assert.assertEquals("v99", clone.get(99L << 32));
+        
+        LongHashSet set = new LongHashSet();
+        set.add(-1L);
+        set.add(Long.MAX_VALUE);
+        Assert.assertEquals(set, serializingClone(set));
+    }
+    
+    @SuppressWarnings("unchecked")
+    private static <T> T serializingClone(T o) throws IOException, ClassNotFoundException {
+        byte[] buffer;
+        try (ByteArrayOutputStream bout = new ByteArrayOutputStream();
+                ObjectOutputStream oout = new ObjectOutputStream(bout)) {
+            oout.writeObject(o);
+            oout.flush();
+            buffer = bout.toByteArray();
+        }
+        try (ByteArrayInputStream bin = new ByteArrayInputStream(buffer);
+            ObjectInputStream oin = new ObjectInputStream(bin)) {
+            return (T)oin.readObject();
+        }
+    }
+}
@@ -0,0 +1,215 @@
+/*
+ * BabyFish, Object Model Framework for Java and JPA.
+ * https://github.com/babyfish-ct/babyfish
+ *
+ * Copyright (c) 2008-2016, Tao Chen
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * Please visit "http://opensource.org/licenses/LGPL-3.0" to know more.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ */
+package org.babyfish.test.collection;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.NavigableMap;
+import java.util.Random;
+
+import org.babyfish.collection.MATreeMap;
+import org.babyfish.collection.MATreeSet;
+import org.babyfish.collection.TreeMap;
+import org.babyfish.collection.TreeSet;
+import org.babyfish.collection.XNavigableMap;
+import org.babyfish.collection.event.ElementEvent;
+import org.babyfish.collection.event.ElementListener;
+import org.babyfish.collection.event.MapElementEvent;
+import org.babyfish.collection.event.MapElementListener;
+import org.babyfish.data.event.PropertyVersion;
+import org.junit.Test;
+
+import junit.framework.Assert;
+
+/**
+ * @author Tao Chen
+ */
+public class RedBlackTreeBulkTest {
+
+    @Test
+    public void testBuildFromSortedMap() {
+        Map<Integer, String> sorted = new LinkedHashMap<>();
+        for (int i = 0; i < 1000; i++) {
+            sorted.put(i * 2, "v" + i);
+        }
+        TreeMap<Integer, String> map = new TreeMap<>();
+        map.putAll(sorted);
+        assertSameMap(sorted, map);
+        Assert.assertEquals(500, map.headMap(1000).size());
+        Assert.assertEquals(Integer.valueOf(0), map.firstKey());
+        Assert.assertEquals(Integer.valueOf(1998), map.lastKey());
+        assertModifiable(map);
+    }
+    
+    @Test
+    public void testMergeIntoNonEmptyTree() {
+        TreeMap<Integer, String> map = new TreeMap<>();
+        for (int i = 0; i < 100; i++) {
+            map.put(i * 3, "old" + i);
+        }
+        Map<Integer, String> sorted = new LinkedHashMap<>();
+        for (int i = 0; i < 200; i++) {
+            sorted.put(i * 2, "new" + i);
+        }
+        java.util.TreeMap<Integer, String> expected = new java.util.TreeMap<>(map);
+        expected.putAll(sorted);
+        map.putAll(sorted);
+        assertSameMap(expected, map);
+        Assert.assertEquals("new3", map.get(6));
+        Assert.assertEquals("old1", map.get(3));
+        assertModifiable(map);
+    }
+    
+    @Test
+    public void testMergeExistingKeysOnly() {
+        TreeMap<Integer, String> map = new TreeMap<>();
+        for (int i = 0; i < 10; i++) {
+            map.put(i, "old" + i);
+        }
+        Iterator<Integer> itr = map.keySet().iterator();
+        Map<Integer, String> sorted = new LinkedHashMap<>();
+        for (int i = 2; i < 8; i++) {
+            sorted.put(i, "new" + i);
+        }
+        map.putAll(sorted);
+        /*
+         * No structural modification, the iterator is still valid.
+         */
+        Assert.assertEquals(Integer.valueOf(0), itr.next());
+        Assert.assertEquals(10, map.size());
+        Assert.assertEquals("new5", map.get(5));
+        Assert.assertEquals("old8", map.get(8));
+    }
+    
+    @Test
+    public void testUnsortedInput() {
+        TreeMap<Integer, String> map = new TreeMap<>();
+        Map<Integer, String> unsorted = new LinkedHashMap<>();
+        Random random = new Random(7);
+        for (int i = 0; i < 500; i++) {
+            int key = random.nextInt(1000);
+            unsorted.put(key, "v" + key);
+        }
+        map.putAll(unsorted);
+        assertSameMap(new java.util.TreeMap<>(unsorted), map);
+        assertModifiable(map);
+    }
+    
+    @Test
+    public void testAddAllSortedList() {
+        TreeSet<Integer> set = new TreeSet<>();
+        set.add(5);
+        set.add(500);
+        List<Integer> list = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            list.add(i * 5);
+        }
+        Assert.assertTrue(set.addAll(list));
+        Assert.assertEquals(101, set.size());
+        Assert.assertFalse(set.addAll(list));
+        Assert.assertEquals(101, set.size());
+        Assert.assertEquals(Integer.valueOf(500), set.last());
+        Assert.assertEquals(50, set.headSet(250).size());
+    }
+    
+    @Test
+    public void testEventsOfMergedMap() {
+        MATreeMap<Integer, String> map = new MATreeMap<>();
+        map.put(1, "a");
+        map.put(3, "c");
+        final StringBuilder builder = new StringBuilder();
+        map.addMapElementListener(new MapElementListener<Integer, String>() {
+            @Override
+            public void modified(MapElementEvent<Integer, String> e) throws Throwable {
+                if (e.getModificationType().contains(PropertyVersion.DETACH)) {
+                    builder.append("-").append(e.getKey(PropertyVersion.DETACH));
+                }
+                if (e.getModificationType().contains(PropertyVersion.ATTACH)) {
+                    builder.append("+").append(e.getKey(PropertyVersion.ATTACH));
+                }
+            }
+        });
+        Map<Integer, String> sorted = new LinkedHashMap<>();
+        sorted.put(1, "A");
+        sorted.put(2, "B");
+        sorted.put(4, "D");
+        map.putAll(sorted);
+        Assert.assertEquals("-1+1+2+4", builder.toString());
+        Assert.assertEquals(4, map.size());
+        Assert.assertEquals("A", map.get(1));
+        Assert.assertEquals("c", map.get(3));
+    }
+    
+    @Test
+    public void testEventsOfMergedSet() {
+        MATreeSet<Integer> set = new MATreeSet<>();
+        set.add(2);
+        final StringBuilder builder = new StringBuilder();
+        set.addElementListener(new ElementListener<Integer>() {
+            @Override
+            public void modified(ElementEvent<Integer> e) throws Throwable {
+                if (e.getModificationType().contains(PropertyVersion.ATTACH)) {
+                    builder.append("+").append(e.getElement(PropertyVersion.ATTACH));
+                }
+            }
+        });
+        List<Integer> list = new ArrayList<>();
+        list.add(1);
+        list.add(3);
+        list.add(4);
+        Assert.assertTrue(set.addAll(list));
+        Assert.assertEquals("+1+3+4", builder.toString());
+        Assert.assertEquals(4, set.size());
+    }
+    
+    private static void assertSameMap(Map<Integer, String> expected, XNavigableMap<Integer, String> actual) {
+        Assert.assertEquals(expected.size(), actual.size());
+        Iterator<Entry<Integer, String>> itr = actual.entrySet().iterator();
+        for (Entry<Integer, String> e : expected.entrySet()) {
+            Entry<Integer, String> a = itr.next();
+            Assert.assertEquals(e.getKey(), a.getKey());
+            Assert.assertEquals(e.getValue(), a.getValue());
+        }
+        Assert.assertFalse(itr.hasNext());
+    }
+    
+    /*
+     * The rebuilt tree must still be a valid red-black tree
+     * with correct subtree sizes.
+     */
+    private static void assertModifiable(XNavigableMap<Integer, String> map) {
+        NavigableMap<Integer, String> expected = new java.util.TreeMap<>(map);
+        Random random = new Random(13);
+        for (int i = 0; i < 2000; i++) {
+            int key = random.nextInt(2000);
+            if ((i & 1) == 0) {
+                expected.put(key, "x");
+                map.put(key, "x");
+            } else {
+                expected.remove(key);
+                map.remove(key);
+            }
+        }
+        assertSameMap(expected, map);
+        Assert.assertEquals(expected.headMap(1000).size(), map.headMap(1000).size());
+    }
+}
@@ -0,0 +1,196 @@
+/*
+ * BabyFish, Object Model Framework for Java and JPA.
+ * https://github.com/babyfish-ct/babyfish
+ *
+ * Copyright (c) 2008-2016, Tao Chen
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * Please visit "http://opensource.org/licenses/LGPL-3.0" to know more.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ */
+package org.babyfish.test.collection;
+
+import java.util.ConcurrentModificationException;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+import org.babyfish.collection.ArrayList;
+import org.babyfish.collection.HashMap;
+import org.babyfish.collection.LinkedHashMap;
+import org.babyfish.collection.MAHashMap;
+import org.babyfish.collection.OrderAdjustMode;
+import org.babyfish.collection.TreeMap;
+import org.babyfish.collection.XList;
+import org.babyfish.collection.XMap;
+import org.babyfish.collection.XNavigableMap;
+import org.babyfish.collection.event.MapElementEvent;
+import org.babyfish.collection.event.MapElementListener;
+import org.junit.Test;
+
+import junit.framework.Assert;
+
+/**
+ * @author Tao Chen
+ */
+public class SpliteratorTest {
+    
+    private static final int SIZE = 10000;
+
+    @Test
+    public void testHashMap() {
+        testMap(new HashMap<Integer, Integer>());
+    }
+    
+    @Test
+    public void testLinkedHashMap() {
+        testMap(new LinkedHashMap<Integer, Integer>());
+    }
+    
+    @Test
+    public void testTreeMap() {
+        testMap(new TreeMap<Integer, Integer>());
+    }
+    
+    @Test
+    public void testTreeMapSplitBySize() {
+        TreeMap<Integer, Integer> map = new TreeMap<>();
+        fill(map);
+        Spliterator<Integer> right = map.keySet().spliterator();
+        Assert.assertEquals(SIZE, right.getExactSizeIfKnown());
+        Spliterator<Integer> left = right.trySplit();
+        Assert.assertEquals(SIZE / 2, left.getExactSizeIfKnown());
+        Assert.assertEquals(SIZE / 2, right.getExactSizeIfKnown());
+        int[] first = new int[1];
+        Assert.assertTrue(right.tryAdvance(k -> first[0] = k));
+        Assert.assertEquals(SIZE / 2, first[0]);
+        
+        XNavigableMap<Integer, Integer> subMap = map.subMap(100, true, 200, false);
+        Assert.assertEquals(
+                100, 
+                StreamSupport.stream(subMap.keySet().spliterator(), true).count());
+        Assert.assertEquals(
+                subMap.keySet().stream().collect(Collectors.toList()),
+                StreamSupport.stream(subMap.keySet().spliterator(), true).collect(Collectors.toList()));
+        XNavigableMap<Integer, Integer> descendingSubMap = subMap.descendingMap();
+        Assert.assertEquals(
+                (Integer)199, 
+                StreamSupport.stream(descendingSubMap.keySet().spliterator(), true).findFirst().get());
+        Assert.assertEquals(
+                descendingSubMap.keySet().stream().collect(Collectors.toList()),
+                StreamSupport.stream(descendingSubMap.keySet().spliterator(), true).collect(Collectors.toList()));
+    }
+    
+    @Test
+    public void testArrayList() {
+        XList<Integer> list = new ArrayList<>();
+        for (int i = 0; i < SIZE; i++) {
+            list.add(i);
+        }
+        Assert.assertEquals(
+                (long)SIZE * (SIZE - 1) / 2, 
+                list.parallelStream().mapToLong(Integer::longValue).sum());
+        XList<Integer> subList = list.subList(10, 20);
+        Spliterator<Integer> spliterator = subList.spliterator();
+        Assert.assertEquals(10, spliterator.getExactSizeIfKnown());
+        Assert.assertEquals(5, spliterator.trySplit().getExactSizeIfKnown());
+        Assert.assertEquals(
+                subList.stream().collect(Collectors.toList()), 
+                subList.parallelStream().collect(Collectors.toList()));
+        try {
+            list.forEach(e -> {
+                if (e == 10) {
+                    list.remove(0);
+                }
+            });
+            Assert.fail();
+        } catch (ConcurrentModificationException ex) {
+        }
+    }
+    
+    @Test
+    public void testReplaceAllWithReplaceMode() {
+        LinkedHashMap<Integer, Integer> map = 
+                new LinkedHashMap<>(false, OrderAdjustMode.NONE, OrderAdjustMode.TAIL);
+        fill(map);
+        map.replaceAll((k, v) -> v + 1);
+        Assert.assertEquals(SIZE, map.size());
+        for (int i = 0; i < SIZE; i++) {
+            Assert.assertEquals((Integer)(i * 2 + 1), map.get(i));
+        }
+    }
+    
+    @Test
+    public void testReplaceAllAndComputeIfAbsentRaiseEvents() {
+        MAHashMap<String, Integer> map = new MAHashMap<>();
+        map.put("a", 1);
+        map.put("b", 2);
+        int[] eventCount = new int[1];
+        map.addMapElementListener(new MapElementListener<String, Integer>() {
+            @Override
+            public void modified(MapElementEvent<String, Integer> e) {
+                eventCount[0]++;
+            }
+        });
+        map.replaceAll((k, v) -> v * 10);
+        Assert.assertEquals(2, eventCount[0]);
+        Assert.assertEquals((Integer)10, map.get("a"));
+        Assert.assertEquals((Integer)20, map.get("b"));
+        
+        Assert.assertEquals((Integer)10, map.computeIfAbsent("a", k -> 100));
+        Assert.assertEquals(2, eventCount[0]);
+        Assert.assertEquals((Integer)3, map.computeIfAbsent("c", k -> 3));
+        Assert.assertEquals(3, eventCount[0]);
+        try {
+            map.computeIfAbsent("d", k -> map.put("e", 5));
+            Assert.fail();
+        } catch (ConcurrentModificationException ex) {
+        }
+        Assert.assertFalse(map.containsKey("d"));
+    }
+    
+    private static void testMap(XMap<Integer, Integer> map) {
+        fill(map);
+        long sum = (long)SIZE * (SIZE - 1) / 2;
+        Assert.assertEquals(sum, map.keySet().parallelStream().mapToLong(Integer::longValue).sum());
+        Assert.assertEquals(sum * 2, map.values().parallelStream().mapToLong(Integer::longValue).sum());
+        Assert.assertEquals(SIZE, map.keySet().parallelStream().distinct().count());
+        Assert.assertEquals(
+                map.keySet().stream().collect(Collectors.toList()),
+                map.keySet().parallelStream().collect(Collectors.toList()));
+        long[] forEachSum = new long[1];
+        map.forEach((k, v) -> forEachSum[0] += v - k);
+        Assert.assertEquals(sum, forEachSum[0]);
+        try {
+            map.forEach((k, v) -> {
+                if (k == 10) {
+                    map.remove(20);
+                }
+            });
+            Assert.fail();
+        } catch (ConcurrentModificationException ex) {
+        }
+        try {
+            map.keySet().spliterator().forEachRemaining(k -> {
+                if (k == 30) {
+                    map.put(-1, -1);
+                }
+            });
+            Assert.fail();
+        } catch (ConcurrentModificationException ex) {
+        }
+    }
+    
+    private static void fill(XMap<Integer, Integer> map) {
+        for (int i = 0; i < SIZE; i++) {
+            map.put(i, i * 2);
+        }
+    }
+}
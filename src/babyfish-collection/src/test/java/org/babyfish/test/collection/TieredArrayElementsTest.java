@@ -0,0 +1,171 @@
+/*
+ * BabyFish, Object Model Framework for Java and JPA.
+ * https://github.com/babyfish-ct/babyfish
+ *
+ * Copyright (c) 2008-2016, Tao Chen
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * Please visit "http://opensource.org/licenses/LGPL-3.0" to know more.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ */
+package org.babyfish.test.collection;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.babyfish.collection.ArrayList;
+import org.babyfish.collection.ArrayStorage;
+import org.babyfish.collection.MAArrayList;
+import org.babyfish.collection.event.ListElementEvent;
+import org.babyfish.collection.event.ListElementListener;
+import org.babyfish.data.event.PropertyVersion;
+import org.junit.Test;
+
+import junit.framework.Assert;
+
+/**
+ * @author Tao Chen
+ */
+public class TieredArrayElementsTest {
+
+    @Test
+    public void testRandomModifications() {
+        List<Integer> expected = new java.util.ArrayList<>();
+        List<Integer> list = new ArrayList<>(ArrayStorage.TIERED);
+        Random random = new Random(17);
+        for (int i = 0; i < 20000; i++) {
+            int op = random.nextInt(10);
+            if (op < 6 || expected.isEmpty()) {
+                int index = random.nextInt(expected.size() + 1);
+                expected.add(index, i);
+                list.add(index, i);
+            } else if (op < 9) {
+                int index = random.nextInt(expected.size());
+                Assert.assertEquals(expected.remove(index), list.remove(index));
+            } else {
+                int index = random.nextInt(expected.size());
+                Assert.assertEquals(expected.set(index, -i), list.set(index, -i));
+            }
+        }
+        Assert.assertEquals(expected, list);
+        
+        // Shrink the list so that the block capacity becomes smaller
+        while (expected.size() > 10) {
+            int index = random.nextInt(expected.size());
+            Assert.assertEquals(expected.remove(index), list.remove(index));
+        }
+        Assert.assertEquals(expected, list);
+    }
+    
+    @Test
+    public void testBulkModifications() {
+        List<Integer> expected = new java.util.ArrayList<>();
+        List<Integer> list = new ArrayList<>(ArrayStorage.TIERED);
+        for (int i = 0; i < 5000; i++) {
+            expected.add(i);
+            list.add(i);
+        }
+        List<Integer> values = new java.util.ArrayList<>();
+        for (int i = 0; i < 3000; i++) {
+            values.add(-i);
+        }
+        expected.addAll(2500, values);
+        list.addAll(2500, values);
+        Assert.assertEquals(expected, list);
+        expected.addAll(100, values.subList(0, 3));
+        list.addAll(100, values.subList(0, 3));
+        Assert.assertEquals(expected, list);
+        
+        expected.subList(1000, 4000).clear();
+        list.subList(1000, 4000).clear();
+        Assert.assertEquals(expected, list);
+        expected.subList(10, 12).clear();
+        list.subList(10, 12).clear();
+        Assert.assertEquals(expected, list);
+        
+        List<Integer> removed = new java.util.ArrayList<>();
+        for (int i = 0; i < 6000; i += 3) {
+            removed.add(i);
+        }
+        expected.subList(100, 3000).removeAll(removed);
+        list.subList(100, 3000).removeAll(removed);
+        Assert.assertEquals(expected, list);
+        expected.retainAll(removed);
+        list.retainAll(removed);
+        Assert.assertEquals(expected, list);
+    }
+    
+    @Test
+    public void testEvents() {
+        String expected = modifyAndLogEvents(new MAArrayList<Integer>());
+        Assert.assertEquals("+-1@50-20@20-64@64-66@66-1@1-2@2", expected);
+        Assert.assertEquals(expected, modifyAndLogEvents(new MAArrayList<Integer>(ArrayStorage.TIERED)));
+    }
+    
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testSerialization() throws IOException, ClassNotFoundException {
+        List<String> list = new ArrayList<>(ArrayStorage.TIERED);
+        for (int i = 0; i < 1000; i++) {
+            list.add(i / 2, Integer.toString(i));
+        }
+        ByteArrayOutputStream bout = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bout)) {
+            out.writeObject(list);
+        }
+        List<String> deserialized;
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bout.toByteArray()))) {
+            deserialized = (List<String>)in.readObject();
+        }
+        Assert.assertEquals(list, deserialized);
+        deserialized.add(500, "x");
+        Assert.assertEquals("x", deserialized.get(500));
+        Assert.assertEquals(1001, deserialized.size());
+    }
+    
+    private static String modifyAndLogEvents(MAArrayList<Integer> list) {
+        for (int i = 0; i < 100; i++) {
+            list.add(i);
+        }
+        final StringBuilder builder = new StringBuilder();
+        list.addListElementListener(new ListElementListener<Integer>() {
+            @Override
+            public void modified(ListElementEvent<Integer> e) throws Throwable {
+                if (e.getModificationType().contains(PropertyVersion.DETACH)) {
+                    builder
+                    .append("-")
+                    .append(e.getElement(PropertyVersion.DETACH))
+                    .append("@")
+                    .append(e.getIndex(PropertyVersion.DETACH));
+                }
+                if (e.getModificationType().contains(PropertyVersion.ATTACH)) {
+                    builder
+                    .append("+")
+                    .append(e.getElement(PropertyVersion.ATTACH))
+                    .append("@")
+                    .append(e.getIndex(PropertyVersion.ATTACH));
+                }
+            }
+        });
+        list.add(50, -1);
+        list.remove(20);
+        list.subList(60, 70).removeAll(Arrays.asList(64, 66));
+        list.subList(0, 10).retainAll(Arrays.asList(0, 3, 4, 5, 6, 7, 8, 9));
+        Assert.assertEquals(Integer.valueOf(-1), list.get(47));
+        Assert.assertEquals(96, list.size());
+        return builder.toString();
+    }
+}
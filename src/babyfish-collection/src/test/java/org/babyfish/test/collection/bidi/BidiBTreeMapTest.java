@@ -0,0 +1,40 @@
+/*
+ * BabyFish, Object Model Framework for Java and JPA.
+ * https://github.com/babyfish-ct/babyfish
+ *
+ * Copyright (c) 2008-2016, Tao Chen
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * Please visit "http://opensource.org/licenses/LGPL-3.0" to know more.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ */
+package org.babyfish.test.collection.bidi;
+
+import java.util.Map;
+
+import org.babyfish.collection.BidiType;
+import org.babyfish.collection.TreeMap;
+import org.babyfish.collection.ReplacementRule;
+import org.babyfish.collection.TreeStorage;
+import org.babyfish.collection.UnifiedComparator;
+
+public class BidiBTreeMapTest extends AbstractBidiMapTest {
+
+    @Override
+    protected Map<String, Unstable> createBidiMap() {
+        return new TreeMap<>(
+                TreeStorage.B_TREE,
+                BidiType.NONNULL_VALUES, 
+                ReplacementRule.NEW_REFERENCE_WIN,
+                null, 
+                UnifiedComparator.of(Unstable.COMPARATOR)
+        );
+    }
+}
@@ -0,0 +1,265 @@
+/*
+ * BabyFish, Object Model Framework for Java and JPA.
+ * https://github.com/babyfish-ct/babyfish
+ *
+ * Copyright (c) 2008-2016, Tao Chen
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * Please visit "http://opensource.org/licenses/LGPL-3.0" to know more.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ */
+package org.babyfish.test.collection.concurrent;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.babyfish.collection.concurrent.CacheStats;
+import org.babyfish.collection.concurrent.ConcurrentCache;
+import org.babyfish.collection.concurrent.ReferenceType;
+import org.junit.Test;
+
+import junit.framework.Assert;
+
+/**
+ * @author Tao Chen
+ */
+public class ConcurrentCacheTest {
+
+    @Test
+    public void testGetIfPresentAndPut() {
+        ConcurrentCache<String, Integer> cache = new ConcurrentCache<>();
+        Assert.assertNull(cache.getIfPresent("a"));
+        cache.put("a", 1);
+        cache.put("b", 2);
+        Assert.assertEquals((Integer)1, cache.getIfPresent("a"));
+        cache.put("a", 3);
+        Assert.assertEquals((Integer)3, cache.getIfPresent("a"));
+        cache.invalidate("a");
+        Assert.assertNull(cache.getIfPresent("a"));
+        Assert.assertEquals(1, cache.estimatedSize());
+        CacheStats stats = cache.stats();
+        Assert.assertEquals(2, stats.getHitCount());
+        Assert.assertEquals(2, stats.getMissCount());
+        Assert.assertEquals(.5D, stats.getHitRate());
+        cache.invalidateAll();
+        Assert.assertEquals(0, cache.estimatedSize());
+    }
+    
+    @Test
+    public void testLoad() {
+        ConcurrentCache<String, Integer> cache = new ConcurrentCache<>(16);
+        Assert.assertEquals((Integer)3, cache.get("abc", String::length));
+        Assert.assertEquals((Integer)3, cache.get("abc", k -> { throw new AssertionError(); }));
+        Assert.assertNull(cache.get("null", k -> null));
+        Assert.assertNull(cache.getIfPresent("null"));
+        try {
+            cache.get("error", k -> { throw new IllegalArgumentException(k); });
+            Assert.fail();
+        } catch (IllegalArgumentException ex) {
+            Assert.assertEquals("error", ex.getMessage());
+        }
+        Assert.assertEquals((Integer)5, cache.get("error", String::length));
+        CacheStats stats = cache.stats();
+        Assert.assertEquals(1, stats.getHitCount());
+        Assert.assertEquals(5, stats.getMissCount());
+        Assert.assertEquals(2, stats.getLoadSuccessCount());
+        Assert.assertEquals(2, stats.getLoadFailureCount());
+    }
+    
+    @Test
+    public void testRecursiveLoad() {
+        ConcurrentCache<Integer, Integer> cache = new ConcurrentCache<>();
+        Assert.assertEquals((Integer)55, fibonacci(cache, 10));
+        Assert.assertEquals(11, cache.stats().getLoadSuccessCount());
+        try {
+            cache.get(100, k -> cache.get(100, k2 -> 0));
+            Assert.fail();
+        } catch (IllegalStateException ex) {
+            // Expected
+        }
+        Assert.assertEquals((Integer)0, cache.get(100, k -> 0));
+    }
+    
+    @Test
+    public void testSingleFlight() throws InterruptedException {
+        ConcurrentCache<String, String> cache = new ConcurrentCache<>();
+        AtomicInteger loadCount = new AtomicInteger();
+        CountDownLatch startLatch = new CountDownLatch(1);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread[] threads = new Thread[8];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(() -> {
+                try {
+                    startLatch.await();
+                    String value = cache.get("key", k -> {
+                        loadCount.incrementAndGet();
+                        try {
+                            Thread.sleep(50);
+                        } catch (InterruptedException ex) {
+                            throw new RuntimeException(ex);
+                        }
+                        return "value";
+                    });
+                    Assert.assertEquals("value", value);
+                } catch (Throwable ex) {
+                    failure.compareAndSet(null, ex);
+                }
+            });
+            threads[i].start();
+        }
+        startLatch.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        if (failure.get() != null) {
+            throw new AssertionError(failure.get());
+        }
+        Assert.assertEquals(1, loadCount.get());
+        CacheStats stats = cache.stats();
+        Assert.assertEquals(1, stats.getLoadSuccessCount());
+        Assert.assertEquals(1, stats.getMissCount());
+        Assert.assertEquals(threads.length - 1, stats.getHitCount());
+    }
+    
+    @Test
+    public void testInvalidateWhileLoading() throws InterruptedException {
+        ConcurrentCache<String, String> cache = new ConcurrentCache<>(2);
+        CountDownLatch loadingLatch = new CountDownLatch(1);
+        CountDownLatch invalidatedLatch = new CountDownLatch(1);
+        AtomicReference<Object> result = new AtomicReference<>();
+        Thread thread = new Thread(() -> {
+            try {
+                result.set(cache.get("a", k -> {
+                    loadingLatch.countDown();
+                    try {
+                        invalidatedLatch.await();
+                    } catch (InterruptedException ex) {
+                        throw new RuntimeException(ex);
+                    }
+                    return "A";
+                }));
+            } catch (Throwable ex) {
+                result.set(ex);
+            }
+        });
+        thread.start();
+        loadingLatch.await();
+        cache.invalidate("a");
+        invalidatedLatch.countDown();
+        thread.join();
+        Assert.assertEquals("A", result.get());
+        Assert.assertNull(cache.getIfPresent("a"));
+        Assert.assertEquals(0, cache.estimatedSize());
+        
+        cache.put("b", "B");
+        cache.put("c", "C");
+        cache.cleanUp();
+        Assert.assertEquals("B", cache.getIfPresent("b"));
+        Assert.assertEquals("C", cache.getIfPresent("c"));
+        Assert.assertEquals(0, cache.stats().getEvictionCount());
+    }
+    
+    @Test
+    public void testEviction() {
+        ConcurrentCache<Integer, Integer> cache = new ConcurrentCache<>(100);
+        for (int i = 0; i < 1000; i++) {
+            cache.put(i, i);
+        }
+        cache.cleanUp();
+        Assert.assertEquals(100, cache.estimatedSize());
+        Assert.assertEquals(900, cache.stats().getEvictionCount());
+    }
+    
+    @Test
+    public void testFrequentEntriesSurviveScan() {
+        ConcurrentCache<Integer, Integer> cache = new ConcurrentCache<>(100);
+        for (int round = 0; round < 10; round++) {
+            for (int i = 0; i < 50; i++) {
+                cache.get(i, k -> k);
+            }
+        }
+        for (int i = 0; i < 10000; i++) {
+            cache.get(1000 + i, k -> k);
+            cache.get(i % 50, k -> k);
+        }
+        cache.cleanUp();
+        int hotCount = 0;
+        for (int i = 0; i < 50; i++) {
+            if (cache.getIfPresent(i) != null) {
+                hotCount++;
+            }
+        }
+        Assert.assertEquals(50, hotCount);
+        Assert.assertEquals(100, cache.estimatedSize());
+    }
+    
+    @Test
+    public void testWeigher() {
+        ConcurrentCache<String, String> cache = 
+                new ConcurrentCache.Builder<String, String>()
+                .setMaxSize(100)
+                .setWeigher((k, v) -> v.length())
+                .build();
+        for (int i = 0; i < 100; i++) {
+            cache.put("key-" + i, "0123456789");
+        }
+        cache.cleanUp();
+        Assert.assertEquals(10, cache.estimatedSize());
+        cache.put("key-big", new String(new char[100]));
+        cache.cleanUp();
+        Assert.assertTrue(cache.estimatedSize() <= 10);
+    }
+    
+    @Test
+    public void testWeakKeys() throws InterruptedException {
+        ConcurrentCache<String, Integer> cache = 
+                new ConcurrentCache.Builder<String, Integer>()
+                .setKeyReferenceType(ReferenceType.WEAK)
+                .build();
+        String key = new String("key");
+        String garbageKey = new String("garbage");
+        cache.put(key, 1);
+        cache.put(garbageKey, 2);
+        Assert.assertEquals((Integer)1, cache.getIfPresent(new String("key")));
+        Assert.assertEquals((Integer)2, cache.getIfPresent("garbage"));
+        garbageKey = null;
+        for (int i = 0; i < 100 && cache.estimatedSize() != 1; i++) {
+            System.gc();
+            Thread.sleep(10);
+            cache.cleanUp();
+        }
+        Assert.assertEquals(1, cache.estimatedSize());
+        Assert.assertEquals((Integer)1, cache.getIfPresent(key));
+    }
+    
+    @Test
+    public void testWeakValues() throws InterruptedException {
+        ConcurrentCache<String, Object> cache = 
+                new ConcurrentCache.Builder<String, Object>()
+                .setValueReferenceType(ReferenceType.WEAK)
+                .build();
+        Object value = new Object();
+        cache.put("a", value);
+        cache.put("b", new Object());
+        for (int i = 0; i < 100 && cache.estimatedSize() != 1; i++) {
+            System.gc();
+            Thread.sleep(10);
+            cache.cleanUp();
+        }
+        Assert.assertEquals(1, cache.estimatedSize());
+        Assert.assertSame(value, cache.getIfPresent("a"));
+        Assert.assertNull(cache.getIfPresent("b"));
+    }
+    
+    private static Integer fibonacci(ConcurrentCache<Integer, Integer> cache, int n) {
+        return cache.get(n, k -> k < 2 ? k : fibonacci(cache, k - 1) + fibonacci(cache, k - 2));
+    }
+}
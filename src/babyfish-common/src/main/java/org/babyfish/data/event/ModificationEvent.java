@@ -38,8 +38,20 @@ public abstract class ModificationEvent extends EventObject {
     
     private Cause cause;
     
+    /*
+     * Most events are bubbled to or dispatched to only one object, so the first
+     * one is kept inline and the map is created only for the others.
+     */
+    private Object bubbledSource;
+    
+    private ModificationEvent bubbledEvent;
+    
     private IdentityHashMap<Object, ModificationEvent> bubbledEventMap;
     
+    private Object dispatchedSource;
+    
+    private ModificationEvent dispatchedEvent;
+    
     private IdentityHashMap<Object, ModificationEvent> dispatchedEventMap;
     
     private EventAttributeContext localAttributeContext;
@@ -61,9 +73,6 @@ public abstract class ModificationEvent extends EventObject {
         this.eventType = EventType.PROTOSOMATIC;
         this.modification = modification;
         
-        this.localAttributeContext = EventAttributeContext.of(AttributeScope.LOCAL);
-        this.bubbleChainAttributeContext = EventAttributeContext.of(AttributeScope.IN_BUBBLE_CHAIN);
-        this.dispatchChainAttributeContext = EventAttributeContext.of(AttributeScope.IN_DISPATCH_CHAIN);
         this.allChianAttributeContext = EventAttributeContext.of(AttributeScope.IN_ALL_CHAIN);
         this.globalAttributeContext = modification.getAttributeContext();
     }
@@ -75,16 +84,19 @@ public abstract class ModificationEvent extends EventObject {
         this.cause = cause;
         
         ModificationEvent target = (ModificationEvent)cause.getViewEvent();
-        IdentityHashMap<Object, ModificationEvent> map = target.bubbledEventMap;
-        if (map == null) {
-            map = new IdentityHashMap<>();
-            target.bubbledEventMap = map;
+        if (target.bubbledSource == null || target.bubbledSource == source) {
+            target.bubbledSource = source;
+            target.bubbledEvent = this;
+        } else {
+            IdentityHashMap<Object, ModificationEvent> map = target.bubbledEventMap;
+            if (map == null) {
+                map = new IdentityHashMap<>();
+                target.bubbledEventMap = map;
+            }
+            map.put(source, this);
         }
-        map.put(source, this);
         
-        this.localAttributeContext = EventAttributeContext.of(AttributeScope.LOCAL);
         this.bubbleChainAttributeContext = target.getAttributeContext(AttributeScope.IN_BUBBLE_CHAIN);
-        this.dispatchChainAttributeContext = EventAttributeContext.of(AttributeScope.IN_DISPATCH_CHAIN);
         this.allChianAttributeContext = target.getAttributeContext(AttributeScope.IN_ALL_CHAIN);
         this.globalAttributeContext = target.getAttributeContext(AttributeScope.GLOBAL);
     }
@@ -96,15 +108,18 @@ public abstract class ModificationEvent extends EventObject {
         this.eventType = EventType.DISPATCHED;
         this.modification = target.modification;
         
-        IdentityHashMap<Object, ModificationEvent> map = target.dispatchedEventMap;
-        if (map == null) {
-            map = new IdentityHashMap<>();
-            target.dispatchedEventMap = map;
+        if (target.dispatchedSource == null || target.dispatchedSource == source) {
+            target.dispatchedSource = source;
+            target.dispatchedEvent = this;
+        } else {
+            IdentityHashMap<Object, ModificationEvent> map = target.dispatchedEventMap;
+            if (map == null) {
+                map = new IdentityHashMap<>();
+                target.dispatchedEventMap = map;
+            }
+            map.put(source, this);
         }
-        map.put(source, this);
         
-        this.localAttributeContext = EventAttributeContext.of(AttributeScope.LOCAL);
-        this.bubbleChainAttributeContext = EventAttributeContext.of(AttributeScope.IN_BUBBLE_CHAIN);
         this.dispatchChainAttributeContext = target.getAttributeContext(AttributeScope.IN_DISPATCH_CHAIN);
         this.allChianAttributeContext = target.getAttributeContext(AttributeScope.IN_ALL_CHAIN);
         this.globalAttributeContext = target.getAttributeContext(AttributeScope.GLOBAL);
@@ -142,6 +157,9 @@ public abstract class ModificationEvent extends EventObject {
 
     @SuppressWarnings("unchecked")
     public <E extends ModificationEvent> E getBubbledEvent(Object source) {
+        if (this.bubbledSource == source) {
+            return (E)this.bubbledEvent;
+        }
         Map<Object, ModificationEvent> map = this.bubbledEventMap;
         if (map == null) {
             return null;
@@ -151,6 +169,9 @@ public abstract class ModificationEvent extends EventObject {
 
     @SuppressWarnings("unchecked")
     public <E extends ModificationEvent> E getDispatchedEvent(Object source) {
+        if (this.dispatchedSource == source) {
+            return (E)this.dispatchedEvent;
+        }
         Map<Object, ModificationEvent> map = this.dispatchedEventMap;
         if (map == null) {
             return null;
@@ -165,11 +186,26 @@ public abstract class ModificationEvent extends EventObject {
         case IN_ALL_CHAIN:
             return this.allChianAttributeContext;
         case IN_DISPATCH_CHAIN:
-            return this.dispatchChainAttributeContext;
+            EventAttributeContext dispatchChainAttributeContext = this.dispatchChainAttributeContext;
+            if (dispatchChainAttributeContext == null) {
+                this.dispatchChainAttributeContext = dispatchChainAttributeContext =
+                        EventAttributeContext.of(AttributeScope.IN_DISPATCH_CHAIN);
+            }
+            return dispatchChainAttributeContext;
         case IN_BUBBLE_CHAIN:
-            return this.bubbleChainAttributeContext;
+            EventAttributeContext bubbleChainAttributeContext = this.bubbleChainAttributeContext;
+            if (bubbleChainAttributeContext == null) {
+                this.bubbleChainAttributeContext = bubbleChainAttributeContext =
+                        EventAttributeContext.of(AttributeScope.IN_BUBBLE_CHAIN);
+            }
+            return bubbleChainAttributeContext;
         default:
-            return this.localAttributeContext;
+            EventAttributeContext localAttributeContext = this.localAttributeContext;
+            if (localAttributeContext == null) {
+                this.localAttributeContext = localAttributeContext =
+                        EventAttributeContext.of(AttributeScope.LOCAL);
+            }
+            return localAttributeContext;
         }
     }
 
@@ -33,6 +33,16 @@ public abstract class AbstractCombinedDelegate {
         this.delegateCount = delegateCount;
     }
     
+    /**
+     * Returns the copy of the combined delegates, it is used by the frameworks 
+     * that flatten the combined delegate into their own dispatching structures.
+     */
+    public final Object[] getCombinedDelegates() {
+        Object[] arr = new Object[this.delegateCount];
+        System.arraycopy(this.delegates, 0, arr, 0, arr.length);
+        return arr;
+    }
+    
     @Override
     public String toString() {
         StringBuilder builder = new StringBuilder();
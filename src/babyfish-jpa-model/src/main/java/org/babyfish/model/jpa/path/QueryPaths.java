@@ -19,11 +19,6 @@ package org.babyfish.model.jpa.path;
 
 import java.io.Serializable;
 import java.util.List;
-import java.util.Map;
-import java.util.WeakHashMap;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import org.antlr.v4.runtime.ANTLRInputStream;
 import org.antlr.v4.runtime.BaseErrorListener;
@@ -32,10 +27,9 @@ import org.antlr.v4.runtime.RecognitionException;
 import org.antlr.v4.runtime.Recognizer;
 import org.antlr.v4.runtime.Token;
 import org.babyfish.collection.ArrayList;
-import org.babyfish.collection.LinkedHashMap;
 import org.babyfish.collection.MACollections;
-import org.babyfish.collection.OrderAdjustMode;
-import org.babyfish.collection.XOrderedMap;
+import org.babyfish.collection.concurrent.ConcurrentCache;
+import org.babyfish.collection.concurrent.ReferenceType;
 import org.babyfish.lang.Arguments;
 import org.babyfish.lang.Nulls;
 import org.babyfish.model.jpa.path.FetchPath.Builder;
@@ -55,22 +49,17 @@ import org.babyfish.model.jpa.path.spi.QueryPathParser.SingleOrderPathContext;
  */
 public class QueryPaths {
     
-    private static final Map<String, List<QueryPath>> LEVEL_ONE_CACHE = new WeakHashMap<>();
+    private static final ConcurrentCache<String, List<QueryPath>> LEVEL_ONE_CACHE = 
+            new ConcurrentCache.Builder<String, List<QueryPath>>()
+            .setKeyReferenceType(ReferenceType.WEAK)
+            .build();
     
     private static final int LEVEL_2_CACHE_MAX_SIZE = 512;
     
     private static final QueryPath[] EMPTY_QUERY_PATHS = new QueryPath[0];
     
-    private static final XOrderedMap<String, List<QueryPath>> LEVEL_TWO_CACHE = 
-            new LinkedHashMap<>(
-                    (LEVEL_2_CACHE_MAX_SIZE * 4 + 2) / 3, 
-                    .75F, 
-                    false, 
-                    OrderAdjustMode.NEXT, 
-                    OrderAdjustMode.NEXT
-            );
-            
-    private static final ReadWriteLock CACHE_LOCK = new ReentrantReadWriteLock();
+    private static final ConcurrentCache<String, List<QueryPath>> LEVEL_TWO_CACHE = 
+            new ConcurrentCache<>(LEVEL_2_CACHE_MAX_SIZE);
 
     protected QueryPaths() {
         throw new UnsupportedOperationException();
@@ -180,55 +169,33 @@ public class QueryPaths {
     }
     
     private static List<QueryPath> compileViaCache(String queryPath) {
-        
-        Lock lock;
-        List<QueryPath> compileResult;
-        
-        (lock = CACHE_LOCK.readLock()).lock(); //1st locking
-        try {
-            compileResult = LEVEL_ONE_CACHE.get(queryPath); //1st level-1 reading
-            if (compileResult == null) { //1st level-1 checking
-                compileResult = LEVEL_TWO_CACHE.access(queryPath); //1st level-2 reading
-            }
-        } finally {
-            lock.unlock();
-        }
-        
-        if (compileResult == null) { //1st level-2 checking
-            (lock = CACHE_LOCK.writeLock()).lock(); //2nd locking
-            try {
-                compileResult = LEVEL_ONE_CACHE.get(queryPath); //2nd level-1 reading
-                if (compileResult == null) { //2nd level-1 checking
-                    compileResult = LEVEL_TWO_CACHE.access(queryPath); //2nd level-2 reading
-                    if (compileResult == null) { //2nd level-2 checking
-                        ANTLRInputStream input = new ANTLRInputStream(queryPath);
-                        QueryPathLexer lexer = new QueryPathLexer(input);
-                        CommonTokenStream tokens = new CommonTokenStream(lexer);
-                        QueryPathParser parser = new QueryPathParser(tokens);
-                        QueryPathErrorListener queryPathErrorListener = new QueryPathErrorListener();
-                        lexer.removeErrorListeners();
-                        lexer.addErrorListener(queryPathErrorListener);
-                        parser.removeErrorListeners();
-                        parser.addErrorListener(queryPathErrorListener);
-                        VisitorImpl visitor = new VisitorImpl();
-                        parser.main().accept(visitor);
-                        compileResult = visitor.getQueryPaths();
-                        
-                        //save to level-2 cache
-                        for (int i = LEVEL_TWO_CACHE.size() - LEVEL_2_CACHE_MAX_SIZE; i >= 0; i--) {
-                            LEVEL_TWO_CACHE.pollFirstEntry();
-                        }
-                        LEVEL_TWO_CACHE.put(queryPath, compileResult);
-                    }
-                    //save to level-1 cache
-                    LEVEL_ONE_CACHE.put(queryPath, compileResult);
-                }
-            } finally {
-                lock.unlock();
-            }
+        List<QueryPath> compileResult = LEVEL_ONE_CACHE.getIfPresent(queryPath); //level-1 reading
+        if (compileResult == null) {
+            /*
+             * level-2 reading, only one thread compiles the missed query path,
+             * the cold entries are evicted when it is full
+             */
+            compileResult = LEVEL_TWO_CACHE.get(queryPath, QueryPaths::compileWithoutCache);
+            //save to level-1 cache
+            LEVEL_ONE_CACHE.put(queryPath, compileResult);
         }
         return compileResult;
     }
+    
+    private static List<QueryPath> compileWithoutCache(String queryPath) {
+        ANTLRInputStream input = new ANTLRInputStream(queryPath);
+        QueryPathLexer lexer = new QueryPathLexer(input);
+        CommonTokenStream tokens = new CommonTokenStream(lexer);
+        QueryPathParser parser = new QueryPathParser(tokens);
+        QueryPathErrorListener queryPathErrorListener = new QueryPathErrorListener();
+        lexer.removeErrorListeners();
+        lexer.addErrorListener(queryPathErrorListener);
+        parser.removeErrorListeners();
+        parser.addErrorListener(queryPathErrorListener);
+        VisitorImpl visitor = new VisitorImpl();
+        parser.main().accept(visitor);
+        return visitor.getQueryPaths();
+    }
 
     public static boolean isStandard(QueryPath queryPath) {
         if (queryPath == null) {
@@ -36,16 +36,14 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
-import java.util.WeakHashMap;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import org.babyfish.collection.HashMap;
 import org.babyfish.collection.HashSet;
 import org.babyfish.collection.LinkedHashMap;
 import org.babyfish.collection.LinkedHashSet;
 import org.babyfish.collection.MACollections;
+import org.babyfish.collection.concurrent.ConcurrentCache;
+import org.babyfish.collection.concurrent.ReferenceType;
 import org.babyfish.lang.Arguments;
 import org.babyfish.lang.I18N;
 import org.babyfish.lang.Ref;
@@ -66,9 +64,11 @@ public final class ClassInfo<T> implements AnnotatedElement {
     
     private static final Map<Class<?>, Class<?>> BOX_PRIMITIVE_MAP;
     
-    private static final Map<Class<?>, WeakHashMap<Type, SoftReference<ClassInfo<?>>>> CACHE = new WeakHashMap<>();
-    
-    private static final ReadWriteLock CACHE_LOCK = new ReentrantReadWriteLock();
+    private static final ConcurrentCache<Type, ClassInfo<?>> CACHE =
+            new ConcurrentCache.Builder<Type, ClassInfo<?>>()
+            .setKeyReferenceType(ReferenceType.WEAK)
+            .setValueReferenceType(ReferenceType.SOFT)
+            .build();
     
     public static final GraphTraveler<ClassInfo<?>> MINIMUM_TRAVELER =
         new GraphTraveler<ClassInfo<?>>() {
@@ -310,56 +310,14 @@ public final class ClassInfo<T> implements AnnotatedElement {
             Map<Type, ClassInfo<?>> contextMap, 
             ClassInfo<?> declaringClass,
             GenericResolver genericResolver) {
-        Class<?> clazz = genericResolver.getRawClass();
-        Type type = genericResolver.rawTypeForClassInfo;
-        ClassInfo<?> classInfo = null;
-        WeakHashMap<Type, SoftReference<ClassInfo<?>>> map;
-        Lock lock;
-        
-        (lock = CACHE_LOCK.readLock()).lock();
-        try {
-            // 1st reading in read lock.
-            map = CACHE.get(clazz);
-            if (map != null) {
-                SoftReference<ClassInfo<?>> softReference = map.get(type);
-                if (softReference != null) {
-                    classInfo = softReference.get();
-                }
-            }
-        } finally {
-            lock.unlock();
-        }
-        
-        // 1st checking
-        if (classInfo == null) {
-            (lock = CACHE_LOCK.writeLock()).lock();
-            try {
-                //2nd reading in write lock
-                map = CACHE.get(clazz);
-                if (map != null) {
-                    SoftReference<ClassInfo<?>> softReference = map.get(type);
-                    if (softReference != null) {
-                        classInfo = softReference.get();
-                    }
-                }
-                //2nd checking
-                if (classInfo == null) {
-                    classInfo = contextMap.get(type);
-                    if (classInfo == null) {
-                        classInfo = new ClassInfo<Object>(contextMap, declaringClass, genericResolver);
-                        contextMap.put(type, classInfo);
-                    }
-                    if (map == null) {
-                        map = new WeakHashMap<>();
-                    }
-                    map.put(type, new SoftReference<ClassInfo<?>>(classInfo));
-                    CACHE.put(clazz, map);
-                }
-            } finally {
-                lock.unlock();
+        return CACHE.get(genericResolver.rawTypeForClassInfo, type -> {
+            ClassInfo<?> classInfo = contextMap.get(type);
+            if (classInfo == null) {
+                classInfo = new ClassInfo<Object>(contextMap, declaringClass, genericResolver);
+                contextMap.put(type, classInfo);
             }
-        }
-        return (ClassInfo<?>)classInfo;
+            return classInfo;
+        });
     }
     
     public static Class<?> forName(String className) {
@@ -34,10 +34,6 @@ import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.WeakHashMap;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.function.Consumer;
 
 import org.babyfish.collection.ArrayList;
@@ -48,6 +44,8 @@ import org.babyfish.collection.MACollections;
 import org.babyfish.collection.OrderAdjustMode;
 import org.babyfish.collection.XMap;
 import org.babyfish.collection.XOrderedMap;
+import org.babyfish.collection.concurrent.ConcurrentCache;
+import org.babyfish.collection.concurrent.ReferenceType;
 import org.babyfish.lang.Arguments;
 import org.babyfish.lang.I18N;
 import org.babyfish.lang.IllegalProgramException;
@@ -88,9 +86,10 @@ import org.babyfish.util.reflect.NoSuchClassException;
  */
 public abstract class ClassEnhancer {
     
-    private static final Map<Class<?>, ClassEnhancer> CACHE = new WeakHashMap<>();
-    
-    private static final ReadWriteLock CACHE_LOCK = new ReentrantReadWriteLock();
+    private static final ConcurrentCache<Class<?>, ClassEnhancer> CACHE =
+            new ConcurrentCache.Builder<Class<?>, ClassEnhancer>()
+            .setKeyReferenceType(ReferenceType.WEAK)
+            .build();
     
     private Class<?> clazz;
     
@@ -109,35 +108,14 @@ public abstract class ClassEnhancer {
     
     @SuppressWarnings("unchecked")
     protected static <T extends ClassEnhancer> T getInstance(Class<T> enhancerClass) {
-        
-        Lock lock;
-        ClassEnhancer classEnhancer;
-        
-        (lock = CACHE_LOCK.readLock()).lock(); //1st locking
-        try {
-            classEnhancer = CACHE.get(enhancerClass); //1st reading
-        } finally {
-            lock.unlock();
-        }
-        
-        if (classEnhancer == null) {
-            (lock = CACHE_LOCK.writeLock()).lock(); //2nd locking
-            try {
-                classEnhancer = CACHE.get(enhancerClass); //2nd reading
-                if (classEnhancer == null) {
-                    ClassEnhancer instance = getInstance0(enhancerClass);
-                    Context context = instance.new Context();
-                    instance.resultClassName = context.newClassName;
-                    instance.resultInternalName = context.newInternalName;
-                    instance.resultClass = context.getResultClass();
-                    classEnhancer = instance;
-                    CACHE.put(enhancerClass, classEnhancer);
-                }
-            } finally {
-                lock.unlock();
-            }
-        }
-        return (T)classEnhancer;
+        return (T)CACHE.get(enhancerClass, k -> {
+            ClassEnhancer instance = getInstance0(enhancerClass);
+            Context context = instance.new Context();
+            instance.resultClassName = context.newClassName;
+            instance.resultInternalName = context.newInternalName;
+            instance.resultClass = context.getResultClass();
+            return instance;
+        });
     }
     
     protected final Class<?> getOriginalClass() {
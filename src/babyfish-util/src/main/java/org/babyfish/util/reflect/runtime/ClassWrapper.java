@@ -26,14 +26,12 @@ import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.WeakHashMap;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.function.BiFunction;
 
 import org.babyfish.collection.LinkedHashSet;
 import org.babyfish.collection.MACollections;
+import org.babyfish.collection.concurrent.ConcurrentCache;
+import org.babyfish.collection.concurrent.ReferenceType;
 import org.babyfish.lang.Arguments;
 import org.babyfish.lang.I18N;
 import org.babyfish.lang.IllegalProgramException;
@@ -50,9 +48,10 @@ import org.babyfish.util.reflect.MethodImplementation;
  */
 public abstract class ClassWrapper {
     
-    private static final Map<Class<?>, ClassWrapper> CACHE = new WeakHashMap<>();
-    
-    private static final ReadWriteLock CACHE_LOCK = new ReentrantReadWriteLock();
+    private static final ConcurrentCache<Class<?>, ClassWrapper> CACHE =
+            new ConcurrentCache.Builder<Class<?>, ClassWrapper>()
+            .setKeyReferenceType(ReferenceType.WEAK)
+            .build();
     
     protected static final String RAW = "{raw}";
     
@@ -201,31 +200,7 @@ public abstract class ClassWrapper {
     
     @SuppressWarnings("unchecked")
     protected static <T extends ClassWrapper> T getInstance(Class<T> wrapperClass) {
-        
-        Lock lock;
-        ClassWrapper classWrapper;
-        
-        (lock = CACHE_LOCK.readLock()).lock(); //1st locking
-        try {
-            classWrapper = CACHE.get(wrapperClass); //1st reading
-        } finally {
-            lock.unlock();
-        }
-        
-        if (classWrapper == null) {
-            (lock = CACHE_LOCK.writeLock()).lock(); //2nd locking
-            try {
-                classWrapper = CACHE.get(wrapperClass); //2nd reading
-                if (classWrapper == null) {
-                    ClassWrapper instance = getInstance0(wrapperClass);
-                    classWrapper = instance;
-                    CACHE.put(wrapperClass, classWrapper);
-                }
-            } finally {
-                lock.unlock();
-            }
-        }
-        return (T)classWrapper;
+        return (T)CACHE.get(wrapperClass, k -> getInstance0(wrapperClass));
     }
     
     private static ClassWrapper getInstance0(Class<? extends ClassWrapper> wrapperClass) {